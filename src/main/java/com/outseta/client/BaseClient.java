@@ -1,17 +1,50 @@
 package com.outseta.client;
 
+import com.outseta.client_helper.caching.EntityCache;
+import com.outseta.client_helper.circuit_breaker.CircuitBreaker;
+import com.outseta.client_helper.circuit_breaker.CircuitBreakerRegistry;
+import com.outseta.client_helper.coalescing.RequestCoalescer;
+import com.outseta.client_helper.hedging.Hedger;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
+import com.outseta.client_helper.request_maker.BytePayloadRequestMaker;
+import com.outseta.client_helper.request_maker.ConnectionPoolStats;
+import com.outseta.client_helper.request_maker.Deadline;
+import com.outseta.client_helper.request_maker.HeaderSnapshot;
+import com.outseta.client_helper.request_maker.PooledRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
+import com.outseta.client_helper.request_maker.RequestMakerDecorator;
+import com.outseta.client_helper.request_maker.ResponseStream;
+import com.outseta.client_helper.request_maker.ResponseThreads;
+import com.outseta.client_helper.request_maker.StreamingRequestMaker;
+import com.outseta.client_helper.request_maker.TransferStats;
+import com.outseta.client_helper.warm_up.WarmUpReport;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidRequestMakerException;
 import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.OutsetaParseException;
 import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
 import com.outseta.exception.api_exception.OutsetaAPIFailedException;
 import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaCircuitOpenException;
+import com.outseta.exception.api_exception.OutsetaDeadlineExceededException;
 import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import com.outseta.model.DataComponent;
+import com.outseta.model.result.ItemPage;
 
+import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * This class is the base class for all Outseta clients.
@@ -23,9 +56,123 @@ import java.util.Map;
 public class BaseClient {
 
     /**
-     * The headers to be used for all requests.
+     * This interface is used to convert the body of a response to the
+     * result of an asynchronous call.
+     * @param <T> The type of the result.
      */
-    private final Map<String, String> headers;
+    @FunctionalInterface
+    protected interface ResponseParser<T> {
+
+        /**
+         * This method converts the body of a response.
+         * @param response The body of the response.
+         * @return The result.
+         * @throws OutsetaParseException If the body cannot be parsed.
+         */
+        T parse(String response) throws OutsetaParseException;
+    }
+
+    /**
+     * This interface is used to convert the body of a response to the
+     * result of a call while the body is read from the connection.
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    private interface StreamParser<T> {
+
+        /**
+         * This method converts a body.
+         * @param body The body of the response.
+         * @return The result.
+         * @throws OutsetaParseException If the body cannot be parsed.
+         */
+        T parse(InputStream body) throws OutsetaParseException;
+    }
+
+    /**
+     * This interface is used to send a blocking request.
+     * @param <T> The type of the response.
+     */
+    @FunctionalInterface
+    private interface Call<T> {
+
+        /**
+         * This method sends the request.
+         * @return The response from the request.
+         * @throws OutsetaInvalidResponseCodeException If the response code
+         *      is invalid.
+         * @throws OutsetaAPIBadRequestException If the request was bad.
+         * @throws OutsetaAPIFailedException If the request failed.
+         * @throws OutsetaAPIUnknownException If the request failed for an
+         *      unknown reason.
+         * @throws OutsetaInvalidURLException If the url is invalid.
+         */
+        T call() throws OutsetaInvalidResponseCodeException,
+                OutsetaAPIBadRequestException,
+                OutsetaAPIFailedException,
+                OutsetaAPIUnknownException,
+                OutsetaInvalidURLException;
+    }
+
+    /**
+     * This interface is used to send a blocking get request and parse its
+     * response.
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    private interface Fetch<T> {
+
+        /**
+         * This method sends the request and parses the response.
+         * @return The parsed response.
+         * @throws OutsetaInvalidResponseCodeException If the response code
+         *      is invalid.
+         * @throws OutsetaAPIBadRequestException If the request was bad.
+         * @throws OutsetaAPIFailedException If the request failed.
+         * @throws OutsetaAPIUnknownException If the request failed for an
+         *      unknown reason.
+         * @throws OutsetaInvalidURLException If the url is invalid.
+         * @throws OutsetaParseException If the response cannot be parsed.
+         */
+        T fetch() throws OutsetaInvalidResponseCodeException,
+                OutsetaAPIBadRequestException,
+                OutsetaAPIFailedException,
+                OutsetaAPIUnknownException,
+                OutsetaInvalidURLException,
+                OutsetaParseException;
+    }
+
+    /**
+     * The response code of an entity that does not exist.
+     */
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * The parameters of a request that has none. The map is shared by all
+     * requests and cannot be changed.
+     */
+    protected static final Map<String, Object> NO_PARAMETERS =
+            Collections.emptyMap();
+
+    /**
+     * The headers to be used for all requests. The snapshot is never
+     * changed, it is replaced as a whole, so every request reads it once
+     * and keeps the headers it started with.
+     */
+    private volatile HeaderSnapshot headers;
+
+    /**
+     * The headers shared with the other clients of an {@link Outseta}
+     * object, which are sent over the own headers of the client, or null
+     * if the client only has its own.
+     */
+    private volatile AtomicReference<HeaderSnapshot> sharedHeaders;
+
+    /**
+     * The own headers merged with the shared ones when they were last
+     * read, so that the merged snapshot is only built when either changes.
+     */
+    private volatile MergedHeaders mergedHeaders;
 
     /**
      * The request maker to be used for all requests.
@@ -42,6 +189,41 @@ public class BaseClient {
      */
     private ParserFacade parserFacade;
 
+    /**
+     * The circuit breakers checked before every request, or null if every
+     * request is sent.
+     */
+    private CircuitBreakerRegistry circuitBreakers;
+
+    /**
+     * The hedger used for get requests, or null if they are not hedged.
+     */
+    private Hedger hedger;
+
+    /**
+     * The coalescer used for get requests, or null if every call sends its
+     * own request.
+     */
+    private RequestCoalescer coalescer;
+
+    /**
+     * The cache of the entities read by id, or null if every lookup is
+     * sent to the api.
+     */
+    private EntityCache entityCache;
+
+    /**
+     * What the warm-up did when the client was built, or null if the client
+     * was not warmed up.
+     */
+    private volatile WarmUpReport warmUpReport;
+
+    /**
+     * The executor that parses asynchronous responses and runs the
+     * continuations of their futures.
+     */
+    private Executor asyncExecutor = ResponseThreads.executor();
+
     /**
      * This constructor is used to initialize the base url.
      * @param pBaseUrl The base url to be used for all requests.
@@ -58,9 +240,10 @@ public class BaseClient {
         this.baseUrl = pBaseUrl;
 
         this.requestMaker = null;
-        this.headers = new HashMap<>();
-        this.headers.put("Content-Type", "application/json");
-        this.headers.put("Accept", "application/json");
+        Map<String, String> defaults = new HashMap<>();
+        defaults.put("Content-Type", "application/json");
+        defaults.put("Accept", "application/json");
+        this.headers = HeaderSnapshot.of(defaults);
 
         this.parserFacade = null;
     }
@@ -93,7 +276,7 @@ public class BaseClient {
                     "Error creating client. Request Maker cannot be null.");
         }
 
-        this.headers = pHeaders;
+        this.headers = HeaderSnapshot.of(pHeaders);
         this.requestMaker = pRequestMaker;
         this.baseUrl = pBaseUrl;
 
@@ -109,31 +292,90 @@ public class BaseClient {
      * @return True if the headers are valid, false otherwise.
      */
     public boolean isHeadersValid() {
-        return this.headers.containsKey("Authorization");
+        return this.currentHeaders().containsKey("Authorization");
+    }
+
+    /**
+     * This method returns the headers to send with a request: the own
+     * headers of the client and, over them, the shared headers.
+     * @return The headers.
+     */
+    private HeaderSnapshot currentHeaders() {
+        AtomicReference<HeaderSnapshot> shared = this.sharedHeaders;
+        if (shared == null) {
+            return this.headers;
+        }
+        HeaderSnapshot own = this.headers;
+        HeaderSnapshot source = shared.get();
+        MergedHeaders last = this.mergedHeaders;
+        if (last == null || last.own != own || last.shared != source) {
+            last = new MergedHeaders(own, source, own.with(source));
+            this.mergedHeaders = last;
+        }
+        return last.merged;
+    }
+
+    /**
+     * This method makes the client send the given headers over its own
+     * ones, so that every client of an {@link Outseta} object reads the
+     * same credentials and a key is rotated for all of them at once. From
+     * then on, the methods that change the headers change the shared ones.
+     * @param pHeaders The headers to share.
+     */
+    void shareHeaders(final AtomicReference<HeaderSnapshot> pHeaders) {
+        this.sharedHeaders = pHeaders;
     }
 
     /**
-     * This method is used to add a header to the headers.
+     * This method is used to add a header to the headers. It is safe to
+     * call while other threads make requests, for example to rotate the
+     * api key: requests that are already being sent keep the old headers
+     * and the ones that start afterwards use the new ones. The headers of
+     * a client of an {@link Outseta} object are shared, so they are changed
+     * for all of its clients.
      * @param pHeaders The headers to add.
      * @throws OutsetaClientBuildException If the headers are null.
      */
-    public void updateHeaders(final Map<String, String> pHeaders)
+    public synchronized void updateHeaders(final Map<String, String> pHeaders)
             throws OutsetaClientBuildException {
 
         if (pHeaders == null) {
             throw new OutsetaClientBuildException(
                     "Cannot assign null headers.");
         }
-        this.headers.putAll(pHeaders);
+        AtomicReference<HeaderSnapshot> shared = this.sharedHeaders;
+        if (shared != null) {
+            shared.updateAndGet(current -> current.with(pHeaders));
+            return;
+        }
+        this.headers = this.headers.with(pHeaders);
+    }
+
+    /**
+     * This method is used to remove a header from the headers. Like
+     * {@link #updateHeaders(Map)}, it is safe to call while other threads
+     * make requests.
+     * @param name The name of the header to remove.
+     */
+    public synchronized void removeHeader(final String name) {
+        AtomicReference<HeaderSnapshot> shared = this.sharedHeaders;
+        if (shared != null) {
+            shared.updateAndGet(current -> current.without(name));
+        }
+        this.headers = this.headers.without(name);
     }
 
     /**
-     * This method is used to replace the headers.
+     * This method is used to replace the headers. For a client of an
+     * {@link Outseta} object, the shared headers are replaced for all of
+     * its clients and the own headers of the client, such as its content
+     * type, are still sent under them.
      * @param pHeaders The headers to replace the current headers with.
      * @throws OutsetaClientBuildException If the headers are null or do not
      *      contain an authorization header.
      */
-    public void replaceHeaders(final Map<String, String> pHeaders)
+    public synchronized void replaceHeaders(
+            final Map<String, String> pHeaders)
             throws OutsetaClientBuildException {
 
         if (pHeaders == null || !pHeaders.containsKey("Authorization")) {
@@ -141,8 +383,12 @@ public class BaseClient {
                     "Invalid headers for authentication client. "
                             + "Please check headers.");
         }
-        this.headers.clear();
-        this.headers.putAll(pHeaders);
+        AtomicReference<HeaderSnapshot> shared = this.sharedHeaders;
+        if (shared != null) {
+            shared.set(HeaderSnapshot.of(pHeaders));
+            return;
+        }
+        this.headers = HeaderSnapshot.of(pHeaders);
     }
 
     /**
@@ -161,11 +407,14 @@ public class BaseClient {
     }
 
     /**
-     * This method is used to get the headers.
+     * This method is used to get the headers. The returned map is an
+     * immutable snapshot: use {@link #updateHeaders(Map)},
+     * {@link #replaceHeaders(Map)} or {@link #removeHeader(String)} to
+     * change the headers.
      * @return The headers.
      */
     public Map<String, String> getHeaders() {
-        return headers;
+        return this.currentHeaders();
     }
 
     /**
@@ -198,6 +447,48 @@ public class BaseClient {
         return requestMaker;
     }
 
+    /**
+     * This method is used to read the statistics of the connection pool
+     * used by the request maker.
+     * @return The statistics of the pool, or null if the request maker
+     *      does not use a pool.
+     */
+    public ConnectionPoolStats getConnectionPoolStats() {
+        PooledRequestMaker pooled = RequestMakerDecorator.unwrap(
+                this.requestMaker, PooledRequestMaker.class);
+        return pooled == null ? null : pooled.getPoolStats();
+    }
+
+    /**
+     * This method is used to read how many response bytes were read from
+     * the wire and how many they decoded to.
+     * @return The statistics, or null if the request maker does not count
+     *      them.
+     */
+    public TransferStats getTransferStats() {
+        PooledRequestMaker pooled = RequestMakerDecorator.unwrap(
+                this.requestMaker, PooledRequestMaker.class);
+        return pooled == null ? null : pooled.getTransferStats();
+    }
+
+    /**
+     * This method is used to read what the warm-up did when the client was
+     * built.
+     * @return The report, or null if the client was not warmed up.
+     */
+    public WarmUpReport getWarmUpReport() {
+        return warmUpReport;
+    }
+
+    /**
+     * This method is used to keep what the warm-up did. It is called by the
+     * builder once the client is warmed up.
+     * @param pWarmUpReport The report of the warm-up.
+     */
+    void setWarmUpReport(final WarmUpReport pWarmUpReport) {
+        this.warmUpReport = pWarmUpReport;
+    }
+
     /**
      * This method is used to get the parser facade.
      * @return The parser facade.
@@ -220,9 +511,236 @@ public class BaseClient {
         this.parserFacade = pParserFacade;
     }
 
+    /**
+     * This method is used to get the circuit breakers of the client.
+     * @return The circuit breakers, or null if every request is sent.
+     */
+    public CircuitBreakerRegistry getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
+    /**
+     * This method is used to set the circuit breakers checked before every
+     * request. Clients that are given the same registry share its
+     * circuits.
+     * @param pCircuitBreakers The circuit breakers, or null to send every
+     *                         request.
+     */
+    public void setCircuitBreakers(
+            final CircuitBreakerRegistry pCircuitBreakers) {
+        this.circuitBreakers = pCircuitBreakers;
+    }
+
+    /**
+     * This method is used to get the hedger of the client.
+     * @return The hedger, or null if get requests are not hedged.
+     */
+    public Hedger getHedger() {
+        return hedger;
+    }
+
+    /**
+     * This method is used to hedge the get requests of the client. A get
+     * request that has not been answered after the delay of the hedger is
+     * sent a second time and the first answer is used. The requests are
+     * sent with the asynchronous request maker, since the losing request
+     * has to be cancelled. Each request still goes through the request
+     * makers wrapping it, so it takes its own permit from the rate limiter
+     * and is retried on its own. Get requests are not hedged when the
+     * request maker cannot make asynchronous calls.
+     * @param pHedger The hedger, or null to stop hedging.
+     */
+    public void setHedger(final Hedger pHedger) {
+        this.hedger = pHedger;
+    }
+
+    /**
+     * This method is used to get the coalescer of the client.
+     * @return The coalescer, or null if every call sends its own request.
+     */
+    public RequestCoalescer getCoalescer() {
+        return coalescer;
+    }
+
+    /**
+     * This method is used to let concurrent identical lookups of the client
+     * share one request and one parsed result. Clients that are given the
+     * same coalescer share their requests in flight. A coalesced lookup
+     * returns the same object to every caller that waited for it, the one
+     * that sent the request included, so the models returned by the
+     * coalesced endpoints must be treated as read only. A caller that needs
+     * to send a change should build a new model.
+     * @param pCoalescer The coalescer, or null to send a request for every
+     *                   call.
+     */
+    public void setCoalescer(final RequestCoalescer pCoalescer) {
+        this.coalescer = pCoalescer;
+    }
+
+    /**
+     * This method is used to get the entity cache of the client.
+     * @return The entity cache, or null if every lookup is sent to the api.
+     */
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * This method is used to keep the entities the client reads by id in
+     * memory. Clients that are given the same cache share its entries, and
+     * the calls of each of them invalidate the entries they change.
+     * @param pEntityCache The entity cache, or null to send every lookup to
+     *                     the api.
+     */
+    public void setEntityCache(final EntityCache pEntityCache) {
+        this.entityCache = pEntityCache;
+    }
+
+    /**
+     * This method is used to get the executor that parses asynchronous
+     * responses.
+     * @return The executor.
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * This method is used to choose the executor that parses asynchronous
+     * responses. A response arrives on a thread of the http client, which
+     * must not be held up, so the body is read, parsed and handed to the
+     * continuations of the future on this executor instead.
+     * @param pAsyncExecutor The executor, or null for the shared pool of
+     *                       {@link ResponseThreads}, which has a thread
+     *                       for each CPU.
+     */
+    public void setAsyncExecutor(final Executor pAsyncExecutor) {
+        this.asyncExecutor = pAsyncExecutor == null
+                ? ResponseThreads.executor() : pAsyncExecutor;
+    }
+
+    /**
+     * This method sends a blocking request if the circuit of its endpoint
+     * family lets it through, and records how the request went.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param call The call that sends the request.
+     * @param <T> The type of the response.
+     * @return The response from the request.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed, or an
+     *      {@link OutsetaCircuitOpenException} if it was not sent because
+     *      the circuit is open, or an
+     *      {@link OutsetaDeadlineExceededException} if the deadline of the
+     *      call has passed.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    private <T> T send(final String urlSuffix,
+                       final Map<String, Object> parameters,
+                       final Call<T> call)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        // A call that is already late is dropped before it takes a circuit
+        // probe, a rate limit permit or a pooled connection
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            throw new OutsetaDeadlineExceededException(
+                    "The deadline of the call has passed.",
+                    this.baseUrl + urlSuffix, null, parameters,
+                    this.currentHeaders(), null);
+        }
+
+        CircuitBreakerRegistry registry = this.circuitBreakers;
+        if (registry == null) {
+            return call.call();
+        }
+
+        CircuitBreaker.Permit permit = this.acquire(registry, urlSuffix,
+                parameters);
+        long start = System.nanoTime();
+        Exception error = null;
+        try {
+            return call.call();
+        } catch (Exception e) {
+            error = e;
+            throw e;
+        } finally {
+            permit.onResult(System.nanoTime() - start, error);
+        }
+    }
+
+    /**
+     * This method asks the circuit of an endpoint family to let a request
+     * through.
+     * @param registry The circuit breakers of the client.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @return The permit of the request, which must be told how the
+     *      request went.
+     * @throws OutsetaCircuitOpenException If the circuit is open.
+     */
+    private CircuitBreaker.Permit acquire(final CircuitBreakerRegistry registry,
+                                   final String urlSuffix,
+                                   final Map<String, Object> parameters)
+            throws OutsetaCircuitOpenException {
+
+        CircuitBreaker breaker = registry.forPath(urlSuffix);
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        if (permit == null) {
+            throw new OutsetaCircuitOpenException(breaker.getName(),
+                    breaker.getRemainingOpenTime(), this.baseUrl + urlSuffix,
+                    parameters, this.currentHeaders());
+        }
+        return permit;
+    }
+
+    /**
+     * This method sends an asynchronous request if the circuit of its
+     * endpoint family lets it through, and records how the request went
+     * once it completes.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param request The supplier that sends the request.
+     * @return The future of the request, or a future that has failed with
+     *      an {@link OutsetaCircuitOpenException} if the circuit is open.
+     */
+    private CompletableFuture<String> sendAsync(
+            final String urlSuffix, final Map<String, Object> parameters,
+            final Supplier<CompletableFuture<String>> request) {
+
+        CircuitBreakerRegistry registry = this.circuitBreakers;
+        if (registry == null) {
+            return request.get();
+        }
+
+        CircuitBreaker.Permit permit;
+        try {
+            permit = this.acquire(registry, urlSuffix, parameters);
+        } catch (OutsetaCircuitOpenException e) {
+            return failedFuture(e);
+        }
+        long start = System.nanoTime();
+        CompletableFuture<String> future = request.get();
+        future.whenComplete((response, error) -> {
+            Throwable cause = error instanceof CompletionException
+                    ? error.getCause() : error;
+            permit.onResult(System.nanoTime() - start,
+                    cause instanceof Exception ? (Exception) cause : null);
+        });
+        return future;
+    }
+
     /**
      * This method sends a get request using the request maker that was
-     *      provided.
+     *      provided. The request is hedged if the client has a hedger.
      * @param urlSuffix The url suffix to use for the request.
      * @param parameters The parameters to use for the request.
      * @return The response from the request.
@@ -242,89 +760,1025 @@ public class BaseClient {
             OutsetaAPIUnknownException,
             OutsetaInvalidURLException {
 
-        return this.requestMaker.get(this.baseUrl + urlSuffix, parameters,
-                this.headers);
+        return this.get(urlSuffix, parameters, this.currentHeaders());
     }
 
     /**
-     * This method sends a put request using the request maker that was
-     *      provided.
+     * This method sends a get request with the given headers. The request
+     * is hedged if the client has a hedger.
      * @param urlSuffix The url suffix to use for the request.
      * @param parameters The parameters to use for the request.
-     * @param payload The payload to use for the request.
+     * @param current The headers to send with the request.
      * @return The response from the request.
      * @throws OutsetaInvalidResponseCodeException If the response code is
      *      invalid.
      * @throws OutsetaAPIBadRequestException If the request was bad.
      * @throws OutsetaAPIFailedException If the request failed.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
      * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    private String get(final String urlSuffix,
+                       final Map<String, Object> parameters,
+                       final HeaderSnapshot current)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        Hedger currentHedger = this.hedger;
+        AsyncRequestMaker asyncRequestMaker = currentHedger == null
+                ? null : this.getAsyncRequestMaker();
+        if (asyncRequestMaker == null) {
+            return this.send(urlSuffix, parameters, () ->
+                    this.requestMaker.get(this.baseUrl + urlSuffix,
+                            parameters, current));
+        }
+
+        String url = this.baseUrl + urlSuffix;
+        return this.send(urlSuffix, parameters, () ->
+                AsyncRequestMaker.await(currentHedger.hedge(urlSuffix, () ->
+                        asyncRequestMaker.getAsync(url, parameters,
+                                current)), url));
+    }
+
+    /**
+     * This method sends a get request and parses the response into an
+     * object of the given type. Concurrent identical calls share one
+     * request and one parsed result if the client has a coalescer for the
+     * endpoint, so the result must be treated as read only.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param type The type of the result.
+     * @param <T> The type of the result.
+     * @return The parsed response.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed.
      * @throws OutsetaAPIUnknownException If the request failed for an unknown
      *      reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaParseException If the response cannot be parsed.
      */
-    protected String put(final String urlSuffix,
-                         final Map<String, Object> parameters,
-                         final String payload)
+    protected <T extends DataComponent> T getObject(
+            final String urlSuffix, final Map<String, Object> parameters,
+            final Class<T> type)
             throws OutsetaInvalidResponseCodeException,
             OutsetaAPIBadRequestException,
             OutsetaAPIFailedException,
+            OutsetaAPIUnknownException,
             OutsetaInvalidURLException,
-            OutsetaAPIUnknownException {
+            OutsetaParseException {
 
-        return this.requestMaker.put(this.baseUrl + urlSuffix, parameters,
-                payload, this.headers);
+        return this.getObject(urlSuffix, parameters, type,
+                this.currentHeaders());
     }
 
     /**
-     * This method sends a post request using the request maker that was
-     *      provided.
+     * This method sends a get request with the given headers instead of
+     * the headers of the client and parses the response into an object of
+     * the given type. Calls are only coalesced with calls that send the
+     * same authorization header, and the result must then be treated as
+     * read only.
      * @param urlSuffix The url suffix to use for the request.
      * @param parameters The parameters to use for the request.
-     * @param payload The payload to use for the request.
-     * @return The response from the request.
+     * @param type The type of the result.
+     * @param requestHeaders The headers to send with the request.
+     * @param <T> The type of the result.
+     * @return The parsed response.
      * @throws OutsetaInvalidResponseCodeException If the response code is
      *      invalid.
      * @throws OutsetaAPIBadRequestException If the request was bad.
      * @throws OutsetaAPIFailedException If the request failed.
-     * @throws OutsetaInvalidURLException If the url is invalid.
      * @throws OutsetaAPIUnknownException If the request failed for an unknown
      *      reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaParseException If the response cannot be parsed.
      */
-    protected String post(final String urlSuffix,
-                          final Map<String, Object> parameters,
-                          final String payload)
+    protected <T extends DataComponent> T getObject(
+            final String urlSuffix, final Map<String, Object> parameters,
+            final Class<T> type, final HeaderSnapshot requestHeaders)
             throws OutsetaInvalidResponseCodeException,
             OutsetaAPIBadRequestException,
             OutsetaAPIFailedException,
+            OutsetaAPIUnknownException,
             OutsetaInvalidURLException,
-            OutsetaAPIUnknownException {
+            OutsetaParseException {
+
+        ParserFacade parser = this.getParserFacade();
+        Fetch<T> fetch = () -> this.read(urlSuffix, parameters,
+                requestHeaders,
+                body -> parser.jsonStreamToObject(body, type),
+                response -> parser.jsonStringToObject(response, type));
+        RequestCoalescer currentCoalescer = this.coalescer;
+        if (currentCoalescer == null
+                || !currentCoalescer.isCoalesced(urlSuffix)) {
+            return fetch.fetch();
+        }
+
+        String url = this.baseUrl + urlSuffix;
+        String key = RequestCoalescer.key("GET", url, parameters, type,
+                requestHeaders.get("Authorization"));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> shared = currentCoalescer.join(key, flight);
+        if (shared != null) {
+            return type.cast(awaitShared(shared, url));
+        }
 
-        return this.requestMaker.post(this.baseUrl + urlSuffix, parameters,
-                payload, this.headers);
+        T result = null;
+        Throwable error = null;
+        try {
+            result = fetch.fetch();
+            return result;
+        } catch (Exception | Error e) {
+            error = e;
+            throw e;
+        } finally {
+            // Calls that arrive from now on send their own request
+            currentCoalescer.leave(key, flight);
+            if (error == null) {
+                flight.complete(result);
+            } else {
+                flight.completeExceptionally(error);
+            }
+        }
     }
 
     /**
-     * This method sends a delete request using the request maker that was
-     *      provided.
+     * This method reads an entity by id from the entity cache of the
+     * client, or sends a get request and writes the parsed response into
+     * the cache. The cached entity is shared by all callers, so it must be
+     * treated as read only.
+     * @param id The id of the entity.
      * @param urlSuffix The url suffix to use for the request.
-     * @param parameters The parameters to use for the request.
-     * @return The response from the request.
+     * @param type The type of the entity.
+     * @param <T> The type of the entity.
+     * @return The entity.
      * @throws OutsetaInvalidResponseCodeException If the response code is
      *      invalid.
      * @throws OutsetaAPIBadRequestException If the request was bad.
      * @throws OutsetaAPIFailedException If the request failed.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaParseException If the response cannot be parsed.
+     */
+    protected <T extends DataComponent> T getCachedObject(
+            final String id, final String urlSuffix, final Class<T> type)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException,
+            OutsetaParseException {
+
+        return this.readCached(id, urlSuffix, type, false);
+    }
+
+    /**
+     * This method looks up an entity by id like
+     * {@link #getCachedObject(String, String, Class)}, but returns an
+     * empty optional instead of throwing when the api does not find it.
+     * The not found answers are recorded in the entity cache, if the
+     * client has one, so that the next lookups of the same id do not go
+     * to the api until the negative entry expires.
+     * @param id The id of the entity.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param type The type of the entity.
+     * @param <T> The type of the entity.
+     * @return The entity, or an empty optional if it does not exist.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid and is not not found.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
      * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaParseException If the response cannot be parsed.
+     */
+    protected <T extends DataComponent> Optional<T> findCachedObject(
+            final String id, final String urlSuffix, final Class<T> type)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException,
+            OutsetaParseException {
+
+        return Optional.ofNullable(this.readCached(id, urlSuffix, type, true));
+    }
+
+    /**
+     * This method reads an entity by id through the entity cache of the
+     * client, if it has one, and records the not found answers.
+     * @param id The id of the entity.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param type The type of the entity.
+     * @param quiet True to return null instead of throwing when the entity
+     *              does not exist.
+     * @param <T> The type of the entity.
+     * @return The entity, or null if it does not exist and quiet is true.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed.
      * @throws OutsetaAPIUnknownException If the request failed for an unknown
      *      reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaParseException If the response cannot be parsed.
      */
-    protected String delete(final String urlSuffix,
-                            final Map<String, Object> parameters)
+    private <T extends DataComponent> T readCached(
+            final String id, final String urlSuffix, final Class<T> type,
+            final boolean quiet)
             throws OutsetaInvalidResponseCodeException,
             OutsetaAPIBadRequestException,
             OutsetaAPIFailedException,
+            OutsetaAPIUnknownException,
             OutsetaInvalidURLException,
-            OutsetaAPIUnknownException {
+            OutsetaParseException {
 
-        return this.requestMaker.delete(this.baseUrl + urlSuffix,
-                parameters, this.headers);
+        EntityCache cache = this.entityCache;
+        String key = null;
+        long stamp = 0;
+        if (cache != null) {
+            key = EntityCache.key(this.baseUrl, type, id);
+            T cached = cache.get(key, type);
+            if (cached != null) {
+                return cached;
+            }
+            if (cache.isMissing(key)) {
+                if (quiet) {
+                    return null;
+                }
+                throw notFound(urlSuffix);
+            }
+            stamp = cache.stamp(key);
+        }
+
+        T result;
+        try {
+            result = this.getObject(urlSuffix, NO_PARAMETERS, type);
+        } catch (OutsetaInvalidResponseCodeException e) {
+            if (!isNotFound(e)) {
+                throw e;
+            }
+            if (cache != null) {
+                cache.putMissing(key, stamp);
+            }
+            if (quiet) {
+                return null;
+            }
+            throw e;
+        }
+        if (cache != null && result != null) {
+            cache.put(key, result, stamp);
+        }
+        return result;
+    }
+
+    /**
+     * This method reads an entity by id from the entity cache of the
+     * client without blocking, or sends a get request using the
+     * asynchronous request maker and writes the parsed response into the
+     * cache.
+     * @param id The id of the entity.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param type The type of the entity.
+     * @param <T> The type of the entity.
+     * @return A future that is completed with the entity or with the
+     *      exception that the blocking call would have thrown.
+     */
+    protected <T extends DataComponent> CompletableFuture<T>
+            getCachedObjectAsync(final String id, final String urlSuffix,
+                                 final Class<T> type) {
+
+        EntityCache cache = this.entityCache;
+        ResponseParser<T> parser = result ->
+                this.getParserFacade().jsonStringToObject(result, type);
+        if (cache == null) {
+            return this.getAsync(urlSuffix, NO_PARAMETERS, parser);
+        }
+
+        String key = EntityCache.key(this.baseUrl, type, id);
+        T cached = cache.get(key, type);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        if (cache.isMissing(key)) {
+            CompletableFuture<T> missing = new CompletableFuture<>();
+            missing.completeExceptionally(notFound(urlSuffix));
+            return missing;
+        }
+        long stamp = cache.stamp(key);
+        return this.getAsync(urlSuffix, NO_PARAMETERS, parser)
+                .whenComplete((result, error) -> {
+                    Throwable cause = error instanceof CompletionException
+                            ? error.getCause() : error;
+                    if (cause != null) {
+                        if (isNotFound(cause)) {
+                            cache.putMissing(key, stamp);
+                        }
+                    } else if (result != null) {
+                        cache.put(key, result, stamp);
+                    }
+                });
+    }
+
+    /**
+     * This method creates the exception thrown for an entity that the
+     * entity cache knows to be missing. It has no stack trace, like the
+     * exceptions of the expected response codes.
+     * @param urlSuffix The url suffix of the lookup.
+     * @return The exception.
+     */
+    private OutsetaInvalidResponseCodeException notFound(
+            final String urlSuffix) {
+        return new OutsetaInvalidResponseCodeException("Not found.",
+                this.baseUrl + urlSuffix, NOT_FOUND, false);
+    }
+
+    /**
+     * This method tells whether a failure is a not found answer of the
+     * api.
+     * @param error The failure.
+     * @return True if the api did not find the entity.
+     */
+    private static boolean isNotFound(final Throwable error) {
+        return error instanceof OutsetaInvalidResponseCodeException
+                && Integer.valueOf(NOT_FOUND).equals(
+                        ((OutsetaInvalidResponseCodeException) error)
+                                .getResponseCode());
+    }
+
+    /**
+     * This method removes entities from the entity cache of the client,
+     * so that their next lookup is sent to the api. It is called by the
+     * methods that change them. Null ids are ignored.
+     * @param type The type of the entities.
+     * @param ids The ids of the entities.
+     */
+    protected void invalidate(final Class<? extends DataComponent> type,
+                              final String... ids) {
+        EntityCache cache = this.entityCache;
+        if (cache == null) {
+            return;
+        }
+        for (String id : ids) {
+            if (id != null) {
+                cache.invalidate(EntityCache.key(this.baseUrl, type, id));
+            }
+        }
+    }
+
+    /**
+     * This method sends a get request and parses the response into a page
+     * of objects of the given type.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param type The type of the items of the page.
+     * @param <T> The type of the items of the page.
+     * @return The parsed page.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaParseException If the response cannot be parsed.
+     */
+    protected <T extends DataComponent> ItemPage<T> getPage(
+            final String urlSuffix, final Map<String, Object> parameters,
+            final Class<T> type)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException,
+            OutsetaParseException {
+
+        ParserFacade parser = this.getParserFacade();
+        return this.read(urlSuffix, parameters, this.currentHeaders(),
+                body -> parser.jsonStreamToPage(body, type),
+                response -> parser.jsonStringToPage(response, type));
+    }
+
+    /**
+     * This method sends a get request and parses its response. If the
+     * request maker can stream and the request is not hedged, the body is
+     * parsed as it is read from the connection, which is released once
+     * parsing finishes. Otherwise the body is read into a string first.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param snapshot The headers to send with the request.
+     * @param streamParser The parser used for a streamed body.
+     * @param stringParser The parser used for a body read into a string.
+     * @param <T> The type of the result.
+     * @return The parsed response.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaParseException If the response cannot be parsed.
+     */
+    private <T> T read(final String urlSuffix,
+                       final Map<String, Object> parameters,
+                       final HeaderSnapshot snapshot,
+                       final StreamParser<T> streamParser,
+                       final ResponseParser<T> stringParser)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException,
+            OutsetaParseException {
+
+        // A chain of decorators only streams if the request maker at the
+        // end of it does
+        RequestMaker current = this.requestMaker;
+        if (this.hedger != null
+                || !(current instanceof StreamingRequestMaker)
+                || !(RequestMakerDecorator.innermost(current)
+                        instanceof StreamingRequestMaker)) {
+            return stringParser.parse(this.get(urlSuffix, parameters,
+                    snapshot));
+        }
+
+        StreamingRequestMaker streaming = (StreamingRequestMaker) current;
+        String url = this.baseUrl + urlSuffix;
+        try (ResponseStream response = this.send(urlSuffix, parameters,
+                () -> streaming.getStream(url, parameters, snapshot))) {
+            return streamParser.parse(response.getBody());
+        }
+    }
+
+    /**
+     * This method waits for the result of a call sent by another thread.
+     * The wait is bounded by the deadline entered by the calling thread,
+     * but the shared request is never cancelled by it.
+     * @param shared The future of the call in flight.
+     * @param url The url of the request.
+     * @return The parsed response.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed, the thread
+     *      was interrupted or the deadline passed.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaParseException If the response cannot be parsed.
+     */
+    private Object awaitShared(final CompletableFuture<Object> shared,
+                               final String url)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException,
+            OutsetaParseException {
+
+        Deadline deadline = Deadline.current();
+        try {
+            if (deadline == null) {
+                return shared.get();
+            }
+            return shared.get(deadline.remaining(TimeUnit.NANOSECONDS),
+                    TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new OutsetaDeadlineExceededException(
+                    "The deadline of the call passed while waiting for the "
+                            + "shared response.", url, null, null,
+                    this.currentHeaders(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutsetaAPIFailedException("The request was interrupted.",
+                    url, null, null, this.currentHeaders(), null, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof OutsetaParseException) {
+                throw (OutsetaParseException) cause;
+            } else if (cause instanceof OutsetaAPIBadRequestException) {
+                throw (OutsetaAPIBadRequestException) cause;
+            } else if (cause instanceof OutsetaAPIFailedException) {
+                throw (OutsetaAPIFailedException) cause;
+            } else if (cause instanceof OutsetaInvalidResponseCodeException) {
+                throw (OutsetaInvalidResponseCodeException) cause;
+            } else if (cause instanceof OutsetaAPIUnknownException) {
+                throw (OutsetaAPIUnknownException) cause;
+            } else if (cause instanceof OutsetaInvalidURLException) {
+                throw (OutsetaInvalidURLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new OutsetaAPIUnknownException(String.valueOf(cause), url,
+                    null, null, this.currentHeaders(), null, e);
+        }
+    }
+
+    /**
+     * This method sends a put request using the request maker that was
+     *      provided.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param payload The payload to use for the request.
+     * @return The response from the request.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
+     */
+    protected String put(final String urlSuffix,
+                         final Map<String, Object> parameters,
+                         final String payload)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidURLException,
+            OutsetaAPIUnknownException {
+
+        return this.put(urlSuffix, parameters, payload, this.currentHeaders());
+    }
+
+    /**
+     * This method sends a put request with the given headers.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param payload The payload to use for the request.
+     * @param current The headers to send with the request.
+     * @return The response from the request.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
+     */
+    private String put(final String urlSuffix,
+                       final Map<String, Object> parameters,
+                       final String payload, final HeaderSnapshot current)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidURLException,
+            OutsetaAPIUnknownException {
+
+        return this.send(urlSuffix, parameters, () ->
+                this.requestMaker.put(this.baseUrl + urlSuffix, parameters,
+                        payload, current));
+    }
+
+    /**
+     * This method sends a post request using the request maker that was
+     *      provided.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param payload The payload to use for the request.
+     * @return The response from the request.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
+     */
+    protected String post(final String urlSuffix,
+                          final Map<String, Object> parameters,
+                          final String payload)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidURLException,
+            OutsetaAPIUnknownException {
+
+        HeaderSnapshot current = this.currentHeaders();
+        return this.send(urlSuffix, parameters, () ->
+                this.requestMaker.post(this.baseUrl + urlSuffix, parameters,
+                        payload, current));
+    }
+
+    /**
+     * This method writes a model as json and sends it in a put request. If
+     * the request maker can send bytes, the model is written straight to
+     * UTF-8 and sent without an intermediate string.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param model The model to send.
+     * @param <T> The type of the model.
+     * @return The response from the request.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
+     * @throws OutsetaParseException If the model cannot be written.
+     */
+    protected <T extends DataComponent> String putObject(
+            final String urlSuffix, final Map<String, Object> parameters,
+            final T model)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidURLException,
+            OutsetaAPIUnknownException,
+            OutsetaParseException {
+
+        return this.putObject(urlSuffix, parameters, model,
+                this.currentHeaders());
+    }
+
+    /**
+     * This method writes a model as json and sends it in a put request
+     * with the given headers instead of the headers of the client.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param model The model to send.
+     * @param current The headers to send with the request.
+     * @param <T> The type of the model.
+     * @return The response from the request.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
+     * @throws OutsetaParseException If the model cannot be written.
+     */
+    protected <T extends DataComponent> String putObject(
+            final String urlSuffix, final Map<String, Object> parameters,
+            final T model, final HeaderSnapshot current)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidURLException,
+            OutsetaAPIUnknownException,
+            OutsetaParseException {
+
+        BytePayloadRequestMaker bytes = this.bytePayloadRequestMaker();
+        if (bytes == null) {
+            return this.put(urlSuffix, parameters,
+                    this.getParserFacade().objectToJsonString(model),
+                    current);
+        }
+        byte[] payload = this.getParserFacade().objectToJsonBytes(model);
+        return this.send(urlSuffix, parameters, () ->
+                bytes.putBytes(this.baseUrl + urlSuffix, parameters,
+                        payload, current));
+    }
+
+    /**
+     * This method writes a model as json and sends it in a post request. If
+     * the request maker can send bytes, the model is written straight to
+     * UTF-8 and sent without an intermediate string.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param model The model to send.
+     * @param <T> The type of the model.
+     * @return The response from the request.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
+     * @throws OutsetaParseException If the model cannot be written.
+     */
+    protected <T extends DataComponent> String postObject(
+            final String urlSuffix, final Map<String, Object> parameters,
+            final T model)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidURLException,
+            OutsetaAPIUnknownException,
+            OutsetaParseException {
+
+        BytePayloadRequestMaker bytes = this.bytePayloadRequestMaker();
+        if (bytes == null) {
+            return this.post(urlSuffix, parameters,
+                    this.getParserFacade().objectToJsonString(model));
+        }
+        byte[] payload = this.getParserFacade().objectToJsonBytes(model);
+        HeaderSnapshot current = this.currentHeaders();
+        return this.send(urlSuffix, parameters, () ->
+                bytes.postBytes(this.baseUrl + urlSuffix, parameters,
+                        payload, current));
+    }
+
+    /**
+     * Returns the request maker as one that sends encoded payloads, if the
+     * request maker at the end of its chain can send them.
+     * @return The request maker, or null if payloads are sent as strings.
+     */
+    private BytePayloadRequestMaker bytePayloadRequestMaker() {
+        RequestMaker current = this.requestMaker;
+        if (!(current instanceof BytePayloadRequestMaker)
+                || !(RequestMakerDecorator.innermost(current)
+                        instanceof BytePayloadRequestMaker)) {
+            return null;
+        }
+        return (BytePayloadRequestMaker) current;
+    }
+
+    /**
+     * This method sends a delete request using the request maker that was
+     *      provided.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @return The response from the request.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request was bad.
+     * @throws OutsetaAPIFailedException If the request failed.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     * @throws OutsetaAPIUnknownException If the request failed for an unknown
+     *      reason.
+     */
+    protected String delete(final String urlSuffix,
+                            final Map<String, Object> parameters)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidURLException,
+            OutsetaAPIUnknownException {
+
+        HeaderSnapshot current = this.currentHeaders();
+        return this.send(urlSuffix, parameters, () ->
+                this.requestMaker.delete(this.baseUrl + urlSuffix,
+                        parameters, current));
+    }
+
+    /**
+     * This method is used to find the asynchronous request maker. Request
+     * makers that wrap another one make asynchronous calls through it, so
+     * asynchronous calls are rate limited, retried and drained like
+     * blocking ones.
+     * @return The asynchronous request maker, or null if the request maker
+     *      that sends the requests can only make blocking calls.
+     */
+    public AsyncRequestMaker getAsyncRequestMaker() {
+        if (!(RequestMakerDecorator.innermost(this.requestMaker)
+                instanceof AsyncRequestMaker)) {
+            return null;
+        }
+        return (AsyncRequestMaker) this.requestMaker;
+    }
+
+    /**
+     * This method creates a future that has already failed.
+     * @param e The reason of the failure.
+     * @param <T> The type of the result.
+     * @return The failed future.
+     */
+    protected static <T> CompletableFuture<T> failedFuture(final Exception e) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(e);
+        return result;
+    }
+
+    /**
+     * This method parses the body of a response once it arrives. The body
+     * is parsed on the executor of the client, not on the thread of the
+     * http client that completed the request. Cancelling the returned
+     * future also cancels the request.
+     * @param request The future of the request.
+     * @param parser The parser used to convert the body.
+     * @param <T> The type of the result.
+     * @return A future that is completed with the parsed result.
+     */
+    private <T> CompletableFuture<T> parseAsync(
+            final CompletableFuture<String> request,
+            final ResponseParser<T> parser) {
+
+        // Failures are handed over on the executor as well, so that no
+        // continuation of the caller runs on the thread of the http client
+        CompletableFuture<T> result = request.handleAsync((response, error) -> {
+            if (error != null) {
+                throw error instanceof CompletionException
+                        ? (CompletionException) error
+                        : new CompletionException(error);
+            }
+            try {
+                return parser.parse(response);
+            } catch (OutsetaParseException e) {
+                throw new CompletionException(e);
+            }
+        }, this.asyncExecutor);
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                request.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * This method creates the future returned when the request maker can
+     * only make blocking calls.
+     * @param url The url of the request.
+     * @param <T> The type of the result.
+     * @return The failed future.
+     */
+    private <T> CompletableFuture<T> notAsync(final String url) {
+        return failedFuture(new OutsetaAPIFailedException(
+                "The request maker does not support asynchronous calls. "
+                        + "Use an asynchronous request maker instead.",
+                url, null, null, this.currentHeaders(), null, null));
+    }
+
+    /**
+     * This method sends a get request without blocking using the
+     * asynchronous request maker. The request is hedged if the client has
+     * a hedger.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param parser The parser used to convert the response.
+     * @param <T> The type of the result.
+     * @return A future that is completed with the parsed response or with
+     *      the exception that the blocking call would have thrown.
+     */
+    protected <T> CompletableFuture<T> getAsync(
+            final String urlSuffix, final Map<String, Object> parameters,
+            final ResponseParser<T> parser) {
+
+        String url = this.baseUrl + urlSuffix;
+        AsyncRequestMaker asyncRequestMaker = this.getAsyncRequestMaker();
+        if (asyncRequestMaker == null) {
+            return this.notAsync(url);
+        }
+        HeaderSnapshot current = this.currentHeaders();
+        Hedger currentHedger = this.hedger;
+        return this.parseAsync(this.sendAsync(urlSuffix, parameters, () -> {
+            if (currentHedger == null) {
+                return asyncRequestMaker.getAsync(url, parameters, current);
+            }
+            return currentHedger.hedge(urlSuffix, () ->
+                    asyncRequestMaker.getAsync(url, parameters, current));
+        }), parser);
+    }
+
+    /**
+     * This method sends a get request without blocking and parses the
+     * response into an object of the given type.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param type The type of the object.
+     * @param <T> The type of the object.
+     * @return A future that is completed with the object or with the
+     *      exception that the blocking call would have thrown.
+     */
+    protected <T extends DataComponent> CompletableFuture<T> getObjectAsync(
+            final String urlSuffix, final Map<String, Object> parameters,
+            final Class<T> type) {
+        return this.getAsync(urlSuffix, parameters, result ->
+                this.getParserFacade().jsonStringToObject(result, type));
+    }
+
+    /**
+     * This method sends a get request without blocking and parses the
+     * response into a page of objects of the given type.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param type The type of the items of the page.
+     * @param <T> The type of the items of the page.
+     * @return A future that is completed with the page or with the
+     *      exception that the blocking call would have thrown.
+     */
+    protected <T extends DataComponent> CompletableFuture<ItemPage<T>>
+            getPageAsync(final String urlSuffix,
+                         final Map<String, Object> parameters,
+                         final Class<T> type) {
+        return this.getAsync(urlSuffix, parameters, result ->
+                this.getParserFacade().jsonStringToPage(result, type));
+    }
+
+    /**
+     * This method sends a put request without blocking using the
+     * asynchronous request maker.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param payload The payload to use for the request.
+     * @param parser The parser used to convert the response.
+     * @param <T> The type of the result.
+     * @return A future that is completed with the parsed response or with
+     *      the exception that the blocking call would have thrown.
+     */
+    protected <T> CompletableFuture<T> putAsync(
+            final String urlSuffix, final Map<String, Object> parameters,
+            final String payload, final ResponseParser<T> parser) {
+
+        String url = this.baseUrl + urlSuffix;
+        AsyncRequestMaker asyncRequestMaker = this.getAsyncRequestMaker();
+        if (asyncRequestMaker == null) {
+            return this.notAsync(url);
+        }
+        HeaderSnapshot current = this.currentHeaders();
+        return this.parseAsync(this.sendAsync(urlSuffix, parameters, () ->
+                asyncRequestMaker.putAsync(url, parameters, payload,
+                        current)), parser);
+    }
+
+    /**
+     * This method sends a post request without blocking using the
+     * asynchronous request maker.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param payload The payload to use for the request.
+     * @param parser The parser used to convert the response.
+     * @param <T> The type of the result.
+     * @return A future that is completed with the parsed response or with
+     *      the exception that the blocking call would have thrown.
+     */
+    protected <T> CompletableFuture<T> postAsync(
+            final String urlSuffix, final Map<String, Object> parameters,
+            final String payload, final ResponseParser<T> parser) {
+
+        String url = this.baseUrl + urlSuffix;
+        AsyncRequestMaker asyncRequestMaker = this.getAsyncRequestMaker();
+        if (asyncRequestMaker == null) {
+            return this.notAsync(url);
+        }
+        HeaderSnapshot current = this.currentHeaders();
+        return this.parseAsync(this.sendAsync(urlSuffix, parameters, () ->
+                asyncRequestMaker.postAsync(url, parameters, payload,
+                        current)), parser);
+    }
+
+    /**
+     * This method sends a delete request without blocking using the
+     * asynchronous request maker.
+     * @param urlSuffix The url suffix to use for the request.
+     * @param parameters The parameters to use for the request.
+     * @param parser The parser used to convert the response.
+     * @param <T> The type of the result.
+     * @return A future that is completed with the parsed response or with
+     *      the exception that the blocking call would have thrown.
+     */
+    protected <T> CompletableFuture<T> deleteAsync(
+            final String urlSuffix, final Map<String, Object> parameters,
+            final ResponseParser<T> parser) {
+
+        String url = this.baseUrl + urlSuffix;
+        AsyncRequestMaker asyncRequestMaker = this.getAsyncRequestMaker();
+        if (asyncRequestMaker == null) {
+            return this.notAsync(url);
+        }
+        HeaderSnapshot current = this.currentHeaders();
+        return this.parseAsync(this.sendAsync(urlSuffix, parameters, () ->
+                asyncRequestMaker.deleteAsync(url, parameters, current)),
+                parser);
+    }
+
+    /**
+     * This class holds the own headers of a client merged with the shared
+     * ones, together with the snapshots it was built from.
+     */
+    private static final class MergedHeaders {
+
+        /**
+         * The own headers of the client.
+         */
+        private final HeaderSnapshot own;
+
+        /**
+         * The shared headers.
+         */
+        private final HeaderSnapshot shared;
+
+        /**
+         * The shared headers over the own ones.
+         */
+        private final HeaderSnapshot merged;
+
+        /**
+         * The constructor for MergedHeaders.
+         * @param pOwn The own headers of the client.
+         * @param pShared The shared headers.
+         * @param pMerged The shared headers over the own ones.
+         */
+        private MergedHeaders(final HeaderSnapshot pOwn,
+                              final HeaderSnapshot pShared,
+                              final HeaderSnapshot pMerged) {
+            this.own = pOwn;
+            this.shared = pShared;
+            this.merged = pMerged;
+        }
     }
 }
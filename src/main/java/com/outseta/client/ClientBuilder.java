@@ -1,14 +1,32 @@
 package com.outseta.client;
 
+import com.outseta.client_helper.circuit_breaker.CircuitBreakerConfig;
+import com.outseta.client_helper.circuit_breaker.CircuitBreakerRegistry;
+import com.outseta.client_helper.caching.EntityCache;
+import com.outseta.client_helper.coalescing.RequestCoalescer;
+import com.outseta.client_helper.hedging.Hedger;
+import com.outseta.client_helper.hedging.HedgingPolicy;
 import com.outseta.client_helper.parser.json.jackson.JsonParserJackson;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.HeaderSnapshot;
+import com.outseta.client_helper.request_maker.HttpClientConfig;
+import com.outseta.client_helper.request_maker.PooledRequestMaker;
+import com.outseta.client_helper.request_maker.RateLimitedRequestMaker;
+import com.outseta.client_helper.request_maker.RateLimiter;
 import com.outseta.client_helper.request_maker.RequestMaker;
+import com.outseta.client_helper.request_maker.RequestMakerDecorator;
 import com.outseta.client_helper.request_maker.RequestMakerFactory;
+import com.outseta.client_helper.request_maker.RetryPolicy;
+import com.outseta.client_helper.request_maker.RetryingRequestMaker;
+import com.outseta.client_helper.warm_up.WarmUp;
 import com.outseta.constant.RequestMakerType;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidRequestMakerException;
+import com.outseta.exception.OutsetaInvalidURLException;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This class is used to build a client. It is used to set the base url,
@@ -29,6 +47,36 @@ public class ClientBuilder<T extends BaseClient> {
      */
     private final T baseClient;
 
+    /**
+     * The policy used to retry failed requests, or null if they are not
+     * retried.
+     */
+    private RetryPolicy retryPolicy;
+
+    /**
+     * The limiter used to pace the requests, or null if they are not
+     * limited.
+     */
+    private RateLimiter rateLimiter;
+
+    /**
+     * The rate of the limiter shared by the clients with the same
+     * credentials, or 0 if no shared limiter is used.
+     */
+    private double sharedRate;
+
+    /**
+     * Whether the request maker asks for compressed responses, or null to
+     * keep the setting of the request maker.
+     */
+    private Boolean compression;
+
+    /**
+     * The number of connections opened when the client is built, or -1 if
+     * the client is not warmed up.
+     */
+    private int warmUpConnections = -1;
+
     /**
      * This constructor is used to initialize the base client.
      * @param pBaseClient The base client to be built.
@@ -84,7 +132,8 @@ public class ClientBuilder<T extends BaseClient> {
                     "The api key cannot be blank.");
         }
 
-        this.baseClient.getHeaders().put("Authorization", apiKey);
+        this.baseClient.updateHeaders(
+                Collections.singletonMap("Authorization", apiKey));
         return this;
     }
 
@@ -105,8 +154,8 @@ public class ClientBuilder<T extends BaseClient> {
                     "The api key cannot be blank.");
         }
 
-        this.baseClient.getHeaders().put(
-                "Authorization", "Bearer " + accessKey);
+        this.baseClient.updateHeaders(Collections.singletonMap(
+                "Authorization", "Bearer " + accessKey));
         return this;
     }
 
@@ -124,7 +173,20 @@ public class ClientBuilder<T extends BaseClient> {
                     OutsetaClientBuildException("Headers map cannot be null.");
         }
 
-        this.baseClient.getHeaders().putAll(headers);
+        this.baseClient.updateHeaders(headers);
+        return this;
+    }
+
+    /**
+     * This method makes the base client send the given headers over its
+     * own ones, and change them instead of its own. It is used by
+     * {@link Outseta} so that all of its clients share one set of headers.
+     * @param headers The headers to share.
+     * @return The client builder so that it can be chained.
+     */
+    ClientBuilder<T> sharedHeaders(
+            final AtomicReference<HeaderSnapshot> headers) {
+        this.baseClient.shareHeaders(headers);
         return this;
     }
 
@@ -184,6 +246,395 @@ public class ClientBuilder<T extends BaseClient> {
         return this;
     }
 
+    /**
+     * This method is used to set a pooled request maker with tuned pool
+     * limits, timeouts and idle connection eviction.
+     * @param config The settings of the connection pool.
+     * @return The client builder so that it can be chained.
+     * @throws OutsetaInvalidRequestMakerException If the config is null.
+     *
+     * Example usage:
+     * <pre>{@code
+     * HttpClientConfig config = HttpClientConfig.builder()
+     *      .maxTotal(100)
+     *      .maxPerRoute(100)
+     *      .socketTimeout(10_000)
+     *      .build();
+     * AccountClient client = AccountClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .pooledRequestMaker(config)
+     *      .build();
+     * ConnectionPoolStats stats = client.getConnectionPoolStats();
+     * }</pre>
+     */
+    public ClientBuilder<T> pooledRequestMaker(final HttpClientConfig config)
+            throws OutsetaInvalidRequestMakerException {
+
+        if (config == null) {
+            throw new OutsetaInvalidRequestMakerException(
+                    "Http client config cannot be null.");
+        }
+
+        this.baseClient.setRequestMaker(
+                RequestMakerFactory.getPooledRequestMaker(config));
+        return this;
+    }
+
+    /**
+     * This method is used to set a non-blocking request maker. The client
+     * can then be used through its asynchronous methods without a thread
+     * for every call in flight.
+     * @param config The settings of the connection pool and I/O threads.
+     * @return The client builder so that it can be chained.
+     * @throws OutsetaInvalidRequestMakerException If the config is null or
+     *      the request maker cannot be started.
+     *
+     * Example usage:
+     * <pre>{@code
+     * AccountClient client = AccountClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .asyncRequestMaker(HttpClientConfig.builder().build())
+     *      .build();
+     * CompletableFuture<Account> account = client.getAccountAsync(id);
+     * }</pre>
+     */
+    public ClientBuilder<T> asyncRequestMaker(final HttpClientConfig config)
+            throws OutsetaInvalidRequestMakerException {
+
+        if (config == null) {
+            throw new OutsetaInvalidRequestMakerException(
+                    "Http client config cannot be null.");
+        }
+
+        this.baseClient.setRequestMaker(
+                RequestMakerFactory.getAsyncRequestMaker(config));
+        return this;
+    }
+
+    /**
+     * This method is used to pace the requests of the base client with a
+     * limiter that is shared by all clients built with the same base url
+     * and credentials. The limiter is looked up when the client is built,
+     * so the credentials can be set before or after this method.
+     * @param permitsPerSecond The number of requests allowed per second.
+     * @return The client builder so that it can be chained.
+     * @throws OutsetaClientBuildException If the rate is not greater than
+     *      0.
+     *
+     * Example usage:
+     * <pre>{@code
+     * AccountClient accounts = AccountClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .defaultRequestMaker()
+     *      .rateLimit(10)
+     *      .build();
+     * // Shares the limiter of the accounts client
+     * PeopleClient people = PeopleClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .defaultRequestMaker()
+     *      .rateLimit(10)
+     *      .build();
+     * }</pre>
+     */
+    public ClientBuilder<T> rateLimit(final double permitsPerSecond)
+            throws OutsetaClientBuildException {
+
+        if (!(permitsPerSecond > 0)) {
+            throw new OutsetaClientBuildException(
+                    "Permits per second must be greater than 0.");
+        }
+
+        this.sharedRate = permitsPerSecond;
+        this.rateLimiter = null;
+        return this;
+    }
+
+    /**
+     * This method is used to pace the requests of the base client with the
+     * given limiter. Clients that are given the same limiter share its
+     * rate.
+     * @param pRateLimiter The limiter used to pace the requests.
+     * @return The client builder so that it can be chained.
+     * @throws OutsetaClientBuildException If the limiter is null.
+     */
+    public ClientBuilder<T> rateLimiter(final RateLimiter pRateLimiter)
+            throws OutsetaClientBuildException {
+
+        if (pRateLimiter == null) {
+            throw new OutsetaClientBuildException(
+                    "Rate limiter cannot be null.");
+        }
+
+        this.rateLimiter = pRateLimiter;
+        this.sharedRate = 0;
+        return this;
+    }
+
+    /**
+     * This method is used to ask the server for gzip or deflate compressed
+     * responses, which are decompressed while they are parsed. The request
+     * makers created by this library ask for them by default. The request
+     * maker that is set is changed when the client is built, so this method
+     * can be called before or after it is chosen. The bytes saved can be
+     * read with {@link BaseClient#getTransferStats()}.
+     * @param pCompression True to ask for compressed responses.
+     * @return The client builder so that it can be chained.
+     *
+     * Example usage:
+     * <pre>{@code
+     * AccountClient client = AccountClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .defaultRequestMaker()
+     *      .compression(false)
+     *      .build();
+     * }</pre>
+     */
+    public ClientBuilder<T> compression(final boolean pCompression) {
+        this.compression = pCompression;
+        return this;
+    }
+
+    /**
+     * This method is used to warm up the client when it is built. The given
+     * number of connections to the base url are opened and left in the
+     * pool, and the serializers of the model classes are prepared, so the
+     * first calls do not pay for them. The warm-up is best effort: the
+     * connections that cannot be opened are skipped and the asynchronous
+     * request maker opens none. What was done and how long it took can be
+     * read with {@link BaseClient#getWarmUpReport()}.
+     * @param pConnections The number of connections to open, or 0 to only
+     *                     prepare the model classes.
+     * @return The client builder so that it can be chained.
+     * @throws OutsetaClientBuildException If the number of connections is
+     *      negative.
+     *
+     * Example usage:
+     * <pre>{@code
+     * AccountClient client = AccountClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .defaultRequestMaker()
+     *      .warmUp(4)
+     *      .build();
+     * }</pre>
+     */
+    public ClientBuilder<T> warmUp(final int pConnections)
+            throws OutsetaClientBuildException {
+
+        if (pConnections < 0) {
+            throw new OutsetaClientBuildException(
+                    "The number of warm-up connections cannot be negative.");
+        }
+        this.warmUpConnections = pConnections;
+        return this;
+    }
+
+    /**
+     * This method is used to retry failed requests of the base client.
+     * The request maker that is set is wrapped when the client is built,
+     * so this method can be called before or after it is chosen.
+     * @param pRetryPolicy The policy used to retry failed requests.
+     * @return The client builder so that it can be chained.
+     * @throws OutsetaClientBuildException If the retry policy is null.
+     *
+     * Example usage:
+     * <pre>{@code
+     * AccountClient client = AccountClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .defaultRequestMaker()
+     *      .retryPolicy(RetryPolicy.builder().maxRetries(5).build())
+     *      .build();
+     * }</pre>
+     */
+    public ClientBuilder<T> retryPolicy(final RetryPolicy pRetryPolicy)
+            throws OutsetaClientBuildException {
+
+        if (pRetryPolicy == null) {
+            throw new OutsetaClientBuildException(
+                    "Retry policy cannot be null.");
+        }
+
+        this.retryPolicy = pRetryPolicy;
+        return this;
+    }
+
+    /**
+     * This method is used to stop the requests of the base client to an
+     * endpoint family, such as /billing or /crm, while that family keeps
+     * failing or answering slowly. Each family gets its own circuit with
+     * the given settings.
+     * @param config The settings of the circuits.
+     * @return The client builder so that it can be chained.
+     * @throws OutsetaClientBuildException If the config is null.
+     *
+     * Example usage:
+     * <pre>{@code
+     * AccountClient client = AccountClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .defaultRequestMaker()
+     *      .circuitBreaker(CircuitBreakerConfig.builder().build())
+     *      .build();
+     * }</pre>
+     */
+    public ClientBuilder<T> circuitBreaker(final CircuitBreakerConfig config)
+            throws OutsetaClientBuildException {
+
+        if (config == null) {
+            throw new OutsetaClientBuildException(
+                    "Circuit breaker config cannot be null.");
+        }
+
+        this.baseClient.setCircuitBreakers(
+                new CircuitBreakerRegistry(config));
+        return this;
+    }
+
+    /**
+     * This method is used to check the given circuit breakers before every
+     * request of the base client. Clients that are given the same registry
+     * share its circuits.
+     * @param registry The circuit breakers.
+     * @return The client builder so that it can be chained.
+     * @throws OutsetaClientBuildException If the registry is null.
+     */
+    public ClientBuilder<T> circuitBreakers(
+            final CircuitBreakerRegistry registry)
+            throws OutsetaClientBuildException {
+
+        if (registry == null) {
+            throw new OutsetaClientBuildException(
+                    "Circuit breakers cannot be null.");
+        }
+
+        this.baseClient.setCircuitBreakers(registry);
+        return this;
+    }
+
+    /**
+     * This method is used to hedge the get requests of the base client. A
+     * get request that is still unanswered after the delay of the policy
+     * is sent a second time, the first answer is used and the other
+     * request is cancelled. Hedging needs an asynchronous request maker,
+     * such as the one set by {@link #asyncRequestMaker(HttpClientConfig)}.
+     * @param policy The settings of the hedges.
+     * @return The client builder so that it can be chained.
+     * @throws OutsetaClientBuildException If the policy is null.
+     *
+     * Example usage:
+     * <pre>{@code
+     * PeopleClient client = PeopleClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .asyncRequestMaker(HttpClientConfig.builder().build())
+     *      .hedging(HedgingPolicy.builder().percentile(95).build())
+     *      .build();
+     * }</pre>
+     */
+    public ClientBuilder<T> hedging(final HedgingPolicy policy)
+            throws OutsetaClientBuildException {
+
+        if (policy == null) {
+            throw new OutsetaClientBuildException(
+                    "Hedging policy cannot be null.");
+        }
+
+        this.baseClient.setHedger(new Hedger(policy));
+        return this;
+    }
+
+    /**
+     * This method is used to hedge the get requests of the base client
+     * with the given hedger. Clients that are given the same hedger share
+     * its latencies and its budget.
+     * @param hedger The hedger.
+     * @return The client builder so that it can be chained.
+     * @throws OutsetaClientBuildException If the hedger is null.
+     */
+    public ClientBuilder<T> hedger(final Hedger hedger)
+            throws OutsetaClientBuildException {
+
+        if (hedger == null) {
+            throw new OutsetaClientBuildException(
+                    "Hedger cannot be null.");
+        }
+
+        this.baseClient.setHedger(hedger);
+        return this;
+    }
+
+    /**
+     * This method is used to let concurrent identical lookups of the base
+     * client, such as getPlan or getAccount with the same id, share one
+     * request and one parsed result. Clients that are given the same
+     * coalescer share their requests in flight. Every waiting caller gets
+     * the same object, so the results of the coalesced endpoints must be
+     * treated as read only.
+     * @param coalescer The coalescer.
+     * @return The client builder so that it can be chained.
+     * @throws OutsetaClientBuildException If the coalescer is null.
+     *
+     * Example usage:
+     * <pre>{@code
+     * PlanClient client = PlanClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .defaultRequestMaker()
+     *      .coalescing(RequestCoalescer.builder()
+     *              .endpoint("/billing/plans/{id}")
+     *              .build())
+     *      .build();
+     * }</pre>
+     */
+    public ClientBuilder<T> coalescing(final RequestCoalescer coalescer)
+            throws OutsetaClientBuildException {
+
+        if (coalescer == null) {
+            throw new OutsetaClientBuildException(
+                    "Request coalescer cannot be null.");
+        }
+
+        this.baseClient.setCoalescer(coalescer);
+        return this;
+    }
+
+    /**
+     * This method is used to keep the entities the base client reads by
+     * id, such as the results of getAccount, getPerson or getSubscription,
+     * in memory. The calls of the client that change an entity invalidate
+     * its entry. Clients that are given the same cache share its entries.
+     * @param entityCache The entity cache.
+     * @return The client builder so that it can be chained.
+     * @throws OutsetaClientBuildException If the entity cache is null.
+     *
+     * Example usage:
+     * <pre>{@code
+     * AccountClient client = AccountClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .defaultRequestMaker()
+     *      .entityCache(EntityCache.builder().build())
+     *      .build();
+     * }</pre>
+     */
+    public ClientBuilder<T> entityCache(final EntityCache entityCache)
+            throws OutsetaClientBuildException {
+
+        if (entityCache == null) {
+            throw new OutsetaClientBuildException(
+                    "Entity cache cannot be null.");
+        }
+
+        this.baseClient.setEntityCache(entityCache);
+        return this;
+    }
+
     /**
      * This method is used to set the request maker of the base client.
      * @param requestMakerType The request maker to set.
@@ -249,6 +700,16 @@ public class ClientBuilder<T extends BaseClient> {
         return this;
     }
 
+    /**
+     * Returns whether the client must be built with an Authorization
+     * header. Builders of clients that are given their credentials on each
+     * call override this.
+     * @return True if the Authorization header is required.
+     */
+    protected boolean isAuthorizationRequired() {
+        return true;
+    }
+
     /**
      * This method is used to build the base client.
      * @return The built base client.
@@ -257,7 +718,8 @@ public class ClientBuilder<T extends BaseClient> {
      */
     public T build() throws OutsetaClientBuildException {
 
-        if (!this.baseClient.isHeadersValid()) {
+        if (this.isAuthorizationRequired()
+                && !this.baseClient.isHeadersValid()) {
             throw new OutsetaClientBuildException(
                     "Either an api key or an access key is required. "
                             + "Both cannot be null. Alternatively, provide the "
@@ -274,6 +736,49 @@ public class ClientBuilder<T extends BaseClient> {
                     "You must specify a request maker. Choose default "
                             + "if you are uncertain.");
         }
+        if (this.compression != null) {
+            PooledRequestMaker pooled = RequestMakerDecorator.unwrap(
+                    this.baseClient.getRequestMaker(),
+                    PooledRequestMaker.class);
+            if (pooled == null || pooled.getTransferStats() == null) {
+                throw new OutsetaClientBuildException(
+                        "Compression needs a request maker created by "
+                                + "this library.");
+            }
+            pooled.setCompression(this.compression);
+        }
+        // Every retry takes its own permit, so the limiter is wrapped by
+        // the retries
+        RateLimiter limiter = this.rateLimiter;
+        if (this.sharedRate != 0) {
+            limiter = RateLimiter.shared(this.baseClient.getBaseUrl(),
+                    this.baseClient.getHeaders().get("Authorization"),
+                    this.sharedRate, RateLimiter.DEFAULT_BURST);
+        }
+        try {
+            if (limiter != null) {
+                this.baseClient.setRequestMaker(new RateLimitedRequestMaker(
+                        this.baseClient.getRequestMaker(), limiter));
+            }
+            if (this.retryPolicy != null) {
+                this.baseClient.setRequestMaker(new RetryingRequestMaker(
+                        this.baseClient.getRequestMaker(),
+                        this.retryPolicy));
+            }
+        } catch (OutsetaInvalidRequestMakerException e) {
+            throw new OutsetaClientBuildException(e.getMessage());
+        }
+        if (this.warmUpConnections >= 0) {
+            try {
+                this.baseClient.setWarmUpReport(WarmUp.run(
+                        this.baseClient.getRequestMaker(),
+                        this.baseClient.getParserFacade(),
+                        this.baseClient.getBaseUrl(),
+                        this.warmUpConnections));
+            } catch (OutsetaInvalidURLException e) {
+                throw new OutsetaClientBuildException(e.getMessage());
+            }
+        }
 
         return this.baseClient;
     }
@@ -0,0 +1,1027 @@
+package com.outseta.client;
+
+import com.outseta.client.endpoint_client.AuthenticationClient;
+import com.outseta.client.endpoint_client.MarketingClient;
+import com.outseta.client.endpoint_client.ProfileClient;
+import com.outseta.client.endpoint_client.SupportClient;
+import com.outseta.client.endpoint_client.billing.AddOnClient;
+import com.outseta.client.endpoint_client.billing.CatalogCache;
+import com.outseta.client.endpoint_client.billing.DiscountClient;
+import com.outseta.client.endpoint_client.billing.InvoiceClient;
+import com.outseta.client.endpoint_client.billing.PlanClient;
+import com.outseta.client.endpoint_client.billing.PlanFamilyClient;
+import com.outseta.client.endpoint_client.billing.SubscriptionClient;
+import com.outseta.client.endpoint_client.billing.UpdatePaymentInfoClient;
+import com.outseta.client.endpoint_client.crm.AccountClient;
+import com.outseta.client.endpoint_client.crm.ActivityClient;
+import com.outseta.client.endpoint_client.crm.DealClient;
+import com.outseta.client.endpoint_client.crm.PeopleClient;
+import com.outseta.client_helper.circuit_breaker.CircuitBreakerConfig;
+import com.outseta.client_helper.circuit_breaker.CircuitBreakerRegistry;
+import com.outseta.client_helper.caching.EntityCache;
+import com.outseta.client_helper.coalescing.RequestCoalescer;
+import com.outseta.client_helper.hedging.Hedger;
+import com.outseta.client_helper.hedging.HedgingPolicy;
+import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.parser.json.jackson.JsonParserJackson;
+import com.outseta.client_helper.request_maker.ConnectionPoolStats;
+import com.outseta.client_helper.request_maker.DrainingRequestMaker;
+import com.outseta.client_helper.request_maker.HeaderSnapshot;
+import com.outseta.client_helper.request_maker.HttpClientConfig;
+import com.outseta.client_helper.request_maker.RateLimitedRequestMaker;
+import com.outseta.client_helper.request_maker.RateLimiter;
+import com.outseta.client_helper.request_maker.RequestMaker;
+import com.outseta.client_helper.request_maker.RequestMakerFactory;
+import com.outseta.client_helper.request_maker.RetryPolicy;
+import com.outseta.client_helper.request_maker.RetryingRequestMaker;
+import com.outseta.client_helper.request_maker.TransferStats;
+import com.outseta.client_helper.warm_up.WarmUp;
+import com.outseta.client_helper.warm_up.WarmUpReport;
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.exception.OutsetaInvalidRequestMakerException;
+import com.outseta.exception.OutsetaInvalidURLException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class is the single entry point to all Outseta endpoint clients.
+ * <p>
+ *     It is built once with the credentials and the base url. The endpoint
+ *     clients are created the first time they are asked for and all of
+ *     them share one request maker (and so one connection pool), one
+ *     parser and one set of headers. Changing the headers of the Outseta
+ *     object or of any of its clients, for example to rotate the api key,
+ *     changes them for every client, including the ones created later.
+ * </p>
+ * <p>
+ *     Closing this object waits for the calls that are in flight to finish
+ *     and then releases the connection pool. The endpoint clients must not
+ *     be used after it is closed.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * try (Outseta outseta = Outseta.builder(outsetaUrl)
+ *         .apiKey(outsetaKey)
+ *         .build()) {
+ *     Account account = outseta.accounts().getAccount(accountId);
+ *     Person person = outseta.people().getPerson(personId);
+ * }
+ * }</pre>
+ */
+public final class Outseta implements Closeable {
+
+    /**
+     * The default time in milliseconds to wait for in flight calls when
+     * closing.
+     */
+    public static final long DEFAULT_DRAIN_TIMEOUT = 30_000L;
+
+    /**
+     * This interface is used to create an endpoint client.
+     * @param <T> The type of the client.
+     */
+    @FunctionalInterface
+    private interface ClientFactory<T extends BaseClient> {
+
+        /**
+         * This method creates the client.
+         * @param baseUrl The base url of the client.
+         * @return The builder of the client.
+         * @throws OutsetaClientBuildException If the client cannot be
+         *      created.
+         */
+        ClientBuilder<T> builder(String baseUrl)
+                throws OutsetaClientBuildException;
+    }
+
+    /**
+     * This class is used to build an Outseta object.
+     */
+    public static final class Builder {
+
+        /**
+         * The base url of the Outseta API.
+         */
+        private final String baseUrl;
+
+        /**
+         * The headers shared by all clients.
+         */
+        private final Map<String, String> headers;
+
+        /**
+         * Whether the Authorization header holds an access key.
+         */
+        private boolean accessKey;
+
+        /**
+         * The settings of the connection pool.
+         */
+        private HttpClientConfig httpClientConfig;
+
+        /**
+         * A request maker provided by the user.
+         */
+        private RequestMaker requestMaker;
+
+        /**
+         * A parser provided by the user.
+         */
+        private ParserFacade parserFacade;
+
+        /**
+         * The policy used to retry failed requests, or null if they are
+         * not retried.
+         */
+        private RetryPolicy retryPolicy;
+
+        /**
+         * The limiter used to pace the requests, or null if they are not
+         * limited.
+         */
+        private RateLimiter rateLimiter;
+
+        /**
+         * The rate of the limiter shared by the clients with the same
+         * credentials, or 0 if no shared limiter is used.
+         */
+        private double sharedRate;
+
+        /**
+         * The settings of the circuit breakers, or null if every request
+         * is sent.
+         */
+        private CircuitBreakerConfig circuitBreakerConfig;
+
+        /**
+         * The settings of the hedged get requests, or null if they are not
+         * hedged.
+         */
+        private HedgingPolicy hedgingPolicy;
+
+        /**
+         * The coalescer shared by all clients, or null if every call sends
+         * its own request.
+         */
+        private RequestCoalescer coalescer;
+
+        /**
+         * The cache of the entities read by id shared by all clients, or
+         * null if every lookup is sent to the api.
+         */
+        private EntityCache entityCache;
+
+        /**
+         * The time to wait for in flight calls when closing.
+         */
+        private long drainTimeout;
+
+        /**
+         * The number of connections opened when the object is built, or
+         * null if it is not warmed up.
+         */
+        private Integer warmUpConnections;
+
+        /**
+         * The constructor for Builder.
+         * @param pBaseUrl The base url of the Outseta API.
+         */
+        private Builder(final String pBaseUrl) {
+            this.baseUrl = pBaseUrl;
+            this.headers = new HashMap<>();
+            this.drainTimeout = DEFAULT_DRAIN_TIMEOUT;
+        }
+
+        /**
+         * Sets the api key used by all clients.
+         * @param apiKey The api key.
+         * @return The Builder object so that method chaining can be used.
+         * @throws OutsetaClientBuildException If the api key is null or
+         *      blank.
+         */
+        public Builder apiKey(final String apiKey)
+                throws OutsetaClientBuildException {
+            if (apiKey == null || apiKey.trim().isEmpty()) {
+                throw new OutsetaClientBuildException(
+                        "The api key cannot be null or blank.");
+            }
+            this.headers.put("Authorization", apiKey);
+            this.accessKey = false;
+            return this;
+        }
+
+        /**
+         * Sets the access key used by all clients.
+         * @param pAccessKey The access key.
+         * @return The Builder object so that method chaining can be used.
+         * @throws OutsetaClientBuildException If the access key is null or
+         *      blank.
+         */
+        public Builder accessKey(final String pAccessKey)
+                throws OutsetaClientBuildException {
+            if (pAccessKey == null || pAccessKey.trim().isEmpty()) {
+                throw new OutsetaClientBuildException(
+                        "The access key cannot be null or blank.");
+            }
+            this.headers.put("Authorization", "Bearer " + pAccessKey);
+            this.accessKey = true;
+            return this;
+        }
+
+        /**
+         * Adds extra headers that are sent by all clients.
+         * @param pHeaders The headers to add.
+         * @return The Builder object so that method chaining can be used.
+         * @throws OutsetaClientBuildException If the headers are null.
+         */
+        public Builder headers(final Map<String, String> pHeaders)
+                throws OutsetaClientBuildException {
+            if (pHeaders == null) {
+                throw new OutsetaClientBuildException(
+                        "Headers map cannot be null.");
+            }
+            this.headers.putAll(pHeaders);
+            return this;
+        }
+
+        /**
+         * Sets the settings of the shared connection pool.
+         * @param config The settings of the connection pool.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder httpClientConfig(final HttpClientConfig config) {
+            this.httpClientConfig = config;
+            return this;
+        }
+
+        /**
+         * Sets a request maker to be shared by all clients instead of the
+         * pooled one. A request maker provided here is not closed when
+         * the Outseta object is closed.
+         * @param pRequestMaker The request maker.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder requestMaker(final RequestMaker pRequestMaker) {
+            this.requestMaker = pRequestMaker;
+            return this;
+        }
+
+        /**
+         * Sets a parser to be shared by all clients instead of the default
+         * one.
+         * @param pParserFacade The parser.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder parser(final ParserFacade pParserFacade) {
+            this.parserFacade = pParserFacade;
+            return this;
+        }
+
+        /**
+         * Sets the policy used by all clients to retry failed requests.
+         * The retries of a call count as one call in flight when closing.
+         * @param pRetryPolicy The retry policy, or null to not retry.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder retryPolicy(final RetryPolicy pRetryPolicy) {
+            this.retryPolicy = pRetryPolicy;
+            return this;
+        }
+
+        /**
+         * Paces the requests of all clients with a limiter that is shared
+         * with every client built for the same base url and credentials.
+         * The clients of this object keep the limiter when the credentials
+         * are rotated, since they share one request maker. The build fails
+         * if the rate is not greater than 0 or if the shared limiter has
+         * another rate.
+         * @param permitsPerSecond The number of requests allowed per
+         *                         second.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder rateLimit(final double permitsPerSecond) {
+            this.sharedRate = permitsPerSecond;
+            this.rateLimiter = null;
+            return this;
+        }
+
+        /**
+         * Paces the requests of all clients with the given limiter.
+         * @param pRateLimiter The limiter, or null to not limit the rate.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder rateLimiter(final RateLimiter pRateLimiter) {
+            this.rateLimiter = pRateLimiter;
+            this.sharedRate = 0;
+            return this;
+        }
+
+        /**
+         * Stops the requests of all clients to an endpoint family, such as
+         * /billing or /crm, while that family keeps failing or answering
+         * slowly. The circuits are shared by all clients.
+         * @param config The settings of the circuits, or null to send every
+         *               request.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder circuitBreaker(final CircuitBreakerConfig config) {
+            this.circuitBreakerConfig = config;
+            return this;
+        }
+
+        /**
+         * Hedges the get requests of all clients: a get request that is
+         * still unanswered after the delay of the policy is sent a second
+         * time and the first answer is used. The latencies and the hedge
+         * budget are shared by all clients. Cancelling the losing request
+         * needs the non-blocking transport, so it is used instead of the
+         * blocking one when the request maker is not given.
+         * @param policy The settings of the hedges, or null to not hedge.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder hedging(final HedgingPolicy policy) {
+            this.hedgingPolicy = policy;
+            return this;
+        }
+
+        /**
+         * Lets concurrent identical lookups of all clients, such as
+         * getPlan or getAccount with the same id, share one request and one
+         * parsed result. Every waiting caller gets the same object, so the
+         * results of the coalesced endpoints must be treated as read
+         * only.
+         * @param pCoalescer The coalescer, or null to send a request for
+         *                   every call.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder coalescing(final RequestCoalescer pCoalescer) {
+            this.coalescer = pCoalescer;
+            return this;
+        }
+
+        /**
+         * Keeps the accounts, people and subscriptions read by id in
+         * memory, shared by all clients. The calls of any client that
+         * change one of them invalidate its entry.
+         * @param pEntityCache The entity cache, or null to send every
+         *                     lookup to the api.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder entityCache(final EntityCache pEntityCache) {
+            this.entityCache = pEntityCache;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time to wait for in flight calls when closing.
+         * @param pDrainTimeout The time in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder drainTimeout(final long pDrainTimeout) {
+            this.drainTimeout = pDrainTimeout;
+            return this;
+        }
+
+        /**
+         * Warms up the shared request maker and parser when the object is
+         * built. The given number of connections are opened and left in the
+         * pool and the serializers of the model classes are prepared. The
+         * warm-up is best effort and the hedging transport opens no
+         * connections ahead.
+         * @param pConnections The number of connections to open, or 0 to
+         *                     only prepare the model classes.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder warmUp(final int pConnections) {
+            this.warmUpConnections = pConnections;
+            return this;
+        }
+
+        /**
+         * This method is used to create a new Outseta object.
+         * @return A new Outseta object.
+         * @throws OutsetaClientBuildException If the base url is invalid or
+         *      the request maker cannot be created.
+         */
+        public Outseta build() throws OutsetaClientBuildException {
+
+            if (this.baseUrl == null || this.baseUrl.trim().isEmpty()) {
+                throw new OutsetaClientBuildException(
+                        "Error creating client. Base url cannot be null.");
+            }
+            if (this.drainTimeout < 0) {
+                throw new OutsetaClientBuildException(
+                        "Drain timeout cannot be negative.");
+            }
+            if (this.warmUpConnections != null
+                    && this.warmUpConnections < 0) {
+                throw new OutsetaClientBuildException(
+                        "The number of warm-up connections cannot be "
+                                + "negative.");
+            }
+
+            ParserFacade parser = this.parserFacade;
+            if (parser == null) {
+                parser = new ParserFacade(new JsonParserJackson());
+            } else if (parser.getJsonParser() == null) {
+                throw new OutsetaClientBuildException(
+                        "Json parser cannot be null.");
+            }
+
+            // The limiter is looked up first so that a conflicting rate
+            // fails before a pool is opened
+            RateLimiter limiter = this.rateLimiter;
+            if (this.sharedRate != 0) {
+                limiter = RateLimiter.shared(this.baseUrl,
+                        this.headers.get("Authorization"), this.sharedRate,
+                        RateLimiter.DEFAULT_BURST);
+            }
+
+            RequestMaker transport = this.requestMaker;
+            boolean ownsTransport = transport == null;
+            if (ownsTransport) {
+                HttpClientConfig config = this.httpClientConfig;
+                if (config == null) {
+                    config = HttpClientConfig.builder().build();
+                }
+                try {
+                    if (this.hedgingPolicy == null) {
+                        transport = RequestMakerFactory
+                                .getPooledRequestMaker(config);
+                    } else {
+                        transport = RequestMakerFactory
+                                .getAsyncRequestMaker(config);
+                    }
+                } catch (OutsetaInvalidRequestMakerException e) {
+                    throw new OutsetaClientBuildException(e.getMessage());
+                }
+            }
+
+            // Every retry takes its own permit, so the limiter is wrapped
+            // by the retries
+            if (limiter != null) {
+                transport = new RateLimitedRequestMaker(transport, limiter);
+            }
+            if (this.retryPolicy != null) {
+                transport = new RetryingRequestMaker(transport,
+                        this.retryPolicy);
+            }
+
+            CircuitBreakerRegistry circuitBreakers = null;
+            if (this.circuitBreakerConfig != null) {
+                circuitBreakers = new CircuitBreakerRegistry(
+                        this.circuitBreakerConfig);
+            }
+
+            Hedger hedger = null;
+            if (this.hedgingPolicy != null) {
+                hedger = new Hedger(this.hedgingPolicy);
+            }
+
+            DrainingRequestMaker draining = new DrainingRequestMaker(
+                    transport, this.drainTimeout, ownsTransport);
+
+            WarmUpReport warmUpReport = null;
+            if (this.warmUpConnections != null) {
+                try {
+                    warmUpReport = WarmUp.run(draining, parser, this.baseUrl,
+                            this.warmUpConnections);
+                } catch (OutsetaInvalidURLException e) {
+                    OutsetaClientBuildException failure =
+                            new OutsetaClientBuildException(e.getMessage());
+                    try {
+                        draining.close();
+                    } catch (IOException closeFailure) {
+                        failure.addSuppressed(closeFailure);
+                    }
+                    throw failure;
+                }
+            }
+
+            return new Outseta(this, parser, draining, circuitBreakers,
+                    hedger, warmUpReport);
+        }
+    }
+
+    /**
+     * The base url of the Outseta API.
+     */
+    private final String baseUrl;
+
+    /**
+     * The headers shared by all clients. The snapshot is replaced as a
+     * whole when the headers change.
+     */
+    private final AtomicReference<HeaderSnapshot> headers;
+
+    /**
+     * Whether the Authorization header holds an access key.
+     */
+    private final boolean accessKey;
+
+    /**
+     * The parser shared by all clients.
+     */
+    private final ParserFacade parserFacade;
+
+    /**
+     * The request maker shared by all clients.
+     */
+    private final DrainingRequestMaker requestMaker;
+
+    /**
+     * The circuit breakers shared by all clients, or null if every request
+     * is sent.
+     */
+    private final CircuitBreakerRegistry circuitBreakers;
+
+    /**
+     * The hedger shared by all clients, or null if get requests are not
+     * hedged.
+     */
+    private final Hedger hedger;
+
+    /**
+     * The coalescer shared by all clients, or null if every call sends its
+     * own request.
+     */
+    private final RequestCoalescer coalescer;
+
+    /**
+     * The cache of the entities read by id shared by all clients, or null
+     * if every lookup is sent to the api.
+     */
+    private final EntityCache entityCache;
+
+    /**
+     * What the warm-up did when the object was built, or null if it was not
+     * warmed up.
+     */
+    private final WarmUpReport warmUpReport;
+
+    /**
+     * The key of the profile client that is given the access token on each
+     * call, which is kept apart from the one of the access key.
+     */
+    private static final String PER_CALL_PROFILES =
+            ProfileClient.class.getName() + "#perCallAccessTokens";
+
+    /**
+     * The clients that have been created so far, keyed by their type or,
+     * for clients of a type that is built in more than one way, by a name.
+     */
+    private final Map<Object, BaseClient> clients;
+
+    /**
+     * The cache of the billing catalog, or null until it is asked for.
+     */
+    private CatalogCache catalog;
+
+    /**
+     * The constructor is intentionally private to force the use of the
+     * builder.
+     * @param builder The builder holding the base url, the headers, the
+     *                coalescer and the entity cache shared by all clients.
+     * @param pParserFacade The parser shared by all clients.
+     * @param pRequestMaker The request maker shared by all clients.
+     * @param pCircuitBreakers The circuit breakers shared by all clients,
+     *                         or null if every request is sent.
+     * @param pHedger The hedger shared by all clients, or null if get
+     *                requests are not hedged.
+     * @param pWarmUpReport What the warm-up did, or null if the object was
+     *                      not warmed up.
+     */
+    private Outseta(final Builder builder,
+                    final ParserFacade pParserFacade,
+                    final DrainingRequestMaker pRequestMaker,
+                    final CircuitBreakerRegistry pCircuitBreakers,
+                    final Hedger pHedger,
+                    final WarmUpReport pWarmUpReport) {
+        this.baseUrl = builder.baseUrl;
+        this.headers = new AtomicReference<>(
+                HeaderSnapshot.of(builder.headers));
+        this.accessKey = builder.accessKey;
+        this.parserFacade = pParserFacade;
+        this.requestMaker = pRequestMaker;
+        this.circuitBreakers = pCircuitBreakers;
+        this.hedger = pHedger;
+        this.coalescer = builder.coalescer;
+        this.entityCache = builder.entityCache;
+        this.warmUpReport = pWarmUpReport;
+        this.clients = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * This method is used to create a new builder object.
+     * @param baseUrl The base url of the Outseta API.
+     * @return A new builder object.
+     */
+    public static Builder builder(final String baseUrl) {
+        return new Builder(baseUrl);
+    }
+
+    /**
+     * This method returns the client of the given type, creating it the
+     * first time it is asked for.
+     * @param type The type of the client.
+     * @param factory The factory used to create the client.
+     * @param <T> The type of the client.
+     * @return The client.
+     * @throws OutsetaClientBuildException If the client cannot be created
+     *      or the Outseta object has been closed.
+     */
+    private <T extends BaseClient> T client(final Class<T> type,
+                                            final ClientFactory<T> factory)
+            throws OutsetaClientBuildException {
+        return this.client(type, type, factory);
+    }
+
+    /**
+     * This method returns the client kept under the given key, creating it
+     * the first time it is asked for.
+     * @param key The key of the client.
+     * @param type The type of the client.
+     * @param factory The factory used to create the client.
+     * @param <T> The type of the client.
+     * @return The client.
+     * @throws OutsetaClientBuildException If the client cannot be created
+     *      or the Outseta object has been closed.
+     */
+    private <T extends BaseClient> T client(final Object key,
+                                            final Class<T> type,
+                                            final ClientFactory<T> factory)
+            throws OutsetaClientBuildException {
+
+        if (this.requestMaker.isClosed()) {
+            throw new OutsetaClientBuildException(
+                    "The Outseta client has been closed.");
+        }
+
+        BaseClient client = this.clients.get(key);
+        if (client == null) {
+            synchronized (this.clients) {
+                client = this.clients.get(key);
+                if (client == null) {
+                    try {
+                        client = factory.builder(this.baseUrl)
+                                .sharedHeaders(this.headers)
+                                .parser(this.parserFacade)
+                                .requestMaker(this.requestMaker)
+                                .build();
+                        client.setCircuitBreakers(this.circuitBreakers);
+                        client.setHedger(this.hedger);
+                        client.setCoalescer(this.coalescer);
+                        client.setEntityCache(this.entityCache);
+                    } catch (OutsetaInvalidRequestMakerException e) {
+                        throw new OutsetaClientBuildException(e.getMessage());
+                    }
+                    this.clients.put(key, client);
+                }
+            }
+        }
+        return type.cast(client);
+    }
+
+    /**
+     * Returns the client for the Account endpoints.
+     * @return The AccountClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public AccountClient accounts() throws OutsetaClientBuildException {
+        return this.client(AccountClient.class, AccountClient::builder);
+    }
+
+    /**
+     * Returns the client for the Activity endpoints.
+     * @return The ActivityClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public ActivityClient activities() throws OutsetaClientBuildException {
+        return this.client(ActivityClient.class, ActivityClient::builder);
+    }
+
+    /**
+     * Returns the client for the Deal endpoints.
+     * @return The DealClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public DealClient deals() throws OutsetaClientBuildException {
+        return this.client(DealClient.class, DealClient::builder);
+    }
+
+    /**
+     * Returns the client for the People endpoints.
+     * @return The PeopleClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public PeopleClient people() throws OutsetaClientBuildException {
+        return this.client(PeopleClient.class, PeopleClient::builder);
+    }
+
+    /**
+     * Returns the client for the AddOn endpoints.
+     * @return The AddOnClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public AddOnClient addOns() throws OutsetaClientBuildException {
+        return this.client(AddOnClient.class, AddOnClient::builder);
+    }
+
+    /**
+     * Returns the client for the Discount endpoints.
+     * @return The DiscountClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public DiscountClient discounts() throws OutsetaClientBuildException {
+        return this.client(DiscountClient.class, DiscountClient::builder);
+    }
+
+    /**
+     * Returns the client for the Invoice endpoints.
+     * @return The InvoiceClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public InvoiceClient invoices() throws OutsetaClientBuildException {
+        return this.client(InvoiceClient.class, InvoiceClient::builder);
+    }
+
+    /**
+     * Returns the client for the Plan endpoints.
+     * @return The PlanClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public PlanClient plans() throws OutsetaClientBuildException {
+        return this.client(PlanClient.class, PlanClient::builder);
+    }
+
+    /**
+     * Returns the client for the PlanFamily endpoints.
+     * @return The PlanFamilyClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public PlanFamilyClient planFamilies()
+            throws OutsetaClientBuildException {
+        return this.client(PlanFamilyClient.class, PlanFamilyClient::builder);
+    }
+
+    /**
+     * Returns the cache of the billing catalog shared by all callers,
+     * creating it the first time it is asked for. It reads the plans, the
+     * plan families and the add-ons through the shared clients and keeps
+     * them refreshed in the background until this object is closed.
+     * @return The CatalogCache.
+     * @throws OutsetaClientBuildException If the cache cannot be created.
+     */
+    public CatalogCache catalog() throws OutsetaClientBuildException {
+        PlanClient planClient = this.plans();
+        PlanFamilyClient planFamilyClient = this.planFamilies();
+        AddOnClient addOnClient = this.addOns();
+        synchronized (this.clients) {
+            if (this.catalog == null) {
+                this.catalog = CatalogCache.builder(planClient,
+                        planFamilyClient, addOnClient).build();
+            }
+            return this.catalog;
+        }
+    }
+
+    /**
+     * Returns the client for the Subscription endpoints.
+     * @return The SubscriptionClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public SubscriptionClient subscriptions()
+            throws OutsetaClientBuildException {
+        return this.client(SubscriptionClient.class,
+                SubscriptionClient::builder);
+    }
+
+    /**
+     * Returns the client for the payment information endpoints.
+     * @return The UpdatePaymentInfoClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public UpdatePaymentInfoClient paymentInfo()
+            throws OutsetaClientBuildException {
+        return this.client(UpdatePaymentInfoClient.class,
+                UpdatePaymentInfoClient::builder);
+    }
+
+    /**
+     * Returns the client for the Authentication endpoints.
+     * @return The AuthenticationClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public AuthenticationClient authentication()
+            throws OutsetaClientBuildException {
+        return this.client(AuthenticationClient.class,
+                AuthenticationClient::builder);
+    }
+
+    /**
+     * Returns the client for the Marketing endpoints.
+     * @return The MarketingClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public MarketingClient marketing() throws OutsetaClientBuildException {
+        return this.client(MarketingClient.class, MarketingClient::builder);
+    }
+
+    /**
+     * Returns the client for the Profile endpoints. It can only be used if
+     * the Outseta object was built with an access key. Use
+     * {@link #profiles()} to call them with the access tokens of users.
+     * @return The ProfileClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public ProfileClient profile() throws OutsetaClientBuildException {
+        if (!this.accessKey) {
+            throw new OutsetaClientBuildException(
+                    "The ProfileClient cannot be built with an api key.");
+        }
+        return this.client(ProfileClient.class, ProfileClient::builder);
+    }
+
+    /**
+     * Returns a client for the Profile endpoints that is given the access
+     * token of a user on each call. It can be used whatever the Outseta
+     * object was built with, and shares its request maker, parser and rate
+     * limiter, so one client serves every user.
+     * @return The ProfileClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public ProfileClient profiles() throws OutsetaClientBuildException {
+        return this.client(PER_CALL_PROFILES, ProfileClient.class,
+                url -> ProfileClient.builder(url).perCallAccessTokens());
+    }
+
+    /**
+     * Returns the client for the Support endpoints.
+     * @return The SupportClient.
+     * @throws OutsetaClientBuildException If the client cannot be created.
+     */
+    public SupportClient support() throws OutsetaClientBuildException {
+        return this.client(SupportClient.class, SupportClient::builder);
+    }
+
+    /**
+     * Returns the base url of the Outseta API.
+     * @return The base url.
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Returns the headers shared by all clients. The returned map is an
+     * immutable snapshot: use {@link #updateHeaders(Map)},
+     * {@link #replaceHeaders(Map)} or {@link #removeHeader(String)} to
+     * change the headers.
+     * @return The headers.
+     */
+    public Map<String, String> getHeaders() {
+        return this.headers.get();
+    }
+
+    /**
+     * This method is used to add headers to the headers of all clients. It
+     * is safe to call while other threads make requests, for example to
+     * rotate the api key: requests that are already being sent keep the
+     * old headers and the ones that start afterwards use the new ones.
+     * @param pHeaders The headers to add.
+     * @throws OutsetaClientBuildException If the headers are null.
+     */
+    public void updateHeaders(final Map<String, String> pHeaders)
+            throws OutsetaClientBuildException {
+
+        if (pHeaders == null) {
+            throw new OutsetaClientBuildException(
+                    "Cannot assign null headers.");
+        }
+        this.headers.updateAndGet(current -> current.with(pHeaders));
+    }
+
+    /**
+     * This method is used to remove a header from the headers of all
+     * clients.
+     * @param name The name of the header to remove.
+     */
+    public void removeHeader(final String name) {
+        this.headers.updateAndGet(current -> current.without(name));
+    }
+
+    /**
+     * This method is used to replace the headers of all clients.
+     * @param pHeaders The headers to replace the current headers with.
+     * @throws OutsetaClientBuildException If the headers are null or do not
+     *      contain an authorization header.
+     */
+    public void replaceHeaders(final Map<String, String> pHeaders)
+            throws OutsetaClientBuildException {
+
+        if (pHeaders == null || !pHeaders.containsKey("Authorization")) {
+            throw new OutsetaClientBuildException(
+                    "Invalid headers for authentication client. "
+                            + "Please check headers.");
+        }
+        this.headers.set(HeaderSnapshot.of(pHeaders));
+    }
+
+    /**
+     * Returns the parser shared by all clients.
+     * @return The parser.
+     */
+    public ParserFacade getParserFacade() {
+        return parserFacade;
+    }
+
+    /**
+     * Returns the request maker shared by all clients.
+     * @return The request maker.
+     */
+    public RequestMaker getRequestMaker() {
+        return requestMaker;
+    }
+
+    /**
+     * Returns the circuit breakers shared by all clients.
+     * @return The circuit breakers, or null if every request is sent.
+     */
+    public CircuitBreakerRegistry getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
+    /**
+     * Returns the hedger shared by all clients.
+     * @return The hedger, or null if get requests are not hedged.
+     */
+    public Hedger getHedger() {
+        return hedger;
+    }
+
+    /**
+     * Returns the coalescer shared by all clients.
+     * @return The coalescer, or null if every call sends its own request.
+     */
+    public RequestCoalescer getCoalescer() {
+        return coalescer;
+    }
+
+    /**
+     * Returns the cache of the entities read by id shared by all clients.
+     * @return The entity cache, or null if every lookup is sent to the api.
+     */
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * This method is used to read the statistics of the shared connection
+     * pool.
+     * @return The statistics of the pool, or null if the request maker
+     *      does not use a pool.
+     */
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return this.requestMaker.getPoolStats();
+    }
+
+    /**
+     * This method is used to read how many response bytes were read from
+     * the wire and how many they decoded to.
+     * @return The statistics, or null if the request maker does not count
+     *      them.
+     */
+    public TransferStats getTransferStats() {
+        return this.requestMaker.getTransferStats();
+    }
+
+    /**
+     * This method is used to read what the warm-up did when the object was
+     * built.
+     * @return The report, or null if the object was not warmed up.
+     */
+    public WarmUpReport getWarmUpReport() {
+        return warmUpReport;
+    }
+
+    /**
+     * This method rejects new calls, waits for the calls that are in
+     * flight to finish and then releases the connection pool.
+     * @throws IOException If the connection pool cannot be released.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this.clients) {
+            if (this.catalog != null) {
+                this.catalog.close();
+            }
+        }
+        this.requestMaker.close();
+    }
+}
@@ -0,0 +1,710 @@
+package com.outseta.client.endpoint_client;
+
+import com.outseta.client.BaseClient;
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.exception.OutsetaInvalidArgumentException;
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.OutsetaParseException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import com.outseta.model.request.GetAuthTokenRequest;
+import com.outseta.model.result.AuthToken;
+
+import java.io.Closeable;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * This class keeps the auth tokens of the users in memory, so that a token
+ * is only requested from the api when the one in memory is about to
+ * expire.
+ * <p>
+ *     The tokens are kept by username until the expiry the api returned
+ *     with them. Before a token expires, a new one is requested in the
+ *     background and swapped in, so readers do not wait for it. The users
+ *     that read the same token while none is in memory share a single
+ *     request. A token that is no longer read and has no bound client is
+ *     not refreshed, it is dropped when it expires.
+ * </p>
+ * <p>
+ *     A token in memory is only served to a caller that gives the password
+ *     it was requested with. A caller that gives another password has it
+ *     checked by the api, and the new password is only kept for the
+ *     refreshes once the api accepted it.
+ * </p>
+ * <p>
+ *     Clients that call the api on behalf of a user can be bound to the
+ *     user, after which every new token is written into their
+ *     Authorization header, so they never have to be rebuilt. The
+ *     credentials of the users are kept in memory to request the new
+ *     tokens.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * AuthTokenManager tokens = AuthTokenManager.builder(authenticationClient)
+ *      .refreshAhead(0.8)
+ *      .build();
+ * GetAuthTokenRequest user = GetAuthTokenRequest.builder()
+ *      .username(username)
+ *      .password(password)
+ *      .build();
+ * AuthToken token = tokens.getToken(user);
+ * tokens.bind(user, profileClient);
+ * }</pre>
+ */
+public final class AuthTokenManager implements Closeable {
+
+    /**
+     * The default time to live of a token that has no expiry, in
+     * milliseconds.
+     */
+    public static final long DEFAULT_TTL = 3_600_000L;
+
+    /**
+     * The default part of the life of a token after which a new one is
+     * requested.
+     */
+    public static final double DEFAULT_REFRESH_AHEAD = 0.8;
+
+    /**
+     * The default time to wait before requesting a token again after a
+     * failed refresh, in milliseconds.
+     */
+    public static final long DEFAULT_RETRY_DELAY = 30_000L;
+
+    /**
+     * This interface is used to request a token from the api.
+     */
+    interface Loader {
+
+        /**
+         * This method requests a token.
+         * @param request The credentials of the user.
+         * @return The token.
+         * @throws OutsetaInvalidArgumentException If the request is not
+         *      valid.
+         * @throws OutsetaParseException If the token cannot be parsed.
+         * @throws OutsetaInvalidResponseCodeException If the response code
+         *      is invalid.
+         * @throws OutsetaAPIBadRequestException If the request is bad.
+         * @throws OutsetaAPIFailedException If the request fails.
+         * @throws OutsetaAPIUnknownException If the request fails for an
+         *      unknown reason.
+         * @throws OutsetaInvalidURLException If the url is invalid.
+         */
+        AuthToken load(GetAuthTokenRequest request)
+                throws OutsetaParseException,
+                OutsetaInvalidResponseCodeException,
+                OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+                OutsetaAPIUnknownException, OutsetaInvalidURLException,
+                OutsetaInvalidArgumentException;
+    }
+
+    /**
+     * This class is used to build an AuthTokenManager object.
+     */
+    public static final class Builder {
+
+        /**
+         * The client used to request the tokens.
+         */
+        private final AuthenticationClient authenticationClient;
+
+        /**
+         * The time to live of a token that has no expiry.
+         */
+        private long ttl;
+
+        /**
+         * The part of the life of a token after which a new one is
+         * requested.
+         */
+        private double refreshAhead;
+
+        /**
+         * The time to wait before requesting a token again after a failed
+         * refresh.
+         */
+        private long retryDelay;
+
+        /**
+         * The constructor for Builder.
+         * @param pAuthenticationClient The client used to request the
+         *                              tokens.
+         */
+        private Builder(final AuthenticationClient pAuthenticationClient) {
+            this.authenticationClient = pAuthenticationClient;
+            this.ttl = DEFAULT_TTL;
+            this.refreshAhead = DEFAULT_REFRESH_AHEAD;
+            this.retryDelay = DEFAULT_RETRY_DELAY;
+        }
+
+        /**
+         * Sets how long a token is kept when the api does not say when it
+         * expires.
+         * @param pTtl The time to live in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder ttl(final long pTtl) {
+            this.ttl = pTtl;
+            return this;
+        }
+
+        /**
+         * Sets the part of the life of a token after which a new one is
+         * requested in the background.
+         * @param pRefreshAhead A number greater than 0 and less than 1.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder refreshAhead(final double pRefreshAhead) {
+            this.refreshAhead = pRefreshAhead;
+            return this;
+        }
+
+        /**
+         * Sets the time to wait before requesting a token again after a
+         * failed refresh.
+         * @param pRetryDelay The delay in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder retryDelay(final long pRetryDelay) {
+            this.retryDelay = pRetryDelay;
+            return this;
+        }
+
+        /**
+         * This method is used to create a new AuthTokenManager object.
+         * @return A new AuthTokenManager object.
+         * @throws OutsetaClientBuildException If the client is null or a
+         *      setting is out of range.
+         */
+        public AuthTokenManager build() throws OutsetaClientBuildException {
+
+            if (this.authenticationClient == null) {
+                throw new OutsetaClientBuildException(
+                        "The authentication client cannot be null.");
+            }
+            if (this.ttl <= 0) {
+                throw new OutsetaClientBuildException(
+                        "The time to live must be greater than 0.");
+            }
+            if (!(this.refreshAhead > 0 && this.refreshAhead < 1)) {
+                throw new OutsetaClientBuildException(
+                        "The refresh ahead must be greater than 0 and less "
+                                + "than 1.");
+            }
+            if (this.retryDelay <= 0) {
+                throw new OutsetaClientBuildException(
+                        "The retry delay must be greater than 0.");
+            }
+
+            return new AuthTokenManager(this,
+                    this.authenticationClient::getAuthToken,
+                    System::nanoTime);
+        }
+    }
+
+    /**
+     * This class is a token with the times it is refreshed and expires.
+     */
+    private static final class Token {
+
+        /**
+         * The token.
+         */
+        private final AuthToken authToken;
+
+        /**
+         * The time a new token is requested, in nanoseconds of the clock.
+         */
+        private final long refreshAt;
+
+        /**
+         * The time the token expires, in nanoseconds of the clock.
+         */
+        private final long expiresAt;
+
+        /**
+         * The constructor for Token.
+         * @param pAuthToken The token.
+         * @param pRefreshAt The time a new token is requested.
+         * @param pExpiresAt The time the token expires.
+         */
+        private Token(final AuthToken pAuthToken, final long pRefreshAt,
+                      final long pExpiresAt) {
+            this.authToken = pAuthToken;
+            this.refreshAt = pRefreshAt;
+            this.expiresAt = pExpiresAt;
+        }
+    }
+
+    /**
+     * This class holds the token of a user and the clients bound to it.
+     */
+    private static final class Session {
+
+        /**
+         * The lock held while a token is requested, so only one is
+         * requested at a time. Readers never take it while the token is
+         * valid.
+         */
+        private final Object lock = new Object();
+
+        /**
+         * The clients whose Authorization header follows the token.
+         */
+        private final List<WeakReference<BaseClient>> clients =
+                new CopyOnWriteArrayList<>();
+
+        /**
+         * The credentials the api last accepted for the user, or null
+         * before the first token.
+         */
+        private volatile GetAuthTokenRequest request;
+
+        /**
+         * The token that is served, or null.
+         */
+        private volatile Token current;
+
+        /**
+         * Whether the token was read since it was last requested.
+         */
+        private volatile boolean used;
+
+        /**
+         * The next background refresh, if one is scheduled. It is guarded
+         * by the lock.
+         */
+        private ScheduledFuture<?> nextLoad;
+    }
+
+    /**
+     * The loader of the tokens.
+     */
+    private final Loader loader;
+
+    /**
+     * The time to live of a token that has no expiry, in nanoseconds.
+     */
+    private final long ttl;
+
+    /**
+     * The part of the life of a token after which a new one is requested.
+     */
+    private final double refreshAhead;
+
+    /**
+     * The time to wait before requesting a token again after a failed
+     * refresh, in nanoseconds.
+     */
+    private final long retryDelay;
+
+    /**
+     * The clock, in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The thread that refreshes the tokens.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The sessions by username.
+     */
+    private final ConcurrentMap<String, Session> sessions =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Whether the manager has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The constructor for AuthTokenManager.
+     * @param builder The builder holding the settings.
+     * @param pLoader The loader of the tokens.
+     * @param pClock The clock, in nanoseconds.
+     */
+    AuthTokenManager(final Builder builder, final Loader pLoader,
+                     final LongSupplier pClock) {
+        this.loader = pLoader;
+        this.ttl = TimeUnit.MILLISECONDS.toNanos(builder.ttl);
+        this.refreshAhead = builder.refreshAhead;
+        this.retryDelay = TimeUnit.MILLISECONDS.toNanos(builder.retryDelay);
+        this.clock = pClock;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "outseta-token-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * This method is used to get a builder that can be used to build an
+     * AuthTokenManager object.
+     * @param authenticationClient The client used to request the tokens.
+     * @return The builder.
+     */
+    public static Builder builder(
+            final AuthenticationClient authenticationClient) {
+        return new Builder(authenticationClient);
+    }
+
+    /**
+     * This method returns the token of a user. The token in memory is
+     * returned without waiting while it is valid, otherwise a new one is
+     * requested, once for all the callers that ask for it at the same
+     * time.
+     * @param request The credentials of the user.
+     * @return The token.
+     * @throws OutsetaInvalidArgumentException Thrown if the request or the
+     *      username is null.
+     * @throws OutsetaParseException Thrown if the token cannot be parsed.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response
+     *      code is invalid.
+     * @throws OutsetaAPIBadRequestException Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException Thrown if the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException Thrown if the url is invalid.
+     */
+    public AuthToken getToken(final GetAuthTokenRequest request)
+            throws OutsetaParseException, OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaInvalidURLException,
+            OutsetaInvalidArgumentException {
+
+        return this.token(this.session(request), request).authToken;
+    }
+
+    /**
+     * This method binds a client to the token of a user: the current token
+     * is written into the Authorization header of the client now, and
+     * every new token when it is received. The manager does not keep the
+     * client from being garbage collected.
+     * @param request The credentials of the user.
+     * @param client The client.
+     * @throws OutsetaInvalidArgumentException Thrown if the request, the
+     *      username or the client is null.
+     * @throws OutsetaParseException Thrown if the token cannot be parsed.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response
+     *      code is invalid.
+     * @throws OutsetaAPIBadRequestException Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException Thrown if the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException Thrown if the url is invalid.
+     */
+    public void bind(final GetAuthTokenRequest request,
+                     final BaseClient client)
+            throws OutsetaParseException, OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaInvalidURLException,
+            OutsetaInvalidArgumentException {
+
+        if (client == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "The client cannot be null.");
+        }
+        Session session = this.session(request);
+        this.token(session, request);
+
+        // The token is written under the lock so that a refresh cannot
+        // slip in between
+        synchronized (session.lock) {
+            session.clients.add(new WeakReference<>(client));
+            Token token = session.current;
+            if (token != null) {
+                apply(client, token.authToken);
+            }
+        }
+    }
+
+    /**
+     * This method unbinds a client, so that its Authorization header is
+     * no longer changed.
+     * @param client The client.
+     */
+    public void unbind(final BaseClient client) {
+        for (Session session : this.sessions.values()) {
+            session.clients.removeIf(reference -> reference.get() == null
+                    || reference.get() == client);
+        }
+    }
+
+    /**
+     * This method drops the token of a user, for example after the api
+     * rejected it. The next read requests a new one and writes it into
+     * the bound clients.
+     * @param username The username of the user.
+     */
+    public void invalidate(final String username) {
+        Session session = username == null
+                ? null : this.sessions.get(username);
+        if (session == null) {
+            return;
+        }
+        synchronized (session.lock) {
+            session.current = null;
+            if (session.nextLoad != null) {
+                session.nextLoad.cancel(false);
+                session.nextLoad = null;
+            }
+        }
+    }
+
+    /**
+     * This method stops the background refreshes. The tokens in memory
+     * keep being served until they expire.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * This method returns the session of a user, creating it if needed.
+     * The credentials are only kept once the api accepted them.
+     * @param request The credentials of the user.
+     * @return The session.
+     * @throws OutsetaInvalidArgumentException If the request or the
+     *      username is null.
+     */
+    private Session session(final GetAuthTokenRequest request)
+            throws OutsetaInvalidArgumentException {
+
+        if (request == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "The request cannot be null.");
+        }
+        if (request.getUsername() == null
+                || request.getUsername().trim().isEmpty()) {
+            throw new OutsetaInvalidArgumentException(
+                    "The username cannot be null or empty.");
+        }
+        return this.sessions.computeIfAbsent(request.getUsername(),
+                username -> new Session());
+    }
+
+    /**
+     * This method checks whether the credentials given by a caller are the
+     * ones the api accepted for the session. The passwords are compared in
+     * constant time.
+     * @param session The session.
+     * @param request The credentials given by the caller.
+     * @return True if the passwords are the same.
+     */
+    private static boolean matches(final Session session,
+                                   final GetAuthTokenRequest request) {
+        GetAuthTokenRequest accepted = session.request;
+        if (accepted == null || accepted.getPassword() == null
+                || request.getPassword() == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                accepted.getPassword().getBytes(StandardCharsets.UTF_8),
+                request.getPassword().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * This method returns the valid token of a session, requesting a new
+     * one if there is none or if the caller gave another password.
+     * @param session The session.
+     * @param request The credentials given by the caller.
+     * @return The token.
+     * @throws OutsetaInvalidArgumentException If the request is not valid.
+     * @throws OutsetaParseException If the token cannot be parsed.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request is bad.
+     * @throws OutsetaAPIFailedException If the request fails.
+     * @throws OutsetaAPIUnknownException If the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    private Token token(final Session session,
+                        final GetAuthTokenRequest request)
+            throws OutsetaParseException, OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaInvalidURLException,
+            OutsetaInvalidArgumentException {
+
+        Token token = session.current;
+        if (token != null && this.clock.getAsLong() - token.expiresAt < 0
+                && matches(session, request)) {
+            session.used = true;
+            return token;
+        }
+        return this.load(session, request, false);
+    }
+
+    /**
+     * This method requests a new token for a session, swaps it in, writes
+     * it into the bound clients and schedules the next refresh. The
+     * credentials are kept for the refreshes once the api accepted them.
+     * @param session The session.
+     * @param request The credentials to request the token with.
+     * @param background True for a refresh, which requests a token even if
+     *                   the one in memory is valid and schedules a retry
+     *                   after a failure.
+     * @return The token.
+     * @throws OutsetaInvalidArgumentException If the request is not valid.
+     * @throws OutsetaParseException If the token cannot be parsed.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request is bad.
+     * @throws OutsetaAPIFailedException If the request fails.
+     * @throws OutsetaAPIUnknownException If the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    private Token load(final Session session,
+                       final GetAuthTokenRequest request,
+                       final boolean background)
+            throws OutsetaParseException, OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaInvalidURLException,
+            OutsetaInvalidArgumentException {
+
+        synchronized (session.lock) {
+
+            // The callers that waited for the lock use the token that was
+            // requested meanwhile with the same password
+            Token token = session.current;
+            long now = this.clock.getAsLong();
+            if (token != null && matches(session, request)
+                    && (background ? now - token.refreshAt < 0
+                    : now - token.expiresAt < 0)) {
+                if (!background) {
+                    session.used = true;
+                }
+                return token;
+            }
+
+            AuthToken authToken;
+            try {
+                authToken = this.loader.load(request);
+            } catch (Exception e) {
+                this.retry(session, background);
+                throw e;
+            }
+            session.request = request;
+            if (!background) {
+                session.used = true;
+            }
+
+            now = this.clock.getAsLong();
+            long life = authToken.getExpiresIn() != null
+                    && authToken.getExpiresIn() > 0
+                    ? TimeUnit.SECONDS.toNanos(authToken.getExpiresIn())
+                    : this.ttl;
+            long refreshAfter = (long) (life * this.refreshAhead);
+            token = new Token(authToken, now + refreshAfter, now + life);
+            session.current = token;
+            for (WeakReference<BaseClient> reference : session.clients) {
+                BaseClient client = reference.get();
+                if (client == null) {
+                    session.clients.remove(reference);
+                } else {
+                    apply(client, authToken);
+                }
+            }
+            if (background) {
+                session.used = false;
+            }
+            this.schedule(session, refreshAfter);
+            return token;
+        }
+    }
+
+    /**
+     * This method refreshes the token of a session in the background, if
+     * it is still read or has bound clients. Otherwise the session is
+     * dropped and the next read requests a new token.
+     * @param session The session.
+     */
+    private void refresh(final Session session) {
+        boolean bound = false;
+        for (WeakReference<BaseClient> reference : session.clients) {
+            bound |= reference.get() != null;
+        }
+        if (!session.used && !bound) {
+            this.sessions.remove(session.request.getUsername(), session);
+            return;
+        }
+        try {
+            this.load(session, session.request, true);
+        } catch (Exception e) {
+            // The token in memory is kept and the refresh is retried
+        }
+    }
+
+    /**
+     * This method schedules a refresh after a failed one.
+     * @param session The session.
+     * @param background True if the failed request was a refresh.
+     */
+    private void retry(final Session session, final boolean background) {
+        if (background) {
+            this.schedule(session, this.retryDelay);
+        }
+    }
+
+    /**
+     * This method schedules the next refresh of a session, replacing the
+     * one that is scheduled. It is called with the lock of the session.
+     * @param session The session.
+     * @param delay The delay in nanoseconds.
+     */
+    private void schedule(final Session session, final long delay) {
+        if (session.nextLoad != null) {
+            session.nextLoad.cancel(false);
+        }
+        if (this.closed) {
+            return;
+        }
+        try {
+            session.nextLoad = this.scheduler.schedule(
+                    () -> this.refresh(session), delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // The manager was closed while the token was requested
+            session.nextLoad = null;
+        }
+    }
+
+    /**
+     * This method writes a token into the Authorization header of a
+     * client.
+     * @param client The client.
+     * @param authToken The token.
+     */
+    private static void apply(final BaseClient client,
+                              final AuthToken authToken) {
+        try {
+            client.updateHeaders(Collections.singletonMap("Authorization",
+                    "Bearer " + authToken.getAccessToken()));
+        } catch (OutsetaClientBuildException e) {
+            // Only thrown for null headers
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.outseta.client.endpoint_client;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -27,6 +28,12 @@ import java.util.Map;
  */
 public final class AuthenticationClient extends BaseClient {
 
+    /**
+     * The route of the tokens.
+     */
+    private static final RouteTemplate TOKENS = RouteTemplate.compile(
+            "/tokens");
+
     /**
      * A customized builder for the client.
      */
@@ -190,7 +197,7 @@ public final class AuthenticationClient extends BaseClient {
                             getAuthTokenRequest.getPassword());
         }
 
-        String result = this.post("/tokens", new HashMap<>(),
+        String result = this.post(TOKENS.expand(), NO_PARAMETERS,
                 urlEncoded);
 
         return this.getParserFacade().jsonStringToObject(result,
@@ -2,6 +2,8 @@ package com.outseta.client.endpoint_client;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
+import com.outseta.client_helper.pagination.PageIterable;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -15,7 +17,7 @@ import com.outseta.model.result.EmailList;
 import com.outseta.model.result.ItemPage;
 import com.outseta.model.result.MarketingSubscription;
 
-import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class is used to make calls to the Marketing endpoints of the
@@ -28,6 +30,30 @@ import java.util.HashMap;
  */
 public final class MarketingClient extends BaseClient {
 
+    /**
+     * The route of the email lists.
+     */
+    private static final RouteTemplate EMAIL_LISTS = RouteTemplate.compile(
+            "/email/lists");
+
+    /**
+     * The route of an email list.
+     */
+    private static final RouteTemplate EMAIL_LIST = RouteTemplate.compile(
+            "/email/lists/{emailListId}");
+
+    /**
+     * The route of the subscriptions of an email list.
+     */
+    private static final RouteTemplate SUBSCRIPTIONS = RouteTemplate.compile(
+            "/email/lists/{emailListId}/subscriptions");
+
+    /**
+     * The route of a subscription of an email list.
+     */
+    private static final RouteTemplate SUBSCRIPTION = RouteTemplate.compile(
+            "/email/lists/{emailListId}/subscriptions/{subscriptionId}");
+
     /**
      * This method is used to get a builder that can be used to build a
      * MarketingClient object.
@@ -96,11 +122,8 @@ public final class MarketingClient extends BaseClient {
                     "Email list id cannot be null or blank.");
         }
 
-        String result = this.get("/email/lists/" + emailListId,
-                new HashMap<>());
-
-        return this.getParserFacade().jsonStringToObject(result,
-                EmailList.class);
+        return this.getObject(EMAIL_LIST.expand(emailListId),
+                NO_PARAMETERS, EmailList.class);
     }
 
     /**
@@ -157,12 +180,32 @@ public final class MarketingClient extends BaseClient {
                     "Page request cannot be null.");
         }
 
-        String result = this.get("/email/lists",
-                pageRequest.buildParams());
+        return this.getPage(EMAIL_LISTS.expand(),
+                pageRequest.buildParams(),
+                EmailList.class);
+    }
+
+    /**
+     * This method is used to walk over all email lists, starting at the
+     * requested page. The next page is fetched in the background while the
+     * items of the current one are being used. The page size, sort order
+     * and filters of the request are kept for every page.
+     *
+     * @param pageRequest The request of the first page.
+     * @return An Iterable over all email lists that can also be streamed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public PageIterable<EmailList> getAllEmailLists(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+
+        if (pageRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "Page request cannot be null.");
+        }
 
-        return this.getParserFacade()
-                .jsonStringToPage(result,
-                        EmailList.class);
+        return new PageIterable<>(pageRequest, this::getEmailListPage);
     }
 
     /**
@@ -228,13 +271,131 @@ public final class MarketingClient extends BaseClient {
                     "Page request cannot be null.");
         }
 
-        String result = this.get("/email/lists/" + emailListId
-                        + "/subscriptions",
-                pageRequest.buildParams());
+        return this.getPage(SUBSCRIPTIONS.expand(emailListId),
+                pageRequest.buildParams(),
+                MarketingSubscription.class);
+    }
+
+    /**
+     * This method is used to walk over all subscriptions of an email
+     * list, starting at the requested page. The next page is fetched in the
+     * background while the items of the current one are being used. The
+     * page size, sort order and filters of the request are kept for every
+     * page.
+     *
+     * @param emailListId The id of the email list.
+     * @param pageRequest The request of the first page.
+     * @return An Iterable over all subscriptions that can also be streamed.
+     * @throws OutsetaInvalidArgumentException Thrown if the email list id or
+     *                                         the page request is null
+     *                                         or blank.
+     */
+    public PageIterable<MarketingSubscription> getAllSubscriptions(
+            final String emailListId,
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+
+        if (emailListId == null || emailListId.trim().isEmpty()) {
+            throw new OutsetaInvalidArgumentException(
+                    "Email list id cannot be null or blank.");
+        }
+
+        if (pageRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "Page request cannot be null.");
+        }
+
+        return new PageIterable<>(pageRequest, request ->
+                this.getSubscriptionPage(emailListId, request));
+    }
+
+    /**
+     * This method is used to get an email list by id without blocking the
+     * calling thread. It needs an asynchronous request maker.
+     *
+     * @param emailListId The id of the email list to get.
+     * @return A future that is completed with the email list, or with the
+     *      exception that {@link #getEmailList(String)} would have thrown.
+     */
+    public CompletableFuture<EmailList> getEmailListAsync(
+            final String emailListId) {
+
+        if (emailListId == null || emailListId.trim().isEmpty()) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Email list id cannot be null or blank."));
+        }
+
+        String path;
+        try {
+            path = EMAIL_LIST.expand(emailListId);
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getObjectAsync(path, NO_PARAMETERS, EmailList.class);
+    }
+
+    /**
+     * This method is used to get a page of EmailList objects without blocking
+     * the calling thread. It needs an asynchronous request maker.
+     *
+     * @param pageRequest The page request to use.
+     * @return A future that is completed with the page, or with the exception
+     *      that {@link #getEmailListPage(PageRequest)} would have thrown.
+     */
+    public CompletableFuture<ItemPage<EmailList>> getEmailListPageAsync(
+            final PageRequest pageRequest) {
+
+        if (pageRequest == null) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Page request cannot be null."));
+        }
+
+        String path;
+        try {
+            path = EMAIL_LISTS.expand();
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
 
-        return this.getParserFacade()
-                .jsonStringToPage(result,
-                        MarketingSubscription.class);
+        return this.getPageAsync(path, pageRequest.buildParams(),
+                EmailList.class);
+    }
+
+    /**
+     * This method is used to get a page of MarketingSubscription objects
+     * without blocking the calling thread. It needs an asynchronous request
+     * maker.
+     *
+     * @param emailListId The id of the email list.
+     * @param pageRequest The page request to use.
+     * @return A future that is completed with the page, or with the
+     *      exception that {@link #getSubscriptionPage(String, PageRequest)}
+     *      would have thrown.
+     */
+    public CompletableFuture<ItemPage<MarketingSubscription>>
+            getSubscriptionPageAsync(final String emailListId,
+                                     final PageRequest pageRequest) {
+
+        if (emailListId == null || emailListId.trim().isEmpty()) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Email list id cannot be null or blank."));
+        }
+
+        if (pageRequest == null) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Page request cannot be null."));
+        }
+
+        String path;
+        try {
+            path = SUBSCRIPTIONS.expand(emailListId);
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getPageAsync(path, pageRequest.buildParams(),
+                MarketingSubscription.class);
     }
 
     /**
@@ -292,10 +453,9 @@ public final class MarketingClient extends BaseClient {
                     "Marketing subscription cannot be null.");
         }
 
-        String result = this.post("/email/lists/" + emailListId
-                        + "/subscriptions",
-                new HashMap<>(), this.getParserFacade().objectToJsonString(
-                        marketingSubscription));
+        String result = this.postObject(
+                SUBSCRIPTIONS.expand(emailListId),
+                NO_PARAMETERS, marketingSubscription);
 
         return this.getParserFacade().jsonStringToObject(result,
                 MarketingSubscription.class);
@@ -349,8 +509,7 @@ public final class MarketingClient extends BaseClient {
                     "Subscriber id cannot be null or blank.");
         }
 
-        this.delete("/email/lists/" + emailListId
-                        + "/subscriptions/" + subscriptionId,
-                new HashMap<>());
+        this.delete(SUBSCRIPTION.expand(emailListId, subscriptionId),
+                NO_PARAMETERS);
     }
 }
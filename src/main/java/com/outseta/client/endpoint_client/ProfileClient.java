@@ -2,6 +2,8 @@ package com.outseta.client.endpoint_client;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.request_maker.HeaderSnapshot;
+import com.outseta.client_helper.url.RouteTemplate;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -13,7 +15,7 @@ import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
 import com.outseta.model.request.UpdatePasswordRequest;
 import com.outseta.model.result.Person;
 
-import java.util.HashMap;
+import java.util.Collections;
 
 /**
  * This class is used to make calls to the Profile endpoints of the
@@ -23,15 +25,38 @@ import java.util.HashMap;
  *     users. The class provides a builder to make it easier to construct
  *     the client.
  * </p>
+ * <p>
+ *     A client can either be built with the access token of one user, or
+ *     with {@link Builder#perCallAccessTokens()} and be given the access
+ *     token of a user on each call. The second form lets one client, and
+ *     its request maker and parser, serve every user of an application.
+ * </p>
  */
 public final class ProfileClient extends BaseClient {
 
+    /**
+     * The route of the profile.
+     */
+    private static final RouteTemplate PROFILE = RouteTemplate.compile(
+            "/profile");
+
+    /**
+     * The route of the password.
+     */
+    private static final RouteTemplate PASSWORD = RouteTemplate.compile(
+            "/profile/password");
+
     /**
      * A customized builder for the client.
      */
     public static final class Builder
             extends ClientBuilder<ProfileClient> {
 
+        /**
+         * The client that is being built.
+         */
+        private final ProfileClient profileClient;
+
         /**
          * The constructor to create an object of ProfileClient.Builder.
          *
@@ -42,6 +67,7 @@ public final class ProfileClient extends BaseClient {
         public Builder(final ProfileClient client)
                 throws OutsetaClientBuildException {
             super(client);
+            this.profileClient = client;
         }
 
         @Override
@@ -54,8 +80,30 @@ public final class ProfileClient extends BaseClient {
             throw new OutsetaClientBuildException(
                     "The ProfileClient cannot be built with an api key.");
         }
+
+        /**
+         * This method lets the client be built without an access key. The
+         * access token of the user is then given to the methods that take
+         * one, so that a single client can serve every user. The methods
+         * that take no access token cannot be used with such a client.
+         * @return The builder so that it can be chained.
+         */
+        public Builder perCallAccessTokens() {
+            this.profileClient.perCallAccessTokens = true;
+            return this;
+        }
+
+        @Override
+        protected boolean isAuthorizationRequired() {
+            return !this.profileClient.perCallAccessTokens;
+        }
     }
 
+    /**
+     * Whether the access tokens are given on each call.
+     */
+    private boolean perCallAccessTokens;
+
     /**
      * This method is used to get a builder that can be used to build a
      * ProfileClient object.
@@ -95,6 +143,9 @@ public final class ProfileClient extends BaseClient {
      * 7TNfr6k
      *
      * @return The profile.
+     * @throws OutsetaInvalidArgumentException Thrown if the client is given
+     *                                          the access token on each
+     *                                          call.
      * @throws OutsetaParseException            Thrown if the profile cannot be
      *                                          parsed.
      * @throws OutsetaInvalidResponseCodeException Thrown if the response code
@@ -127,15 +178,53 @@ public final class ProfileClient extends BaseClient {
      * }</pre>
      */
     public Person getProfile()
-            throws OutsetaInvalidResponseCodeException,
+            throws OutsetaInvalidArgumentException,
+            OutsetaInvalidResponseCodeException,
             OutsetaInvalidURLException,
             OutsetaAPIBadRequestException, OutsetaAPIFailedException,
             OutsetaAPIUnknownException, OutsetaParseException {
 
-        String result = this.get("/profile",
-                new HashMap<>());
+        this.requireOwnToken();
+        return this.getObject(PROFILE.expand(), NO_PARAMETERS, Person.class);
+    }
+
+    /**
+     * Use this method to retrieve the profile information of the user that
+     * owns the given access token. The token is only sent with this call,
+     * so one client can be shared by all users.
+     *
+     * @param accessToken The access token of the user.
+     * @return The profile.
+     * @throws OutsetaInvalidArgumentException Thrown if the access token is
+     *                                          null or blank.
+     * @throws OutsetaParseException            Thrown if the profile cannot be
+     *                                          parsed.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response code
+     *                                          is invalid.
+     * @throws OutsetaAPIBadRequestException    Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException        Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException       Thrown if the request fails for
+     *                                          an unknown reason.
+     * @throws OutsetaInvalidURLException       Thrown if the url is invalid.
+     *
+     * Example usage:
+     * <pre>{@code
+     * ProfileClient client = ProfileClient.builder(outsetaUrl)
+     *      .perCallAccessTokens()
+     *      .defaultParser()
+     *      .pooledRequestMaker(config)
+     *      .build();
+     * Person profile = client.getProfile(token.getAccessToken());
+     * }</pre>
+     */
+    public Person getProfile(final String accessToken)
+            throws OutsetaInvalidArgumentException,
+            OutsetaInvalidResponseCodeException, OutsetaInvalidURLException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaParseException {
 
-        return this.getParserFacade().jsonStringToObject(result, Person.class);
+        return this.getObject(PROFILE.expand(), NO_PARAMETERS, Person.class,
+                this.authorize(accessToken));
     }
 
     /**
@@ -147,7 +236,8 @@ public final class ProfileClient extends BaseClient {
      * Getting started Client Side section.
      *
      * Also, the body of the request needs to include the UID property that
-     * matches the person that you generated the token for.
+     * matches the person that you generated the token for. The cached
+     * person is invalidated, even when the call fails.
      *
      * Reference:
      * https://documenter.getpostman.com/view/3613332/outseta-rest-api-v1/
@@ -155,7 +245,9 @@ public final class ProfileClient extends BaseClient {
      *
      * @param profile The profile to update.
      * @return The profile.
-     * @throws OutsetaInvalidArgumentException Thrown if the profile is null.
+     * @throws OutsetaInvalidArgumentException Thrown if the profile is null
+     *                                          or the client is given the
+     *                                          access token on each call.
      * @throws OutsetaParseException            Thrown if the profile cannot be
      *                                          parsed.
      * @throws OutsetaInvalidResponseCodeException Thrown if the response code
@@ -195,16 +287,73 @@ public final class ProfileClient extends BaseClient {
             OutsetaAPIBadRequestException, OutsetaAPIFailedException,
             OutsetaAPIUnknownException, OutsetaParseException {
 
+        this.requireOwnToken();
         if (profile == null) {
             throw new OutsetaInvalidArgumentException(
                     "The profile cannot be null.");
         }
 
-        String result = this.put("/profile",
-                new HashMap<>(),
-                this.getParserFacade().objectToJsonString(profile));
+        Person updated = null;
+        try {
+            String result = this.putObject(PROFILE.expand(),
+                    NO_PARAMETERS, profile);
 
-        return this.getParserFacade().jsonStringToObject(result, Person.class);
+            updated = this.getParserFacade().jsonStringToObject(result,
+                    Person.class);
+            return updated;
+        } finally {
+            this.invalidate(Person.class, profile.getUid(),
+                    updated == null ? null : updated.getUid());
+        }
+    }
+
+    /**
+     * Use this method to update the profile information of the user that
+     * owns the given access token. The body of the request needs to include
+     * the UID property of that user. The cached person is invalidated, even
+     * when the call fails.
+     *
+     * @param accessToken The access token of the user.
+     * @param profile The profile to update.
+     * @return The profile.
+     * @throws OutsetaInvalidArgumentException Thrown if the access token is
+     *                                          null or blank, or the profile
+     *                                          is null.
+     * @throws OutsetaParseException            Thrown if the profile cannot be
+     *                                          parsed.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response code
+     *                                          is invalid.
+     * @throws OutsetaAPIBadRequestException    Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException        Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException       Thrown if the request fails for
+     *                                          an unknown reason.
+     * @throws OutsetaInvalidURLException       Thrown if the url is invalid.
+     */
+    public Person updateProfile(final String accessToken,
+                                final Person profile)
+            throws OutsetaInvalidArgumentException,
+            OutsetaInvalidResponseCodeException, OutsetaInvalidURLException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaParseException {
+
+        HeaderSnapshot current = this.authorize(accessToken);
+        if (profile == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "The profile cannot be null.");
+        }
+
+        Person updated = null;
+        try {
+            String result = this.putObject(PROFILE.expand(),
+                    NO_PARAMETERS, profile, current);
+
+            updated = this.getParserFacade().jsonStringToObject(result,
+                    Person.class);
+            return updated;
+        } finally {
+            this.invalidate(Person.class, profile.getUid(),
+                    updated == null ? null : updated.getUid());
+        }
     }
 
     /**
@@ -219,7 +368,9 @@ public final class ProfileClient extends BaseClient {
      * 7TNfr6k
      *
      * @param updatePasswordRequest The update password request.
-     * @throws OutsetaInvalidArgumentException Thrown if the request is null.
+     * @throws OutsetaInvalidArgumentException Thrown if the request is null
+     *                                          or the client is given the
+     *                                          access token on each call.
      * @throws OutsetaParseException            Thrown if the profile cannot be
      *                                          parsed.
      * @throws OutsetaInvalidResponseCodeException Thrown if the response code
@@ -258,14 +409,87 @@ public final class ProfileClient extends BaseClient {
             OutsetaAPIBadRequestException, OutsetaAPIFailedException,
             OutsetaAPIUnknownException, OutsetaParseException {
 
+        this.requireOwnToken();
         if (updatePasswordRequest == null) {
             throw new OutsetaInvalidArgumentException(
                     "The UpdatePasswordRequest cannot be null.");
         }
 
-        this.put("/profile/password",
-                new HashMap<>(),
-                this.getParserFacade()
-                        .objectToJsonString(updatePasswordRequest));
+        this.putObject(PASSWORD.expand(),
+                NO_PARAMETERS, updatePasswordRequest);
+    }
+
+    /**
+     * Use this method to update the password of the user that owns the
+     * given access token.
+     *
+     * @param accessToken The access token of the user.
+     * @param updatePasswordRequest The update password request.
+     * @throws OutsetaInvalidArgumentException Thrown if the access token is
+     *                                          null or blank, or the request
+     *                                          is null.
+     * @throws OutsetaParseException            Thrown if the request cannot be
+     *                                          written.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response code
+     *                                          is invalid.
+     * @throws OutsetaAPIBadRequestException    Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException        Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException       Thrown if the request fails for
+     *                                          an unknown reason.
+     * @throws OutsetaInvalidURLException       Thrown if the url is invalid.
+     */
+    public void updatePassword(
+            final String accessToken,
+            final UpdatePasswordRequest updatePasswordRequest)
+            throws OutsetaInvalidArgumentException,
+            OutsetaInvalidResponseCodeException, OutsetaInvalidURLException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaParseException {
+
+        HeaderSnapshot current = this.authorize(accessToken);
+        if (updatePasswordRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "The UpdatePasswordRequest cannot be null.");
+        }
+
+        this.putObject(PASSWORD.expand(),
+                NO_PARAMETERS, updatePasswordRequest, current);
+    }
+
+    /**
+     * This method checks that the client was built with the access token
+     * of a user, since a client that is given the token on each call has
+     * none of its own to send.
+     * @throws OutsetaInvalidArgumentException Thrown if the client is given
+     *                                          the access token on each
+     *                                          call.
+     */
+    private void requireOwnToken() throws OutsetaInvalidArgumentException {
+        if (this.perCallAccessTokens) {
+            throw new OutsetaInvalidArgumentException(
+                    "This client is given the access token on each call. "
+                            + "Use the method that takes the access token.");
+        }
+    }
+
+    /**
+     * This method returns the headers of the client with the Authorization
+     * header of the given access token. The headers of the client are not
+     * changed, so calls for other users are not affected.
+     * @param accessToken The access token of the user.
+     * @return The headers to send with the call.
+     * @throws OutsetaInvalidArgumentException Thrown if the access token is
+     *                                          null or blank.
+     */
+    private HeaderSnapshot authorize(final String accessToken)
+            throws OutsetaInvalidArgumentException {
+
+        if (accessToken == null || accessToken.trim().isEmpty()) {
+            throw new OutsetaInvalidArgumentException(
+                    "The access token cannot be null or empty.");
+        }
+        return HeaderSnapshot.of(this.getHeaders()).with(
+                Collections.singletonMap("Authorization",
+                        "Bearer " + accessToken));
     }
 }
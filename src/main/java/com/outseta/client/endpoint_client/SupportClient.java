@@ -2,6 +2,8 @@ package com.outseta.client.endpoint_client;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
+import com.outseta.client_helper.pagination.PageIterable;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -15,7 +17,8 @@ import com.outseta.model.result.Case;
 import com.outseta.model.result.CaseReply;
 import com.outseta.model.result.ItemPage;
 
-import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * This class is used to make calls to the Support endpoints of the
@@ -28,6 +31,36 @@ import java.util.HashMap;
  */
 public final class SupportClient extends BaseClient {
 
+    /**
+     * The route of the cases.
+     */
+    private static final RouteTemplate CASES = RouteTemplate.compile(
+            "/support/cases");
+
+    /**
+     * The route of a case.
+     */
+    private static final RouteTemplate CASE = RouteTemplate.compile(
+            "/support/cases/{caseId}");
+
+    /**
+     * The route of the cases with the auto responder flag.
+     */
+    private static final RouteTemplate CASES_RESPONDED = RouteTemplate.compile(
+            "/support/cases?sendAutoResponder={sendAutoResponder}");
+
+    /**
+     * The route of a response of the client to a case.
+     */
+    private static final RouteTemplate CLIENT_RESPONSE = RouteTemplate.compile(
+            "/support/cases/{caseUid}/clientresponse/{comment}");
+
+    /**
+     * The route of the replies to a case.
+     */
+    private static final RouteTemplate REPLIES = RouteTemplate.compile(
+            "/support/cases/{caseUid}/replies");
+
     /**
      * This method is used to get a builder that can be used to build a
      * SupportClient object.
@@ -96,11 +129,8 @@ public final class SupportClient extends BaseClient {
                     "Case id cannot be null or blank.");
         }
 
-        String result = this.get("/support/cases/" + caseId,
-                new HashMap<>());
-
-        return this.getParserFacade().jsonStringToObject(result,
-                Case.class);
+        return this.getObject(CASE.expand(caseId),
+                NO_PARAMETERS, Case.class);
     }
 
     /**
@@ -160,12 +190,101 @@ public final class SupportClient extends BaseClient {
                     "Page request cannot be null.");
         }
 
-        String result = this.get("/support/cases",
-                pageRequest.buildParams());
+        return this.getPage(CASES.expand(),
+                pageRequest.buildParams(),
+                Case.class);
+    }
+
+    /**
+     * This method is used to walk over all cases, starting at the
+     * requested page. The next page is fetched in the background while the
+     * items of the current one are being used. The page size, sort order
+     * and filters of the request are kept for every page.
+     *
+     * @param pageRequest The request of the first page.
+     * @return An Iterable over all cases that can also be streamed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public PageIterable<Case> getAllCases(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+
+        if (pageRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "Page request cannot be null.");
+        }
 
-        return this.getParserFacade()
-                .jsonStringToPage(result,
-                        Case.class);
+        return new PageIterable<>(pageRequest, this::getCasePage);
+    }
+
+    /**
+     * This method is used to stream all cases, starting at the
+     * requested page. The first page is fetched right away to learn the
+     * total, and the stream can be made parallel, in which case its workers
+     * fetch and parse different pages at the same time. If the first page
+     * cannot be fetched, an OutsetaPaginationException is thrown.
+     *
+     * @param pageRequest The request of the first page.
+     * @return A sized stream over all cases.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public Stream<Case> streamAll(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+        return getAllCases(pageRequest).streamAll();
+    }
+
+    /**
+     * This method is used to get a case by id without blocking the calling
+     * thread. It needs an asynchronous request maker.
+     *
+     * @param caseId The id of the case to get.
+     * @return A future that is completed with the case, or with the exception
+     *      that {@link #getCase(String)} would have thrown.
+     */
+    public CompletableFuture<Case> getCaseAsync(final String caseId) {
+
+        if (caseId == null || caseId.trim().isEmpty()) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Case id cannot be null or blank."));
+        }
+
+        String path;
+        try {
+            path = CASE.expand(caseId);
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getObjectAsync(path, NO_PARAMETERS, Case.class);
+    }
+
+    /**
+     * This method is used to get a page of Case objects without blocking the
+     * calling thread. It needs an asynchronous request maker.
+     *
+     * @param pageRequest The page request to use.
+     * @return A future that is completed with the page, or with the exception
+     *      that {@link #getCasePage(PageRequest)} would have thrown.
+     */
+    public CompletableFuture<ItemPage<Case>> getCasePageAsync(
+            final PageRequest pageRequest) {
+
+        if (pageRequest == null) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Page request cannot be null."));
+        }
+
+        String path;
+        try {
+            path = CASES.expand();
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getPageAsync(path, pageRequest.buildParams(), Case.class);
     }
 
     /**
@@ -213,10 +332,9 @@ public final class SupportClient extends BaseClient {
                     "Case object cannot be null.");
         }
 
-        String result = this.post("/support/cases?sendAutoResponder="
-                        + (sendAutoResponder ? "true" : "false"),
-                new HashMap<>(),
-                this.getParserFacade().objectToJsonString(caseObject));
+        String result = this.postObject(
+                CASES_RESPONDED.expand(sendAutoResponder),
+                NO_PARAMETERS, caseObject);
 
         return this.getParserFacade().jsonStringToObject(result,
                 Case.class);
@@ -267,11 +385,9 @@ public final class SupportClient extends BaseClient {
                     "Comment cannot be null or blank.");
         }
 
-        String safeComment = comment.replaceAll(" ", "%20");
-
-        this.post("/support/cases/" + caseUid
-                        + "/clientresponse/" + safeComment,
-                new HashMap<>(),
+        // The comment is encoded as a path segment by the route
+        this.post(CLIENT_RESPONSE.expand(caseUid, comment),
+                NO_PARAMETERS,
                 "");
     }
 
@@ -323,10 +439,8 @@ public final class SupportClient extends BaseClient {
                     "Case reply cannot be null.");
         }
 
-        String result = this.post("/support/cases/" + caseUid
-                        + "/replies",
-                new HashMap<>(),
-                this.getParserFacade().objectToJsonString(caseReply));
+        String result = this.postObject(REPLIES.expand(caseUid),
+                NO_PARAMETERS, caseReply);
 
         return this.getParserFacade().jsonStringToObject(result,
                 Case.class);
@@ -0,0 +1,806 @@
+package com.outseta.client.endpoint_client;
+
+import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.RequestMaker;
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.exception.OutsetaInvalidTokenException;
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.OutsetaParseException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import com.outseta.model.DataComponent;
+import com.outseta.model.result.JsonWebKey;
+import com.outseta.model.result.JsonWebKeySet;
+import com.outseta.model.result.TokenClaims;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * This class verifies the access tokens issued by the Outseta domain
+ * locally, without calling the api.
+ * <p>
+ *     An access token is a JSON Web Token signed with RS256. The signature
+ *     is checked against the public keys the domain publishes as a JSON Web
+ *     Key Set, which are read once and kept in memory. They are read again
+ *     once a day, or earlier when a token is signed with a key that is not
+ *     known yet, at most once per minimum refresh interval. The token must
+ *     not have expired, and its audience and issuer must be the domain of
+ *     the authentication client.
+ * </p>
+ * <p>
+ *     A token that was verified is remembered until it expires, so the
+ *     signature of a token that is presented again is not checked again.
+ *     The remembered claims are shared by all callers, so they must be
+ *     treated as read only. The verifier is thread safe.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * TokenVerifier verifier = TokenVerifier.builder(authenticationClient)
+ *      .build();
+ * TokenClaims claims = verifier.verify(accessToken);
+ * String personUid = claims.getPersonUid();
+ * String accountUid = claims.getAccountUid();
+ * }</pre>
+ */
+public final class TokenVerifier {
+
+    /**
+     * The default time the keys are kept before they are read again, in
+     * milliseconds.
+     */
+    public static final long DEFAULT_KEY_TTL = 86_400_000L;
+
+    /**
+     * The default shortest time between two reads of the keys, in
+     * milliseconds.
+     */
+    public static final long DEFAULT_MIN_REFRESH_INTERVAL = 30_000L;
+
+    /**
+     * The default difference allowed between the clocks of the verifier
+     * and of the domain, in milliseconds.
+     */
+    public static final long DEFAULT_LEEWAY = 30_000L;
+
+    /**
+     * The default number of verified tokens that are remembered.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    /**
+     * The path of the JSON Web Key Set of the domain.
+     */
+    private static final String JWKS_PATH = "/.well-known/jwks";
+
+    /**
+     * The algorithm the tokens are signed with.
+     */
+    private static final String ALGORITHM = "RS256";
+
+    /**
+     * The name of the algorithm in the Java security providers.
+     */
+    private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+
+    /**
+     * The number of distinct token headers that are remembered.
+     */
+    private static final int MAX_HEADERS = 16;
+
+    /**
+     * The number of milliseconds in a second.
+     */
+    private static final long MILLIS_PER_SECOND = 1_000L;
+
+    /**
+     * This interface is used to read the JSON Web Key Set of the domain.
+     */
+    interface KeyLoader {
+
+        /**
+         * This method reads the key set.
+         * @return The key set as json.
+         * @throws OutsetaInvalidResponseCodeException If the response code
+         *      is invalid.
+         * @throws OutsetaAPIBadRequestException If the request is bad.
+         * @throws OutsetaAPIFailedException If the request fails.
+         * @throws OutsetaAPIUnknownException If the request fails for an
+         *      unknown reason.
+         * @throws OutsetaInvalidURLException If the url is invalid.
+         */
+        String load() throws OutsetaInvalidResponseCodeException,
+                OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+                OutsetaAPIUnknownException, OutsetaInvalidURLException;
+    }
+
+    /**
+     * This class is used to build a TokenVerifier object.
+     */
+    public static final class Builder {
+
+        /**
+         * The client whose domain issues the tokens.
+         */
+        private final AuthenticationClient authenticationClient;
+
+        /**
+         * The url of the key set.
+         */
+        private String jwksUrl;
+
+        /**
+         * The audience the tokens must be issued for.
+         */
+        private String audience;
+
+        /**
+         * The issuer the tokens must be issued by.
+         */
+        private String issuer;
+
+        /**
+         * The time the keys are kept before they are read again.
+         */
+        private long keyTtl;
+
+        /**
+         * The shortest time between two reads of the keys.
+         */
+        private long minRefreshInterval;
+
+        /**
+         * The difference allowed between the clocks.
+         */
+        private long leeway;
+
+        /**
+         * The number of verified tokens that are remembered.
+         */
+        private int cacheSize;
+
+        /**
+         * The constructor for Builder.
+         * @param pAuthenticationClient The client whose domain issues the
+         *                              tokens.
+         */
+        private Builder(final AuthenticationClient pAuthenticationClient) {
+            this.authenticationClient = pAuthenticationClient;
+            this.keyTtl = DEFAULT_KEY_TTL;
+            this.minRefreshInterval = DEFAULT_MIN_REFRESH_INTERVAL;
+            this.leeway = DEFAULT_LEEWAY;
+            this.cacheSize = DEFAULT_CACHE_SIZE;
+        }
+
+        /**
+         * Sets the url the key set is read from. It defaults to
+         * {@code /.well-known/jwks} on the host of the client.
+         * @param pJwksUrl The url of the key set.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder jwksUrl(final String pJwksUrl) {
+            this.jwksUrl = pJwksUrl;
+            return this;
+        }
+
+        /**
+         * Sets the audience the tokens must be issued for. It defaults to
+         * the host of the client.
+         * @param pAudience The audience.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder audience(final String pAudience) {
+            this.audience = pAudience;
+            return this;
+        }
+
+        /**
+         * Sets the issuer the tokens must be issued by. It defaults to the
+         * scheme and host of the client.
+         * @param pIssuer The issuer.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder issuer(final String pIssuer) {
+            this.issuer = pIssuer;
+            return this;
+        }
+
+        /**
+         * Sets how long the keys are kept before they are read again.
+         * @param pKeyTtl The time in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder keyTtl(final long pKeyTtl) {
+            this.keyTtl = pKeyTtl;
+            return this;
+        }
+
+        /**
+         * Sets the shortest time between two reads of the keys, which
+         * bounds how often tokens signed with an unknown key make the
+         * verifier read them.
+         * @param pMinRefreshInterval The time in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder minRefreshInterval(final long pMinRefreshInterval) {
+            this.minRefreshInterval = pMinRefreshInterval;
+            return this;
+        }
+
+        /**
+         * Sets the difference allowed between the clock of the verifier
+         * and the clock of the domain when the expiry of a token is
+         * checked.
+         * @param pLeeway The difference in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder leeway(final long pLeeway) {
+            this.leeway = pLeeway;
+            return this;
+        }
+
+        /**
+         * Sets the number of verified tokens that are remembered. 0
+         * checks the signature of every token.
+         * @param pCacheSize The number of tokens.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder cacheSize(final int pCacheSize) {
+            this.cacheSize = pCacheSize;
+            return this;
+        }
+
+        /**
+         * This method is used to create a new TokenVerifier object.
+         * @return A new TokenVerifier object.
+         * @throws OutsetaClientBuildException If the client is null, its
+         *      base url is not absolute or a setting is out of range.
+         */
+        public TokenVerifier build() throws OutsetaClientBuildException {
+
+            if (this.authenticationClient == null) {
+                throw new OutsetaClientBuildException(
+                        "The authentication client cannot be null.");
+            }
+            if (this.keyTtl <= 0) {
+                throw new OutsetaClientBuildException(
+                        "The key time to live must be greater than 0.");
+            }
+            if (this.minRefreshInterval < 0 || this.leeway < 0
+                    || this.cacheSize < 0) {
+                throw new OutsetaClientBuildException(
+                        "The minimum refresh interval, the leeway and the "
+                                + "cache size cannot be negative.");
+            }
+
+            URI baseUrl;
+            try {
+                baseUrl = new URI(this.authenticationClient.getBaseUrl());
+            } catch (URISyntaxException e) {
+                throw new OutsetaClientBuildException(e.getMessage());
+            }
+            if (baseUrl.getScheme() == null || baseUrl.getHost() == null) {
+                throw new OutsetaClientBuildException(
+                        "The base url of the client must be absolute.");
+            }
+            String origin = baseUrl.getScheme() + "://"
+                    + baseUrl.getRawAuthority();
+            if (this.jwksUrl == null) {
+                this.jwksUrl = origin + JWKS_PATH;
+            }
+            if (this.audience == null) {
+                this.audience = baseUrl.getHost();
+            }
+            if (this.issuer == null) {
+                this.issuer = origin;
+            }
+
+            RequestMaker requestMaker =
+                    this.authenticationClient.getRequestMaker();
+            String url = this.jwksUrl;
+            return new TokenVerifier(this, () -> requestMaker.get(url,
+                    Collections.emptyMap(), Collections.emptyMap()),
+                    System::currentTimeMillis);
+        }
+    }
+
+    /**
+     * This class is the keys of the domain with the times they are read
+     * again.
+     */
+    private static final class Keys {
+
+        /**
+         * The keys by id.
+         */
+        private final Map<String, PublicKey> byId;
+
+        /**
+         * The time the keys are read again, in milliseconds of the clock.
+         */
+        private final long refreshAt;
+
+        /**
+         * The earliest time the keys are read again for an unknown key, in
+         * milliseconds of the clock.
+         */
+        private final long retryAt;
+
+        /**
+         * The constructor for Keys.
+         * @param pById The keys by id.
+         * @param pRefreshAt The time the keys are read again.
+         * @param pRetryAt The earliest time the keys are read again for an
+         *                 unknown key.
+         */
+        private Keys(final Map<String, PublicKey> pById, final long pRefreshAt,
+                     final long pRetryAt) {
+            this.byId = pById;
+            this.refreshAt = pRefreshAt;
+            this.retryAt = pRetryAt;
+        }
+    }
+
+    /**
+     * The reader of the key set.
+     */
+    private final KeyLoader loader;
+
+    /**
+     * The parser of the key set and of the tokens.
+     */
+    private final ParserFacade parser;
+
+    /**
+     * The audience the tokens must be issued for.
+     */
+    private final String audience;
+
+    /**
+     * The issuer the tokens must be issued by.
+     */
+    private final String issuer;
+
+    /**
+     * The time the keys are kept before they are read again, in
+     * milliseconds.
+     */
+    private final long keyTtl;
+
+    /**
+     * The shortest time between two reads of the keys, in milliseconds.
+     */
+    private final long minRefreshInterval;
+
+    /**
+     * The difference allowed between the clocks, in milliseconds.
+     */
+    private final long leeway;
+
+    /**
+     * The number of verified tokens that are remembered.
+     */
+    private final int cacheSize;
+
+    /**
+     * The clock, in milliseconds since the epoch.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The lock held while the keys are read, so they are only read once at
+     * a time. Verifications never take it while the keys are fresh.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The keys, or null until they are read.
+     */
+    private volatile Keys keys;
+
+    /**
+     * The decoded headers of the tokens, by their encoded form.
+     */
+    private final ConcurrentMap<String, JsonWebKey> headers =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The claims of the verified tokens, by token.
+     */
+    private final ConcurrentMap<String, TokenClaims> verified =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The constructor for TokenVerifier.
+     * @param builder The builder holding the settings.
+     * @param pLoader The reader of the key set.
+     * @param pClock The clock, in milliseconds since the epoch.
+     */
+    TokenVerifier(final Builder builder, final KeyLoader pLoader,
+                  final LongSupplier pClock) {
+        this.loader = pLoader;
+        this.parser = builder.authenticationClient.getParserFacade();
+        this.audience = builder.audience;
+        this.issuer = builder.issuer;
+        this.keyTtl = builder.keyTtl;
+        this.minRefreshInterval = builder.minRefreshInterval;
+        this.leeway = builder.leeway;
+        this.cacheSize = builder.cacheSize;
+        this.clock = pClock;
+    }
+
+    /**
+     * This method is used to get a builder that can be used to build a
+     * TokenVerifier object.
+     * @param authenticationClient The client whose domain issues the
+     *                             tokens. Its request maker reads the keys
+     *                             and its parser reads the tokens.
+     * @return The builder.
+     */
+    public static Builder builder(
+            final AuthenticationClient authenticationClient) {
+        return new Builder(authenticationClient);
+    }
+
+    /**
+     * This method verifies an access token and returns its claims. The
+     * keys are only read from the domain the first time, when they are
+     * due to be read again, or when the token is signed with an unknown
+     * key.
+     * @param accessToken The access token, without the Bearer prefix.
+     * @return The claims of the token.
+     * @throws OutsetaInvalidTokenException Thrown if the token is
+     *      malformed, is not signed with a key of the domain, has expired,
+     *      is not valid yet, or was issued for another audience or by
+     *      another issuer.
+     * @throws OutsetaParseException Thrown if the key set cannot be parsed.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response
+     *      code of the key set is invalid.
+     * @throws OutsetaAPIBadRequestException Thrown if the request for the
+     *      key set is bad.
+     * @throws OutsetaAPIFailedException Thrown if the request for the key
+     *      set fails.
+     * @throws OutsetaAPIUnknownException Thrown if the request for the key
+     *      set fails for an unknown reason.
+     * @throws OutsetaInvalidURLException Thrown if the url of the key set
+     *      is invalid.
+     */
+    public TokenClaims verify(final String accessToken)
+            throws OutsetaInvalidTokenException, OutsetaParseException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaInvalidURLException {
+
+        if (accessToken == null) {
+            throw new OutsetaInvalidTokenException(
+                    "The access token cannot be null.");
+        }
+        long now = this.clock.getAsLong();
+        TokenClaims known = this.verified.get(accessToken);
+        if (known != null) {
+            try {
+                this.checkTimes(known, now);
+            } catch (OutsetaInvalidTokenException e) {
+                this.verified.remove(accessToken, known);
+                throw e;
+            }
+            return known;
+        }
+
+        int payloadStart = accessToken.indexOf('.') + 1;
+        int signatureStart = accessToken.indexOf('.', payloadStart) + 1;
+        if (payloadStart <= 1 || signatureStart <= payloadStart
+                || accessToken.indexOf('.', signatureStart) >= 0) {
+            throw new OutsetaInvalidTokenException(
+                    "The access token is not a signed JSON Web Token.");
+        }
+
+        JsonWebKey header = this.header(
+                accessToken.substring(0, payloadStart - 1));
+        if (!ALGORITHM.equals(header.getAlgorithm())) {
+            throw new OutsetaInvalidTokenException(
+                    "The access token is not signed with " + ALGORITHM
+                            + ".");
+        }
+        PublicKey key = this.key(header.getKeyId(), now);
+        if (!isSigned(accessToken, signatureStart, key)) {
+            throw new OutsetaInvalidTokenException(
+                    "The signature of the access token is not valid.");
+        }
+
+        TokenClaims claims = this.parse(accessToken.substring(payloadStart,
+                signatureStart - 1), TokenClaims.class);
+        this.checkTimes(claims, now);
+        if (claims.getAudience() == null
+                || !claims.getAudience().contains(this.audience)) {
+            throw new OutsetaInvalidTokenException(
+                    "The access token was not issued for "
+                            + this.audience + ".");
+        }
+        if (!this.issuer.equals(claims.getIssuer())) {
+            throw new OutsetaInvalidTokenException(
+                    "The access token was not issued by " + this.issuer
+                            + ".");
+        }
+
+        if (this.cacheSize > 0) {
+            if (this.verified.size() >= this.cacheSize) {
+                this.verified.clear();
+            }
+            this.verified.put(accessToken, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * This method checks that a token has not expired and is already
+     * valid.
+     * @param claims The claims of the token.
+     * @param now The current time, in milliseconds since the epoch.
+     * @throws OutsetaInvalidTokenException If the token has no expiry, has
+     *      expired or is not valid yet.
+     */
+    private void checkTimes(final TokenClaims claims, final long now)
+            throws OutsetaInvalidTokenException {
+
+        if (claims.getExpiresAt() == null) {
+            throw new OutsetaInvalidTokenException(
+                    "The access token has no expiry.");
+        }
+        if (now - this.leeway
+                >= claims.getExpiresAt() * MILLIS_PER_SECOND) {
+            throw new OutsetaInvalidTokenException(
+                    "The access token has expired.");
+        }
+        if (claims.getNotBefore() != null && now + this.leeway
+                < claims.getNotBefore() * MILLIS_PER_SECOND) {
+            throw new OutsetaInvalidTokenException(
+                    "The access token is not valid yet.");
+        }
+    }
+
+    /**
+     * This method decodes the header of a token. The tokens of a domain
+     * share a few headers, so they are only decoded once.
+     * @param encoded The encoded header.
+     * @return The header.
+     * @throws OutsetaInvalidTokenException If the header cannot be decoded.
+     */
+    private JsonWebKey header(final String encoded)
+            throws OutsetaInvalidTokenException {
+
+        JsonWebKey header = this.headers.get(encoded);
+        if (header == null) {
+            header = this.parse(encoded, JsonWebKey.class);
+            if (this.headers.size() >= MAX_HEADERS) {
+                this.headers.clear();
+            }
+            this.headers.put(encoded, header);
+        }
+        return header;
+    }
+
+    /**
+     * This method decodes and parses a part of a token.
+     * @param encoded The base64url encoded json.
+     * @param type The type of the part.
+     * @param <T> The type of the part.
+     * @return The part.
+     * @throws OutsetaInvalidTokenException If the part cannot be decoded.
+     */
+    private <T extends DataComponent> T parse(
+            final String encoded, final Class<T> type)
+            throws OutsetaInvalidTokenException {
+        try {
+            T part = this.parser.jsonStringToObject(new String(
+                    decode(encoded), StandardCharsets.UTF_8), type);
+            if (part == null) {
+                throw new OutsetaInvalidTokenException(
+                        "The access token is not a signed JSON Web Token.");
+            }
+            return part;
+        } catch (IllegalArgumentException | OutsetaParseException e) {
+            throw new OutsetaInvalidTokenException(
+                    "The access token cannot be decoded.", e);
+        }
+    }
+
+    /**
+     * This method checks the signature of a token.
+     * @param accessToken The token.
+     * @param signatureStart The index of the signature in the token.
+     * @param key The key the token is signed with.
+     * @return True if the signature is valid.
+     * @throws OutsetaInvalidTokenException If the signature is malformed.
+     */
+    private static boolean isSigned(final String accessToken,
+                                    final int signatureStart,
+                                    final PublicKey key)
+            throws OutsetaInvalidTokenException {
+        try {
+            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signature.initVerify(key);
+            signature.update(accessToken.getBytes(StandardCharsets.US_ASCII),
+                    0, signatureStart - 1);
+            return signature.verify(decode(
+                    accessToken.substring(signatureStart)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new OutsetaInvalidTokenException(
+                    "The signature of the access token is not valid.", e);
+        }
+    }
+
+    /**
+     * This method returns the key a token is signed with, reading the keys
+     * if they are due or the key is unknown.
+     * @param keyId The id of the key.
+     * @param now The current time, in milliseconds of the clock.
+     * @return The key.
+     * @throws OutsetaInvalidTokenException If the key is not one of the
+     *      keys of the domain.
+     * @throws OutsetaParseException If the key set cannot be parsed.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request is bad.
+     * @throws OutsetaAPIFailedException If the request fails.
+     * @throws OutsetaAPIUnknownException If the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    private PublicKey key(final String keyId, final long now)
+            throws OutsetaInvalidTokenException, OutsetaParseException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaInvalidURLException {
+
+        Keys current = this.keys;
+        if (current == null || now - current.refreshAt >= 0) {
+            current = this.load(current, false);
+        }
+        PublicKey key = current.byId.get(keyId);
+        if (key == null && now - current.retryAt >= 0) {
+            current = this.load(current, true);
+            key = current.byId.get(keyId);
+        }
+        if (key == null) {
+            throw new OutsetaInvalidTokenException(
+                    "The access token is signed with an unknown key.");
+        }
+        return key;
+    }
+
+    /**
+     * This method reads the keys, once for all the verifications that
+     * need them at the same time. If the keys cannot be read, the keys in
+     * memory are kept until the minimum refresh interval has passed.
+     * @param seen The keys the caller found, or null.
+     * @param required Whether the keys in memory cannot be used if the
+     *                 read fails.
+     * @return The keys.
+     * @throws OutsetaParseException If the key set cannot be parsed.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request is bad.
+     * @throws OutsetaAPIFailedException If the request fails.
+     * @throws OutsetaAPIUnknownException If the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    private Keys load(final Keys seen, final boolean required)
+            throws OutsetaParseException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaInvalidURLException {
+
+        synchronized (this.lock) {
+
+            // The callers that waited for the lock use the keys that were
+            // read meanwhile
+            Keys current = this.keys;
+            if (current != seen) {
+                return current;
+            }
+
+            Map<String, PublicKey> byId;
+            try {
+                byId = this.read();
+            } catch (Exception e) {
+                long retryAt = this.clock.getAsLong()
+                        + this.minRefreshInterval;
+                if (seen != null) {
+                    this.keys = new Keys(seen.byId, retryAt, retryAt);
+                    if (!required) {
+                        return this.keys;
+                    }
+                }
+                throw e;
+            }
+
+            long now = this.clock.getAsLong();
+            current = new Keys(byId, now + this.keyTtl,
+                    now + this.minRefreshInterval);
+            this.keys = current;
+
+            // A token signed with a key that was withdrawn is checked again
+            this.verified.clear();
+            return current;
+        }
+    }
+
+    /**
+     * This method reads the RSA signing keys of the key set.
+     * @return The keys by id.
+     * @throws OutsetaParseException If the key set or one of its keys
+     *      cannot be parsed.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIBadRequestException If the request is bad.
+     * @throws OutsetaAPIFailedException If the request fails.
+     * @throws OutsetaAPIUnknownException If the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    private Map<String, PublicKey> read() throws OutsetaParseException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaInvalidURLException {
+
+        JsonWebKeySet set = this.parser.jsonStringToObject(this.loader.load(),
+                JsonWebKeySet.class);
+        if (set == null || set.getKeys() == null) {
+            throw new OutsetaParseException("The key set has no keys.");
+        }
+
+        Map<String, PublicKey> byId = new HashMap<>();
+        for (JsonWebKey key : set.getKeys()) {
+            boolean signing = key.getUse() == null
+                    || "sig".equals(key.getUse());
+            if (!"RSA".equals(key.getKeyType()) || !signing
+                    || key.getModulus() == null
+                    || key.getExponent() == null) {
+                continue;
+            }
+            try {
+                byId.put(key.getKeyId(), KeyFactory.getInstance("RSA")
+                        .generatePublic(new RSAPublicKeySpec(
+                                new BigInteger(1, decode(key.getModulus())),
+                                new BigInteger(1,
+                                        decode(key.getExponent())))));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                throw new OutsetaParseException("The key " + key.getKeyId()
+                        + " cannot be read: " + e.getMessage());
+            }
+        }
+        return Collections.unmodifiableMap(byId);
+    }
+
+    /**
+     * This method decodes a base64url string with or without padding.
+     * @param encoded The encoded string.
+     * @return The bytes.
+     * @throws IllegalArgumentException If the string is not base64url.
+     */
+    private static byte[] decode(final String encoded) {
+        return Base64.getUrlDecoder().decode(encoded);
+    }
+}
@@ -2,6 +2,8 @@ package com.outseta.client.endpoint_client.billing;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
+import com.outseta.client_helper.pagination.PageIterable;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -15,7 +17,8 @@ import com.outseta.model.request.PageRequest;
 import com.outseta.model.result.AddOn;
 import com.outseta.model.result.ItemPage;
 
-import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * This class is used to make calls to the AddOn endpoints of the
@@ -27,6 +30,24 @@ import java.util.HashMap;
  */
 public final class AddOnClient extends BaseClient {
 
+    /**
+     * The route of the add-ons.
+     */
+    private static final RouteTemplate ADD_ONS = RouteTemplate.compile(
+            "/billing/addons");
+
+    /**
+     * The route of an add-on.
+     */
+    private static final RouteTemplate ADD_ON = RouteTemplate.compile(
+            "/billing/addons/{addOnId}");
+
+    /**
+     * The route of the usage of the add-ons.
+     */
+    private static final RouteTemplate USAGE = RouteTemplate.compile(
+            "/billing/usage");
+
     /**
      * This method is used to get a builder that can be used to build an
      * AddOnClient object.
@@ -93,11 +114,8 @@ public final class AddOnClient extends BaseClient {
                     "AddOn id cannot be null or blank.");
         }
 
-        String result = this.get("/billing/addons/" + addOnId,
-                new HashMap<>());
-
-        return this.getParserFacade().jsonStringToObject(result,
-                AddOn.class);
+        return this.getObject(ADD_ON.expand(addOnId),
+                NO_PARAMETERS, AddOn.class);
     }
 
     /**
@@ -154,12 +172,101 @@ public final class AddOnClient extends BaseClient {
                     "Page request cannot be null.");
         }
 
-        String result = this.get("/billing/addons",
-                pageRequest.buildParams());
+        return this.getPage(ADD_ONS.expand(),
+                pageRequest.buildParams(),
+                AddOn.class);
+    }
+
+    /**
+     * This method is used to walk over all add-ons, starting at the
+     * requested page. The next page is fetched in the background while the
+     * items of the current one are being used. The page size, sort order
+     * and filters of the request are kept for every page.
+     *
+     * @param pageRequest The request of the first page.
+     * @return An Iterable over all add-ons that can also be streamed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public PageIterable<AddOn> getAllAddOns(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+
+        if (pageRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "Page request cannot be null.");
+        }
+
+        return new PageIterable<>(pageRequest, this::getAddOnPage);
+    }
+
+    /**
+     * This method is used to stream all add-ons, starting at the
+     * requested page. The first page is fetched right away to learn the
+     * total, and the stream can be made parallel, in which case its workers
+     * fetch and parse different pages at the same time. If the first page
+     * cannot be fetched, an OutsetaPaginationException is thrown.
+     *
+     * @param pageRequest The request of the first page.
+     * @return A sized stream over all add-ons.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public Stream<AddOn> streamAll(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+        return getAllAddOns(pageRequest).streamAll();
+    }
+
+    /**
+     * This method is used to get an add-on by id without blocking the calling
+     * thread. It needs an asynchronous request maker.
+     *
+     * @param addOnId The id of the add-on to get.
+     * @return A future that is completed with the add-on, or with the exception
+     *      that {@link #getAddOn(String)} would have thrown.
+     */
+    public CompletableFuture<AddOn> getAddOnAsync(final String addOnId) {
+
+        if (addOnId == null || addOnId.trim().isEmpty()) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "AddOn id cannot be null or blank."));
+        }
+
+        String path;
+        try {
+            path = ADD_ON.expand(addOnId);
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getObjectAsync(path, NO_PARAMETERS, AddOn.class);
+    }
+
+    /**
+     * This method is used to get a page of AddOn objects without blocking the
+     * calling thread. It needs an asynchronous request maker.
+     *
+     * @param pageRequest The page request to use.
+     * @return A future that is completed with the page, or with the exception
+     *      that {@link #getAddOnPage(PageRequest)} would have thrown.
+     */
+    public CompletableFuture<ItemPage<AddOn>> getAddOnPageAsync(
+            final PageRequest pageRequest) {
+
+        if (pageRequest == null) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Page request cannot be null."));
+        }
+
+        String path;
+        try {
+            path = ADD_ONS.expand();
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
 
-        return this.getParserFacade()
-                .jsonStringToPage(result,
-                        AddOn.class);
+        return this.getPageAsync(path, pageRequest.buildParams(), AddOn.class);
     }
 
     /**
@@ -200,7 +307,7 @@ public final class AddOnClient extends BaseClient {
                     "AddOn request cannot be null.");
         }
 
-        this.post("/billing/usage", new HashMap<>(),
-                this.getParserFacade().objectToJsonString(addOnUsageRequest));
+        this.postObject(USAGE.expand(), NO_PARAMETERS,
+                addOnUsageRequest);
     }
 }
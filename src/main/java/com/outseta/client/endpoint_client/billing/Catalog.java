@@ -0,0 +1,180 @@
+package com.outseta.client.endpoint_client.billing;
+
+import com.outseta.model.result.AddOn;
+import com.outseta.model.result.Plan;
+import com.outseta.model.result.PlanFamily;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is one loaded version of the billing catalog: the plans, the
+ * plan families and the add-ons of the account.
+ * <p>
+ *     The lists and the lookup tables are built once, when the catalog is
+ *     created, and cannot be changed afterwards, so a catalog can be read
+ *     by any number of threads without locking. The model objects inside
+ *     are shared by all readers and must be treated as read only.
+ * </p>
+ */
+public final class Catalog {
+
+    /**
+     * The plans, in the order of the api.
+     */
+    private final List<Plan> plans;
+
+    /**
+     * The plan families, in the order of the api.
+     */
+    private final List<PlanFamily> planFamilies;
+
+    /**
+     * The add-ons, in the order of the api.
+     */
+    private final List<AddOn> addOns;
+
+    /**
+     * The plans by uid.
+     */
+    private final Map<String, Plan> plansByUid;
+
+    /**
+     * The plans of each plan family, by the uid of the family.
+     */
+    private final Map<String, List<Plan>> plansByFamily;
+
+    /**
+     * The plan families by uid.
+     */
+    private final Map<String, PlanFamily> planFamiliesByUid;
+
+    /**
+     * The add-ons by uid.
+     */
+    private final Map<String, AddOn> addOnsByUid;
+
+    /**
+     * Constructor for the creation of a Catalog object. The lists are
+     * copied.
+     * @param pPlans The plans.
+     * @param pPlanFamilies The plan families.
+     * @param pAddOns The add-ons.
+     */
+    public Catalog(final List<Plan> pPlans,
+                   final List<PlanFamily> pPlanFamilies,
+                   final List<AddOn> pAddOns) {
+        this.plans = Collections.unmodifiableList(new ArrayList<>(pPlans));
+        this.planFamilies = Collections.unmodifiableList(
+                new ArrayList<>(pPlanFamilies));
+        this.addOns = Collections.unmodifiableList(new ArrayList<>(pAddOns));
+
+        Map<String, Plan> byUid = new HashMap<>();
+        Map<String, List<Plan>> byFamily = new LinkedHashMap<>();
+        for (Plan plan : this.plans) {
+            if (plan.getUid() != null) {
+                byUid.put(plan.getUid(), plan);
+            }
+            PlanFamily family = plan.getPlanFamily();
+            if (family != null && family.getUid() != null) {
+                byFamily.computeIfAbsent(family.getUid(),
+                        uid -> new ArrayList<>()).add(plan);
+            }
+        }
+        byFamily.replaceAll((uid, list) ->
+                Collections.unmodifiableList(list));
+        this.plansByUid = Collections.unmodifiableMap(byUid);
+        this.plansByFamily = Collections.unmodifiableMap(byFamily);
+
+        Map<String, PlanFamily> familiesByUid = new HashMap<>();
+        for (PlanFamily family : this.planFamilies) {
+            if (family.getUid() != null) {
+                familiesByUid.put(family.getUid(), family);
+            }
+        }
+        this.planFamiliesByUid = Collections.unmodifiableMap(familiesByUid);
+
+        Map<String, AddOn> addOnsById = new HashMap<>();
+        for (AddOn addOn : this.addOns) {
+            if (addOn.getUid() != null) {
+                addOnsById.put(addOn.getUid(), addOn);
+            }
+        }
+        this.addOnsByUid = Collections.unmodifiableMap(addOnsById);
+    }
+
+    /**
+     * Returns all plans.
+     * @return The plans, in the order of the api.
+     */
+    public List<Plan> getPlans() {
+        return plans;
+    }
+
+    /**
+     * Returns a plan.
+     * @param uid The uid of the plan.
+     * @return The plan, or null if it is not in the catalog.
+     */
+    public Plan getPlan(final String uid) {
+        return plansByUid.get(uid);
+    }
+
+    /**
+     * Returns the plans of a plan family.
+     * @param planFamilyUid The uid of the plan family.
+     * @return The plans of the family, empty if it has none in the
+     *      catalog.
+     */
+    public List<Plan> getPlansOfFamily(final String planFamilyUid) {
+        List<Plan> familyPlans = plansByFamily.get(planFamilyUid);
+        return familyPlans == null ? Collections.emptyList() : familyPlans;
+    }
+
+    /**
+     * Returns all plan families.
+     * @return The plan families, in the order of the api.
+     */
+    public List<PlanFamily> getPlanFamilies() {
+        return planFamilies;
+    }
+
+    /**
+     * Returns a plan family.
+     * @param uid The uid of the plan family.
+     * @return The plan family, or null if it is not in the catalog.
+     */
+    public PlanFamily getPlanFamily(final String uid) {
+        return planFamiliesByUid.get(uid);
+    }
+
+    /**
+     * Returns all add-ons.
+     * @return The add-ons, in the order of the api.
+     */
+    public List<AddOn> getAddOns() {
+        return addOns;
+    }
+
+    /**
+     * Returns an add-on.
+     * @param uid The uid of the add-on.
+     * @return The add-on, or null if it is not in the catalog.
+     */
+    public AddOn getAddOn(final String uid) {
+        return addOnsByUid.get(uid);
+    }
+
+    /**
+     * This method overrides the toString method.
+     */
+    @Override
+    public String toString() {
+        return "[plans: " + plans.size() + "; plan families: "
+                + planFamilies.size() + "; add-ons: " + addOns.size() + "]";
+    }
+}
@@ -0,0 +1,753 @@
+package com.outseta.client.endpoint_client.billing;
+
+import com.outseta.client_helper.pagination.PageIterable;
+import com.outseta.client_helper.pagination.PageIterator;
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.exception.OutsetaInvalidArgumentException;
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.OutsetaPaginationException;
+import com.outseta.exception.OutsetaParseException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import com.outseta.model.DataComponent;
+import com.outseta.model.request.PageRequest;
+import com.outseta.model.result.AddOn;
+import com.outseta.model.result.ItemPage;
+import com.outseta.model.result.Metadata;
+import com.outseta.model.result.Plan;
+import com.outseta.model.result.PlanFamily;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * This class keeps the billing catalog of the account in memory: the
+ * plans, the plan families and the add-ons. They change a few times a
+ * month but are read on every checkout, so reading them from the api each
+ * time is wasted work.
+ * <p>
+ *     The whole catalog is loaded by the first read and kept as an
+ *     immutable {@link Catalog}. Before its time to live runs out, a new
+ *     version is loaded in the background and swapped in at once, so
+ *     readers always see one complete version and never wait for a
+ *     refresh. If a refresh fails, the version in memory keeps being
+ *     served, even past its time to live, and the refresh is tried again
+ *     after the retry delay.
+ * </p>
+ * <p>
+ *     The lookups by id read through to the clients: an id that is not in
+ *     the catalog, for example a plan created since the last refresh, is
+ *     fetched from the api. Pages without a sort order or filters are cut
+ *     from the catalog, other pages are fetched from the api. Until the
+ *     first version is loaded, every read goes to the api.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * CatalogCache catalog = CatalogCache.builder(outseta.plans(),
+ *      outseta.planFamilies(), outseta.addOns())
+ *      .ttl(TimeUnit.MINUTES.toMillis(30))
+ *      .build();
+ * Plan plan = catalog.getPlan(planId);
+ * List<Plan> plans = catalog.getCatalog().getPlansOfFamily(familyId);
+ * }</pre>
+ */
+public final class CatalogCache implements Closeable {
+
+    /**
+     * The default time to live of a version of the catalog, in
+     * milliseconds.
+     */
+    public static final long DEFAULT_TTL = 3_600_000L;
+
+    /**
+     * The default part of the time to live after which a new version is
+     * loaded.
+     */
+    public static final double DEFAULT_REFRESH_AHEAD = 0.8;
+
+    /**
+     * The default time to wait before loading again after a failure, in
+     * milliseconds.
+     */
+    public static final long DEFAULT_RETRY_DELAY = 30_000L;
+
+    /**
+     * This interface is used to load one version of the catalog.
+     */
+    interface Loader {
+
+        /**
+         * This method loads the catalog.
+         * @return The catalog.
+         * @throws Exception If the catalog cannot be loaded.
+         */
+        Catalog load() throws Exception;
+    }
+
+    /**
+     * This class is used to build a CatalogCache object.
+     */
+    public static final class Builder {
+
+        /**
+         * The client used for the plans.
+         */
+        private final PlanClient planClient;
+
+        /**
+         * The client used for the plan families.
+         */
+        private final PlanFamilyClient planFamilyClient;
+
+        /**
+         * The client used for the add-ons.
+         */
+        private final AddOnClient addOnClient;
+
+        /**
+         * The time to live of a version of the catalog.
+         */
+        private long ttl;
+
+        /**
+         * The part of the time to live after which a new version is loaded.
+         */
+        private double refreshAhead;
+
+        /**
+         * The time to wait before loading again after a failure.
+         */
+        private long retryDelay;
+
+        /**
+         * The constructor for Builder.
+         * @param pPlanClient The client used for the plans.
+         * @param pPlanFamilyClient The client used for the plan families.
+         * @param pAddOnClient The client used for the add-ons.
+         */
+        private Builder(final PlanClient pPlanClient,
+                        final PlanFamilyClient pPlanFamilyClient,
+                        final AddOnClient pAddOnClient) {
+            this.planClient = pPlanClient;
+            this.planFamilyClient = pPlanFamilyClient;
+            this.addOnClient = pAddOnClient;
+            this.ttl = DEFAULT_TTL;
+            this.refreshAhead = DEFAULT_REFRESH_AHEAD;
+            this.retryDelay = DEFAULT_RETRY_DELAY;
+        }
+
+        /**
+         * Sets how long a version of the catalog is considered fresh.
+         * @param pTtl The time to live in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder ttl(final long pTtl) {
+            this.ttl = pTtl;
+            return this;
+        }
+
+        /**
+         * Sets the part of the time to live after which a new version is
+         * loaded in the background.
+         * @param pRefreshAhead A number greater than 0 and at most 1.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder refreshAhead(final double pRefreshAhead) {
+            this.refreshAhead = pRefreshAhead;
+            return this;
+        }
+
+        /**
+         * Sets the time to wait before loading again after a failure.
+         * @param pRetryDelay The delay in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder retryDelay(final long pRetryDelay) {
+            this.retryDelay = pRetryDelay;
+            return this;
+        }
+
+        /**
+         * This method is used to create a new CatalogCache object.
+         * @return A new CatalogCache object.
+         * @throws OutsetaClientBuildException If a client is null or a
+         *      setting is out of range.
+         */
+        public CatalogCache build() throws OutsetaClientBuildException {
+
+            if (this.planClient == null || this.planFamilyClient == null
+                    || this.addOnClient == null) {
+                throw new OutsetaClientBuildException(
+                        "The catalog clients cannot be null.");
+            }
+            if (this.ttl <= 0) {
+                throw new OutsetaClientBuildException(
+                        "The time to live must be greater than 0.");
+            }
+            if (!(this.refreshAhead > 0 && this.refreshAhead <= 1)) {
+                throw new OutsetaClientBuildException(
+                        "The refresh ahead must be greater than 0 and at "
+                                + "most 1.");
+            }
+            if (this.retryDelay <= 0) {
+                throw new OutsetaClientBuildException(
+                        "The retry delay must be greater than 0.");
+            }
+
+            PlanClient plans = this.planClient;
+            PlanFamilyClient families = this.planFamilyClient;
+            AddOnClient addOns = this.addOnClient;
+            return new CatalogCache(this, () -> new Catalog(
+                    collect(plans.getAllPlans(allPages())),
+                    collect(families.getAllPlanFamilies(allPages())),
+                    collect(addOns.getAllAddOns(allPages()))),
+                    System::nanoTime);
+        }
+    }
+
+    /**
+     * This class is a loaded version of the catalog with the time it was
+     * loaded.
+     */
+    private static final class Version {
+
+        /**
+         * The catalog.
+         */
+        private final Catalog catalog;
+
+        /**
+         * The time the catalog was loaded, in nanoseconds of the clock.
+         */
+        private final long loadedAt;
+
+        /**
+         * The constructor for Version.
+         * @param pCatalog The catalog.
+         * @param pLoadedAt The time the catalog was loaded.
+         */
+        private Version(final Catalog pCatalog, final long pLoadedAt) {
+            this.catalog = pCatalog;
+            this.loadedAt = pLoadedAt;
+        }
+    }
+
+    /**
+     * The client used for the plans.
+     */
+    private final PlanClient planClient;
+
+    /**
+     * The client used for the plan families.
+     */
+    private final PlanFamilyClient planFamilyClient;
+
+    /**
+     * The client used for the add-ons.
+     */
+    private final AddOnClient addOnClient;
+
+    /**
+     * The loader of the catalog.
+     */
+    private final Loader loader;
+
+    /**
+     * The time to live of a version, in nanoseconds.
+     */
+    private final long ttl;
+
+    /**
+     * The time after which a new version is loaded, in nanoseconds.
+     */
+    private final long refreshAfter;
+
+    /**
+     * The time to wait before loading again after a failure, in
+     * nanoseconds.
+     */
+    private final long retryDelay;
+
+    /**
+     * The clock, in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The thread that loads the new versions.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The lock held while a version is loaded, so only one is loaded at a
+     * time. Readers never take it once a version is loaded.
+     */
+    private final Object loadLock = new Object();
+
+    /**
+     * The version that is served, or null until the first one is loaded.
+     */
+    private volatile Version current;
+
+    /**
+     * The failure of the last load, or null if it succeeded.
+     */
+    private volatile Exception lastFailure;
+
+    /**
+     * The time of the last failed load, in nanoseconds of the clock.
+     */
+    private volatile long failedAt;
+
+    /**
+     * The next background load, if one is scheduled.
+     */
+    private ScheduledFuture<?> nextLoad;
+
+    /**
+     * Whether the cache has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The constructor for CatalogCache.
+     * @param builder The builder holding the clients and the settings.
+     * @param pLoader The loader of the catalog.
+     * @param pClock The clock, in nanoseconds.
+     */
+    CatalogCache(final Builder builder, final Loader pLoader,
+                 final LongSupplier pClock) {
+        this.planClient = builder.planClient;
+        this.planFamilyClient = builder.planFamilyClient;
+        this.addOnClient = builder.addOnClient;
+        this.loader = pLoader;
+        this.ttl = TimeUnit.MILLISECONDS.toNanos(builder.ttl);
+        this.refreshAfter = (long) (this.ttl * builder.refreshAhead);
+        this.retryDelay = TimeUnit.MILLISECONDS.toNanos(builder.retryDelay);
+        this.clock = pClock;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "outseta-catalog-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * This method is used to get a builder that can be used to build a
+     * CatalogCache object.
+     * @param planClient The client used for the plans.
+     * @param planFamilyClient The client used for the plan families.
+     * @param addOnClient The client used for the add-ons.
+     * @return The builder.
+     */
+    public static Builder builder(final PlanClient planClient,
+                                  final PlanFamilyClient planFamilyClient,
+                                  final AddOnClient addOnClient) {
+        return new Builder(planClient, planFamilyClient, addOnClient);
+    }
+
+    /**
+     * This method returns the catalog that is served. The first call loads
+     * it, later calls return the version in memory without waiting.
+     * @return The catalog.
+     * @throws OutsetaAPIFailedException If no version has been loaded and
+     *      the catalog cannot be loaded now.
+     */
+    public Catalog getCatalog() throws OutsetaAPIFailedException {
+        Version version = this.current;
+        if (version != null) {
+            return version.catalog;
+        }
+        Catalog catalog = this.loadFirst();
+        if (catalog == null) {
+            throw new OutsetaAPIFailedException(
+                    "The catalog could not be loaded.", null, null, null,
+                    null, null, this.lastFailure);
+        }
+        return catalog;
+    }
+
+    /**
+     * This method loads a new version of the catalog now and swaps it in.
+     * @return The new catalog.
+     * @throws OutsetaAPIFailedException If the catalog cannot be loaded.
+     *      The version in memory is kept.
+     */
+    public Catalog refresh() throws OutsetaAPIFailedException {
+        try {
+            return this.load();
+        } catch (Exception e) {
+            throw new OutsetaAPIFailedException(
+                    "The catalog could not be loaded.", null, null, null,
+                    null, null, e);
+        }
+    }
+
+    /**
+     * This method is used to get a plan by id. The plan is taken from the
+     * catalog, or fetched from the api if it is not in it.
+     * @param planId The id of the plan to get.
+     * @return The plan.
+     * @throws OutsetaInvalidArgumentException Thrown if the plan id is null.
+     * @throws OutsetaParseException Thrown if the plan cannot be parsed.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response
+     *      code is invalid.
+     * @throws OutsetaAPIBadRequestException Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException Thrown if the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException Thrown if the url is invalid.
+     */
+    public Plan getPlan(final String planId)
+            throws OutsetaParseException, OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaInvalidURLException,
+            OutsetaInvalidArgumentException {
+
+        Catalog catalog = this.cached();
+        Plan plan = catalog == null || planId == null
+                ? null : catalog.getPlan(planId);
+        return plan != null ? plan : this.planClient.getPlan(planId);
+    }
+
+    /**
+     * This method is used to get a page of plans. Pages without a sort
+     * order or filters are cut from the catalog.
+     * @param pageRequest The page request to use.
+     * @return The page of plans.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response
+     *      code is invalid.
+     * @throws OutsetaAPIBadRequestException Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException Thrown if the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException Thrown if the url is invalid.
+     * @throws OutsetaParseException Thrown if the plans cannot be parsed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request is
+     *      null.
+     */
+    public ItemPage<Plan> getPlanPage(final PageRequest pageRequest)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaInvalidURLException, OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException, OutsetaAPIUnknownException,
+            OutsetaParseException, OutsetaInvalidArgumentException {
+
+        Catalog catalog = this.cached();
+        if (catalog == null || !isPlain(pageRequest)) {
+            return this.planClient.getPlanPage(pageRequest);
+        }
+        return page(catalog.getPlans(), pageRequest);
+    }
+
+    /**
+     * This method is used to get a plan family by id. The plan family is
+     * taken from the catalog, or fetched from the api if it is not in it.
+     * @param planFamilyId The id of the plan family to get.
+     * @return The plan family.
+     * @throws OutsetaInvalidArgumentException Thrown if the plan family id
+     *      is null.
+     * @throws OutsetaParseException Thrown if the plan family cannot be
+     *      parsed.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response
+     *      code is invalid.
+     * @throws OutsetaAPIBadRequestException Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException Thrown if the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException Thrown if the url is invalid.
+     */
+    public PlanFamily getPlanFamily(final String planFamilyId)
+            throws OutsetaParseException, OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaInvalidURLException,
+            OutsetaInvalidArgumentException {
+
+        Catalog catalog = this.cached();
+        PlanFamily family = catalog == null || planFamilyId == null
+                ? null : catalog.getPlanFamily(planFamilyId);
+        return family != null
+                ? family : this.planFamilyClient.getPlanFamily(planFamilyId);
+    }
+
+    /**
+     * This method is used to get a page of plan families. Pages without a
+     * sort order or filters are cut from the catalog.
+     * @param pageRequest The page request to use.
+     * @return The page of plan families.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response
+     *      code is invalid.
+     * @throws OutsetaAPIBadRequestException Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException Thrown if the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException Thrown if the url is invalid.
+     * @throws OutsetaParseException Thrown if the plan families cannot be
+     *      parsed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request is
+     *      null.
+     */
+    public ItemPage<PlanFamily> getPlanFamilyPage(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaInvalidURLException, OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException, OutsetaAPIUnknownException,
+            OutsetaParseException, OutsetaInvalidArgumentException {
+
+        Catalog catalog = this.cached();
+        if (catalog == null || !isPlain(pageRequest)) {
+            return this.planFamilyClient.getPlanFamilyPage(pageRequest);
+        }
+        return page(catalog.getPlanFamilies(), pageRequest);
+    }
+
+    /**
+     * This method is used to get an add-on by id. The add-on is taken from
+     * the catalog, or fetched from the api if it is not in it.
+     * @param addOnId The id of the add-on to get.
+     * @return The add-on.
+     * @throws OutsetaInvalidArgumentException Thrown if the add-on id is
+     *      null.
+     * @throws OutsetaParseException Thrown if the add-on cannot be parsed.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response
+     *      code is invalid.
+     * @throws OutsetaAPIBadRequestException Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException Thrown if the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException Thrown if the url is invalid.
+     */
+    public AddOn getAddOn(final String addOnId)
+            throws OutsetaParseException, OutsetaInvalidResponseCodeException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaInvalidURLException,
+            OutsetaInvalidArgumentException {
+
+        Catalog catalog = this.cached();
+        AddOn addOn = catalog == null || addOnId == null
+                ? null : catalog.getAddOn(addOnId);
+        return addOn != null ? addOn : this.addOnClient.getAddOn(addOnId);
+    }
+
+    /**
+     * This method is used to get a page of add-ons. Pages without a sort
+     * order or filters are cut from the catalog.
+     * @param pageRequest The page request to use.
+     * @return The page of add-ons.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response
+     *      code is invalid.
+     * @throws OutsetaAPIBadRequestException Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException Thrown if the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException Thrown if the url is invalid.
+     * @throws OutsetaParseException Thrown if the add-ons cannot be parsed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request is
+     *      null.
+     */
+    public ItemPage<AddOn> getAddOnPage(final PageRequest pageRequest)
+            throws OutsetaInvalidResponseCodeException,
+            OutsetaInvalidURLException, OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException, OutsetaAPIUnknownException,
+            OutsetaParseException, OutsetaInvalidArgumentException {
+
+        Catalog catalog = this.cached();
+        if (catalog == null || !isPlain(pageRequest)) {
+            return this.addOnClient.getAddOnPage(pageRequest);
+        }
+        return page(catalog.getAddOns(), pageRequest);
+    }
+
+    /**
+     * Returns whether the version that is served is older than its time to
+     * live, which happens when the refreshes keep failing.
+     * @return True if the version is stale, false if it is fresh or none
+     *      has been loaded.
+     */
+    public boolean isStale() {
+        Version version = this.current;
+        return version != null
+                && this.clock.getAsLong() - version.loadedAt > this.ttl;
+    }
+
+    /**
+     * Returns the failure of the last load.
+     * @return The failure, or null if the last load succeeded.
+     */
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * This method stops the background refreshes. The version in memory
+     * keeps being served.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * This method returns the version in memory, loading the first one if
+     * needed.
+     * @return The catalog, or null if none could be loaded.
+     */
+    private Catalog cached() {
+        Version version = this.current;
+        return version != null ? version.catalog : this.loadFirst();
+    }
+
+    /**
+     * This method loads the first version of the catalog. The callers that
+     * arrive while it loads wait for it, and after a failure no load is
+     * tried again before the retry delay.
+     * @return The catalog, or null if it could not be loaded.
+     */
+    private Catalog loadFirst() {
+        synchronized (this.loadLock) {
+            Version version = this.current;
+            if (version != null) {
+                return version.catalog;
+            }
+            if (this.lastFailure != null
+                    && this.clock.getAsLong() - this.failedAt
+                    < this.retryDelay) {
+                return null;
+            }
+            try {
+                return this.load();
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * This method loads a version of the catalog, swaps it in and
+     * schedules the next load. After a failure the version in memory is
+     * kept and the load is tried again after the retry delay.
+     * @return The catalog.
+     * @throws Exception If the catalog cannot be loaded.
+     */
+    private Catalog load() throws Exception {
+        synchronized (this.loadLock) {
+            try {
+                Catalog catalog = this.loader.load();
+                this.current = new Version(catalog, this.clock.getAsLong());
+                this.lastFailure = null;
+                this.schedule(this.refreshAfter);
+                return catalog;
+            } catch (Exception e) {
+                this.lastFailure = e;
+                this.failedAt = this.clock.getAsLong();
+                if (this.current != null) {
+                    this.schedule(this.retryDelay);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * This method schedules the next background load, replacing the one
+     * that is scheduled.
+     * @param delay The delay in nanoseconds.
+     */
+    private void schedule(final long delay) {
+        if (this.nextLoad != null) {
+            this.nextLoad.cancel(false);
+        }
+        if (this.closed) {
+            return;
+        }
+        try {
+            this.nextLoad = this.scheduler.schedule(() -> {
+                try {
+                    this.load();
+                } catch (Exception e) {
+                    // The version in memory is kept and the load is retried
+                }
+            }, delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // The cache was closed while the version was loading
+            this.nextLoad = null;
+        }
+    }
+
+    /**
+     * Returns whether a page can be cut from the catalog.
+     * @param pageRequest The page request.
+     * @return True if the request has a page size and no sort order or
+     *      filters.
+     */
+    private static boolean isPlain(final PageRequest pageRequest) {
+        return pageRequest != null && pageRequest.getPageSize() != null
+                && (pageRequest.getOrderBy() == null
+                || pageRequest.getOrderBy().trim().isEmpty())
+                && (pageRequest.getCustomParams() == null
+                || pageRequest.getCustomParams().isEmpty());
+    }
+
+    /**
+     * This method cuts a page from a list of the catalog.
+     * @param items The items of the catalog.
+     * @param pageRequest The page request.
+     * @param <T> The type of the items.
+     * @return The page.
+     */
+    private static <T extends DataComponent> ItemPage<T> page(
+            final List<T> items, final PageRequest pageRequest) {
+        int limit = pageRequest.getPageSize();
+        int offset = pageRequest.getPageNum() == null
+                ? 0 : pageRequest.getPageNum();
+        int from = (int) Math.min(items.size(), (long) offset * limit);
+        int to = Math.min(items.size(), from + limit);
+        return new ItemPage<>(new Metadata(limit, offset, items.size()),
+                new ArrayList<>(items.subList(from, to)));
+    }
+
+    /**
+     * Returns a request of the first page with the largest page size.
+     * @return The page request.
+     * @throws Exception If the request cannot be built.
+     */
+    private static PageRequest allPages() throws Exception {
+        return PageRequest.builder().pageSize(PageRequest.MAX_PAGE_SIZE)
+                .build();
+    }
+
+    /**
+     * This method reads every item of a list endpoint.
+     * @param iterable The items of the endpoint.
+     * @param <T> The type of the items.
+     * @return The items.
+     * @throws Exception If a page cannot be fetched.
+     */
+    private static <T extends DataComponent> List<T> collect(
+            final PageIterable<T> iterable) throws Exception {
+        List<T> items = new ArrayList<>();
+        try (PageIterator<T> iterator = iterable.iterator()) {
+            while (iterator.hasNext()) {
+                items.add(iterator.next());
+            }
+        } catch (OutsetaPaginationException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+        return items;
+    }
+}
@@ -2,6 +2,7 @@ package com.outseta.client.endpoint_client.billing;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -12,7 +13,6 @@ import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
 import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
 import com.outseta.model.result.Discount;
 
-import java.util.HashMap;
 
 /**
  * This class is used to make calls to the Discount endpoints of the
@@ -24,6 +24,12 @@ import java.util.HashMap;
  */
 public final class DiscountClient extends BaseClient {
 
+    /**
+     * The route of the discount coupons.
+     */
+    private static final RouteTemplate DISCOUNT_COUPONS = RouteTemplate.compile(
+            "/billing/discountcoupons");
+
     /**
      * This method is used to get a builder that can be used to build an
      * DiscountClient object.
@@ -90,10 +96,8 @@ public final class DiscountClient extends BaseClient {
                     "Discount request cannot be null.");
         }
 
-        String req = this.getParserFacade().objectToJsonString(discountRequest);
-        String result = this.post("/billing/discountcoupons",
-                new HashMap<>(),
-                req);
+        String result = this.postObject(DISCOUNT_COUPONS.expand(),
+                NO_PARAMETERS, discountRequest);
 
         return this.getParserFacade()
                 .jsonStringToObject(result, Discount.class);
@@ -2,6 +2,8 @@ package com.outseta.client.endpoint_client.billing;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
+import com.outseta.client_helper.pagination.PageIterable;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -15,7 +17,8 @@ import com.outseta.model.result.Invoice;
 import com.outseta.model.result.ItemPage;
 import com.outseta.model.result.Transaction;
 
-import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * This class is used to make calls to the Invoice endpoints of the
@@ -27,6 +30,24 @@ import java.util.HashMap;
  */
 public final class InvoiceClient extends BaseClient {
 
+    /**
+     * The route of the invoices.
+     */
+    private static final RouteTemplate INVOICES = RouteTemplate.compile(
+            "/billing/invoices");
+
+    /**
+     * The route of the transactions of an account.
+     */
+    private static final RouteTemplate TRANSACTIONS = RouteTemplate.compile(
+            "/billing/transactions/{accountId}");
+
+    /**
+     * The route of the payments.
+     */
+    private static final RouteTemplate PAYMENT = RouteTemplate.compile(
+            "/billing/transactions/payment");
+
     /**
      * This method is used to get a builder that can be used to build an
      * InvoiceClient object.
@@ -93,10 +114,8 @@ public final class InvoiceClient extends BaseClient {
                     "Invoice request cannot be null.");
         }
 
-        String req = this.getParserFacade().objectToJsonString(invoiceRequest);
-        String result = this.post("/billing/invoices",
-                new HashMap<>(),
-                req);
+        String result = this.postObject(INVOICES.expand(),
+                NO_PARAMETERS, invoiceRequest);
 
         return this.getParserFacade()
                 .jsonStringToObject(result, Invoice.class);
@@ -168,12 +187,99 @@ public final class InvoiceClient extends BaseClient {
                     "Account id cannot be null or blank.");
         }
 
-        String result = this.get("/billing/transactions/" + accountId,
-                transactionPageRequest.buildParams());
+        return this.getPage(TRANSACTIONS.expand(accountId),
+                transactionPageRequest.buildParams(),
+                Transaction.class);
+    }
 
-        return this.getParserFacade()
-                .jsonStringToPage(result,
-                        Transaction.class);
+    /**
+     * This method is used to walk over all transactions of an account,
+     * starting at the requested page. The next page is fetched in the
+     * background while the items of the current one are being used. The
+     * page size, sort order and filters of the request are kept for every
+     * page.
+     *
+     * @param accountId The id of the account.
+     * @param pageRequest The request of the first page.
+     * @return An Iterable over all transactions that can also be streamed.
+     * @throws OutsetaInvalidArgumentException Thrown if the account id or
+     *                                         the page request is null
+     *                                         or blank.
+     */
+    public PageIterable<Transaction> getAllTransactions(
+            final String accountId,
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+
+        if (accountId == null || accountId.trim().isEmpty()) {
+            throw new OutsetaInvalidArgumentException(
+                    "Account id cannot be null or blank.");
+        }
+
+        if (pageRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "Page request cannot be null.");
+        }
+
+        return new PageIterable<>(pageRequest, request ->
+                this.getTransactionPage(accountId, request));
+    }
+
+    /**
+     * This method is used to stream all transactions of an account,
+     * starting at the requested page. The first page is fetched right away
+     * to learn the total, and the stream can be made parallel, in which
+     * case its workers fetch and parse different pages at the same time. If
+     * the first page cannot be fetched, an OutsetaPaginationException is
+     * thrown.
+     *
+     * @param accountId The id of the account.
+     * @param pageRequest The request of the first page.
+     * @return A sized stream over all transactions.
+     * @throws OutsetaInvalidArgumentException Thrown if the account id or
+     *                                         the page request is null
+     *                                         or blank.
+     */
+    public Stream<Transaction> streamAll(
+            final String accountId,
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+        return getAllTransactions(accountId, pageRequest).streamAll();
+    }
+
+    /**
+     * This method is used to get a page of Transaction objects without blocking
+     * the calling thread. It needs an asynchronous request maker.
+     *
+     * @param accountId The id of the account.
+     * @param transactionPageRequest The page request to use.
+     * @return A future that is completed with the page, or with the
+     *      exception that {@link #getTransactionPage(String, PageRequest)}
+     *      would have thrown.
+     */
+    public CompletableFuture<ItemPage<Transaction>> getTransactionPageAsync(
+            final String accountId,
+            final PageRequest transactionPageRequest) {
+
+        if (transactionPageRequest == null) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Page request cannot be null."));
+        }
+
+        if (accountId == null || accountId.trim().isEmpty()) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Account id cannot be null or blank."));
+        }
+
+        String path;
+        try {
+            path = TRANSACTIONS.expand(accountId);
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getPageAsync(path, transactionPageRequest.buildParams(),
+                Transaction.class);
     }
 
     /**
@@ -216,9 +322,8 @@ public final class InvoiceClient extends BaseClient {
                     "Transaction request cannot be null.");
         }
 
-        String result = this.post("/billing/transactions/payment",
-                new HashMap<>(),
-                this.getParserFacade().objectToJsonString(transactionRequest));
+        String result = this.postObject(PAYMENT.expand(),
+                NO_PARAMETERS, transactionRequest);
 
         return this.getParserFacade()
                 .jsonStringToObject(result, Transaction.class);
@@ -2,6 +2,8 @@ package com.outseta.client.endpoint_client.billing;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
+import com.outseta.client_helper.pagination.PageIterable;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -14,7 +16,8 @@ import com.outseta.model.request.PageRequest;
 import com.outseta.model.result.ItemPage;
 import com.outseta.model.result.Plan;
 
-import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * This class is used to make calls to the Plan endpoints of the
@@ -26,6 +29,18 @@ import java.util.HashMap;
  */
 public final class PlanClient extends BaseClient {
 
+    /**
+     * The route of the plans.
+     */
+    private static final RouteTemplate PLANS = RouteTemplate.compile(
+            "/billing/plans");
+
+    /**
+     * The route of a plan.
+     */
+    private static final RouteTemplate PLAN = RouteTemplate.compile(
+            "/billing/plans/{planId}");
+
     /**
      * This method is used to get a builder that can be used to build an
      * PlanClient object.
@@ -92,11 +107,8 @@ public final class PlanClient extends BaseClient {
                     "Plan id cannot be null or blank.");
         }
 
-        String result = this.get("/billing/plans/" + planId,
-                new HashMap<>());
-
-        return this.getParserFacade().jsonStringToObject(result,
-                Plan.class);
+        return this.getObject(PLAN.expand(planId),
+                NO_PARAMETERS, Plan.class);
     }
 
     /**
@@ -153,11 +165,100 @@ public final class PlanClient extends BaseClient {
                     "Page request cannot be null.");
         }
 
-        String result = this.get("/billing/plans",
-                pageRequest.buildParams());
+        return this.getPage(PLANS.expand(),
+                pageRequest.buildParams(),
+                Plan.class);
+    }
+
+    /**
+     * This method is used to walk over all plans, starting at the
+     * requested page. The next page is fetched in the background while the
+     * items of the current one are being used. The page size, sort order
+     * and filters of the request are kept for every page.
+     *
+     * @param pageRequest The request of the first page.
+     * @return An Iterable over all plans that can also be streamed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public PageIterable<Plan> getAllPlans(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+
+        if (pageRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "Page request cannot be null.");
+        }
+
+        return new PageIterable<>(pageRequest, this::getPlanPage);
+    }
+
+    /**
+     * This method is used to stream all plans, starting at the
+     * requested page. The first page is fetched right away to learn the
+     * total, and the stream can be made parallel, in which case its workers
+     * fetch and parse different pages at the same time. If the first page
+     * cannot be fetched, an OutsetaPaginationException is thrown.
+     *
+     * @param pageRequest The request of the first page.
+     * @return A sized stream over all plans.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public Stream<Plan> streamAll(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+        return getAllPlans(pageRequest).streamAll();
+    }
+
+    /**
+     * This method is used to get a plan by id without blocking the calling
+     * thread. It needs an asynchronous request maker.
+     *
+     * @param planId The id of the plan to get.
+     * @return A future that is completed with the plan, or with the exception
+     *      that {@link #getPlan(String)} would have thrown.
+     */
+    public CompletableFuture<Plan> getPlanAsync(final String planId) {
+
+        if (planId == null || planId.trim().isEmpty()) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Plan id cannot be null or blank."));
+        }
+
+        String path;
+        try {
+            path = PLAN.expand(planId);
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getObjectAsync(path, NO_PARAMETERS, Plan.class);
+    }
+
+    /**
+     * This method is used to get a page of Plan objects without blocking the
+     * calling thread. It needs an asynchronous request maker.
+     *
+     * @param pageRequest The page request to use.
+     * @return A future that is completed with the page, or with the exception
+     *      that {@link #getPlanPage(PageRequest)} would have thrown.
+     */
+    public CompletableFuture<ItemPage<Plan>> getPlanPageAsync(
+            final PageRequest pageRequest) {
+
+        if (pageRequest == null) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Page request cannot be null."));
+        }
+
+        String path;
+        try {
+            path = PLANS.expand();
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
 
-        return this.getParserFacade()
-                .jsonStringToPage(result,
-                        Plan.class);
+        return this.getPageAsync(path, pageRequest.buildParams(), Plan.class);
     }
 }
@@ -2,6 +2,8 @@ package com.outseta.client.endpoint_client.billing;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
+import com.outseta.client_helper.pagination.PageIterable;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -14,7 +16,8 @@ import com.outseta.model.request.PageRequest;
 import com.outseta.model.result.ItemPage;
 import com.outseta.model.result.PlanFamily;
 
-import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * This class is used to make calls to the PlanFamily endpoints of the
@@ -26,6 +29,18 @@ import java.util.HashMap;
  */
 public final class PlanFamilyClient extends BaseClient {
 
+    /**
+     * The route of the plan families.
+     */
+    private static final RouteTemplate PLAN_FAMILIES = RouteTemplate.compile(
+            "/billing/planfamilies");
+
+    /**
+     * The route of a plan family.
+     */
+    private static final RouteTemplate PLAN_FAMILY = RouteTemplate.compile(
+            "/billing/planfamilies/{planFamilyId}");
+
     /**
      * This method is used to get a builder that can be used to build an
      * PlanFamilyClient object.
@@ -92,11 +107,8 @@ public final class PlanFamilyClient extends BaseClient {
                     "Plan Family id cannot be null or blank.");
         }
 
-        String result = this.get("/billing/planfamilies/" + planFamilyId,
-                new HashMap<>());
-
-        return this.getParserFacade().jsonStringToObject(result,
-                PlanFamily.class);
+        return this.getObject(PLAN_FAMILY.expand(planFamilyId),
+                NO_PARAMETERS, PlanFamily.class);
     }
 
     /**
@@ -153,12 +165,103 @@ public final class PlanFamilyClient extends BaseClient {
                     "Page request cannot be null.");
         }
 
-        String result = this.get("/billing/planfamilies",
-                pageRequest.buildParams());
+        return this.getPage(PLAN_FAMILIES.expand(),
+                pageRequest.buildParams(),
+                PlanFamily.class);
+    }
 
-        return this.getParserFacade()
-                .jsonStringToPage(result,
-                        PlanFamily.class);
+    /**
+     * This method is used to walk over all plan families, starting at the
+     * requested page. The next page is fetched in the background while the
+     * items of the current one are being used. The page size, sort order
+     * and filters of the request are kept for every page.
+     *
+     * @param pageRequest The request of the first page.
+     * @return An Iterable over all plan families that can also be streamed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public PageIterable<PlanFamily> getAllPlanFamilies(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+
+        if (pageRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "Page request cannot be null.");
+        }
+
+        return new PageIterable<>(pageRequest, this::getPlanFamilyPage);
+    }
+
+    /**
+     * This method is used to stream all plan families, starting at the
+     * requested page. The first page is fetched right away to learn the
+     * total, and the stream can be made parallel, in which case its workers
+     * fetch and parse different pages at the same time. If the first page
+     * cannot be fetched, an OutsetaPaginationException is thrown.
+     *
+     * @param pageRequest The request of the first page.
+     * @return A sized stream over all plan families.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public Stream<PlanFamily> streamAll(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+        return getAllPlanFamilies(pageRequest).streamAll();
+    }
+
+    /**
+     * This method is used to get a plan family by id without blocking the
+     * calling thread. It needs an asynchronous request maker.
+     *
+     * @param planFamilyId The id of the plan family to get.
+     * @return A future that is completed with the plan family, or with the
+     *      exception that {@link #getPlanFamily(String)} would have thrown.
+     */
+    public CompletableFuture<PlanFamily> getPlanFamilyAsync(
+            final String planFamilyId) {
+
+        if (planFamilyId == null || planFamilyId.trim().isEmpty()) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Plan Family id cannot be null or blank."));
+        }
+
+        String path;
+        try {
+            path = PLAN_FAMILY.expand(planFamilyId);
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getObjectAsync(path, NO_PARAMETERS, PlanFamily.class);
+    }
+
+    /**
+     * This method is used to get a page of PlanFamily objects without blocking
+     * the calling thread. It needs an asynchronous request maker.
+     *
+     * @param pageRequest The page request to use.
+     * @return A future that is completed with the page, or with the exception
+     *      that {@link #getPlanFamilyPage(PageRequest)} would have thrown.
+     */
+    public CompletableFuture<ItemPage<PlanFamily>> getPlanFamilyPageAsync(
+            final PageRequest pageRequest) {
+
+        if (pageRequest == null) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Page request cannot be null."));
+        }
+
+        String path;
+        try {
+            path = PLAN_FAMILIES.expand();
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getPageAsync(path, pageRequest.buildParams(),
+                PlanFamily.class);
     }
 
 }
@@ -2,6 +2,8 @@ package com.outseta.client.endpoint_client.billing;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
+import com.outseta.client_helper.pagination.PageIterable;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -12,12 +14,16 @@ import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
 import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
 import com.outseta.model.request.CreateOrChangeSubscriptionRequest;
 import com.outseta.model.request.PageRequest;
+import com.outseta.model.result.Account;
 import com.outseta.model.result.Invoice;
 import com.outseta.model.result.ItemPage;
 import com.outseta.model.result.Subscription;
 import com.outseta.model.result.SubscriptionAddOn;
 
 import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * This class is used to make calls to the Subscription endpoints of the
@@ -29,6 +35,68 @@ import java.util.HashMap;
  */
 public final class SubscriptionClient extends BaseClient {
 
+    /**
+     * The route of the subscriptions.
+     */
+    private static final RouteTemplate SUBSCRIPTIONS = RouteTemplate.compile(
+            "/billing/subscriptions");
+
+    /**
+     * The route of a subscription.
+     */
+    private static final RouteTemplate SUBSCRIPTION = RouteTemplate.compile(
+            "/billing/subscriptions/{subscriptionId}");
+
+    /**
+     * The route that computes the charge summary of a subscription.
+     */
+    private static final RouteTemplate CHARGE_SUMMARY = RouteTemplate.compile(
+            "/billing/subscriptions/compute-charge-summary");
+
+    /**
+     * The route of a first time subscription.
+     */
+    private static final RouteTemplate FIRST_TIME = RouteTemplate.compile(
+            "/billing/subscriptions/firsttimesubscription");
+
+    /**
+     * The route that previews the change of a subscription.
+     */
+    private static final RouteTemplate CHANGE_PREVIEW =
+            RouteTemplate.compile("/billing/subscriptions/{subscriptionId}"
+                    + "/changesubscriptionpreview");
+
+    /**
+     * The route that changes a subscription.
+     */
+    private static final RouteTemplate CHANGE = RouteTemplate.compile(
+            "/billing/subscriptions/{subscriptionId}/changesubscription");
+
+    /**
+     * The route that flags a subscription as requiring an upgrade.
+     */
+    private static final RouteTemplate UPGRADE_REQUIRED =
+            RouteTemplate.compile("/billing/subscriptions/{subscriptionId}"
+                    + "/setsubscriptionupgraderequired");
+
+    /**
+     * The route that extends the trial of an account.
+     */
+    private static final RouteTemplate EXTEND_TRIAL = RouteTemplate.compile(
+            "/crm/accounts/extendtrial/{accountId}/{date}");
+
+    /**
+     * The route of the add-ons of the subscriptions.
+     */
+    private static final RouteTemplate SUBSCRIPTION_ADD_ONS =
+            RouteTemplate.compile("/billing/subscriptionaddons");
+
+    /**
+     * The route of a discount of a subscription.
+     */
+    private static final RouteTemplate DISCOUNT = RouteTemplate.compile(
+            "/billing/subscriptions/{subscriptionId}/discounts/{discountId}");
+
     /**
      * This method is used to get a builder that can be used to build an
      * SubscriptionClient object.
@@ -59,7 +127,9 @@ public final class SubscriptionClient extends BaseClient {
     }
 
     /**
-     * This method is used to get a subscription by id.
+     * This method is used to get a subscription by id. When the client has an
+     * entity cache or a coalescer, the subscription returned is the instance
+     * shared with the other callers, so it must be treated as read only.
      *
      * @param subscriptionId The id of the subscription to get.
      * @return The subscription.
@@ -97,12 +167,50 @@ public final class SubscriptionClient extends BaseClient {
                     "Subscription id cannot be null or blank.");
         }
 
-        String result = this.get("/billing/subscriptions/"
-                        + subscriptionId,
-                new HashMap<>());
+        return this.getCachedObject(subscriptionId,
+                SUBSCRIPTION.expand(subscriptionId), Subscription.class);
+    }
 
-        return this.getParserFacade().jsonStringToObject(result,
-                Subscription.class);
+    /**
+     * This method is used to look up a subscription by id that may not exist. A
+     * not found answer of the api is returned as an empty optional
+     * instead of an exception, and is remembered for a short time when
+     * the client has an entity cache. A cached subscription is shared with the
+     * other callers, so it must be treated as read only.
+     *
+     * @param subscriptionId The id of the subscription to look up.
+     * @return The subscription, or an empty optional if it does not exist.
+     * @throws OutsetaInvalidArgumentException Thrown if the subscription id is
+     *                                          null.
+     * @throws OutsetaParseException            Thrown if the subscription
+     *                                          cannot be parsed.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response code
+     *                                          is invalid and is not 404.
+     * @throws OutsetaAPIBadRequestException    Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException        Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException       Thrown if the request fails for
+     *                                          an unknown reason.
+     * @throws OutsetaInvalidURLException       Thrown if the url is invalid.
+     *
+     * Example usage:
+     * <pre>{@code
+     * Optional<Subscription> subscription =
+     *      client.findSubscription("subscriptionId");
+     * }</pre>
+     */
+    public Optional<Subscription> findSubscription(final String subscriptionId)
+            throws OutsetaInvalidArgumentException,
+            OutsetaInvalidResponseCodeException, OutsetaInvalidURLException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaParseException {
+
+        if (subscriptionId == null || subscriptionId.trim().isEmpty()) {
+            throw new OutsetaInvalidArgumentException(
+                    "Subscription id cannot be null or blank.");
+        }
+
+        return this.findCachedObject(subscriptionId,
+                SUBSCRIPTION.expand(subscriptionId), Subscription.class);
     }
 
     /**
@@ -160,12 +268,106 @@ public final class SubscriptionClient extends BaseClient {
                     "Page request cannot be null.");
         }
 
-        String result = this.get("/billing/subscriptions",
-                pageRequest.buildParams());
+        return this.getPage(SUBSCRIPTIONS.expand(),
+                pageRequest.buildParams(),
+                Subscription.class);
+    }
+
+    /**
+     * This method is used to walk over all subscriptions, starting at the
+     * requested page. The next page is fetched in the background while the
+     * items of the current one are being used. The page size, sort order
+     * and filters of the request are kept for every page.
+     *
+     * @param pageRequest The request of the first page.
+     * @return An Iterable over all subscriptions that can also be streamed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public PageIterable<Subscription> getAllSubscriptions(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+
+        if (pageRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "Page request cannot be null.");
+        }
+
+        return new PageIterable<>(pageRequest, this::getSubscriptionPage);
+    }
+
+    /**
+     * This method is used to stream all subscriptions, starting at the
+     * requested page. The first page is fetched right away to learn the
+     * total, and the stream can be made parallel, in which case its workers
+     * fetch and parse different pages at the same time. If the first page
+     * cannot be fetched, an OutsetaPaginationException is thrown.
+     *
+     * @param pageRequest The request of the first page.
+     * @return A sized stream over all subscriptions.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public Stream<Subscription> streamAll(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+        return getAllSubscriptions(pageRequest).streamAll();
+    }
+
+    /**
+     * This method is used to get a subscription by id without blocking the
+     * calling thread. It needs an asynchronous request maker. Like
+     * {@link #getSubscription(String)}, it may complete with the shared cached
+     * instance, which must be treated as read only.
+     *
+     * @param subscriptionId The id of the subscription to get.
+     * @return A future that is completed with the subscription, or with the
+     *      exception that {@link #getSubscription(String)} would have thrown.
+     */
+    public CompletableFuture<Subscription> getSubscriptionAsync(
+            final String subscriptionId) {
+
+        if (subscriptionId == null || subscriptionId.trim().isEmpty()) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Subscription id cannot be null or blank."));
+        }
+
+        String path;
+        try {
+            path = SUBSCRIPTION.expand(subscriptionId);
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getCachedObjectAsync(subscriptionId, path,
+                Subscription.class);
+    }
+
+    /**
+     * This method is used to get a page of Subscription objects without
+     * blocking the calling thread. It needs an asynchronous request maker.
+     *
+     * @param pageRequest The page request to use.
+     * @return A future that is completed with the page, or with the exception
+     *      that {@link #getSubscriptionPage(PageRequest)} would have thrown.
+     */
+    public CompletableFuture<ItemPage<Subscription>> getSubscriptionPageAsync(
+            final PageRequest pageRequest) {
+
+        if (pageRequest == null) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Page request cannot be null."));
+        }
+
+        String path;
+        try {
+            path = SUBSCRIPTIONS.expand();
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
 
-        return this.getParserFacade()
-                .jsonStringToPage(result,
-                        Subscription.class);
+        return this.getPageAsync(path, pageRequest.buildParams(),
+                Subscription.class);
     }
 
     /**
@@ -224,11 +426,9 @@ public final class SubscriptionClient extends BaseClient {
             params.put("asOf", asOf);
         }
 
-        String result = this.post(
-                "/billing/subscriptions/compute-charge-summary",
-                params,
-                this.getParserFacade()
-                        .objectToJsonString(createOrChangeSubscriptionRequest));
+        String result = this.postObject(
+                CHARGE_SUMMARY.expand(),
+                params, createOrChangeSubscriptionRequest);
 
         return this.getParserFacade().jsonStringToObject(result,
                 Invoice.class);
@@ -282,14 +482,17 @@ public final class SubscriptionClient extends BaseClient {
 
         HashMap<String, Object> params = new HashMap<>();
 
-        String result = this.put(
-                "/billing/subscriptions/firsttimesubscription",
-                params,
-                this.getParserFacade()
-                        .objectToJsonString(createOrChangeSubscriptionRequest));
+        try {
+            String result = this.putObject(
+                    FIRST_TIME.expand(),
+                    params, createOrChangeSubscriptionRequest);
 
-        return this.getParserFacade().jsonStringToObject(result,
-                Subscription.class);
+            return this.getParserFacade().jsonStringToObject(result,
+                    Subscription.class);
+        } finally {
+            this.invalidate(Account.class,
+                    accountId(createOrChangeSubscriptionRequest));
+        }
     }
 
     /**
@@ -351,12 +554,9 @@ public final class SubscriptionClient extends BaseClient {
 
         HashMap<String, Object> params = new HashMap<>();
 
-        String result = this.put(
-                "/billing/subscriptions/"
-                        + subscriptionId + "/changesubscriptionpreview",
-                params,
-                this.getParserFacade()
-                        .objectToJsonString(createOrChangeSubscriptionRequest));
+        String result = this.putObject(
+                CHANGE_PREVIEW.expand(subscriptionId),
+                params, createOrChangeSubscriptionRequest);
 
         return this.getParserFacade().jsonStringToObject(result,
                 Invoice.class);
@@ -417,15 +617,18 @@ public final class SubscriptionClient extends BaseClient {
 
         HashMap<String, Object> params = new HashMap<>();
 
-        String result = this.put(
-                "/billing/subscriptions/"
-                        + subscriptionId + "/changesubscription",
-                params,
-                this.getParserFacade()
-                        .objectToJsonString(createOrChangeSubscriptionRequest));
-
-        return this.getParserFacade().jsonStringToObject(result,
-                Subscription.class);
+        try {
+            String result = this.putObject(
+                    CHANGE.expand(subscriptionId),
+                    params, createOrChangeSubscriptionRequest);
+
+            return this.getParserFacade().jsonStringToObject(result,
+                    Subscription.class);
+        } finally {
+            this.invalidate(Subscription.class, subscriptionId);
+            this.invalidate(Account.class,
+                    accountId(createOrChangeSubscriptionRequest));
+        }
     }
 
     /**
@@ -483,15 +686,16 @@ public final class SubscriptionClient extends BaseClient {
 
         HashMap<String, Object> params = new HashMap<>();
 
-        String result = this.put(
-                "/billing/subscriptions/"
-                        + subscriptionId + "/setsubscriptionupgraderequired",
-                params,
-                this.getParserFacade()
-                        .objectToJsonString(subscriptionRequest));
+        try {
+            String result = this.putObject(
+                    UPGRADE_REQUIRED.expand(subscriptionId),
+                    params, subscriptionRequest);
 
-        return this.getParserFacade().jsonStringToObject(result,
-                Subscription.class);
+            return this.getParserFacade().jsonStringToObject(result,
+                    Subscription.class);
+        } finally {
+            this.invalidate(Subscription.class, subscriptionId);
+        }
     }
 
     /**
@@ -541,11 +745,14 @@ public final class SubscriptionClient extends BaseClient {
 
         HashMap<String, Object> params = new HashMap<>();
 
-        this.put(
-                "/crm/accounts/extendtrial/"
-                        + accountId + "/" + date,
-                params,
-                "");
+        try {
+            this.put(
+                    EXTEND_TRIAL.expand(accountId, date),
+                    params,
+                    "");
+        } finally {
+            this.invalidate(Account.class, accountId);
+        }
     }
 
     /**
@@ -592,14 +799,20 @@ public final class SubscriptionClient extends BaseClient {
 
         HashMap<String, Object> params = new HashMap<>();
 
-        String result = this.post(
-                "/billing/subscriptionaddons",
-                params,
-                this.getParserFacade()
-                        .objectToJsonString(subscriptionAddOnRequest));
-
-        return this.getParserFacade().jsonStringToObject(result,
-                Subscription.class);
+        try {
+            String result = this.postObject(
+                    SUBSCRIPTION_ADD_ONS.expand(),
+                    params, subscriptionAddOnRequest);
+
+            return this.getParserFacade().jsonStringToObject(result,
+                    Subscription.class);
+        } finally {
+            Subscription subscription =
+                    subscriptionAddOnRequest.getSubscription();
+            if (subscription != null) {
+                this.invalidate(Subscription.class, subscription.getUid());
+            }
+        }
     }
 
     /**
@@ -650,9 +863,23 @@ public final class SubscriptionClient extends BaseClient {
 
         HashMap<String, Object> params = new HashMap<>();
 
-        this.post(
-                "/billing/subscriptions/"
-                        + subscriptionId + "/discounts/" + discountId,
-                params, "");
+        try {
+            this.post(
+                    DISCOUNT.expand(subscriptionId, discountId),
+                    params, "");
+        } finally {
+            this.invalidate(Subscription.class, subscriptionId);
+        }
+    }
+
+    /**
+     * This method returns the id of the account of a subscription request.
+     * @param request The request.
+     * @return The id of the account, or null if it has none.
+     */
+    private static String accountId(
+            final CreateOrChangeSubscriptionRequest request) {
+        Account account = request.getAccount();
+        return account == null ? null : account.getUid();
     }
 }
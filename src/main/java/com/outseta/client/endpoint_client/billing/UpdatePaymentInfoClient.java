@@ -2,6 +2,7 @@ package com.outseta.client.endpoint_client.billing;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -12,7 +13,6 @@ import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
 import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
 import com.outseta.model.request.UpdatePaymentInfoRequest;
 
-import java.util.HashMap;
 
 /**
  * This class is used to make calls to the UpdatePaymentInfo endpoints of the
@@ -24,6 +24,12 @@ import java.util.HashMap;
  */
 public final class UpdatePaymentInfoClient extends BaseClient {
 
+    /**
+     * The route of the payment information.
+     */
+    private static final RouteTemplate PAYMENT_INFORMATION =
+            RouteTemplate.compile("/billing/paymentinformation");
+
     /**
      * This method is used to get a builder that can be used to build an
      * UpdatePaymentInfoClient object.
@@ -96,8 +102,7 @@ public final class UpdatePaymentInfoClient extends BaseClient {
                     "UpdatePaymentInfo request cannot be null.");
         }
 
-        this.post("/billing/paymentinformation", new HashMap<>(),
-                this.getParserFacade()
-                        .objectToJsonString(updatePaymentInfoRequest));
+        this.postObject(PAYMENT_INFORMATION.expand(), NO_PARAMETERS,
+                updatePaymentInfoRequest);
     }
 }
@@ -2,6 +2,8 @@ package com.outseta.client.endpoint_client.crm;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
+import com.outseta.client_helper.pagination.PageIterable;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -14,9 +16,13 @@ import com.outseta.model.request.CancelAccountRequest;
 import com.outseta.model.request.PageRequest;
 import com.outseta.model.result.Account;
 import com.outseta.model.result.ItemPage;
+import com.outseta.model.result.Person;
 import com.outseta.model.result.PersonAccount;
 
-import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * This class is used to make calls to the Account endpoints of the
@@ -28,6 +34,57 @@ import java.util.HashMap;
  */
 public final class AccountClient extends BaseClient {
 
+    /**
+     * The route of the accounts.
+     */
+    private static final RouteTemplate ACCOUNTS = RouteTemplate.compile(
+            "/crm/accounts");
+
+    /**
+     * The route of an account.
+     */
+    private static final RouteTemplate ACCOUNT = RouteTemplate.compile(
+            "/crm/accounts/{accountId}");
+
+    /**
+     * The route of the accounts with the confirmation email flag.
+     */
+    private static final RouteTemplate ACCOUNTS_CONFIRMED =
+            RouteTemplate.compile("/crm/accounts"
+                    + "?sendConfirmationEmail={sendConfirmationEmail}");
+
+    /**
+     * The route of the memberships of an account.
+     */
+    private static final RouteTemplate MEMBERSHIPS = RouteTemplate.compile(
+            "/crm/accounts/{accountId}/memberships");
+
+    /**
+     * The route of the memberships with the welcome email flag.
+     */
+    private static final RouteTemplate MEMBERSHIPS_WELCOMED =
+            RouteTemplate.compile("/crm/accounts/{accountId}/memberships"
+                    + "?sendWelcomeEmail={sendWelcomeEmail}");
+
+    /**
+     * The route of a membership of an account.
+     */
+    private static final RouteTemplate MEMBERSHIP = RouteTemplate.compile(
+            "/crm/accounts/{accountId}/memberships/{membershipId}");
+
+    /**
+     * The route of the cancellation of an account.
+     */
+    private static final RouteTemplate CANCELLATION = RouteTemplate.compile(
+            "/crm/accounts/cancellation/{accountId}");
+
+    /**
+     * The route that removes the cancellation of an account.
+     */
+    private static final RouteTemplate REMOVE_CANCELLATION =
+            RouteTemplate.compile("/crm/accounts/removecancellation"
+                    + "/{accountId}");
+
     /**
      * This method is used to get a builder that can be used to build an
      * AccountClient object.
@@ -56,7 +113,9 @@ public final class AccountClient extends BaseClient {
     }
 
     /**
-     * This method is used to get an account by id.
+     * This method is used to get an account by id. When the client has an
+     * entity cache or a coalescer, the account returned is the instance
+     * shared with the other callers, so it must be treated as read only.
      *
      * @param accountId The id of the account to get.
      * @return The account.
@@ -93,10 +152,49 @@ public final class AccountClient extends BaseClient {
                     "Account id cannot be null or blank.");
         }
 
-        String result = this.get("/crm/accounts/" + accountId,
-                new HashMap<>());
+        return this.getCachedObject(accountId, ACCOUNT.expand(accountId),
+                Account.class);
+    }
 
-        return this.getParserFacade().jsonStringToObject(result, Account.class);
+    /**
+     * This method is used to look up an account by id that may not exist. A
+     * not found answer of the api is returned as an empty optional
+     * instead of an exception, and is remembered for a short time when
+     * the client has an entity cache. A cached account is shared with the
+     * other callers, so it must be treated as read only.
+     *
+     * @param accountId The id of the account to look up.
+     * @return The account, or an empty optional if it does not exist.
+     * @throws OutsetaInvalidArgumentException Thrown if the account id is
+     *                                          null.
+     * @throws OutsetaParseException            Thrown if the account cannot
+     *                                          be parsed.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response code
+     *                                          is invalid and is not 404.
+     * @throws OutsetaAPIBadRequestException    Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException        Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException       Thrown if the request fails for
+     *                                          an unknown reason.
+     * @throws OutsetaInvalidURLException       Thrown if the url is invalid.
+     *
+     * Example usage:
+     * <pre>{@code
+     * Optional<Account> account = client.findAccount("accountId");
+     * }</pre>
+     */
+    public Optional<Account> findAccount(final String accountId)
+            throws OutsetaInvalidArgumentException,
+            OutsetaInvalidResponseCodeException, OutsetaInvalidURLException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaParseException {
+
+        if (accountId == null || accountId.trim().isEmpty()) {
+            throw new OutsetaInvalidArgumentException(
+                    "Account id cannot be null or blank.");
+        }
+
+        return this.findCachedObject(accountId, ACCOUNT.expand(accountId),
+                Account.class);
     }
 
     /**
@@ -156,12 +254,137 @@ public final class AccountClient extends BaseClient {
                     "Page request cannot be null.");
         }
 
-        String result = this.get("/crm/accounts",
-                accountPageRequest.buildParams());
+        return this.getPage(ACCOUNTS.expand(),
+                accountPageRequest.buildParams(),
+                Account.class);
+    }
+
+    /**
+     * This method is used to walk over all accounts, starting at the
+     * requested page. The next page is fetched in the background while the
+     * items of the current one are being used. The page size, sort order
+     * and filters of the request are kept for every page.
+     *
+     * @param pageRequest The request of the first page.
+     * @return An Iterable over all accounts that can also be streamed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     *
+     * Example usage:
+     * <pre>{@code
+     * try (Stream<Account> all = client.getAllAccounts(
+     *         AccountPageRequest.builder()
+     *                 .pageSize(PageRequest.MAX_PAGE_SIZE)
+     *                 .accountStage(AccountStage.Subscribing)
+     *                 .build()).stream()) {
+     *      all.forEach(item -> handle(item));
+     * }
+     * }</pre>
+     */
+    public PageIterable<Account> getAllAccounts(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+
+        if (pageRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "Page request cannot be null.");
+        }
+
+        return new PageIterable<>(pageRequest, this::getAccountPage);
+    }
+
+    /**
+     * This method is used to stream all accounts, starting at the
+     * requested page. The first page is fetched right away to learn the
+     * total, and the stream can be made parallel, in which case its workers
+     * fetch and parse different pages at the same time. If the first page
+     * cannot be fetched, an OutsetaPaginationException is thrown.
+     *
+     * @param pageRequest The request of the first page.
+     * @return A sized stream over all accounts.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     *
+     * Example usage:
+     * <pre>{@code
+     * Map<Integer, Long> byStage = client.streamAll(PageRequest.builder()
+     *         .pageSize(PageRequest.MAX_PAGE_SIZE)
+     *         .build())
+     *     .parallel()
+     *     .collect(Collectors.groupingBy(Account::getAccountStage,
+     *             Collectors.counting()));
+     * }</pre>
+     */
+    public Stream<Account> streamAll(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+        return getAllAccounts(pageRequest).streamAll();
+    }
+
+    /**
+     * This method is used to get an account by id without blocking the
+     * calling thread. It needs an asynchronous request maker. Like
+     * {@link #getAccount(String)}, it may complete with the shared cached
+     * instance, which must be treated as read only.
+     *
+     * @param accountId The id of the account to get.
+     * @return A future that is completed with the account, or with the
+     *      exception that {@link #getAccount(String)} would have thrown.
+     *
+     * Example usage:
+     * <pre>{@code
+     * AccountClient client = AccountClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .asyncRequestMaker(HttpClientConfig.builder().build())
+     *      .build();
+     * client.getAccountAsync(accountId)
+     *      .thenAccept(account -> System.out.println(account.getName()));
+     * }</pre>
+     */
+    public CompletableFuture<Account> getAccountAsync(final String accountId) {
+
+        if (accountId == null || accountId.trim().isEmpty()) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Account id cannot be null or blank."));
+        }
+
+        String path;
+        try {
+            path = ACCOUNT.expand(accountId);
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
 
-        return this.getParserFacade()
-                .jsonStringToPage(result,
-                        Account.class);
+        return this.getCachedObjectAsync(accountId, path, Account.class);
+    }
+
+    /**
+     * This method is used to get a page of Account objects without
+     * blocking the calling thread. It needs an asynchronous request maker.
+     *
+     * @param accountPageRequest The page request to use.
+     * @return A future that is completed with the page, or with the
+     *      exception that {@link #getAccountPage(PageRequest)} would have
+     *      thrown.
+     */
+    public CompletableFuture<ItemPage<Account>> getAccountPageAsync(
+            final PageRequest accountPageRequest) {
+
+        if (accountPageRequest == null) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Page request cannot be null."));
+        }
+
+        String path;
+        try {
+            path = ACCOUNTS.expand();
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getPageAsync(path, accountPageRequest.buildParams(),
+                Account.class);
     }
 
     /**
@@ -204,10 +427,15 @@ public final class AccountClient extends BaseClient {
                     "Account request cannot be null.");
         }
 
-        String result = this.post("/crm/accounts", new HashMap<>(),
-                this.getParserFacade().objectToJsonString(accountRequest));
+        try {
+            String result = this.postObject(ACCOUNTS.expand(), NO_PARAMETERS,
+                    accountRequest);
 
-        return this.getParserFacade().jsonStringToObject(result, Account.class);
+            return this.getParserFacade().jsonStringToObject(result,
+                    Account.class);
+        } finally {
+            this.invalidate(Person.class, personIds(accountRequest));
+        }
     }
 
     /**
@@ -255,11 +483,9 @@ public final class AccountClient extends BaseClient {
                     "Account request cannot be null.");
         }
 
-        String result = this.post(
-                "/crm/accounts?sendConfirmationEmail="
-                        + sendConfirmationEmail,
-                        new HashMap<>(),
-                this.getParserFacade().objectToJsonString(accountRequest));
+        String result = this.postObject(
+                ACCOUNTS_CONFIRMED.expand(sendConfirmationEmail),
+                NO_PARAMETERS, accountRequest);
 
         return this.getParserFacade().jsonStringToObject(result, Account.class);
     }
@@ -315,16 +541,16 @@ public final class AccountClient extends BaseClient {
                     "Account id cannot be null or blank.");
         }
 
-        String result = this.post(
-                "/crm/accounts/" + accountId
-                        + "/memberships?sendWelcomeEmail="
-                        + sendWelcomeEmail,
-                new HashMap<>(),
-                this.getParserFacade()
-                        .objectToJsonString(personAccountRequest));
+        try {
+            String result = this.postObject(
+                    MEMBERSHIPS_WELCOMED.expand(accountId, sendWelcomeEmail),
+                    NO_PARAMETERS, personAccountRequest);
 
-        return this.getParserFacade().jsonStringToObject(result,
-                PersonAccount.class);
+            return this.getParserFacade().jsonStringToObject(result,
+                    PersonAccount.class);
+        } finally {
+            this.invalidate(Account.class, accountId);
+        }
     }
 
     /**
@@ -376,15 +602,17 @@ public final class AccountClient extends BaseClient {
                     "Account id cannot be null or blank.");
         }
 
-        String result = this.post(
-                "/crm/accounts/" + accountId
-                        + "/memberships",
-                new HashMap<>(),
-                this.getParserFacade()
-                        .objectToJsonString(personAccountRequest));
+        try {
+            String result = this.postObject(
+                    MEMBERSHIPS.expand(accountId),
+                    NO_PARAMETERS, personAccountRequest);
 
-        return this.getParserFacade().jsonStringToObject(result,
-                PersonAccount.class);
+            return this.getParserFacade().jsonStringToObject(result,
+                    PersonAccount.class);
+        } finally {
+            this.invalidate(Account.class, accountId);
+            this.invalidate(Person.class, personId(personAccountRequest));
+        }
     }
 
     /**
@@ -426,8 +654,8 @@ public final class AccountClient extends BaseClient {
                     "Account request cannot be null.");
         }
 
-        String result = this.post("/crm/accounts", new HashMap<>(),
-                this.getParserFacade().objectToJsonString(accountRequest));
+        String result = this.postObject(ACCOUNTS.expand(), NO_PARAMETERS,
+                accountRequest);
 
         return this.getParserFacade().jsonStringToObject(result, Account.class);
     }
@@ -480,11 +708,15 @@ public final class AccountClient extends BaseClient {
                     "Account request cannot be null.");
         }
 
-        String result = this.put("/crm/accounts/" + accountId,
-                new HashMap<>(),
-                this.getParserFacade().objectToJsonString(accountRequest));
+        try {
+            String result = this.putObject(ACCOUNT.expand(accountId),
+                    NO_PARAMETERS, accountRequest);
 
-        return this.getParserFacade().jsonStringToObject(result, Account.class);
+            return this.getParserFacade().jsonStringToObject(result,
+                    Account.class);
+        } finally {
+            this.invalidate(Account.class, accountId);
+        }
     }
 
     /**
@@ -536,11 +768,12 @@ public final class AccountClient extends BaseClient {
                     "Cancel Account request cannot be null.");
         }
 
-        this.put("/crm/accounts/cancellation/"
-                        + accountId,
-                new HashMap<>(),
-                this.getParserFacade()
-                        .objectToJsonString(cancelAccountRequest));
+        try {
+            this.putObject(CANCELLATION.expand(accountId),
+                    NO_PARAMETERS, cancelAccountRequest);
+        } finally {
+            this.invalidate(Account.class, accountId);
+        }
     }
 
     /**
@@ -578,10 +811,12 @@ public final class AccountClient extends BaseClient {
                     "Account id cannot be null or blank.");
         }
 
-        this.put("/crm/accounts/removecancellation/"
-                        + accountId,
-                new HashMap<>(), "");
-
+        try {
+            this.put(REMOVE_CANCELLATION.expand(accountId),
+                    NO_PARAMETERS, "");
+        } finally {
+            this.invalidate(Account.class, accountId);
+        }
     }
 
     /**
@@ -640,11 +875,13 @@ public final class AccountClient extends BaseClient {
                     "Account request cannot be null.");
         }
 
-        this.put("/crm/accounts/" + accountId
-                        + "/memberships/" + membershipId,
-                new HashMap<>(),
-                this.getParserFacade()
-                        .objectToJsonString(personAccountRequest));
+        try {
+            this.putObject(MEMBERSHIP.expand(accountId, membershipId),
+                    NO_PARAMETERS, personAccountRequest);
+        } finally {
+            this.invalidate(Account.class, accountId);
+            this.invalidate(Person.class, personId(personAccountRequest));
+        }
     }
 
     /**
@@ -682,7 +919,11 @@ public final class AccountClient extends BaseClient {
                     "Account id cannot be null or blank.");
         }
 
-        this.delete("/crm/accounts/" + accountId, new HashMap<>());
+        try {
+            this.delete(ACCOUNT.expand(accountId), NO_PARAMETERS);
+        } finally {
+            this.invalidate(Account.class, accountId);
+        }
     }
 
     /**
@@ -729,7 +970,39 @@ public final class AccountClient extends BaseClient {
                     "Membership id cannot be null or blank.");
         }
 
-        this.delete("/crm/accounts/" + accountId
-                        + "/memberships/" + membershipId, new HashMap<>());
+        try {
+            this.delete(MEMBERSHIP.expand(accountId, membershipId),
+                    NO_PARAMETERS);
+        } finally {
+            this.invalidate(Account.class, accountId);
+        }
+    }
+
+    /**
+     * This method returns the id of the person of a membership.
+     * @param personAccount The membership.
+     * @return The id of the person, or null if it has none.
+     */
+    private static String personId(final PersonAccount personAccount) {
+        Person person = personAccount.getPerson();
+        return person == null ? null : person.getUid();
+    }
+
+    /**
+     * This method returns the ids of the people of the memberships of an
+     * account.
+     * @param account The account.
+     * @return The ids of the people, with null for a membership without a
+     *      person.
+     */
+    private static String[] personIds(final Account account) {
+        List<PersonAccount> memberships = account.getPersonAccount();
+        if (memberships == null) {
+            return new String[0];
+        }
+        return memberships.stream()
+                .map(membership -> membership == null ? null
+                        : personId(membership))
+                .toArray(String[]::new);
     }
 }
@@ -2,6 +2,8 @@ package com.outseta.client.endpoint_client.crm;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
+import com.outseta.client_helper.pagination.PageIterable;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -14,7 +16,8 @@ import com.outseta.model.request.PageRequest;
 import com.outseta.model.result.Activity;
 import com.outseta.model.result.ItemPage;
 
-import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * This class is used to make calls to the Activity endpoints of the
@@ -26,6 +29,18 @@ import java.util.HashMap;
  */
 public final class ActivityClient extends BaseClient {
 
+    /**
+     * The route of the activities.
+     */
+    private static final RouteTemplate ACTIVITIES = RouteTemplate.compile(
+            "/activities");
+
+    /**
+     * The route of the custom activities.
+     */
+    private static final RouteTemplate CUSTOM_ACTIVITY = RouteTemplate.compile(
+            "/activities/customactivity");
+
     /**
      * This method is used to get a builder that can be used to build an
      * ActivityClient object.
@@ -108,12 +123,77 @@ public final class ActivityClient extends BaseClient {
                     "Page request cannot be null.");
         }
 
-        String result = this.get("/activities",
-                activityPageRequest.buildParams());
+        return this.getPage(ACTIVITIES.expand(),
+                activityPageRequest.buildParams(),
+                Activity.class);
+    }
+
+    /**
+     * This method is used to walk over all activities, starting at the
+     * requested page. The next page is fetched in the background while the
+     * items of the current one are being used. The page size, sort order
+     * and filters of the request are kept for every page.
+     *
+     * @param pageRequest The request of the first page.
+     * @return An Iterable over all activities that can also be streamed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public PageIterable<Activity> getAllActivities(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+
+        if (pageRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "Page request cannot be null.");
+        }
+
+        return new PageIterable<>(pageRequest, this::getActivityPage);
+    }
 
-        return this.getParserFacade()
-                .jsonStringToPage(result,
-                        Activity.class);
+    /**
+     * This method is used to stream all activities, starting at the
+     * requested page. The first page is fetched right away to learn the
+     * total, and the stream can be made parallel, in which case its workers
+     * fetch and parse different pages at the same time. If the first page
+     * cannot be fetched, an OutsetaPaginationException is thrown.
+     *
+     * @param pageRequest The request of the first page.
+     * @return A sized stream over all activities.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public Stream<Activity> streamAll(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+        return getAllActivities(pageRequest).streamAll();
+    }
+
+    /**
+     * This method is used to get a page of Activity objects without blocking
+     * the calling thread. It needs an asynchronous request maker.
+     *
+     * @param activityPageRequest The page request to use.
+     * @return A future that is completed with the page, or with the exception
+     *      that {@link #getActivityPage(PageRequest)} would have thrown.
+     */
+    public CompletableFuture<ItemPage<Activity>> getActivityPageAsync(
+            final PageRequest activityPageRequest) {
+
+        if (activityPageRequest == null) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Page request cannot be null."));
+        }
+
+        String path;
+        try {
+            path = ACTIVITIES.expand();
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getPageAsync(path, activityPageRequest.buildParams(),
+                Activity.class);
     }
 
     /**
@@ -155,9 +235,8 @@ public final class ActivityClient extends BaseClient {
                     "Activity Request cannot be null.");
         }
 
-        String result = this.post("/activities/customactivity",
-                new HashMap<>(),
-                this.getParserFacade().objectToJsonString(activityRequest));
+        String result = this.postObject(CUSTOM_ACTIVITY.expand(),
+                NO_PARAMETERS, activityRequest);
 
         return this.getParserFacade().jsonStringToObject(result,
                 Activity.class);
@@ -2,6 +2,8 @@ package com.outseta.client.endpoint_client.crm;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
+import com.outseta.client_helper.pagination.PageIterable;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -14,7 +16,8 @@ import com.outseta.model.request.PageRequest;
 import com.outseta.model.result.Deal;
 import com.outseta.model.result.ItemPage;
 
-import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * This class is used to make calls to the Deal endpoints of the
@@ -26,6 +29,18 @@ import java.util.HashMap;
  */
 public final class DealClient extends BaseClient {
 
+    /**
+     * The route of the deals.
+     */
+    private static final RouteTemplate DEALS = RouteTemplate.compile(
+            "/crm/deals");
+
+    /**
+     * The route of a deal.
+     */
+    private static final RouteTemplate DEAL = RouteTemplate.compile(
+            "/crm/deals/{dealId}");
+
     /**
      * This method is used to get a builder that can be used to build an
      * DealClient object.
@@ -105,12 +120,102 @@ public final class DealClient extends BaseClient {
                     "Page request cannot be null.");
         }
 
-        String result = this.get("/crm/deals",
-                dealPageRequest.buildParams());
+        return this.getPage(DEALS.expand(),
+                dealPageRequest.buildParams(),
+                Deal.class);
+    }
+
+    /**
+     * This method is used to walk over all deals, starting at the
+     * requested page. The next page is fetched in the background while the
+     * items of the current one are being used. The page size, sort order
+     * and filters of the request are kept for every page.
+     *
+     * @param pageRequest The request of the first page.
+     * @return An Iterable over all deals that can also be streamed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public PageIterable<Deal> getAllDeals(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+
+        if (pageRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "Page request cannot be null.");
+        }
+
+        return new PageIterable<>(pageRequest, this::getDealPage);
+    }
+
+    /**
+     * This method is used to stream all deals, starting at the
+     * requested page. The first page is fetched right away to learn the
+     * total, and the stream can be made parallel, in which case its workers
+     * fetch and parse different pages at the same time. If the first page
+     * cannot be fetched, an OutsetaPaginationException is thrown.
+     *
+     * @param pageRequest The request of the first page.
+     * @return A sized stream over all deals.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public Stream<Deal> streamAll(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+        return getAllDeals(pageRequest).streamAll();
+    }
+
+    /**
+     * This method is used to get a deal by id without blocking the calling
+     * thread. It needs an asynchronous request maker.
+     *
+     * @param dealId The id of the deal to get.
+     * @return A future that is completed with the deal, or with the exception
+     *      that {@link #getDeal(String)} would have thrown.
+     */
+    public CompletableFuture<Deal> getDealAsync(final String dealId) {
+
+        if (dealId == null || dealId.trim().isEmpty()) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Deal id cannot be null or blank."));
+        }
+
+        String path;
+        try {
+            path = DEAL.expand(dealId);
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
 
-        return this.getParserFacade()
-                .jsonStringToPage(result,
-                        Deal.class);
+        return this.getObjectAsync(path, NO_PARAMETERS, Deal.class);
+    }
+
+    /**
+     * This method is used to get a page of Deal objects without blocking the
+     * calling thread. It needs an asynchronous request maker.
+     *
+     * @param dealPageRequest The page request to use.
+     * @return A future that is completed with the page, or with the exception
+     *      that {@link #getDealPage(PageRequest)} would have thrown.
+     */
+    public CompletableFuture<ItemPage<Deal>> getDealPageAsync(
+            final PageRequest dealPageRequest) {
+
+        if (dealPageRequest == null) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Page request cannot be null."));
+        }
+
+        String path;
+        try {
+            path = DEALS.expand();
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getPageAsync(path, dealPageRequest.buildParams(),
+                Deal.class);
     }
 
     /**
@@ -151,10 +256,8 @@ public final class DealClient extends BaseClient {
                     "Deal id cannot be null or blank.");
         }
 
-        String result = this.get("/crm/deals/" + dealId,
-                new HashMap<>());
-
-        return this.getParserFacade().jsonStringToObject(result, Deal.class);
+        return this.getObject(DEAL.expand(dealId),
+                NO_PARAMETERS, Deal.class);
     }
 
     /**
@@ -196,8 +299,8 @@ public final class DealClient extends BaseClient {
                     "Deal request cannot be null.");
         }
 
-        String result = this.post("/crm/deals", new HashMap<>(),
-                this.getParserFacade().objectToJsonString(dealRequest));
+        String result = this.postObject(DEALS.expand(), NO_PARAMETERS,
+                dealRequest);
 
         return this.getParserFacade().jsonStringToObject(result, Deal.class);
     }
@@ -237,7 +340,7 @@ public final class DealClient extends BaseClient {
                     "Deal id cannot be null or blank.");
         }
 
-        this.delete("/crm/deals/" + dealId, new HashMap<>());
+        this.delete(DEAL.expand(dealId), NO_PARAMETERS);
     }
 
     /**
@@ -288,9 +391,8 @@ public final class DealClient extends BaseClient {
                     "Deal request cannot be null.");
         }
 
-        String result = this.put("/crm/deals/" + dealId,
-                new HashMap<>(),
-                this.getParserFacade().objectToJsonString(dealRequest));
+        String result = this.putObject(DEAL.expand(dealId),
+                NO_PARAMETERS, dealRequest);
 
         return this.getParserFacade().jsonStringToObject(result, Deal.class);
     }
@@ -2,6 +2,8 @@ package com.outseta.client.endpoint_client.crm;
 
 import com.outseta.client.BaseClient;
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.url.RouteTemplate;
+import com.outseta.client_helper.pagination.PageIterable;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidURLException;
@@ -15,7 +17,9 @@ import com.outseta.model.request.TemporaryPasswordRequest;
 import com.outseta.model.result.ItemPage;
 import com.outseta.model.result.Person;
 
-import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * This class is used to make calls to the People endpoints of the CRM API.
@@ -26,6 +30,25 @@ import java.util.HashMap;
  */
 public final class PeopleClient extends BaseClient {
 
+    /**
+     * The route of the people.
+     */
+    private static final RouteTemplate PEOPLE = RouteTemplate.compile(
+            "/crm/people");
+
+    /**
+     * The route of a person.
+     */
+    private static final RouteTemplate PERSON = RouteTemplate.compile(
+            "/crm/people/{personId}");
+
+    /**
+     * The route that sets the temporary password of a person.
+     */
+    private static final RouteTemplate TEMPORARY_PASSWORD =
+            RouteTemplate.compile("/crm/people/{personId}"
+                    + "/setTemporaryPassword");
+
     /**
      * This method is used to get a builder that can be used to build a
      * PeopleClient object.
@@ -52,7 +75,9 @@ public final class PeopleClient extends BaseClient {
     }
 
     /**
-     * This method is used to get a person by id.
+     * This method is used to get a person by id. When the client has an
+     * entity cache or a coalescer, the person returned is the instance
+     * shared with the other callers, so it must be treated as read only.
      *
      * @param personId The id of the person to get.
      * @return The person.
@@ -89,10 +114,49 @@ public final class PeopleClient extends BaseClient {
                     "Person id cannot be null or blank.");
         }
 
-        String result = this.get("/crm/people/" + personId,
-                new HashMap<>());
+        return this.getCachedObject(personId, PERSON.expand(personId),
+                Person.class);
+    }
 
-        return this.getParserFacade().jsonStringToObject(result, Person.class);
+    /**
+     * This method is used to look up a person by id that may not exist. A
+     * not found answer of the api is returned as an empty optional
+     * instead of an exception, and is remembered for a short time when
+     * the client has an entity cache. A cached person is shared with the
+     * other callers, so it must be treated as read only.
+     *
+     * @param personId The id of the person to look up.
+     * @return The person, or an empty optional if it does not exist.
+     * @throws OutsetaInvalidArgumentException Thrown if the person id is
+     *                                          null.
+     * @throws OutsetaParseException            Thrown if the person cannot
+     *                                          be parsed.
+     * @throws OutsetaInvalidResponseCodeException Thrown if the response code
+     *                                          is invalid and is not 404.
+     * @throws OutsetaAPIBadRequestException    Thrown if the request is bad.
+     * @throws OutsetaAPIFailedException        Thrown if the request fails.
+     * @throws OutsetaAPIUnknownException       Thrown if the request fails for
+     *                                          an unknown reason.
+     * @throws OutsetaInvalidURLException       Thrown if the url is invalid.
+     *
+     * Example usage:
+     * <pre>{@code
+     * Optional<Person> person = client.findPerson("personId");
+     * }</pre>
+     */
+    public Optional<Person> findPerson(final String personId)
+            throws OutsetaInvalidArgumentException,
+            OutsetaInvalidResponseCodeException, OutsetaInvalidURLException,
+            OutsetaAPIBadRequestException, OutsetaAPIFailedException,
+            OutsetaAPIUnknownException, OutsetaParseException {
+
+        if (personId == null || personId.trim().isEmpty()) {
+            throw new OutsetaInvalidArgumentException(
+                    "Person id cannot be null or blank.");
+        }
+
+        return this.findCachedObject(personId, PERSON.expand(personId),
+                Person.class);
     }
 
     /**
@@ -149,12 +213,133 @@ public final class PeopleClient extends BaseClient {
                     "Page request cannot be null.");
         }
 
-        String result = this.get("/crm/people",
-                pageRequest.buildParams());
+        return this.getPage(PEOPLE.expand(),
+                pageRequest.buildParams(),
+                Person.class);
+    }
+
+    /**
+     * This method is used to walk over all people, starting at the
+     * requested page. The next page is fetched in the background while the
+     * items of the current one are being used. The page size, sort order
+     * and filters of the request are kept for every page.
+     *
+     * @param pageRequest The request of the first page.
+     * @return An Iterable over all people that can also be streamed.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     *
+     * Example usage:
+     * <pre>{@code
+     * try (Stream<Person> all = client.getAllPeople(
+     *         PageRequest.builder()
+     *                 .pageSize(PageRequest.MAX_PAGE_SIZE)
+     *                 .orderBy("Created")
+     *                 .build()).stream()) {
+     *      all.forEach(item -> handle(item));
+     * }
+     * }</pre>
+     */
+    public PageIterable<Person> getAllPeople(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
 
-        return this.getParserFacade()
-                .jsonStringToPage(result,
-                        Person.class);
+        if (pageRequest == null) {
+            throw new OutsetaInvalidArgumentException(
+                    "Page request cannot be null.");
+        }
+
+        return new PageIterable<>(pageRequest, this::getPersonPage);
+    }
+
+    /**
+     * This method is used to stream all people, starting at the
+     * requested page. The first page is fetched right away to learn the
+     * total, and the stream can be made parallel, in which case its workers
+     * fetch and parse different pages at the same time. If the first page
+     * cannot be fetched, an OutsetaPaginationException is thrown.
+     *
+     * @param pageRequest The request of the first page.
+     * @return A sized stream over all people.
+     * @throws OutsetaInvalidArgumentException Thrown if the page request
+     *                                         is null.
+     */
+    public Stream<Person> streamAll(
+            final PageRequest pageRequest)
+            throws OutsetaInvalidArgumentException {
+        return getAllPeople(pageRequest).streamAll();
+    }
+
+    /**
+     * This method is used to get a person by id without blocking the
+     * calling thread. It needs an asynchronous request maker. Like
+     * {@link #getPerson(String)}, it may complete with the shared cached
+     * instance, which must be treated as read only.
+     *
+     * @param personId The id of the person to get.
+     * @return A future that is completed with the person, or with the
+     *      exception that {@link #getPerson(String)} would have thrown.
+     */
+    public CompletableFuture<Person> getPersonAsync(final String personId) {
+
+        if (personId == null || personId.trim().isEmpty()) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Person id cannot be null or blank."));
+        }
+
+        String path;
+        try {
+            path = PERSON.expand(personId);
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getCachedObjectAsync(personId, path, Person.class);
+    }
+
+    /**
+     * This method is used to get a page of Person objects without blocking
+     * the calling thread. It needs an asynchronous request maker.
+     *
+     * @param pageRequest The page request to use.
+     * @return A future that is completed with the page, or with the
+     *      exception that {@link #getPersonPage(PageRequest)} would have
+     *      thrown.
+     *
+     * Example usage:
+     * <pre>{@code
+     * PeopleClient client = PeopleClient.builder(outsetaUrl)
+     *      .apiKey(outsetaKey)
+     *      .defaultParser()
+     *      .asyncRequestMaker(HttpClientConfig.builder().build())
+     *      .build();
+     * List<CompletableFuture<ItemPage<Person>>> pages = new ArrayList<>();
+     * for (int page = 0; page < pageCount; page++) {
+     *      pages.add(client.getPersonPageAsync(PageRequest.builder()
+     *              .page(page)
+     *              .pageSize(pageSize)
+     *              .build()));
+     * }
+     * CompletableFuture.allOf(pages.toArray(new CompletableFuture[0])).join();
+     * }</pre>
+     */
+    public CompletableFuture<ItemPage<Person>> getPersonPageAsync(
+            final PageRequest pageRequest) {
+
+        if (pageRequest == null) {
+            return failedFuture(new OutsetaInvalidArgumentException(
+                    "Page request cannot be null."));
+        }
+
+        String path;
+        try {
+            path = PEOPLE.expand();
+        } catch (OutsetaInvalidURLException e) {
+            return failedFuture(e);
+        }
+
+        return this.getPageAsync(path, pageRequest.buildParams(),
+                Person.class);
     }
 
     /**
@@ -196,8 +381,8 @@ public final class PeopleClient extends BaseClient {
                     "Person request cannot be null.");
         }
 
-        String result = this.post("/crm/people", new HashMap<>(),
-                this.getParserFacade().objectToJsonString(personRequest));
+        String result = this.postObject(PEOPLE.expand(), NO_PARAMETERS,
+                personRequest);
 
         return this.getParserFacade().jsonStringToObject(result, Person.class);
     }
@@ -250,11 +435,15 @@ public final class PeopleClient extends BaseClient {
                     "Person request cannot be null.");
         }
 
-        String result = this.put("/crm/people/" + personId,
-                new HashMap<>(),
-                this.getParserFacade().objectToJsonString(personRequest));
+        try {
+            String result = this.putObject(PERSON.expand(personId),
+                    NO_PARAMETERS, personRequest);
 
-        return this.getParserFacade().jsonStringToObject(result, Person.class);
+            return this.getParserFacade().jsonStringToObject(result,
+                    Person.class);
+        } finally {
+            this.invalidate(Person.class, personId);
+        }
     }
 
     /**
@@ -292,7 +481,11 @@ public final class PeopleClient extends BaseClient {
                     "Person id cannot be null or blank.");
         }
 
-        this.delete("/crm/people/" + personId, new HashMap<>());
+        try {
+            this.delete(PERSON.expand(personId), NO_PARAMETERS);
+        } finally {
+            this.invalidate(Person.class, personId);
+        }
     }
 
     /**
@@ -346,9 +539,8 @@ public final class PeopleClient extends BaseClient {
                     "Person id cannot be null or blank.");
         }
 
-        this.put("/crm/people/" + personId + "/setTemporaryPassword",
-                new HashMap<>(), this.getParserFacade()
-                        .objectToJsonString(temporaryPasswordRequest));
+        this.putObject(TEMPORARY_PASSWORD.expand(personId),
+                NO_PARAMETERS, temporaryPasswordRequest);
     }
 
 }
@@ -0,0 +1,589 @@
+package com.outseta.client_helper.caching;
+
+import com.outseta.exception.OutsetaClientBuildException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * This class keeps the entities most often read by id in memory, bounded
+ * by the estimated number of bytes they use.
+ * <p>
+ *     Every read is recorded in a frequency sketch, including the reads
+ *     that miss. While there is room, every entity is admitted. Once the
+ *     cache is full, a new entity is only admitted if it was read more
+ *     often than each of the least recently used entries it would evict,
+ *     so a burst of reads of entities that are never read again cannot
+ *     push out the ones that are read all the time. Entries expire a
+ *     fixed time after they were written.
+ * </p>
+ * <p>
+ *     The clients invalidate the entries their own calls change, for
+ *     example updating an account invalidates that account. Changes made
+ *     elsewhere, by the web application or by another process, are only
+ *     seen once the entry expires, so the time to live is the bound on
+ *     how stale a read can be. A read that was sent before its entity was
+ *     invalidated never writes its result into the cache, while reads of
+ *     other entities are not held back. The cached
+ *     entities are shared by all callers, so they must be treated as read
+ *     only.
+ * </p>
+ * <p>
+ *     A lookup that the api answered with not found can be recorded as a
+ *     negative entry, which expires after a shorter time to live. While it
+ *     is cached, {@link #isMissing(String)} tells the clients not to ask
+ *     the api again, so that a client checking for an entity that does not
+ *     exist yet does not send the same request over and over.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * EntityCache cache = EntityCache.builder()
+ *      .maximumBytes(64L * 1024 * 1024)
+ *      .ttl(TimeUnit.MINUTES.toMillis(5))
+ *      .negativeTtl(TimeUnit.SECONDS.toMillis(30))
+ *      .build();
+ * }</pre>
+ */
+public final class EntityCache {
+
+    /**
+     * The default bound of the estimated size of the entries, in bytes.
+     */
+    public static final long DEFAULT_MAXIMUM_BYTES = 32L * 1024 * 1024;
+
+    /**
+     * The default time to live of an entry, in milliseconds.
+     */
+    public static final long DEFAULT_TTL = 300_000L;
+
+    /**
+     * The default time to live of a negative entry, in milliseconds.
+     */
+    public static final long DEFAULT_NEGATIVE_TTL = 30_000L;
+
+    /**
+     * The value of the negative entries.
+     */
+    private static final Object MISSING = new Object();
+
+    /**
+     * The expected average size of an entry, used to size the frequency
+     * sketch.
+     */
+    private static final long AVERAGE_ENTRY_BYTES = 2048;
+
+    /**
+     * The estimated size of an entry of the cache without its key and its
+     * value.
+     */
+    static final long ENTRY_OVERHEAD = 64;
+
+    /**
+     * The initial capacity of the map of the entries.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The load factor of the map of the entries.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The number of invalidation counters the keys are spread over. It
+     * must be a power of two.
+     */
+    private static final int STRIPES = 64;
+
+    /**
+     * This class is used to build an EntityCache object.
+     */
+    public static final class Builder {
+
+        /**
+         * The bound of the estimated size of the entries, in bytes.
+         */
+        private long maximumBytes = DEFAULT_MAXIMUM_BYTES;
+
+        /**
+         * The time to live of an entry, in milliseconds.
+         */
+        private long ttl = DEFAULT_TTL;
+
+        /**
+         * The time to live of a negative entry, in milliseconds.
+         */
+        private long negativeTtl = DEFAULT_NEGATIVE_TTL;
+
+        /**
+         * The constructor for Builder.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the bound of the estimated size of the entries.
+         * @param pMaximumBytes The bound in bytes.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder maximumBytes(final long pMaximumBytes) {
+            this.maximumBytes = pMaximumBytes;
+            return this;
+        }
+
+        /**
+         * Sets the time after which an entry expires.
+         * @param pTtl The time to live in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder ttl(final long pTtl) {
+            this.ttl = pTtl;
+            return this;
+        }
+
+        /**
+         * Sets the time after which a negative entry, recorded for an
+         * entity the api did not find, expires. 0 disables the negative
+         * entries.
+         * @param pNegativeTtl The time to live in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder negativeTtl(final long pNegativeTtl) {
+            this.negativeTtl = pNegativeTtl;
+            return this;
+        }
+
+        /**
+         * This method is used to create a new EntityCache object.
+         * @return A new EntityCache object.
+         * @throws OutsetaClientBuildException If the bound or the time to
+         *      live is not greater than 0, or if the time to live of the
+         *      negative entries is negative.
+         */
+        public EntityCache build() throws OutsetaClientBuildException {
+            if (this.maximumBytes <= 0) {
+                throw new OutsetaClientBuildException(
+                        "The maximum bytes must be greater than 0.");
+            }
+            if (this.ttl <= 0) {
+                throw new OutsetaClientBuildException(
+                        "The time to live must be greater than 0.");
+            }
+            if (this.negativeTtl < 0) {
+                throw new OutsetaClientBuildException(
+                        "The negative time to live cannot be negative.");
+            }
+            return new EntityCache(this, System::nanoTime);
+        }
+    }
+
+    /**
+     * This class holds a cached entity.
+     */
+    private static final class Entry {
+
+        /**
+         * The entity.
+         */
+        private final Object value;
+
+        /**
+         * The estimated size of the entry in bytes.
+         */
+        private final long weight;
+
+        /**
+         * The time at which the entry expires, in nanoseconds.
+         */
+        private final long expiresAt;
+
+        /**
+         * The constructor for Entry.
+         * @param pValue The entity.
+         * @param pWeight The estimated size of the entry in bytes.
+         * @param pExpiresAt The time at which the entry expires.
+         */
+        private Entry(final Object pValue, final long pWeight,
+                      final long pExpiresAt) {
+            this.value = pValue;
+            this.weight = pWeight;
+            this.expiresAt = pExpiresAt;
+        }
+    }
+
+    /**
+     * The bound of the estimated size of the entries, in bytes.
+     */
+    private final long maximumBytes;
+
+    /**
+     * The time to live of an entry, in nanoseconds.
+     */
+    private final long ttlNanos;
+
+    /**
+     * The time to live of a negative entry, in nanoseconds.
+     */
+    private final long negativeTtlNanos;
+
+    /**
+     * The clock used for the expiry, in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The entries from the least to the most recently used. It is also
+     * the lock of the cache.
+     */
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * The frequency of the reads of each key.
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * The estimated size of the entries, in bytes.
+     */
+    private long bytes;
+
+    /**
+     * The number of invalidations so far of the keys of each stripe. An
+     * invalidation only holds back the reads of the keys of its stripe.
+     */
+    private final long[] generations = new long[STRIPES];
+
+    /**
+     * The number of reads answered from the cache.
+     */
+    private long hits;
+
+    /**
+     * The number of reads that missed.
+     */
+    private long misses;
+
+    /**
+     * The number of entries evicted to make room for others.
+     */
+    private long evictions;
+
+    /**
+     * The number of entities that were not admitted.
+     */
+    private long rejections;
+
+    /**
+     * The constructor for EntityCache.
+     * @param builder The builder with the settings of the cache.
+     * @param pClock The clock used for the expiry, in nanoseconds.
+     */
+    EntityCache(final Builder builder, final LongSupplier pClock) {
+        this.maximumBytes = builder.maximumBytes;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(builder.ttl);
+        this.negativeTtlNanos =
+                TimeUnit.MILLISECONDS.toNanos(builder.negativeTtl);
+        this.clock = pClock;
+        this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR,
+                true);
+        this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE,
+                builder.maximumBytes / AVERAGE_ENTRY_BYTES));
+    }
+
+    /**
+     * This method is used to create a new builder object.
+     * @return A new builder object.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * This method creates the key of an entity.
+     * @param baseUrl The base url of the client that reads it.
+     * @param type The type of the entity.
+     * @param id The id of the entity.
+     * @return The key.
+     */
+    public static String key(final String baseUrl, final Class<?> type,
+                             final String id) {
+        return type.getName() + ' ' + baseUrl + ' ' + id;
+    }
+
+    /**
+     * This method reads an entry and records the read, whether it hits or
+     * not. A negative entry is neither a hit nor a miss here, it is
+     * counted as a hit by {@link #isMissing(String)}.
+     * @param key The key of the entity.
+     * @param type The type of the entity.
+     * @param <T> The type of the entity.
+     * @return The entity, or null if it is not cached, has expired, has
+     *      another type or is known to be missing.
+     */
+    public <T> T get(final String key, final Class<T> type) {
+        synchronized (this.entries) {
+            this.sketch.increment(key);
+            Entry entry = current(key);
+            if (entry != null && entry.value == MISSING) {
+                return null;
+            }
+            if (entry == null || !type.isInstance(entry.value)) {
+                this.misses++;
+                return null;
+            }
+            this.hits++;
+            return type.cast(entry.value);
+        }
+    }
+
+    /**
+     * This method tells whether the api did not find an entity recently,
+     * in which case the read is counted as a hit. It is meant to be called
+     * after {@link #get(String, Class)} returned null.
+     * @param key The key of the entity.
+     * @return True if there is a negative entry for the entity.
+     */
+    public boolean isMissing(final String key) {
+        synchronized (this.entries) {
+            Entry entry = current(key);
+            if (entry == null || entry.value != MISSING) {
+                return false;
+            }
+            this.hits++;
+            return true;
+        }
+    }
+
+    /**
+     * This method returns the entry of a key while the lock is held,
+     * removing it if it has expired.
+     * @param key The key of the entity.
+     * @return The entry, or null.
+     */
+    private Entry current(final String key) {
+        Entry entry = this.entries.get(key);
+        if (entry != null && this.clock.getAsLong() - entry.expiresAt >= 0) {
+            remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * This method returns the stripe of the invalidation counters a key
+     * belongs to.
+     * @param key The key of the entity.
+     * @return The index of the stripe.
+     */
+    private static int stripe(final String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> (Integer.SIZE / 2))) & (STRIPES - 1);
+    }
+
+    /**
+     * Returns a stamp to pass to {@link #put(String, Object, long)} with
+     * the result of a read of the entity sent after this call.
+     * @param key The key of the entity.
+     * @return The stamp.
+     */
+    public long stamp(final String key) {
+        synchronized (this.entries) {
+            return this.generations[stripe(key)];
+        }
+    }
+
+    /**
+     * This method writes an entity into the cache, if it is admitted.
+     * @param key The key of the entity.
+     * @param value The entity.
+     * @return True if the entity was written.
+     */
+    public boolean put(final String key, final Object value) {
+        return put(key, value, stamp(key));
+    }
+
+    /**
+     * This method writes the result of a read into the cache, unless the
+     * entity was invalidated since the stamp was taken or it is not
+     * admitted.
+     * @param key The key of the entity.
+     * @param value The entity.
+     * @param stamp The stamp taken with {@link #stamp(String)} before the
+     *              read was sent.
+     * @return True if the entity was written.
+     */
+    public boolean put(final String key, final Object value,
+                       final long stamp) {
+
+        // The size is estimated outside of the lock
+        return write(key, value, ENTRY_OVERHEAD + SizeEstimator.estimate(key)
+                + SizeEstimator.estimate(value), this.ttlNanos, stamp);
+    }
+
+    /**
+     * This method records that the api did not find an entity, unless the
+     * entity was invalidated since the stamp was taken, the negative
+     * entries are disabled or the entry is not admitted.
+     * @param key The key of the entity.
+     * @param stamp The stamp taken with {@link #stamp(String)} before the
+     *              read was sent.
+     * @return True if the negative entry was written.
+     */
+    public boolean putMissing(final String key, final long stamp) {
+        if (this.negativeTtlNanos == 0) {
+            return false;
+        }
+        return write(key, MISSING, ENTRY_OVERHEAD
+                + SizeEstimator.estimate(key), this.negativeTtlNanos, stamp);
+    }
+
+    /**
+     * This method writes an entry, if it is admitted.
+     * @param key The key of the entity.
+     * @param value The entity, or the value of the negative entries.
+     * @param weight The estimated size of the entry.
+     * @param ttl The time to live of the entry, in nanoseconds.
+     * @param stamp The stamp taken before the read was sent.
+     * @return True if the entry was written.
+     */
+    private boolean write(final String key, final Object value,
+                          final long weight, final long ttl,
+                          final long stamp) {
+        synchronized (this.entries) {
+            if (stamp != this.generations[stripe(key)]) {
+                return false;
+            }
+            if (weight > this.maximumBytes || !admit(key, weight)) {
+                this.rejections++;
+                return false;
+            }
+            Entry previous = this.entries.put(key, new Entry(value, weight,
+                    this.clock.getAsLong() + ttl));
+            if (previous != null) {
+                this.bytes -= previous.weight;
+            }
+            this.bytes += weight;
+            return true;
+        }
+    }
+
+    /**
+     * This method makes room for an entity by evicting the least recently
+     * used entries, if the entity was read more often than each of them.
+     * Expired entries are always evicted. Nothing is evicted if the entity
+     * is not admitted.
+     * @param key The key of the entity.
+     * @param weight The estimated size of the entry.
+     * @return True if the entity is admitted.
+     */
+    private boolean admit(final String key, final long weight) {
+        Entry current = this.entries.get(key);
+        long needed = this.bytes + weight - this.maximumBytes
+                - (current == null ? 0 : current.weight);
+        if (needed <= 0) {
+            return true;
+        }
+
+        int frequency = this.sketch.frequency(key);
+        long now = this.clock.getAsLong();
+        List<String> victims = new ArrayList<>();
+        Iterator<Map.Entry<String, Entry>> iterator =
+                this.entries.entrySet().iterator();
+        while (needed > 0) {
+            Map.Entry<String, Entry> victim = iterator.next();
+            if (victim.getKey().equals(key)) {
+                continue;
+            }
+            if (now - victim.getValue().expiresAt < 0
+                    && this.sketch.frequency(victim.getKey()) >= frequency) {
+                return false;
+            }
+            victims.add(victim.getKey());
+            needed -= victim.getValue().weight;
+        }
+
+        for (String victim : victims) {
+            remove(victim);
+            this.evictions++;
+        }
+        return true;
+    }
+
+    /**
+     * This method removes the entry of an entity, so that the next read
+     * goes to the api.
+     * @param key The key of the entity.
+     */
+    public void invalidate(final String key) {
+        synchronized (this.entries) {
+            this.generations[stripe(key)]++;
+            remove(key);
+        }
+    }
+
+    /**
+     * This method removes every entry.
+     */
+    public void invalidateAll() {
+        synchronized (this.entries) {
+            for (int i = 0; i < STRIPES; i++) {
+                this.generations[i]++;
+            }
+            this.entries.clear();
+            this.bytes = 0;
+        }
+    }
+
+    /**
+     * This method removes an entry while the lock is held.
+     * @param key The key of the entry.
+     */
+    private void remove(final String key) {
+        Entry removed = this.entries.remove(key);
+        if (removed != null) {
+            this.bytes -= removed.weight;
+        }
+    }
+
+    /**
+     * Returns the bound of the estimated size of the entries.
+     * @return The bound in bytes.
+     */
+    public long getMaximumBytes() {
+        return maximumBytes;
+    }
+
+    /**
+     * Returns the time after which an entry expires.
+     * @return The time to live in milliseconds.
+     */
+    public long getTtl() {
+        return TimeUnit.NANOSECONDS.toMillis(ttlNanos);
+    }
+
+    /**
+     * Returns the time after which a negative entry expires.
+     * @return The time to live in milliseconds, or 0 if the negative
+     *      entries are disabled.
+     */
+    public long getNegativeTtl() {
+        return TimeUnit.NANOSECONDS.toMillis(negativeTtlNanos);
+    }
+
+    /**
+     * Returns a snapshot of the counters of the cache.
+     * @return The counters.
+     */
+    public EntityCacheStats getStats() {
+        synchronized (this.entries) {
+            return new EntityCacheStats(this.hits, this.misses,
+                    this.evictions, this.rejections, this.entries.size(),
+                    this.bytes);
+        }
+    }
+}
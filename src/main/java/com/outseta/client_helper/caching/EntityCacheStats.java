@@ -0,0 +1,165 @@
+package com.outseta.client_helper.caching;
+
+import java.util.Objects;
+
+/**
+ * This class is a snapshot of the counters of an entity cache.
+ * <p>
+ *     A rejection is an entity that was not admitted because it was
+ *     requested less often than the entries it would have evicted. The
+ *     values are read at the moment the snapshot is taken and are not
+ *     updated afterwards.
+ * </p>
+ */
+public final class EntityCacheStats {
+
+    /**
+     * The number of reads answered from the cache.
+     */
+    private final long hits;
+
+    /**
+     * The number of reads that went to the api.
+     */
+    private final long misses;
+
+    /**
+     * The number of entries evicted to make room for others.
+     */
+    private final long evictions;
+
+    /**
+     * The number of entities that were not admitted.
+     */
+    private final long rejections;
+
+    /**
+     * The number of entries in the cache.
+     */
+    private final long entries;
+
+    /**
+     * The estimated number of bytes used by the entries.
+     */
+    private final long bytes;
+
+    /**
+     * Constructor for the creation of an EntityCacheStats object.
+     * @param pHits The number of reads answered from the cache.
+     * @param pMisses The number of reads that went to the api.
+     * @param pEvictions The number of entries evicted to make room for
+     *                   others.
+     * @param pRejections The number of entities that were not admitted.
+     * @param pEntries The number of entries in the cache.
+     * @param pBytes The estimated number of bytes used by the entries.
+     */
+    public EntityCacheStats(final long pHits, final long pMisses,
+                            final long pEvictions, final long pRejections,
+                            final long pEntries, final long pBytes) {
+        this.hits = pHits;
+        this.misses = pMisses;
+        this.evictions = pEvictions;
+        this.rejections = pRejections;
+        this.entries = pEntries;
+        this.bytes = pBytes;
+    }
+
+    /**
+     * Returns the number of reads answered from the cache.
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of reads that went to the api.
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries evicted to make room for others.
+     * @return The number of evictions.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of entities that were not admitted.
+     * @return The number of rejections.
+     */
+    public long getRejections() {
+        return rejections;
+    }
+
+    /**
+     * Returns the number of entries in the cache.
+     * @return The number of entries.
+     */
+    public long getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the estimated number of bytes used by the entries.
+     * @return The number of bytes.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the share of the reads answered from the cache.
+     * @return The hit rate between 0 and 1, or 0 if nothing was read.
+     */
+    public double getHitRate() {
+        long reads = hits + misses;
+        return reads == 0 ? 0 : (double) hits / reads;
+    }
+
+    /**
+     * This method overrides the equals method.
+     */
+    @Override
+    public boolean equals(final Object other) {
+
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof EntityCacheStats)) {
+            return false;
+        }
+
+        EntityCacheStats otherStats = (EntityCacheStats) other;
+
+        return this.hits == otherStats.hits
+                && this.misses == otherStats.misses
+                && this.evictions == otherStats.evictions
+                && this.rejections == otherStats.rejections
+                && this.entries == otherStats.entries
+                && this.bytes == otherStats.bytes;
+    }
+
+    /**
+     * This method overrides the hashCode method.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(hits, misses, evictions, rejections, entries,
+                bytes);
+    }
+
+    /**
+     * This method overrides the toString method.
+     */
+    @Override
+    public String toString() {
+        return "[hits: " + hits + "; misses: " + misses + "; evictions: "
+                + evictions + "; rejections: " + rejections + "; entries: "
+                + entries + "; bytes: " + bytes + "]";
+    }
+}
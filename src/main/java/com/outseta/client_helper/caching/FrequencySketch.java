@@ -0,0 +1,155 @@
+package com.outseta.client_helper.caching;
+
+/**
+ * This class estimates how often a key was accessed recently.
+ * <p>
+ *     It is a count-min sketch with four rows of counters that stop at
+ *     fifteen: a key increments one counter in each row and its frequency
+ *     is the smallest of them, so collisions can only overestimate it.
+ *     Once the number of increments reaches ten times the width of the
+ *     sketch every counter is halved, so that keys that were popular a
+ *     long time ago lose their weight. The class is not thread safe.
+ * </p>
+ */
+final class FrequencySketch {
+
+    /**
+     * The number of rows of the sketch.
+     */
+    private static final int DEPTH = 4;
+
+    /**
+     * The largest value of a counter.
+     */
+    static final int MAX_FREQUENCY = 15;
+
+    /**
+     * The smallest width of the sketch.
+     */
+    private static final int MIN_WIDTH = 64;
+
+    /**
+     * The largest width of the sketch.
+     */
+    private static final int MAX_WIDTH = 16_777_216;
+
+    /**
+     * The number of increments per counter of a row before the counters
+     * are halved.
+     */
+    private static final int SAMPLE_FACTOR = 10;
+
+    /**
+     * The seeds of the hash of each row.
+     */
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+        0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    /**
+     * The multiplier that spreads the bits of a hash code.
+     */
+    private static final int GOLDEN_RATIO = 0x9e3779b9;
+
+    /**
+     * The counters of each row.
+     */
+    private final byte[][] table;
+
+    /**
+     * The mask applied to a hash to get the index of a counter.
+     */
+    private final int mask;
+
+    /**
+     * The number of increments after which the counters are halved.
+     */
+    private final int sampleSize;
+
+    /**
+     * The number of increments since the counters were last halved.
+     */
+    private int additions;
+
+    /**
+     * The constructor for FrequencySketch.
+     * @param expectedEntries The number of entries the cache is expected
+     *                        to hold.
+     */
+    FrequencySketch(final int expectedEntries) {
+        int width = Integer.highestOneBit(Math.max(MIN_WIDTH,
+                Math.min(MAX_WIDTH, expectedEntries)) * 2 - 1);
+        this.table = new byte[DEPTH][width];
+        this.mask = width - 1;
+        this.sampleSize = SAMPLE_FACTOR * width;
+    }
+
+    /**
+     * This method returns the estimated frequency of a key.
+     * @param key The key.
+     * @return The frequency, between 0 and {@link #MAX_FREQUENCY}.
+     */
+    int frequency(final Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, this.table[i][index(hash, i)]);
+        }
+        return frequency;
+    }
+
+    /**
+     * This method records an access to a key.
+     * @param key The key.
+     */
+    void increment(final Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = index(hash, i);
+            if (this.table[i][index] < MAX_FREQUENCY) {
+                this.table[i][index]++;
+                added = true;
+            }
+        }
+        if (added && ++this.additions >= this.sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * This method halves every counter.
+     */
+    private void reset() {
+        for (byte[] row : this.table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = (byte) (row[i] >>> 1);
+            }
+        }
+        this.additions /= 2;
+    }
+
+    /**
+     * This method returns the index of the counter of a hash in a row.
+     * @param hash The spread hash of the key.
+     * @param row The row.
+     * @return The index.
+     */
+    private int index(final int hash, final int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> Integer.SIZE;
+        return (int) h & this.mask;
+    }
+
+    /**
+     * This method spreads the bits of a hash code so that keys with
+     * similar hash codes use different counters.
+     * @param hashCode The hash code.
+     * @return The spread hash.
+     */
+    private static int spread(final int hashCode) {
+        int h = hashCode * GOLDEN_RATIO;
+        return h ^ (h >>> (Integer.SIZE / 2));
+    }
+}
@@ -0,0 +1,303 @@
+package com.outseta.client_helper.caching;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class estimates the number of bytes of heap an object graph uses.
+ * <p>
+ *     The estimate assumes a 64 bit virtual machine with compressed
+ *     references. The fields of the classes of the client are walked by
+ *     reflection, strings, boxed values, dates, collections and maps are
+ *     sized from their contents and enums are free because they are
+ *     shared. Other objects are counted by their own fields only. Every
+ *     object is counted once, so the references between the models, for
+ *     example from a plan to its family and back, do not loop. The figure
+ *     is meant for bounding a cache, not for exact accounting.
+ * </p>
+ */
+final class SizeEstimator {
+
+    /**
+     * The size of the header of an object.
+     */
+    private static final int OBJECT_HEADER = 12;
+
+    /**
+     * The size of the header of an array.
+     */
+    private static final int ARRAY_HEADER = 16;
+
+    /**
+     * The size of a reference.
+     */
+    private static final int REFERENCE = 4;
+
+    /**
+     * The alignment of the objects on the heap.
+     */
+    private static final int ALIGNMENT = 8;
+
+    /**
+     * The size of a String object without its characters.
+     */
+    private static final int STRING = 24;
+
+    /**
+     * The size of a boxed value of at most four bytes.
+     */
+    private static final int SMALL_BOX = 16;
+
+    /**
+     * The size of a boxed value of eight bytes, or of a Date.
+     */
+    private static final int LARGE_BOX = 24;
+
+    /**
+     * The size of a collection object without its elements.
+     */
+    private static final int COLLECTION = 24;
+
+    /**
+     * The size of a map object without its entries.
+     */
+    private static final int MAP = 56;
+
+    /**
+     * The size of an entry of a map.
+     */
+    private static final int MAP_ENTRY = 40;
+
+    /**
+     * The prefix of the packages whose classes are walked.
+     */
+    private static final String WALKED_PACKAGE = "com.outseta.";
+
+    /**
+     * The layouts of the classes seen so far.
+     */
+    private static final ConcurrentMap<Class<?>, Layout> LAYOUTS =
+            new ConcurrentHashMap<>();
+
+    /**
+     * This class holds the shallow size of a class and the fields that
+     * refer to other objects.
+     */
+    private static final class Layout {
+
+        /**
+         * The size of an object of the class without the objects it
+         * refers to.
+         */
+        private final long shallowSize;
+
+        /**
+         * The fields that are walked, or an empty array.
+         */
+        private final Field[] references;
+
+        /**
+         * The constructor for Layout.
+         * @param pShallowSize The size of an object without the objects it
+         *                     refers to.
+         * @param pReferences The fields that are walked.
+         */
+        private Layout(final long pShallowSize, final Field[] pReferences) {
+            this.shallowSize = pShallowSize;
+            this.references = pReferences;
+        }
+    }
+
+    /**
+     * The constructor is private because the class only has static
+     * methods.
+     */
+    private SizeEstimator() {
+    }
+
+    /**
+     * This method estimates the size of an object and of the objects it
+     * refers to.
+     * @param root The object, or null.
+     * @return The estimated size in bytes.
+     */
+    static long estimate(final Object root) {
+        if (root == null) {
+            return 0;
+        }
+
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        long size = 0;
+        while (!pending.isEmpty()) {
+            Object current = pending.pop();
+            if (seen.add(current)) {
+                size += visit(current, pending);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * This method returns the size of an object without the objects it
+     * refers to, and adds the objects it refers to to the pending ones.
+     * @param object The object.
+     * @param pending The objects that are still to be sized.
+     * @return The size in bytes.
+     */
+    private static long visit(final Object object,
+                              final Deque<Object> pending) {
+
+        if (object instanceof String) {
+            return STRING + array(((String) object).length(), Character.BYTES);
+        }
+        if (object instanceof Long || object instanceof Double
+                || object instanceof Date) {
+            return LARGE_BOX;
+        }
+        if (object instanceof Number || object instanceof Boolean
+                || object instanceof Character) {
+            return SMALL_BOX;
+        }
+        if (object instanceof Enum) {
+            return 0;
+        }
+        if (object instanceof Collection) {
+            Collection<?> collection = (Collection<?>) object;
+            push(pending, collection);
+            return COLLECTION + array(collection.size(), REFERENCE);
+        }
+        if (object instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) object;
+            push(pending, map.keySet());
+            push(pending, map.values());
+            return MAP + array(map.size(), REFERENCE)
+                    + (long) map.size() * MAP_ENTRY;
+        }
+        if (object.getClass().isArray()) {
+            return array(Array.getLength(object), REFERENCE);
+        }
+
+        Layout layout = LAYOUTS.computeIfAbsent(object.getClass(),
+                SizeEstimator::layout);
+        for (Field field : layout.references) {
+            try {
+                Object value = field.get(object);
+                if (value != null) {
+                    pending.push(value);
+                }
+            } catch (IllegalAccessException e) {
+                // The field is skipped, which only lowers the estimate
+            }
+        }
+        return layout.shallowSize;
+    }
+
+    /**
+     * This method adds the elements of a collection to the pending
+     * objects.
+     * @param pending The objects that are still to be sized.
+     * @param elements The elements.
+     */
+    private static void push(final Deque<Object> pending,
+                             final Collection<?> elements) {
+        for (Object element : elements) {
+            if (element != null) {
+                pending.push(element);
+            }
+        }
+    }
+
+    /**
+     * This method computes the layout of a class. Only the classes of the
+     * client have their reference fields walked.
+     * @param type The class.
+     * @return The layout.
+     */
+    private static Layout layout(final Class<?> type) {
+        boolean walked = type.getName().startsWith(WALKED_PACKAGE);
+        long size = OBJECT_HEADER;
+        List<Field> references = new ArrayList<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                size += fieldSize(field.getType());
+                if (walked && !field.getType().isPrimitive()
+                        && trySetAccessible(field)) {
+                    references.add(field);
+                }
+            }
+        }
+        return new Layout(align(size), references.toArray(new Field[0]));
+    }
+
+    /**
+     * This method makes a field readable.
+     * @param field The field.
+     * @return True if the field can be read.
+     */
+    private static boolean trySetAccessible(final Field field) {
+        try {
+            field.setAccessible(true);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * This method returns the size of a field of the given type.
+     * @param type The type of the field.
+     * @return The size in bytes.
+     */
+    private static int fieldSize(final Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return Long.BYTES;
+        }
+        if (type == int.class || type == float.class) {
+            return Integer.BYTES;
+        }
+        if (type == short.class || type == char.class) {
+            return Short.BYTES;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return Byte.BYTES;
+        }
+        return REFERENCE;
+    }
+
+    /**
+     * This method returns the size of an array.
+     * @param length The length of the array.
+     * @param elementSize The size of an element.
+     * @return The size in bytes.
+     */
+    private static long array(final int length, final int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+
+    /**
+     * This method rounds a size up to the alignment of the heap.
+     * @param size The size.
+     * @return The aligned size.
+     */
+    private static long align(final long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
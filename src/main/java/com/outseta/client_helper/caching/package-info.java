@@ -0,0 +1,7 @@
+/**
+ * This package contains the caching of entities read by id. The
+ * EntityCache class keeps the entities that are read most often in
+ * memory, bounded by their estimated size, and is invalidated by the
+ * clients when their own calls change an entity.
+ */
+package com.outseta.client_helper.caching;
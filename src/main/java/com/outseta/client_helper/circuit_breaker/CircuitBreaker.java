@@ -0,0 +1,447 @@
+package com.outseta.client_helper.circuit_breaker;
+
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * This class stops calls to an endpoint family that keeps failing or
+ * answering slowly, so that callers fail fast instead of piling up behind
+ * an unhealthy service.
+ * <p>
+ *     While the circuit is {@link State#CLOSED CLOSED}, the outcome of the
+ *     last calls is kept in a window of fixed size. Once the window holds
+ *     enough calls and the share of failed or slow calls reaches its
+ *     threshold, the circuit turns {@link State#OPEN OPEN} and rejects
+ *     every call. After the open duration it turns
+ *     {@link State#HALF_OPEN HALF_OPEN} and lets a few probe calls
+ *     through. It closes once they all succeed in time, and opens again as
+ *     soon as one of them fails or is slow.
+ * </p>
+ * <p>
+ *     Every call that is let through gets a {@link Permit} that reports its
+ *     outcome. Only the outcomes of calls let through in the current state
+ *     are counted, so a call that started while the circuit was closed
+ *     neither counts as a probe nor closes a half open circuit.
+ * </p>
+ * <p>
+ *     A call counts as failed if the request could not be sent or read,
+ *     or Outseta answered with a 5xx code. Other answers, such as a 404,
+ *     show that the service is up and count as successful.
+ * </p>
+ */
+public final class CircuitBreaker {
+
+    /**
+     * The states of a circuit.
+     */
+    public enum State {
+
+        /**
+         * Calls are let through and their outcome is recorded.
+         */
+        CLOSED,
+
+        /**
+         * Calls are rejected without being sent.
+         */
+        OPEN,
+
+        /**
+         * A few probe calls are let through to test the service.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * The flag of a failed call in the window.
+     */
+    private static final byte FAILED = 1;
+
+    /**
+     * The flag of a slow call in the window.
+     */
+    private static final byte SLOW = 2;
+
+    /**
+     * The first response code of a server error.
+     */
+    private static final int SERVER_ERROR = 500;
+
+    /**
+     * The number of percent in a whole.
+     */
+    private static final float PERCENT = 100f;
+
+    /**
+     * The name of the circuit, usually the endpoint family.
+     */
+    private final String name;
+
+    /**
+     * The settings of the circuit.
+     */
+    private final CircuitBreakerConfig config;
+
+    /**
+     * The clock used to time the open state, in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The time in nanoseconds after which a call counts as slow.
+     */
+    private final long slowCallNanos;
+
+    /**
+     * The time in nanoseconds an open circuit rejects calls.
+     */
+    private final long openNanos;
+
+    /**
+     * The outcomes of the last calls, as FAILED and SLOW flags.
+     */
+    private final byte[] window;
+
+    /**
+     * The position in the window the next outcome is written to.
+     */
+    private int next;
+
+    /**
+     * The number of outcomes in the window.
+     */
+    private int calls;
+
+    /**
+     * The number of failed calls in the window.
+     */
+    private int failures;
+
+    /**
+     * The number of slow calls in the window.
+     */
+    private int slowCalls;
+
+    /**
+     * The current state of the circuit.
+     */
+    private State state;
+
+    /**
+     * The number of times the circuit changed its state. A permit only
+     * counts while the circuit is still in the state it was given in.
+     */
+    private long generation;
+
+    /**
+     * The time the circuit last opened, in nanoseconds.
+     */
+    private long openedAt;
+
+    /**
+     * The number of probe calls let through since the circuit half opened.
+     */
+    private int probes;
+
+    /**
+     * The number of probe calls that succeeded since the circuit half
+     * opened.
+     */
+    private int probeSuccesses;
+
+    /**
+     * The number of calls rejected by the circuit.
+     */
+    private long rejected;
+
+    /**
+     * The number of times the circuit opened.
+     */
+    private long opened;
+
+    /**
+     * This constructor is used to create a closed circuit.
+     * @param pName The name of the circuit, usually the endpoint family.
+     * @param pConfig The settings of the circuit.
+     */
+    public CircuitBreaker(final String pName,
+                          final CircuitBreakerConfig pConfig) {
+        this(pName, pConfig, System::nanoTime);
+    }
+
+    /**
+     * This constructor is used to create a closed circuit with a custom
+     * clock.
+     * @param pName The name of the circuit, usually the endpoint family.
+     * @param pConfig The settings of the circuit.
+     * @param pClock The clock used to time the open state, in nanoseconds.
+     */
+    CircuitBreaker(final String pName, final CircuitBreakerConfig pConfig,
+                   final LongSupplier pClock) {
+        this.name = pName;
+        this.config = pConfig;
+        this.clock = pClock;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(
+                pConfig.getSlowCallDuration());
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(
+                pConfig.getOpenDuration());
+        this.window = new byte[pConfig.getWindowSize()];
+        this.state = State.CLOSED;
+    }
+
+    /**
+     * This method checks whether an exception shows that the service is
+     * unhealthy.
+     * @param error The exception thrown by the call, or null if it
+     *              succeeded.
+     * @return True if the request could not be sent or read, or the
+     *      response code is a server error.
+     */
+    public static boolean isFailure(final Exception error) {
+        if (error instanceof OutsetaAPIBadRequestException) {
+            return true;
+        }
+        if (error instanceof OutsetaInvalidResponseCodeException) {
+            Integer code = ((OutsetaInvalidResponseCodeException) error)
+                    .getResponseCode();
+            return code != null && code >= SERVER_ERROR;
+        }
+        return false;
+    }
+
+    /**
+     * This method asks the circuit to let a call through. A call that is
+     * let through must report its outcome with
+     * {@link Permit#onResult(long, Exception)}.
+     * @return The permit of the call, or null if it must be rejected.
+     */
+    public synchronized Permit tryAcquire() {
+        if (this.state == State.OPEN) {
+            if (this.clock.getAsLong() - this.openedAt < this.openNanos) {
+                this.rejected++;
+                return null;
+            }
+            this.state = State.HALF_OPEN;
+            this.generation++;
+            this.probes = 0;
+            this.probeSuccesses = 0;
+        }
+        if (this.state == State.HALF_OPEN) {
+            if (this.probes >= this.config.getHalfOpenCalls()) {
+                this.rejected++;
+                return null;
+            }
+            this.probes++;
+        }
+        return new Permit(this, this.generation);
+    }
+
+    /**
+     * This method records the outcome of a call and moves the circuit to
+     * its next state.
+     * @param outcome The FAILED and SLOW flags of the call.
+     * @param permitGeneration The generation the permit of the call was
+     *                         given in.
+     */
+    private synchronized void record(final byte outcome,
+                                     final long permitGeneration) {
+        if (permitGeneration != this.generation) {
+            // A call that started in an earlier state says nothing about
+            // the probes, nor anything new about the service
+            return;
+        }
+        if (this.state == State.HALF_OPEN) {
+            if (outcome != 0) {
+                this.open();
+            } else if (++this.probeSuccesses
+                    >= this.config.getHalfOpenCalls()) {
+                this.close();
+            }
+            return;
+        }
+
+        if (this.calls == this.window.length) {
+            this.count(this.window[this.next], -1);
+        } else {
+            this.calls++;
+        }
+        this.window[this.next] = outcome;
+        this.count(outcome, 1);
+        this.next = (this.next + 1) % this.window.length;
+
+        if (this.calls >= this.config.getMinimumCalls()
+                && (this.rate(this.failures)
+                        >= this.config.getFailureRateThreshold()
+                || this.rate(this.slowCalls)
+                        >= this.config.getSlowCallRateThreshold())) {
+            this.open();
+        }
+    }
+
+    /**
+     * This method adds an outcome to the counts of the window, or removes
+     * it.
+     * @param outcome The FAILED and SLOW flags of the call.
+     * @param delta 1 to add the outcome, -1 to remove it.
+     */
+    private void count(final byte outcome, final int delta) {
+        if ((outcome & FAILED) != 0) {
+            this.failures += delta;
+        }
+        if ((outcome & SLOW) != 0) {
+            this.slowCalls += delta;
+        }
+    }
+
+    /**
+     * This method turns a count of the window into a share of its calls.
+     * @param count The number of calls.
+     * @return The share in percent, or 0 if the window is empty.
+     */
+    private float rate(final int count) {
+        return this.calls == 0 ? 0f : count * PERCENT / this.calls;
+    }
+
+    /**
+     * This method opens the circuit.
+     */
+    private void open() {
+        this.state = State.OPEN;
+        this.generation++;
+        this.openedAt = this.clock.getAsLong();
+        this.opened++;
+    }
+
+    /**
+     * This method closes the circuit with an empty window.
+     */
+    private void close() {
+        this.state = State.CLOSED;
+        this.generation++;
+        this.next = 0;
+        this.calls = 0;
+        this.failures = 0;
+        this.slowCalls = 0;
+    }
+
+    /**
+     * Returns the name of the circuit.
+     * @return The name, usually the endpoint family.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the settings of the circuit.
+     * @return The settings.
+     */
+    public CircuitBreakerConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the current state of the circuit. An open circuit whose open
+     * duration has passed turns half open on the next call.
+     * @return The state.
+     */
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    /**
+     * Returns the time until an open circuit lets a probe call through.
+     * @return The time in milliseconds, or 0 if the circuit is not open.
+     */
+    public synchronized long getRemainingOpenTime() {
+        if (this.state != State.OPEN) {
+            return 0L;
+        }
+        long remaining = this.openNanos
+                - (this.clock.getAsLong() - this.openedAt);
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(remaining));
+    }
+
+    /**
+     * Returns the share of failed calls in the window.
+     * @return The share in percent.
+     */
+    public synchronized float getFailureRate() {
+        return this.rate(this.failures);
+    }
+
+    /**
+     * Returns the share of slow calls in the window.
+     * @return The share in percent.
+     */
+    public synchronized float getSlowCallRate() {
+        return this.rate(this.slowCalls);
+    }
+
+    /**
+     * Returns the number of calls rejected by the circuit.
+     * @return The number of calls.
+     */
+    public synchronized long getRejected() {
+        return this.rejected;
+    }
+
+    /**
+     * Returns the number of times the circuit opened.
+     * @return The number of times.
+     */
+    public synchronized long getOpened() {
+        return this.opened;
+    }
+
+    /**
+     * This class is handed to a call that was let through, and reports how
+     * the call went.
+     */
+    public static final class Permit {
+
+        /**
+         * The circuit that let the call through.
+         */
+        private final CircuitBreaker breaker;
+
+        /**
+         * The generation of the circuit the call was let through in.
+         */
+        private final long generation;
+
+        /**
+         * The constructor is private so that only the circuit creates
+         * permits.
+         * @param pBreaker The circuit that let the call through.
+         * @param pGeneration The generation of the circuit.
+         */
+        private Permit(final CircuitBreaker pBreaker,
+                       final long pGeneration) {
+            this.breaker = pBreaker;
+            this.generation = pGeneration;
+        }
+
+        /**
+         * This method records the outcome of the call. It is ignored if
+         * the circuit changed its state since the call was let through.
+         * @param durationNanos The time the call took in nanoseconds.
+         * @param error The exception thrown by the call, or null if it
+         *              succeeded.
+         */
+        public void onResult(final long durationNanos,
+                             final Exception error) {
+            byte outcome = 0;
+            if (isFailure(error)) {
+                outcome |= FAILED;
+            }
+            if (durationNanos >= this.breaker.slowCallNanos) {
+                outcome |= SLOW;
+            }
+            this.breaker.record(outcome, this.generation);
+        }
+    }
+}
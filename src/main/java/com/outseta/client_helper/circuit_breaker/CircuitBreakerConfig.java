@@ -0,0 +1,348 @@
+package com.outseta.client_helper.circuit_breaker;
+
+import com.outseta.exception.OutsetaClientBuildException;
+
+/**
+ * This class holds the settings of a {@link CircuitBreaker}.
+ * <p>
+ *     A circuit opens when, among the last {@link #getWindowSize()} calls,
+ *     the share of failed calls or the share of slow calls reaches its
+ *     threshold. It stays open for {@link #getOpenDuration()} and then lets
+ *     {@link #getHalfOpenCalls()} probe calls through to decide whether it
+ *     closes again.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * CircuitBreakerConfig config = CircuitBreakerConfig.builder()
+ *      .failureRateThreshold(50)
+ *      .slowCallDuration(2_000)
+ *      .openDuration(15_000)
+ *      .build();
+ * }</pre>
+ */
+public final class CircuitBreakerConfig {
+
+    /**
+     * The default share of failed calls, in percent, that opens the
+     * circuit.
+     */
+    public static final float DEFAULT_FAILURE_RATE_THRESHOLD = 50f;
+
+    /**
+     * The default share of slow calls, in percent, that opens the circuit.
+     */
+    public static final float DEFAULT_SLOW_CALL_RATE_THRESHOLD = 100f;
+
+    /**
+     * The default time in milliseconds after which a call counts as slow.
+     */
+    public static final long DEFAULT_SLOW_CALL_DURATION = 10_000L;
+
+    /**
+     * The default number of recent calls the rates are measured over.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+
+    /**
+     * The default number of calls needed before the rates are checked.
+     */
+    public static final int DEFAULT_MINIMUM_CALLS = 10;
+
+    /**
+     * The default time in milliseconds an open circuit rejects calls.
+     */
+    public static final long DEFAULT_OPEN_DURATION = 30_000L;
+
+    /**
+     * The default number of probe calls let through by a half open circuit.
+     */
+    public static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+    /**
+     * The largest rate threshold, in percent.
+     */
+    private static final float MAX_RATE = 100f;
+
+    /**
+     * This class is used to build a CircuitBreakerConfig object.
+     */
+    public static final class Builder {
+
+        /**
+         * The share of failed calls, in percent, that opens the circuit.
+         */
+        private float failureRateThreshold;
+
+        /**
+         * The share of slow calls, in percent, that opens the circuit.
+         */
+        private float slowCallRateThreshold;
+
+        /**
+         * The time in milliseconds after which a call counts as slow.
+         */
+        private long slowCallDuration;
+
+        /**
+         * The number of recent calls the rates are measured over.
+         */
+        private int windowSize;
+
+        /**
+         * The number of calls needed before the rates are checked.
+         */
+        private int minimumCalls;
+
+        /**
+         * The time in milliseconds an open circuit rejects calls.
+         */
+        private long openDuration;
+
+        /**
+         * The number of probe calls let through by a half open circuit.
+         */
+        private int halfOpenCalls;
+
+        /**
+         * The constructor for Builder.
+         */
+        private Builder() {
+            this.failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+            this.slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+            this.slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+            this.windowSize = DEFAULT_WINDOW_SIZE;
+            this.minimumCalls = DEFAULT_MINIMUM_CALLS;
+            this.openDuration = DEFAULT_OPEN_DURATION;
+            this.halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+        }
+
+        /**
+         * Sets the share of failed calls that opens the circuit.
+         * @param pFailureRateThreshold The share in percent.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder failureRateThreshold(
+                final float pFailureRateThreshold) {
+            this.failureRateThreshold = pFailureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the share of slow calls that opens the circuit.
+         * @param pSlowCallRateThreshold The share in percent.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder slowCallRateThreshold(
+                final float pSlowCallRateThreshold) {
+            this.slowCallRateThreshold = pSlowCallRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the time after which a call counts as slow.
+         * @param pSlowCallDuration The time in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder slowCallDuration(final long pSlowCallDuration) {
+            this.slowCallDuration = pSlowCallDuration;
+            return this;
+        }
+
+        /**
+         * Sets the number of recent calls the rates are measured over.
+         * @param pWindowSize The number of calls.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder windowSize(final int pWindowSize) {
+            this.windowSize = pWindowSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of calls needed before the rates are checked, so
+         * that a few early failures do not open the circuit.
+         * @param pMinimumCalls The number of calls.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder minimumCalls(final int pMinimumCalls) {
+            this.minimumCalls = pMinimumCalls;
+            return this;
+        }
+
+        /**
+         * Sets the time an open circuit rejects calls before it lets probe
+         * calls through.
+         * @param pOpenDuration The time in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder openDuration(final long pOpenDuration) {
+            this.openDuration = pOpenDuration;
+            return this;
+        }
+
+        /**
+         * Sets the number of probe calls a half open circuit lets through.
+         * The circuit closes once all of them succeed in time.
+         * @param pHalfOpenCalls The number of calls.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder halfOpenCalls(final int pHalfOpenCalls) {
+            this.halfOpenCalls = pHalfOpenCalls;
+            return this;
+        }
+
+        /**
+         * This method is used to create a new CircuitBreakerConfig object.
+         * @return A new CircuitBreakerConfig object.
+         * @throws OutsetaClientBuildException Thrown if a threshold is not
+         *      between 0 and 100, a duration or count is not greater than
+         *      0, or the minimum calls are more than the window size.
+         */
+        public CircuitBreakerConfig build()
+                throws OutsetaClientBuildException {
+
+            if (!(this.failureRateThreshold > 0
+                    && this.failureRateThreshold <= MAX_RATE)) {
+                throw new OutsetaClientBuildException(
+                        "Failure rate threshold must be between 0 and 100.");
+            }
+            if (!(this.slowCallRateThreshold > 0
+                    && this.slowCallRateThreshold <= MAX_RATE)) {
+                throw new OutsetaClientBuildException(
+                        "Slow call rate threshold must be between 0 and "
+                                + "100.");
+            }
+            if (this.slowCallDuration <= 0 || this.openDuration <= 0) {
+                throw new OutsetaClientBuildException(
+                        "Durations must be greater than 0.");
+            }
+            if (this.windowSize <= 0 || this.halfOpenCalls <= 0) {
+                throw new OutsetaClientBuildException(
+                        "Window size and half open calls must be greater "
+                                + "than 0.");
+            }
+            if (this.minimumCalls <= 0
+                    || this.minimumCalls > this.windowSize) {
+                throw new OutsetaClientBuildException(
+                        "Minimum calls must be between 1 and the window "
+                                + "size.");
+            }
+            return new CircuitBreakerConfig(this);
+        }
+    }
+
+    /**
+     * The share of failed calls, in percent, that opens the circuit.
+     */
+    private final float failureRateThreshold;
+
+    /**
+     * The share of slow calls, in percent, that opens the circuit.
+     */
+    private final float slowCallRateThreshold;
+
+    /**
+     * The time in milliseconds after which a call counts as slow.
+     */
+    private final long slowCallDuration;
+
+    /**
+     * The number of recent calls the rates are measured over.
+     */
+    private final int windowSize;
+
+    /**
+     * The number of calls needed before the rates are checked.
+     */
+    private final int minimumCalls;
+
+    /**
+     * The time in milliseconds an open circuit rejects calls.
+     */
+    private final long openDuration;
+
+    /**
+     * The number of probe calls let through by a half open circuit.
+     */
+    private final int halfOpenCalls;
+
+    /**
+     * The constructor is intentionally private to force the use of the
+     * builder.
+     * @param builder The builder holding the settings.
+     */
+    private CircuitBreakerConfig(final Builder builder) {
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallDuration = builder.slowCallDuration;
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.openDuration = builder.openDuration;
+        this.halfOpenCalls = builder.halfOpenCalls;
+    }
+
+    /**
+     * This method is used to create a new builder object.
+     * @return A new builder object.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the share of failed calls that opens the circuit.
+     * @return The share in percent.
+     */
+    public float getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * Returns the share of slow calls that opens the circuit.
+     * @return The share in percent.
+     */
+    public float getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * Returns the time after which a call counts as slow.
+     * @return The time in milliseconds.
+     */
+    public long getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    /**
+     * Returns the number of recent calls the rates are measured over.
+     * @return The number of calls.
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Returns the number of calls needed before the rates are checked.
+     * @return The number of calls.
+     */
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    /**
+     * Returns the time an open circuit rejects calls.
+     * @return The time in milliseconds.
+     */
+    public long getOpenDuration() {
+        return openDuration;
+    }
+
+    /**
+     * Returns the number of probe calls a half open circuit lets through.
+     * @return The number of calls.
+     */
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+}
@@ -0,0 +1,113 @@
+package com.outseta.client_helper.circuit_breaker;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * This class keeps one {@link CircuitBreaker} for each endpoint family, so
+ * that an outage of one part of the Outseta API, such as /billing, does not
+ * stop the calls to the other parts, such as /crm.
+ * <p>
+ *     The family of a call is the first segment of its url suffix, for
+ *     example billing for /billing/plans and crm for /crm/people. The
+ *     circuits are created the first time a family is called and all of
+ *     them use the same settings. Clients that share a registry share its
+ *     circuits.
+ * </p>
+ */
+public final class CircuitBreakerRegistry {
+
+    /**
+     * The settings of the circuits.
+     */
+    private final CircuitBreakerConfig config;
+
+    /**
+     * The clock used by the circuits, in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The circuits, keyed by endpoint family.
+     */
+    private final ConcurrentMap<String, CircuitBreaker> breakers;
+
+    /**
+     * This constructor is used to create an empty registry.
+     * @param pConfig The settings of the circuits.
+     */
+    public CircuitBreakerRegistry(final CircuitBreakerConfig pConfig) {
+        this(pConfig, System::nanoTime);
+    }
+
+    /**
+     * This constructor is used to create an empty registry whose circuits
+     * use a custom clock.
+     * @param pConfig The settings of the circuits.
+     * @param pClock The clock used by the circuits, in nanoseconds.
+     */
+    CircuitBreakerRegistry(final CircuitBreakerConfig pConfig,
+                           final LongSupplier pClock) {
+        this.config = pConfig;
+        this.clock = pClock;
+        this.breakers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * This method finds the endpoint family of a url suffix.
+     * @param urlSuffix The url suffix, for example /billing/plans.
+     * @return The first segment of the path, for example billing.
+     */
+    public static String family(final String urlSuffix) {
+        int start = urlSuffix.startsWith("/") ? 1 : 0;
+        int end = start;
+        while (end < urlSuffix.length()) {
+            char c = urlSuffix.charAt(end);
+            if (c == '/' || c == '?') {
+                break;
+            }
+            end++;
+        }
+        return urlSuffix.substring(start, end);
+    }
+
+    /**
+     * This method returns the circuit of the family of a url suffix,
+     * creating it the first time the family is called.
+     * @param urlSuffix The url suffix of the call.
+     * @return The circuit.
+     */
+    public CircuitBreaker forPath(final String urlSuffix) {
+        return this.get(family(urlSuffix));
+    }
+
+    /**
+     * This method returns the circuit of an endpoint family, creating it
+     * the first time the family is asked for.
+     * @param family The endpoint family, for example billing.
+     * @return The circuit.
+     */
+    public CircuitBreaker get(final String family) {
+        return this.breakers.computeIfAbsent(family,
+                key -> new CircuitBreaker(key, this.config, this.clock));
+    }
+
+    /**
+     * Returns the circuits created so far.
+     * @return An unmodifiable view of the circuits, keyed by family.
+     */
+    public Map<String, CircuitBreaker> getBreakers() {
+        return Collections.unmodifiableMap(this.breakers);
+    }
+
+    /**
+     * Returns the settings of the circuits.
+     * @return The settings.
+     */
+    public CircuitBreakerConfig getConfig() {
+        return config;
+    }
+}
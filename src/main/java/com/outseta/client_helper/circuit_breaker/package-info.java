@@ -0,0 +1,7 @@
+/**
+ * This package contains the circuit breakers used to fail fast when an
+ * endpoint family of the Outseta API keeps failing or answering slowly.
+ * The CircuitBreakerRegistry class keeps one CircuitBreaker for each family,
+ * such as /billing or /crm, and the clients check it before every call.
+ */
+package com.outseta.client_helper.circuit_breaker;
@@ -0,0 +1,230 @@
+package com.outseta.client_helper.coalescing;
+
+import com.outseta.client_helper.hedging.Hedger;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class lets concurrent identical get calls share one request and
+ * one parsed result.
+ * <p>
+ *     The first call for a key sends the request and the calls that
+ *     arrive while it is in flight wait for its result instead of sending
+ *     their own. The key is made of the method, the url, the query
+ *     parameters, the type of the result and the Authorization header, so
+ *     calls made with different credentials never share a result. Nothing
+ *     is kept once the request completes: this is not a cache.
+ * </p>
+ * <p>
+ *     The result is shared by all waiting callers, so it must be treated
+ *     as read only. The waiting callers also share the outcome of the
+ *     request, including a failure caused by the deadline of the caller
+ *     that sent it.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * RequestCoalescer coalescer = RequestCoalescer.builder()
+ *      .endpoint("/billing/plans/{id}")
+ *      .endpoint("/profile")
+ *      .build();
+ * }</pre>
+ */
+public final class RequestCoalescer {
+
+    /**
+     * This class is used to build a RequestCoalescer object.
+     */
+    public static final class Builder {
+
+        /**
+         * The routes of the endpoints whose calls are coalesced.
+         */
+        private final Set<String> routes;
+
+        /**
+         * The constructor for Builder.
+         */
+        private Builder() {
+            this.routes = new HashSet<>();
+        }
+
+        /**
+         * Coalesces the calls of an endpoint. The segments of the path
+         * after the second one are placeholders, for example
+         * /crm/accounts/{id} stands for every account. If no endpoint is
+         * given, the calls of every endpoint are coalesced.
+         * @param path The path of the endpoint.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder endpoint(final String path) {
+            this.routes.add(Hedger.route(path));
+            return this;
+        }
+
+        /**
+         * This method is used to create a new RequestCoalescer object.
+         * @return A new RequestCoalescer object.
+         */
+        public RequestCoalescer build() {
+            return new RequestCoalescer(this.routes);
+        }
+    }
+
+    /**
+     * The routes of the endpoints whose calls are coalesced, or an empty
+     * set for every endpoint.
+     */
+    private final Set<String> routes;
+
+    /**
+     * The requests in flight, keyed by call.
+     */
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight;
+
+    /**
+     * The number of calls that shared a request in flight.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * The number of calls that sent their own request.
+     */
+    private final AtomicLong misses;
+
+    /**
+     * The constructor is intentionally private to force the use of the
+     * builder.
+     * @param pRoutes The routes of the endpoints whose calls are coalesced.
+     */
+    private RequestCoalescer(final Set<String> pRoutes) {
+        this.routes = Collections.unmodifiableSet(new HashSet<>(pRoutes));
+        this.inFlight = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    /**
+     * This method is used to create a new builder object.
+     * @return A new builder object.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * This method checks whether the calls of a url suffix are coalesced.
+     * @param urlSuffix The url suffix of the call.
+     * @return True if they are coalesced.
+     */
+    public boolean isCoalesced(final String urlSuffix) {
+        return this.routes.isEmpty()
+                || this.routes.contains(Hedger.route(urlSuffix));
+    }
+
+    /**
+     * This method creates the key of a call. The parameters are sorted so
+     * that their order does not matter.
+     * @param method The HTTP method of the call.
+     * @param url The url of the call.
+     * @param parameters The query parameters of the call, or null.
+     * @param type The type of the result of the call.
+     * @param identity The credentials of the call, or null.
+     * @return The key.
+     */
+    public static String key(final String method, final String url,
+                             final Map<String, Object> parameters,
+                             final Class<?> type, final String identity) {
+        StringBuilder key = new StringBuilder(method).append(' ').append(url);
+        if (parameters != null && !parameters.isEmpty()) {
+            key.append(' ').append(new TreeMap<>(parameters));
+        }
+        return key.append(' ').append(type.getName())
+                .append(' ').append(identity).toString();
+    }
+
+    /**
+     * This method joins the request in flight for a key, or registers the
+     * given one if there is none.
+     * @param key The key of the call.
+     * @param flight The future the caller completes if it sends the
+     *               request.
+     * @return The future of the request in flight, or null if the caller
+     *      has to send the request and then call
+     *      {@link #leave(String, CompletableFuture)}.
+     */
+    public CompletableFuture<Object> join(final String key,
+                                          final CompletableFuture<Object>
+                                                  flight) {
+        CompletableFuture<Object> existing = this.inFlight.putIfAbsent(key,
+                flight);
+        if (existing == null) {
+            this.misses.incrementAndGet();
+        } else {
+            this.hits.incrementAndGet();
+        }
+        return existing;
+    }
+
+    /**
+     * This method removes a request that is no longer in flight, so that
+     * later calls send their own.
+     * @param key The key of the call.
+     * @param flight The future registered by
+     *               {@link #join(String, CompletableFuture)}.
+     */
+    public void leave(final String key,
+                      final CompletableFuture<Object> flight) {
+        this.inFlight.remove(key, flight);
+    }
+
+    /**
+     * Returns the routes of the endpoints whose calls are coalesced.
+     * @return The routes, or an empty set if every endpoint is coalesced.
+     */
+    public Set<String> getRoutes() {
+        return this.routes;
+    }
+
+    /**
+     * Returns the number of calls that shared a request in flight.
+     * @return The number of calls.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Returns the number of calls that sent their own request.
+     * @return The number of calls.
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Returns the part of the calls that shared a request in flight.
+     * @return The hit rate between 0 and 1, or 0 if no call was made.
+     */
+    public double getHitRate() {
+        long hit = this.hits.get();
+        long total = hit + this.misses.get();
+        return total == 0 ? 0d : (double) hit / total;
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     * @return The number of requests.
+     */
+    public int getInFlight() {
+        return this.inFlight.size();
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * This package contains the coalescing of get calls. The RequestCoalescer
+ * class lets concurrent identical calls share one request in flight and
+ * one parsed result, and counts how often a call was shared.
+ */
+package com.outseta.client_helper.coalescing;
@@ -0,0 +1,498 @@
+package com.outseta.client_helper.hedging;
+
+import com.outseta.client_helper.request_maker.Deadline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * This class sends a second, identical get request when the first one is
+ * slow, takes the answer that arrives first and cancels the other one.
+ * <p>
+ *     The hedge is sent once the delay of the {@link HedgingPolicy} has
+ *     passed, or the observed latency of the endpoint at the percentile
+ *     of the policy once enough calls have been seen. Only first requests
+ *     that succeed are timed. Each call adds a
+ *     share of a hedge to a budget and each hedge takes a whole one, so
+ *     the hedges cannot go over the percent of the calls allowed by the
+ *     policy. A hedge is not sent once the first request has failed, nor
+ *     when the {@link Deadline} of the call would pass before the delay.
+ * </p>
+ * <p>
+ *     The requests must be cancellable, so that the losing request gives
+ *     its connection back to the pool. Clients that share a hedger share
+ *     its latencies and its budget.
+ * </p>
+ */
+public final class Hedger {
+
+    /**
+     * The part of a hedge that makes a whole one in the budget.
+     */
+    private static final long WHOLE = 10_000L;
+
+    /**
+     * The budget of the policy is given in percent.
+     */
+    private static final long PERCENT = 100L;
+
+    /**
+     * The number of path segments that name an endpoint. The segments
+     * after them, such as ids, are left out of the route.
+     */
+    private static final int ROUTE_SEGMENTS = 2;
+
+    /**
+     * The timer used to send the hedges of all hedgers.
+     */
+    private static final ScheduledExecutorService TIMER = timer();
+
+    /**
+     * The settings of the hedges.
+     */
+    private final HedgingPolicy policy;
+
+    /**
+     * The timer used to send the hedges.
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * The latencies of the first requests, keyed by route.
+     */
+    private final ConcurrentMap<String, LatencyTracker> latencies;
+
+    /**
+     * The budget left in parts of {@link #WHOLE}.
+     */
+    private long balance;
+
+    /**
+     * The number of calls made.
+     */
+    private final AtomicLong calls;
+
+    /**
+     * The number of hedges sent.
+     */
+    private final AtomicLong hedges;
+
+    /**
+     * The number of calls that were answered by their hedge.
+     */
+    private final AtomicLong wins;
+
+    /**
+     * The number of hedges that were not sent because the budget was
+     * used up.
+     */
+    private final AtomicLong budgetRejections;
+
+    /**
+     * This constructor is used to create a hedger.
+     * @param pPolicy The settings of the hedges.
+     */
+    public Hedger(final HedgingPolicy pPolicy) {
+        this(pPolicy, TIMER);
+    }
+
+    /**
+     * This constructor is used to create a hedger with its own timer.
+     * @param pPolicy The settings of the hedges.
+     * @param pTimer The timer used to send the hedges.
+     */
+    Hedger(final HedgingPolicy pPolicy,
+           final ScheduledExecutorService pTimer) {
+        this.policy = pPolicy;
+        this.timer = pTimer;
+        this.latencies = new ConcurrentHashMap<>();
+        this.balance = pPolicy.getBurst() * WHOLE;
+        this.calls = new AtomicLong();
+        this.hedges = new AtomicLong();
+        this.wins = new AtomicLong();
+        this.budgetRejections = new AtomicLong();
+    }
+
+    /**
+     * This method creates the timer shared by the hedgers. Its thread does
+     * not keep the JVM alive.
+     * @return The timer.
+     */
+    private static ScheduledExecutorService timer() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                1, runnable -> {
+                    Thread thread = new Thread(runnable, "outseta-hedger");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * This method finds the route of a url suffix, which is the endpoint
+     * its latency is tracked for. The first two segments of the path are
+     * kept and the later ones, such as ids, are replaced by a star, for
+     * example crm/accounts/* for /crm/accounts/abc.
+     * @param urlSuffix The url suffix of the call.
+     * @return The route.
+     */
+    public static String route(final String urlSuffix) {
+        StringBuilder route = new StringBuilder(urlSuffix.length());
+        int segment = 0;
+        int i = urlSuffix.startsWith("/") ? 1 : 0;
+        while (i < urlSuffix.length()) {
+            char c = urlSuffix.charAt(i);
+            if (c == '?') {
+                break;
+            }
+            if (c == '/') {
+                segment++;
+                route.append(c);
+                if (segment >= ROUTE_SEGMENTS) {
+                    route.append('*');
+                }
+            } else if (segment < ROUTE_SEGMENTS) {
+                route.append(c);
+            }
+            i++;
+        }
+        return route.toString();
+    }
+
+    /**
+     * This method sends a get request and hedges it if it is slow.
+     * @param urlSuffix The url suffix of the call, used to find its route.
+     * @param request The supplier that sends the request. It is called
+     *                again to send the hedge, from the timer thread with
+     *                the deadline of the call entered.
+     * @return A future that is completed with the first answer, or with
+     *      the failure of the last request if none succeeds. Cancelling it
+     *      cancels the requests.
+     */
+    public CompletableFuture<String> hedge(
+            final String urlSuffix,
+            final Supplier<CompletableFuture<String>> request) {
+
+        this.calls.incrementAndGet();
+        this.deposit();
+        LatencyTracker tracker = this.latencies.computeIfAbsent(
+                route(urlSuffix), key -> new LatencyTracker());
+        Deadline deadline = Deadline.current();
+        long delay = this.delay(tracker);
+
+        HedgedCall call = new HedgedCall();
+        long start = System.nanoTime();
+        CompletableFuture<String> primary = request.get();
+        // A failed primary may have failed fast, and a cancelled one lost
+        // to its hedge before it finished, so neither shows the latency of
+        // the route
+        primary.whenComplete((response, error) -> {
+            if (error == null) {
+                tracker.record(System.nanoTime() - start);
+            }
+        });
+        call.reserve();
+        call.attach(primary, false);
+
+        // A hedge that could not be answered before the deadline is only
+        // extra load
+        if (deadline == null
+                || deadline.remaining(TimeUnit.NANOSECONDS) > delay) {
+            call.schedule(this.timer.schedule(() ->
+                    this.sendHedge(call, request, deadline), delay,
+                    TimeUnit.NANOSECONDS));
+        }
+        return call.result;
+    }
+
+    /**
+     * This method sends the hedge of a call that has not been answered
+     * yet, if the budget allows it.
+     * @param call The call to hedge.
+     * @param request The supplier that sends the request.
+     * @param deadline The deadline of the call, or null.
+     */
+    private void sendHedge(final HedgedCall call,
+                           final Supplier<CompletableFuture<String>> request,
+                           final Deadline deadline) {
+        if (call.result.isDone()) {
+            return;
+        }
+        if (!this.withdraw()) {
+            this.budgetRejections.incrementAndGet();
+            return;
+        }
+        if (!call.reserve()) {
+            return;
+        }
+        this.hedges.incrementAndGet();
+
+        CompletableFuture<String> hedge;
+        try (Deadline.Scope scope = deadline == null
+                ? null : deadline.enter()) {
+            hedge = request.get();
+        }
+        call.attach(hedge, true);
+    }
+
+    /**
+     * This method returns the hedge delay of a route.
+     * @param tracker The latencies of the route.
+     * @return The delay in nanoseconds.
+     */
+    private long delay(final LatencyTracker tracker) {
+        if (this.policy.getPercentile() > 0) {
+            long observed = tracker.percentile(this.policy.getPercentile(),
+                    this.policy.getMinSamples());
+            if (observed >= 0) {
+                return observed;
+            }
+        }
+        return TimeUnit.MILLISECONDS.toNanos(this.policy.getDelay());
+    }
+
+    /**
+     * This method adds the share of a hedge earned by a call to the
+     * budget.
+     */
+    private synchronized void deposit() {
+        long max = this.policy.getBurst() * WHOLE;
+        long share = (long) (this.policy.getBudget() * WHOLE / PERCENT);
+        this.balance = Math.min(max, this.balance + share);
+    }
+
+    /**
+     * This method takes a whole hedge from the budget.
+     * @return True if the budget allowed the hedge.
+     */
+    private synchronized boolean withdraw() {
+        if (this.balance < WHOLE) {
+            return false;
+        }
+        this.balance -= WHOLE;
+        return true;
+    }
+
+    /**
+     * This method returns the delay currently used before hedging the
+     * calls of a url suffix.
+     * @param urlSuffix The url suffix of the call.
+     * @return The delay in milliseconds.
+     */
+    public long getDelay(final String urlSuffix) {
+        LatencyTracker tracker = this.latencies.get(route(urlSuffix));
+        if (tracker == null) {
+            return this.policy.getDelay();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(this.delay(tracker));
+    }
+
+    /**
+     * This method returns the number of latencies recorded by route.
+     * @return The number of latencies, keyed by route.
+     */
+    public Map<String, Long> getSamples() {
+        Map<String, Long> samples = new ConcurrentHashMap<>();
+        this.latencies.forEach((route, tracker) ->
+                samples.put(route, tracker.getCount()));
+        return Collections.unmodifiableMap(samples);
+    }
+
+    /**
+     * Returns the settings of the hedges.
+     * @return The hedging policy.
+     */
+    public HedgingPolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Returns the number of calls made.
+     * @return The number of calls.
+     */
+    public long getCalls() {
+        return this.calls.get();
+    }
+
+    /**
+     * Returns the number of hedges sent.
+     * @return The number of hedges.
+     */
+    public long getHedges() {
+        return this.hedges.get();
+    }
+
+    /**
+     * Returns the number of calls that were answered by their hedge.
+     * @return The number of calls.
+     */
+    public long getWins() {
+        return this.wins.get();
+    }
+
+    /**
+     * Returns the number of hedges that were not sent because the budget
+     * was used up.
+     * @return The number of hedges.
+     */
+    public long getBudgetRejections() {
+        return this.budgetRejections.get();
+    }
+
+    /**
+     * This class keeps the requests of a single call.
+     */
+    private final class HedgedCall {
+
+        /**
+         * The future returned to the caller.
+         */
+        private final CompletableFuture<String> result;
+
+        /**
+         * The requests sent for the call.
+         */
+        private final List<CompletableFuture<String>> attempts;
+
+        /**
+         * The number of requests that have not completed yet.
+         */
+        private int pending;
+
+        /**
+         * The timer task that sends the hedge, or null.
+         */
+        private Future<?> hedgeTask;
+
+        /**
+         * Whether a request has answered the call.
+         */
+        private boolean answered;
+
+        /**
+         * The constructor for HedgedCall.
+         */
+        HedgedCall() {
+            this.result = new CompletableFuture<>();
+            this.attempts = new ArrayList<>();
+            // Whoever finishes the call first, the others are cancelled
+            this.result.whenComplete((response, error) -> this.cancel());
+        }
+
+        /**
+         * This method sets the timer task that sends the hedge.
+         * @param task The timer task.
+         */
+        void schedule(final Future<?> task) {
+            synchronized (this) {
+                if (!this.result.isDone()) {
+                    this.hedgeTask = task;
+                    return;
+                }
+            }
+            task.cancel(false);
+        }
+
+        /**
+         * This method counts a request that is about to be sent, so that a
+         * failure of the other request does not fail the call meanwhile.
+         * @return False if the call is already finished.
+         */
+        synchronized boolean reserve() {
+            if (this.result.isDone()) {
+                return false;
+            }
+            this.pending++;
+            return true;
+        }
+
+        /**
+         * This method adds a request that was counted by
+         * {@link #reserve()} to the call.
+         * @param attempt The future of the request.
+         * @param hedge Whether the request is the hedge.
+         */
+        void attach(final CompletableFuture<String> attempt,
+                    final boolean hedge) {
+            boolean done;
+            synchronized (this) {
+                this.attempts.add(attempt);
+                done = this.result.isDone();
+            }
+            if (done) {
+                attempt.cancel(true);
+            }
+            attempt.whenComplete((response, error) ->
+                    this.onComplete(response, error, hedge));
+        }
+
+        /**
+         * This method is called when a request of the call completes.
+         * @param response The body of the response, or null.
+         * @param error The failure of the request, or null.
+         * @param hedge Whether the request is the hedge.
+         */
+        private void onComplete(final String response, final Throwable error,
+                                final boolean hedge) {
+            if (error == null) {
+                // The win is counted before the caller sees the response
+                boolean first;
+                synchronized (this) {
+                    first = !this.answered && !this.result.isDone();
+                    this.answered = true;
+                }
+                if (first && hedge) {
+                    Hedger.this.wins.incrementAndGet();
+                }
+                this.result.complete(response);
+                return;
+            }
+
+            // The call fails once none of its requests can answer it, so
+            // a failure is not hedged
+            boolean last;
+            synchronized (this) {
+                this.pending--;
+                last = this.pending == 0;
+            }
+            if (last) {
+                this.result.completeExceptionally(
+                        error instanceof CompletionException
+                                && error.getCause() != null
+                                ? error.getCause() : error);
+            }
+        }
+
+        /**
+         * This method cancels the hedge task and the requests that have not
+         * completed yet.
+         */
+        private void cancel() {
+            List<CompletableFuture<String>> running;
+            Future<?> task;
+            synchronized (this) {
+                running = new ArrayList<>(this.attempts);
+                task = this.hedgeTask;
+            }
+            if (task != null) {
+                task.cancel(false);
+            }
+            for (CompletableFuture<String> attempt : running) {
+                attempt.cancel(true);
+            }
+        }
+    }
+}
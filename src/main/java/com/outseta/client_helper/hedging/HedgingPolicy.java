@@ -0,0 +1,270 @@
+package com.outseta.client_helper.hedging;
+
+import com.outseta.exception.OutsetaClientBuildException;
+
+/**
+ * This class holds the settings of hedged get requests.
+ * <p>
+ *     A hedge is a second, identical get request that is sent when the
+ *     first one has not been answered after the hedge delay. The delay is
+ *     either fixed or, when a percentile is set, the observed latency of
+ *     the endpoint at that percentile. The number of hedges is capped by a
+ *     budget: a hedge can only be sent while the hedges stay under the
+ *     given percent of the calls, plus a small burst.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * HedgingPolicy policy = HedgingPolicy.builder()
+ *      .delay(100)
+ *      .percentile(95)
+ *      .budget(10)
+ *      .build();
+ * }</pre>
+ */
+public final class HedgingPolicy {
+
+    /**
+     * The default delay before a hedge in milliseconds.
+     */
+    public static final long DEFAULT_DELAY = 100L;
+
+    /**
+     * The default percent of the calls that may be hedged.
+     */
+    public static final float DEFAULT_BUDGET = 10f;
+
+    /**
+     * The default number of hedges that can be sent in a row once the
+     * budget has been saved up.
+     */
+    public static final int DEFAULT_BURST = 10;
+
+    /**
+     * The default number of latencies an endpoint needs before its
+     * percentile is used as the delay.
+     */
+    public static final int DEFAULT_MIN_SAMPLES = 20;
+
+    /**
+     * The highest percent of the calls that may be hedged.
+     */
+    private static final float MAX_PERCENT = 100f;
+
+    /**
+     * This class is used to build a HedgingPolicy object.
+     */
+    public static final class Builder {
+
+        /**
+         * The delay before a hedge in milliseconds.
+         */
+        private long delay;
+
+        /**
+         * The percentile of the observed latency used as the delay, or 0
+         * to always use the fixed delay.
+         */
+        private double percentile;
+
+        /**
+         * The percent of the calls that may be hedged.
+         */
+        private float budget;
+
+        /**
+         * The number of hedges that can be sent in a row.
+         */
+        private int burst;
+
+        /**
+         * The number of latencies needed before the percentile is used.
+         */
+        private int minSamples;
+
+        /**
+         * The constructor for Builder.
+         */
+        private Builder() {
+            this.delay = DEFAULT_DELAY;
+            this.percentile = 0;
+            this.budget = DEFAULT_BUDGET;
+            this.burst = DEFAULT_BURST;
+            this.minSamples = DEFAULT_MIN_SAMPLES;
+        }
+
+        /**
+         * Sets the time to wait for an answer before sending a hedge. When
+         * a percentile is set, this delay is used until the endpoint has
+         * enough latencies.
+         * @param pDelay The delay in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder delay(final long pDelay) {
+            this.delay = pDelay;
+            return this;
+        }
+
+        /**
+         * Sets the percentile of the observed latency of an endpoint that
+         * is used as its hedge delay, such as 95.
+         * @param pPercentile The percentile, or 0 to always use the fixed
+         *                    delay.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder percentile(final double pPercentile) {
+            this.percentile = pPercentile;
+            return this;
+        }
+
+        /**
+         * Sets the percent of the calls that may be hedged.
+         * @param pBudget The percent, greater than 0 and at most 100.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder budget(final float pBudget) {
+            this.budget = pBudget;
+            return this;
+        }
+
+        /**
+         * Sets the number of hedges that can be sent in a row once the
+         * budget has been saved up.
+         * @param pBurst The number of hedges.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder burst(final int pBurst) {
+            this.burst = pBurst;
+            return this;
+        }
+
+        /**
+         * Sets the number of latencies an endpoint needs before its
+         * percentile is used as the delay.
+         * @param pMinSamples The number of latencies.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder minSamples(final int pMinSamples) {
+            this.minSamples = pMinSamples;
+            return this;
+        }
+
+        /**
+         * This method is used to create a new HedgingPolicy object.
+         * @return A new HedgingPolicy object.
+         * @throws OutsetaClientBuildException Thrown if a setting is out of
+         *      range.
+         */
+        public HedgingPolicy build() throws OutsetaClientBuildException {
+            if (this.delay < 0) {
+                throw new OutsetaClientBuildException(
+                        "Hedge delay cannot be negative.");
+            }
+            if (!(this.percentile >= 0 && this.percentile <= MAX_PERCENT)) {
+                throw new OutsetaClientBuildException(
+                        "Hedge percentile must be between 0 and 100.");
+            }
+            if (!(this.budget > 0 && this.budget <= MAX_PERCENT)) {
+                throw new OutsetaClientBuildException(
+                        "Hedge budget must be greater than 0 and at most "
+                                + "100.");
+            }
+            if (this.burst < 1) {
+                throw new OutsetaClientBuildException(
+                        "Hedge burst must be at least 1.");
+            }
+            if (this.minSamples < 1) {
+                throw new OutsetaClientBuildException(
+                        "Minimum samples must be at least 1.");
+            }
+            return new HedgingPolicy(this);
+        }
+    }
+
+    /**
+     * The delay before a hedge in milliseconds.
+     */
+    private final long delay;
+
+    /**
+     * The percentile of the observed latency used as the delay, or 0.
+     */
+    private final double percentile;
+
+    /**
+     * The percent of the calls that may be hedged.
+     */
+    private final float budget;
+
+    /**
+     * The number of hedges that can be sent in a row.
+     */
+    private final int burst;
+
+    /**
+     * The number of latencies needed before the percentile is used.
+     */
+    private final int minSamples;
+
+    /**
+     * The constructor is intentionally private to force the use of the
+     * builder.
+     * @param builder The builder holding the settings.
+     */
+    private HedgingPolicy(final Builder builder) {
+        this.delay = builder.delay;
+        this.percentile = builder.percentile;
+        this.budget = builder.budget;
+        this.burst = builder.burst;
+        this.minSamples = builder.minSamples;
+    }
+
+    /**
+     * This method is used to create a new builder object.
+     * @return A new builder object.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the delay before a hedge.
+     * @return The delay in milliseconds.
+     */
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * Returns the percentile of the observed latency used as the delay.
+     * @return The percentile, or 0 if the fixed delay is always used.
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * Returns the percent of the calls that may be hedged.
+     * @return The percent.
+     */
+    public float getBudget() {
+        return budget;
+    }
+
+    /**
+     * Returns the number of hedges that can be sent in a row.
+     * @return The number of hedges.
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Returns the number of latencies needed before the percentile is
+     * used.
+     * @return The number of latencies.
+     */
+    public int getMinSamples() {
+        return minSamples;
+    }
+}
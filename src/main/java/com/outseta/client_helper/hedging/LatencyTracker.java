@@ -0,0 +1,111 @@
+package com.outseta.client_helper.hedging;
+
+import java.util.Arrays;
+
+/**
+ * This class keeps the latest latencies of an endpoint and computes their
+ * percentiles.
+ * <p>
+ *     The latencies are kept in a ring of fixed size, so old ones leave
+ *     as new ones arrive. Sorting the ring on every call would cost more
+ *     than the request it is meant to speed up, so a percentile is only
+ *     computed again after a number of new latencies have been recorded.
+ * </p>
+ */
+final class LatencyTracker {
+
+    /**
+     * The number of latencies kept.
+     */
+    static final int WINDOW = 256;
+
+    /**
+     * The number of new latencies after which a percentile is computed
+     * again.
+     */
+    private static final int REFRESH = 16;
+
+    /**
+     * The highest percentile.
+     */
+    private static final double MAX_PERCENTILE = 100d;
+
+    /**
+     * The latest latencies in nanoseconds.
+     */
+    private final long[] latencies;
+
+    /**
+     * The number of latencies recorded so far.
+     */
+    private long count;
+
+    /**
+     * The number of latencies recorded when the percentile was computed,
+     * or -1 if it has not been computed yet.
+     */
+    private long computedAt;
+
+    /**
+     * The percentile that was computed.
+     */
+    private double computedPercentile;
+
+    /**
+     * The value of the percentile that was computed, in nanoseconds.
+     */
+    private long computedValue;
+
+    /**
+     * The constructor for LatencyTracker.
+     */
+    LatencyTracker() {
+        this.latencies = new long[WINDOW];
+        this.computedAt = -1;
+    }
+
+    /**
+     * This method records the latency of a request.
+     * @param nanos The latency in nanoseconds.
+     */
+    synchronized void record(final long nanos) {
+        this.latencies[(int) (this.count % WINDOW)] = nanos;
+        this.count++;
+    }
+
+    /**
+     * This method returns a percentile of the latest latencies.
+     * @param percentile The percentile, such as 95.
+     * @param minSamples The number of latencies needed.
+     * @return The latency in nanoseconds, or -1 if fewer latencies were
+     *      recorded.
+     */
+    synchronized long percentile(final double percentile,
+                                 final int minSamples) {
+        if (this.count < minSamples) {
+            return -1;
+        }
+        if (this.computedAt >= 0 && this.computedPercentile == percentile
+                && this.count - this.computedAt < REFRESH) {
+            return this.computedValue;
+        }
+
+        int size = (int) Math.min(this.count, WINDOW);
+        long[] sorted = Arrays.copyOf(this.latencies, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / MAX_PERCENTILE * size) - 1;
+
+        this.computedAt = this.count;
+        this.computedPercentile = percentile;
+        this.computedValue = sorted[Math.max(0, Math.min(size - 1, index))];
+        return this.computedValue;
+    }
+
+    /**
+     * This method returns the number of latencies recorded.
+     * @return The number of latencies.
+     */
+    synchronized long getCount() {
+        return this.count;
+    }
+}
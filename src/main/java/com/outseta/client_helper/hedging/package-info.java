@@ -0,0 +1,7 @@
+/**
+ * This package contains the hedging of get requests, which cuts the tail
+ * latency of lookups by sending a second request when the first one is
+ * slow. The Hedger class races the requests and keeps the budget that caps
+ * the extra load, and the HedgingPolicy class holds its settings.
+ */
+package com.outseta.client_helper.hedging;
@@ -0,0 +1,23 @@
+package com.outseta.client_helper.pagination;
+
+import com.outseta.model.DataComponent;
+import com.outseta.model.request.PageRequest;
+import com.outseta.model.result.ItemPage;
+
+/**
+ * This interface is used to get one page of a list endpoint. The page
+ * methods of the clients, such as getAccountPage, can be used as a
+ * PageFetcher.
+ * @param <T> The type of the items in the page.
+ */
+@FunctionalInterface
+public interface PageFetcher<T extends DataComponent> {
+
+    /**
+     * This method gets the requested page.
+     * @param request The page to get.
+     * @return The page.
+     * @throws Exception If the page cannot be fetched.
+     */
+    ItemPage<T> fetch(PageRequest request) throws Exception;
+}
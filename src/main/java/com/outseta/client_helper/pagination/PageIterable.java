@@ -0,0 +1,151 @@
+package com.outseta.client_helper.pagination;
+
+import com.outseta.model.DataComponent;
+import com.outseta.model.request.PageRequest;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class walks over every item of a list endpoint, starting at the
+ * given page and following {@link PageRequest#nextPageRequest()} until
+ * {@code Metadata.total} items have been seen.
+ * <p>
+ *     While the items of one page are being used, the next page is already
+ *     requested in the background, so the network round trip of page N+1
+ *     overlaps the work done on page N. Only one page is fetched ahead.
+ * </p>
+ * <p>
+ *     Every call to {@link #iterator()} or {@link #stream()} starts again
+ *     from the first page. Iterators and streams throw an
+ *     {@link com.outseta.exception.OutsetaPaginationException} if a page
+ *     cannot be fetched; its cause is the exception thrown by the page
+ *     method.
+ * </p>
+ * @param <T> The type of the items.
+ */
+public class PageIterable<T extends DataComponent> implements Iterable<T> {
+
+    /**
+     * The request of the first page.
+     */
+    private final PageRequest firstRequest;
+
+    /**
+     * The method used to get one page.
+     */
+    private final PageFetcher<T> fetcher;
+
+    /**
+     * The executor used to fetch the next page in the background.
+     */
+    private final Executor executor;
+
+    /**
+     * The constructor for PageIterable. Pages are prefetched on a shared
+     * pool of daemon threads.
+     * @param pFirstRequest The request of the first page.
+     * @param pFetcher The method used to get one page.
+     */
+    public PageIterable(final PageRequest pFirstRequest,
+                        final PageFetcher<T> pFetcher) {
+        this(pFirstRequest, pFetcher, PaginationThreads.executor());
+    }
+
+    /**
+     * The constructor for PageIterable.
+     * @param pFirstRequest The request of the first page.
+     * @param pFetcher The method used to get one page.
+     * @param pExecutor The executor used to fetch the next page in the
+     *                  background.
+     */
+    public PageIterable(final PageRequest pFirstRequest,
+                        final PageFetcher<T> pFetcher,
+                        final Executor pExecutor) {
+        this.firstRequest = pFirstRequest;
+        this.fetcher = pFetcher;
+        this.executor = pExecutor;
+    }
+
+    /**
+     * This method returns an iterator over all items, starting at the first
+     * page. The iterator should be closed if it is not used to the end, so
+     * that a page that is still being prefetched is cancelled.
+     * @return An iterator over all items.
+     */
+    @Override
+    public PageIterator<T> iterator() {
+        return new PageIterator<>(firstRequest, fetcher, executor);
+    }
+
+    /**
+     * This method returns a sequential stream over all items, starting at
+     * the first page. Closing the stream cancels a page that is still being
+     * prefetched.
+     * @return A stream over all items.
+     */
+    public Stream<T> stream() {
+        PageIterator<T> iterator = iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                        iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                false).onClose(iterator::close);
+    }
+
+    /**
+     * This method returns a stream over all items that can be split by
+     * page. It fetches the first page right away to learn
+     * {@code Metadata.total}, so the stream knows its exact size. Made
+     * parallel, every worker of the stream fetches and parses its own
+     * pages, so the operations of the pipeline run on all cores while
+     * other pages are still on the network.
+     * <pre>{@code
+     * long active = client.streamAll(request)
+     *      .parallel()
+     *      .filter(account -> account.getAccountStage() == 3)
+     *      .count();
+     * }</pre>
+     * <p>
+     *     Parallel streams run on the common fork join pool unless they are
+     *     started from another pool, and its workers block while they wait
+     *     for a page. If the first page does not report a total, the
+     *     stream falls back to reading the pages in order.
+     * </p>
+     * @return A stream over all items.
+     * @throws com.outseta.exception.OutsetaPaginationException If the first
+     *      page cannot be fetched.
+     */
+    public Stream<T> streamAll() {
+        return StreamSupport.stream(
+                PageSpliterator.open(firstRequest, fetcher, executor),
+                false);
+    }
+
+    /**
+     * This method returns a builder for a parallel scan over all items.
+     * Once the first page has returned the total, the remaining pages are
+     * requested in parallel instead of one after another, which is much
+     * faster for large collections.
+     * <pre>{@code
+     * List<Account> accounts = client.getAllAccounts(request).scan()
+     *      .parallelism(8)
+     *      .build()
+     *      .toList();
+     * }</pre>
+     * @return A builder for the scan, using the same executor as this
+     *      iterable.
+     */
+    public PageScan.Builder<T> scan() {
+        return PageScan.builder(firstRequest, fetcher).executor(executor);
+    }
+
+    /**
+     * Returns the request of the first page.
+     * @return The request of the first page.
+     */
+    public PageRequest getFirstRequest() {
+        return firstRequest;
+    }
+}
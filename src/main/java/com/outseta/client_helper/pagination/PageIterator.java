@@ -0,0 +1,289 @@
+package com.outseta.client_helper.pagination;
+
+import com.outseta.exception.OutsetaPageBuildException;
+import com.outseta.exception.OutsetaPaginationException;
+import com.outseta.model.DataComponent;
+import com.outseta.model.request.PageRequest;
+import com.outseta.model.result.ItemPage;
+import com.outseta.model.result.Metadata;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * This class iterates over the items of every page of a list endpoint.
+ * <p>
+ *     The first page is fetched on the calling thread. As soon as a page
+ *     arrives, the next one is handed to the executor, so it is usually
+ *     ready by the time the items of the current page have been used.
+ * </p>
+ * <p>
+ *     The iterator is not thread safe. It stops after the page that holds
+ *     the last of {@code Metadata.total} items, or at the first empty page
+ *     if the total is not known.
+ * </p>
+ * @param <T> The type of the items.
+ */
+public final class PageIterator<T extends DataComponent>
+        implements Iterator<T>, AutoCloseable {
+
+    /**
+     * The method used to get one page.
+     */
+    private final PageFetcher<T> fetcher;
+
+    /**
+     * The executor used to fetch the next page in the background.
+     */
+    private final Executor executor;
+
+    /**
+     * The items of the current page that have not been returned yet.
+     */
+    private Iterator<T> items;
+
+    /**
+     * The request of the page that is fetched next.
+     */
+    private PageRequest nextRequest;
+
+    /**
+     * The page that is being fetched in the background, if any.
+     */
+    private Future<ItemPage<T>> pending;
+
+    /**
+     * The constructor for PageIterator.
+     * @param pFirstRequest The request of the first page.
+     * @param pFetcher The method used to get one page.
+     * @param pExecutor The executor used to fetch the next page in the
+     *                  background.
+     */
+    PageIterator(final PageRequest pFirstRequest,
+                 final PageFetcher<T> pFetcher,
+                 final Executor pExecutor) {
+        this.fetcher = pFetcher;
+        this.executor = pExecutor;
+        this.items = Collections.emptyIterator();
+        this.nextRequest = pFirstRequest;
+    }
+
+    /**
+     * The constructor for PageIterator, used when the items of the first
+     * page have been fetched already.
+     * @param pFirstItems The items of the first page.
+     * @param pNextRequest The request of the page after the first one, or
+     *                     null if there are no more pages.
+     * @param pFetcher The method used to get one page.
+     * @param pExecutor The executor used to fetch the next page in the
+     *                  background.
+     */
+    PageIterator(final List<T> pFirstItems, final PageRequest pNextRequest,
+                 final PageFetcher<T> pFetcher, final Executor pExecutor) {
+        this(pNextRequest, pFetcher, pExecutor);
+        this.items = pFirstItems.iterator();
+    }
+
+    /**
+     * This method checks if there are more items, waiting for the next page
+     * if the current one has been used up.
+     * @return True if there are more items.
+     * @throws OutsetaPaginationException If a page cannot be fetched.
+     */
+    @Override
+    public boolean hasNext() {
+        while (!items.hasNext()) {
+            if (nextRequest == null) {
+                return false;
+            }
+            PageRequest request = nextRequest;
+            nextRequest = null;
+            ItemPage<T> page = takePage(request);
+
+            List<T> pageItems = page.getItems();
+            if (pageItems == null) {
+                pageItems = Collections.emptyList();
+            }
+            items = pageItems.iterator();
+
+            if (hasMorePages(request, page)) {
+                nextRequest = nextPageRequest(request);
+                pending = prefetch(nextRequest);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method returns the next item.
+     * @return The next item.
+     * @throws NoSuchElementException If there are no more items.
+     * @throws OutsetaPaginationException If a page cannot be fetched.
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("There are no more items.");
+        }
+        return items.next();
+    }
+
+    /**
+     * This method stops the iteration and cancels the page that is being
+     * fetched in the background, if any.
+     */
+    @Override
+    public void close() {
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+        nextRequest = null;
+        items = Collections.emptyIterator();
+    }
+
+    /**
+     * This method returns the requested page. It waits for the prefetched
+     * page, or fetches the page on the calling thread if nothing was
+     * prefetched.
+     * @param request The request of the page.
+     * @return The page.
+     */
+    private ItemPage<T> takePage(final PageRequest request) {
+        Future<ItemPage<T>> future = pending;
+        pending = null;
+        try {
+            ItemPage<T> page;
+            if (future == null) {
+                page = fetcher.fetch(request);
+            } else {
+                page = future.get();
+            }
+            if (page == null) {
+                throw new OutsetaPaginationException(
+                        "No page was returned for page "
+                                + request.getPageNum() + ".", null);
+            }
+            return page;
+        } catch (InterruptedException e) {
+            if (future != null) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new OutsetaPaginationException(
+                    "Interrupted while waiting for page "
+                            + request.getPageNum() + ".", e);
+        } catch (ExecutionException e) {
+            throw failure(request, e.getCause());
+        } catch (Exception e) {
+            throw failure(request, e);
+        }
+    }
+
+    /**
+     * This method starts fetching a page in the background. If the executor
+     * does not accept the task, the page is fetched on the calling thread
+     * when it is needed.
+     * @param request The request of the page.
+     * @return The future of the page, or null if it could not be started.
+     */
+    private Future<ItemPage<T>> prefetch(final PageRequest request) {
+        FutureTask<ItemPage<T>> task =
+                new FutureTask<>(() -> fetcher.fetch(request));
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+        return task;
+    }
+
+    /**
+     * This method creates the request of the page after the given one.
+     * @param request The request of the current page.
+     * @return The request of the next page.
+     */
+    static PageRequest nextPageRequest(final PageRequest request) {
+        try {
+            return request.nextPageRequest();
+        } catch (OutsetaPageBuildException e) {
+            throw new OutsetaPaginationException(
+                    "Unable to build the request of the next page.", e);
+        }
+    }
+
+    /**
+     * This method checks if there are pages after the given one.
+     * @param request The request of the page.
+     * @param page The page.
+     * @return True if there are more pages.
+     */
+    static boolean hasMorePages(final PageRequest request,
+                                final ItemPage<?> page) {
+        List<?> pageItems = page.getItems();
+        if (pageItems == null || pageItems.isEmpty()) {
+            return false;
+        }
+
+        Metadata metadata = page.getMetadata();
+        if (metadata == null || metadata.getTotal() == null) {
+            return true;
+        }
+
+        return (pageNum(request) + 1) * pageLimit(request, page)
+                < metadata.getTotal();
+    }
+
+    /**
+     * This method returns the number of items in a full page. It is the
+     * limit reported by the page, or the page size of the request, or the
+     * number of items in the page if neither is known.
+     * @param request The request of the page.
+     * @param page The page.
+     * @return The number of items in a full page.
+     */
+    static long pageLimit(final PageRequest request,
+                          final ItemPage<?> page) {
+        Metadata metadata = page.getMetadata();
+        if (metadata != null && metadata.getLimit() != null
+                && metadata.getLimit() > 0) {
+            return metadata.getLimit();
+        }
+        if (request.getPageSize() != null) {
+            return request.getPageSize();
+        }
+        return page.getItems() == null ? 0 : page.getItems().size();
+    }
+
+    /**
+     * This method returns the page number of a request, which is 0 if it
+     * was not set.
+     * @param request The request of the page.
+     * @return The page number.
+     */
+    static int pageNum(final PageRequest request) {
+        return request.getPageNum() == null ? 0 : request.getPageNum();
+    }
+
+    /**
+     * This method wraps the exception that failed a page.
+     * @param request The request of the page.
+     * @param cause The exception that failed the page.
+     * @return The exception to throw.
+     */
+    private static RuntimeException failure(final PageRequest request,
+                                            final Throwable cause) {
+        if (cause instanceof OutsetaPaginationException) {
+            return (OutsetaPaginationException) cause;
+        }
+        return new OutsetaPaginationException("Unable to get page "
+                + request.getPageNum() + ".", cause);
+    }
+}
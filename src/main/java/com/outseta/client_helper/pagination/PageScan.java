@@ -0,0 +1,534 @@
+package com.outseta.client_helper.pagination;
+
+import com.outseta.exception.OutsetaAPIException;
+import com.outseta.exception.OutsetaInvalidArgumentException;
+import com.outseta.exception.OutsetaPaginationException;
+import com.outseta.model.DataComponent;
+import com.outseta.model.request.PageRequest;
+import com.outseta.model.result.ItemPage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * This class reads a whole collection by fanning out page requests.
+ * <p>
+ *     The first page is fetched on the calling thread. Its
+ *     {@code Metadata.total} tells how many pages follow, so the remaining
+ *     pages are requested in parallel, with at most {@code parallelism}
+ *     requests in flight at a time. The items are handed to the consumer on
+ *     the calling thread, either in page order or, if the scan is
+ *     unordered, in the order the pages arrive.
+ * </p>
+ * <p>
+ *     A page that fails with a server error, a throttled response or a
+ *     failed connection is retried on its own, without restarting the
+ *     scan. If a page still fails after the last retry, the pages in flight
+ *     are cancelled and an {@link OutsetaPaginationException} is thrown with
+ *     the failure as its cause.
+ * </p>
+ * <p>
+ *     Requests beyond the connection pool limit of the request maker wait
+ *     for a free connection, so the parallelism should not be higher than
+ *     the maximum number of connections per route.
+ * </p>
+ * @param <T> The type of the items.
+ */
+public final class PageScan<T extends DataComponent> {
+
+    /**
+     * The default number of page requests in flight.
+     */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    /**
+     * The default number of times a failed page is retried.
+     */
+    public static final int DEFAULT_PAGE_RETRIES = 2;
+
+    /**
+     * The default time to wait before the first retry of a page, in
+     * milliseconds. The wait grows with every retry of the same page.
+     */
+    public static final long DEFAULT_RETRY_DELAY = 200L;
+
+    /**
+     * The lowest response code of a server error.
+     */
+    private static final int SERVER_ERROR = 500;
+
+    /**
+     * The response code of a throttled request.
+     */
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * This class is used to build a PageScan.
+     * @param <T> The type of the items.
+     */
+    public static final class Builder<T extends DataComponent> {
+
+        /**
+         * The request of the first page.
+         */
+        private final PageRequest firstRequest;
+
+        /**
+         * The method used to get one page.
+         */
+        private final PageFetcher<T> fetcher;
+
+        /**
+         * The number of page requests in flight.
+         */
+        private int parallelism = DEFAULT_PARALLELISM;
+
+        /**
+         * Whether the items are returned in page order.
+         */
+        private boolean ordered = true;
+
+        /**
+         * The number of times a failed page is retried.
+         */
+        private int pageRetries = DEFAULT_PAGE_RETRIES;
+
+        /**
+         * The time to wait before the first retry of a page.
+         */
+        private long retryDelay = DEFAULT_RETRY_DELAY;
+
+        /**
+         * The executor used to fetch the pages.
+         */
+        private Executor executor = PaginationThreads.executor();
+
+        /**
+         * The constructor for Builder.
+         * @param pFirstRequest The request of the first page.
+         * @param pFetcher The method used to get one page.
+         */
+        private Builder(final PageRequest pFirstRequest,
+                        final PageFetcher<T> pFetcher) {
+            this.firstRequest = pFirstRequest;
+            this.fetcher = pFetcher;
+        }
+
+        /**
+         * Sets the maximum number of page requests in flight.
+         * @param pParallelism The number of page requests in flight.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder<T> parallelism(final int pParallelism) {
+            this.parallelism = pParallelism;
+            return this;
+        }
+
+        /**
+         * Sets whether the items are returned in page order. An unordered
+         * scan hands each page to the consumer as soon as it arrives, so a
+         * slow page does not hold back the pages after it.
+         * @param pOrdered True to return the items in page order.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder<T> ordered(final boolean pOrdered) {
+            this.ordered = pOrdered;
+            return this;
+        }
+
+        /**
+         * Sets the number of times a failed page is retried.
+         * @param pPageRetries The number of retries, 0 to disable them.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder<T> pageRetries(final int pPageRetries) {
+            this.pageRetries = pPageRetries;
+            return this;
+        }
+
+        /**
+         * Sets the time to wait before the first retry of a page. The n-th
+         * retry of the same page waits n times as long.
+         * @param pRetryDelay The time to wait, in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder<T> retryDelay(final long pRetryDelay) {
+            this.retryDelay = pRetryDelay;
+            return this;
+        }
+
+        /**
+         * Sets the executor used to fetch the pages. The executor must be
+         * able to run as many tasks at once as the parallelism. By default
+         * the pages are fetched on a bounded pool shared by every scan,
+         * which fetches a page on the scanning thread when all of its
+         * threads are busy.
+         * @param pExecutor The executor.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder<T> executor(final Executor pExecutor) {
+            this.executor = pExecutor;
+            return this;
+        }
+
+        /**
+         * This method is used to create a new PageScan object.
+         * @return A new PageScan object.
+         * @throws OutsetaInvalidArgumentException Thrown if the first
+         *      request, the fetcher or the executor is null, or if a limit
+         *      is out of range.
+         */
+        public PageScan<T> build() throws OutsetaInvalidArgumentException {
+            if (firstRequest == null) {
+                throw new OutsetaInvalidArgumentException(
+                        "Page request cannot be null.");
+            }
+            if (fetcher == null) {
+                throw new OutsetaInvalidArgumentException(
+                        "Page fetcher cannot be null.");
+            }
+            if (executor == null) {
+                throw new OutsetaInvalidArgumentException(
+                        "Executor cannot be null.");
+            }
+            if (parallelism < 1) {
+                throw new OutsetaInvalidArgumentException(
+                        "Parallelism must be greater than 0.");
+            }
+            if (pageRetries < 0 || retryDelay < 0) {
+                throw new OutsetaInvalidArgumentException(
+                        "Page retries and retry delay cannot be negative.");
+            }
+            return new PageScan<>(this);
+        }
+    }
+
+    /**
+     * The result of one page request.
+     * @param <T> The type of the items.
+     */
+    private static final class Fetched<T extends DataComponent> {
+
+        /**
+         * The page number.
+         */
+        private final int pageNum;
+
+        /**
+         * The page.
+         */
+        private final ItemPage<T> page;
+
+        /**
+         * The constructor for Fetched.
+         * @param pPageNum The page number.
+         * @param pPage The page.
+         */
+        private Fetched(final int pPageNum, final ItemPage<T> pPage) {
+            this.pageNum = pPageNum;
+            this.page = pPage;
+        }
+    }
+
+    /**
+     * The request of the first page.
+     */
+    private final PageRequest firstRequest;
+
+    /**
+     * The method used to get one page.
+     */
+    private final PageFetcher<T> fetcher;
+
+    /**
+     * The number of page requests in flight.
+     */
+    private final int parallelism;
+
+    /**
+     * Whether the items are returned in page order.
+     */
+    private final boolean ordered;
+
+    /**
+     * The number of times a failed page is retried.
+     */
+    private final int pageRetries;
+
+    /**
+     * The time to wait before the first retry of a page.
+     */
+    private final long retryDelay;
+
+    /**
+     * The executor used to fetch the pages.
+     */
+    private final Executor executor;
+
+    /**
+     * The number of pages fetched by all scans.
+     */
+    private final AtomicLong pagesFetched = new AtomicLong();
+
+    /**
+     * The number of page retries made by all scans.
+     */
+    private final AtomicLong retries = new AtomicLong();
+
+    /**
+     * The constructor for PageScan.
+     * @param builder The builder holding the settings.
+     */
+    private PageScan(final Builder<T> builder) {
+        this.firstRequest = builder.firstRequest;
+        this.fetcher = builder.fetcher;
+        this.parallelism = builder.parallelism;
+        this.ordered = builder.ordered;
+        this.pageRetries = builder.pageRetries;
+        this.retryDelay = builder.retryDelay;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * This method is used to create a new Builder object.
+     * @param firstRequest The request of the first page. Its page size,
+     *                     sort order and filters are used for every page.
+     * @param fetcher The method used to get one page.
+     * @param <T> The type of the items.
+     * @return A new Builder object.
+     */
+    public static <T extends DataComponent> Builder<T> builder(
+            final PageRequest firstRequest, final PageFetcher<T> fetcher) {
+        return new Builder<>(firstRequest, fetcher);
+    }
+
+    /**
+     * This method reads every page and hands each item to the consumer on
+     * the calling thread.
+     * @param consumer The consumer of the items.
+     * @throws OutsetaPaginationException If a page still fails after its
+     *      retries, or if the calling thread is interrupted.
+     */
+    public void forEach(final Consumer<? super T> consumer) {
+        ItemPage<T> first = fetchFirst();
+        deliver(first, consumer);
+        if (!PageIterator.hasMorePages(firstRequest, first)) {
+            return;
+        }
+
+        if (first.getMetadata() == null
+                || first.getMetadata().getTotal() == null) {
+            // Without a total the number of pages is not known, so the
+            // remaining pages are read one after another
+            try (PageIterator<T> rest = new PageIterator<>(
+                    PageIterator.nextPageRequest(firstRequest), fetcher,
+                    executor)) {
+                rest.forEachRemaining(consumer);
+            }
+            return;
+        }
+
+        int firstPage = PageIterator.pageNum(firstRequest);
+        long limit = PageIterator.pageLimit(firstRequest, first);
+        long pageCount = (first.getMetadata().getTotal() + limit - 1)
+                / limit;
+        int lastPage = (int) Math.min(Integer.MAX_VALUE, pageCount - 1);
+
+        scan(firstPage, lastPage, consumer);
+    }
+
+    /**
+     * This method reads every page and returns all items.
+     * @return The items.
+     * @throws OutsetaPaginationException If a page still fails after its
+     *      retries, or if the calling thread is interrupted.
+     */
+    public List<T> toList() {
+        List<T> items = new ArrayList<>();
+        forEach(items::add);
+        return items;
+    }
+
+    /**
+     * Returns the number of pages fetched by all scans.
+     * @return The number of pages fetched.
+     */
+    public long getPagesFetched() {
+        return pagesFetched.get();
+    }
+
+    /**
+     * Returns the number of page retries made by all scans.
+     * @return The number of retries.
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * This method fetches the first page on the calling thread.
+     * @return The first page.
+     */
+    private ItemPage<T> fetchFirst() {
+        try {
+            return fetchWithRetries(firstRequest);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutsetaPaginationException(
+                    "Interrupted while waiting for the first page.", e);
+        } catch (OutsetaPaginationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new OutsetaPaginationException(
+                    "Unable to get the first page.", e);
+        }
+    }
+
+    /**
+     * This method fans out the requests of the pages after the first one.
+     * @param firstPage The page number of the first page.
+     * @param lastPage The page number of the last page.
+     * @param consumer The consumer of the items.
+     */
+    private void scan(final int firstPage, final int lastPage,
+                      final Consumer<? super T> consumer) {
+
+        CompletionService<Fetched<T>> completion =
+                new ExecutorCompletionService<>(executor);
+        Map<Integer, Future<Fetched<T>>> inFlight = new HashMap<>();
+        Map<Integer, ItemPage<T>> waiting = new HashMap<>();
+
+        // An ordered scan keeps at most one window of pages ahead of the
+        // next page to deliver, so a slow page cannot make the buffer grow
+        // without bounds
+        long window = 2L * parallelism;
+
+        PageRequest request = firstRequest;
+        int nextToSubmit = firstPage + 1;
+        int nextToDeliver = firstPage + 1;
+        int delivered = 0;
+        int remaining = lastPage - firstPage;
+
+        try {
+            while (delivered < remaining) {
+                while (inFlight.size() < parallelism
+                        && nextToSubmit <= lastPage
+                        && (!ordered
+                        || nextToSubmit < nextToDeliver + window)) {
+                    request = PageIterator.nextPageRequest(request);
+                    final int pageNum = nextToSubmit;
+                    final PageRequest pageRequest = request;
+                    inFlight.put(pageNum, completion.submit(() ->
+                            new Fetched<>(pageNum,
+                                    fetchWithRetries(pageRequest))));
+                    nextToSubmit++;
+                }
+
+                Fetched<T> fetched = completion.take().get();
+                inFlight.remove(fetched.pageNum);
+
+                if (!ordered) {
+                    deliver(fetched.page, consumer);
+                    delivered++;
+                    continue;
+                }
+
+                waiting.put(fetched.pageNum, fetched.page);
+                while (waiting.containsKey(nextToDeliver)) {
+                    deliver(waiting.remove(nextToDeliver), consumer);
+                    nextToDeliver++;
+                    delivered++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutsetaPaginationException(
+                    "Interrupted while waiting for the pages.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof OutsetaPaginationException) {
+                throw (OutsetaPaginationException) e.getCause();
+            }
+            throw new OutsetaPaginationException(
+                    "Unable to get a page of the scan.", e.getCause());
+        } catch (OutsetaPaginationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new OutsetaPaginationException(
+                    "Unable to continue the scan.", e);
+        } finally {
+            for (Future<Fetched<T>> future : inFlight.values()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * This method fetches a page, retrying it if it fails with an error
+     * that may go away.
+     * @param request The request of the page.
+     * @return The page.
+     * @throws Exception If the page still fails after the last retry.
+     */
+    private ItemPage<T> fetchWithRetries(final PageRequest request)
+            throws Exception {
+        int attempt = 0;
+        while (true) {
+            try {
+                ItemPage<T> page = fetcher.fetch(request);
+                if (page == null) {
+                    throw new OutsetaPaginationException(
+                            "No page was returned for page "
+                                    + request.getPageNum() + ".", null);
+                }
+                pagesFetched.incrementAndGet();
+                return page;
+            } catch (Exception e) {
+                if (attempt >= pageRetries || !isRetryable(e)) {
+                    throw e;
+                }
+                attempt++;
+                retries.incrementAndGet();
+                Thread.sleep(retryDelay * attempt);
+            }
+        }
+    }
+
+    /**
+     * This method checks if a failed page may succeed when it is retried.
+     * Server errors, throttled responses and failed connections are
+     * retried. Client errors and parse errors are not.
+     * @param e The exception that failed the page.
+     * @return True if the page may be retried.
+     */
+    static boolean isRetryable(final Exception e) {
+        if (!(e instanceof OutsetaAPIException)) {
+            return false;
+        }
+        Integer code = ((OutsetaAPIException) e).getResponseCode();
+        return code == null || code >= SERVER_ERROR
+                || code == TOO_MANY_REQUESTS;
+    }
+
+    /**
+     * This method hands the items of a page to the consumer.
+     * @param page The page.
+     * @param consumer The consumer of the items.
+     * @param <T> The type of the items.
+     */
+    private static <T extends DataComponent> void deliver(
+            final ItemPage<T> page, final Consumer<? super T> consumer) {
+        List<T> items = page.getItems() == null
+                ? Collections.emptyList() : page.getItems();
+        items.forEach(consumer);
+    }
+}
@@ -0,0 +1,320 @@
+package com.outseta.client_helper.pagination;
+
+import com.outseta.exception.OutsetaPaginationException;
+import com.outseta.model.DataComponent;
+import com.outseta.model.request.PageRequest;
+import com.outseta.model.result.ItemPage;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * This class splits the items of a list endpoint by page, so that a
+ * parallel stream can fetch and parse different pages on different
+ * threads.
+ * <p>
+ *     The spliterator covers a range of page numbers. Its size comes from
+ *     the {@code Metadata.total} of the first page, so it is
+ *     {@link #SIZED} and {@link #SUBSIZED}. It only splits at page
+ *     boundaries, which keeps every request a full page and makes a page
+ *     the smallest unit of work.
+ * </p>
+ * <p>
+ *     Offsets are only stable while the collection does not change. If
+ *     items are added during the stream, the extra items of a page are
+ *     dropped so that the reported size stays exact. If items are removed
+ *     and a page comes back short, the size can no longer be kept, so the
+ *     stream fails with an {@link OutsetaPaginationException} instead of
+ *     returning fewer items than it reported.
+ * </p>
+ * @param <T> The type of the items.
+ */
+public final class PageSpliterator<T extends DataComponent>
+        implements Spliterator<T> {
+
+    /**
+     * The characteristics of every PageSpliterator.
+     */
+    public static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED
+            | NONNULL;
+
+    /**
+     * The method used to get one page.
+     */
+    private final PageFetcher<T> fetcher;
+
+    /**
+     * The request that every page request is copied from.
+     */
+    private final PageRequest template;
+
+    /**
+     * The number of items in a full page.
+     */
+    private final long limit;
+
+    /**
+     * The total number of items in the collection.
+     */
+    private final long total;
+
+    /**
+     * The items of a page that have been fetched but not returned yet.
+     */
+    private List<T> buffer;
+
+    /**
+     * The index of the next item to return from the buffer.
+     */
+    private int bufferIndex;
+
+    /**
+     * The number of the next page to fetch.
+     */
+    private int nextPage;
+
+    /**
+     * The number of the page after the last page of this spliterator.
+     */
+    private final int endPage;
+
+    /**
+     * The constructor for PageSpliterator.
+     * @param pFetcher The method used to get one page.
+     * @param pTemplate The request that every page request is copied from.
+     * @param pLimit The number of items in a full page.
+     * @param pTotal The total number of items in the collection.
+     * @param pBuffer The items that have been fetched already.
+     * @param pNextPage The number of the next page to fetch.
+     * @param pEndPage The number of the page after the last page.
+     */
+    private PageSpliterator(final PageFetcher<T> pFetcher,
+                            final PageRequest pTemplate,
+                            final long pLimit, final long pTotal,
+                            final List<T> pBuffer, final int pNextPage,
+                            final int pEndPage) {
+        this.fetcher = pFetcher;
+        this.template = pTemplate;
+        this.limit = pLimit;
+        this.total = pTotal;
+        this.buffer = pBuffer;
+        this.bufferIndex = 0;
+        this.nextPage = pNextPage;
+        this.endPage = pEndPage;
+    }
+
+    /**
+     * This method fetches the first page on the calling thread and creates
+     * a spliterator over all items from that page on. If the first page
+     * does not report a total, the size is not known, so the rest of the
+     * pages are read in order by a {@link PageIterator} instead.
+     * @param firstRequest The request of the first page.
+     * @param fetcher The method used to get one page.
+     * @param executor The executor used to prefetch pages when the total
+     *                 is not known.
+     * @param <T> The type of the items.
+     * @return A spliterator over all items.
+     * @throws OutsetaPaginationException If the first page cannot be
+     *      fetched.
+     */
+    static <T extends DataComponent> Spliterator<T> open(
+            final PageRequest firstRequest, final PageFetcher<T> fetcher,
+            final Executor executor) {
+
+        ItemPage<T> first = fetch(fetcher, firstRequest);
+        List<T> items = first.getItems() == null
+                ? Collections.emptyList() : first.getItems();
+
+        if (first.getMetadata() == null
+                || first.getMetadata().getTotal() == null) {
+            PageRequest next = items.isEmpty() ? null
+                    : PageIterator.nextPageRequest(firstRequest);
+            return Spliterators.spliteratorUnknownSize(new PageIterator<>(
+                    items, next, fetcher, executor), ORDERED | NONNULL);
+        }
+
+        int firstPage = PageIterator.pageNum(firstRequest);
+        long limit = Math.max(1, PageIterator.pageLimit(firstRequest,
+                first));
+        long total = first.getMetadata().getTotal();
+        int endPage = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(firstPage + 1, (total + limit - 1) / limit));
+
+        PageSpliterator<T> spliterator = new PageSpliterator<>(fetcher,
+                firstRequest, limit, total, null, firstPage + 1, endPage);
+        spliterator.buffer = spliterator.fit(firstPage, items);
+        return spliterator;
+    }
+
+    /**
+     * This method returns the next item, fetching the next page if the
+     * current one has been used up.
+     * @param action The action to run with the item.
+     * @return True if there was an item.
+     * @throws OutsetaPaginationException If a page cannot be fetched.
+     */
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        while (buffer == null || bufferIndex >= buffer.size()) {
+            if (nextPage >= endPage) {
+                buffer = null;
+                return false;
+            }
+            int pageNum = nextPage++;
+            buffer = fit(pageNum, fetch(fetcher, requestFor(pageNum))
+                    .getItems());
+            bufferIndex = 0;
+        }
+        action.accept(buffer.get(bufferIndex++));
+        return true;
+    }
+
+    /**
+     * This method splits off the first half of the remaining pages. The
+     * items that have been fetched already count as one page and go to the
+     * first half.
+     * @return A spliterator over the first half, or null if less than two
+     *      pages are left.
+     */
+    @Override
+    public Spliterator<T> trySplit() {
+        int buffered = hasBuffered() ? 1 : 0;
+        int units = endPage - nextPage + buffered;
+        if (units < 2) {
+            return null;
+        }
+        int mid = nextPage + units / 2 - buffered;
+
+        PageSpliterator<T> prefix = new PageSpliterator<>(fetcher, template,
+                limit, total, remainingBuffer(), nextPage, mid);
+        this.buffer = null;
+        this.bufferIndex = 0;
+        this.nextPage = mid;
+        return prefix;
+    }
+
+    /**
+     * This method returns the exact number of items left.
+     * @return The number of items left.
+     */
+    @Override
+    public long estimateSize() {
+        long buffered = hasBuffered() ? buffer.size() - bufferIndex : 0;
+        return buffered + itemsIn(nextPage, endPage);
+    }
+
+    /**
+     * Returns the characteristics of the spliterator.
+     * @return The characteristics.
+     */
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    /**
+     * This method checks if fetched items are left.
+     * @return True if fetched items are left.
+     */
+    private boolean hasBuffered() {
+        return buffer != null && bufferIndex < buffer.size();
+    }
+
+    /**
+     * This method returns the fetched items that are left.
+     * @return The fetched items that are left, or null if there are none.
+     */
+    private List<T> remainingBuffer() {
+        if (!hasBuffered()) {
+            return null;
+        }
+        return buffer.subList(bufferIndex, buffer.size());
+    }
+
+    /**
+     * This method returns the number of items in a range of pages.
+     * @param fromPage The first page.
+     * @param toPage The page after the last page.
+     * @return The number of items.
+     */
+    private long itemsIn(final int fromPage, final int toPage) {
+        if (fromPage >= toPage) {
+            return 0;
+        }
+        return Math.max(0, Math.min(total, toPage * limit)
+                - fromPage * limit);
+    }
+
+    /**
+     * This method drops the items of a page that go beyond the size that
+     * was reported for it.
+     * @param pageNum The page number.
+     * @param items The items of the page.
+     * @return The items that fit the page.
+     * @throws OutsetaPaginationException If the page has fewer items than
+     *      were reported for it.
+     */
+    private List<T> fit(final int pageNum, final List<T> items) {
+        List<T> page = items == null ? Collections.emptyList() : items;
+        long expected = itemsIn(pageNum, pageNum + 1);
+        if (page.size() < expected) {
+            throw new OutsetaPaginationException("Page " + pageNum
+                    + " has " + page.size() + " items instead of "
+                    + expected + ". The collection changed while it was "
+                    + "streamed, so the size of the stream is no longer "
+                    + "exact.", null);
+        }
+        if (page.size() > expected) {
+            return page.subList(0, (int) expected);
+        }
+        return page;
+    }
+
+    /**
+     * This method creates the request of a page. It keeps the page size,
+     * sort order and filters of the first request.
+     * @param pageNum The page number.
+     * @return The request.
+     */
+    private PageRequest requestFor(final int pageNum) {
+        PageRequest request = PageIterator.nextPageRequest(template);
+        request.setPageNum(pageNum);
+        return request;
+    }
+
+    /**
+     * This method fetches a page.
+     * @param fetcher The method used to get one page.
+     * @param request The request of the page.
+     * @param <T> The type of the items.
+     * @return The page.
+     * @throws OutsetaPaginationException If the page cannot be fetched.
+     */
+    private static <T extends DataComponent> ItemPage<T> fetch(
+            final PageFetcher<T> fetcher, final PageRequest request) {
+        ItemPage<T> page;
+        try {
+            page = fetcher.fetch(request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutsetaPaginationException(
+                    "Interrupted while waiting for page "
+                            + request.getPageNum() + ".", e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new OutsetaPaginationException("Unable to get page "
+                    + request.getPageNum() + ".", e);
+        }
+        if (page == null) {
+            throw new OutsetaPaginationException(
+                    "No page was returned for page "
+                            + request.getPageNum() + ".", null);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,80 @@
+package com.outseta.client_helper.pagination;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class holds the pool of daemon threads used to fetch pages in the
+ * background when no executor is given.
+ * <p>
+ *     Fetching a page mostly waits on the network, so the pool has a few
+ *     threads for each CPU. The pool is shared by every iterator and scan,
+ *     and the number of its threads stays bounded however many of them run
+ *     at once. A page handed over while every thread is busy is fetched on
+ *     the thread that handed it over, so a scan keeps going at a slower
+ *     pace instead of failing. Idle threads are released after a minute,
+ *     and the threads never keep the JVM alive.
+ * </p>
+ */
+final class PaginationThreads implements ThreadFactory {
+
+    /**
+     * The number of threads the pool keeps for each CPU.
+     */
+    private static final int THREADS_PER_CPU = 4;
+
+    /**
+     * The largest number of threads of the pool.
+     */
+    static final int MAX_THREADS =
+            THREADS_PER_CPU * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The number of seconds an idle thread is kept.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * The shared executor.
+     */
+    private static final Executor EXECUTOR = new ThreadPoolExecutor(0,
+            MAX_THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), new PaginationThreads(),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    /**
+     * The number of threads created so far.
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * The constructor is private so that only the shared executor uses it.
+     */
+    private PaginationThreads() {
+    }
+
+    /**
+     * Returns the shared executor.
+     * @return The shared executor.
+     */
+    static Executor executor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * This method creates a daemon thread.
+     * @param runnable The task of the thread.
+     * @return The thread.
+     */
+    @Override
+    public Thread newThread(final Runnable runnable) {
+        Thread thread = new Thread(runnable,
+                "outseta-pagination-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * This package contains the classes used to walk over every page of a list
+ * endpoint. The PageIterable class turns a method that gets one page into an
+ * Iterable and a Stream over all items, and fetches the next page in the
+ * background while the current one is being used.
+ */
+package com.outseta.client_helper.pagination;
@@ -4,6 +4,8 @@ import com.outseta.exception.OutsetaParseException;
 import com.outseta.model.DataComponent;
 import com.outseta.model.result.ItemPage;
 
+import java.io.InputStream;
+
 /**
  * This interface is used to convert objects to json strings and vice versa.
  */
@@ -19,6 +21,18 @@ public interface JsonParser {
     <T extends DataComponent> String objectToJsonString(T obj)
             throws OutsetaParseException;
 
+    /**
+     * This method is used to convert an object to json encoded as UTF-8.
+     * The json is written straight to bytes, without building a string.
+     * @param obj The object to convert.
+     * @return The json bytes.
+     * @param <T> The type of the object to convert.
+     * @throws OutsetaParseException If the object cannot be converted to
+     *      json.
+     */
+    <T extends DataComponent> byte[] objectToJsonBytes(T obj)
+            throws OutsetaParseException;
+
     /**
      * This method is used to convert a json string to an object.
      * @param jsonString The json string to convert.
@@ -40,4 +54,42 @@ public interface JsonParser {
      */
     <T extends DataComponent> ItemPage<T> jsonStringToPage(
             String jsonString, Class<T> clazz) throws OutsetaParseException;
+
+    /**
+     * This method is used to convert a json stream to an object. The
+     * stream is read as it arrives, without being copied into a string.
+     * @param jsonStream The json stream to convert. It is not closed.
+     * @param clazz The class of the object to convert to.
+     * @return The object.
+     * @param <T> The type of the object to convert to.
+     * @throws OutsetaParseException If the json stream cannot be converted
+     */
+    <T extends DataComponent> T jsonStreamToObject(
+            InputStream jsonStream, Class<T> clazz)
+            throws OutsetaParseException;
+
+    /**
+     * This method is used to convert a json stream to an ItemPage object.
+     * The stream is read as it arrives, without being copied into a
+     * string.
+     * @param jsonStream The json stream to convert. It is not closed.
+     * @param clazz The class of the object to convert to.
+     * @return The ItemPage object.
+     * @param <T> The type of the object whole list is present in ItemPage.
+     * @throws OutsetaParseException If the json stream cannot be converted
+     */
+    <T extends DataComponent> ItemPage<T> jsonStreamToPage(
+            InputStream jsonStream, Class<T> clazz)
+            throws OutsetaParseException;
+
+    /**
+     * This method builds what the parser needs to read and write a model
+     * class ahead of its first use, so that the first call does not pay
+     * for it. A parser that has nothing to prepare does nothing.
+     * @param clazz The class of the model.
+     * @return True if the class was prepared for reading and writing.
+     */
+    default boolean prepare(Class<? extends DataComponent> clazz) {
+        return false;
+    }
 }
@@ -4,6 +4,8 @@ import com.outseta.exception.OutsetaParseException;
 import com.outseta.model.DataComponent;
 import com.outseta.model.result.ItemPage;
 
+import java.io.InputStream;
+
 /**
  * This is a utility class for parsing any json data.
  * It is a facade for data manipulation as the calling class does
@@ -39,6 +41,19 @@ public class ParserFacade {
         return jsonParser.objectToJsonString(obj);
     }
 
+    /**
+     * This method converts an object to json encoded as UTF-8.
+     * @param obj The object to convert.
+     * @return The json bytes.
+     * @param <T> The type of the object to convert.
+     * @throws OutsetaParseException If the object cannot be converted to
+     *      json.
+     */
+    public <T extends DataComponent> byte[] objectToJsonBytes(final T obj)
+            throws OutsetaParseException {
+        return jsonParser.objectToJsonBytes(obj);
+    }
+
     /**
      * This method converts a json string to an object.
      * @param jsonString The json string to convert.
@@ -70,6 +85,47 @@ public class ParserFacade {
         return jsonParser.jsonStringToPage(jsonString, clazz);
     }
 
+    /**
+     * This method converts a json stream to an object.
+     * @param jsonStream The json stream to convert.
+     * @param clazz The class of the object to convert to.
+     * @return The object.
+     * @param <T> The type of the object to convert to.
+     * @throws OutsetaParseException If the json stream cannot be converted
+     *      to an object.
+     */
+    public <T extends DataComponent> T jsonStreamToObject(
+            final InputStream jsonStream, final Class<T> clazz)
+            throws OutsetaParseException {
+
+        return jsonParser.jsonStreamToObject(jsonStream, clazz);
+    }
+
+    /**
+     * This method converts a json stream to an ItemPage object.
+     * @param jsonStream The json stream to convert.
+     * @param clazz The class of the object to convert to.
+     * @return The ItemPage object.
+     * @param <T> The type of the object whole list is present in ItemPage.
+     * @throws OutsetaParseException If the json stream cannot be converted
+     *      to an ItemPage object.
+     */
+    public <T extends DataComponent> ItemPage<T> jsonStreamToPage(
+            final InputStream jsonStream, final Class<T> clazz)
+            throws OutsetaParseException {
+        return jsonParser.jsonStreamToPage(jsonStream, clazz);
+    }
+
+    /**
+     * This method builds what the parser needs to read and write a model
+     * class ahead of its first use.
+     * @param clazz The class of the model.
+     * @return True if the class was prepared for reading and writing.
+     */
+    public boolean prepare(final Class<? extends DataComponent> clazz) {
+        return jsonParser.prepare(clazz);
+    }
+
     /**
      * This method is used to get the JsonParser object.
      * @return The JsonParser object.
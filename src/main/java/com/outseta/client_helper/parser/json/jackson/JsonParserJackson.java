@@ -2,8 +2,9 @@ package com.outseta.client_helper.parser.json.jackson;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.cfg.CoercionAction;
@@ -14,7 +15,12 @@ import com.outseta.model.DataComponent;
 import com.outseta.model.result.ItemPage;
 import com.outseta.model.result.Metadata;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * This class is a wrapper for the Jackson ObjectMapper class.
@@ -29,12 +35,19 @@ public class JsonParserJackson implements JsonParser {
      */
     private final ObjectMapper objectMapper;
 
+    /**
+     * The readers created so far, one for each model class. A reader is
+     * immutable and can be shared between threads.
+     */
+    private final ConcurrentMap<Class<?>, ObjectReader> readers;
+
     /**
      * This constructor is used to initialize the ObjectMapper object.
      * @param pObjectMapper The ObjectMapper object to use.
      */
     public JsonParserJackson(final ObjectMapper pObjectMapper) {
         this.objectMapper = pObjectMapper;
+        this.readers = new ConcurrentHashMap<>();
     }
 
     /**
@@ -42,6 +55,7 @@ public class JsonParserJackson implements JsonParser {
      */
     public JsonParserJackson() {
         this.objectMapper = new ObjectMapper();
+        this.readers = new ConcurrentHashMap<>();
 
         // Configure the parser here
         this.objectMapper.configure(
@@ -76,6 +90,28 @@ public class JsonParserJackson implements JsonParser {
         return result;
     }
 
+    /**
+     * This method converts an object to json encoded as UTF-8. Jackson
+     * encodes the json into its own recycled buffers, so the returned array
+     * is the only copy that is made.
+     * @param obj The object to convert.
+     * @return The json bytes.
+     * @param <T> The type of the object to convert.
+     * @throws OutsetaParseException If the object cannot be converted to
+     *      json.
+     */
+    @Override
+    public <T extends DataComponent> byte[] objectToJsonBytes(final T obj)
+            throws OutsetaParseException {
+
+        try {
+            return this.objectMapper.writeValueAsBytes(obj);
+        } catch (JsonProcessingException e) {
+            throw new OutsetaParseException("Unable to convert "
+                    + obj.getClass().toString() + " to json.");
+        }
+    }
+
     /**
      * This method converts a json string to an object.
      * @param jsonString The json string to convert.
@@ -103,7 +139,40 @@ public class JsonParserJackson implements JsonParser {
     }
 
     /**
-     * This method is used to get the ObjectMapper object.
+     * This method is used to get the reader for a model class. The reader
+     * is created the first time it is asked for and reused afterwards. It
+     * leaves the streams it reads open for their owner to close.
+     * @param clazz The class to read.
+     * @return The reader.
+     */
+    private ObjectReader readerFor(final Class<?> clazz) {
+        return this.readers.computeIfAbsent(clazz, type -> this.objectMapper
+                .readerFor(type)
+                .without(StreamReadFeature.AUTO_CLOSE_SOURCE));
+    }
+
+    /**
+     * This method builds the serializer and the reader of a model class,
+     * together with those of the classes it contains. Both are kept by the
+     * parser, so the first call for the class finds them ready.
+     * @param clazz The class of the model.
+     * @return True if the class can be written and read.
+     */
+    @Override
+    public boolean prepare(final Class<? extends DataComponent> clazz) {
+        boolean writable = this.objectMapper.canSerialize(clazz);
+        this.readerFor(clazz);
+        return writable && this.objectMapper.canDeserialize(
+                this.objectMapper.constructType(clazz));
+    }
+
+    /**
+     * This method converts a json string to an ItemPage object.
+     * <p>
+     *     The string is read in a single pass over its tokens. The metadata
+     *     and each item are bound straight from the token stream, so no
+     *     tree of nodes or intermediate strings are created.
+     * </p>
      * @param jsonString The json string to convert.
      * @param clazz The class of the object to convert to.
      * @return The ItemPage object.
@@ -115,33 +184,141 @@ public class JsonParserJackson implements JsonParser {
             final String jsonString, final Class<T> clazz)
                 throws OutsetaParseException {
 
-        ItemPage<T> result = null;
+        if (jsonString == null) {
+            throw new OutsetaParseException("Unable to convert a null json "
+                    + "string to a page of " + clazz.toString() + " type.");
+        }
 
-        try {
-            JsonNode jsonNode = objectMapper.readTree(jsonString);
+        try (com.fasterxml.jackson.core.JsonParser parser = this.objectMapper
+                .getFactory().createParser(jsonString)) {
+            return this.readPage(parser, clazz);
+        } catch (IOException e) {
+            throw new OutsetaParseException("Unable to convert json string to "
+                    + "a page of "
+                    + clazz.toString() + " type.");
+        }
+    }
 
-            String metadata = jsonNode.get("metadata").toString();
-            String items = jsonNode.get("items").toString();
+    /**
+     * This method converts a json stream to an object. The object is bound
+     * straight from the bytes of the stream.
+     * @param jsonStream The json stream to convert. It is not closed.
+     * @param clazz The class of the object to convert to.
+     * @return The object.
+     * @param <T> The type of the object to convert to.
+     * @throws OutsetaParseException If the json stream cannot be
+     *      converted to an object.
+     */
+    @Override
+    public <T extends DataComponent> T jsonStreamToObject(
+            final InputStream jsonStream, final Class<T> clazz)
+            throws OutsetaParseException {
 
-            Metadata metadataObj = objectMapper
-                    .readValue(metadata, Metadata.class);
+        if (jsonStream == null) {
+            throw new OutsetaParseException("Unable to convert a null json "
+                    + "stream to " + clazz.toString() + " type.");
+        }
 
-            // Read the items as a list of objects
-            ObjectReader objectReader = objectMapper.readerForListOf(clazz);
-            List<T> itemsObj = objectReader.readValue(items);
+        try {
+            return this.readerFor(clazz).readValue(jsonStream);
+        } catch (IOException e) {
+            throw new OutsetaParseException("Unable to convert json stream to "
+                    + clazz.toString() + " type.");
+        }
+    }
 
-            result = new ItemPage<>(
-                    metadataObj,
-                    itemsObj);
+    /**
+     * This method converts a json stream to an ItemPage object in a single
+     * pass over its tokens, like {@link #jsonStringToPage(String, Class)}.
+     * @param jsonStream The json stream to convert. It is not closed.
+     * @param clazz The class of the object to convert to.
+     * @return The ItemPage object.
+     * @param <T> The type of the object whole list is present in ItemPage.
+     * @throws OutsetaParseException If the json stream cannot be converted.
+     */
+    @Override
+    public <T extends DataComponent> ItemPage<T> jsonStreamToPage(
+            final InputStream jsonStream, final Class<T> clazz)
+                throws OutsetaParseException {
 
-        } catch (JsonProcessingException e) {
-            throw new OutsetaParseException("Unable to convert json string to "
+        if (jsonStream == null) {
+            throw new OutsetaParseException("Unable to convert a null json "
+                    + "stream to a page of " + clazz.toString() + " type.");
+        }
+
+        try (com.fasterxml.jackson.core.JsonParser parser = this.objectMapper
+                .getFactory().createParser(jsonStream)) {
+            parser.disable(
+                    com.fasterxml.jackson.core.JsonParser.Feature
+                            .AUTO_CLOSE_SOURCE);
+            return this.readPage(parser, clazz);
+        } catch (IOException e) {
+            throw new OutsetaParseException("Unable to convert json stream to "
                     + "a page of "
                     + clazz.toString() + " type.");
         }
+    }
 
-        return result;
+    /**
+     * This method reads a page from the token stream.
+     * @param parser The token stream, positioned before the page.
+     * @param clazz The class of the items.
+     * @return The ItemPage object.
+     * @param <T> The type of the items.
+     * @throws IOException If the tokens cannot be read or bound.
+     * @throws OutsetaParseException If the page has no metadata or items.
+     */
+    private <T extends DataComponent> ItemPage<T> readPage(
+            final com.fasterxml.jackson.core.JsonParser parser,
+            final Class<T> clazz) throws IOException, OutsetaParseException {
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new OutsetaParseException("A page of " + clazz.toString()
+                    + " type must be a json object.");
+        }
+
+        Metadata metadata = null;
+        List<T> items = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            if ("metadata".equals(field) && value != JsonToken.VALUE_NULL) {
+                metadata = this.readerFor(Metadata.class).readValue(parser);
+            } else if ("items".equals(field)
+                    && value == JsonToken.START_ARRAY) {
+                items = readItems(parser, this.readerFor(clazz));
+            } else {
+                // Fields that are not part of the page are skipped whole
+                parser.skipChildren();
+            }
+        }
+
+        if (metadata == null || items == null) {
+            throw new OutsetaParseException("A page of " + clazz.toString()
+                    + " type must have metadata and items.");
+        }
+
+        return new ItemPage<>(metadata, items);
     }
 
+    /**
+     * This method reads the items of a page from the token stream.
+     * @param parser The token stream, positioned at the start of the array.
+     * @param reader The reader for a single item.
+     * @return The items.
+     * @param <T> The type of the items.
+     * @throws IOException If the tokens cannot be read or bound.
+     */
+    private static <T> List<T> readItems(
+            final com.fasterxml.jackson.core.JsonParser parser,
+            final ObjectReader reader) throws IOException {
 
+        List<T> items = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            items.add(reader.readValue(parser));
+        }
+        return items;
+    }
 }
@@ -0,0 +1,147 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaDeadlineExceededException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * This interface is implemented by request makers that can send requests
+ * without blocking the calling thread. The blocking methods of
+ * {@link RequestMaker} are still supported, so an asynchronous request
+ * maker can be used wherever a request maker is expected.
+ * <p>
+ *     Every method returns at once with a future that is completed with the
+ *     response body. If the request fails, the future is completed
+ *     exceptionally with the same checked exceptions that the blocking
+ *     {@link RequestMaker} throws.
+ * </p>
+ * <p>
+ *     Cancelling a returned future aborts the request and gives its
+ *     connection back to the pool.
+ * </p>
+ */
+public interface AsyncRequestMaker extends RequestMaker, Closeable {
+
+    /**
+     * This method is used to send a get request.
+     * @param url The url to make the request to.
+     * @param parameters The parameters to be added to the request.
+     * @param headers The headers to be added to the request.
+     * @return A future that is completed with the response body.
+     */
+    CompletableFuture<String> getAsync(String url,
+                                       Map<String, Object> parameters,
+                                       Map<String, String> headers);
+
+    /**
+     * This method is used to send a put request.
+     * @param url The url to make the request to.
+     * @param parameters The parameters to be added to the request.
+     * @param payload The payload to be sent with the request.
+     * @param headers The headers to be added to the request.
+     * @return A future that is completed with the response body.
+     */
+    CompletableFuture<String> putAsync(String url,
+                                       Map<String, Object> parameters,
+                                       String payload,
+                                       Map<String, String> headers);
+
+    /**
+     * This method is used to send a post request.
+     * @param url The url to make the request to.
+     * @param parameters The parameters to be added to the request.
+     * @param payload The payload to be sent with the request.
+     * @param headers The headers to be added to the request.
+     * @return A future that is completed with the response body.
+     */
+    CompletableFuture<String> postAsync(String url,
+                                        Map<String, Object> parameters,
+                                        String payload,
+                                        Map<String, String> headers);
+
+    /**
+     * This method is used to send a delete request.
+     * @param url The url to make the request to.
+     * @param parameters The parameters to be added to the request.
+     * @param headers The headers to be added to the request.
+     * @return A future that is completed with the response body.
+     */
+    CompletableFuture<String> deleteAsync(String url,
+                                          Map<String, Object> parameters,
+                                          Map<String, String> headers);
+
+    /**
+     * This method waits for a future returned by an asynchronous request
+     * maker and throws the exception it failed with. The wait is bounded
+     * by the {@link Deadline} entered by the calling thread, and the
+     * request is cancelled if the wait is cut short.
+     * @param future The future to wait for.
+     * @param url The url of the request.
+     * @return The response body.
+     * @throws OutsetaAPIBadRequestException If the request is bad.
+     * @throws OutsetaAPIFailedException If the request fails, the thread
+     *      is interrupted or the deadline of the call passes.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIUnknownException If the request fails for an
+     *      unknown reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    static String await(final CompletableFuture<String> future,
+                        final String url)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        Deadline deadline = Deadline.current();
+        try {
+            if (deadline == null) {
+                return future.get();
+            }
+            return future.get(deadline.remaining(TimeUnit.NANOSECONDS),
+                    TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // The whole call is bounded, not only each read
+            future.cancel(true);
+            throw new OutsetaDeadlineExceededException(
+                    "The deadline of the call passed while waiting for the "
+                            + "response.", url, null, null, null, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new OutsetaAPIFailedException("The request was interrupted.",
+                    url, null, null, null, null, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof OutsetaAPIBadRequestException) {
+                throw (OutsetaAPIBadRequestException) cause;
+            } else if (cause instanceof OutsetaAPIFailedException) {
+                throw (OutsetaAPIFailedException) cause;
+            } else if (cause instanceof OutsetaInvalidResponseCodeException) {
+                throw (OutsetaInvalidResponseCodeException) cause;
+            } else if (cause instanceof OutsetaAPIUnknownException) {
+                throw (OutsetaAPIUnknownException) cause;
+            } else if (cause instanceof OutsetaInvalidURLException) {
+                throw (OutsetaInvalidURLException) cause;
+            }
+            throw new OutsetaAPIUnknownException(String.valueOf(cause), url,
+                    null, null, null, null, e);
+        } catch (CancellationException e) {
+            throw new OutsetaAPIFailedException("The request was cancelled.",
+                    url, null, null, null, null, e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+
+import java.util.Map;
+
+/**
+ * This interface is used by request makers that can send a payload that
+ * is already encoded as UTF-8.
+ * <p>
+ *     A model written straight to json bytes can be sent as it is, without
+ *     being turned into a string and encoded again. The payload is not
+ *     copied, so it must not be changed while the request is sent. The
+ *     same exceptions are thrown as by the methods that take a string.
+ * </p>
+ */
+public interface BytePayloadRequestMaker extends RequestMaker {
+
+    /**
+     * This method is used to make a PUT request to the Outseta API.
+     * @param url The url to make the request to.
+     * @param parameters The parameters to be added to the request.
+     * @param payload The payload encoded as UTF-8.
+     * @param headers The headers to be added to the request.
+     * @return The response from the API.
+     * @throws OutsetaAPIBadRequestException If the request is bad.
+     * @throws OutsetaAPIFailedException If the request fails.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIUnknownException If the request fails for an unknown
+     *      reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    String putBytes(String url, Map<String, Object> parameters,
+                    byte[] payload, Map<String, String> headers) throws
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException;
+
+    /**
+     * This method is used to make a POST request to the Outseta API.
+     * @param url The url to make the request to.
+     * @param parameters The parameters to be added to the request.
+     * @param payload The payload encoded as UTF-8.
+     * @param headers The headers to be added to the request.
+     * @return The response from the API.
+     * @throws OutsetaAPIBadRequestException If the request is bad.
+     * @throws OutsetaAPIFailedException If the request fails.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIUnknownException If the request fails for an unknown
+     *      reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    String postBytes(String url, Map<String, Object> parameters,
+                     byte[] payload, Map<String, String> headers) throws
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException;
+}
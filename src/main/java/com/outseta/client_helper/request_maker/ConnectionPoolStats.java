@@ -0,0 +1,118 @@
+package com.outseta.client_helper.request_maker;
+
+import java.util.Objects;
+
+/**
+ * This class is a snapshot of the state of a connection pool.
+ * <p>
+ *     The values are read at the moment the snapshot is taken and are not
+ *     updated afterwards.
+ * </p>
+ */
+public final class ConnectionPoolStats {
+
+    /**
+     * The number of connections currently in use.
+     */
+    private final int leased;
+
+    /**
+     * The number of threads waiting for a connection.
+     */
+    private final int pending;
+
+    /**
+     * The number of idle connections ready to be used.
+     */
+    private final int available;
+
+    /**
+     * The maximum number of connections in the pool.
+     */
+    private final int max;
+
+    /**
+     * Constructor for the creation of a ConnectionPoolStats object.
+     * @param pLeased The number of connections currently in use.
+     * @param pPending The number of threads waiting for a connection.
+     * @param pAvailable The number of idle connections.
+     * @param pMax The maximum number of connections in the pool.
+     */
+    public ConnectionPoolStats(final int pLeased, final int pPending,
+                               final int pAvailable, final int pMax) {
+        this.leased = pLeased;
+        this.pending = pPending;
+        this.available = pAvailable;
+        this.max = pMax;
+    }
+
+    /**
+     * Returns the number of connections currently in use.
+     * @return The number of leased connections.
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * Returns the number of threads waiting for a connection.
+     * @return The number of pending requests.
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * Returns the number of idle connections ready to be used.
+     * @return The number of available connections.
+     */
+    public int getAvailable() {
+        return available;
+    }
+
+    /**
+     * Returns the maximum number of connections in the pool.
+     * @return The maximum number of connections.
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * This method overrides the equals method.
+     */
+    @Override
+    public boolean equals(final Object other) {
+
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof ConnectionPoolStats)) {
+            return false;
+        }
+
+        ConnectionPoolStats otherStats = (ConnectionPoolStats) other;
+
+        return this.leased == otherStats.leased
+                && this.pending == otherStats.pending
+                && this.available == otherStats.available
+                && this.max == otherStats.max;
+    }
+
+    /**
+     * This method overrides the hashCode method.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(leased, pending, available, max);
+    }
+
+    /**
+     * This method overrides the toString method.
+     */
+    @Override
+    public String toString() {
+        return "[leased: " + leased + "; pending: " + pending
+                + "; available: " + available + "; max: " + max + "]";
+    }
+}
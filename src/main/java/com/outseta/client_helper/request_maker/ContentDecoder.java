@@ -0,0 +1,229 @@
+package com.outseta.client_helper.request_maker;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.entity.DecompressingEntity;
+import org.apache.http.client.entity.DeflateInputStream;
+import org.apache.http.client.entity.InputStreamFactory;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * This class is intentionally non-public. It asks for compressed responses
+ * and decodes them for the request makers that own their http client.
+ * <p>
+ *     The body is decompressed while it is read, so a streamed body is
+ *     parsed straight from the compressed connection without being
+ *     buffered. The bytes read from the connection and the bytes handed to
+ *     the parser are counted for every response, so that the savings of
+ *     compression can be measured. Compression can be turned off at any
+ *     time. A compressed response is still decoded if the server sends one
+ *     anyway.
+ * </p>
+ */
+final class ContentDecoder implements HttpRequestInterceptor,
+        HttpResponseInterceptor {
+
+    /**
+     * The encodings the server is asked to use.
+     */
+    static final Header ACCEPT_ENCODING = new BasicHeader(
+            HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+
+    /**
+     * The stream factory of a body that is not compressed.
+     */
+    private static final InputStreamFactory IDENTITY = in -> in;
+
+    /**
+     * Whether the server is asked for compressed responses.
+     */
+    private volatile boolean compression;
+
+    /**
+     * The number of responses with a body.
+     */
+    private final LongAdder responses;
+
+    /**
+     * The number of responses with a compressed body.
+     */
+    private final LongAdder compressedResponses;
+
+    /**
+     * The number of body bytes read from the connection.
+     */
+    private final LongAdder wireBytes;
+
+    /**
+     * The number of body bytes after decompression.
+     */
+    private final LongAdder decodedBytes;
+
+    /**
+     * The constructor for ContentDecoder.
+     * @param pCompression Whether the server is asked for compressed
+     *                     responses.
+     */
+    ContentDecoder(final boolean pCompression) {
+        this.compression = pCompression;
+        this.responses = new LongAdder();
+        this.compressedResponses = new LongAdder();
+        this.wireBytes = new LongAdder();
+        this.decodedBytes = new LongAdder();
+    }
+
+    /**
+     * Returns whether the server is asked for compressed responses.
+     * @return True if compression is on.
+     */
+    boolean isCompression() {
+        return this.compression;
+    }
+
+    /**
+     * This method turns compression on or off for the following requests.
+     * @param pCompression Whether the server is asked for compressed
+     *                     responses.
+     */
+    void setCompression(final boolean pCompression) {
+        this.compression = pCompression;
+    }
+
+    /**
+     * This method takes a snapshot of the counted bytes.
+     * @return The statistics.
+     */
+    TransferStats getStats() {
+        return new TransferStats(this.responses.sum(),
+                this.compressedResponses.sum(), this.wireBytes.sum(),
+                this.decodedBytes.sum());
+    }
+
+    /**
+     * This method asks the server for a compressed response if compression
+     * is on and the request does not ask for an encoding itself.
+     * @param request The request.
+     * @param context The context of the request.
+     */
+    @Override
+    public void process(final HttpRequest request,
+                        final HttpContext context) {
+        if (this.compression
+                && !request.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+            request.addHeader(ACCEPT_ENCODING);
+        }
+    }
+
+    /**
+     * This method decodes the body of a response.
+     * @param response The response.
+     * @param context The context of the request.
+     */
+    @Override
+    public void process(final HttpResponse response,
+                        final HttpContext context) {
+        this.decode(response);
+    }
+
+    /**
+     * This method replaces the body of a response with one that is
+     * decompressed and counted while it is read. A body with an encoding
+     * that is not known is left as it is.
+     * @param response The response.
+     */
+    void decode(final HttpResponse response) {
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            return;
+        }
+
+        InputStreamFactory factory = IDENTITY;
+        Header encoding = entity.getContentEncoding();
+        if (encoding != null) {
+            for (HeaderElement element : encoding.getElements()) {
+                String codec = element.getName().toLowerCase(Locale.ROOT);
+                if ("gzip".equals(codec) || "x-gzip".equals(codec)) {
+                    factory = GZIPInputStream::new;
+                } else if ("deflate".equals(codec)) {
+                    factory = DeflateInputStream::new;
+                } else if (!"identity".equals(codec)) {
+                    return;
+                }
+            }
+        }
+
+        this.responses.increment();
+        InputStreamFactory decoder = factory;
+        response.setEntity(new DecompressingEntity(entity,
+                in -> new CountingInputStream(decoder.create(
+                        new CountingInputStream(in, this.wireBytes)),
+                        this.decodedBytes)));
+        if (decoder != IDENTITY) {
+            this.compressedResponses.increment();
+            response.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+            response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+            response.removeHeaders(HttpHeaders.CONTENT_MD5);
+        }
+    }
+
+    /**
+     * This class counts the bytes read from a stream.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        /**
+         * The counter the bytes are added to.
+         */
+        private final LongAdder counter;
+
+        /**
+         * The constructor for CountingInputStream.
+         * @param in The stream to count.
+         * @param pCounter The counter the bytes are added to.
+         */
+        CountingInputStream(final InputStream in, final LongAdder pCounter) {
+            super(in);
+            this.counter = pCounter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                this.counter.increment();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len)
+                throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                this.counter.add(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            long skipped = super.skip(n);
+            this.counter.add(skipped);
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.outseta.client_helper.request_maker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is a point in time by which a call must be finished.
+ * <p>
+ *     A deadline is entered for the current thread with {@link #enter()}.
+ *     Every request sent by the thread while the scope is open uses the
+ *     remaining time as its connect, read and pool timeouts, is failed
+ *     without being sent once the time is up, and is never retried or
+ *     held back by a rate limit past it. Scopes can be nested: the inner
+ *     scope keeps the earlier of the two deadlines, so a caller's budget
+ *     is never extended by the code it calls.
+ * </p>
+ * <p>
+ *     The client methods take no per-call options, so entering a scope is
+ *     how a single call is given a deadline.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * try (Deadline.Scope scope = Deadline.after(800, TimeUnit.MILLISECONDS)
+ *         .enter()) {
+ *     Account account = accounts.getAccount(accountId);
+ *     Person person = people.getPerson(personId);
+ * }
+ * }</pre>
+ */
+public final class Deadline {
+
+    /**
+     * The deadlines entered by the threads.
+     */
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    /**
+     * This class closes the scope of a deadline and restores the one that
+     * was entered before it.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        /**
+         * The deadline that was entered before this scope, or null.
+         */
+        private final Deadline previous;
+
+        /**
+         * The constructor for Scope.
+         * @param pPrevious The deadline that was entered before this scope.
+         */
+        private Scope(final Deadline pPrevious) {
+            this.previous = pPrevious;
+        }
+
+        /**
+         * This method restores the deadline that was entered before this
+         * scope.
+         */
+        @Override
+        public void close() {
+            if (this.previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(this.previous);
+            }
+        }
+    }
+
+    /**
+     * The time the deadline expires, as given by {@link System#nanoTime()}.
+     */
+    private final long expiresAt;
+
+    /**
+     * The constructor is intentionally private to force the use of
+     * {@link #after(long, TimeUnit)}.
+     * @param pExpiresAt The time the deadline expires, in nanoseconds.
+     */
+    private Deadline(final long pExpiresAt) {
+        this.expiresAt = pExpiresAt;
+    }
+
+    /**
+     * This method creates a deadline that expires after the given time.
+     * @param timeout The time from now.
+     * @param unit The unit of the timeout.
+     * @return The deadline.
+     */
+    public static Deadline after(final long timeout, final TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * This method returns the deadline entered by the current thread.
+     * @return The deadline, or null if no deadline was entered.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * This method makes this deadline, or the deadline already entered if
+     * it is earlier, the deadline of the current thread until the returned
+     * scope is closed.
+     * @return The scope, which must be closed by the same thread.
+     */
+    public Scope enter() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this.earliest(previous));
+        return new Scope(previous);
+    }
+
+    /**
+     * This method returns the earlier of this deadline and another one.
+     * @param other The other deadline, or null.
+     * @return The deadline that expires first.
+     */
+    public Deadline earliest(final Deadline other) {
+        if (other == null || this.expiresAt - other.expiresAt <= 0) {
+            return this;
+        }
+        return other;
+    }
+
+    /**
+     * This method returns the time left before the deadline expires.
+     * @param unit The unit of the result.
+     * @return The time left, or 0 if the deadline has expired.
+     */
+    public long remaining(final TimeUnit unit) {
+        return unit.convert(Math.max(0L, this.expiresAt - System.nanoTime()),
+                TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * This method checks whether the deadline has expired.
+     * @return True if no time is left.
+     */
+    public boolean isExpired() {
+        return this.expiresAt - System.nanoTime() <= 0;
+    }
+}
@@ -0,0 +1,269 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.constant.HttpMethod;
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * This class keeps track of the calls that are in flight on a shared
+ * request maker so that it can be closed without cutting them off.
+ * <p>
+ *     Once {@link #close()} is called, new calls fail with an
+ *     {@link OutsetaAPIFailedException}. The calls that already started
+ *     are given up to the drain timeout to finish before the wrapped
+ *     request maker is closed. A streamed body counts as in flight until
+ *     it is closed, since it is still read from a pooled connection. An
+ *     asynchronous call counts as in flight until its future is done.
+ * </p>
+ */
+public final class DrainingRequestMaker extends RequestMakerDecorator
+        implements PooledRequestMaker {
+
+    /**
+     * The number of calls that are currently in flight.
+     */
+    private final AtomicInteger inFlight;
+
+    /**
+     * The lock used to wait for the in flight calls to finish.
+     */
+    private final Object drainLock;
+
+    /**
+     * The maximum time to wait for in flight calls when closing.
+     */
+    private final long drainTimeout;
+
+    /**
+     * Whether the wrapped request maker is closed together with this one.
+     */
+    private final boolean closeDelegate;
+
+    /**
+     * Whether the request maker has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * This constructor is used to wrap a request maker.
+     * @param pDelegate The request maker to wrap.
+     * @param pDrainTimeout The maximum time in milliseconds to wait for in
+     *                      flight calls when closing.
+     * @param pCloseDelegate Whether the wrapped request maker is closed
+     *                       together with this one.
+     */
+    public DrainingRequestMaker(final RequestMaker pDelegate,
+                                final long pDrainTimeout,
+                                final boolean pCloseDelegate) {
+        super(pDelegate);
+        this.inFlight = new AtomicInteger();
+        this.drainLock = new Object();
+        this.drainTimeout = pDrainTimeout;
+        this.closeDelegate = pCloseDelegate;
+        this.closed = false;
+    }
+
+    @Override
+    protected <T> T invoke(final HttpMethod method, final String url,
+                           final RequestCall<T> call)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        // The call is counted before the closed flag is read so that close
+        // either sees the call or the call sees the flag
+        this.inFlight.incrementAndGet();
+        try {
+            if (this.closed) {
+                throw new OutsetaAPIFailedException(
+                        "The client has been closed.", url, null, null,
+                        null, null, null);
+            }
+            return call.call();
+        } finally {
+            this.finish();
+        }
+    }
+
+    @Override
+    protected CompletableFuture<String> invokeAsync(
+            final HttpMethod method, final String url,
+            final Supplier<CompletableFuture<String>> call) {
+
+        this.inFlight.incrementAndGet();
+        if (this.closed) {
+            this.finish();
+            return failed(new OutsetaAPIFailedException(
+                    "The client has been closed.", url, null, null, null,
+                    null, null));
+        }
+        CompletableFuture<String> request = start(call, null);
+        // The future itself is returned so that cancelling it still
+        // cancels the request
+        request.whenComplete((response, error) -> this.finish());
+        return request;
+    }
+
+    /**
+     * This method counts a call as finished and wakes up a pending close
+     * once no call is left.
+     */
+    private void finish() {
+        if (this.inFlight.decrementAndGet() == 0 && this.closed) {
+            synchronized (this.drainLock) {
+                this.drainLock.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    protected ResponseStream onStream(final ResponseStream stream) {
+        // The body holds its own count, taken while the call still holds
+        // one, so a close cannot slip in between
+        this.inFlight.incrementAndGet();
+        AtomicBoolean open = new AtomicBoolean(true);
+        return new ResponseStream(stream.getBody(), () -> {
+            stream.close();
+            if (open.getAndSet(false)) {
+                this.finish();
+            }
+        });
+    }
+
+    /**
+     * This method is used to get the number of calls that are in flight.
+     * @return The number of calls in flight.
+     */
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * This method is used to check if the request maker has been closed.
+     * @return True if the request maker has been closed.
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * This method is used to get a snapshot of the connection pool of the
+     * wrapped request maker.
+     * @return The statistics of the pool, or null if the wrapped request
+     *      maker does not use a pool.
+     */
+    @Override
+    public ConnectionPoolStats getPoolStats() {
+        PooledRequestMaker pooled = unwrap(this.getDelegate(),
+                PooledRequestMaker.class);
+        return pooled == null ? null : pooled.getPoolStats();
+    }
+
+    /**
+     * This method is used to get a snapshot of the response bytes read by
+     * the wrapped request maker.
+     * @return The statistics, or null if the wrapped request maker does
+     *      not count them.
+     */
+    @Override
+    public TransferStats getTransferStats() {
+        PooledRequestMaker pooled = unwrap(this.getDelegate(),
+                PooledRequestMaker.class);
+        return pooled == null ? null : pooled.getTransferStats();
+    }
+
+    /**
+     * This method turns compressed responses of the wrapped request maker
+     * on or off.
+     * @param compression True to ask for compressed responses.
+     */
+    @Override
+    public void setCompression(final boolean compression) {
+        PooledRequestMaker pooled = unwrap(this.getDelegate(),
+                PooledRequestMaker.class);
+        if (pooled != null) {
+            pooled.setCompression(compression);
+        }
+    }
+
+    /**
+     * This method opens connections of the wrapped request maker ahead of
+     * the first requests.
+     * @param url The url whose host is connected to.
+     * @param connections The number of connections to open.
+     * @return The number of connections open in the pool for the host, or
+     *      0 if the wrapped request maker cannot open connections ahead.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    @Override
+    public int openConnections(final String url, final int connections)
+            throws OutsetaInvalidURLException {
+        PooledRequestMaker pooled = unwrap(this.getDelegate(),
+                PooledRequestMaker.class);
+        return pooled == null ? 0 : pooled.openConnections(url, connections);
+    }
+
+    /**
+     * This method rejects new calls, waits for the in flight calls to
+     * finish and then closes the wrapped request maker.
+     * @return True if all in flight calls finished within the drain
+     *      timeout.
+     * @throws IOException If the wrapped request maker cannot be closed.
+     */
+    public boolean drainAndClose() throws IOException {
+        this.closed = true;
+
+        boolean drained = true;
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(this.drainTimeout);
+
+        synchronized (this.drainLock) {
+            while (this.inFlight.get() > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(
+                        deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    drained = false;
+                    break;
+                }
+                try {
+                    this.drainLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drained = false;
+                    break;
+                }
+            }
+        }
+
+        // The closeable request maker may be wrapped by other decorators
+        Closeable closeable = unwrap(this.getDelegate(), Closeable.class);
+        if (this.closeDelegate && closeable != null) {
+            closeable.close();
+        }
+
+        return drained;
+    }
+
+    /**
+     * This method rejects new calls, waits for the in flight calls to
+     * finish and then closes the wrapped request maker.
+     * @throws IOException If the wrapped request maker cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.drainAndClose();
+    }
+}
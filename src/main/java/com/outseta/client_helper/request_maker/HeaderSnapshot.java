@@ -0,0 +1,148 @@
+package com.outseta.client_helper.request_maker;
+
+import org.apache.http.Header;
+import org.apache.http.message.BasicHeader;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class holds an immutable copy of the headers of a client.
+ * <p>
+ *     A client never changes its headers in place. Rotating a key creates
+ *     a new snapshot and swaps it in, so a request that is being sent keeps
+ *     the headers it started with while other threads change them. The
+ *     HTTP headers of the snapshot are built once when it is created, and
+ *     the request makers add them to every request instead of building new
+ *     ones from the map each time.
+ * </p>
+ * <p>
+ *     The snapshot is a read only map: it can be passed wherever the
+ *     headers of a request are expected, and it is equal to any map that
+ *     holds the same headers.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * HeaderSnapshot headers = HeaderSnapshot.of(defaults)
+ *      .with(Collections.singletonMap("Authorization", apiKey));
+ * }</pre>
+ */
+public final class HeaderSnapshot extends AbstractMap<String, String> {
+
+    /**
+     * The snapshot without any header.
+     */
+    public static final HeaderSnapshot EMPTY =
+            new HeaderSnapshot(new LinkedHashMap<>());
+
+    /**
+     * The headers, which are never changed.
+     */
+    private final Map<String, String> headers;
+
+    /**
+     * The HTTP headers built from the headers, in the same order.
+     */
+    private final Header[] httpHeaders;
+
+    /**
+     * The constructor is intentionally private to force the use of the
+     * factory methods.
+     * @param pHeaders A map that is owned by the snapshot from now on.
+     */
+    private HeaderSnapshot(final LinkedHashMap<String, String> pHeaders) {
+        this.headers = Collections.unmodifiableMap(pHeaders);
+        this.httpHeaders = new Header[pHeaders.size()];
+        int i = 0;
+        for (Map.Entry<String, String> header : pHeaders.entrySet()) {
+            this.httpHeaders[i++] = new BasicHeader(header.getKey(),
+                    header.getValue());
+        }
+    }
+
+    /**
+     * This method creates a snapshot of the given headers.
+     * @param headers The headers to copy.
+     * @return The snapshot, or the given headers if they already are one.
+     */
+    public static HeaderSnapshot of(final Map<String, String> headers) {
+        if (headers instanceof HeaderSnapshot) {
+            return (HeaderSnapshot) headers;
+        }
+        return new HeaderSnapshot(new LinkedHashMap<>(headers));
+    }
+
+    /**
+     * This method creates a snapshot with the headers of this one and the
+     * given ones, which replace the headers of the same name.
+     * @param changes The headers to add or replace.
+     * @return The new snapshot.
+     */
+    public HeaderSnapshot with(final Map<String, String> changes) {
+        LinkedHashMap<String, String> merged =
+                new LinkedHashMap<>(this.headers);
+        merged.putAll(changes);
+        return new HeaderSnapshot(merged);
+    }
+
+    /**
+     * This method creates a snapshot with the headers of this one except
+     * the given one.
+     * @param name The name of the header to leave out.
+     * @return The new snapshot, or this one if it has no such header.
+     */
+    public HeaderSnapshot without(final String name) {
+        if (!this.headers.containsKey(name)) {
+            return this;
+        }
+        LinkedHashMap<String, String> rest =
+                new LinkedHashMap<>(this.headers);
+        rest.remove(name);
+        return new HeaderSnapshot(rest);
+    }
+
+    /**
+     * This method returns the HTTP headers of the snapshot. They are shared
+     * by every request, which is safe because they cannot be changed.
+     * @return The HTTP headers. The array must not be changed.
+     */
+    Header[] getHttpHeaders() {
+        return this.httpHeaders;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return this.headers.entrySet();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String get(final Object key) {
+        return this.headers.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(final Object key) {
+        return this.headers.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return this.httpHeaders.length;
+    }
+}
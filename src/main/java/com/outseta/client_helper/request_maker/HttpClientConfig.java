@@ -0,0 +1,488 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.OutsetaClientBuildException;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * This class holds the settings used to build a pooled HttpClient based
+ * request maker.
+ * <p>
+ *     All times are in milliseconds. A timeout of 0 means that the call
+ *     waits forever, which is the behaviour of the default request maker.
+ *     The values used by {@link #builder()} are suitable for most users
+ *     and only need to be changed under heavy load.
+ * </p>
+ */
+public final class HttpClientConfig {
+
+    /**
+     * The default maximum number of connections in the pool.
+     */
+    public static final int DEFAULT_MAX_TOTAL = 50;
+
+    /**
+     * The default maximum number of connections per route. All calls go to
+     * the same Outseta host, so this is the same as the total by default.
+     */
+    public static final int DEFAULT_MAX_PER_ROUTE = 50;
+
+    /**
+     * The default time to wait for a connection to be established.
+     */
+    public static final int DEFAULT_CONNECT_TIMEOUT = 5_000;
+
+    /**
+     * The default time to wait for data on an open connection.
+     */
+    public static final int DEFAULT_SOCKET_TIMEOUT = 30_000;
+
+    /**
+     * The default time to wait for a free connection from the pool.
+     */
+    public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT = 10_000;
+
+    /**
+     * The default time a connection is kept alive when the server does not
+     * send a Keep-Alive header.
+     */
+    public static final long DEFAULT_KEEP_ALIVE = 30_000L;
+
+    /**
+     * The default time after which an idle connection is evicted.
+     */
+    public static final long DEFAULT_MAX_IDLE_TIME = 60_000L;
+
+    /**
+     * The default time after which an idle connection is checked before
+     * it is leased again.
+     */
+    public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY = 2_000;
+
+    /**
+     * The default number of I/O threads used by the asynchronous request
+     * maker. A value of 0 uses one thread per available processor.
+     */
+    public static final int DEFAULT_IO_THREAD_COUNT = 0;
+
+    /**
+     * The smallest response code that is not a success.
+     */
+    private static final int MIN_ERROR_CODE = 300;
+
+    /**
+     * The largest valid response code.
+     */
+    private static final int MAX_CODE = 599;
+
+    /**
+     * This class is used to build a HttpClientConfig object.
+     */
+    public static class Builder {
+
+        /**
+         * The config to be built.
+         */
+        private final HttpClientConfig config;
+
+        /**
+         * The default constructor for Builder.
+         */
+        public Builder() {
+            this.config = new HttpClientConfig();
+        }
+
+        /**
+         * Sets the maximum number of connections in the pool.
+         * @param pMaxTotal The maximum number of connections.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder maxTotal(final int pMaxTotal) {
+            this.config.maxTotal = pMaxTotal;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of connections per route.
+         * @param pMaxPerRoute The maximum number of connections per route.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder maxPerRoute(final int pMaxPerRoute) {
+            this.config.maxPerRoute = pMaxPerRoute;
+            return this;
+        }
+
+        /**
+         * Sets the time to wait for a connection to be established.
+         * @param pConnectTimeout The connect timeout in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder connectTimeout(final int pConnectTimeout) {
+            this.config.connectTimeout = pConnectTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the time to wait for data on an open connection.
+         * @param pSocketTimeout The socket timeout in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder socketTimeout(final int pSocketTimeout) {
+            this.config.socketTimeout = pSocketTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the time to wait for a free connection from the pool.
+         * @param pConnectionRequestTimeout The connection request timeout in
+         *                                  milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder connectionRequestTimeout(
+                final int pConnectionRequestTimeout) {
+            this.config.connectionRequestTimeout = pConnectionRequestTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the time a connection is kept alive when the server does
+         * not say how long it may be kept. The value is also used as an
+         * upper limit for the time sent by the server. A value of 0 keeps
+         * connections for as long as the server allows.
+         * @param pKeepAlive The keep alive time in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder keepAlive(final long pKeepAlive) {
+            this.config.keepAlive = pKeepAlive;
+            return this;
+        }
+
+        /**
+         * Sets the time after which an idle connection is evicted by the
+         * background evictor. A value of 0 disables idle eviction.
+         * @param pMaxIdleTime The maximum idle time in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder maxIdleTime(final long pMaxIdleTime) {
+            this.config.maxIdleTime = pMaxIdleTime;
+            return this;
+        }
+
+        /**
+         * Sets whether expired connections are evicted by the background
+         * evictor.
+         * @param pEvictExpired True to evict expired connections.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder evictExpiredConnections(final boolean pEvictExpired) {
+            this.config.evictExpiredConnections = pEvictExpired;
+            return this;
+        }
+
+        /**
+         * Sets the time after which an idle connection is checked before
+         * it is leased again.
+         * @param pValidateAfterInactivity The time in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder validateAfterInactivity(
+                final int pValidateAfterInactivity) {
+            this.config.validateAfterInactivity = pValidateAfterInactivity;
+            return this;
+        }
+
+        /**
+         * Sets the number of I/O threads used by the asynchronous request
+         * maker. A value of 0 uses one thread per available processor.
+         * It has no effect on the blocking request maker.
+         * @param pIoThreadCount The number of I/O threads.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder ioThreadCount(final int pIoThreadCount) {
+            this.config.ioThreadCount = pIoThreadCount;
+            return this;
+        }
+
+        /**
+         * Sets whether the server is asked for gzip or deflate compressed
+         * responses. Compressed responses are decompressed while they are
+         * read.
+         * @param pCompression True to ask for compressed responses.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder compression(final boolean pCompression) {
+            this.config.compression = pCompression;
+            return this;
+        }
+
+        /**
+         * Sets the response codes the callers expect, such as 404 for
+         * lookups that check whether an entity exists. The exceptions for
+         * these codes are built without a stack trace and without the
+         * payload, the parameters and the headers of the request, which
+         * makes them much cheaper to throw.
+         * @param codes The response codes.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder expectedStatusCodes(final int... codes) {
+            Set<Integer> set = new TreeSet<>();
+            for (int code : codes) {
+                set.add(code);
+            }
+            this.config.expectedStatusCodes =
+                    Collections.unmodifiableSet(set);
+            return this;
+        }
+
+        /**
+         * This method is used to create a new HttpClientConfig object.
+         * @return A new HttpClientConfig object.
+         * @throws OutsetaClientBuildException Thrown if any of the values is
+         *      out of range.
+         */
+        public HttpClientConfig build() throws OutsetaClientBuildException {
+
+            if (this.config.maxTotal <= 0 || this.config.maxPerRoute <= 0) {
+                throw new OutsetaClientBuildException(
+                        "Pool limits must be greater than 0.");
+            }
+            if (this.config.maxPerRoute > this.config.maxTotal) {
+                throw new OutsetaClientBuildException(
+                        "Max per route cannot be greater than max total.");
+            }
+            if (this.config.connectTimeout < 0
+                    || this.config.socketTimeout < 0
+                    || this.config.connectionRequestTimeout < 0
+                    || this.config.keepAlive < 0
+                    || this.config.maxIdleTime < 0
+                    || this.config.validateAfterInactivity < 0) {
+                throw new OutsetaClientBuildException(
+                        "Timeouts cannot be negative.");
+            }
+            if (this.config.ioThreadCount < 0) {
+                throw new OutsetaClientBuildException(
+                        "I/O thread count cannot be negative.");
+            }
+            for (int code : this.config.expectedStatusCodes) {
+                if (code < MIN_ERROR_CODE || code > MAX_CODE) {
+                    throw new OutsetaClientBuildException(
+                            "Expected status codes must be between "
+                                    + MIN_ERROR_CODE + " and " + MAX_CODE
+                                    + ".");
+                }
+            }
+
+            // The builder keeps its own copy, so that changing it after
+            // the build does not change the built config
+            return new HttpClientConfig(this.config);
+        }
+    }
+
+    /**
+     * The maximum number of connections in the pool.
+     */
+    private int maxTotal;
+
+    /**
+     * The maximum number of connections per route.
+     */
+    private int maxPerRoute;
+
+    /**
+     * The time to wait for a connection to be established.
+     */
+    private int connectTimeout;
+
+    /**
+     * The time to wait for data on an open connection.
+     */
+    private int socketTimeout;
+
+    /**
+     * The time to wait for a free connection from the pool.
+     */
+    private int connectionRequestTimeout;
+
+    /**
+     * The time a connection is kept alive.
+     */
+    private long keepAlive;
+
+    /**
+     * The time after which an idle connection is evicted.
+     */
+    private long maxIdleTime;
+
+    /**
+     * Whether expired connections are evicted in the background.
+     */
+    private boolean evictExpiredConnections;
+
+    /**
+     * The time after which an idle connection is checked before reuse.
+     */
+    private int validateAfterInactivity;
+
+    /**
+     * The number of I/O threads used by the asynchronous request maker.
+     */
+    private int ioThreadCount;
+
+    /**
+     * Whether the server is asked for compressed responses.
+     */
+    private boolean compression;
+
+    /**
+     * The response codes whose exceptions are built without a stack
+     * trace.
+     */
+    private Set<Integer> expectedStatusCodes;
+
+    /**
+     * The constructor is intentionally private to force the use of the
+     * builder.
+     */
+    private HttpClientConfig() {
+        this.maxTotal = DEFAULT_MAX_TOTAL;
+        this.maxPerRoute = DEFAULT_MAX_PER_ROUTE;
+        this.connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        this.socketTimeout = DEFAULT_SOCKET_TIMEOUT;
+        this.connectionRequestTimeout = DEFAULT_CONNECTION_REQUEST_TIMEOUT;
+        this.keepAlive = DEFAULT_KEEP_ALIVE;
+        this.maxIdleTime = DEFAULT_MAX_IDLE_TIME;
+        this.evictExpiredConnections = true;
+        this.validateAfterInactivity = DEFAULT_VALIDATE_AFTER_INACTIVITY;
+        this.ioThreadCount = DEFAULT_IO_THREAD_COUNT;
+        this.compression = true;
+        this.expectedStatusCodes = Collections.emptySet();
+    }
+
+    /**
+     * This constructor copies the values of another config.
+     * @param other The config to copy.
+     */
+    private HttpClientConfig(final HttpClientConfig other) {
+        this.maxTotal = other.maxTotal;
+        this.maxPerRoute = other.maxPerRoute;
+        this.connectTimeout = other.connectTimeout;
+        this.socketTimeout = other.socketTimeout;
+        this.connectionRequestTimeout = other.connectionRequestTimeout;
+        this.keepAlive = other.keepAlive;
+        this.maxIdleTime = other.maxIdleTime;
+        this.evictExpiredConnections = other.evictExpiredConnections;
+        this.validateAfterInactivity = other.validateAfterInactivity;
+        this.ioThreadCount = other.ioThreadCount;
+        this.compression = other.compression;
+        this.expectedStatusCodes = other.expectedStatusCodes;
+    }
+
+    /**
+     * This method is used to create a new builder object.
+     * @return A new builder object.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the maximum number of connections in the pool.
+     * @return The maximum number of connections in the pool.
+     */
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    /**
+     * Returns the maximum number of connections per route.
+     * @return The maximum number of connections per route.
+     */
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    /**
+     * Returns the connect timeout.
+     * @return The connect timeout in milliseconds.
+     */
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Returns the socket timeout.
+     * @return The socket timeout in milliseconds.
+     */
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    /**
+     * Returns the connection request timeout.
+     * @return The connection request timeout in milliseconds.
+     */
+    public int getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    /**
+     * Returns the keep alive time.
+     * @return The keep alive time in milliseconds.
+     */
+    public long getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Returns the time after which an idle connection is evicted.
+     * @return The maximum idle time in milliseconds.
+     */
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    /**
+     * Returns whether expired connections are evicted in the background.
+     * @return True if expired connections are evicted.
+     */
+    public boolean isEvictExpiredConnections() {
+        return evictExpiredConnections;
+    }
+
+    /**
+     * Returns the time after which an idle connection is checked before
+     * reuse.
+     * @return The time in milliseconds.
+     */
+    public int getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    /**
+     * Returns the number of I/O threads used by the asynchronous request
+     * maker.
+     * @return The number of I/O threads, or 0 for one per processor.
+     */
+    public int getIoThreadCount() {
+        return ioThreadCount;
+    }
+
+    /**
+     * Returns whether the server is asked for compressed responses.
+     * @return True if compressed responses are asked for.
+     */
+    public boolean isCompression() {
+        return compression;
+    }
+
+    /**
+     * Returns the response codes whose exceptions are built without a
+     * stack trace.
+     * @return The response codes, or an empty set.
+     */
+    public Set<Integer> getExpectedStatusCodes() {
+        return expectedStatusCodes;
+    }
+}
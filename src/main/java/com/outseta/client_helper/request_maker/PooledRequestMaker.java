@@ -0,0 +1,57 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.OutsetaInvalidURLException;
+
+import java.io.Closeable;
+
+/**
+ * This interface is implemented by request makers that own a pool of
+ * connections.
+ * <p>
+ *     Closing the request maker releases all pooled connections and stops
+ *     the background evictor. It must not be used after it is closed.
+ * </p>
+ * <p>
+ *     A request maker that owns its http client also decodes compressed
+ *     responses and counts the bytes they take on the wire.
+ * </p>
+ */
+public interface PooledRequestMaker extends RequestMaker, Closeable {
+
+    /**
+     * This method is used to get a snapshot of the connection pool.
+     * @return The current statistics of the pool.
+     */
+    ConnectionPoolStats getPoolStats();
+
+    /**
+     * This method is used to get a snapshot of the response bytes read.
+     * @return The bytes read from the connection and after decompression,
+     *      or null if the http client is not owned by this request maker.
+     */
+    TransferStats getTransferStats();
+
+    /**
+     * This method turns compressed responses on or off for the following
+     * requests. It has no effect if the http client is not owned by this
+     * request maker.
+     * @param compression True to ask for gzip or deflate compressed
+     *                    responses.
+     */
+    void setCompression(boolean compression);
+
+    /**
+     * This method opens connections to the host of a url ahead of the
+     * first requests and leaves them in the pool. The name lookup, the
+     * connection and the TLS handshake are done now instead of on the
+     * first calls. Connections that cannot be opened are skipped.
+     * @param url The url whose host is connected to.
+     * @param connections The number of connections to open. It is lowered
+     *                    to what the pool allows for the host.
+     * @return The number of connections open in the pool for the host, or
+     *      0 if this request maker cannot open connections ahead.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    int openConnections(String url, int connections)
+            throws OutsetaInvalidURLException;
+}
@@ -0,0 +1,175 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.constant.HttpMethod;
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaDeadlineExceededException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * This class takes a permit from a {@link RateLimiter} before every
+ * request, so that the clients sharing the limiter stay within the rate
+ * Outseta allows for their credentials.
+ * <p>
+ *     When it is wrapped by a {@link RetryingRequestMaker}, every retry
+ *     takes a permit as well. A call that cannot get a permit within the
+ *     maximum wait fails with an {@link OutsetaAPIFailedException} without
+ *     being sent. A call never waits past the {@link Deadline} entered by
+ *     its thread: if no permit is free in time, it fails with an
+ *     {@link OutsetaDeadlineExceededException} right away.
+ * </p>
+ * <p>
+ *     Asynchronous calls take their permit the same way, but do not block
+ *     the calling thread while they wait for it: the request is sent once
+ *     the permit is due.
+ * </p>
+ */
+public final class RateLimitedRequestMaker extends RequestMakerDecorator {
+
+    /**
+     * The maximum wait that means waiting for as long as needed.
+     */
+    public static final long WAIT_FOREVER = -1L;
+
+    /**
+     * The limiter the permits are taken from.
+     */
+    private final RateLimiter limiter;
+
+    /**
+     * The maximum time to wait for a permit in milliseconds, or
+     * {@link #WAIT_FOREVER}.
+     */
+    private final long maxWait;
+
+    /**
+     * This constructor is used to wrap a request maker. Calls wait for as
+     * long as needed to get a permit.
+     * @param pDelegate The request maker to wrap.
+     * @param pLimiter The limiter the permits are taken from.
+     */
+    public RateLimitedRequestMaker(final RequestMaker pDelegate,
+                                   final RateLimiter pLimiter) {
+        this(pDelegate, pLimiter, WAIT_FOREVER);
+    }
+
+    /**
+     * This constructor is used to wrap a request maker with a maximum
+     * wait for a permit.
+     * @param pDelegate The request maker to wrap.
+     * @param pLimiter The limiter the permits are taken from.
+     * @param pMaxWait The maximum time to wait for a permit in
+     *                 milliseconds, or {@link #WAIT_FOREVER}.
+     */
+    public RateLimitedRequestMaker(final RequestMaker pDelegate,
+                                   final RateLimiter pLimiter,
+                                   final long pMaxWait) {
+        super(pDelegate);
+        this.limiter = pLimiter;
+        this.maxWait = pMaxWait;
+    }
+
+    @Override
+    protected <T> T invoke(final HttpMethod method, final String url,
+                           final RequestCall<T> call)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        Deadline deadline = Deadline.current();
+        long wait = this.maxWait(deadline);
+
+        try {
+            if (wait < 0) {
+                this.limiter.acquire();
+            } else if (!this.limiter.tryAcquire(wait,
+                    TimeUnit.MILLISECONDS)) {
+                throw this.rejection(url, deadline, wait);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutsetaAPIFailedException(
+                    "Interrupted while waiting for the rate limit.", url,
+                    null, null, null, null, e);
+        }
+
+        return call.call();
+    }
+
+    @Override
+    protected CompletableFuture<String> invokeAsync(
+            final HttpMethod method, final String url,
+            final Supplier<CompletableFuture<String>> call) {
+
+        Deadline deadline = Deadline.current();
+        long wait = this.maxWait(deadline);
+        long due = this.limiter.tryReserve(wait, TimeUnit.MILLISECONDS);
+        if (due < 0) {
+            return failed(this.rejection(url, deadline, wait));
+        }
+        if (due == 0) {
+            return call.get();
+        }
+        return later(call, due, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * This method finds the maximum time a call may wait for a permit.
+     * @param deadline The deadline of the call, or null.
+     * @return The maximum wait in milliseconds, or a negative value to
+     *      wait for as long as needed.
+     */
+    private long maxWait(final Deadline deadline) {
+        if (deadline == null) {
+            return this.maxWait;
+        }
+        long remaining = deadline.remaining(TimeUnit.MILLISECONDS);
+        return this.maxWait < 0 ? remaining
+                : Math.min(this.maxWait, remaining);
+    }
+
+    /**
+     * This method creates the failure of a call that got no permit in
+     * time.
+     * @param url The url of the call.
+     * @param deadline The deadline of the call, or null.
+     * @param wait The time the call was allowed to wait in milliseconds.
+     * @return The failure.
+     */
+    private OutsetaAPIFailedException rejection(final String url,
+                                                final Deadline deadline,
+                                                final long wait) {
+        if (deadline != null && (this.maxWait < 0 || wait < this.maxWait)) {
+            return new OutsetaDeadlineExceededException(
+                    "The rate limit allows no request before the deadline "
+                            + "of the call.", url, null, null, null, null);
+        }
+        return new OutsetaAPIFailedException(
+                "The rate limit allows no request within " + this.maxWait
+                        + " ms.", url, null, null, null, null, null);
+    }
+
+    /**
+     * This method is used to get the limiter of the request maker.
+     * @return The rate limiter.
+     */
+    public RateLimiter getLimiter() {
+        return this.limiter;
+    }
+
+    /**
+     * This method is used to get the maximum time to wait for a permit.
+     * @return The maximum wait in milliseconds, or {@link #WAIT_FOREVER}.
+     */
+    public long getMaxWait() {
+        return this.maxWait;
+    }
+}
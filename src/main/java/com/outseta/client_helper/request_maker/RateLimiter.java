@@ -0,0 +1,427 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.OutsetaClientBuildException;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * This class limits the rate of requests sent to the Outseta API with a
+ * token bucket.
+ * <p>
+ *     Permits are handed out at a fixed interval, so that requests are
+ *     spread evenly over time instead of being sent in bursts. A limiter
+ *     that has been idle hands out up to {@link #getBurst()} permits right
+ *     away. A caller that has to wait sleeps until its permit is due
+ *     instead of spinning.
+ * </p>
+ * <p>
+ *     Outseta limits requests per API key, so all clients that use the
+ *     same credentials should share one limiter. {@link #shared} keeps one
+ *     limiter for each base url and Authorization header. The header is
+ *     only kept as a hash, and a limiter is dropped once no client uses
+ *     it.
+ * </p>
+ */
+public final class RateLimiter {
+
+    /**
+     * The default number of permits an idle limiter hands out at once.
+     */
+    public static final int DEFAULT_BURST = 1;
+
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    /**
+     * The limiters shared by the clients, keyed by a hash of the base url
+     * and credentials. They are only weakly held, so a limiter no client
+     * uses any more can be collected.
+     */
+    private static final ConcurrentMap<String, WeakReference<RateLimiter>>
+            SHARED = new ConcurrentHashMap<>();
+
+    /**
+     * This interface is used to wait for a permit.
+     */
+    @FunctionalInterface
+    interface Sleeper {
+
+        /**
+         * This method waits for the given time.
+         * @param nanos The time to wait in nanoseconds.
+         * @throws InterruptedException If the thread is interrupted.
+         */
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    /**
+     * This class is used to build a RateLimiter object.
+     */
+    public static final class Builder {
+
+        /**
+         * The number of permits handed out per second.
+         */
+        private final double permitsPerSecond;
+
+        /**
+         * The number of permits an idle limiter hands out at once.
+         */
+        private int burst;
+
+        /**
+         * The constructor for Builder.
+         * @param pPermitsPerSecond The number of permits handed out per
+         *                          second.
+         */
+        private Builder(final double pPermitsPerSecond) {
+            this.permitsPerSecond = pPermitsPerSecond;
+            this.burst = DEFAULT_BURST;
+        }
+
+        /**
+         * Sets the number of permits that an idle limiter hands out at
+         * once.
+         * @param pBurst The number of permits.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder burst(final int pBurst) {
+            this.burst = pBurst;
+            return this;
+        }
+
+        /**
+         * This method is used to create a new RateLimiter object.
+         * @return A new RateLimiter object.
+         * @throws OutsetaClientBuildException Thrown if the rate or the
+         *      burst is not greater than 0.
+         */
+        public RateLimiter build() throws OutsetaClientBuildException {
+            validate(this.permitsPerSecond, this.burst);
+            return new RateLimiter(this.permitsPerSecond, this.burst,
+                    System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+        }
+    }
+
+    /**
+     * The time between two permits in nanoseconds.
+     */
+    private final long interval;
+
+    /**
+     * How far ahead of its due time a permit may be taken, in
+     * nanoseconds. It lets an idle limiter hand out its burst at once.
+     */
+    private final long tolerance;
+
+    /**
+     * The number of permits handed out per second.
+     */
+    private final double permitsPerSecond;
+
+    /**
+     * The number of permits an idle limiter hands out at once.
+     */
+    private final int burst;
+
+    /**
+     * The clock used to hand out permits, in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The method used to wait for a permit.
+     */
+    private final Sleeper sleeper;
+
+    /**
+     * The time at which the next permit is due.
+     */
+    private long nextDue;
+
+    /**
+     * The number of permits that had to be waited for.
+     */
+    private final AtomicLong throttled;
+
+    /**
+     * The total time spent waiting for permits in nanoseconds.
+     */
+    private final AtomicLong throttledNanos;
+
+    /**
+     * The number of permits that were not given within the timeout.
+     */
+    private final AtomicLong rejected;
+
+    /**
+     * This constructor is used to create a limiter with a custom clock.
+     * @param pPermitsPerSecond The number of permits handed out per second.
+     * @param pBurst The number of permits an idle limiter hands out at
+     *               once.
+     * @param pClock The clock used to hand out permits, in nanoseconds.
+     * @param pSleeper The method used to wait for a permit.
+     */
+    RateLimiter(final double pPermitsPerSecond, final int pBurst,
+                final LongSupplier pClock, final Sleeper pSleeper) {
+        this.permitsPerSecond = pPermitsPerSecond;
+        this.interval = Math.max(1L,
+                (long) (NANOS_PER_SECOND / pPermitsPerSecond));
+        this.tolerance = (pBurst - 1) * this.interval;
+        this.burst = pBurst;
+        this.clock = pClock;
+        this.sleeper = pSleeper;
+        this.nextDue = pClock.getAsLong();
+        this.throttled = new AtomicLong();
+        this.throttledNanos = new AtomicLong();
+        this.rejected = new AtomicLong();
+    }
+
+    /**
+     * This method is used to create a new builder object.
+     * @param permitsPerSecond The number of permits handed out per second.
+     * @return A new builder object.
+     */
+    public static Builder builder(final double permitsPerSecond) {
+        return new Builder(permitsPerSecond);
+    }
+
+    /**
+     * This method returns the limiter shared by all clients that send
+     * requests to the same base url with the same Authorization header.
+     * The limiter is created by the first call and later calls get the
+     * same limiter while a client still uses it. The header is read when
+     * the call is made, so a client built after the credentials are
+     * rotated gets the limiter of the new credentials.
+     * @param baseUrl The base url of the Outseta API.
+     * @param authorization The Authorization header of the clients.
+     * @param permitsPerSecond The number of permits handed out per second.
+     * @param burst The number of permits an idle limiter hands out at once.
+     * @return The shared limiter.
+     * @throws OutsetaClientBuildException Thrown if the rate or the burst
+     *      is not greater than 0, or if the shared limiter was created
+     *      with another rate or burst.
+     */
+    public static RateLimiter shared(final String baseUrl,
+                                     final String authorization,
+                                     final double permitsPerSecond,
+                                     final int burst)
+            throws OutsetaClientBuildException {
+        validate(permitsPerSecond, burst);
+
+        // Limiters that are no longer used are dropped on the way
+        SHARED.values().removeIf(reference -> reference.get() == null);
+
+        String key = key(baseUrl, authorization);
+        RateLimiter limiter;
+        while (true) {
+            WeakReference<RateLimiter> reference = SHARED.get(key);
+            limiter = reference == null ? null : reference.get();
+            if (limiter != null) {
+                break;
+            }
+            RateLimiter created = new RateLimiter(permitsPerSecond, burst,
+                    System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+            WeakReference<RateLimiter> added = new WeakReference<>(created);
+            boolean stored = reference == null
+                    ? SHARED.putIfAbsent(key, added) == null
+                    : SHARED.replace(key, reference, added);
+            if (stored) {
+                return created;
+            }
+        }
+
+        if (limiter.permitsPerSecond != permitsPerSecond
+                || limiter.burst != burst) {
+            throw new OutsetaClientBuildException(
+                    "The rate limiter shared by these credentials allows "
+                            + limiter.permitsPerSecond + " requests per "
+                            + "second with a burst of " + limiter.burst
+                            + ", not " + permitsPerSecond + " with a "
+                            + "burst of " + burst + ".");
+        }
+        return limiter;
+    }
+
+    /**
+     * This method computes the key of a shared limiter. The credentials
+     * are hashed so that they are not kept in memory by the registry.
+     * @param baseUrl The base url of the Outseta API.
+     * @param authorization The Authorization header of the clients.
+     * @return The key.
+     */
+    private static String key(final String baseUrl,
+                              final String authorization) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(baseUrl)
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(authorization)
+                    .getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * This method checks the settings of a limiter.
+     * @param permitsPerSecond The number of permits handed out per second.
+     * @param burst The number of permits an idle limiter hands out at once.
+     * @throws OutsetaClientBuildException Thrown if the rate or the burst
+     *      is not greater than 0.
+     */
+    private static void validate(final double permitsPerSecond,
+                                 final int burst)
+            throws OutsetaClientBuildException {
+        if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+            throw new OutsetaClientBuildException(
+                    "Permits per second must be greater than 0.");
+        }
+        if (burst <= 0) {
+            throw new OutsetaClientBuildException(
+                    "Burst must be greater than 0.");
+        }
+    }
+
+    /**
+     * This method waits until a permit is free and takes it.
+     * @throws InterruptedException If the thread is interrupted while
+     *      waiting. The permit is still used up.
+     */
+    public void acquire() throws InterruptedException {
+        this.await(this.reserve(Long.MAX_VALUE));
+    }
+
+    /**
+     * This method takes a permit if it is free within the timeout. If it
+     * is not, no permit is taken and the method returns right away
+     * instead of waiting for the timeout to pass.
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of the timeout.
+     * @return True if a permit was taken.
+     * @throws InterruptedException If the thread is interrupted while
+     *      waiting. The permit is still used up.
+     */
+    public boolean tryAcquire(final long timeout, final TimeUnit unit)
+            throws InterruptedException {
+        long wait = this.reserve(Math.max(0, unit.toNanos(timeout)));
+        if (wait < 0) {
+            this.rejected.incrementAndGet();
+            return false;
+        }
+        this.await(wait);
+        return true;
+    }
+
+    /**
+     * This method takes a permit if it is free within the timeout without
+     * waiting for it, for a caller that sends its request later instead of
+     * blocking. The wait is counted as if the caller had slept.
+     * @param timeout The maximum time to wait, or a negative value to wait
+     *                for as long as needed.
+     * @param unit The unit of the timeout.
+     * @return The time in nanoseconds until the permit is due, or -1 if no
+     *      permit is free in time and none was taken.
+     */
+    long tryReserve(final long timeout, final TimeUnit unit) {
+        long wait = this.reserve(timeout < 0
+                ? Long.MAX_VALUE : unit.toNanos(timeout));
+        if (wait < 0) {
+            this.rejected.incrementAndGet();
+        } else if (wait > 0) {
+            this.throttled.incrementAndGet();
+            this.throttledNanos.addAndGet(wait);
+        }
+        return wait;
+    }
+
+    /**
+     * This method reserves the next permit if it is free within the given
+     * time.
+     * @param maxWait The maximum time to wait in nanoseconds.
+     * @return The time to wait for the permit in nanoseconds, or -1 if the
+     *      permit is not free in time and was not reserved.
+     */
+    private synchronized long reserve(final long maxWait) {
+        long now = this.clock.getAsLong();
+
+        // A permit that is due in the past is due now, so an idle limiter
+        // never hands out more than its burst
+        long due = Math.max(this.nextDue, now);
+        long wait = Math.max(0L, due - this.tolerance - now);
+        if (wait > maxWait) {
+            return -1;
+        }
+
+        this.nextDue = due + this.interval;
+        return wait;
+    }
+
+    /**
+     * This method waits for a reserved permit.
+     * @param wait The time to wait in nanoseconds.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    private void await(final long wait) throws InterruptedException {
+        if (wait <= 0) {
+            return;
+        }
+        this.throttled.incrementAndGet();
+        this.throttledNanos.addAndGet(wait);
+        this.sleeper.sleep(wait);
+    }
+
+    /**
+     * Returns the number of permits handed out per second.
+     * @return The number of permits per second.
+     */
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * Returns the number of permits an idle limiter hands out at once.
+     * @return The number of permits.
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Returns the number of permits that had to be waited for.
+     * @return The number of throttled calls.
+     */
+    public long getThrottled() {
+        return this.throttled.get();
+    }
+
+    /**
+     * Returns the total time spent waiting for permits.
+     * @return The time in milliseconds.
+     */
+    public long getThrottledTime() {
+        return TimeUnit.NANOSECONDS.toMillis(this.throttledNanos.get());
+    }
+
+    /**
+     * Returns the number of permits that were not free within the timeout
+     * of {@link #tryAcquire(long, TimeUnit)}.
+     * @return The number of rejected calls.
+     */
+    public long getRejected() {
+        return this.rejected.get();
+    }
+}
@@ -0,0 +1,495 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.constant.HttpMethod;
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * This class is the base class for request makers that add behaviour
+ * around another request maker.
+ * <p>
+ *     All four HTTP methods are funneled through
+ *     {@link #invoke(HttpMethod, String, RequestCall)} so that a decorator
+ *     only needs to implement its behaviour once. Decorators can be
+ *     stacked on top of each other.
+ * </p>
+ * <p>
+ *     Streamed get requests go through the decorator as well. If the
+ *     wrapped request maker cannot stream, the body is read whole and
+ *     handed over as a stream.
+ * </p>
+ * <p>
+ *     Payloads that are already encoded as UTF-8 are passed on as they
+ *     are. If the wrapped request maker cannot send them, they are turned
+ *     back into a string.
+ * </p>
+ * <p>
+ *     Asynchronous requests go through the decorator as well, through
+ *     {@link #invokeAsync(HttpMethod, String, Supplier)}, so that hedged
+ *     and asynchronous calls are paced, retried and counted like blocking
+ *     ones. They fail if the wrapped request maker cannot make
+ *     asynchronous calls. A decorator that has to wait before an
+ *     asynchronous request schedules it on a shared timer instead of
+ *     blocking the calling thread.
+ * </p>
+ */
+public abstract class RequestMakerDecorator
+        implements StreamingRequestMaker, BytePayloadRequestMaker,
+        AsyncRequestMaker {
+
+    /**
+     * The timer used to send the delayed asynchronous requests of all
+     * decorators.
+     */
+    private static final ScheduledExecutorService TIMER = timer();
+
+    /**
+     * This interface represents a call to the wrapped request maker.
+     * @param <T> The type of the result of the call.
+     */
+    @FunctionalInterface
+    protected interface RequestCall<T> {
+
+        /**
+         * This method executes the call.
+         * @return The result of the call.
+         * @throws OutsetaAPIBadRequestException If the request is bad.
+         * @throws OutsetaAPIFailedException If the request fails.
+         * @throws OutsetaInvalidResponseCodeException If the response code is
+         *      invalid.
+         * @throws OutsetaAPIUnknownException If the request fails for an
+         *      unknown reason.
+         * @throws OutsetaInvalidURLException If the url is invalid.
+         */
+        T call() throws OutsetaAPIBadRequestException,
+                OutsetaAPIFailedException,
+                OutsetaInvalidResponseCodeException,
+                OutsetaAPIUnknownException,
+                OutsetaInvalidURLException;
+    }
+
+    /**
+     * The request maker that is wrapped by this decorator.
+     */
+    private final RequestMaker delegate;
+
+    /**
+     * This constructor is used to wrap a request maker.
+     * @param pDelegate The request maker to wrap.
+     */
+    protected RequestMakerDecorator(final RequestMaker pDelegate) {
+        this.delegate = pDelegate;
+    }
+
+    /**
+     * This method is called for every request that goes through the
+     * decorator.
+     * @param method The HTTP method of the request.
+     * @param url The url of the request.
+     * @param call The call to the wrapped request maker.
+     * @param <T> The type of the result of the call.
+     * @return The result of the call.
+     * @throws OutsetaAPIBadRequestException If the request is bad.
+     * @throws OutsetaAPIFailedException If the request fails.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIUnknownException If the request fails for an unknown
+     *      reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    protected abstract <T> T invoke(HttpMethod method, String url,
+                                    RequestCall<T> call)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException;
+
+    /**
+     * This method is called for every asynchronous request that goes
+     * through the decorator. It must not block: a decorator that has to
+     * wait returns a future and sends the request later. The default
+     * sends the request right away.
+     * @param method The HTTP method of the request.
+     * @param url The url of the request.
+     * @param call The call to the wrapped request maker. It returns at once
+     *             with the future of the request.
+     * @return A future that is completed with the response body. Cancelling
+     *      it cancels the request.
+     */
+    protected CompletableFuture<String> invokeAsync(
+            final HttpMethod method, final String url,
+            final Supplier<CompletableFuture<String>> call) {
+        return call.get();
+    }
+
+    /**
+     * This method creates the timer used to send the delayed asynchronous
+     * requests. Its thread is a daemon so that it does not keep the
+     * application alive.
+     * @return The timer.
+     */
+    private static ScheduledExecutorService timer() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                1, runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "outseta-request-timer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * This method sends an asynchronous request after a delay without
+     * blocking the calling thread. The request is sent within the
+     * {@link Deadline} entered by the calling thread. Cancelling the
+     * returned future cancels the request, or keeps it from being sent.
+     * @param call The call that sends the request.
+     * @param delay The time to wait before the request is sent.
+     * @param unit The unit of the delay.
+     * @return A future that is completed with the response body.
+     */
+    protected static CompletableFuture<String> later(
+            final Supplier<CompletableFuture<String>> call, final long delay,
+            final TimeUnit unit) {
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<String>> attempt =
+                new AtomicReference<>();
+        Deadline deadline = Deadline.current();
+
+        Future<?> task = TIMER.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            CompletableFuture<String> started = start(call, deadline);
+            attempt.set(started);
+            started.whenComplete((response, error) -> {
+                if (error == null) {
+                    result.complete(response);
+                } else {
+                    result.completeExceptionally(error);
+                }
+            });
+            // The result may have been cancelled before the attempt was
+            // known
+            if (result.isCancelled()) {
+                started.cancel(true);
+            }
+        }, delay, unit);
+
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(false);
+                CompletableFuture<String> started = attempt.get();
+                if (started != null) {
+                    started.cancel(true);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * This method sends an asynchronous request within a deadline. A call
+     * that throws instead of returning a future gives a failed future.
+     * @param call The call that sends the request.
+     * @param deadline The deadline of the request, or null.
+     * @return The future of the request.
+     */
+    static CompletableFuture<String> start(
+            final Supplier<CompletableFuture<String>> call,
+            final Deadline deadline) {
+        try (Deadline.Scope scope = deadline == null
+                ? null : deadline.enter()) {
+            return call.get();
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * This method creates a future that has already failed.
+     * @param e The reason of the failure.
+     * @return The failed future.
+     */
+    protected static CompletableFuture<String> failed(final Throwable e) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        result.completeExceptionally(e);
+        return result;
+    }
+
+    /**
+     * This method is called with the body of a streamed get request while
+     * the call is still in flight. The body is read after the call
+     * returns, so a decorator that keeps track of its calls can override
+     * this method to follow the body until it is closed.
+     * @param stream The body of the response.
+     * @return The body handed to the caller.
+     */
+    protected ResponseStream onStream(final ResponseStream stream) {
+        return stream;
+    }
+
+    /**
+     * This method is used to get the wrapped request maker.
+     * @return The wrapped request maker.
+     */
+    public final RequestMaker getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * This method looks through a chain of decorators for a request maker
+     * of the given type. The outermost match is returned, so a decorator
+     * that implements the type itself hides the ones it wraps.
+     * @param requestMaker The outermost request maker.
+     * @param type The type to look for.
+     * @param <T> The type to look for.
+     * @return The request maker, or null if none in the chain has the type.
+     */
+    public static <T> T unwrap(
+            final RequestMaker requestMaker, final Class<T> type) {
+        RequestMaker current = requestMaker;
+        while (current != null) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+            if (!(current instanceof RequestMakerDecorator)) {
+                break;
+            }
+            current = ((RequestMakerDecorator) current).getDelegate();
+        }
+        return null;
+    }
+
+    /**
+     * This method looks through a chain of decorators for the request maker
+     * that sends the requests.
+     * @param requestMaker The outermost request maker.
+     * @return The innermost request maker, or null if the given one is
+     *      null.
+     */
+    public static RequestMaker innermost(final RequestMaker requestMaker) {
+        RequestMaker current = requestMaker;
+        while (current instanceof RequestMakerDecorator) {
+            current = ((RequestMakerDecorator) current).getDelegate();
+        }
+        return current;
+    }
+
+    @Override
+    public final String get(final String url,
+                            final Map<String, Object> parameters,
+                            final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        return this.invoke(HttpMethod.GET, url,
+                () -> this.delegate.get(url, parameters, headers));
+    }
+
+    @Override
+    public final ResponseStream getStream(
+            final String url, final Map<String, Object> parameters,
+            final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        if (!(this.delegate instanceof StreamingRequestMaker)) {
+            return ResponseStream.of(this.get(url, parameters, headers));
+        }
+        StreamingRequestMaker streaming = (StreamingRequestMaker) this.delegate;
+        return this.invoke(HttpMethod.GET, url, () -> this.onStream(
+                streaming.getStream(url, parameters, headers)));
+    }
+
+    @Override
+    public final String put(final String url,
+                            final Map<String, Object> parameters,
+                            final String payload,
+                            final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        return this.invoke(HttpMethod.PUT, url,
+                () -> this.delegate.put(url, parameters, payload, headers));
+    }
+
+    @Override
+    public final String post(final String url,
+                             final Map<String, Object> parameters,
+                             final String payload,
+                             final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        return this.invoke(HttpMethod.POST, url,
+                () -> this.delegate.post(url, parameters, payload, headers));
+    }
+
+    @Override
+    public final String putBytes(final String url,
+                                 final Map<String, Object> parameters,
+                                 final byte[] payload,
+                                 final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        if (!(this.delegate instanceof BytePayloadRequestMaker)) {
+            return this.put(url, parameters, decode(payload), headers);
+        }
+        BytePayloadRequestMaker bytes = (BytePayloadRequestMaker) this.delegate;
+        return this.invoke(HttpMethod.PUT, url,
+                () -> bytes.putBytes(url, parameters, payload, headers));
+    }
+
+    @Override
+    public final String postBytes(final String url,
+                                  final Map<String, Object> parameters,
+                                  final byte[] payload,
+                                  final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        if (!(this.delegate instanceof BytePayloadRequestMaker)) {
+            return this.post(url, parameters, decode(payload), headers);
+        }
+        BytePayloadRequestMaker bytes = (BytePayloadRequestMaker) this.delegate;
+        return this.invoke(HttpMethod.POST, url,
+                () -> bytes.postBytes(url, parameters, payload, headers));
+    }
+
+    /**
+     * This method turns an encoded payload back into a string for a
+     * request maker that cannot send bytes.
+     * @param payload The payload encoded as UTF-8, or null.
+     * @return The payload, or null.
+     */
+    private static String decode(final byte[] payload) {
+        return payload == null
+                ? null : new String(payload, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public final String delete(final String url,
+                               final Map<String, Object> parameters,
+                               final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        return this.invoke(HttpMethod.DELETE, url,
+                () -> this.delegate.delete(url, parameters, headers));
+    }
+
+    @Override
+    public final String urlEncodePayloadAttribute(final String value)
+            throws OutsetaInvalidURLException {
+        return this.delegate.urlEncodePayloadAttribute(value);
+    }
+
+    @Override
+    public final CompletableFuture<String> getAsync(
+            final String url, final Map<String, Object> parameters,
+            final Map<String, String> headers) {
+        return this.sendAsync(HttpMethod.GET, url,
+                async -> async.getAsync(url, parameters, headers));
+    }
+
+    @Override
+    public final CompletableFuture<String> putAsync(
+            final String url, final Map<String, Object> parameters,
+            final String payload, final Map<String, String> headers) {
+        return this.sendAsync(HttpMethod.PUT, url,
+                async -> async.putAsync(url, parameters, payload, headers));
+    }
+
+    @Override
+    public final CompletableFuture<String> postAsync(
+            final String url, final Map<String, Object> parameters,
+            final String payload, final Map<String, String> headers) {
+        return this.sendAsync(HttpMethod.POST, url,
+                async -> async.postAsync(url, parameters, payload, headers));
+    }
+
+    @Override
+    public final CompletableFuture<String> deleteAsync(
+            final String url, final Map<String, Object> parameters,
+            final Map<String, String> headers) {
+        return this.sendAsync(HttpMethod.DELETE, url,
+                async -> async.deleteAsync(url, parameters, headers));
+    }
+
+    /**
+     * This method sends an asynchronous request through the decorator.
+     * @param method The HTTP method of the request.
+     * @param url The url of the request.
+     * @param request The request sent with the wrapped request maker.
+     * @return A future that is completed with the response body, or that
+     *      fails with an {@link OutsetaAPIFailedException} if the wrapped
+     *      request maker cannot make asynchronous calls.
+     */
+    private CompletableFuture<String> sendAsync(
+            final HttpMethod method, final String url,
+            final Function<AsyncRequestMaker, CompletableFuture<String>>
+                    request) {
+
+        if (!(this.delegate instanceof AsyncRequestMaker)) {
+            return failed(new OutsetaAPIFailedException(
+                    "The request maker does not support asynchronous "
+                            + "calls.", url, null, null, null, null, null));
+        }
+        AsyncRequestMaker async = (AsyncRequestMaker) this.delegate;
+        return this.invokeAsync(method, url, () -> request.apply(async));
+    }
+
+    /**
+     * This method closes the wrapped request maker if it can be closed.
+     * @throws IOException If the wrapped request maker cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.delegate instanceof Closeable) {
+            ((Closeable) this.delegate).close();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.outseta.client_helper.request_maker;
 
 import com.outseta.constant.RequestMakerType;
+import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidRequestMakerException;
 
 /**
@@ -32,6 +33,26 @@ public final class RequestMakerFactory {
             case HTTP_CLIENT:
                 requestMaker = new RequestMakerHttpClient();
                 break;
+            case POOLED_HTTP_CLIENT:
+                try {
+                    requestMaker = new RequestMakerHttpClient(
+                            HttpClientConfig.builder().build());
+                } catch (OutsetaClientBuildException e) {
+                    // The default config is always valid.
+                    throw new OutsetaInvalidRequestMakerException(
+                            e.getMessage());
+                }
+                break;
+            case ASYNC_HTTP_CLIENT:
+                try {
+                    requestMaker = new RequestMakerHttpAsyncClient(
+                            HttpClientConfig.builder().build());
+                } catch (OutsetaClientBuildException e) {
+                    // The default config is always valid.
+                    throw new OutsetaInvalidRequestMakerException(
+                            e.getMessage());
+                }
+                break;
             default:
                 throw new OutsetaInvalidRequestMakerException(
                         "Invalid request maker type.");
@@ -39,4 +60,44 @@ public final class RequestMakerFactory {
 
         return requestMaker;
     }
+
+    /**
+     * This method is used to get a pooled request maker tuned by the given
+     * config.
+     * @param config The settings of the connection pool.
+     * @return The pooled request maker.
+     * @throws OutsetaInvalidRequestMakerException Thrown if the config is
+     *      null.
+     */
+    public static PooledRequestMaker getPooledRequestMaker(
+            final HttpClientConfig config)
+            throws OutsetaInvalidRequestMakerException {
+
+        if (config == null) {
+            throw new OutsetaInvalidRequestMakerException(
+                    "Http client config cannot be null.");
+        }
+
+        return new RequestMakerHttpClient(config);
+    }
+
+    /**
+     * This method is used to get a non-blocking request maker tuned by the
+     * given config.
+     * @param config The settings of the connection pool and I/O threads.
+     * @return The asynchronous request maker.
+     * @throws OutsetaInvalidRequestMakerException Thrown if the config is
+     *      null or the I/O reactor cannot be started.
+     */
+    public static AsyncRequestMaker getAsyncRequestMaker(
+            final HttpClientConfig config)
+            throws OutsetaInvalidRequestMakerException {
+
+        if (config == null) {
+            throw new OutsetaInvalidRequestMakerException(
+                    "Http client config cannot be null.");
+        }
+
+        return new RequestMakerHttpAsyncClient(config);
+    }
 }
@@ -0,0 +1,513 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.OutsetaInvalidRequestMakerException;
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaDeadlineExceededException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * This class is intentionally non-public. No one needs to know about its
+ * existence and user must use RequestMakerFactory.
+ *
+ * This class sends requests with the non-blocking HttpAsyncClient. The
+ * requests are multiplexed over a small number of I/O threads, so a large
+ * number of calls can be in flight without a thread for each of them.
+ *
+ * The blocking methods of {@link RequestMaker} are also supported. They
+ * send the request in the same way and wait for the result, so a single
+ * instance can be shared by blocking and asynchronous callers.
+ *
+ * The connections are kept in a pool owned by this class and are released
+ * by calling {@link #close()}. Idle connections are closed by the I/O
+ * reactor as soon as the server closes them.
+ *
+ * HttpAsyncClient does not decompress responses itself, so compressed
+ * responses are decoded by a {@link ContentDecoder} once they have been
+ * received. The body is decoded and read on the pool of
+ * {@link ResponseThreads}, so the I/O threads only move bytes.
+ */
+class RequestMakerHttpAsyncClient implements AsyncRequestMaker,
+        PooledRequestMaker {
+
+    /**
+     * This field is used to make the HTTP requests.
+     */
+    private final CloseableHttpAsyncClient httpClient;
+
+    /**
+     * The pool of connections used by the http client. It is null if the
+     * http client was provided from outside.
+     */
+    private final PoolingNHttpClientConnectionManager connectionManager;
+
+    /**
+     * The settings every request starts from. The timeouts of a request
+     * are lowered to fit the deadline of its call.
+     */
+    private final RequestConfig requestConfig;
+
+    /**
+     * The decoder of compressed responses. It is null if the http client
+     * was provided from outside.
+     */
+    private final ContentDecoder contentDecoder;
+
+    /**
+     * The response codes whose exceptions are built without a stack trace.
+     */
+    private final Set<Integer> expectedStatusCodes;
+
+    /**
+     * The executor that decodes and reads the responses.
+     */
+    private final Executor responseExecutor = ResponseThreads.executor();
+
+    /**
+     * This field is used to store the minimum success code.
+     */
+    private static final int MIN_SUCCESS_CODE = 200;
+
+    /**
+     * This field is used to store the maximum success code.
+     */
+    private static final int MAX_SUCCESS_CODE = 299;
+
+    /**
+     * This constructor is used to create a RequestMakerHttpAsyncClient
+     * object with a custom HttpAsyncClient and the pool used by it. The
+     * client is started if it is not running yet.
+     * @param pHttpClient The HttpAsyncClient to be used to make the
+     *                    requests.
+     * @param pConnectionManager The pool used by the HttpAsyncClient.
+     */
+    RequestMakerHttpAsyncClient(final CloseableHttpAsyncClient pHttpClient,
+                                final PoolingNHttpClientConnectionManager
+                                        pConnectionManager) {
+        this.httpClient = pHttpClient;
+        this.connectionManager = pConnectionManager;
+        this.requestConfig = RequestConfig.DEFAULT;
+        this.contentDecoder = null;
+        this.expectedStatusCodes = Collections.emptySet();
+
+        if (!this.httpClient.isRunning()) {
+            this.httpClient.start();
+        }
+    }
+
+    /**
+     * This constructor is used to create a RequestMakerHttpAsyncClient
+     * object with a pooled HttpAsyncClient tuned by the given config.
+     * @param config The settings of the pool.
+     * @throws OutsetaInvalidRequestMakerException If the I/O reactor cannot
+     *      be started.
+     */
+    RequestMakerHttpAsyncClient(final HttpClientConfig config)
+            throws OutsetaInvalidRequestMakerException {
+
+        IOReactorConfig.Builder ioConfig = IOReactorConfig.custom()
+                .setConnectTimeout(config.getConnectTimeout())
+                .setSoTimeout(config.getSocketTimeout());
+        if (config.getIoThreadCount() > 0) {
+            ioConfig.setIoThreadCount(config.getIoThreadCount());
+        }
+
+        try {
+            this.connectionManager = new PoolingNHttpClientConnectionManager(
+                    new DefaultConnectingIOReactor(ioConfig.build()));
+        } catch (IOReactorException e) {
+            throw new OutsetaInvalidRequestMakerException(
+                    "Cannot start the I/O reactor: " + e.getMessage());
+        }
+        this.connectionManager.setMaxTotal(config.getMaxTotal());
+        this.connectionManager.setDefaultMaxPerRoute(config.getMaxPerRoute());
+
+        this.requestConfig = RequestConfig.custom()
+                .setConnectTimeout(config.getConnectTimeout())
+                .setSocketTimeout(config.getSocketTimeout())
+                .setConnectionRequestTimeout(
+                        config.getConnectionRequestTimeout())
+                .build();
+
+        // The response interceptors run before the body is received, so
+        // the body is decoded once the response is complete
+        this.contentDecoder = new ContentDecoder(config.isCompression());
+        this.expectedStatusCodes = config.getExpectedStatusCodes();
+        this.httpClient = HttpAsyncClients.custom()
+                .addInterceptorLast(
+                        (HttpRequestInterceptor) this.contentDecoder)
+                .setConnectionManager(this.connectionManager)
+                .setDefaultRequestConfig(this.requestConfig)
+                .setKeepAliveStrategy(RequestMakerHttpClient
+                        .keepAliveStrategy(config.getKeepAlive()))
+                .build();
+        this.httpClient.start();
+    }
+
+    /**
+     * This method is used to get a snapshot of the connection pool.
+     * @return The current statistics of the pool, or null if the pool is
+     *      not owned by this request maker.
+     */
+    @Override
+    public ConnectionPoolStats getPoolStats() {
+        if (this.connectionManager == null) {
+            return null;
+        }
+        PoolStats stats = this.connectionManager.getTotalStats();
+        return new ConnectionPoolStats(stats.getLeased(), stats.getPending(),
+                stats.getAvailable(), stats.getMax());
+    }
+
+    /**
+     * This method is used to get a snapshot of the response bytes read.
+     * @return The statistics, or null if the http client is not owned by
+     *      this request maker.
+     */
+    @Override
+    public TransferStats getTransferStats() {
+        return this.contentDecoder == null
+                ? null : this.contentDecoder.getStats();
+    }
+
+    @Override
+    public void setCompression(final boolean compression) {
+        if (this.contentDecoder != null) {
+            this.contentDecoder.setCompression(compression);
+        }
+    }
+
+    /**
+     * Connections are not opened ahead by the asynchronous request maker.
+     * Its connections are opened by the I/O threads when a request needs
+     * one.
+     * @param url The url whose host is connected to.
+     * @param connections The number of connections to open.
+     * @return Always 0.
+     */
+    @Override
+    public int openConnections(final String url, final int connections) {
+        return 0;
+    }
+
+    /**
+     * This method stops the I/O threads and releases all pooled
+     * connections. Requests that are still running are cancelled.
+     * @throws IOException If the http client cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.httpClient.close();
+    }
+
+    /**
+     * This method sends the request and completes the returned future with
+     * the response body. The timeouts of the request are bounded by the
+     * deadline entered by the calling thread.
+     * @param request The request to send.
+     * @param url The url of the request.
+     * @param parameters The parameters of the request.
+     * @param payload The payload of the request.
+     * @param headers The headers of the request.
+     * @return A future that is completed with the response body.
+     */
+    private CompletableFuture<String> execute(
+            final HttpRequestBase request, final String url,
+            final Map<String, Object> parameters, final String payload,
+            final Map<String, String> headers) {
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+
+        // Adding headers to the request
+        RequestMakerHttpClient.addHeaders(request, headers);
+
+        Deadline deadline = Deadline.current();
+        try {
+            RequestMakerHttpClient.applyDeadline(request, this.requestConfig,
+                    deadline, url, payload, parameters, headers);
+        } catch (OutsetaDeadlineExceededException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        Future<HttpResponse> exchange;
+        try {
+            exchange = this.httpClient.execute(request,
+                    new FutureCallback<HttpResponse>() {
+                        @Override
+                        public void completed(final HttpResponse response) {
+                            // The body is decoded and read off the I/O
+                            // thread that received it
+                            responseExecutor.execute(() -> complete(result,
+                                    response, url, parameters, payload,
+                                    headers));
+                        }
+
+                        @Override
+                        public void failed(final Exception ex) {
+                            if (deadline != null && deadline.isExpired()) {
+                                result.completeExceptionally(
+                                        new OutsetaDeadlineExceededException(
+                                                "The deadline of the call "
+                                                        + "passed while "
+                                                        + "waiting for the "
+                                                        + "response.", url,
+                                                payload, parameters, headers,
+                                                ex));
+                                return;
+                            }
+                            result.completeExceptionally(
+                                    new OutsetaAPIBadRequestException(
+                                            ex.getMessage(), url, payload,
+                                            parameters, headers, null, ex));
+                        }
+
+                        @Override
+                        public void cancelled() {
+                            result.cancel(false);
+                        }
+                    });
+        } catch (IllegalStateException e) {
+            // The client has been closed
+            result.completeExceptionally(new OutsetaAPIFailedException(
+                    e.getMessage(), url, payload, parameters, headers,
+                    null, e));
+            return result;
+        }
+
+        // Cancelling the returned future aborts the exchange so that its
+        // connection goes back to the pool
+        result.whenComplete((body, error) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+                request.abort();
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * This method reads the response and completes the future with it. It
+     * runs on the response executor.
+     * @param result The future to complete.
+     * @param response The response received.
+     * @param url The url of the request.
+     * @param parameters The parameters of the request.
+     * @param payload The payload of the request.
+     * @param headers The headers of the request.
+     */
+    private void complete(final CompletableFuture<String> result,
+                                 final HttpResponse response,
+                                 final String url,
+                                 final Map<String, Object> parameters,
+                                 final String payload,
+                                 final Map<String, String> headers) {
+
+        if (response == null) {
+            result.completeExceptionally(new OutsetaAPIUnknownException(
+                    "Response is null.", url, payload, parameters,
+                    headers, null, null));
+            return;
+        }
+
+        if (this.contentDecoder != null) {
+            this.contentDecoder.decode(response);
+        }
+        try {
+            int statusCode = response.getStatusLine().getStatusCode();
+            String responseBody = response.getEntity() == null
+                    ? null : EntityUtils.toString(response.getEntity());
+
+            if (statusCode < MIN_SUCCESS_CODE
+                    || statusCode > MAX_SUCCESS_CODE) {
+                // Didn't receive success from outseta
+                result.completeExceptionally(RequestMakerHttpClient
+                        .invalidResponseCode(response, responseBody, url,
+                                payload, parameters, headers,
+                                this.expectedStatusCodes));
+                return;
+            }
+
+            result.complete(responseBody);
+        } catch (IOException e) {
+            result.completeExceptionally(new OutsetaAPIBadRequestException(
+                    e.getMessage(), url, payload, parameters, headers,
+                    null, e));
+        }
+    }
+
+    /**
+     * This method adds the payload to the request.
+     * @param request The request to add the payload to.
+     * @param payload The payload to add.
+     */
+    private static void setPayload(
+            final HttpEntityEnclosingRequestBase request,
+            final String payload) {
+        if (payload != null && !payload.isEmpty()) {
+            request.setEntity(new StringEntity(payload,
+                    StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * This method creates a future that has already failed.
+     * @param e The reason of the failure.
+     * @return The failed future.
+     */
+    private static CompletableFuture<String> failed(final Exception e) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        result.completeExceptionally(e);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<String> getAsync(
+            final String url, final Map<String, Object> parameters,
+            final Map<String, String> headers) {
+        try {
+            return this.execute(new HttpGet(RequestMakerHttpClient
+                            .generateRequest(url, parameters)),
+                    url, parameters, null, headers);
+        } catch (OutsetaInvalidURLException e) {
+            return failed(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> putAsync(
+            final String url, final Map<String, Object> parameters,
+            final String payload, final Map<String, String> headers) {
+        try {
+            HttpPut httpPut = new HttpPut(RequestMakerHttpClient
+                    .generateRequest(url, parameters));
+            setPayload(httpPut, payload);
+            return this.execute(httpPut, url, parameters, payload, headers);
+        } catch (OutsetaInvalidURLException e) {
+            return failed(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> postAsync(
+            final String url, final Map<String, Object> parameters,
+            final String payload, final Map<String, String> headers) {
+        try {
+            HttpPost httpPost = new HttpPost(RequestMakerHttpClient
+                    .generateRequest(url, parameters));
+            setPayload(httpPost, payload);
+            return this.execute(httpPost, url, parameters, payload, headers);
+        } catch (OutsetaInvalidURLException e) {
+            return failed(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> deleteAsync(
+            final String url, final Map<String, Object> parameters,
+            final Map<String, String> headers) {
+        try {
+            return this.execute(new HttpDelete(RequestMakerHttpClient
+                            .generateRequest(url, parameters)),
+                    url, parameters, null, headers);
+        } catch (OutsetaInvalidURLException e) {
+            return failed(e);
+        }
+    }
+
+    @Override
+    public String get(final String url, final Map<String, Object> parameters,
+                      final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+        return AsyncRequestMaker.await(
+                this.getAsync(url, parameters, headers), url);
+    }
+
+    @Override
+    public String put(final String url, final Map<String, Object> parameters,
+                      final String payload, final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+        return AsyncRequestMaker.await(
+                this.putAsync(url, parameters, payload, headers), url);
+    }
+
+    @Override
+    public String post(final String url, final Map<String, Object> parameters,
+                       final String payload, final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+        return AsyncRequestMaker.await(
+                this.postAsync(url, parameters, payload, headers), url);
+    }
+
+    @Override
+    public String delete(final String url, final Map<String, Object> parameters,
+                         final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+        return AsyncRequestMaker.await(
+                this.deleteAsync(url, parameters, headers), url);
+    }
+
+    @Override
+    public String urlEncodePayloadAttribute(final String value)
+            throws OutsetaInvalidURLException {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.toString());
+        } catch (UnsupportedEncodingException e) {
+            // This should never happen.
+            throw new OutsetaInvalidURLException(
+                    "Unsupported encoding: " + e.getMessage());
+        }
+    }
+}
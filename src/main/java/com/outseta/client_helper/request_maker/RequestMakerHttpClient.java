@@ -1,29 +1,64 @@
 package com.outseta.client_helper.request_maker;
 
+import com.outseta.client_helper.url.QueryEncoder;
+import com.outseta.exception.OutsetaAPIException;
 import com.outseta.exception.OutsetaInvalidURLException;
 import com.outseta.exception.api_exception.OutsetaAPIFailedException;
 import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
 import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
 import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaDeadlineExceededException;
+import org.apache.http.Header;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequestInterceptor;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
-import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.UnsupportedSchemeException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.message.BasicHeader;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.util.EntityUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is intentionally non-public. No one needs to know about its
@@ -37,14 +72,46 @@ import java.util.Map;
  *
  * This class depends on HttpClient from Java 11. Due to this dependency,
  * the client cannot be used with earlier versions of Java.
+ *
+ * The connections are kept in a pool owned by this class. The pool can be
+ * tuned with a {@link HttpClientConfig} and is released by calling
+ * {@link #close()}.
+ *
+ * Compressed responses are decoded by a {@link ContentDecoder} instead of
+ * the one built into HttpClient, so that the bytes read from the wire can
+ * be counted.
  */
-class RequestMakerHttpClient implements RequestMaker {
+class RequestMakerHttpClient implements PooledRequestMaker,
+        StreamingRequestMaker, BytePayloadRequestMaker {
 
     /**
      * This field is used to make the HTTP requests.
      */
     private final CloseableHttpClient httpClient;
 
+    /**
+     * The pool of connections used by the http client. It is null if the
+     * http client was provided from outside.
+     */
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * The settings every request starts from. The timeouts of a request
+     * are lowered to fit the deadline of its call.
+     */
+    private final RequestConfig requestConfig;
+
+    /**
+     * The decoder of compressed responses. It is null if the http client
+     * was provided from outside.
+     */
+    private final ContentDecoder contentDecoder;
+
+    /**
+     * The response codes whose exceptions are built without a stack trace.
+     */
+    private final Set<Integer> expectedStatusCodes;
+
     /**
      * This field is used to store the minimum success code.
      */
@@ -61,27 +128,254 @@ class RequestMakerHttpClient implements RequestMaker {
      * @param pHttpClient The HttpClient to be used to make the requests.
      */
     RequestMakerHttpClient(final CloseableHttpClient pHttpClient) {
+        this(pHttpClient, null);
+    }
+
+    /**
+     * This constructor is used to create a RequestMakerHttpClient object with
+     * a custom HttpClient and the pool used by it.
+     * @param pHttpClient The HttpClient to be used to make the requests.
+     * @param pConnectionManager The pool used by the HttpClient.
+     */
+    RequestMakerHttpClient(final CloseableHttpClient pHttpClient,
+                           final PoolingHttpClientConnectionManager
+                                   pConnectionManager) {
         this.httpClient = pHttpClient;
+        this.connectionManager = pConnectionManager;
+        this.requestConfig = RequestConfig.DEFAULT;
+        this.contentDecoder = null;
+        this.expectedStatusCodes = Collections.emptySet();
     }
 
     /**
      * This constructor is used to create a RequestMakerHttpClient object with
-     * the default HttpClient.
+     * the default HttpClient. The pool has the same limits as
+     * HttpClients.createDefault() and no timeouts.
      */
     RequestMakerHttpClient() {
-        this.httpClient = HttpClients.createDefault();
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        this.requestConfig = RequestConfig.DEFAULT;
+        this.contentDecoder = new ContentDecoder(true);
+        this.expectedStatusCodes = Collections.emptySet();
+        this.httpClient = decoding(HttpClients.custom(), this.contentDecoder)
+                .setConnectionManager(this.connectionManager)
+                .build();
+    }
+
+    /**
+     * This constructor is used to create a RequestMakerHttpClient object with
+     * a pooled HttpClient tuned by the given config.
+     * @param config The settings of the pool.
+     */
+    RequestMakerHttpClient(final HttpClientConfig config) {
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        this.connectionManager.setMaxTotal(config.getMaxTotal());
+        this.connectionManager.setDefaultMaxPerRoute(config.getMaxPerRoute());
+        this.connectionManager.setValidateAfterInactivity(
+                config.getValidateAfterInactivity());
+
+        // The socket timeout is also applied while connecting so that a
+        // stalled TLS handshake cannot block forever
+        this.connectionManager.setDefaultSocketConfig(SocketConfig.custom()
+                .setSoTimeout(config.getSocketTimeout())
+                .build());
+
+        this.requestConfig = RequestConfig.custom()
+                .setConnectTimeout(config.getConnectTimeout())
+                .setSocketTimeout(config.getSocketTimeout())
+                .setConnectionRequestTimeout(
+                        config.getConnectionRequestTimeout())
+                .build();
+
+        this.contentDecoder = new ContentDecoder(config.isCompression());
+        this.expectedStatusCodes = config.getExpectedStatusCodes();
+        HttpClientBuilder builder = decoding(HttpClients.custom(),
+                this.contentDecoder)
+                .setConnectionManager(this.connectionManager)
+                .setDefaultRequestConfig(this.requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(config.getKeepAlive()));
+
+        if (config.getMaxIdleTime() > 0) {
+            builder.evictIdleConnections(config.getMaxIdleTime(),
+                    TimeUnit.MILLISECONDS);
+        }
+        if (config.isEvictExpiredConnections()) {
+            builder.evictExpiredConnections();
+        }
+
+        this.httpClient = builder.build();
+    }
+
+    /**
+     * This method replaces the decoding built into HttpClient with the
+     * given decoder.
+     * @param builder The builder of the http client.
+     * @param decoder The decoder of compressed responses.
+     * @return The builder so that it can be chained.
+     */
+    private static HttpClientBuilder decoding(final HttpClientBuilder builder,
+                                              final ContentDecoder decoder) {
+        return builder.disableContentCompression()
+                .addInterceptorLast((HttpRequestInterceptor) decoder)
+                .addInterceptorLast((HttpResponseInterceptor) decoder);
+    }
+
+    /**
+     * This method is used to create the keep alive strategy. The time sent
+     * by the server is used if present, but it is never longer than the
+     * configured keep alive time.
+     * @param keepAlive The keep alive time in milliseconds.
+     * @return The keep alive strategy.
+     */
+    static ConnectionKeepAliveStrategy keepAliveStrategy(
+            final long keepAlive) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                    .getKeepAliveDuration(response, context);
+            if (keepAlive <= 0) {
+                return serverKeepAlive;
+            }
+            if (serverKeepAlive <= 0) {
+                return keepAlive;
+            }
+            return Math.min(serverKeepAlive, keepAlive);
+        };
+    }
+
+    /**
+     * This method is used to get a snapshot of the connection pool.
+     * @return The current statistics of the pool, or null if the pool is
+     *      not owned by this request maker.
+     */
+    @Override
+    public ConnectionPoolStats getPoolStats() {
+        if (this.connectionManager == null) {
+            return null;
+        }
+        PoolStats stats = this.connectionManager.getTotalStats();
+        return new ConnectionPoolStats(stats.getLeased(), stats.getPending(),
+                stats.getAvailable(), stats.getMax());
+    }
+
+    /**
+     * This method is used to get a snapshot of the response bytes read.
+     * @return The statistics, or null if the http client is not owned by
+     *      this request maker.
+     */
+    @Override
+    public TransferStats getTransferStats() {
+        return this.contentDecoder == null
+                ? null : this.contentDecoder.getStats();
+    }
+
+    @Override
+    public void setCompression(final boolean compression) {
+        if (this.contentDecoder != null) {
+            this.contentDecoder.setCompression(compression);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     *     The connections are leased from the pool together, so that each
+     *     one is a new connection, and are given back to the pool once
+     *     they are all open. The route is the one HttpClient uses for the
+     *     url, so the requests to the host find the connections.
+     * </p>
+     */
+    @Override
+    public int openConnections(final String url, final int connections)
+            throws OutsetaInvalidURLException {
+
+        if (this.connectionManager == null || connections <= 0) {
+            return 0;
+        }
+
+        HttpRoute route = route(generateRequest(url, null));
+        int count = Math.min(connections, Math.min(
+                this.connectionManager.getMaxPerRoute(route),
+                this.connectionManager.getMaxTotal()));
+        int leaseTimeout = Math.max(0,
+                this.requestConfig.getConnectionRequestTimeout());
+        int connectTimeout = Math.max(0,
+                this.requestConfig.getConnectTimeout());
+
+        List<HttpClientConnection> leased = new ArrayList<>(count);
+        int open = 0;
+        try {
+            for (int i = 0; i < count; i++) {
+                HttpClientConnection connection = this.connectionManager
+                        .requestConnection(route, null)
+                        .get(leaseTimeout, TimeUnit.MILLISECONDS);
+                leased.add(connection);
+                if (!connection.isOpen()) {
+                    HttpClientContext context = HttpClientContext.create();
+                    this.connectionManager.connect(connection, route,
+                            connectTimeout, context);
+                    this.connectionManager.routeComplete(connection, route,
+                            context);
+                }
+                open++;
+            }
+        } catch (IOException | ExecutionException e) {
+            // The host cannot be reached now, the first requests will
+            // connect on their own
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (HttpClientConnection connection : leased) {
+                this.connectionManager.releaseConnection(connection, null,
+                        0, TimeUnit.MILLISECONDS);
+            }
+        }
+        return open;
+    }
+
+    /**
+     * This method finds the route HttpClient takes to the host of a uri.
+     * The port is made explicit like the default route planner does.
+     * @param uri The uri.
+     * @return The route.
+     * @throws OutsetaInvalidURLException If the uri has no host.
+     */
+    static HttpRoute route(final URI uri) throws OutsetaInvalidURLException {
+        HttpHost host = URIUtils.extractHost(uri);
+        if (host == null) {
+            throw new OutsetaInvalidURLException("No host in " + uri);
+        }
+        try {
+            HttpHost target = new HttpHost(host.getHostName(),
+                    DefaultSchemePortResolver.INSTANCE.resolve(host),
+                    host.getSchemeName());
+            return new HttpRoute(target, null,
+                    "https".equalsIgnoreCase(target.getSchemeName()));
+        } catch (UnsupportedSchemeException e) {
+            throw new OutsetaInvalidURLException(uri.toString());
+        }
     }
 
     /**
-     * This method is used to generate a HttpRequest object from the url,
-     * parameters and headers.
+     * This method closes the http client and releases all pooled
+     * connections.
+     * @throws IOException If the http client cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.httpClient.close();
+    }
+
+    /**
+     * This method is used to generate the URI of a request from the url and
+     * parameters. The parameters are form encoded and added to the query
+     * of the url without parsing it first.
      * @param url The url to make the request to.
      * @param parameters The parameters to be added to the request.
      * @return The URI object.
      * @throws OutsetaInvalidURLException If the url is invalid.
      */
-    private URI generateRequest(final String url,
-                                final Map<String, Object> parameters)
+    static URI generateRequest(final String url,
+                               final Map<String, Object> parameters)
             throws OutsetaInvalidURLException {
 
         if (url == null) {
@@ -89,15 +383,9 @@ class RequestMakerHttpClient implements RequestMaker {
         }
 
         try {
-            URIBuilder uriBuilder = new URIBuilder(url);
-
-            // Inserting all parameters into the url
-            if (parameters != null && !parameters.isEmpty()) {
-                parameters.forEach((key, value) -> uriBuilder
-                        .addParameter(key, String.valueOf(value)));
-            }
-
-            return uriBuilder.build();
+            // The query is encoded like URIBuilder would, but the url is
+            // only parsed once
+            return new URI(QueryEncoder.append(url, parameters));
         } catch (URISyntaxException e) {
             throw new OutsetaInvalidURLException("Invalid URI: "
                     + e.getMessage());
@@ -105,32 +393,173 @@ class RequestMakerHttpClient implements RequestMaker {
 
     }
 
-    @Override
-    public String get(final String url, final Map<String, Object> parameters,
-                      final Map<String, String> headers) throws
-            OutsetaAPIBadRequestException,
-            OutsetaAPIFailedException,
-            OutsetaInvalidResponseCodeException,
-            OutsetaAPIUnknownException,
-            OutsetaInvalidURLException {
+    /**
+     * This method creates the exception thrown for a response that does not
+     * have a success code. The Retry-After header of the response is kept
+     * so that the request can be retried at the time the server asked for.
+     * @param response The response.
+     * @param responseBody The body of the response.
+     * @param url The url of the request.
+     * @param payload The payload of the request.
+     * @param parameters The parameters of the request.
+     * @param headers The headers of the request.
+     * @param expected The response codes whose exceptions are built
+     *                 without a stack trace and without the request.
+     * @return The exception.
+     */
+    static OutsetaInvalidResponseCodeException invalidResponseCode(
+            final HttpResponse response, final String responseBody,
+            final String url, final String payload,
+            final Map<String, Object> parameters,
+            final Map<String, String> headers,
+            final Set<Integer> expected) {
+
+        int statusCode = response.getStatusLine().getStatusCode();
+        OutsetaInvalidResponseCodeException e = expected.contains(statusCode)
+                ? new OutsetaInvalidResponseCodeException(responseBody, url,
+                        statusCode, false)
+                : new OutsetaInvalidResponseCodeException(responseBody, url,
+                        payload, parameters, headers, statusCode, null);
+        Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        if (header != null) {
+            e.setRetryAfter(parseRetryAfter(header.getValue(),
+                    System.currentTimeMillis()));
+        }
+        return e;
+    }
 
-        URI uri = this.generateRequest(url, parameters);
+    /**
+     * This method reads the value of a Retry-After header, which is either
+     * a number of seconds or an HTTP date.
+     * @param value The value of the header.
+     * @param now The current time in milliseconds since the epoch.
+     * @return The time to wait in milliseconds, or null if the value is not
+     *      valid.
+     */
+    static Long parseRetryAfter(final String value, final long now) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            long seconds = Long.parseLong(trimmed);
+            return seconds < 0 ? null : TimeUnit.SECONDS.toMillis(seconds);
+        } catch (NumberFormatException e) {
+            Date date = DateUtils.parseDate(trimmed);
+            if (date == null) {
+                return null;
+            }
+            return Math.max(0L, date.getTime() - now);
+        }
+    }
 
-        HttpGet request = new HttpGet(uri);
+    /**
+     * This method adds the headers of a call to a request. The prebuilt
+     * headers of a {@link HeaderSnapshot} are reused as they are, while
+     * any other map is converted header by header.
+     * @param request The request.
+     * @param headers The headers of the call, or null.
+     */
+    static void addHeaders(final HttpRequestBase request,
+                           final Map<String, String> headers) {
+        if (headers instanceof HeaderSnapshot) {
+            for (Header header : ((HeaderSnapshot) headers).getHttpHeaders()) {
+                request.addHeader(header);
+            }
+        } else if (headers != null && !headers.isEmpty()) {
+            headers.forEach(request::addHeader);
+        }
+    }
 
-        // Inserting all headers into request
-        if (headers != null && !headers.isEmpty()) {
-            headers.forEach((key, value) -> request.addHeader(
-                    new BasicHeader(key, value)));
+    /**
+     * This method bounds the timeouts of a request by the deadline entered
+     * by the current thread, so that the request cannot outlive its call.
+     * @param request The request.
+     * @param defaults The settings the request starts from.
+     * @param deadline The deadline of the call, or null if it has none.
+     * @param url The url of the request.
+     * @param payload The payload of the request.
+     * @param parameters The parameters of the request.
+     * @param headers The headers of the request.
+     * @throws OutsetaDeadlineExceededException If the deadline has passed.
+     *      The request is then not sent and takes no pooled connection.
+     */
+    static void applyDeadline(final HttpRequestBase request,
+                              final RequestConfig defaults,
+                              final Deadline deadline, final String url,
+                              final String payload,
+                              final Map<String, Object> parameters,
+                              final Map<String, String> headers)
+            throws OutsetaDeadlineExceededException {
+
+        if (deadline == null) {
+            return;
+        }
+        long remaining = deadline.remaining(TimeUnit.MILLISECONDS);
+        if (remaining <= 0) {
+            throw new OutsetaDeadlineExceededException(
+                    "The deadline of the call has passed.", url, payload,
+                    parameters, headers, null);
         }
 
-        HttpResponse response = null;
+        int budget = (int) Math.min(Integer.MAX_VALUE, remaining);
+        request.setConfig(RequestConfig.copy(defaults)
+                .setConnectTimeout(bound(defaults.getConnectTimeout(),
+                        budget))
+                .setSocketTimeout(bound(defaults.getSocketTimeout(), budget))
+                .setConnectionRequestTimeout(bound(
+                        defaults.getConnectionRequestTimeout(), budget))
+                .build());
+    }
+
+    /**
+     * This method lowers a timeout to the time left for the call.
+     * @param timeout The timeout in milliseconds, 0 or less for none.
+     * @param budget The time left for the call in milliseconds.
+     * @return The lower of the two.
+     */
+    private static int bound(final int timeout, final int budget) {
+        return timeout > 0 ? Math.min(timeout, budget) : budget;
+    }
+
+    /**
+     * This method sends a request and reads the body of its response.
+     * @param request The request.
+     * @param url The url of the request.
+     * @param payload The payload of the request.
+     * @param parameters The parameters of the request.
+     * @param headers The headers of the request.
+     * @return The body of the response.
+     * @throws OutsetaAPIBadRequestException If the request cannot be sent
+     *      or the response cannot be read.
+     * @throws OutsetaAPIFailedException If the deadline of the call passed
+     *      before or while the request was sent.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIUnknownException If no response was received.
+     */
+    private String send(final HttpRequestBase request, final String url,
+                        final String payload,
+                        final Map<String, Object> parameters,
+                        final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException {
+
+        // Adding headers to the request
+        addHeaders(request, headers);
+
+        Deadline deadline = Deadline.current();
+        applyDeadline(request, this.requestConfig, deadline, url, payload,
+                parameters, headers);
+
         try {
             HttpResponse httpResponse = httpClient.execute(request);
 
             if (httpResponse == null) {
                 throw new OutsetaAPIUnknownException(
-                        "Response is null.", url, "", parameters,
+                        "Response is null.", url, payload, parameters,
                         headers, null, null);
             }
 
@@ -141,71 +570,144 @@ class RequestMakerHttpClient implements RequestMaker {
             if (statusCode < MIN_SUCCESS_CODE
                     || statusCode > MAX_SUCCESS_CODE) {
                 // Didn't receive success from outseta
-                throw new OutsetaInvalidResponseCodeException(
-                        responseBody, url, null, parameters,
-                        headers, statusCode, null);
+                throw invalidResponseCode(httpResponse, responseBody, url,
+                        payload, parameters, headers,
+                        this.expectedStatusCodes);
             }
 
             return responseBody;
         } catch (IOException e) {
+            if (deadline != null && deadline.isExpired()) {
+                throw new OutsetaDeadlineExceededException(
+                        "The deadline of the call passed while waiting for "
+                                + "the response.", url, payload, parameters,
+                        headers, e);
+            }
             throw new OutsetaAPIBadRequestException(
-                    e.getMessage(), url, null, parameters, headers, null, e);
+                    e.getMessage(), url, payload, parameters, headers, null, e);
         }
     }
 
     @Override
-    public String put(final String url, final Map<String, Object> parameters,
-                      final String payload, final Map<String, String> headers)
-            throws
+    public String get(final String url, final Map<String, Object> parameters,
+                      final Map<String, String> headers) throws
             OutsetaAPIBadRequestException,
             OutsetaAPIFailedException,
-            OutsetaAPIUnknownException,
             OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
             OutsetaInvalidURLException {
 
         URI uri = generateRequest(url, parameters);
+        return this.send(new HttpGet(uri), url, null, parameters, headers);
+    }
 
-        HttpPut httpPut = new HttpPut(uri);
+    /**
+     * {@inheritDoc}
+     * <p>
+     *     The body is read from the connection, which is held until the
+     *     returned stream is closed. The body of a failed response is read
+     *     whole for the exception and the connection is released at once.
+     * </p>
+     */
+    @Override
+    public ResponseStream getStream(final String url,
+                                    final Map<String, Object> parameters,
+                                    final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
 
-        // Adding headers to the request
-        if (headers != null && !headers.isEmpty()) {
-            headers.forEach(httpPut::addHeader);
-        }
+        HttpGet request = new HttpGet(generateRequest(url, parameters));
+        addHeaders(request, headers);
 
-        // Adding payload to the request
-        if (payload != null && !payload.isEmpty()) {
-            httpPut.setEntity(new StringEntity(
-                    payload, StandardCharsets.UTF_8));
-        }
+        Deadline deadline = Deadline.current();
+        applyDeadline(request, this.requestConfig, deadline, url, null,
+                parameters, headers);
 
+        CloseableHttpResponse httpResponse = null;
         try {
-            HttpResponse httpResponse = httpClient.execute(httpPut);
+            httpResponse = httpClient.execute(request);
 
             if (httpResponse == null) {
                 throw new OutsetaAPIUnknownException(
-                        "Response is null.", url, payload, parameters,
+                        "Response is null.", url, null, parameters,
                         headers, null, null);
             }
 
             int statusCode = httpResponse.getStatusLine().getStatusCode();
-            String responseBody = EntityUtils
-                    .toString(httpResponse.getEntity());
+            HttpEntity entity = httpResponse.getEntity();
 
             if (statusCode < MIN_SUCCESS_CODE
                     || statusCode > MAX_SUCCESS_CODE) {
-                // Didn't receive success from outseta
-                throw new OutsetaInvalidResponseCodeException(
-                        responseBody, url, payload, parameters, headers,
-                        statusCode, null);
+                String responseBody = entity == null
+                        ? null : EntityUtils.toString(entity);
+                throw invalidResponseCode(httpResponse, responseBody, url,
+                        null, parameters, headers, this.expectedStatusCodes);
             }
 
-            return responseBody;
+            InputStream body = entity == null
+                    ? new ByteArrayInputStream(new byte[0])
+                    : entity.getContent();
+            ResponseStream stream = new ResponseStream(body, httpResponse);
+
+            // The stream releases the connection from now on
+            httpResponse = null;
+            return stream;
         } catch (IOException e) {
+            if (deadline != null && deadline.isExpired()) {
+                throw new OutsetaDeadlineExceededException(
+                        "The deadline of the call passed while waiting for "
+                                + "the response.", url, null, parameters,
+                        headers, e);
+            }
             throw new OutsetaAPIBadRequestException(
-                    e.getMessage(), url, payload, parameters, headers, null, e);
+                    e.getMessage(), url, null, parameters, headers, null, e);
+        } finally {
+            release(httpResponse);
         }
     }
 
+    /**
+     * This method releases the connection of a response that is not handed
+     * over to the caller.
+     * @param httpResponse The response, or null.
+     */
+    private static void release(final CloseableHttpResponse httpResponse) {
+        if (httpResponse == null) {
+            return;
+        }
+        try {
+            httpResponse.close();
+        } catch (IOException e) {
+            // The call has already failed, the connection is dropped
+        }
+    }
+
+    @Override
+    public String put(final String url, final Map<String, Object> parameters,
+                      final String payload, final Map<String, String> headers)
+            throws
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaInvalidURLException {
+
+        URI uri = generateRequest(url, parameters);
+
+        HttpPut httpPut = new HttpPut(uri);
+
+        // Adding payload to the request
+        if (payload != null && !payload.isEmpty()) {
+            httpPut.setEntity(new StringEntity(
+                    payload, StandardCharsets.UTF_8));
+        }
+
+        return this.send(httpPut, url, payload, parameters, headers);
+    }
+
     @Override
     public String post(final String url, final Map<String, Object> parameters,
                        final String payload, final Map<String, String> headers)
@@ -220,89 +722,99 @@ class RequestMakerHttpClient implements RequestMaker {
 
         HttpPost httpPost = new HttpPost(uri);
 
-        // Adding headers to the request
-        if (headers != null && !headers.isEmpty()) {
-            headers.forEach(httpPost::addHeader);
-        }
-
         // Adding payload to the request
         if (payload != null && !payload.isEmpty()) {
             httpPost.setEntity(new StringEntity(payload,
                     StandardCharsets.UTF_8));
         }
 
-        try {
-            HttpResponse httpResponse = httpClient.execute(httpPost);
-
-            if (httpResponse == null) {
-                throw new OutsetaAPIUnknownException(
-                        "Response is null.", url, payload, parameters,
-                        headers, null, null);
-            }
-
-            int statusCode = httpResponse.getStatusLine().getStatusCode();
-            String responseBody = EntityUtils
-                    .toString(httpResponse.getEntity());
+        return this.send(httpPost, url, payload, parameters, headers);
+    }
 
-            if (statusCode < MIN_SUCCESS_CODE
-                    || statusCode > MAX_SUCCESS_CODE) {
-                // Didn't receive success from outseta
-                throw new OutsetaInvalidResponseCodeException(
-                        responseBody, url, payload, parameters,
-                        headers, statusCode, null);
-            }
+    @Override
+    public String putBytes(final String url,
+                           final Map<String, Object> parameters,
+                           final byte[] payload,
+                           final Map<String, String> headers) throws
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
 
-            return responseBody;
-        } catch (IOException e) {
-            throw new OutsetaAPIBadRequestException(
-                    e.getMessage(), url, payload, parameters, headers, null, e);
-        }
+        URI uri = generateRequest(url, parameters);
+        return this.sendBytes(new HttpPut(uri), url, payload, parameters,
+                headers);
     }
 
     @Override
-    public String delete(final String url, final Map<String, Object> parameters,
-                         final Map<String, String> headers) throws
+    public String postBytes(final String url,
+                            final Map<String, Object> parameters,
+                            final byte[] payload,
+                            final Map<String, String> headers) throws
             OutsetaAPIBadRequestException,
             OutsetaAPIFailedException,
-            OutsetaAPIUnknownException,
             OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
             OutsetaInvalidURLException {
 
         URI uri = generateRequest(url, parameters);
+        return this.sendBytes(new HttpPost(uri), url, payload, parameters,
+                headers);
+    }
 
-        HttpDelete httpDelete = new HttpDelete(uri);
+    /**
+     * This method sends a request with a payload that is already encoded.
+     * The array is wrapped by the entity as it is, and it is only turned
+     * into a string when an exception has to report it.
+     * @param request The request.
+     * @param url The url of the request.
+     * @param payload The payload encoded as UTF-8, or null.
+     * @param parameters The parameters of the request.
+     * @param headers The headers of the request.
+     * @return The body of the response.
+     * @throws OutsetaAPIBadRequestException If the request cannot be sent
+     *      or the response cannot be read.
+     * @throws OutsetaAPIFailedException If the deadline of the call passed
+     *      before or while the request was sent.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIUnknownException If no response was received.
+     */
+    private String sendBytes(final HttpEntityEnclosingRequestBase request,
+                             final String url, final byte[] payload,
+                             final Map<String, Object> parameters,
+                             final Map<String, String> headers)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException {
 
-        // Adding headers to the request
-        if (headers != null && !headers.isEmpty()) {
-            headers.forEach(httpDelete::addHeader);
+        if (payload != null && payload.length > 0) {
+            request.setEntity(new ByteArrayEntity(payload,
+                    ContentType.APPLICATION_JSON));
         }
-
         try {
-            HttpResponse httpResponse = httpClient.execute(httpDelete);
-
-            if (httpResponse == null) {
-                throw new OutsetaAPIUnknownException(
-                        "Response is null.", url, "", parameters,
-                        headers, null, null);
+            return this.send(request, url, null, parameters, headers);
+        } catch (OutsetaAPIException e) {
+            if (payload != null) {
+                e.setPayload(new String(payload, StandardCharsets.UTF_8));
             }
+            throw e;
+        }
+    }
 
-            int statusCode = httpResponse.getStatusLine().getStatusCode();
-            String responseBody = EntityUtils
-                    .toString(httpResponse.getEntity());
-
-            if (statusCode < MIN_SUCCESS_CODE
-                    || statusCode > MAX_SUCCESS_CODE) {
-                // Didn't receive success from outseta
-                throw new OutsetaInvalidResponseCodeException(
-                        responseBody, url, null, parameters,
-                        headers, statusCode, null);
-            }
+    @Override
+    public String delete(final String url, final Map<String, Object> parameters,
+                         final Map<String, String> headers) throws
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaInvalidURLException {
 
-            return responseBody;
-        } catch (IOException e) {
-            throw new OutsetaAPIBadRequestException(
-                    e.getMessage(), url, null, parameters, headers, null, e);
-        }
+        URI uri = generateRequest(url, parameters);
+        return this.send(new HttpDelete(uri), url, null, parameters, headers);
     }
 
     @Override
@@ -0,0 +1,91 @@
+package com.outseta.client_helper.request_maker;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class holds the body of a successful response while it is read.
+ * <p>
+ *     The body is read straight from the connection, so it is never copied
+ *     into a string first. The connection is held until the stream is
+ *     closed, and closing it reads what is left of the body so that the
+ *     connection goes back to the pool. It must always be closed, best with
+ *     a try-with-resources statement.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * try (ResponseStream response = requestMaker.getStream(url, parameters,
+ *         headers)) {
+ *     return parserFacade.jsonStreamToObject(response.getBody(),
+ *             Account.class);
+ * }
+ * }</pre>
+ */
+public final class ResponseStream implements Closeable {
+
+    /**
+     * The body of the response.
+     */
+    private final InputStream body;
+
+    /**
+     * The response the body belongs to, or null if the body is not read
+     * from a connection.
+     */
+    private final Closeable response;
+
+    /**
+     * The constructor for ResponseStream.
+     * @param pBody The body of the response.
+     * @param pResponse The response the body belongs to, closed after the
+     *                  body, or null.
+     */
+    public ResponseStream(final InputStream pBody, final Closeable pResponse) {
+        this.body = pBody;
+        this.response = pResponse;
+    }
+
+    /**
+     * This method creates a stream over a body that was already read.
+     * @param body The body of the response, or null for an empty body.
+     * @return The stream.
+     */
+    public static ResponseStream of(final String body) {
+        byte[] bytes = body == null
+                ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        return new ResponseStream(new ByteArrayInputStream(bytes), null);
+    }
+
+    /**
+     * Returns the body of the response. It can be read once.
+     * @return The body.
+     */
+    public InputStream getBody() {
+        return this.body;
+    }
+
+    /**
+     * This method closes the body and releases the connection. The body
+     * has been parsed by the time it is closed, so a failure to release
+     * the connection is not reported: the pool discards the connection.
+     */
+    @Override
+    public void close() {
+        try {
+            this.body.close();
+        } catch (IOException e) {
+            // The response is closed below, which drops the connection
+        }
+        if (this.response != null) {
+            try {
+                this.response.close();
+            } catch (IOException e) {
+                // Nothing is left to release
+            }
+        }
+    }
+}
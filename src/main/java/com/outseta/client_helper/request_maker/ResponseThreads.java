@@ -0,0 +1,67 @@
+package com.outseta.client_helper.request_maker;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class holds the pool of daemon threads that read and parse the
+ * responses of asynchronous calls when no executor is given.
+ * <p>
+ *     Reading and parsing a response keeps a CPU busy, so the pool has one
+ *     thread for each of them, whatever the number of calls in flight. A
+ *     task handed over while every thread is busy runs on the thread that
+ *     handed it over, so the pool never waits on itself. Idle threads are
+ *     released after a minute, and the threads never keep the JVM alive.
+ * </p>
+ */
+public final class ResponseThreads implements ThreadFactory {
+
+    /**
+     * The number of seconds an idle thread is kept.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * The shared executor.
+     */
+    private static final Executor EXECUTOR = new ThreadPoolExecutor(0,
+            Runtime.getRuntime().availableProcessors(), KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS, new SynchronousQueue<>(),
+            new ResponseThreads(), new ThreadPoolExecutor.CallerRunsPolicy());
+
+    /**
+     * The number of threads created so far.
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * The constructor is private so that only the shared executor uses it.
+     */
+    private ResponseThreads() {
+    }
+
+    /**
+     * Returns the shared executor.
+     * @return The shared executor.
+     */
+    public static Executor executor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * This method creates a daemon thread.
+     * @param runnable The task of the thread.
+     * @return The thread.
+     */
+    @Override
+    public Thread newThread(final Runnable runnable) {
+        Thread thread = new Thread(runnable,
+                "outseta-response-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
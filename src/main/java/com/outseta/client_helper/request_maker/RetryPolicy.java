@@ -0,0 +1,335 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.constant.HttpMethod;
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+
+import java.util.Random;
+
+/**
+ * This class holds the settings used by {@link RetryingRequestMaker} to
+ * decide if and when a failed request is sent again.
+ * <p>
+ *     A request is retried if it could not be sent or read, or if the
+ *     server answered with 429 or a 5xx code. The wait before a retry
+ *     grows exponentially and is picked at random between 0 and that
+ *     limit, so that many clients failing at the same time do not retry
+ *     at the same time either. If the server sends a Retry-After header,
+ *     the wait is at least that long.
+ * </p>
+ * <p>
+ *     Every call has its own budget: it is retried at most
+ *     {@link #getMaxRetries()} times, and it is given up once the next
+ *     wait would end after {@link #getMaxRetryTime()} has passed since the
+ *     first attempt. Only GET, PUT and DELETE requests are retried unless
+ *     POST is enabled, since sending a POST twice can create two
+ *     resources. All times are in milliseconds.
+ * </p>
+ */
+public final class RetryPolicy {
+
+    /**
+     * The default maximum number of retries of one call.
+     */
+    public static final int DEFAULT_MAX_RETRIES = 3;
+
+    /**
+     * The default upper limit of the wait before the first retry.
+     */
+    public static final long DEFAULT_BASE_DELAY = 200L;
+
+    /**
+     * The default upper limit of the wait before any retry.
+     */
+    public static final long DEFAULT_MAX_DELAY = 10_000L;
+
+    /**
+     * The default time after the first attempt in which a call may be
+     * retried.
+     */
+    public static final long DEFAULT_MAX_RETRY_TIME = 30_000L;
+
+    /**
+     * The response code sent when too many requests are made.
+     */
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * The lowest response code of a server error.
+     */
+    private static final int MIN_SERVER_ERROR = 500;
+
+    /**
+     * The highest response code of a server error.
+     */
+    private static final int MAX_SERVER_ERROR = 599;
+
+    /**
+     * The highest number of doublings of the base delay. It keeps the
+     * computed delay from overflowing.
+     */
+    private static final int MAX_DOUBLINGS = 30;
+
+    /**
+     * This class is used to build a RetryPolicy object.
+     */
+    public static class Builder {
+
+        /**
+         * The policy to be built.
+         */
+        private final RetryPolicy policy;
+
+        /**
+         * The default constructor for Builder.
+         */
+        public Builder() {
+            this.policy = new RetryPolicy();
+        }
+
+        /**
+         * Sets the maximum number of retries of one call. A value of 0
+         * disables retries.
+         * @param pMaxRetries The maximum number of retries.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder maxRetries(final int pMaxRetries) {
+            this.policy.maxRetries = pMaxRetries;
+            return this;
+        }
+
+        /**
+         * Sets the upper limit of the wait before the first retry. The
+         * limit doubles with every retry.
+         * @param pBaseDelay The base delay in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder baseDelay(final long pBaseDelay) {
+            this.policy.baseDelay = pBaseDelay;
+            return this;
+        }
+
+        /**
+         * Sets the upper limit of the wait before any retry. It does not
+         * limit the wait asked for by a Retry-After header.
+         * @param pMaxDelay The maximum delay in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder maxDelay(final long pMaxDelay) {
+            this.policy.maxDelay = pMaxDelay;
+            return this;
+        }
+
+        /**
+         * Sets the time after the first attempt in which a call may be
+         * retried. A retry whose wait would end later is not made.
+         * @param pMaxRetryTime The retry time budget in milliseconds.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder maxRetryTime(final long pMaxRetryTime) {
+            this.policy.maxRetryTime = pMaxRetryTime;
+            return this;
+        }
+
+        /**
+         * Sets whether POST requests are retried. Only enable this if the
+         * POST endpoints used are safe to call twice.
+         * @param pRetryPost True to retry POST requests.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder retryPost(final boolean pRetryPost) {
+            this.policy.retryPost = pRetryPost;
+            return this;
+        }
+
+        /**
+         * Sets whether the Retry-After header of a response is used as the
+         * shortest wait before the retry.
+         * @param pRespectRetryAfter True to wait as long as the server
+         *                           asks.
+         * @return The Builder object so that method chaining can be used.
+         */
+        public Builder respectRetryAfter(final boolean pRespectRetryAfter) {
+            this.policy.respectRetryAfter = pRespectRetryAfter;
+            return this;
+        }
+
+        /**
+         * This method is used to create a new RetryPolicy object.
+         * @return A new RetryPolicy object.
+         * @throws OutsetaClientBuildException Thrown if any of the values is
+         *      out of range.
+         */
+        public RetryPolicy build() throws OutsetaClientBuildException {
+
+            if (this.policy.maxRetries < 0) {
+                throw new OutsetaClientBuildException(
+                        "Max retries cannot be negative.");
+            }
+            if (this.policy.baseDelay < 0 || this.policy.maxDelay < 0
+                    || this.policy.maxRetryTime < 0) {
+                throw new OutsetaClientBuildException(
+                        "Retry delays cannot be negative.");
+            }
+            if (this.policy.baseDelay > this.policy.maxDelay) {
+                throw new OutsetaClientBuildException(
+                        "Base delay cannot be greater than max delay.");
+            }
+
+            return this.policy;
+        }
+    }
+
+    /**
+     * The maximum number of retries of one call.
+     */
+    private int maxRetries;
+
+    /**
+     * The upper limit of the wait before the first retry.
+     */
+    private long baseDelay;
+
+    /**
+     * The upper limit of the wait before any retry.
+     */
+    private long maxDelay;
+
+    /**
+     * The time after the first attempt in which a call may be retried.
+     */
+    private long maxRetryTime;
+
+    /**
+     * Whether POST requests are retried.
+     */
+    private boolean retryPost;
+
+    /**
+     * Whether the Retry-After header of a response is respected.
+     */
+    private boolean respectRetryAfter;
+
+    /**
+     * The constructor is intentionally private to force the use of the
+     * builder.
+     */
+    private RetryPolicy() {
+        this.maxRetries = DEFAULT_MAX_RETRIES;
+        this.baseDelay = DEFAULT_BASE_DELAY;
+        this.maxDelay = DEFAULT_MAX_DELAY;
+        this.maxRetryTime = DEFAULT_MAX_RETRY_TIME;
+        this.retryPost = false;
+        this.respectRetryAfter = true;
+    }
+
+    /**
+     * This method is used to create a new builder object.
+     * @return A new builder object.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * This method checks if requests of a method may be retried.
+     * @param method The HTTP method of the request.
+     * @return True if the requests may be retried.
+     */
+    public boolean allows(final HttpMethod method) {
+        return this.maxRetries > 0
+                && (method.isIdempotent() || this.retryPost);
+    }
+
+    /**
+     * This method checks if a failure is worth retrying. Requests that
+     * could not be sent or read are retried, as are responses with 429 or
+     * a 5xx code.
+     * @param e The failure.
+     * @return True if the request may succeed when sent again.
+     */
+    public static boolean isRetryable(final Exception e) {
+        if (e instanceof OutsetaAPIBadRequestException) {
+            return true;
+        }
+        if (!(e instanceof OutsetaInvalidResponseCodeException)) {
+            return false;
+        }
+        Integer code = ((OutsetaInvalidResponseCodeException) e)
+                .getResponseCode();
+        return code != null && (code == TOO_MANY_REQUESTS
+                || (code >= MIN_SERVER_ERROR && code <= MAX_SERVER_ERROR));
+    }
+
+    /**
+     * This method picks the wait before a retry. It is a random time
+     * between 0 and the base delay doubled for every earlier retry, but
+     * never more than the maximum delay. If the server asked for a longer
+     * wait, that wait is used instead.
+     * @param retry The number of the retry, starting at 1.
+     * @param retryAfter The wait asked for by the server in milliseconds,
+     *                   or null if none was sent.
+     * @param random The source of randomness.
+     * @return The wait in milliseconds.
+     */
+    long delay(final int retry, final Long retryAfter, final Random random) {
+        int doublings = Math.min(Math.max(retry - 1, 0), MAX_DOUBLINGS);
+        long limit = Math.min(this.maxDelay, this.baseDelay << doublings);
+        long delay = limit <= 0 ? 0
+                : (long) (random.nextDouble() * (limit + 1));
+        if (this.respectRetryAfter && retryAfter != null) {
+            delay = Math.max(delay, retryAfter);
+        }
+        return delay;
+    }
+
+    /**
+     * Returns the maximum number of retries of one call.
+     * @return The maximum number of retries.
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Returns the upper limit of the wait before the first retry.
+     * @return The base delay in milliseconds.
+     */
+    public long getBaseDelay() {
+        return baseDelay;
+    }
+
+    /**
+     * Returns the upper limit of the wait before any retry.
+     * @return The maximum delay in milliseconds.
+     */
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Returns the time after the first attempt in which a call may be
+     * retried.
+     * @return The retry time budget in milliseconds.
+     */
+    public long getMaxRetryTime() {
+        return maxRetryTime;
+    }
+
+    /**
+     * Returns whether POST requests are retried.
+     * @return True if POST requests are retried.
+     */
+    public boolean isRetryPost() {
+        return retryPost;
+    }
+
+    /**
+     * Returns whether the Retry-After header of a response is respected.
+     * @return True if the Retry-After header is respected.
+     */
+    public boolean isRespectRetryAfter() {
+        return respectRetryAfter;
+    }
+}
@@ -0,0 +1,304 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.constant.HttpMethod;
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * This class sends a failed request again when the failure is likely to
+ * be temporary, as decided by a {@link RetryPolicy}.
+ * <p>
+ *     A single 429 or 503 from Outseta no longer fails the call. The
+ *     number of retries and of calls that were given up after a
+ *     retryable failure are counted, so that the load on the API can be
+ *     watched. A retry whose wait would end after the {@link Deadline}
+ *     entered by the thread is not made. Asynchronous calls are retried
+ *     the same way, but the retry is scheduled once its wait has passed
+ *     instead of blocking a thread.
+ * </p>
+ */
+public final class RetryingRequestMaker extends RequestMakerDecorator {
+
+    /**
+     * This interface is used to wait before a retry.
+     */
+    @FunctionalInterface
+    interface Sleeper {
+
+        /**
+         * This method waits for the given time.
+         * @param millis The time to wait in milliseconds.
+         * @throws InterruptedException If the thread is interrupted.
+         */
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    /**
+     * The policy that decides if and when a request is retried.
+     */
+    private final RetryPolicy policy;
+
+    /**
+     * The method used to wait before a retry.
+     */
+    private final Sleeper sleeper;
+
+    /**
+     * The clock used to measure the time spent on a call, in milliseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The number of retries made.
+     */
+    private final AtomicLong retries;
+
+    /**
+     * The number of calls that failed with a retryable failure and were
+     * not retried again.
+     */
+    private final AtomicLong giveUps;
+
+    /**
+     * This constructor is used to wrap a request maker.
+     * @param pDelegate The request maker to wrap.
+     * @param pPolicy The policy that decides if and when a request is
+     *                retried.
+     */
+    public RetryingRequestMaker(final RequestMaker pDelegate,
+                                final RetryPolicy pPolicy) {
+        this(pDelegate, pPolicy, Thread::sleep, System::currentTimeMillis);
+    }
+
+    /**
+     * This constructor is used to wrap a request maker with a custom way
+     * of waiting and measuring time.
+     * @param pDelegate The request maker to wrap.
+     * @param pPolicy The policy that decides if and when a request is
+     *                retried.
+     * @param pSleeper The method used to wait before a retry.
+     * @param pClock The clock used to measure the time spent on a call.
+     */
+    RetryingRequestMaker(final RequestMaker pDelegate,
+                         final RetryPolicy pPolicy,
+                         final Sleeper pSleeper,
+                         final LongSupplier pClock) {
+        super(pDelegate);
+        this.policy = pPolicy;
+        this.sleeper = pSleeper;
+        this.clock = pClock;
+        this.retries = new AtomicLong();
+        this.giveUps = new AtomicLong();
+    }
+
+    @Override
+    protected <T> T invoke(final HttpMethod method, final String url,
+                           final RequestCall<T> call)
+            throws OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException {
+
+        if (!this.policy.allows(method)) {
+            return call.call();
+        }
+
+        long start = this.clock.getAsLong();
+        int retry = 0;
+        while (true) {
+            try {
+                return call.call();
+            } catch (OutsetaAPIBadRequestException
+                    | OutsetaInvalidResponseCodeException e) {
+                if (!RetryPolicy.isRetryable(e)) {
+                    throw e;
+                }
+                retry++;
+                if (!this.awaitRetry(e, retry, start)) {
+                    this.giveUps.incrementAndGet();
+                    throw e;
+                }
+                this.retries.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    protected CompletableFuture<String> invokeAsync(
+            final HttpMethod method, final String url,
+            final Supplier<CompletableFuture<String>> call) {
+
+        if (!this.policy.allows(method)) {
+            return call.get();
+        }
+
+        long start = this.clock.getAsLong();
+        Deadline deadline = Deadline.current();
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<String>> current =
+                new AtomicReference<>();
+        result.whenComplete((response, error) -> {
+            CompletableFuture<String> attempt = current.get();
+            if (result.isCancelled() && attempt != null) {
+                attempt.cancel(true);
+            }
+        });
+        this.attemptAsync(start(call, deadline), call, result, current, 0,
+                start, deadline);
+        return result;
+    }
+
+    /**
+     * This method waits for an asynchronous attempt and schedules a retry
+     * if it fails with a retryable failure and the budget of the call
+     * allows another one.
+     * @param attempt The future of the attempt.
+     * @param call The call that sends the request.
+     * @param result The future of the whole call.
+     * @param current The attempt in flight, which is cancelled together
+     *                with the whole call.
+     * @param retry The number of retries made so far.
+     * @param start The time the first attempt was made.
+     * @param deadline The deadline of the call, or null.
+     */
+    private void attemptAsync(final CompletableFuture<String> attempt,
+                              final Supplier<CompletableFuture<String>> call,
+                              final CompletableFuture<String> result,
+                              final AtomicReference<CompletableFuture<String>>
+                                      current,
+                              final int retry, final long start,
+                              final Deadline deadline) {
+
+        current.set(attempt);
+        // The call may have been cancelled before the attempt was known
+        if (result.isCancelled()) {
+            attempt.cancel(true);
+            return;
+        }
+
+        attempt.whenComplete((response, error) -> {
+            if (error == null) {
+                result.complete(response);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException
+                    && error.getCause() != null ? error.getCause() : error;
+            if (result.isDone() || !(cause instanceof Exception)
+                    || !RetryPolicy.isRetryable((Exception) cause)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            long delay = this.retryDelay((Exception) cause, retry + 1,
+                    start, deadline);
+            if (delay < 0) {
+                this.giveUps.incrementAndGet();
+                result.completeExceptionally(cause);
+                return;
+            }
+            this.retries.incrementAndGet();
+            this.attemptAsync(later(() -> start(call, deadline), delay,
+                    TimeUnit.MILLISECONDS), call, result, current,
+                    retry + 1, start, deadline);
+        });
+    }
+
+    /**
+     * This method waits before a retry if the budget of the call allows
+     * another one.
+     * @param e The failure of the last attempt.
+     * @param retry The number of the retry, starting at 1.
+     * @param start The time the first attempt was made.
+     * @return True if the request should be sent again.
+     */
+    private boolean awaitRetry(final Exception e, final int retry,
+                               final long start) {
+        long delay = this.retryDelay(e, retry, start, Deadline.current());
+        if (delay < 0) {
+            return false;
+        }
+
+        try {
+            if (delay > 0) {
+                this.sleeper.sleep(delay);
+            }
+            return true;
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * This method finds the wait before a retry if the budget of the call
+     * allows another one.
+     * @param e The failure of the last attempt.
+     * @param retry The number of the retry, starting at 1.
+     * @param start The time the first attempt was made.
+     * @param deadline The deadline of the call, or null.
+     * @return The wait in milliseconds, or -1 if the request should not be
+     *      sent again.
+     */
+    private long retryDelay(final Exception e, final int retry,
+                            final long start, final Deadline deadline) {
+        if (retry > this.policy.getMaxRetries()) {
+            return -1;
+        }
+
+        Long retryAfter = e instanceof OutsetaInvalidResponseCodeException
+                ? ((OutsetaInvalidResponseCodeException) e).getRetryAfter()
+                : null;
+        Random random = ThreadLocalRandom.current();
+        long delay = this.policy.delay(retry, retryAfter, random);
+
+        long elapsed = this.clock.getAsLong() - start;
+        if (elapsed + delay > this.policy.getMaxRetryTime()) {
+            return -1;
+        }
+
+        // The retry needs some time of its own after the wait
+        if (deadline != null
+                && delay >= deadline.remaining(TimeUnit.MILLISECONDS)) {
+            return -1;
+        }
+        return delay;
+    }
+
+    /**
+     * This method is used to get the policy of the request maker.
+     * @return The retry policy.
+     */
+    public RetryPolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * This method is used to get the number of retries made.
+     * @return The number of retries.
+     */
+    public long getRetries() {
+        return this.retries.get();
+    }
+
+    /**
+     * This method is used to get the number of calls that failed with a
+     * retryable failure after their retry budget was used up.
+     * @return The number of calls given up.
+     */
+    public long getGiveUps() {
+        return this.giveUps.get();
+    }
+}
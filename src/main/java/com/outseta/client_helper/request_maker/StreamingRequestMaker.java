@@ -0,0 +1,45 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+
+import java.util.Map;
+
+/**
+ * This interface is used by request makers that can hand the body of a
+ * response over as a stream.
+ * <p>
+ *     A body that is parsed straight from the stream is never held in
+ *     memory as a whole, which matters for large pages. The request maker
+ *     checks the response code before the stream is returned, so the same
+ *     exceptions are thrown as by {@link #get(String, Map, Map)}.
+ * </p>
+ */
+public interface StreamingRequestMaker extends RequestMaker {
+
+    /**
+     * This method is used to make a GET request to the Outseta API and
+     * stream the body of the response.
+     * @param url The url to make the request to.
+     * @param parameters The parameters to be added to the request.
+     * @param headers The headers to be added to the request.
+     * @return The body of the response, which must be closed once read.
+     * @throws OutsetaAPIBadRequestException If the request is bad.
+     * @throws OutsetaAPIFailedException If the request fails.
+     * @throws OutsetaInvalidResponseCodeException If the response code is
+     *      invalid.
+     * @throws OutsetaAPIUnknownException If the request fails for an unknown
+     *      reason.
+     * @throws OutsetaInvalidURLException If the url is invalid.
+     */
+    ResponseStream getStream(String url, Map<String, Object> parameters,
+                             Map<String, String> headers) throws
+            OutsetaAPIBadRequestException,
+            OutsetaAPIFailedException,
+            OutsetaInvalidResponseCodeException,
+            OutsetaAPIUnknownException,
+            OutsetaInvalidURLException;
+}
@@ -0,0 +1,134 @@
+package com.outseta.client_helper.request_maker;
+
+import java.util.Objects;
+
+/**
+ * This class is a snapshot of the response bytes read by a request maker.
+ * <p>
+ *     The wire bytes are the bytes read from the connection and the
+ *     decoded bytes are the bytes handed to the parser. They only differ
+ *     for compressed responses. Bodies are counted as they are read, so a
+ *     body that is closed before its end only counts the part that was
+ *     read. The values are read at the moment the snapshot is taken and
+ *     are not updated afterwards.
+ * </p>
+ */
+public final class TransferStats {
+
+    /**
+     * The number of responses with a body.
+     */
+    private final long responses;
+
+    /**
+     * The number of responses with a compressed body.
+     */
+    private final long compressedResponses;
+
+    /**
+     * The number of body bytes read from the connection.
+     */
+    private final long wireBytes;
+
+    /**
+     * The number of body bytes after decompression.
+     */
+    private final long decodedBytes;
+
+    /**
+     * Constructor for the creation of a TransferStats object.
+     * @param pResponses The number of responses with a body.
+     * @param pCompressedResponses The number of responses with a compressed
+     *                             body.
+     * @param pWireBytes The number of body bytes read from the connection.
+     * @param pDecodedBytes The number of body bytes after decompression.
+     */
+    public TransferStats(final long pResponses,
+                         final long pCompressedResponses,
+                         final long pWireBytes, final long pDecodedBytes) {
+        this.responses = pResponses;
+        this.compressedResponses = pCompressedResponses;
+        this.wireBytes = pWireBytes;
+        this.decodedBytes = pDecodedBytes;
+    }
+
+    /**
+     * Returns the number of responses with a body.
+     * @return The number of responses.
+     */
+    public long getResponses() {
+        return responses;
+    }
+
+    /**
+     * Returns the number of responses with a compressed body.
+     * @return The number of compressed responses.
+     */
+    public long getCompressedResponses() {
+        return compressedResponses;
+    }
+
+    /**
+     * Returns the number of body bytes read from the connection.
+     * @return The number of wire bytes.
+     */
+    public long getWireBytes() {
+        return wireBytes;
+    }
+
+    /**
+     * Returns the number of body bytes after decompression.
+     * @return The number of decoded bytes.
+     */
+    public long getDecodedBytes() {
+        return decodedBytes;
+    }
+
+    /**
+     * Returns the number of bytes that compression kept off the wire.
+     * @return The decoded bytes minus the wire bytes.
+     */
+    public long getSavedBytes() {
+        return decodedBytes - wireBytes;
+    }
+
+    /**
+     * This method overrides the equals method.
+     */
+    @Override
+    public boolean equals(final Object other) {
+
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof TransferStats)) {
+            return false;
+        }
+
+        TransferStats otherStats = (TransferStats) other;
+
+        return this.responses == otherStats.responses
+                && this.compressedResponses == otherStats.compressedResponses
+                && this.wireBytes == otherStats.wireBytes
+                && this.decodedBytes == otherStats.decodedBytes;
+    }
+
+    /**
+     * This method overrides the hashCode method.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(responses, compressedResponses, wireBytes,
+                decodedBytes);
+    }
+
+    /**
+     * This method overrides the toString method.
+     */
+    @Override
+    public String toString() {
+        return "[responses: " + responses + "; compressed: "
+                + compressedResponses + "; wire bytes: " + wireBytes
+                + "; decoded bytes: " + decodedBytes + "]";
+    }
+}
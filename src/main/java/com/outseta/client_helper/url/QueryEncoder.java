@@ -0,0 +1,351 @@
+package com.outseta.client_helper.url;
+
+import java.util.Map;
+
+/**
+ * This class encodes query parameters and path variables without parsing
+ * the url they are added to.
+ * <p>
+ *     Query parameters are form encoded in UTF-8, exactly like the
+ *     URIBuilder of HttpClient does: letters, digits and {@code -_.*} are
+ *     kept, a space becomes {@code +} and every other byte is escaped as
+ *     {@code %XX}. Path variables keep the characters allowed in a path
+ *     segment, so that a slash or a question mark in an id cannot change
+ *     the route. A value that needs no escaping is appended as it is.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * Map<String, Object> parameters = new HashMap<>();
+ * parameters.put("limit", 25);
+ * String url = QueryEncoder.append(baseUrl + "/crm/people", parameters);
+ * }</pre>
+ */
+public final class QueryEncoder {
+
+    /**
+     * The characters kept as they are in a query parameter.
+     */
+    private static final boolean[] QUERY_SAFE = safe("-_.*");
+
+    /**
+     * The characters kept as they are in a path segment.
+     */
+    private static final boolean[] PATH_SAFE = safe("-_.~!$&'()*+,;=:@");
+
+    /**
+     * The hexadecimal digits used for escaping.
+     */
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * The number of ASCII characters.
+     */
+    private static final int ASCII = 128;
+
+    /**
+     * The largest code point encoded in two UTF-8 bytes.
+     */
+    private static final int TWO_BYTES = 0x7FF;
+
+    /**
+     * The largest code point encoded in three UTF-8 bytes.
+     */
+    private static final int THREE_BYTES = 0xFFFF;
+
+    /**
+     * The number of payload bits in a UTF-8 continuation byte.
+     */
+    private static final int SIX_BITS = 6;
+
+    /**
+     * The shift of the second continuation byte from the end.
+     */
+    private static final int TWELVE_BITS = 12;
+
+    /**
+     * The shift of the lead byte of a four byte UTF-8 sequence.
+     */
+    private static final int EIGHTEEN_BITS = 18;
+
+    /**
+     * The mask of the payload bits in a UTF-8 continuation byte.
+     */
+    private static final int LOW_SIX_BITS = 0x3F;
+
+    /**
+     * The marker of a UTF-8 continuation byte.
+     */
+    private static final int CONTINUATION = 0x80;
+
+    /**
+     * The marker of the first byte of a two byte UTF-8 sequence.
+     */
+    private static final int LEAD_TWO = 0xC0;
+
+    /**
+     * The marker of the first byte of a three byte UTF-8 sequence.
+     */
+    private static final int LEAD_THREE = 0xE0;
+
+    /**
+     * The marker of the first byte of a four byte UTF-8 sequence.
+     */
+    private static final int LEAD_FOUR = 0xF0;
+
+    /**
+     * The number of bits in a hexadecimal digit.
+     */
+    private static final int NIBBLE = 4;
+
+    /**
+     * The mask of a hexadecimal digit.
+     */
+    private static final int LOW_NIBBLE = 0xF;
+
+    /**
+     * The number of characters reserved for each parameter when the query
+     * is sized.
+     */
+    private static final int PARAMETER_SIZE = 16;
+
+    /**
+     * The constructor is private because the class only has static
+     * methods.
+     */
+    private QueryEncoder() {
+    }
+
+    /**
+     * This method creates the table of the ASCII characters that are kept
+     * as they are.
+     * @param punctuation The punctuation kept besides letters and digits.
+     * @return The table, indexed by character.
+     */
+    private static boolean[] safe(final String punctuation) {
+        boolean[] table = new boolean[ASCII];
+        for (char c = 'a'; c <= 'z'; c++) {
+            table[c] = true;
+            table[Character.toUpperCase(c)] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            table[c] = true;
+        }
+        for (char c : punctuation.toCharArray()) {
+            table[c] = true;
+        }
+        return table;
+    }
+
+    /**
+     * This method encodes parameters as a query string, without the
+     * leading question mark. The parameters are written in the order of
+     * the map and a null value is written as {@code null}, like
+     * {@link String#valueOf(Object)} does.
+     * @param parameters The parameters, or null.
+     * @return The query string, or an empty string if there are no
+     *      parameters.
+     */
+    public static String encode(final Map<String, ?> parameters) {
+        if (parameters == null || parameters.isEmpty()) {
+            return "";
+        }
+        StringBuilder query = new StringBuilder(
+                parameters.size() * PARAMETER_SIZE);
+        appendQuery(query, parameters);
+        return query.toString();
+    }
+
+    /**
+     * This method adds parameters to the query of a url. The url is not
+     * parsed: the parameters follow a question mark, or an ampersand if
+     * the url already has a query.
+     * @param url The url.
+     * @param parameters The parameters, or null.
+     * @return The url with the parameters.
+     */
+    public static String append(final String url,
+                                final Map<String, ?> parameters) {
+        if (parameters == null || parameters.isEmpty()) {
+            return url;
+        }
+        StringBuilder result = new StringBuilder(url.length()
+                + parameters.size() * PARAMETER_SIZE);
+        result.append(url).append(url.indexOf('?') < 0 ? '?' : '&');
+        appendQuery(result, parameters);
+        return result.toString();
+    }
+
+    /**
+     * This method form encodes a single query name or value.
+     * @param value The value.
+     * @return The encoded value.
+     */
+    public static String encodeQueryComponent(final String value) {
+        return encode(value, QUERY_SAFE, true);
+    }
+
+    /**
+     * This method encodes a value as a single path segment.
+     * @param value The value.
+     * @return The encoded value.
+     */
+    public static String encodePathSegment(final String value) {
+        return encode(value, PATH_SAFE, false);
+    }
+
+    /**
+     * This method writes the parameters of a query.
+     * @param query The builder the query is written to.
+     * @param parameters The parameters.
+     */
+    private static void appendQuery(final StringBuilder query,
+                                    final Map<String, ?> parameters) {
+        boolean first = true;
+        for (Map.Entry<String, ?> entry : parameters.entrySet()) {
+            if (!first) {
+                query.append('&');
+            }
+            first = false;
+            appendEncoded(query, entry.getKey(), QUERY_SAFE, true);
+            query.append('=');
+            appendEncoded(query, String.valueOf(entry.getValue()),
+                    QUERY_SAFE, true);
+        }
+    }
+
+    /**
+     * This method encodes a value, or returns it as it is if it needs no
+     * escaping.
+     * @param value The value.
+     * @param safe The characters kept as they are.
+     * @param spaceAsPlus Whether a space is written as a plus.
+     * @return The encoded value.
+     */
+    private static String encode(final String value, final boolean[] safe,
+                                 final boolean spaceAsPlus) {
+        int clean = cleanPrefix(value, safe);
+        if (clean == value.length()) {
+            return value;
+        }
+        StringBuilder encoded = new StringBuilder(value.length() * 2);
+        encoded.append(value, 0, clean);
+        escape(encoded, value, clean, safe, spaceAsPlus);
+        return encoded.toString();
+    }
+
+    /**
+     * This method appends an encoded value to a builder.
+     * @param target The builder.
+     * @param value The value.
+     * @param safe The characters kept as they are.
+     * @param spaceAsPlus Whether a space is written as a plus.
+     */
+    static void appendEncoded(final StringBuilder target, final String value,
+                              final boolean[] safe,
+                              final boolean spaceAsPlus) {
+        int clean = cleanPrefix(value, safe);
+        target.append(value, 0, clean);
+        if (clean < value.length()) {
+            escape(target, value, clean, safe, spaceAsPlus);
+        }
+    }
+
+    /**
+     * Returns the table of the characters kept in a query parameter.
+     * @return The table.
+     */
+    static boolean[] querySafe() {
+        return QUERY_SAFE;
+    }
+
+    /**
+     * Returns the table of the characters kept in a path segment.
+     * @return The table.
+     */
+    static boolean[] pathSafe() {
+        return PATH_SAFE;
+    }
+
+    /**
+     * This method finds the length of the part of a value that needs no
+     * escaping.
+     * @param value The value.
+     * @param safe The characters kept as they are.
+     * @return The length of the clean prefix.
+     */
+    private static int cleanPrefix(final String value, final boolean[] safe) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= ASCII || !safe[c]) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * This method escapes a value from the given index on. Characters are
+     * written as UTF-8, and a lone surrogate is written as a question mark
+     * like the encoders of the JDK do.
+     * @param target The builder the value is written to.
+     * @param value The value.
+     * @param from The index of the first character to write.
+     * @param safe The characters kept as they are.
+     * @param spaceAsPlus Whether a space is written as a plus.
+     */
+    private static void escape(final StringBuilder target, final String value,
+                               final int from, final boolean[] safe,
+                               final boolean spaceAsPlus) {
+        int length = value.length();
+        int i = from;
+        while (i < length) {
+            char c = value.charAt(i++);
+            if (c < ASCII) {
+                if (safe[c]) {
+                    target.append(c);
+                } else if (c == ' ' && spaceAsPlus) {
+                    target.append('+');
+                } else {
+                    hex(target, c);
+                }
+                continue;
+            }
+
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i < length
+                    && Character.isLowSurrogate(value.charAt(i))) {
+                codePoint = Character.toCodePoint(c, value.charAt(i++));
+            } else if (Character.isSurrogate(c)) {
+                hex(target, '?');
+                continue;
+            }
+
+            if (codePoint <= TWO_BYTES) {
+                hex(target, LEAD_TWO | (codePoint >> SIX_BITS));
+            } else if (codePoint <= THREE_BYTES) {
+                hex(target, LEAD_THREE | (codePoint >> TWELVE_BITS));
+                hex(target, CONTINUATION
+                        | ((codePoint >> SIX_BITS) & LOW_SIX_BITS));
+            } else {
+                hex(target, LEAD_FOUR | (codePoint >> EIGHTEEN_BITS));
+                hex(target, CONTINUATION
+                        | ((codePoint >> TWELVE_BITS) & LOW_SIX_BITS));
+                hex(target, CONTINUATION
+                        | ((codePoint >> SIX_BITS) & LOW_SIX_BITS));
+            }
+            hex(target, CONTINUATION | (codePoint & LOW_SIX_BITS));
+        }
+    }
+
+    /**
+     * This method writes a byte as {@code %XX}.
+     * @param target The builder the byte is written to.
+     * @param b The byte.
+     */
+    private static void hex(final StringBuilder target, final int b) {
+        target.append('%').append(HEX[(b >> NIBBLE) & LOW_NIBBLE])
+                .append(HEX[b & LOW_NIBBLE]);
+    }
+}
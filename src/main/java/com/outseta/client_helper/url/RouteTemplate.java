@@ -0,0 +1,226 @@
+package com.outseta.client_helper.url;
+
+import com.outseta.exception.OutsetaInvalidURLException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is the compiled template of an endpoint route, for example
+ * {@code /crm/accounts/{accountId}/memberships/{membershipId}}.
+ * <p>
+ *     The template is parsed once, when the route is compiled. Expanding
+ *     it joins the literal parts with the encoded values into a single
+ *     builder sized for the result, so no url is parsed or rebuilt on the
+ *     way. A variable in the path is encoded as one path segment and a
+ *     variable after the question mark is form encoded. A route without
+ *     variables returns its template as it is.
+ * </p>
+ * <p>
+ *     A route is immutable and can be shared by all threads, so the routes
+ *     of a client are kept in static fields.
+ * </p>
+ *
+ * Example usage:
+ * <pre>{@code
+ * RouteTemplate membership = RouteTemplate.compile(
+ *      "/crm/accounts/{accountId}/memberships/{membershipId}");
+ * String path = membership.expand(accountId, membershipId);
+ * }</pre>
+ */
+public final class RouteTemplate {
+
+    /**
+     * The template the route was compiled from.
+     */
+    private final String template;
+
+    /**
+     * The literal parts of the template. There is one more part than
+     * there are variables.
+     */
+    private final String[] literals;
+
+    /**
+     * The names of the variables, in the order of the template.
+     */
+    private final String[] names;
+
+    /**
+     * Whether each variable is in the query of the template.
+     */
+    private final boolean[] inQuery;
+
+    /**
+     * The length of the literal parts together.
+     */
+    private final int literalLength;
+
+    /**
+     * The number of characters reserved for each value when the result is
+     * sized.
+     */
+    private static final int VALUE_SIZE = 24;
+
+    /**
+     * The constructor for RouteTemplate.
+     * @param pTemplate The template the route was compiled from.
+     * @param pLiterals The literal parts of the template.
+     * @param pNames The names of the variables.
+     * @param pInQuery Whether each variable is in the query.
+     */
+    private RouteTemplate(final String pTemplate, final String[] pLiterals,
+                          final String[] pNames, final boolean[] pInQuery) {
+        this.template = pTemplate;
+        this.literals = pLiterals;
+        this.names = pNames;
+        this.inQuery = pInQuery;
+        int length = 0;
+        for (String literal : pLiterals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * This method compiles a route template. The template starts with a
+     * slash, its variables are names between braces and its literal parts
+     * must already be valid in a url.
+     * @param template The template.
+     * @return The compiled route.
+     * @throws IllegalArgumentException If the template is not valid. The
+     *      routes of the clients are constants, so this is a programming
+     *      error.
+     */
+    public static RouteTemplate compile(final String template) {
+        if (template == null || !template.startsWith("/")) {
+            throw new IllegalArgumentException(
+                    "A route must start with a slash: " + template);
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Boolean> inQuery = new ArrayList<>();
+        boolean query = false;
+        int start = 0;
+        int i = 0;
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            if (c == '{') {
+                int end = template.indexOf('}', i);
+                String name = end < 0 ? "" : template.substring(i + 1, end);
+                if (!isName(name)) {
+                    throw new IllegalArgumentException(
+                            "Invalid variable in route: " + template);
+                }
+                literals.add(template.substring(start, i));
+                names.add(name);
+                inQuery.add(query);
+                i = end + 1;
+                start = i;
+                continue;
+            }
+            if (c == '}' || c <= ' ' || c >= '\u007f' || c == '#') {
+                throw new IllegalArgumentException(
+                        "Invalid character in route: " + template);
+            }
+            if (c == '?') {
+                query = true;
+            }
+            i++;
+        }
+        literals.add(template.substring(start));
+
+        boolean[] queryFlags = new boolean[inQuery.size()];
+        for (int j = 0; j < queryFlags.length; j++) {
+            queryFlags[j] = inQuery.get(j);
+        }
+        return new RouteTemplate(template,
+                literals.toArray(new String[0]),
+                names.toArray(new String[0]), queryFlags);
+    }
+
+    /**
+     * Returns whether a string is a valid variable name.
+     * @param name The name.
+     * @return True if the name is made of letters, digits and underscores.
+     */
+    private static boolean isName(final String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(c < '\u007f' && (Character.isLetterOrDigit(c)
+                    || c == '_'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method expands the route with the given values, in the order
+     * of the variables of the template. Each value is turned into a
+     * string and encoded.
+     * @param values The values of the variables.
+     * @return The path of the route, with its query if the template has
+     *      one.
+     * @throws OutsetaInvalidURLException If the number of values does not
+     *      match the variables of the route, or a value is null.
+     */
+    public String expand(final Object... values)
+            throws OutsetaInvalidURLException {
+
+        int count = values == null ? 0 : values.length;
+        if (count != this.names.length) {
+            throw new OutsetaInvalidURLException(this.template + " expects "
+                    + this.names.length + " values but got " + count);
+        }
+        if (count == 0) {
+            return this.template;
+        }
+
+        StringBuilder path = new StringBuilder(this.literalLength
+                + count * VALUE_SIZE);
+        for (int i = 0; i < count; i++) {
+            if (values[i] == null) {
+                throw new OutsetaInvalidURLException(this.template
+                        + " has no value for " + this.names[i]);
+            }
+            path.append(this.literals[i]);
+            if (this.inQuery[i]) {
+                QueryEncoder.appendEncoded(path, values[i].toString(),
+                        QueryEncoder.querySafe(), true);
+            } else {
+                QueryEncoder.appendEncoded(path, values[i].toString(),
+                        QueryEncoder.pathSafe(), false);
+            }
+        }
+        return path.append(this.literals[count]).toString();
+    }
+
+    /**
+     * Returns the template the route was compiled from.
+     * @return The template.
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Returns the number of variables of the route.
+     * @return The number of variables.
+     */
+    public int getVariableCount() {
+        return names.length;
+    }
+
+    /**
+     * This method overrides the toString method.
+     */
+    @Override
+    public String toString() {
+        return template;
+    }
+}
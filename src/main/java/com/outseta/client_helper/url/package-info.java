@@ -0,0 +1,7 @@
+/**
+ * This package contains the building of request urls. The RouteTemplate
+ * class holds the compiled route of an endpoint and expands it with
+ * encoded path variables, and the QueryEncoder class writes query
+ * parameters without parsing the url they are added to.
+ */
+package com.outseta.client_helper.url;
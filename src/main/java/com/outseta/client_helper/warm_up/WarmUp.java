@@ -0,0 +1,123 @@
+package com.outseta.client_helper.warm_up;
+
+import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.PooledRequestMaker;
+import com.outseta.client_helper.request_maker.RequestMaker;
+import com.outseta.client_helper.request_maker.RequestMakerDecorator;
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.model.DataComponent;
+import com.outseta.model.request.AddInvoicePaymentRequest;
+import com.outseta.model.request.AddOnUsageRequest;
+import com.outseta.model.request.CancelAccountRequest;
+import com.outseta.model.request.CreateOrChangeSubscriptionRequest;
+import com.outseta.model.request.TemporaryPasswordRequest;
+import com.outseta.model.request.UpdatePasswordRequest;
+import com.outseta.model.request.UpdatePaymentInfoRequest;
+import com.outseta.model.result.Account;
+import com.outseta.model.result.Activity;
+import com.outseta.model.result.AddOn;
+import com.outseta.model.result.AuthToken;
+import com.outseta.model.result.Case;
+import com.outseta.model.result.CaseReply;
+import com.outseta.model.result.Deal;
+import com.outseta.model.result.Discount;
+import com.outseta.model.result.EmailList;
+import com.outseta.model.result.Invoice;
+import com.outseta.model.result.MarketingSubscription;
+import com.outseta.model.result.Person;
+import com.outseta.model.result.PersonAccount;
+import com.outseta.model.result.Plan;
+import com.outseta.model.result.PlanFamily;
+import com.outseta.model.result.Subscription;
+import com.outseta.model.result.SubscriptionAddOn;
+import com.outseta.model.result.Transaction;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class warms up a client before its first calls.
+ * <p>
+ *     The first calls of a new client are slow: the connections to the
+ *     Outseta API are opened with a name lookup and a TLS handshake, and
+ *     the parser builds its serializers and deserializers the first time
+ *     it meets a model class. The warm-up does both ahead, so the first
+ *     calls take as long as the following ones.
+ * </p>
+ * <p>
+ *     The warm-up is best effort. Connections that cannot be opened are
+ *     skipped and the request makers that do not pool connections open
+ *     none, but the model classes are still prepared.
+ * </p>
+ */
+public final class WarmUp {
+
+    /**
+     * The model classes that are read from or written to the api. The
+     * classes nested in them are prepared with them.
+     */
+    public static final List<Class<? extends DataComponent>> MODEL_TYPES =
+            Collections.unmodifiableList(Arrays.asList(
+                    Account.class, Activity.class, AddOn.class,
+                    AuthToken.class, Case.class, CaseReply.class,
+                    Deal.class, Discount.class, EmailList.class,
+                    Invoice.class, MarketingSubscription.class,
+                    Person.class, PersonAccount.class, Plan.class,
+                    PlanFamily.class, Subscription.class,
+                    SubscriptionAddOn.class, Transaction.class,
+                    AddInvoicePaymentRequest.class,
+                    AddOnUsageRequest.class, CancelAccountRequest.class,
+                    CreateOrChangeSubscriptionRequest.class,
+                    TemporaryPasswordRequest.class,
+                    UpdatePasswordRequest.class,
+                    UpdatePaymentInfoRequest.class));
+
+    /**
+     * The constructor is private because the class only has static
+     * methods.
+     */
+    private WarmUp() {
+    }
+
+    /**
+     * This method warms up a client. The connections are opened through
+     * the pooled request maker found in the chain of the request maker,
+     * if there is one.
+     * @param requestMaker The request maker of the client.
+     * @param parserFacade The parser of the client, or null to skip the
+     *                     model classes.
+     * @param baseUrl The base url of the client.
+     * @param connections The number of connections to open.
+     * @return What the warm-up did.
+     * @throws OutsetaInvalidURLException If the base url is invalid.
+     */
+    public static WarmUpReport run(final RequestMaker requestMaker,
+                                   final ParserFacade parserFacade,
+                                   final String baseUrl,
+                                   final int connections)
+            throws OutsetaInvalidURLException {
+
+        long start = System.nanoTime();
+
+        int open = 0;
+        PooledRequestMaker pooled = RequestMakerDecorator.unwrap(
+                requestMaker, PooledRequestMaker.class);
+        if (pooled != null && connections > 0) {
+            open = pooled.openConnections(baseUrl, connections);
+        }
+
+        int prepared = 0;
+        if (parserFacade != null) {
+            for (Class<? extends DataComponent> type : MODEL_TYPES) {
+                if (parserFacade.prepare(type)) {
+                    prepared++;
+                }
+            }
+        }
+
+        return new WarmUpReport(connections, open, prepared,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
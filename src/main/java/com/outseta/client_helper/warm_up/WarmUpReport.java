@@ -0,0 +1,126 @@
+package com.outseta.client_helper.warm_up;
+
+import java.util.Objects;
+
+/**
+ * This class tells what the warm-up of a client did.
+ * <p>
+ *     The warm-up is best effort, so fewer connections than requested may
+ *     have been opened, for example when the pool has a lower limit or the
+ *     server could not be reached. The duration covers the whole warm-up,
+ *     from the first connection to the last prepared model class.
+ * </p>
+ */
+public final class WarmUpReport {
+
+    /**
+     * The number of connections that were requested.
+     */
+    private final int requestedConnections;
+
+    /**
+     * The number of connections that are open in the pool.
+     */
+    private final int openConnections;
+
+    /**
+     * The number of model classes whose serializers were prepared.
+     */
+    private final int preparedTypes;
+
+    /**
+     * The time the warm-up took, in milliseconds.
+     */
+    private final long durationMillis;
+
+    /**
+     * Constructor for the creation of a WarmUpReport object.
+     * @param pRequestedConnections The number of connections that were
+     *                              requested.
+     * @param pOpenConnections The number of connections that are open in
+     *                         the pool.
+     * @param pPreparedTypes The number of model classes whose serializers
+     *                       were prepared.
+     * @param pDurationMillis The time the warm-up took, in milliseconds.
+     */
+    public WarmUpReport(final int pRequestedConnections,
+                        final int pOpenConnections, final int pPreparedTypes,
+                        final long pDurationMillis) {
+        this.requestedConnections = pRequestedConnections;
+        this.openConnections = pOpenConnections;
+        this.preparedTypes = pPreparedTypes;
+        this.durationMillis = pDurationMillis;
+    }
+
+    /**
+     * Returns the number of connections that were requested.
+     * @return The number of requested connections.
+     */
+    public int getRequestedConnections() {
+        return requestedConnections;
+    }
+
+    /**
+     * Returns the number of connections that are open in the pool.
+     * @return The number of open connections.
+     */
+    public int getOpenConnections() {
+        return openConnections;
+    }
+
+    /**
+     * Returns the number of model classes whose serializers were prepared.
+     * @return The number of prepared model classes.
+     */
+    public int getPreparedTypes() {
+        return preparedTypes;
+    }
+
+    /**
+     * Returns the time the warm-up took.
+     * @return The duration in milliseconds.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * This method overrides the equals method.
+     */
+    @Override
+    public boolean equals(final Object other) {
+
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof WarmUpReport)) {
+            return false;
+        }
+
+        WarmUpReport otherReport = (WarmUpReport) other;
+
+        return this.requestedConnections == otherReport.requestedConnections
+                && this.openConnections == otherReport.openConnections
+                && this.preparedTypes == otherReport.preparedTypes
+                && this.durationMillis == otherReport.durationMillis;
+    }
+
+    /**
+     * This method overrides the hashCode method.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(requestedConnections, openConnections,
+                preparedTypes, durationMillis);
+    }
+
+    /**
+     * This method overrides the toString method.
+     */
+    @Override
+    public String toString() {
+        return "[connections: " + openConnections + "/"
+                + requestedConnections + "; prepared types: "
+                + preparedTypes + "; duration: " + durationMillis + " ms]";
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * This package contains the warm-up run when a client is built. The WarmUp
+ * class opens pooled connections to the Outseta API and prepares the
+ * serializers of the model classes, and the WarmUpReport class tells what
+ * was done and how long it took.
+ */
+package com.outseta.client_helper.warm_up;
@@ -0,0 +1,49 @@
+package com.outseta.constant;
+
+/**
+ * This enum is used to indicate the HTTP method of a request.
+ */
+public enum HttpMethod {
+    /**
+     * This enum value is used to indicate a GET request.
+     */
+    GET(true),
+
+    /**
+     * This enum value is used to indicate a PUT request.
+     */
+    PUT(true),
+
+    /**
+     * This enum value is used to indicate a POST request.
+     */
+    POST(false),
+
+    /**
+     * This enum value is used to indicate a DELETE request.
+     */
+    DELETE(true);
+
+    /**
+     * Whether sending the request more than once has the same effect as
+     * sending it once.
+     */
+    private final boolean idempotent;
+
+    /**
+     * This constructor is used to create the enum values.
+     * @param pIdempotent Whether the method is idempotent.
+     */
+    HttpMethod(final boolean pIdempotent) {
+        this.idempotent = pIdempotent;
+    }
+
+    /**
+     * Returns whether sending the request more than once has the same
+     * effect as sending it once.
+     * @return True if the method is idempotent.
+     */
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+}
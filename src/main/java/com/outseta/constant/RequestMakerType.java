@@ -15,6 +15,20 @@ public enum RequestMakerType {
      */
     DEFAULT,
 
+    /**
+     * This enum value is used to indicate that the request maker should be
+     * created using a pooled HttpClient with the default
+     * {@link com.outseta.client_helper.request_maker.HttpClientConfig}.
+     */
+    POOLED_HTTP_CLIENT,
+
+    /**
+     * This enum value is used to indicate that the request maker should be
+     * created using the non-blocking HttpAsyncClient with the default
+     * {@link com.outseta.client_helper.request_maker.HttpClientConfig}.
+     */
+    ASYNC_HTTP_CLIENT,
+
     /**
      * This enum value is used to indicate that the request maker is invalid.
      */
@@ -74,6 +74,26 @@ public class OutsetaAPIException extends Exception {
         this.triggeredBy = pTriggeredBy;
     }
 
+    /**
+     * This constructor is used to create a new OutsetaAPIException object
+     * that does not keep the payload, the parameters or the headers of the
+     * request. It is meant for responses that the caller expects, such as
+     * a 404 from a lookup, where the exception is only a signal and filling
+     * in the stack trace would be most of its cost.
+     * @param reason The reason for the exception.
+     * @param pUrl The url on which the exception occurred.
+     * @param pResponseCode The response code of the request that caused the
+     *                     exception.
+     * @param writableStackTrace False to not fill in the stack trace.
+     */
+    protected OutsetaAPIException(final String reason, final String pUrl,
+                                  final Integer pResponseCode,
+                                  final boolean writableStackTrace) {
+        super(reason, null, true, writableStackTrace);
+        this.url = pUrl;
+        this.responseCode = pResponseCode;
+    }
+
     /**
      * Returns the url on which the exception occurred.
      * @return The url on which the exception occurred.
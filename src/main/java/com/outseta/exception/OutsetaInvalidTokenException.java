@@ -0,0 +1,29 @@
+package com.outseta.exception;
+
+/**
+ * This class is used to represent an exception that occurred because an
+ * access token is malformed, is not signed by the Outseta domain, has
+ * expired or was issued for another audience.
+ */
+public class OutsetaInvalidTokenException extends Exception {
+
+    /**
+     * This constructor is used to create a new OutsetaInvalidTokenException
+     * object.
+     * @param reason The reason for the exception.
+     */
+    public OutsetaInvalidTokenException(final String reason) {
+        super(reason);
+    }
+
+    /**
+     * This constructor is used to create a new OutsetaInvalidTokenException
+     * object.
+     * @param reason The reason for the exception.
+     * @param cause The exception that made the token invalid.
+     */
+    public OutsetaInvalidTokenException(final String reason,
+                                        final Throwable cause) {
+        super(reason, cause);
+    }
+}
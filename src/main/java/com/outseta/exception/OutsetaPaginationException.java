@@ -0,0 +1,21 @@
+package com.outseta.exception;
+
+/**
+ * This exception is thrown by the iterators and streams that walk over all
+ * pages of a list endpoint. Iterators cannot throw checked exceptions, so
+ * the exception that failed the page request is kept as the cause.
+ */
+public class OutsetaPaginationException extends RuntimeException {
+
+    /**
+     * Constructs a new OutsetaPaginationException with the specified
+     * detail message and cause.
+     *
+     * @param message the detail message
+     * @param cause the exception that failed the page request
+     */
+    public OutsetaPaginationException(final String message,
+                                      final Throwable cause) {
+        super(message, cause);
+    }
+}
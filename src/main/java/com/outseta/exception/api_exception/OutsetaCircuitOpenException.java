@@ -0,0 +1,73 @@
+package com.outseta.exception.api_exception;
+
+import java.util.Map;
+
+/**
+ * This class is used to represent a request that was not sent because the
+ * circuit breaker of its endpoint family is open.
+ * <p>
+ *     It is thrown in place of a call that would most likely have failed,
+ *     so it is made cheap to create: it does not record a stack trace.
+ * </p>
+ */
+public class OutsetaCircuitOpenException extends OutsetaAPIFailedException {
+
+    /**
+     * The endpoint family whose circuit is open.
+     */
+    private final String family;
+
+    /**
+     * The time in milliseconds until the circuit lets a probe call through.
+     */
+    private final long retryIn;
+
+    /**
+     * This constructor is used to create a new OutsetaCircuitOpenException
+     * object.
+     * @param pFamily The endpoint family whose circuit is open.
+     * @param pRetryIn The time in milliseconds until the circuit lets a
+     *                 probe call through.
+     * @param url The url of the request that was not sent.
+     * @param parameters The parameters of the request that was not sent.
+     * @param headers The headers of the request that was not sent.
+     */
+    public OutsetaCircuitOpenException(final String pFamily,
+                                       final long pRetryIn,
+                                       final String url,
+                                       final Map<String, Object> parameters,
+                                       final Map<String, String> headers) {
+        super("The circuit of the /" + pFamily + " endpoints is open. "
+                        + "Calls are rejected for another " + pRetryIn
+                        + " ms.", url, null, parameters, headers, null,
+                null);
+        this.family = pFamily;
+        this.retryIn = pRetryIn;
+    }
+
+    /**
+     * Returns the endpoint family whose circuit is open.
+     * @return The first segment of the path, for example billing.
+     */
+    public String getFamily() {
+        return family;
+    }
+
+    /**
+     * Returns the time until the circuit lets a probe call through.
+     * @return The time in milliseconds.
+     */
+    public long getRetryIn() {
+        return retryIn;
+    }
+
+    /**
+     * The stack trace is not recorded, as the exception always comes from
+     * the same place and is thrown often while the circuit is open.
+     * @return This exception.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
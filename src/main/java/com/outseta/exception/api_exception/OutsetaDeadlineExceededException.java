@@ -0,0 +1,32 @@
+package com.outseta.exception.api_exception;
+
+import java.util.Map;
+
+/**
+ * This class is used to represent a request that was not sent, or not
+ * finished, because the deadline of its call had passed.
+ */
+public class OutsetaDeadlineExceededException
+        extends OutsetaAPIFailedException {
+
+    /**
+     * This constructor is used to create a new
+     * OutsetaDeadlineExceededException object.
+     * @param reason The reason for the exception.
+     * @param url The url of the request.
+     * @param payload The payload of the request.
+     * @param parameters The parameters of the request.
+     * @param headers The headers of the request.
+     * @param triggeredBy The exception that caused this exception to be
+     *                    thrown, such as a read timeout, or null.
+     */
+    public OutsetaDeadlineExceededException(final String reason,
+                                            final String url,
+                                            final String payload,
+                                            final Map<String, Object>
+                                                    parameters,
+                                            final Map<String, String> headers,
+                                            final Exception triggeredBy) {
+        super(reason, url, payload, parameters, headers, null, triggeredBy);
+    }
+}
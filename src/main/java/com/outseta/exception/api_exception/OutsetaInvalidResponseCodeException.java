@@ -10,6 +10,12 @@ import java.util.Map;
  */
 public class OutsetaInvalidResponseCodeException extends OutsetaAPIException {
 
+    /**
+     * The time in milliseconds the server asked to wait before the request
+     * is sent again, read from the Retry-After header of the response.
+     */
+    private Long retryAfter;
+
     /**
      * This constructor is used to create a new
      * OutsetaInvalidResponseCodeException
@@ -36,4 +42,42 @@ public class OutsetaInvalidResponseCodeException extends OutsetaAPIException {
         super(reason, url, payload, parameters, headers, responseCode,
                 triggeredBy);
     }
+
+    /**
+     * This constructor is used to create a new
+     * OutsetaInvalidResponseCodeException object for a response code the
+     * caller expects. It does not keep the payload, the parameters or the
+     * headers of the request.
+     * @param reason The reason for the exception.
+     * @param url The url on which the exception occurred.
+     * @param responseCode The response code of the request that caused the
+     *                     exception.
+     * @param writableStackTrace False to not fill in the stack trace.
+     */
+    public OutsetaInvalidResponseCodeException(final String reason,
+                                               final String url,
+                                               final Integer responseCode,
+                                               final boolean
+                                                       writableStackTrace) {
+        super(reason, url, responseCode, writableStackTrace);
+    }
+
+    /**
+     * Returns the time the server asked to wait before the request is sent
+     * again.
+     * @return The time in milliseconds, or null if the response did not
+     *      have a valid Retry-After header.
+     */
+    public Long getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Sets the time the server asked to wait before the request is sent
+     * again.
+     * @param pRetryAfter The time in milliseconds.
+     */
+    public void setRetryAfter(final Long pRetryAfter) {
+        this.retryAfter = pRetryAfter;
+    }
 }
@@ -9,6 +9,9 @@
  *         <li>
  *             {@link com.outseta.exception.OutsetaInvalidArgumentException}
  *         </li>
+ *         <li>
+ *             {@link com.outseta.exception.OutsetaInvalidTokenException}
+ *         </li>
  *         <li>{@link com.outseta.exception.OutsetaInvalidURLException}</li>
  *         <li>{@link com.outseta.exception.OutsetaParseException}</li>
  *         <li>
@@ -142,9 +142,7 @@ public final class AccountPageRequest extends PageRequest {
     @Override
     public AccountPageRequest nextPageRequest()
             throws OutsetaPageBuildException {
-        return AccountPageRequest.builder()
-                .page(this.getPageNum() + 1)
-                .pageSize(this.getPageSize())
+        return copyTo(AccountPageRequest.builder())
                 .accountStage(this.accountStage)
                 .build();
     }
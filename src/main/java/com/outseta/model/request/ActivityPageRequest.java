@@ -174,9 +174,7 @@ public final class ActivityPageRequest extends PageRequest {
     @Override
     public ActivityPageRequest nextPageRequest()
             throws OutsetaPageBuildException {
-        return ActivityPageRequest.builder()
-                .page(this.getPageNum() + 1)
-                .pageSize(this.getPageSize())
+        return copyTo(ActivityPageRequest.builder())
                 .activityType(this.getActivityType())
                 .entityType(this.getEntityType())
                 .build();
@@ -150,20 +150,6 @@ public class PageRequest implements BaseInput {
         customParams = new HashMap<>();
     }
 
-    /**
-     * The constructor for PageRequest.
-     * It is intentionally private to force the use of the builder.
-     * @param pPage The page number.
-     * @param pPageSize The page size.
-     * @param pCustomParams The custom parameters.
-     */
-    private PageRequest(final Integer pPage, final Integer pPageSize,
-                        final Map<String, Object> pCustomParams) {
-        this.pageNum = pPage;
-        this.pageSize = pPageSize;
-        this.customParams = pCustomParams;
-    }
-
     /**
      * This method is used to create a new builder object.
      * @return A new builder object.
@@ -173,13 +159,30 @@ public class PageRequest implements BaseInput {
     }
 
     /**
-     * Returns the next page.
+     * Returns the next page. The page size, custom parameters and sort
+     * order are kept.
      * @return The next page.
      * @throws OutsetaPageBuildException Thrown when the page builder
      *     fails to build a page.
      */
     public PageRequest nextPageRequest() throws OutsetaPageBuildException {
-        return new PageRequest(pageNum + 1, pageSize, customParams);
+        return copyTo(new Builder()).build();
+    }
+
+    /**
+     * This method copies the fields shared by all page requests to the
+     * builder of the next page.
+     * @param builder The builder of the next page.
+     * @param <B> The type of the builder.
+     * @return The same builder so that method chaining can be used.
+     */
+    protected <B extends Builder> B copyTo(final B builder) {
+        builder.page(pageNum == null ? 1 : pageNum + 1)
+                .pageSize(pageSize)
+                .customParams(customParams)
+                .orderBy(orderBy)
+                .orderByDirection(orderByDirection);
+        return builder;
     }
 
     /**
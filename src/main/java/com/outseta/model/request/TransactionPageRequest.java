@@ -145,9 +145,7 @@ public final class TransactionPageRequest extends PageRequest {
     @Override
     public TransactionPageRequest nextPageRequest()
             throws OutsetaPageBuildException {
-        return TransactionPageRequest.builder()
-                .page(this.getPageNum() + 1)
-                .pageSize(this.getPageSize())
+        return copyTo(TransactionPageRequest.builder())
                 .billingTransactionType(this.getBillingTransactionType())
                 .build();
     }
@@ -0,0 +1,187 @@
+package com.outseta.model.result;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.outseta.model.BaseResult;
+
+import java.util.Objects;
+
+/**
+ * This class is used to represent a public key of the Outseta domain, as
+ * published in its JSON Web Key Set.
+ * <p>
+ *     It is read by the
+ *     {@link com.outseta.client.endpoint_client.TokenVerifier} class.
+ *     The header of a signed token uses the same names for the algorithm
+ *     and the id of its key, so it is read into this class too.
+ * </p>
+ */
+public class JsonWebKey implements BaseResult {
+
+    /**
+     * The type of the key.
+     */
+    @JsonProperty("kty")
+    private String keyType;
+
+    /**
+     * The id of the key.
+     */
+    @JsonProperty("kid")
+    private String keyId;
+
+    /**
+     * The algorithm the key is used with.
+     */
+    @JsonProperty("alg")
+    private String algorithm;
+
+    /**
+     * The intended use of the key.
+     */
+    @JsonProperty("use")
+    private String use;
+
+    /**
+     * The base64url encoded modulus of an RSA key.
+     */
+    @JsonProperty("n")
+    private String modulus;
+
+    /**
+     * The base64url encoded exponent of an RSA key.
+     */
+    @JsonProperty("e")
+    private String exponent;
+
+    /**
+     * Default constructor for the creation of a JsonWebKey object.
+     */
+    public JsonWebKey() {
+    }
+
+    /**
+     * Returns the type of the key.
+     * @return The type of the key.
+     */
+    public String getKeyType() {
+        return keyType;
+    }
+
+    /**
+     * Sets the type of the key.
+     * @param pKeyType The type of the key.
+     */
+    public void setKeyType(final String pKeyType) {
+        this.keyType = pKeyType;
+    }
+
+    /**
+     * Returns the id of the key.
+     * @return The id of the key.
+     */
+    public String getKeyId() {
+        return keyId;
+    }
+
+    /**
+     * Sets the id of the key.
+     * @param pKeyId The id of the key.
+     */
+    public void setKeyId(final String pKeyId) {
+        this.keyId = pKeyId;
+    }
+
+    /**
+     * Returns the algorithm the key is used with.
+     * @return The algorithm the key is used with.
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Sets the algorithm the key is used with.
+     * @param pAlgorithm The algorithm the key is used with.
+     */
+    public void setAlgorithm(final String pAlgorithm) {
+        this.algorithm = pAlgorithm;
+    }
+
+    /**
+     * Returns the intended use of the key.
+     * @return The intended use of the key.
+     */
+    public String getUse() {
+        return use;
+    }
+
+    /**
+     * Sets the intended use of the key.
+     * @param pUse The intended use of the key.
+     */
+    public void setUse(final String pUse) {
+        this.use = pUse;
+    }
+
+    /**
+     * Returns the base64url encoded modulus of an RSA key.
+     * @return The base64url encoded modulus of an RSA key.
+     */
+    public String getModulus() {
+        return modulus;
+    }
+
+    /**
+     * Sets the base64url encoded modulus of an RSA key.
+     * @param pModulus The base64url encoded modulus of an RSA key.
+     */
+    public void setModulus(final String pModulus) {
+        this.modulus = pModulus;
+    }
+
+    /**
+     * Returns the base64url encoded exponent of an RSA key.
+     * @return The base64url encoded exponent of an RSA key.
+     */
+    public String getExponent() {
+        return exponent;
+    }
+
+    /**
+     * Sets the base64url encoded exponent of an RSA key.
+     * @param pExponent The base64url encoded exponent of an RSA key.
+     */
+    public void setExponent(final String pExponent) {
+        this.exponent = pExponent;
+    }
+
+    /**
+     * This method overrides the equals method.
+     */
+    @Override
+    public boolean equals(final Object pObject) {
+        if (this == pObject) {
+            return true;
+        }
+        if (pObject == null || getClass() != pObject.getClass()) {
+            return false;
+        }
+
+        final JsonWebKey jsonWebKey = (JsonWebKey) pObject;
+
+        return Objects.equals(keyType, jsonWebKey.keyType)
+                && Objects.equals(keyId, jsonWebKey.keyId)
+                && Objects.equals(algorithm, jsonWebKey.algorithm)
+                && Objects.equals(use, jsonWebKey.use)
+                && Objects.equals(modulus, jsonWebKey.modulus)
+                && Objects.equals(exponent, jsonWebKey.exponent);
+    }
+
+    /**
+     * This method overrides the hashCode method.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(keyType, keyId, algorithm, use, modulus, exponent);
+    }
+}
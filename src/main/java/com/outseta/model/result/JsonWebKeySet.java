@@ -0,0 +1,67 @@
+package com.outseta.model.result;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.outseta.model.BaseResult;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class is used to represent the JSON Web Key Set of the Outseta
+ * domain, which holds the public keys its access tokens are signed with.
+ */
+public class JsonWebKeySet implements BaseResult {
+
+    /**
+     * The keys of the set.
+     */
+    @JsonProperty("keys")
+    private List<JsonWebKey> keys;
+
+    /**
+     * Default constructor for the creation of a JsonWebKeySet object.
+     */
+    public JsonWebKeySet() {
+    }
+
+    /**
+     * Returns the keys of the set.
+     * @return The keys of the set.
+     */
+    public List<JsonWebKey> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Sets the keys of the set.
+     * @param pKeys The keys of the set.
+     */
+    public void setKeys(final List<JsonWebKey> pKeys) {
+        this.keys = pKeys;
+    }
+
+    /**
+     * This method overrides the equals method.
+     */
+    @Override
+    public boolean equals(final Object pObject) {
+        if (this == pObject) {
+            return true;
+        }
+        if (pObject == null || getClass() != pObject.getClass()) {
+            return false;
+        }
+
+        final JsonWebKeySet jsonWebKeySet = (JsonWebKeySet) pObject;
+
+        return Objects.equals(keys, jsonWebKeySet.keys);
+    }
+
+    /**
+     * This method overrides the hashCode method.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(keys);
+    }
+}
@@ -0,0 +1,306 @@
+package com.outseta.model.result;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.outseta.model.BaseResult;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class is used to represent the claims of an Outseta access token
+ * that was verified by the
+ * {@link com.outseta.client.endpoint_client.TokenVerifier} class.
+ * <p>
+ *     The subject of the token is the uid of the person it was issued to.
+ *     The times are in seconds since the epoch.
+ * </p>
+ */
+public class TokenClaims implements BaseResult {
+
+    /**
+     * The uid of the person the token was issued to.
+     */
+    @JsonProperty("sub")
+    private String personUid;
+
+    /**
+     * The uid of the account of the person.
+     */
+    @JsonProperty("outseta:accountUid")
+    private String accountUid;
+
+    /**
+     * The uid of the subscription of the account.
+     */
+    @JsonProperty("outseta:subscriptionUid")
+    private String subscriptionUid;
+
+    /**
+     * The uid of the plan of the subscription.
+     */
+    @JsonProperty("outseta:planUid")
+    private String planUid;
+
+    /**
+     * The email of the person.
+     */
+    @JsonProperty("email")
+    private String email;
+
+    /**
+     * The name of the person.
+     */
+    @JsonProperty("name")
+    private String name;
+
+    /**
+     * The issuer of the token.
+     */
+    @JsonProperty("iss")
+    private String issuer;
+
+    /**
+     * The audiences of the token.
+     */
+    @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+    @JsonProperty("aud")
+    private List<String> audience;
+
+    /**
+     * The time the token expires.
+     */
+    @JsonProperty("exp")
+    private Long expiresAt;
+
+    /**
+     * The time before which the token is not valid.
+     */
+    @JsonProperty("nbf")
+    private Long notBefore;
+
+    /**
+     * The time the token was issued.
+     */
+    @JsonProperty("iat")
+    private Long issuedAt;
+
+    /**
+     * Default constructor for the creation of a TokenClaims object.
+     */
+    public TokenClaims() {
+    }
+
+    /**
+     * Returns the uid of the person the token was issued to.
+     * @return The uid of the person the token was issued to.
+     */
+    public String getPersonUid() {
+        return personUid;
+    }
+
+    /**
+     * Sets the uid of the person the token was issued to.
+     * @param pPersonUid The uid of the person the token was issued to.
+     */
+    public void setPersonUid(final String pPersonUid) {
+        this.personUid = pPersonUid;
+    }
+
+    /**
+     * Returns the uid of the account of the person.
+     * @return The uid of the account of the person.
+     */
+    public String getAccountUid() {
+        return accountUid;
+    }
+
+    /**
+     * Sets the uid of the account of the person.
+     * @param pAccountUid The uid of the account of the person.
+     */
+    public void setAccountUid(final String pAccountUid) {
+        this.accountUid = pAccountUid;
+    }
+
+    /**
+     * Returns the uid of the subscription of the account.
+     * @return The uid of the subscription of the account.
+     */
+    public String getSubscriptionUid() {
+        return subscriptionUid;
+    }
+
+    /**
+     * Sets the uid of the subscription of the account.
+     * @param pSubscriptionUid The uid of the subscription of the account.
+     */
+    public void setSubscriptionUid(final String pSubscriptionUid) {
+        this.subscriptionUid = pSubscriptionUid;
+    }
+
+    /**
+     * Returns the uid of the plan of the subscription.
+     * @return The uid of the plan of the subscription.
+     */
+    public String getPlanUid() {
+        return planUid;
+    }
+
+    /**
+     * Sets the uid of the plan of the subscription.
+     * @param pPlanUid The uid of the plan of the subscription.
+     */
+    public void setPlanUid(final String pPlanUid) {
+        this.planUid = pPlanUid;
+    }
+
+    /**
+     * Returns the email of the person.
+     * @return The email of the person.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Sets the email of the person.
+     * @param pEmail The email of the person.
+     */
+    public void setEmail(final String pEmail) {
+        this.email = pEmail;
+    }
+
+    /**
+     * Returns the name of the person.
+     * @return The name of the person.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name of the person.
+     * @param pName The name of the person.
+     */
+    public void setName(final String pName) {
+        this.name = pName;
+    }
+
+    /**
+     * Returns the issuer of the token.
+     * @return The issuer of the token.
+     */
+    public String getIssuer() {
+        return issuer;
+    }
+
+    /**
+     * Sets the issuer of the token.
+     * @param pIssuer The issuer of the token.
+     */
+    public void setIssuer(final String pIssuer) {
+        this.issuer = pIssuer;
+    }
+
+    /**
+     * Returns the audiences of the token.
+     * @return The audiences of the token.
+     */
+    public List<String> getAudience() {
+        return audience;
+    }
+
+    /**
+     * Sets the audiences of the token.
+     * @param pAudience The audiences of the token.
+     */
+    public void setAudience(final List<String> pAudience) {
+        this.audience = pAudience;
+    }
+
+    /**
+     * Returns the time the token expires.
+     * @return The time the token expires.
+     */
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Sets the time the token expires.
+     * @param pExpiresAt The time the token expires.
+     */
+    public void setExpiresAt(final Long pExpiresAt) {
+        this.expiresAt = pExpiresAt;
+    }
+
+    /**
+     * Returns the time before which the token is not valid.
+     * @return The time before which the token is not valid.
+     */
+    public Long getNotBefore() {
+        return notBefore;
+    }
+
+    /**
+     * Sets the time before which the token is not valid.
+     * @param pNotBefore The time before which the token is not valid.
+     */
+    public void setNotBefore(final Long pNotBefore) {
+        this.notBefore = pNotBefore;
+    }
+
+    /**
+     * Returns the time the token was issued.
+     * @return The time the token was issued.
+     */
+    public Long getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * Sets the time the token was issued.
+     * @param pIssuedAt The time the token was issued.
+     */
+    public void setIssuedAt(final Long pIssuedAt) {
+        this.issuedAt = pIssuedAt;
+    }
+
+    /**
+     * This method overrides the equals method.
+     */
+    @Override
+    public boolean equals(final Object pObject) {
+        if (this == pObject) {
+            return true;
+        }
+        if (pObject == null || getClass() != pObject.getClass()) {
+            return false;
+        }
+
+        final TokenClaims tokenClaims = (TokenClaims) pObject;
+
+        return Objects.equals(personUid, tokenClaims.personUid)
+                && Objects.equals(accountUid, tokenClaims.accountUid)
+                && Objects.equals(subscriptionUid, tokenClaims.subscriptionUid)
+                && Objects.equals(planUid, tokenClaims.planUid)
+                && Objects.equals(email, tokenClaims.email)
+                && Objects.equals(name, tokenClaims.name)
+                && Objects.equals(issuer, tokenClaims.issuer)
+                && Objects.equals(audience, tokenClaims.audience)
+                && Objects.equals(expiresAt, tokenClaims.expiresAt)
+                && Objects.equals(notBefore, tokenClaims.notBefore)
+                && Objects.equals(issuedAt, tokenClaims.issuedAt);
+    }
+
+    /**
+     * This method overrides the hashCode method.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                personUid, accountUid, subscriptionUid, planUid, email, name,
+                issuer, audience, expiresAt, notBefore, issuedAt);
+    }
+}
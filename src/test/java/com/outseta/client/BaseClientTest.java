@@ -1,29 +1,75 @@
 package com.outseta.client;
 
+import com.outseta.client_helper.circuit_breaker.CircuitBreaker;
+import com.outseta.client_helper.circuit_breaker.CircuitBreakerConfig;
+import com.outseta.client_helper.circuit_breaker.CircuitBreakerRegistry;
+import com.outseta.client_helper.coalescing.RequestCoalescer;
+import com.outseta.client_helper.hedging.Hedger;
+import com.outseta.client_helper.hedging.HedgingPolicy;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
+import com.outseta.client_helper.request_maker.BytePayloadRequestMaker;
+import com.outseta.client_helper.request_maker.ConnectionPoolStats;
+import com.outseta.client_helper.request_maker.TransferStats;
+import com.outseta.client_helper.request_maker.Deadline;
+import com.outseta.client_helper.request_maker.DrainingRequestMaker;
+import com.outseta.client_helper.request_maker.PooledRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
+import com.outseta.client_helper.request_maker.ResponseStream;
+import com.outseta.client_helper.request_maker.StreamingRequestMaker;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidRequestMakerException;
 import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.OutsetaParseException;
 import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
 import com.outseta.exception.api_exception.OutsetaAPIFailedException;
 import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaCircuitOpenException;
+import com.outseta.exception.api_exception.OutsetaDeadlineExceededException;
 import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import com.outseta.model.result.Account;
+import com.outseta.model.result.ItemPage;
+import com.outseta.model.result.Metadata;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -44,6 +90,18 @@ class BaseClientTest {
     @Mock
     private RequestMaker requestMaker;
 
+    /**
+     * Creating PooledRequestMaker mock object.
+     */
+    @Mock
+    private PooledRequestMaker pooledRequestMaker;
+
+    /**
+     * Creating AsyncRequestMaker mock object.
+     */
+    @Mock
+    private AsyncRequestMaker asyncRequestMaker;
+
     /**
      * Creating HashMap of valid headers.
      */
@@ -311,6 +369,36 @@ class BaseClientTest {
         assertEquals(requestMaker, baseClient.getRequestMaker());
     }
 
+    /**
+     * This method tests the getConnectionPoolStats method of the
+     * BaseClient class.
+     */
+    @Test
+    void testGetConnectionPoolStats()
+            throws OutsetaInvalidRequestMakerException {
+        // A plain request maker has no pool
+        assertNull(baseClient.getConnectionPoolStats());
+
+        ConnectionPoolStats stats = new ConnectionPoolStats(1, 0, 1, 2);
+        when(pooledRequestMaker.getPoolStats()).thenReturn(stats);
+        baseClient.setRequestMaker(pooledRequestMaker);
+        assertEquals(stats, baseClient.getConnectionPoolStats());
+    }
+
+    /**
+     * This method tests the getTransferStats method of the BaseClient class.
+     */
+    @Test
+    void testGetTransferStats() throws OutsetaInvalidRequestMakerException {
+        // A plain request maker does not count its responses
+        assertNull(baseClient.getTransferStats());
+
+        TransferStats stats = new TransferStats(2, 1, 1, 2);
+        when(pooledRequestMaker.getTransferStats()).thenReturn(stats);
+        baseClient.setRequestMaker(pooledRequestMaker);
+        assertEquals(stats, baseClient.getTransferStats());
+    }
+
     /**
      * This method tests the getParserFacade method of the BaseClient class.
      */
@@ -799,4 +887,506 @@ class BaseClientTest {
         assertFalse(test.isHeadersValid());
     }
 
+    /**
+     * This method tests the getAsyncRequestMaker method of the BaseClient
+     * class.
+     */
+    @Test
+    void testGetAsyncRequestMaker() throws Exception {
+        assertNull(baseClient.getAsyncRequestMaker());
+        baseClient.setRequestMaker(new DrainingRequestMaker(requestMaker, 0,
+                false));
+        assertNull(baseClient.getAsyncRequestMaker());
+
+        // Asynchronous calls go through the wrapping request makers, so
+        // they are counted as in flight
+        DrainingRequestMaker draining =
+                new DrainingRequestMaker(asyncRequestMaker, 0, false);
+        baseClient.setRequestMaker(draining);
+        assertSame(draining, baseClient.getAsyncRequestMaker());
+
+        CompletableFuture<String> request = new CompletableFuture<>();
+        when(asyncRequestMaker.getAsync(dummyBaseUrl + "/crm/people",
+                new HashMap<>(), validHeaders)).thenReturn(request);
+        CompletableFuture<String> response = baseClient.getAsync(
+                "/crm/people", new HashMap<>(), r -> r);
+        assertEquals(1, draining.getInFlight());
+        request.complete("get");
+        assertEquals("get", response.get());
+        assertEquals(0, draining.getInFlight());
+    }
+
+    /**
+     * This method tests the async methods of the BaseClient class.
+     */
+    @Test
+    void testAsyncMethods() throws Exception {
+        baseClient.setRequestMaker(asyncRequestMaker);
+        String url = dummyBaseUrl + "/crm/people";
+
+        when(asyncRequestMaker.getAsync(url, new HashMap<>(), validHeaders))
+                .thenReturn(CompletableFuture.completedFuture("get"));
+        when(asyncRequestMaker.putAsync(url, new HashMap<>(), "body",
+                validHeaders))
+                .thenReturn(CompletableFuture.completedFuture("put"));
+        when(asyncRequestMaker.postAsync(url, new HashMap<>(), "body",
+                validHeaders))
+                .thenReturn(CompletableFuture.completedFuture("post"));
+        when(asyncRequestMaker.deleteAsync(url, new HashMap<>(),
+                validHeaders))
+                .thenReturn(CompletableFuture.completedFuture("delete"));
+
+        assertEquals("GET", baseClient.getAsync("/crm/people",
+                new HashMap<>(), String::toUpperCase).get());
+        assertEquals("PUT", baseClient.putAsync("/crm/people",
+                new HashMap<>(), "body", String::toUpperCase).get());
+        assertEquals("POST", baseClient.postAsync("/crm/people",
+                new HashMap<>(), "body", String::toUpperCase).get());
+        assertEquals("DELETE", baseClient.deleteAsync("/crm/people",
+                new HashMap<>(), String::toUpperCase).get());
+    }
+
+    /**
+     * This method tests that asynchronous responses are parsed on the
+     * executor of the client, not on the thread that completes the
+     * request, and that failures are handed over on it as well.
+     */
+    @Test
+    void testAsyncExecutor() throws Exception {
+        assertNotNull(baseClient.getAsyncExecutor());
+        baseClient.setRequestMaker(asyncRequestMaker);
+        List<Runnable> tasks = new ArrayList<>();
+        baseClient.setAsyncExecutor(tasks::add);
+
+        CompletableFuture<String> request = new CompletableFuture<>();
+        when(asyncRequestMaker.getAsync(dummyBaseUrl + "/crm/people",
+                new HashMap<>(), validHeaders)).thenReturn(request);
+        CompletableFuture<String> parsed = baseClient.getAsync("/crm/people",
+                new HashMap<>(), String::toUpperCase);
+        request.complete("get");
+        assertFalse(parsed.isDone());
+        tasks.remove(0).run();
+        assertEquals("GET", parsed.get());
+
+        CompletableFuture<String> failing = new CompletableFuture<>();
+        when(asyncRequestMaker.deleteAsync(dummyBaseUrl + "/crm/people",
+                new HashMap<>(), validHeaders)).thenReturn(failing);
+        CompletableFuture<String> failed = baseClient.deleteAsync(
+                "/crm/people", new HashMap<>(), r -> r);
+        failing.completeExceptionally(new OutsetaAPIFailedException("down",
+                null, null, null, null, null, null));
+        assertFalse(failed.isDone());
+        tasks.remove(0).run();
+        assertInstanceOf(OutsetaAPIFailedException.class,
+                assertThrows(ExecutionException.class, failed::get)
+                        .getCause());
+
+        baseClient.setAsyncExecutor(null);
+        assertNotNull(baseClient.getAsyncExecutor());
+    }
+
+    /**
+     * This method tests the failure scenarios of the async methods of the
+     * BaseClient class.
+     */
+    @Test
+    void testAsyncMethodsFailure() throws Exception {
+        // A blocking request maker cannot make async calls
+        assertInstanceOf(OutsetaAPIFailedException.class,
+                assertThrows(ExecutionException.class, () ->
+                        baseClient.getAsync("/crm/people", new HashMap<>(),
+                                response -> response).get()).getCause());
+        assertThrows(ExecutionException.class, () -> baseClient.putAsync(
+                "/crm/people", new HashMap<>(), "", r -> r).get());
+        assertThrows(ExecutionException.class, () -> baseClient.postAsync(
+                "/crm/people", new HashMap<>(), "", r -> r).get());
+        assertThrows(ExecutionException.class, () -> baseClient.deleteAsync(
+                "/crm/people", new HashMap<>(), r -> r).get());
+
+        baseClient.setRequestMaker(asyncRequestMaker);
+        CompletableFuture<String> request = new CompletableFuture<>();
+        when(asyncRequestMaker.getAsync(dummyBaseUrl + "/crm/people",
+                new HashMap<>(), validHeaders)).thenReturn(request);
+
+        // A parse failure fails the future
+        CompletableFuture<String> parsed = baseClient.getAsync("/crm/people",
+                new HashMap<>(), response -> {
+                    throw new OutsetaParseException("Invalid json.");
+                });
+        request.complete("{");
+        assertInstanceOf(OutsetaParseException.class,
+                assertThrows(ExecutionException.class, parsed::get)
+                        .getCause());
+
+        // Cancelling the parsed future cancels the request
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        when(asyncRequestMaker.getAsync(dummyBaseUrl + "/crm/accounts",
+                new HashMap<>(), validHeaders)).thenReturn(pending);
+        baseClient.getAsync("/crm/accounts", new HashMap<>(), r -> r)
+                .cancel(true);
+        assertTrue(pending.isCancelled());
+    }
+
+    /**
+     * This method tests that calls to an endpoint family whose circuit is
+     * open fail fast without being sent, while other families are still
+     * called.
+     */
+    @Test
+    void testCircuitBreaker() throws Exception {
+        final int minimumCalls = 2;
+        baseClient.setCircuitBreakers(new CircuitBreakerRegistry(
+                CircuitBreakerConfig.builder()
+                        .windowSize(minimumCalls)
+                        .minimumCalls(minimumCalls)
+                        .build()));
+        final int unavailable = 503;
+        String billingUrl = dummyBaseUrl + "/billing/plans";
+        when(requestMaker.get(billingUrl, new HashMap<>(), validHeaders))
+                .thenThrow(new OutsetaInvalidResponseCodeException("failed",
+                        billingUrl, null, null, null, unavailable, null));
+        when(requestMaker.post(dummyBaseUrl + "/crm/people",
+                new HashMap<>(), "body", validHeaders)).thenReturn("ok");
+
+        for (int i = 0; i < minimumCalls; i++) {
+            assertThrows(OutsetaInvalidResponseCodeException.class, () ->
+                    baseClient.get("/billing/plans", new HashMap<>()));
+        }
+        OutsetaCircuitOpenException open = assertThrows(
+                OutsetaCircuitOpenException.class, () ->
+                        baseClient.put("/billing/subscriptions",
+                                new HashMap<>(), "body"));
+        assertEquals("billing", open.getFamily());
+        assertTrue(open.getRetryIn() > 0);
+        assertEquals(0, open.getStackTrace().length);
+        verify(requestMaker, times(minimumCalls)).get(billingUrl,
+                new HashMap<>(), validHeaders);
+
+        // Other families are not affected
+        assertEquals("ok", baseClient.post("/crm/people", new HashMap<>(),
+                "body"));
+        assertEquals(CircuitBreaker.State.CLOSED, baseClient
+                .getCircuitBreakers().get("crm").getState());
+
+        // Asynchronous calls are checked as well
+        baseClient.setRequestMaker(asyncRequestMaker);
+        assertInstanceOf(OutsetaCircuitOpenException.class,
+                assertThrows(ExecutionException.class, () -> baseClient
+                        .deleteAsync("/billing/plans", new HashMap<>(),
+                                r -> r).get()).getCause());
+    }
+
+    /**
+     * This method tests that the outcome of asynchronous calls is recorded
+     * once they complete.
+     */
+    @Test
+    void testCircuitBreakerAsync() throws Exception {
+        baseClient.setRequestMaker(asyncRequestMaker);
+        baseClient.setCircuitBreakers(new CircuitBreakerRegistry(
+                CircuitBreakerConfig.builder().windowSize(1)
+                        .minimumCalls(1).build()));
+        CompletableFuture<String> request = new CompletableFuture<>();
+        when(asyncRequestMaker.getAsync(dummyBaseUrl + "/email/lists",
+                new HashMap<>(), validHeaders)).thenReturn(request);
+
+        CompletableFuture<String> result = baseClient.getAsync(
+                "/email/lists", new HashMap<>(), r -> r);
+        CircuitBreaker breaker = baseClient.getCircuitBreakers()
+                .get("email");
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        request.completeExceptionally(new OutsetaAPIBadRequestException(
+                "reset", null, null, null, null, null, null));
+        assertThrows(ExecutionException.class, result::get);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    /**
+     * This method tests that the deadline entered around a call is seen by
+     * the request maker, and that a call past its deadline is not sent.
+     */
+    @Test
+    void testDeadlineScope() throws Exception {
+        final long timeout = 60_000L;
+        String url = dummyBaseUrl + "/crm/people";
+        when(requestMaker.get(url, new HashMap<>(), validHeaders))
+                .thenAnswer(invocation -> {
+                    Deadline deadline = Deadline.current();
+                    assertNotNull(deadline);
+                    assertTrue(deadline.remaining(TimeUnit.MILLISECONDS)
+                            <= timeout);
+                    return "get";
+                });
+        when(requestMaker.put(url, new HashMap<>(), "body", validHeaders))
+                .thenReturn("put");
+        when(requestMaker.post(url, new HashMap<>(), "body", validHeaders))
+                .thenReturn("post");
+        when(requestMaker.delete(url, new HashMap<>(), validHeaders))
+                .thenReturn("delete");
+
+        try (Deadline.Scope scope = Deadline.after(timeout,
+                TimeUnit.MILLISECONDS).enter()) {
+            assertEquals("get", baseClient.get("/crm/people",
+                    new HashMap<>()));
+            assertEquals("put", baseClient.put("/crm/people",
+                    new HashMap<>(), "body"));
+        }
+        assertEquals("post", baseClient.post("/crm/people", new HashMap<>(),
+                "body"));
+        assertEquals("delete", baseClient.delete("/crm/people",
+                new HashMap<>()));
+        assertNull(Deadline.current());
+
+        try (Deadline.Scope scope = Deadline.after(0, TimeUnit.MILLISECONDS)
+                .enter()) {
+            assertThrows(OutsetaDeadlineExceededException.class, () ->
+                    baseClient.get("/crm/accounts", new HashMap<>()));
+        }
+        verify(requestMaker, times(1)).get(any(), any(), any());
+    }
+
+    /**
+     * This method tests that get requests are hedged through the
+     * asynchronous request maker, and sent as usual when the request maker
+     * cannot make asynchronous calls.
+     */
+    @Test
+    void testHedging() throws Exception {
+        Hedger hedger = new Hedger(HedgingPolicy.builder().build());
+        baseClient.setHedger(hedger);
+        assertSame(hedger, baseClient.getHedger());
+
+        String url = dummyBaseUrl + "/crm/people";
+        when(requestMaker.get(url, new HashMap<>(), validHeaders))
+                .thenReturn("blocking");
+        assertEquals("blocking", baseClient.get("/crm/people",
+                new HashMap<>()));
+        assertEquals(0, hedger.getCalls());
+
+        baseClient.setRequestMaker(asyncRequestMaker);
+        when(asyncRequestMaker.getAsync(url, new HashMap<>(), validHeaders))
+                .thenReturn(CompletableFuture.completedFuture("hedged"));
+        assertEquals("hedged", baseClient.get("/crm/people",
+                new HashMap<>()));
+        assertEquals("hedged", baseClient.getAsync("/crm/people",
+                new HashMap<>(), r -> r).get());
+        assertEquals(2, hedger.getCalls());
+        assertEquals(Long.valueOf(2), hedger.getSamples().get("crm/people"));
+
+        baseClient.setHedger(null);
+        assertNull(baseClient.getHedger());
+    }
+
+    /**
+     * This method tests that concurrent identical lookups share one request
+     * and one parsed result, and that a failure is shared as well.
+     */
+    @Test
+    void testCoalescing() throws Exception {
+        RequestCoalescer coalescer = RequestCoalescer.builder().build();
+        baseClient.setCoalescer(coalescer);
+        assertSame(coalescer, baseClient.getCoalescer());
+
+        String url = dummyBaseUrl + "/crm/accounts/abc";
+        Account account = Account.builder().build();
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        final long wait = 5L;
+        when(requestMaker.get(url, new HashMap<>(), validHeaders))
+                .thenAnswer(invocation -> {
+                    sending.countDown();
+                    assertTrue(release.await(wait, TimeUnit.SECONDS));
+                    return "account";
+                });
+        when(parserFacade.jsonStringToObject("account", Account.class))
+                .thenReturn(account);
+
+        CompletableFuture<Account> leader = CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return baseClient.getObject("/crm/accounts/abc",
+                                new HashMap<>(), Account.class);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                });
+        assertTrue(sending.await(wait, TimeUnit.SECONDS));
+        assertEquals(1, coalescer.getInFlight());
+
+        CompletableFuture<Account> follower = CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return baseClient.getObject("/crm/accounts/abc",
+                                new HashMap<>(), Account.class);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                });
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(wait);
+        while (coalescer.getHits() == 0 && System.nanoTime() < end) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        assertSame(account, leader.get());
+        assertSame(account, follower.get());
+        verify(requestMaker, times(1)).get(url, new HashMap<>(),
+                validHeaders);
+        verify(parserFacade, times(1)).jsonStringToObject("account",
+                Account.class);
+        assertEquals(1, coalescer.getHits());
+        assertEquals(0, coalescer.getInFlight());
+
+        // A call made once the request is done sends its own
+        assertSame(account, baseClient.getObject("/crm/accounts/abc",
+                new HashMap<>(), Account.class));
+        assertEquals(2, coalescer.getMisses());
+
+        // A shared failure is thrown to every caller
+        CompletableFuture<Object> failed = new CompletableFuture<>();
+        OutsetaAPIBadRequestException failure =
+                new OutsetaAPIBadRequestException("reset", null, null, null,
+                        null, null, null);
+        failed.completeExceptionally(failure);
+        String key = RequestCoalescer.key("GET",
+                dummyBaseUrl + "/crm/people/abc", new HashMap<>(),
+                Account.class, "key and secret");
+        assertNull(coalescer.join(key, failed));
+        assertSame(failure, assertThrows(OutsetaAPIBadRequestException.class,
+                () -> baseClient.getObject("/crm/people/abc",
+                        new HashMap<>(), Account.class)));
+    }
+
+    /**
+     * This method tests that the api key can be rotated while other threads
+     * make requests: every request sees one complete set of headers that
+     * does not change while it is sent, and the requests that start after
+     * the rotation use the new key.
+     */
+    @Test
+    void testHeaderRotation() throws Exception {
+        final int threads = 4;
+        final int calls = 200;
+        final long wait = 10L;
+        List<String> torn = new CopyOnWriteArrayList<>();
+        baseClient.updateHeaders(Collections.singletonMap("X-Key",
+                "key and secret"));
+        when(requestMaker.get(any(), any(), any())).thenAnswer(invocation -> {
+            Map<String, String> headers = invocation.getArgument(2);
+            String key = headers.get("Authorization");
+            Thread.yield();
+            if (!key.equals(headers.get("Authorization"))
+                    || !key.equals(headers.get("X-Key"))) {
+                torn.add(key);
+            }
+            return key;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> callers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                callers.add(executor.submit(() -> {
+                    for (int i = 0; i < calls; i++) {
+                        baseClient.get("/crm/people", new HashMap<>());
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < calls; i++) {
+                Map<String, String> rotated = new HashMap<>();
+                rotated.put("Authorization", "key " + i);
+                rotated.put("X-Key", "key " + i);
+                baseClient.updateHeaders(rotated);
+            }
+            for (Future<?> caller : callers) {
+                caller.get(wait, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(torn.isEmpty(), torn.toString());
+        assertEquals("key " + (calls - 1),
+                baseClient.get("/crm/people", new HashMap<>()));
+        assertThrows(UnsupportedOperationException.class,
+                () -> baseClient.getHeaders().put("Authorization", "other"));
+
+        baseClient.removeHeader("X-Key");
+        assertFalse(baseClient.getHeaders().containsKey("X-Key"));
+        assertEquals("key " + (calls - 1),
+                baseClient.getHeaders().get("Authorization"));
+    }
+
+    /**
+     * This method tests that lookups and pages are parsed from the body as
+     * it is read when the request maker can stream, and that the body is
+     * closed once parsed or when parsing fails.
+     */
+    @Test
+    void testStreaming() throws Exception {
+        StreamingRequestMaker streaming = mock(StreamingRequestMaker.class);
+        baseClient.setRequestMaker(streaming);
+        Account account = Account.builder().build();
+        ItemPage<Account> page = new ItemPage<>(new Metadata(),
+                new ArrayList<>());
+        Closeable response = mock(Closeable.class);
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        when(streaming.getStream(any(), any(), any())).thenAnswer(
+                invocation -> new ResponseStream(body, response));
+        when(parserFacade.jsonStreamToObject(body, Account.class))
+                .thenReturn(account);
+        when(parserFacade.jsonStreamToPage(body, Account.class))
+                .thenReturn(page);
+
+        assertSame(account, baseClient.getObject("/crm/accounts/abc",
+                new HashMap<>(), Account.class));
+        assertSame(page, baseClient.getPage("/crm/accounts",
+                new HashMap<>(), Account.class));
+        verify(response, times(2)).close();
+
+        when(parserFacade.jsonStreamToObject(body, Account.class))
+                .thenThrow(new OutsetaParseException("invalid"));
+        assertThrows(OutsetaParseException.class, () -> baseClient.getObject(
+                "/crm/accounts/abc", new HashMap<>(), Account.class));
+        final int closes = 3;
+        verify(response, times(closes)).close();
+        verify(streaming, never()).get(any(), any(), any());
+    }
+
+    /**
+     * This method tests that models are written straight to bytes when the
+     * request maker can send them, and as strings otherwise.
+     */
+    @Test
+    void testBytePayload() throws Exception {
+        Account account = Account.builder().build();
+        byte[] payload = "{}".getBytes(StandardCharsets.UTF_8);
+        when(parserFacade.objectToJsonBytes(account)).thenReturn(payload);
+        BytePayloadRequestMaker bytes = mock(BytePayloadRequestMaker.class);
+        when(bytes.putBytes(dummyBaseUrl + "/crm/accounts/abc",
+                Collections.emptyMap(), payload, validHeaders))
+                .thenReturn("updated");
+        when(bytes.postBytes(dummyBaseUrl + "/crm/accounts",
+                Collections.emptyMap(), payload, validHeaders))
+                .thenReturn("created");
+
+        baseClient.setRequestMaker(new DrainingRequestMaker(bytes, 0, false));
+        assertEquals("updated", baseClient.putObject("/crm/accounts/abc",
+                Collections.emptyMap(), account));
+        assertEquals("created", baseClient.postObject("/crm/accounts",
+                Collections.emptyMap(), account));
+        verify(parserFacade, never()).objectToJsonString(any());
+
+        // A chain that ends in a request maker without bytes sends strings
+        when(parserFacade.objectToJsonString(account)).thenReturn("{}");
+        when(requestMaker.post(dummyBaseUrl + "/crm/accounts",
+                Collections.emptyMap(), "{}", validHeaders))
+                .thenReturn("created");
+        baseClient.setRequestMaker(new DrainingRequestMaker(requestMaker, 0,
+                false));
+        assertEquals("created", baseClient.postObject("/crm/accounts",
+                Collections.emptyMap(), account));
+    }
 }
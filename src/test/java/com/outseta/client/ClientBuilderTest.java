@@ -1,8 +1,24 @@
 package com.outseta.client;
 
+import com.outseta.client_helper.circuit_breaker.CircuitBreakerConfig;
+import com.outseta.client_helper.circuit_breaker.CircuitBreakerRegistry;
+import com.outseta.client_helper.caching.EntityCache;
+import com.outseta.client_helper.coalescing.RequestCoalescer;
+import com.outseta.client_helper.hedging.Hedger;
+import com.outseta.client_helper.hedging.HedgingPolicy;
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
+import com.outseta.client_helper.request_maker.HttpClientConfig;
+import com.outseta.client_helper.request_maker.PooledRequestMaker;
+import com.outseta.client_helper.request_maker.RateLimitedRequestMaker;
+import com.outseta.client_helper.request_maker.RateLimiter;
 import com.outseta.client_helper.request_maker.RequestMaker;
+import com.outseta.client_helper.request_maker.RetryPolicy;
+import com.outseta.client_helper.request_maker.RetryingRequestMaker;
+import com.outseta.client_helper.request_maker.TransferStats;
+import com.outseta.client_helper.warm_up.WarmUp;
+import com.outseta.client_helper.warm_up.WarmUpReport;
 import com.outseta.constant.RequestMakerType;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidRequestMakerException;
@@ -12,15 +28,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -376,4 +395,229 @@ class ClientBuilderTest {
                     .requestMaker((RequestMaker) null);
         });
     }
+
+    /**
+     * This method tests the pooledRequestMaker method.
+     */
+    @Test
+    void testPooledRequestMaker() throws OutsetaClientBuildException,
+            OutsetaInvalidRequestMakerException, IOException {
+        assertEquals(this.clientBuilder, this.clientBuilder
+                .pooledRequestMaker(HttpClientConfig.builder().build()));
+        assertTrue(baseClient.getRequestMaker()
+                instanceof PooledRequestMaker);
+        assertNotNull(baseClient.getConnectionPoolStats());
+        ((PooledRequestMaker) baseClient.getRequestMaker()).close();
+
+        assertThrows(OutsetaInvalidRequestMakerException.class, () ->
+                this.clientBuilder.pooledRequestMaker(null));
+    }
+
+    /**
+     * This method tests the asyncRequestMaker method.
+     */
+    @Test
+    void testAsyncRequestMaker() throws OutsetaClientBuildException,
+            OutsetaInvalidRequestMakerException, IOException {
+        assertEquals(this.clientBuilder, this.clientBuilder
+                .asyncRequestMaker(HttpClientConfig.builder().build()));
+        assertTrue(baseClient.getRequestMaker()
+                instanceof AsyncRequestMaker);
+        assertNotNull(baseClient.getAsyncRequestMaker());
+        assertNotNull(baseClient.getConnectionPoolStats());
+        baseClient.getAsyncRequestMaker().close();
+
+        assertThrows(OutsetaInvalidRequestMakerException.class, () ->
+                this.clientBuilder.asyncRequestMaker(null));
+    }
+
+    /**
+     * This method tests that the retryPolicy method wraps the request maker
+     * and that the pool and the asynchronous request maker are still
+     * found through it.
+     */
+    @Test
+    void testRetryPolicy() throws OutsetaClientBuildException,
+            OutsetaInvalidRequestMakerException, IOException {
+        RetryPolicy policy = RetryPolicy.builder().build();
+        assertEquals(this.clientBuilder, this.clientBuilder
+                .apiKey("key")
+                .defaultParser()
+                .retryPolicy(policy)
+                .asyncRequestMaker(HttpClientConfig.builder().build()));
+        this.clientBuilder.build();
+
+        assertTrue(baseClient.getRequestMaker()
+                instanceof RetryingRequestMaker);
+        assertSame(policy, ((RetryingRequestMaker) baseClient
+                .getRequestMaker()).getPolicy());
+        assertNotNull(baseClient.getConnectionPoolStats());
+        assertNotNull(baseClient.getAsyncRequestMaker());
+        baseClient.getAsyncRequestMaker().close();
+
+        assertThrows(OutsetaClientBuildException.class, () ->
+                this.clientBuilder.retryPolicy(null));
+    }
+
+    /**
+     * This method tests that clients built with the same credentials share
+     * one rate limiter, which sits below the retries.
+     */
+    @Test
+    void testRateLimit() throws OutsetaClientBuildException,
+            OutsetaInvalidRequestMakerException {
+        final double rate = 5d;
+        BaseClient first = new ClientBuilder<>(
+                new BaseClient("http://ratelimit.test"))
+                .apiKey("key")
+                .defaultParser()
+                .defaultRequestMaker()
+                .rateLimit(rate)
+                .retryPolicy(RetryPolicy.builder().build())
+                .build();
+        BaseClient second = new ClientBuilder<>(
+                new BaseClient("http://ratelimit.test"))
+                .rateLimit(rate)
+                .apiKey("key")
+                .defaultParser()
+                .defaultRequestMaker()
+                .build();
+
+        RetryingRequestMaker retrying =
+                (RetryingRequestMaker) first.getRequestMaker();
+        RateLimitedRequestMaker limited =
+                (RateLimitedRequestMaker) retrying.getDelegate();
+        assertSame(limited.getLimiter(), ((RateLimitedRequestMaker) second
+                .getRequestMaker()).getLimiter());
+        assertEquals(rate, limited.getLimiter().getPermitsPerSecond());
+
+        RateLimiter own = RateLimiter.builder(rate).build();
+        BaseClient third = new ClientBuilder<>(
+                new BaseClient("http://ratelimit.test"))
+                .apiKey("key")
+                .defaultParser()
+                .defaultRequestMaker()
+                .rateLimiter(own)
+                .build();
+        assertSame(own, ((RateLimitedRequestMaker) third
+                .getRequestMaker()).getLimiter());
+
+        assertThrows(OutsetaClientBuildException.class, () ->
+                this.clientBuilder.rateLimit(0));
+        assertThrows(OutsetaClientBuildException.class, () ->
+                this.clientBuilder.rateLimiter(null));
+    }
+
+    /**
+     * This method tests that the circuitBreaker method gives the client
+     * its own circuits and that a registry can be shared.
+     */
+    @Test
+    void testCircuitBreaker() throws OutsetaClientBuildException {
+        CircuitBreakerConfig config = CircuitBreakerConfig.builder().build();
+        assertEquals(this.clientBuilder,
+                this.clientBuilder.circuitBreaker(config));
+        assertSame(config, baseClient.getCircuitBreakers().getConfig());
+
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(config);
+        this.clientBuilder.circuitBreakers(registry);
+        assertSame(registry, baseClient.getCircuitBreakers());
+
+        assertThrows(OutsetaClientBuildException.class, () ->
+                this.clientBuilder.circuitBreaker(null));
+        assertThrows(OutsetaClientBuildException.class, () ->
+                this.clientBuilder.circuitBreakers(null));
+    }
+
+    /**
+     * This method tests that the get requests of the client can be hedged.
+     */
+    @Test
+    void testHedging() throws OutsetaClientBuildException {
+        HedgingPolicy policy = HedgingPolicy.builder().build();
+        assertEquals(this.clientBuilder, this.clientBuilder.hedging(policy));
+        assertSame(policy, baseClient.getHedger().getPolicy());
+
+        Hedger hedger = new Hedger(policy);
+        this.clientBuilder.hedger(hedger);
+        assertSame(hedger, baseClient.getHedger());
+
+        assertThrows(OutsetaClientBuildException.class, () ->
+                this.clientBuilder.hedging(null));
+        assertThrows(OutsetaClientBuildException.class, () ->
+                this.clientBuilder.hedger(null));
+    }
+
+    /**
+     * This method tests that the lookups of the client can be coalesced.
+     */
+    @Test
+    void testCoalescing() throws OutsetaClientBuildException {
+        RequestCoalescer coalescer = RequestCoalescer.builder().build();
+        assertEquals(this.clientBuilder,
+                this.clientBuilder.coalescing(coalescer));
+        assertSame(coalescer, baseClient.getCoalescer());
+
+        assertThrows(OutsetaClientBuildException.class, () ->
+                this.clientBuilder.coalescing(null));
+    }
+
+    /**
+     * This method tests that the entities read by the client can be
+     * cached.
+     */
+    @Test
+    void testEntityCache() throws OutsetaClientBuildException {
+        EntityCache cache = EntityCache.builder().build();
+        assertEquals(this.clientBuilder,
+                this.clientBuilder.entityCache(cache));
+        assertSame(cache, baseClient.getEntityCache());
+
+        assertThrows(OutsetaClientBuildException.class, () ->
+                this.clientBuilder.entityCache(null));
+    }
+
+    /**
+     * This method tests that compression can be turned off for the request
+     * makers of this library and that it cannot be set on other ones.
+     */
+    @Test
+    void testCompression() throws OutsetaClientBuildException,
+            OutsetaInvalidRequestMakerException, IOException {
+        this.clientBuilder.accessKey("accessKey").apiKey("apiKey")
+                .defaultParser()
+                .pooledRequestMaker(HttpClientConfig.builder().build());
+        assertEquals(this.clientBuilder, this.clientBuilder.compression(false));
+        assertEquals(baseClient, this.clientBuilder.build());
+        assertEquals(new TransferStats(0, 0, 0, 0),
+                baseClient.getTransferStats());
+        ((PooledRequestMaker) baseClient.getRequestMaker()).close();
+
+        this.clientBuilder.requestMaker(mock(RequestMaker.class));
+        assertThrows(OutsetaClientBuildException.class, () ->
+                this.clientBuilder.build());
+    }
+
+    /**
+     * This method tests that the client is warmed up when it is built and
+     * that a negative number of connections is rejected.
+     */
+    @Test
+    void testWarmUp() throws OutsetaClientBuildException,
+            OutsetaInvalidRequestMakerException, IOException {
+        this.clientBuilder.accessKey("accessKey").apiKey("apiKey")
+                .defaultParser()
+                .pooledRequestMaker(HttpClientConfig.builder().build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                this.clientBuilder.warmUp(-1));
+        assertNull(baseClient.getWarmUpReport());
+
+        assertEquals(this.clientBuilder, this.clientBuilder.warmUp(0));
+        assertEquals(baseClient, this.clientBuilder.build());
+
+        WarmUpReport report = baseClient.getWarmUpReport();
+        assertEquals(0, report.getOpenConnections());
+        assertEquals(WarmUp.MODEL_TYPES.size(), report.getPreparedTypes());
+        ((PooledRequestMaker) baseClient.getRequestMaker()).close();
+    }
 }
@@ -0,0 +1,441 @@
+package com.outseta.client;
+
+import com.outseta.client.endpoint_client.AuthenticationClient;
+import com.outseta.client.endpoint_client.ProfileClient;
+import com.outseta.client.endpoint_client.crm.AccountClient;
+import com.outseta.client.endpoint_client.crm.PeopleClient;
+import com.outseta.client_helper.circuit_breaker.CircuitBreakerConfig;
+import com.outseta.client_helper.caching.EntityCache;
+import com.outseta.client_helper.coalescing.RequestCoalescer;
+import com.outseta.client_helper.hedging.HedgingPolicy;
+import com.outseta.client_helper.parser.json.JsonParser;
+import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.HttpClientConfig;
+import com.outseta.client_helper.request_maker.RequestMaker;
+import com.outseta.client_helper.request_maker.RateLimitedRequestMaker;
+import com.outseta.client_helper.request_maker.RequestMakerDecorator;
+import com.outseta.client_helper.request_maker.RetryPolicy;
+import com.outseta.client_helper.request_maker.RetryingRequestMaker;
+import com.outseta.client_helper.request_maker.TransferStats;
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.exception.OutsetaInvalidArgumentException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the Outseta class.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutsetaTest {
+
+    /**
+     * The Outseta URL used for testing.
+     */
+    private static final String OUTSETA_URL = "https://dummy.com";
+
+    /**
+     * The Outseta Key used for testing.
+     */
+    private static final String OUTSETA_KEY = "dummyKey";
+
+    /**
+     * The request maker used for testing.
+     */
+    @Mock
+    private RequestMaker requestMaker;
+
+    /**
+     * The parser used for testing.
+     */
+    @Mock
+    private ParserFacade parserFacade;
+
+    /**
+     * The json parser used for testing.
+     */
+    @Mock
+    private JsonParser jsonParser;
+
+    /**
+     * This method tests that the clients share one transport and parser.
+     */
+    @Test
+    void testSharedClients() throws OutsetaClientBuildException,
+            IOException {
+        Outseta outseta = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .httpClientConfig(HttpClientConfig.builder().build())
+                .build();
+
+        AccountClient accounts = outseta.accounts();
+        PeopleClient people = outseta.people();
+
+        // The clients are created once and reused
+        assertSame(accounts, outseta.accounts());
+        assertSame(people, outseta.people());
+
+        // All clients share one request maker and one parser
+        assertSame(outseta.getRequestMaker(), accounts.getRequestMaker());
+        assertSame(outseta.getRequestMaker(), people.getRequestMaker());
+        assertSame(outseta.getParserFacade(), accounts.getParserFacade());
+        assertSame(outseta.getParserFacade(),
+                outseta.subscriptions().getParserFacade());
+
+        assertNotNull(outseta.activities());
+        assertNotNull(outseta.deals());
+        assertNotNull(outseta.addOns());
+        assertNotNull(outseta.discounts());
+        assertNotNull(outseta.invoices());
+        assertNotNull(outseta.plans());
+        assertNotNull(outseta.planFamilies());
+        assertNotNull(outseta.catalog());
+        assertSame(outseta.catalog(), outseta.catalog());
+        assertNotNull(outseta.paymentInfo());
+        assertNotNull(outseta.marketing());
+        assertNotNull(outseta.support());
+
+        assertEquals(OUTSETA_KEY, accounts.getHeaders().get("Authorization"));
+        assertEquals(OUTSETA_URL, outseta.getBaseUrl());
+        assertNotNull(outseta.getConnectionPoolStats());
+        assertEquals(new TransferStats(0, 0, 0, 0),
+                outseta.getTransferStats());
+        assertNull(outseta.getWarmUpReport());
+
+        outseta.close();
+
+        // No client can be created after close
+        assertThrows(OutsetaClientBuildException.class, outseta::deals);
+    }
+
+    /**
+     * This method tests that a retry policy wraps the shared transport and
+     * that the pool behind it is still reported and closed.
+     */
+    @Test
+    void testRetryPolicy() throws OutsetaClientBuildException,
+            IOException {
+        Outseta outseta = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .retryPolicy(RetryPolicy.builder().build())
+                .build();
+
+        RetryingRequestMaker retrying = RequestMakerDecorator.unwrap(
+                outseta.accounts().getRequestMaker(),
+                RetryingRequestMaker.class);
+        assertNotNull(retrying);
+        assertEquals(0, retrying.getRetries());
+        assertNotNull(outseta.getConnectionPoolStats());
+
+        outseta.close();
+        assertThrows(OutsetaAPIFailedException.class, () ->
+                outseta.getRequestMaker().get(OUTSETA_URL,
+                        Collections.emptyMap(), Collections.emptyMap()));
+    }
+
+    /**
+     * This method tests that the shared rate limit is checked when the
+     * object is built.
+     */
+    @Test
+    void testRateLimit() throws OutsetaClientBuildException, IOException {
+        final double rate = 5d;
+        Outseta outseta = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .rateLimit(rate)
+                .build();
+        assertNotNull(RequestMakerDecorator.unwrap(outseta.getRequestMaker(),
+                RateLimitedRequestMaker.class));
+
+        assertThrows(OutsetaClientBuildException.class, () ->
+                Outseta.builder(OUTSETA_URL)
+                        .apiKey(OUTSETA_KEY)
+                        .rateLimit(rate + 1)
+                        .build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                Outseta.builder(OUTSETA_URL)
+                        .apiKey(OUTSETA_KEY)
+                        .rateLimit(-1)
+                        .build());
+        outseta.close();
+    }
+
+    /**
+     * This method tests that all clients share one set of circuits.
+     */
+    @Test
+    void testCircuitBreaker() throws OutsetaClientBuildException,
+            IOException {
+        Outseta outseta = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .circuitBreaker(CircuitBreakerConfig.builder().build())
+                .build();
+
+        assertNotNull(outseta.getCircuitBreakers());
+        assertSame(outseta.getCircuitBreakers(),
+                outseta.accounts().getCircuitBreakers());
+        assertSame(outseta.getCircuitBreakers(),
+                outseta.plans().getCircuitBreakers());
+        outseta.close();
+
+        Outseta withoutBreakers = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .build();
+        assertNull(withoutBreakers.accounts().getCircuitBreakers());
+        withoutBreakers.close();
+    }
+
+    /**
+     * This method tests that the hedger is shared by all clients and that
+     * the non-blocking transport is used so that hedges can be cancelled.
+     */
+    @Test
+    void testHedging() throws OutsetaClientBuildException, IOException {
+        Outseta outseta = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .hedging(HedgingPolicy.builder().build())
+                .build();
+
+        assertNotNull(outseta.getHedger());
+        assertSame(outseta.getHedger(), outseta.accounts().getHedger());
+        assertSame(outseta.getHedger(), outseta.people().getHedger());
+        assertNotNull(outseta.accounts().getAsyncRequestMaker());
+        outseta.close();
+
+        Outseta withoutHedging = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .build();
+        assertNull(withoutHedging.accounts().getHedger());
+        withoutHedging.close();
+    }
+
+    /**
+     * This method tests that the coalescer is shared by all clients.
+     */
+    @Test
+    void testCoalescing() throws OutsetaClientBuildException, IOException {
+        RequestCoalescer coalescer = RequestCoalescer.builder().build();
+        Outseta outseta = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .coalescing(coalescer)
+                .build();
+
+        assertSame(coalescer, outseta.getCoalescer());
+        assertSame(coalescer, outseta.plans().getCoalescer());
+        assertSame(coalescer, outseta.accounts().getCoalescer());
+        outseta.close();
+    }
+
+    /**
+     * This method tests that the entity cache is shared by all clients.
+     */
+    @Test
+    void testEntityCache() throws OutsetaClientBuildException, IOException {
+        EntityCache cache = EntityCache.builder().build();
+        Outseta outseta = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .entityCache(cache)
+                .build();
+
+        assertSame(cache, outseta.getEntityCache());
+        assertSame(cache, outseta.accounts().getEntityCache());
+        assertSame(cache, outseta.people().getEntityCache());
+        assertSame(cache, outseta.subscriptions().getEntityCache());
+        outseta.close();
+    }
+
+    /**
+     * This method tests that the shared headers cannot be changed.
+     */
+    @Test
+    void testHeadersImmutable() throws OutsetaClientBuildException,
+            IOException {
+        Map<String, String> extra = new HashMap<>();
+        extra.put("X-Custom", "value");
+
+        Outseta outseta = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .headers(extra)
+                .build();
+
+        assertEquals("value", outseta.getHeaders().get("X-Custom"));
+        assertThrows(UnsupportedOperationException.class, () ->
+                outseta.getHeaders().put("Authorization", "other"));
+
+        // The authentication client keeps its own content type
+        AuthenticationClient auth = outseta.authentication();
+        assertEquals("application/x-www-form-urlencoded",
+                auth.getHeaders().get("Content-Type"));
+        assertEquals("value", auth.getHeaders().get("X-Custom"));
+
+        outseta.close();
+    }
+
+    /**
+     * This method tests that the clients share one set of headers, so a
+     * key rotated on the Outseta object or on a client is sent by every
+     * client, including the ones created afterwards.
+     */
+    @Test
+    void testRotateHeaders() throws OutsetaClientBuildException,
+            IOException {
+        Outseta outseta = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .build();
+        AccountClient accounts = outseta.accounts();
+        AuthenticationClient auth = outseta.authentication();
+
+        outseta.updateHeaders(
+                Collections.singletonMap("Authorization", "rotated"));
+        assertEquals("rotated", accounts.getHeaders().get("Authorization"));
+        assertEquals("application/json",
+                accounts.getHeaders().get("Content-Type"));
+        assertEquals("rotated", auth.getHeaders().get("Authorization"));
+        assertEquals("application/x-www-form-urlencoded",
+                auth.getHeaders().get("Content-Type"));
+        assertEquals("rotated",
+                outseta.people().getHeaders().get("Authorization"));
+
+        // A change made through a client is seen by the others
+        accounts.updateHeaders(
+                Collections.singletonMap("Authorization", "again"));
+        assertEquals("again", outseta.getHeaders().get("Authorization"));
+        assertEquals("again", auth.getHeaders().get("Authorization"));
+
+        outseta.replaceHeaders(
+                Collections.singletonMap("Authorization", OUTSETA_KEY));
+        assertEquals(OUTSETA_KEY, accounts.getHeaders().get("Authorization"));
+        assertThrows(OutsetaClientBuildException.class, () ->
+                outseta.replaceHeaders(new HashMap<>()));
+        outseta.close();
+    }
+
+    /**
+     * This method tests the profile client, which needs an access key.
+     */
+    @Test
+    void testProfile() throws OutsetaClientBuildException, IOException {
+        Outseta withApiKey = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .build();
+        assertThrows(OutsetaClientBuildException.class, withApiKey::profile);
+
+        // The client that takes the access token on each call shares the
+        // request maker and parser of the other clients
+        ProfileClient profiles = withApiKey.profiles();
+        assertSame(profiles, withApiKey.profiles());
+        assertSame(withApiKey.getRequestMaker(), profiles.getRequestMaker());
+        assertSame(withApiKey.accounts().getParserFacade(),
+                profiles.getParserFacade());
+        assertThrows(OutsetaInvalidArgumentException.class,
+                profiles::getProfile);
+        withApiKey.close();
+
+        Outseta withAccessKey = Outseta.builder(OUTSETA_URL)
+                .accessKey(OUTSETA_KEY)
+                .build();
+        ProfileClient profile = withAccessKey.profile();
+        assertEquals("Bearer " + OUTSETA_KEY,
+                profile.getHeaders().get("Authorization"));
+        withAccessKey.close();
+    }
+
+    /**
+     * This method tests that a request maker provided by the user is used
+     * but not closed.
+     */
+    @Test
+    void testCustomRequestMaker() throws Exception {
+        when(parserFacade.getJsonParser()).thenReturn(jsonParser);
+        when(requestMaker.get(eq(OUTSETA_URL + "/crm/accounts/1"), any(),
+                any())).thenReturn("{}");
+
+        Outseta outseta = Outseta.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .requestMaker(requestMaker)
+                .parser(parserFacade)
+                .drainTimeout(0)
+                .warmUp(2)
+                .build();
+
+        assertSame(parserFacade, outseta.accounts().getParserFacade());
+        assertNull(outseta.getConnectionPoolStats());
+        assertNull(outseta.getTransferStats());
+
+        // The request maker has no pool, so only the parser is warmed up
+        assertEquals(2, outseta.getWarmUpReport().getRequestedConnections());
+        assertEquals(0, outseta.getWarmUpReport().getOpenConnections());
+
+        outseta.accounts().getAccount("1");
+        verify(parserFacade).jsonStringToObject(eq("{}"), any());
+
+        outseta.close();
+
+        // Calls fail once the client is closed
+        assertThrows(OutsetaAPIFailedException.class, () ->
+                outseta.getRequestMaker().get(OUTSETA_URL,
+                        Collections.emptyMap(), Collections.emptyMap()));
+        verify(requestMaker, never()).get(eq(OUTSETA_URL), any(), any());
+    }
+
+    /**
+     * This method tests the failure scenarios of the builder.
+     */
+    @Test
+    void testBuilderFailure() {
+        assertThrows(OutsetaClientBuildException.class, () ->
+                Outseta.builder(null).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                Outseta.builder(" ").build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                Outseta.builder(OUTSETA_URL).apiKey(null));
+        assertThrows(OutsetaClientBuildException.class, () ->
+                Outseta.builder(OUTSETA_URL).apiKey(" "));
+        assertThrows(OutsetaClientBuildException.class, () ->
+                Outseta.builder(OUTSETA_URL).accessKey(null));
+        assertThrows(OutsetaClientBuildException.class, () ->
+                Outseta.builder(OUTSETA_URL).accessKey(" "));
+        assertThrows(OutsetaClientBuildException.class, () ->
+                Outseta.builder(OUTSETA_URL).headers(null));
+        assertThrows(OutsetaClientBuildException.class, () ->
+                Outseta.builder(OUTSETA_URL).drainTimeout(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                Outseta.builder(OUTSETA_URL).warmUp(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                Outseta.builder(OUTSETA_URL)
+                        .parser(new ParserFacade(null)).build());
+    }
+
+    /**
+     * This method tests that clients needing credentials fail without them.
+     */
+    @Test
+    void testWithoutCredentials() throws OutsetaClientBuildException,
+            IOException {
+        Outseta outseta = Outseta.builder(OUTSETA_URL).build();
+
+        // Authentication endpoints do not need credentials
+        assertNotNull(outseta.authentication());
+        assertThrows(OutsetaClientBuildException.class, outseta::accounts);
+
+        outseta.close();
+    }
+}
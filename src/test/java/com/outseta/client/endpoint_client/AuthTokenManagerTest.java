@@ -0,0 +1,306 @@
+package com.outseta.client.endpoint_client;
+
+import com.outseta.client.endpoint_client.crm.PeopleClient;
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.exception.OutsetaInvalidArgumentException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import com.outseta.model.request.GetAuthTokenRequest;
+import com.outseta.model.result.AuthToken;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the AuthTokenManager class.
+ */
+class AuthTokenManagerTest {
+
+    /**
+     * The Outseta URL used for testing.
+     */
+    private static final String OUTSETA_URL = "https://dummy.com";
+
+    /**
+     * The life of the test tokens, in seconds.
+     */
+    private static final long EXPIRES_IN = 60L;
+
+    /**
+     * A part of the life of a one second token short enough to see a
+     * refresh.
+     */
+    private static final double SHORT_REFRESH_AHEAD = 0.05;
+
+    /**
+     * The time to wait for a background refresh, in seconds.
+     */
+    private static final long WAIT = 5L;
+
+    /**
+     * The number of callers that ask for a token at the same time.
+     */
+    private static final int CALLERS = 8;
+
+    /**
+     * The current time of the clock, in nanoseconds.
+     */
+    private final AtomicLong now = new AtomicLong();
+
+    /**
+     * The number of tokens requested so far.
+     */
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /**
+     * The credentials of the test user.
+     */
+    private final GetAuthTokenRequest user = GetAuthTokenRequest.builder()
+            .username("user@test.com").password("secret").build();
+
+    /**
+     * This method returns a new token named after the number of requests.
+     * @return The token.
+     */
+    private AuthToken next() {
+        return new AuthToken("token" + loads.incrementAndGet(), "bearer",
+                EXPIRES_IN);
+    }
+
+    /**
+     * This method creates a manager.
+     * @param refreshAhead The part of the life after which a token is
+     *                     refreshed.
+     * @param loader The loader of the tokens.
+     * @param clock The clock, in nanoseconds.
+     * @return The manager.
+     */
+    private static AuthTokenManager manager(final double refreshAhead,
+                                            final AuthTokenManager.Loader
+                                                    loader,
+                                            final LongSupplier clock) {
+        return new AuthTokenManager(AuthTokenManager.builder(null)
+                .refreshAhead(refreshAhead), loader, clock);
+    }
+
+    /**
+     * This method tests that a token is requested once and served until it
+     * expires.
+     */
+    @Test
+    void testCachesUntilExpiry() throws Exception {
+        try (AuthTokenManager manager = manager(
+                AuthTokenManager.DEFAULT_REFRESH_AHEAD,
+                request -> next(), now::get)) {
+            AuthToken first = manager.getToken(user);
+            assertSame(first, manager.getToken(user));
+            assertEquals(1, loads.get());
+
+            now.addAndGet(TimeUnit.SECONDS.toNanos(EXPIRES_IN) - 1);
+            assertSame(first, manager.getToken(user));
+
+            now.addAndGet(1);
+            assertEquals("token2", manager.getToken(user).getAccessToken());
+
+            manager.invalidate(user.getUsername());
+            assertEquals("token3", manager.getToken(user).getAccessToken());
+        }
+    }
+
+    /**
+     * This method tests that the callers asking for the same token at the
+     * same time share one request.
+     */
+    @Test
+    void testSingleFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try (AuthTokenManager manager = manager(
+                AuthTokenManager.DEFAULT_REFRESH_AHEAD, request -> {
+                    try {
+                        release.await(WAIT, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return next();
+                }, now::get)) {
+            List<Future<AuthToken>> tokens = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                tokens.add(executor.submit(() -> manager.getToken(user)));
+            }
+            release.countDown();
+            for (Future<AuthToken> token : tokens) {
+                assertEquals("token1",
+                        token.get(WAIT, TimeUnit.SECONDS).getAccessToken());
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * This method tests that a token is refreshed in the background before
+     * it expires and written into the bound clients.
+     */
+    @Test
+    void testRefreshAhead() throws Exception {
+        PeopleClient client = PeopleClient.builder(OUTSETA_URL)
+                .accessKey("old")
+                .defaultParser()
+                .defaultRequestMaker()
+                .build();
+        try (AuthTokenManager manager = manager(SHORT_REFRESH_AHEAD,
+                request -> new AuthToken("token" + loads.incrementAndGet(),
+                        "bearer", 1L), System::nanoTime)) {
+            manager.bind(user, client);
+            assertEquals("Bearer token1",
+                    client.getHeaders().get("Authorization"));
+
+            long deadline = System.nanoTime()
+                    + TimeUnit.SECONDS.toNanos(WAIT);
+            while (client.getHeaders().get("Authorization")
+                    .equals("Bearer token1")
+                    && System.nanoTime() < deadline) {
+                Thread.yield();
+            }
+            assertTrue(loads.get() >= 2);
+            assertNotEquals("Bearer token1",
+                    client.getHeaders().get("Authorization"));
+
+            manager.unbind(client);
+            String header = client.getHeaders().get("Authorization");
+            manager.invalidate(user.getUsername());
+            manager.getToken(user);
+            assertEquals(header, client.getHeaders().get("Authorization"));
+        }
+    }
+
+    /**
+     * This method tests that a failed request is thrown to the caller and
+     * that the next read tries again.
+     */
+    @Test
+    void testFailure() throws Exception {
+        OutsetaInvalidResponseCodeException failure =
+                new OutsetaInvalidResponseCodeException("Unauthorized.",
+                        OUTSETA_URL, null, null, null, null, null);
+        try (AuthTokenManager manager = manager(
+                AuthTokenManager.DEFAULT_REFRESH_AHEAD, request -> {
+                    if (loads.getAndIncrement() == 0) {
+                        throw failure;
+                    }
+                    return new AuthToken("token", "bearer", null);
+                }, now::get)) {
+            assertSame(failure, assertThrows(
+                    OutsetaInvalidResponseCodeException.class, () ->
+                            manager.getToken(user)));
+            assertEquals("token", manager.getToken(user).getAccessToken());
+
+            // A token without an expiry is kept for the default time
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(
+                    AuthTokenManager.DEFAULT_TTL) - 1);
+            manager.getToken(user);
+            assertEquals(2, loads.get());
+
+            assertThrows(OutsetaInvalidArgumentException.class, () ->
+                    manager.getToken(null));
+            assertThrows(OutsetaInvalidArgumentException.class, () ->
+                    manager.getToken(GetAuthTokenRequest.builder()
+                            .username(" ").build()));
+            assertThrows(OutsetaInvalidArgumentException.class, () ->
+                    manager.bind(user, null));
+        }
+    }
+
+    /**
+     * This method tests that a cached token is not served to a caller
+     * with another password, and that the password is only kept for the
+     * refreshes once the api accepted it.
+     */
+    @Test
+    void testWrongPassword() throws Exception {
+        GetAuthTokenRequest wrong = GetAuthTokenRequest.builder()
+                .username(user.getUsername()).password("wrong").build();
+        GetAuthTokenRequest changed = GetAuthTokenRequest.builder()
+                .username(user.getUsername()).password("changed").build();
+        OutsetaInvalidResponseCodeException failure =
+                new OutsetaInvalidResponseCodeException("Unauthorized.",
+                        OUTSETA_URL, null, null, null, null, null);
+        List<String> passwords = new ArrayList<>();
+        PeopleClient client = PeopleClient.builder(OUTSETA_URL)
+                .accessKey("old")
+                .defaultParser()
+                .defaultRequestMaker()
+                .build();
+        try (AuthTokenManager manager = manager(
+                AuthTokenManager.DEFAULT_REFRESH_AHEAD, request -> {
+                    passwords.add(request.getPassword());
+                    if ("wrong".equals(request.getPassword())) {
+                        throw failure;
+                    }
+                    return next();
+                }, now::get)) {
+            AuthToken first = manager.getToken(user);
+            String header = client.getHeaders().get("Authorization");
+
+            assertSame(failure, assertThrows(
+                    OutsetaInvalidResponseCodeException.class, () ->
+                            manager.getToken(wrong)));
+            assertThrows(OutsetaInvalidResponseCodeException.class, () ->
+                    manager.bind(wrong, client));
+            assertEquals(header, client.getHeaders().get("Authorization"));
+
+            // The token and the accepted password are kept
+            assertSame(first, manager.getToken(user));
+
+            // A new password accepted by the api replaces the old one
+            AuthToken second = manager.getToken(changed);
+            assertNotEquals(first.getAccessToken(),
+                    second.getAccessToken());
+            assertSame(second, manager.getToken(changed));
+            assertEquals(Arrays.asList("secret", "wrong", "wrong",
+                    "changed"), passwords);
+        }
+    }
+
+    /**
+     * This method tests the builder.
+     */
+    @Test
+    void testBuilder() throws Exception {
+        AuthenticationClient client = AuthenticationClient
+                .builder(OUTSETA_URL)
+                .defaultParser()
+                .defaultRequestMaker()
+                .build();
+        AuthTokenManager.builder(client).ttl(1).retryDelay(1).build()
+                .close();
+
+        assertThrows(OutsetaClientBuildException.class, () ->
+                AuthTokenManager.builder(null).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                AuthTokenManager.builder(client).ttl(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                AuthTokenManager.builder(client).refreshAhead(1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                AuthTokenManager.builder(client).refreshAhead(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                AuthTokenManager.builder(client).retryDelay(0).build());
+    }
+}
@@ -282,7 +282,7 @@ public class AuthenticationClientUnitTest {
     public void testGetAuthTokenNullPassword() {
         assertThrows(OutsetaInvalidArgumentException.class, () -> {
 
-            authenticationClient.getHeaders().remove("Authorization");
+            authenticationClient.removeHeader("Authorization");
             when(getAuthTokenRequest.getUsername())
                     .thenReturn("dummyUsername");
             when(getAuthTokenRequest.getPassword())
@@ -299,7 +299,7 @@ public class AuthenticationClientUnitTest {
     public void testGetAuthTokenEmptyPassword() {
         assertThrows(OutsetaInvalidArgumentException.class, () -> {
 
-            authenticationClient.getHeaders().remove("Authorization");
+            authenticationClient.removeHeader("Authorization");
             when(getAuthTokenRequest.getUsername())
                     .thenReturn("dummyUsername");
             when(getAuthTokenRequest.getPassword()).thenReturn("");
@@ -314,7 +314,7 @@ public class AuthenticationClientUnitTest {
     public void testWithoutAuthorizationButWithPassword() {
         assertDoesNotThrow(() -> {
 
-            authenticationClient.getHeaders().remove("Authorization");
+            authenticationClient.removeHeader("Authorization");
             when(parserFacade.jsonStringToObject("dummyToken",
                     AuthToken.class)).thenReturn(authToken);
             when(getAuthTokenRequest.getUsername())
@@ -2,6 +2,7 @@ package com.outseta.client.endpoint_client;
 
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
@@ -17,10 +18,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -381,4 +386,25 @@ public class MarketingClientUnitTest {
                     .removeSubscriberFromList("emailListId",
                             ""));
     }
+
+    /**
+     * This method tests the getEmailListAsync method.
+     */
+    @Test
+    public void testGetEmailListAsync() throws Exception {
+        AsyncRequestMaker asyncRequestMaker = mock(AsyncRequestMaker.class);
+        marketingClient.setRequestMaker(asyncRequestMaker);
+        when(asyncRequestMaker.getAsync(OUTSETA_URL + "/email/lists/123",
+                new HashMap<>(), marketingClient.getHeaders()))
+                .thenReturn(CompletableFuture.completedFuture(emailListStr));
+        when(parserFacade.jsonStringToObject(emailListStr, EmailList.class))
+                .thenReturn(emailList);
+
+        assertEquals(emailList,
+                marketingClient.getEmailListAsync("123").get());
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        marketingClient.getEmailListAsync(null).get())
+                .getCause());
+    }
 }
@@ -1,11 +1,13 @@
 package com.outseta.client.endpoint_client;
 
+import com.outseta.client_helper.caching.EntityCache;
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
 import com.outseta.client_helper.request_maker.RequestMaker;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidRequestMakerException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
 import com.outseta.model.request.UpdatePasswordRequest;
 import com.outseta.model.result.Person;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,10 +17,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -37,6 +46,11 @@ public class ProfileClientUnitTest {
      */
     private static final String ACCESS_KEY = "dummyKey";
 
+    /**
+     * The access token of a user given on each call.
+     */
+    private static final String USER_TOKEN = "userToken";
+
     /**
      * The profile client to test.
      */
@@ -157,6 +171,38 @@ public class ProfileClientUnitTest {
         });
     }
 
+    /**
+     * This method tests that updating the profile invalidates the cached
+     * person, even when the update fails.
+     */
+    @Test
+    public void testUpdateProfileInvalidatesCache() throws Exception {
+        EntityCache cache = EntityCache.builder().build();
+        profileClient.setEntityCache(cache);
+        String uid = "uid";
+        Person person = Person.builder().uid(uid).build();
+        String key = EntityCache.key(OUTSETA_URL, Person.class, uid);
+
+        when(parserFacade.objectToJsonString(person))
+                .thenReturn(profileStr);
+        when(requestMaker.put(OUTSETA_URL + "/profile", new HashMap<>(),
+                profileStr, profileClient.getHeaders()))
+                .thenReturn(profileStr)
+                .thenThrow(new OutsetaAPIFailedException("failed",
+                        OUTSETA_URL, null, null, null, null, null));
+        when(parserFacade.jsonStringToObject(profileStr, Person.class))
+                .thenReturn(person);
+
+        cache.put(key, person);
+        assertSame(person, profileClient.updateProfile(person));
+        assertNull(cache.get(key, Person.class));
+
+        cache.put(key, person);
+        assertThrows(OutsetaAPIFailedException.class, () ->
+                profileClient.updateProfile(person));
+        assertNull(cache.get(key, Person.class));
+    }
+
     /**
      * This method tests the updateProfile method.
      * It tests that the method throws an exception if the profile is null.
@@ -195,4 +241,107 @@ public class ProfileClientUnitTest {
             profileClient.updatePassword(null);
         });
     }
+
+    /**
+     * This method builds a client that is given the access tokens on each
+     * call.
+     * @return The client.
+     */
+    private ProfileClient perCallClient() throws OutsetaClientBuildException,
+            OutsetaInvalidRequestMakerException {
+        return ProfileClient.builder(OUTSETA_URL)
+                .perCallAccessTokens()
+                .parser(parserFacade)
+                .requestMaker(requestMaker)
+                .build();
+    }
+
+    /**
+     * This method tests whether headers carry the access token of the test
+     * user.
+     * @param headers The headers.
+     * @return True if the headers carry the token.
+     */
+    private static boolean isUserHeaders(final Map<String, String> headers) {
+        return ("Bearer " + USER_TOKEN).equals(headers.get("Authorization"));
+    }
+
+    /**
+     * This method tests the getProfile method with an access token given on
+     * the call.
+     */
+    @Test
+    public void testGetProfilePerCall() throws Exception {
+        ProfileClient client = perCallClient();
+        when(requestMaker.get(eq(OUTSETA_URL + "/profile"),
+                eq(new HashMap<>()), argThat(
+                        ProfileClientUnitTest::isUserHeaders)))
+                .thenReturn(profileStr);
+        when(parserFacade.jsonStringToObject(profileStr, Person.class))
+                .thenReturn(profile);
+
+        assertEquals(profile, client.getProfile(USER_TOKEN));
+        assertFalse(client.getHeaders().containsKey("Authorization"));
+    }
+
+    /**
+     * This method tests the updateProfile and updatePassword methods with
+     * an access token given on the call.
+     */
+    @Test
+    public void testUpdatePerCall() throws Exception {
+        ProfileClient client = perCallClient();
+        when(requestMaker.put(eq(OUTSETA_URL + "/profile"),
+                eq(new HashMap<>()), eq(profileStr), argThat(
+                        ProfileClientUnitTest::isUserHeaders)))
+                .thenReturn(profileStr);
+        when(requestMaker.put(eq(OUTSETA_URL + "/profile/password"),
+                eq(new HashMap<>()), eq(updatePasswordRequestStr), argThat(
+                        ProfileClientUnitTest::isUserHeaders)))
+                .thenReturn("");
+        when(parserFacade.objectToJsonString(profile))
+                .thenReturn(profileStr);
+        when(parserFacade.objectToJsonString(updatePasswordRequest))
+                .thenReturn(updatePasswordRequestStr);
+        when(parserFacade.jsonStringToObject(profileStr, Person.class))
+                .thenReturn(profile);
+
+        assertEquals(profile, client.updateProfile(USER_TOKEN, profile));
+        client.updatePassword(USER_TOKEN, updatePasswordRequest);
+    }
+
+    /**
+     * This method tests that the calls fail without an access token and
+     * that a client needs an access key unless the tokens are given on
+     * each call.
+     */
+    @Test
+    public void testPerCallThrowsException() throws Exception {
+        ProfileClient client = perCallClient();
+
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                client.getProfile(null));
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                client.updateProfile(" ", profile));
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                client.updateProfile(USER_TOKEN, null));
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                client.updatePassword("", updatePasswordRequest));
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                client.updatePassword(USER_TOKEN, null));
+
+        // The client has no token of its own to send
+        assertThrows(OutsetaInvalidArgumentException.class,
+                client::getProfile);
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                client.updateProfile(profile));
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                client.updatePassword(updatePasswordRequest));
+        verifyNoInteractions(requestMaker);
+        assertThrows(OutsetaClientBuildException.class, () ->
+                ProfileClient.builder(OUTSETA_URL)
+                        .parser(parserFacade)
+                        .requestMaker(requestMaker)
+                        .build());
+    }
 }
@@ -2,6 +2,7 @@ package com.outseta.client.endpoint_client;
 
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
@@ -17,11 +18,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -395,4 +400,23 @@ public class SupportClientUnitTest {
             this.supportClient.addReply("", this.caseReply);
         });
     }
+
+    /**
+     * This method tests the getCaseAsync method.
+     */
+    @Test
+    public void testGetCaseAsync() throws Exception {
+        AsyncRequestMaker asyncRequestMaker = mock(AsyncRequestMaker.class);
+        supportClient.setRequestMaker(asyncRequestMaker);
+        when(asyncRequestMaker.getAsync(OUTSETA_URL + "/support/cases/123",
+                new HashMap<>(), supportClient.getHeaders()))
+                .thenReturn(CompletableFuture.completedFuture(caseObjectStr));
+        when(parserFacade.jsonStringToObject(caseObjectStr, Case.class))
+                .thenReturn(caseObject);
+
+        assertEquals(caseObject, supportClient.getCaseAsync("123").get());
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        supportClient.getCaseAsync(null).get()).getCause());
+    }
 }
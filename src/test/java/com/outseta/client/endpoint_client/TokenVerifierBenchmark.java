@@ -0,0 +1,150 @@
+package com.outseta.client.endpoint_client;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class measures how many access tokens the TokenVerifier verifies
+ * per second.
+ * <p>
+ *     It is excluded from the normal build and can be run with
+ *     {@code gradle benchmark}. It prints the verifications per second of
+ *     one thread that checks the signature of every token, of one thread
+ *     that is presented the same token again, and of all processors that
+ *     check the signature of every token. A call to the profile endpoint,
+ *     which it replaces, takes a network round trip per token.
+ * </p>
+ */
+@Tag("benchmark")
+class TokenVerifierBenchmark {
+
+    /**
+     * The number of verifications before measuring.
+     */
+    private static final int WARM_UP = 40_000;
+
+    /**
+     * The number of verifications while measuring, per thread.
+     */
+    private static final int ITERATIONS = 40_000;
+
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * This interface is implemented by the ways of verifying a token.
+     */
+    private interface Verification {
+
+        /**
+         * This method verifies a token.
+         * @return The uid of the person of the token.
+         * @throws Exception If the token cannot be verified.
+         */
+        String verify() throws Exception;
+    }
+
+    /**
+     * This method runs the benchmark.
+     */
+    @Test
+    void benchmarkVerify() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(TokenVerifierTest.KEY_SIZE);
+        KeyPair pair = generator.generateKeyPair();
+        String keySet = TokenVerifierTest.jwks(TokenVerifierTest.jwk("k1",
+                pair));
+        String token = TokenVerifierTest.token("k1", pair);
+
+        TokenVerifier uncached = verifier(keySet, 0);
+        TokenVerifier cached = verifier(keySet,
+                TokenVerifier.DEFAULT_CACHE_SIZE);
+        Verification signature = () -> uncached.verify(token).getPersonUid();
+
+        measure("signature", signature, 1);
+        measure("remembered", () -> cached.verify(token).getPersonUid(), 1);
+        measure("signature all cpus", signature,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * This method creates a verifier that reads a fixed key set and whose
+     * clock stands at the issue time of the test tokens.
+     * @param keySet The key set.
+     * @param cacheSize The number of verified tokens that are remembered.
+     * @return The verifier.
+     */
+    private static TokenVerifier verifier(final String keySet,
+                                          final int cacheSize)
+            throws Exception {
+        AuthenticationClient client = AuthenticationClient
+                .builder(TokenVerifierTest.OUTSETA_URL)
+                .defaultParser()
+                .defaultRequestMaker()
+                .build();
+        long now = TimeUnit.SECONDS.toMillis(TokenVerifierTest.ISSUED_AT);
+        return new TokenVerifier(TokenVerifier.builder(client)
+                .audience(TokenVerifierTest.AUDIENCE)
+                .issuer(TokenVerifierTest.ISSUER)
+                .cacheSize(cacheSize), () -> keySet, () -> now);
+    }
+
+    /**
+     * This method measures the throughput of a way of verifying a token.
+     * @param name The name printed with the result.
+     * @param verification The way of verifying the token.
+     * @param threads The number of threads that verify tokens.
+     * @throws Exception If a token cannot be verified.
+     */
+    private static void measure(final String name,
+                                final Verification verification,
+                                final int threads) throws Exception {
+
+        for (int i = 0; i < WARM_UP; i++) {
+            verification.verify();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    int verified = 0;
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        verified += verification.verify().length();
+                    }
+                    return verified;
+                }));
+            }
+            long length = 0;
+            for (Future<Integer> result : results) {
+                length += result.get();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            // The length is used so that the verifications cannot be
+            // optimised away
+            assertEquals((long) threads * ITERATIONS * "person1".length(),
+                    length);
+            System.out.printf("%-20s %,12.0f verifications/s%n", name,
+                    (double) threads * ITERATIONS * NANOS_PER_SECOND
+                            / elapsed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.outseta.client.endpoint_client;
+
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.exception.OutsetaInvalidTokenException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.model.result.TokenClaims;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * This class tests the TokenVerifier class.
+ */
+class TokenVerifierTest {
+
+    /**
+     * The Outseta URL used for testing.
+     */
+    static final String OUTSETA_URL = "https://demo.outseta.com/api/v1";
+
+    /**
+     * The issuer of the test tokens.
+     */
+    static final String ISSUER = "https://demo.outseta.com";
+
+    /**
+     * The audience of the test tokens.
+     */
+    static final String AUDIENCE = "demo.outseta.com";
+
+    /**
+     * The size of the test keys, in bits.
+     */
+    static final int KEY_SIZE = 2048;
+
+    /**
+     * The time the test tokens are issued, in seconds since the epoch.
+     */
+    static final long ISSUED_AT = 1_700_000_000L;
+
+    /**
+     * The life of the test tokens, in seconds.
+     */
+    static final long LIFE = 3_600L;
+
+    /**
+     * The time the test keys are kept, in milliseconds.
+     */
+    static final long KEY_TTL = 600_000L;
+
+    /**
+     * The key the test tokens are signed with.
+     */
+    private static KeyPair first;
+
+    /**
+     * The key the domain rotates to.
+     */
+    private static KeyPair second;
+
+    /**
+     * The current time of the clock, in milliseconds.
+     */
+    private final AtomicLong now = new AtomicLong(
+            TimeUnit.SECONDS.toMillis(ISSUED_AT));
+
+    /**
+     * The number of times the key set was read.
+     */
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /**
+     * The key set served by the test domain.
+     */
+    private final AtomicReference<String> keySet = new AtomicReference<>();
+
+    /**
+     * This method creates the test keys.
+     */
+    @BeforeAll
+    static void createKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(KEY_SIZE);
+        first = generator.generateKeyPair();
+        second = generator.generateKeyPair();
+    }
+
+    /**
+     * This method encodes bytes as base64url without padding.
+     * @param bytes The bytes.
+     * @return The encoded string.
+     */
+    static String encode(final byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * This method writes a key as a JSON Web Key.
+     * @param id The id of the key.
+     * @param pair The key.
+     * @return The key as json.
+     */
+    static String jwk(final String id, final KeyPair pair) {
+        RSAPublicKey key = (RSAPublicKey) pair.getPublic();
+        return "{\"kty\":\"RSA\",\"use\":\"sig\",\"kid\":\"" + id
+                + "\",\"n\":\"" + encode(key.getModulus().toByteArray())
+                + "\",\"e\":\"" + encode(key.getPublicExponent()
+                        .toByteArray()) + "\"}";
+    }
+
+    /**
+     * This method writes a key set.
+     * @param keys The keys as json.
+     * @return The key set as json.
+     */
+    static String jwks(final String... keys) {
+        return "{\"keys\":[" + String.join(",", keys) + "]}";
+    }
+
+    /**
+     * This method signs a token.
+     * @param header The header as json.
+     * @param payload The payload as json.
+     * @param pair The key.
+     * @return The token.
+     */
+    static String sign(final String header, final String payload,
+                       final KeyPair pair) throws Exception {
+        String content = encode(header.getBytes(StandardCharsets.UTF_8))
+                + "." + encode(payload.getBytes(StandardCharsets.UTF_8));
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(pair.getPrivate());
+        signature.update(content.getBytes(StandardCharsets.US_ASCII));
+        return content + "." + encode(signature.sign());
+    }
+
+    /**
+     * This method writes the payload of a token.
+     * @param audience The audience as json.
+     * @param issuer The issuer.
+     * @param notBefore The time before which the token is not valid.
+     * @return The payload as json.
+     */
+    static String payload(final String audience, final String issuer,
+                          final long notBefore) {
+        return "{\"sub\":\"person1\",\"outseta:accountUid\":\"account1\","
+                + "\"email\":\"user@test.com\",\"iss\":\"" + issuer
+                + "\",\"aud\":" + audience + ",\"iat\":" + ISSUED_AT
+                + ",\"nbf\":" + notBefore + ",\"exp\":"
+                + (ISSUED_AT + LIFE) + "}";
+    }
+
+    /**
+     * This method signs a valid token.
+     * @param keyId The id of the key.
+     * @param pair The key.
+     * @return The token.
+     */
+    static String token(final String keyId, final KeyPair pair)
+            throws Exception {
+        return sign("{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"" + keyId
+                + "\"}", payload("\"" + AUDIENCE + "\"", ISSUER, ISSUED_AT),
+                pair);
+    }
+
+    /**
+     * This method creates a verifier that reads the test key set.
+     * @param cacheSize The number of verified tokens that are remembered.
+     * @return The verifier.
+     */
+    private TokenVerifier verifier(final int cacheSize) throws Exception {
+        AuthenticationClient client = AuthenticationClient
+                .builder(OUTSETA_URL)
+                .defaultParser()
+                .defaultRequestMaker()
+                .build();
+        return new TokenVerifier(TokenVerifier.builder(client)
+                .audience(AUDIENCE).issuer(ISSUER).keyTtl(KEY_TTL)
+                .cacheSize(cacheSize),
+                () -> {
+                    loads.incrementAndGet();
+                    String set = keySet.get();
+                    if (set == null) {
+                        throw new OutsetaAPIFailedException("Unavailable.",
+                                ISSUER, null, null, null, null, null);
+                    }
+                    return set;
+                }, now::get);
+    }
+
+    /**
+     * This method tests that a valid token is verified with the keys read
+     * once, and that it is remembered until it expires.
+     */
+    @Test
+    void testVerify() throws Exception {
+        keySet.set(jwks(jwk("k1", first)));
+        TokenVerifier verifier = verifier(
+                TokenVerifier.DEFAULT_CACHE_SIZE);
+        String token = token("k1", first);
+
+        TokenClaims claims = verifier.verify(token);
+        assertEquals("person1", claims.getPersonUid());
+        assertEquals("account1", claims.getAccountUid());
+        assertEquals("user@test.com", claims.getEmail());
+        assertEquals(Arrays.asList(AUDIENCE), claims.getAudience());
+        assertSame(claims, verifier.verify(token));
+        assertEquals(1, loads.get());
+
+        now.set(TimeUnit.SECONDS.toMillis(ISSUED_AT + LIFE)
+                + TokenVerifier.DEFAULT_LEEWAY);
+        assertThrows(OutsetaInvalidTokenException.class, () ->
+                verifier.verify(token));
+    }
+
+    /**
+     * This method tests that tokens that are malformed, forged, not yet
+     * valid or issued for someone else are rejected.
+     */
+    @Test
+    void testReject() throws Exception {
+        keySet.set(jwks(jwk("k1", first)));
+        TokenVerifier verifier = verifier(0);
+        String header = "{\"alg\":\"RS256\",\"kid\":\"k1\"}";
+        String[] tokens = {
+            null, "", "abc", "a.b", "a.b.c.d", "!.!.!",
+            sign(header, payload("\"other.outseta.com\"", ISSUER,
+                    ISSUED_AT), first),
+            sign(header, payload("\"" + AUDIENCE + "\"",
+                    "https://other.outseta.com", ISSUED_AT), first),
+            sign(header, payload("\"" + AUDIENCE + "\"", ISSUER,
+                    ISSUED_AT + LIFE / 2), first),
+            sign(header, payload("\"" + AUDIENCE + "\"", ISSUER,
+                    ISSUED_AT), second),
+            sign("{\"alg\":\"none\",\"kid\":\"k1\"}", payload(
+                    "\"" + AUDIENCE + "\"", ISSUER, ISSUED_AT), first),
+            token("k1", first).replace(".", ".e30."),
+        };
+        for (String token : tokens) {
+            assertThrows(OutsetaInvalidTokenException.class, () ->
+                    verifier.verify(token), token);
+        }
+
+        // A token issued for several audiences is accepted
+        verifier.verify(sign(header, payload("[\"a\",\"" + AUDIENCE
+                + "\"]", ISSUER, ISSUED_AT), first));
+    }
+
+    /**
+     * This method tests that the keys are read again for an unknown key,
+     * at most once per minimum refresh interval.
+     */
+    @Test
+    void testRotation() throws Exception {
+        keySet.set(jwks(jwk("k1", first)));
+        TokenVerifier verifier = verifier(0);
+        verifier.verify(token("k1", first));
+
+        String rotated = token("k2", second);
+        int before = loads.get();
+        now.addAndGet(TokenVerifier.DEFAULT_MIN_REFRESH_INTERVAL);
+        assertThrows(OutsetaInvalidTokenException.class, () ->
+                verifier.verify(rotated));
+        assertThrows(OutsetaInvalidTokenException.class, () ->
+                verifier.verify(rotated));
+        assertEquals(before + 1, loads.get());
+
+        keySet.set(jwks(jwk("k1", first), jwk("k2", second)));
+        now.addAndGet(TokenVerifier.DEFAULT_MIN_REFRESH_INTERVAL);
+        assertEquals("person1", verifier.verify(rotated).getPersonUid());
+        assertEquals(before + 2, loads.get());
+    }
+
+    /**
+     * This method tests that a failed read of the keys is thrown when no
+     * keys are known, and that the known keys are kept otherwise.
+     */
+    @Test
+    void testLoadFailure() throws Exception {
+        TokenVerifier verifier = verifier(0);
+        String token = token("k1", first);
+        assertThrows(OutsetaAPIFailedException.class, () ->
+                verifier.verify(token));
+
+        keySet.set(jwks(jwk("k1", first)));
+        verifier.verify(token);
+
+        // The keys are kept and the read is retried after the minimum
+        // refresh interval
+        keySet.set(null);
+        now.addAndGet(KEY_TTL);
+        verifier.verify(token);
+        int failed = loads.get();
+        verifier.verify(token);
+        assertEquals(failed, loads.get());
+    }
+
+    /**
+     * This method tests the builder.
+     */
+    @Test
+    void testBuilder() throws Exception {
+        AuthenticationClient client = AuthenticationClient
+                .builder(OUTSETA_URL)
+                .defaultParser()
+                .defaultRequestMaker()
+                .build();
+        TokenVerifier.builder(client).build();
+
+        assertThrows(OutsetaClientBuildException.class, () ->
+                TokenVerifier.builder(null).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                TokenVerifier.builder(client).keyTtl(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                TokenVerifier.builder(client).leeway(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                TokenVerifier.builder(client).cacheSize(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                TokenVerifier.builder(AuthenticationClient.builder("/api")
+                        .defaultParser()
+                        .defaultRequestMaker()
+                        .build()).build());
+    }
+}
@@ -2,6 +2,7 @@ package com.outseta.client.endpoint_client.billing;
 
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
@@ -19,10 +20,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Date;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -222,4 +227,22 @@ public class AddOnClientUnitTest {
         });
     }
 
+    /**
+     * This method tests the getAddOnAsync method.
+     */
+    @Test
+    public void testGetAddOnAsync() throws Exception {
+        AsyncRequestMaker asyncRequestMaker = mock(AsyncRequestMaker.class);
+        addOnClient.setRequestMaker(asyncRequestMaker);
+        when(asyncRequestMaker.getAsync(OUTSETA_URL + "/billing/addons/123",
+                new HashMap<>(), addOnClient.getHeaders()))
+                .thenReturn(CompletableFuture.completedFuture(addOnStr));
+        when(parserFacade.jsonStringToObject(addOnStr, AddOn.class))
+                .thenReturn(addOn);
+
+        assertEquals(addOn, addOnClient.getAddOnAsync("123").get());
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        addOnClient.getAddOnAsync(null).get()).getCause());
+    }
 }
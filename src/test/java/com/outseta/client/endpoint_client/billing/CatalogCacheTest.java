@@ -0,0 +1,334 @@
+package com.outseta.client.endpoint_client.billing;
+
+import com.outseta.client_helper.pagination.PageIterable;
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.model.request.PageRequest;
+import com.outseta.model.result.AddOn;
+import com.outseta.model.result.ItemPage;
+import com.outseta.model.result.Metadata;
+import com.outseta.model.result.Plan;
+import com.outseta.model.result.PlanFamily;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the CatalogCache class.
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogCacheTest {
+
+    /**
+     * A time to live long enough that no refresh runs during a test, in
+     * milliseconds.
+     */
+    private static final long LONG_TTL = 3_600_000L;
+
+    /**
+     * A time to live short enough to see a refresh, in milliseconds.
+     */
+    private static final long SHORT_TTL = 50L;
+
+    /**
+     * The time to wait for a background refresh, in seconds.
+     */
+    private static final long WAIT = 5L;
+
+    /**
+     * The client used for the plans.
+     */
+    @Mock
+    private PlanClient planClient;
+
+    /**
+     * The client used for the plan families.
+     */
+    @Mock
+    private PlanFamilyClient planFamilyClient;
+
+    /**
+     * The client used for the add-ons.
+     */
+    @Mock
+    private AddOnClient addOnClient;
+
+    /**
+     * The family of the plans.
+     */
+    private final PlanFamily family = PlanFamily.builder().uid("family")
+            .build();
+
+    /**
+     * The first plan of the catalog.
+     */
+    private final Plan basic = Plan.builder().uid("basic")
+            .planFamily(family).build();
+
+    /**
+     * The second plan of the catalog.
+     */
+    private final Plan pro = Plan.builder().uid("pro").planFamily(family)
+            .build();
+
+    /**
+     * The add-on of the catalog.
+     */
+    private final AddOn addOn = AddOn.builder().uid("addOn").build();
+
+    /**
+     * The current time of the clock, in nanoseconds.
+     */
+    private final AtomicLong now = new AtomicLong();
+
+    /**
+     * This method creates a catalog with new lists.
+     * @return The catalog.
+     */
+    private Catalog catalog() {
+        return new Catalog(Arrays.asList(basic, pro),
+                Collections.singletonList(family),
+                Collections.singletonList(addOn));
+    }
+
+    /**
+     * This method creates a cache with the test clock.
+     * @param ttl The time to live in milliseconds.
+     * @param loader The loader of the catalog.
+     * @return The cache.
+     */
+    private CatalogCache cache(final long ttl,
+                               final CatalogCache.Loader loader) {
+        return new CatalogCache(CatalogCache.builder(planClient,
+                planFamilyClient, addOnClient).ttl(ttl).refreshAhead(1)
+                .retryDelay(ttl), loader, now::get);
+    }
+
+    /**
+     * This method tests that the catalog is loaded once by the first read
+     * and that unknown ids are read from the api.
+     */
+    @Test
+    void testReadThrough() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        Plan created = Plan.builder().uid("created").build();
+        when(planClient.getPlan("created")).thenReturn(created);
+
+        try (CatalogCache cache = cache(LONG_TTL, () -> {
+            loads.incrementAndGet();
+            return catalog();
+        })) {
+            assertSame(pro, cache.getPlan("pro"));
+            assertSame(basic, cache.getPlan("basic"));
+            assertSame(family, cache.getPlanFamily("family"));
+            assertSame(addOn, cache.getAddOn("addOn"));
+            assertEquals(Arrays.asList(basic, pro),
+                    cache.getCatalog().getPlansOfFamily("family"));
+            assertEquals(1, loads.get());
+
+            assertSame(created, cache.getPlan("created"));
+            verify(planClient, never()).getPlan("pro");
+            assertFalse(cache.isStale());
+            assertNull(cache.getLastFailure());
+        }
+    }
+
+    /**
+     * This method tests that plain pages are cut from the catalog and that
+     * the other pages are read from the api.
+     */
+    @Test
+    void testPages() throws Exception {
+        try (CatalogCache cache = cache(LONG_TTL, this::catalog)) {
+            ItemPage<Plan> second = cache.getPlanPage(PageRequest.builder()
+                    .page(1).pageSize(1).build());
+            assertEquals(new ItemPage<>(new Metadata(1, 1, 2),
+                    Collections.singletonList(pro)), second);
+
+            ItemPage<Plan> beyond = cache.getPlanPage(PageRequest.builder()
+                    .page(2).pageSize(2).build());
+            assertEquals(Collections.emptyList(), beyond.getItems());
+            assertEquals(1, cache.getPlanFamilyPage(PageRequest.builder()
+                    .pageSize(2).build()).getItems().size());
+            assertEquals(1, cache.getAddOnPage(PageRequest.builder()
+                    .pageSize(2).build()).getItems().size());
+
+            PageRequest sorted = PageRequest.builder().pageSize(2)
+                    .orderBy("Name").build();
+            ItemPage<Plan> page = new ItemPage<>();
+            when(planClient.getPlanPage(sorted)).thenReturn(page);
+            assertSame(page, cache.getPlanPage(sorted));
+
+            PageRequest unsized = PageRequest.builder().build();
+            ItemPage<AddOn> addOns = new ItemPage<>();
+            when(addOnClient.getAddOnPage(unsized)).thenReturn(addOns);
+            assertSame(addOns, cache.getAddOnPage(unsized));
+        }
+    }
+
+    /**
+     * This method tests that a new version is loaded in the background
+     * before the time to live runs out and swapped in.
+     */
+    @Test
+    void testRefreshAhead() throws Exception {
+        CountDownLatch refreshed = new CountDownLatch(2);
+        try (CatalogCache cache = cache(SHORT_TTL, () -> {
+            refreshed.countDown();
+            return catalog();
+        })) {
+            Catalog first = cache.getCatalog();
+            assertTrue(refreshed.await(WAIT, TimeUnit.SECONDS));
+
+            // The swap follows the load on the refresh thread
+            long deadline = System.nanoTime()
+                    + TimeUnit.SECONDS.toNanos(WAIT);
+            while (cache.getCatalog() == first
+                    && System.nanoTime() < deadline) {
+                Thread.yield();
+            }
+            assertNotSame(first, cache.getCatalog());
+        }
+    }
+
+    /**
+     * This method tests that the version in memory is served when a
+     * refresh fails, even past its time to live.
+     */
+    @Test
+    void testStaleOnFailure() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("down");
+        try (CatalogCache cache = cache(LONG_TTL, () -> {
+            if (loads.incrementAndGet() > 1) {
+                throw failure;
+            }
+            return catalog();
+        })) {
+            Catalog first = cache.getCatalog();
+
+            OutsetaAPIFailedException e = assertThrows(
+                    OutsetaAPIFailedException.class, cache::refresh);
+            assertSame(failure, e.getTriggeredBy());
+            assertSame(failure, cache.getLastFailure());
+            assertSame(first, cache.getCatalog());
+            assertSame(pro, cache.getPlan("pro"));
+
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(LONG_TTL) + 1);
+            assertTrue(cache.isStale());
+            assertSame(first, cache.getCatalog());
+        }
+    }
+
+    /**
+     * This method tests that the reads go to the api while the first
+     * version cannot be loaded, and that the load is not tried again
+     * before the retry delay.
+     */
+    @Test
+    void testFirstLoadFailure() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("down");
+        when(planClient.getPlan("pro")).thenReturn(pro);
+
+        try (CatalogCache cache = cache(LONG_TTL, () -> {
+            if (loads.incrementAndGet() == 1) {
+                throw failure;
+            }
+            return catalog();
+        })) {
+            assertSame(pro, cache.getPlan("pro"));
+            OutsetaAPIFailedException e = assertThrows(
+                    OutsetaAPIFailedException.class, cache::getCatalog);
+            assertSame(failure, e.getTriggeredBy());
+            assertEquals(1, loads.get());
+            assertFalse(cache.isStale());
+
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(LONG_TTL));
+            assertSame(pro, cache.getCatalog().getPlan("pro"));
+            assertEquals(2, loads.get());
+        }
+    }
+
+    /**
+     * This method tests that the catalog is read from every page of the
+     * list endpoints and that a failed page fails the load.
+     */
+    @Test
+    void testLoadFromClients() throws Exception {
+        when(planClient.getAllPlans(any())).thenAnswer(invocation ->
+                new PageIterable<>(invocation.getArgument(0), request ->
+                        new ItemPage<>(new Metadata(2, 0, 2),
+                                Arrays.asList(basic, pro))));
+        when(planFamilyClient.getAllPlanFamilies(any())).thenAnswer(
+                invocation -> new PageIterable<>(invocation.getArgument(0),
+                        request -> new ItemPage<>(new Metadata(1, 0, 1),
+                                Collections.singletonList(family))));
+        IllegalStateException failure = new IllegalStateException("down");
+        when(addOnClient.getAllAddOns(any())).thenAnswer(invocation ->
+                new PageIterable<AddOn>(invocation.getArgument(0),
+                        request -> {
+                            throw failure;
+                        }))
+                .thenAnswer(invocation ->
+                        new PageIterable<>(invocation.getArgument(0),
+                                request -> new ItemPage<>(
+                                        new Metadata(1, 0, 1),
+                                        Collections.singletonList(addOn))));
+
+        try (CatalogCache cache = CatalogCache.builder(planClient,
+                planFamilyClient, addOnClient).build()) {
+            OutsetaAPIFailedException e = assertThrows(
+                    OutsetaAPIFailedException.class, cache::refresh);
+            assertSame(failure, e.getTriggeredBy());
+
+            Catalog catalog = cache.refresh();
+            assertEquals(Arrays.asList(basic, pro), catalog.getPlans());
+            assertSame(family, catalog.getPlanFamily("family"));
+            assertSame(addOn, catalog.getAddOn("addOn"));
+            assertSame(catalog, cache.getCatalog());
+        }
+    }
+
+    /**
+     * This method tests the failure scenarios of the builder.
+     */
+    @Test
+    void testBuilderFailure() {
+        assertThrows(OutsetaClientBuildException.class, () ->
+                CatalogCache.builder(null, planFamilyClient, addOnClient)
+                        .build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                CatalogCache.builder(planClient, planFamilyClient,
+                        addOnClient).ttl(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                CatalogCache.builder(planClient, planFamilyClient,
+                        addOnClient).refreshAhead(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                CatalogCache.builder(planClient, planFamilyClient,
+                        addOnClient).refreshAhead(2).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                CatalogCache.builder(planClient, planFamilyClient,
+                        addOnClient).retryDelay(-1).build());
+    }
+}
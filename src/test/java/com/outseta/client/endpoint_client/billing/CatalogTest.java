@@ -0,0 +1,71 @@
+package com.outseta.client.endpoint_client.billing;
+
+import com.outseta.model.result.AddOn;
+import com.outseta.model.result.Plan;
+import com.outseta.model.result.PlanFamily;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * This class tests the Catalog class.
+ */
+class CatalogTest {
+
+    /**
+     * This method tests the lookup tables of the catalog.
+     */
+    @Test
+    void testLookups() {
+        PlanFamily family = PlanFamily.builder().uid("family").build();
+        Plan basic = Plan.builder().uid("basic").planFamily(family).build();
+        Plan pro = Plan.builder().uid("pro").planFamily(family).build();
+        Plan single = Plan.builder().uid("single").build();
+        AddOn addOn = AddOn.builder().uid("addOn").build();
+
+        Catalog catalog = new Catalog(Arrays.asList(basic, pro, single),
+                Collections.singletonList(family),
+                Collections.singletonList(addOn));
+
+        assertSame(pro, catalog.getPlan("pro"));
+        assertNull(catalog.getPlan("unknown"));
+        assertEquals(Arrays.asList(basic, pro),
+                catalog.getPlansOfFamily("family"));
+        assertEquals(Collections.emptyList(),
+                catalog.getPlansOfFamily("unknown"));
+        assertSame(family, catalog.getPlanFamily("family"));
+        assertSame(addOn, catalog.getAddOn("addOn"));
+        assertNull(catalog.getAddOn("unknown"));
+        assertEquals("[plans: 3; plan families: 1; add-ons: 1]",
+                catalog.toString());
+    }
+
+    /**
+     * This method tests that the catalog cannot be changed, also through
+     * the lists it was created from.
+     */
+    @Test
+    void testImmutable() {
+        List<Plan> plans = new ArrayList<>();
+        plans.add(Plan.builder().uid("basic").build());
+        Catalog catalog = new Catalog(plans, Collections.emptyList(),
+                Collections.emptyList());
+
+        plans.clear();
+        assertEquals(1, catalog.getPlans().size());
+        assertThrows(UnsupportedOperationException.class, () ->
+                catalog.getPlans().clear());
+        assertThrows(UnsupportedOperationException.class, () ->
+                catalog.getPlanFamilies().clear());
+        assertThrows(UnsupportedOperationException.class, () ->
+                catalog.getAddOns().clear());
+    }
+}
@@ -2,11 +2,13 @@ package com.outseta.client.endpoint_client.billing;
 
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
 import com.outseta.constant.BillingTransactionType;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidRequestMakerException;
+import com.outseta.model.request.PageRequest;
 import com.outseta.model.request.TransactionPageRequest;
 import com.outseta.model.result.Invoice;
 import com.outseta.model.result.ItemPage;
@@ -19,13 +21,18 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -228,6 +235,40 @@ public class InvoiceClientUnitTest {
         });
     }
 
+    /**
+     * This method tests the getAllTransactions method.
+     */
+    @Test
+    public void testGetAllTransactions() throws Exception {
+        Map<String, Object> params = new HashMap<>();
+        params.put("offset", "0");
+        params.put("limit", "1");
+
+        when(requestMaker.get(OUTSETA_URL
+                        + "/billing/transactions/accountId",
+                params, invoiceClient.getHeaders()))
+                .thenReturn("result");
+        when(parserFacade.jsonStringToPage("result", Transaction.class))
+                .thenReturn(new ItemPage<>(new Metadata(1, 0, 1),
+                        Arrays.asList(transaction)));
+
+        TransactionPageRequest request = TransactionPageRequest.builder()
+                .page(0)
+                .pageSize(1)
+                .build();
+        for (Transaction item : invoiceClient.getAllTransactions(
+                "accountId", request)) {
+            assertEquals(transaction, item);
+        }
+
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                invoiceClient.getAllTransactions(null, request));
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                invoiceClient.getAllTransactions(" ", request));
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                invoiceClient.getAllTransactions("accountId", null));
+    }
+
     /**
      * This method tests the getInvoice method with null accountId.
      */
@@ -346,4 +387,29 @@ public class InvoiceClientUnitTest {
             invoiceClient.addInvoicePayment(null);
         });
     }
+
+    /**
+     * This method tests the getTransactionPageAsync method.
+     */
+    @Test
+    public void testGetTransactionPageAsync() throws Exception {
+        AsyncRequestMaker asyncRequestMaker = mock(AsyncRequestMaker.class);
+        invoiceClient.setRequestMaker(asyncRequestMaker);
+        PageRequest request = PageRequest.builder().build();
+        ItemPage<Transaction> page = new ItemPage<>(null,
+                Collections.singletonList(transaction));
+        when(asyncRequestMaker.getAsync(
+                OUTSETA_URL + "/billing/transactions/123",
+                request.buildParams(), invoiceClient.getHeaders()))
+                .thenReturn(CompletableFuture.completedFuture("page"));
+        when(parserFacade.jsonStringToPage("page", Transaction.class))
+                .thenReturn(page);
+
+        assertEquals(page,
+                invoiceClient.getTransactionPageAsync("123", request).get());
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        invoiceClient.getTransactionPageAsync("123", null)
+                                .get()).getCause());
+    }
 }
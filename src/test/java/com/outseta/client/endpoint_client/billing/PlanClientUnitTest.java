@@ -2,6 +2,7 @@ package com.outseta.client.endpoint_client.billing;
 
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
@@ -16,9 +17,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -164,4 +169,23 @@ public class PlanClientUnitTest {
             planClient.getPlanPage(null);
         });
     }
+
+    /**
+     * This method tests the getPlanAsync method.
+     */
+    @Test
+    public void testGetPlanAsync() throws Exception {
+        AsyncRequestMaker asyncRequestMaker = mock(AsyncRequestMaker.class);
+        planClient.setRequestMaker(asyncRequestMaker);
+        when(asyncRequestMaker.getAsync(OUTSETA_URL + "/billing/plans/123",
+                new HashMap<>(), planClient.getHeaders()))
+                .thenReturn(CompletableFuture.completedFuture(planStr));
+        when(parserFacade.jsonStringToObject(planStr, Plan.class))
+                .thenReturn(plan);
+
+        assertEquals(plan, planClient.getPlanAsync("123").get());
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        planClient.getPlanAsync(null).get()).getCause());
+    }
 }
@@ -2,6 +2,7 @@ package com.outseta.client.endpoint_client.billing;
 
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
@@ -17,10 +18,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -173,4 +178,26 @@ public class PlanFamilyClientUnitTest {
             planFamilyClient.getPlanFamilyPage(null);
         });
     }
+
+    /**
+     * This method tests the getPlanFamilyAsync method.
+     */
+    @Test
+    public void testGetPlanFamilyAsync() throws Exception {
+        AsyncRequestMaker asyncRequestMaker = mock(AsyncRequestMaker.class);
+        planFamilyClient.setRequestMaker(asyncRequestMaker);
+        when(asyncRequestMaker.getAsync(
+                OUTSETA_URL + "/billing/planfamilies/123",
+                new HashMap<>(), planFamilyClient.getHeaders()))
+                .thenReturn(CompletableFuture.completedFuture(planFamilyStr));
+        when(parserFacade.jsonStringToObject(planFamilyStr, PlanFamily.class))
+                .thenReturn(planFamily);
+
+        assertEquals(planFamily,
+                planFamilyClient.getPlanFamilyAsync("123").get());
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        planFamilyClient.getPlanFamilyAsync(null).get())
+                .getCause());
+    }
 }
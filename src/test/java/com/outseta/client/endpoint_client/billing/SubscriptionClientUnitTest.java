@@ -1,12 +1,15 @@
 package com.outseta.client.endpoint_client.billing;
 
+import com.outseta.client_helper.caching.EntityCache;
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidRequestMakerException;
 import com.outseta.exception.OutsetaPageBuildException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
 import com.outseta.model.request.CreateOrChangeSubscriptionRequest;
 import com.outseta.model.request.PageRequest;
 import com.outseta.model.result.Invoice;
@@ -20,11 +23,20 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -48,6 +60,16 @@ public class SubscriptionClientUnitTest {
      */
     private static final String OUTSETA_KEY = "dummyKey";
 
+    /**
+     * The response code of an entity that does not exist.
+     */
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * The response code of a failed request.
+     */
+    private static final int SERVER_ERROR = 500;
+
     /**
      * The ParserFacade object used for testing.
      */
@@ -668,4 +690,76 @@ public class SubscriptionClientUnitTest {
                     "");
         });
     }
+
+    /**
+     * This method tests that subscriptions are read from the entity cache
+     * and that adding a discount invalidates the subscription.
+     */
+    @Test
+    public void testGetSubscriptionWithEntityCache() throws Exception {
+        subscriptionClient.setEntityCache(EntityCache.builder().build());
+        Subscription cached = Subscription.builder().uid("id").build();
+        String url = OUTSETA_URL + "/billing/subscriptions/id";
+
+        when(requestMaker.get(url, new HashMap<>(),
+                subscriptionClient.getHeaders())).thenReturn(subscriptionStr);
+        when(parserFacade.jsonStringToObject(subscriptionStr,
+                Subscription.class)).thenReturn(cached);
+
+        assertSame(cached, subscriptionClient.getSubscription("id"));
+        assertSame(cached, subscriptionClient.getSubscription("id"));
+        verify(requestMaker, times(1)).get(url, new HashMap<>(),
+                subscriptionClient.getHeaders());
+
+        subscriptionClient.addDiscountToSubscription("id", "discount");
+        assertSame(cached, subscriptionClient.getSubscription("id"));
+        verify(requestMaker, times(2)).get(url, new HashMap<>(),
+                subscriptionClient.getHeaders());
+    }
+
+    /**
+     * This method tests looking up a subscription that may not exist, with
+     * an entity cache that does not keep the not found answers.
+     */
+    @Test
+    public void testFindSubscription() throws Exception {
+        subscriptionClient.setEntityCache(EntityCache.builder()
+                .negativeTtl(0).build());
+        String url = OUTSETA_URL + "/billing/subscriptions/id";
+
+        when(requestMaker.get(url, new HashMap<>(),
+                subscriptionClient.getHeaders())).thenThrow(
+                new OutsetaInvalidResponseCodeException("Not found.", url,
+                        NOT_FOUND, false));
+
+        assertFalse(subscriptionClient.findSubscription("id").isPresent());
+        assertEquals(Optional.empty(),
+                subscriptionClient.findSubscription("id"));
+        verify(requestMaker, times(2)).get(url, new HashMap<>(),
+                subscriptionClient.getHeaders());
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                subscriptionClient.findSubscription(""));
+    }
+
+    /**
+     * This method tests the getSubscriptionAsync method.
+     */
+    @Test
+    public void testGetSubscriptionAsync() throws Exception {
+        AsyncRequestMaker asyncRequestMaker = mock(AsyncRequestMaker.class);
+        subscriptionClient.setRequestMaker(asyncRequestMaker);
+        when(asyncRequestMaker.getAsync(
+                OUTSETA_URL + "/billing/subscriptions/123",
+                new HashMap<>(), subscriptionClient.getHeaders()))
+                .thenReturn(CompletableFuture.completedFuture(subscriptionStr));
+        when(parserFacade.jsonStringToObject(subscriptionStr,
+                Subscription.class)).thenReturn(subscription);
+
+        assertEquals(subscription,
+                subscriptionClient.getSubscriptionAsync("123").get());
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        subscriptionClient.getSubscriptionAsync(null).get())
+                .getCause());
+    }
 }
@@ -1,13 +1,18 @@
 package com.outseta.client.endpoint_client.crm;
 
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.caching.EntityCache;
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
+import com.outseta.constant.AccountStage;
 import com.outseta.constant.RequestMakerType;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidRequestMakerException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import com.outseta.model.request.AccountPageRequest;
 import com.outseta.model.request.CancelAccountRequest;
 import com.outseta.model.request.PageRequest;
 import com.outseta.model.result.Account;
@@ -23,11 +28,20 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -46,6 +60,16 @@ public class AccountClientUnitTest {
      */
     private static final String OUTSETA_KEY = "dummyKey";
 
+    /**
+     * The response code of an entity that does not exist.
+     */
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * The response code of a failed request.
+     */
+    private static final int SERVER_ERROR = 500;
+
     /**
      * The ParserFacade object used for testing.
      */
@@ -64,6 +88,12 @@ public class AccountClientUnitTest {
     @Mock
     private RequestMaker requestMaker;
 
+    /**
+     * The AsyncRequestMaker object used for testing.
+     */
+    @Mock
+    private AsyncRequestMaker asyncRequestMaker;
+
     /**
      * The account client object used for testing.
      */
@@ -368,6 +398,83 @@ public class AccountClientUnitTest {
         );
     }
 
+    /**
+     * This method tests the getAllAccounts method, which reads every page
+     * and keeps the filters of the first request.
+     */
+    @Test
+    public void testGetAllAccounts() throws Exception {
+        Map<String, Object> firstParams = new HashMap<>();
+        firstParams.put("offset", "0");
+        firstParams.put("limit", "1");
+        firstParams.put("AccountStage", AccountStage.Subscribing.getValue());
+        Map<String, Object> secondParams = new HashMap<>(firstParams);
+        secondParams.put("offset", "1");
+
+        when(requestMaker.get(OUTSETA_URL + "/crm/accounts",
+                firstParams, accountClient.getHeaders()))
+                .thenReturn("first");
+        when(requestMaker.get(OUTSETA_URL + "/crm/accounts",
+                secondParams, accountClient.getHeaders()))
+                .thenReturn("second");
+        when(parserFacade.jsonStringToPage("first", Account.class))
+                .thenReturn(new ItemPage<>(new Metadata(1, 0, 2),
+                        Arrays.asList(account)));
+        when(parserFacade.jsonStringToPage("second", Account.class))
+                .thenReturn(new ItemPage<>(new Metadata(1, 1, 2),
+                        Arrays.asList(account)));
+
+        try (Stream<Account> accounts = accountClient.getAllAccounts(
+                AccountPageRequest.builder()
+                        .page(0)
+                        .pageSize(1)
+                        .accountStage(AccountStage.Subscribing)
+                        .build()).stream()) {
+            assertEquals(2, accounts.count());
+        }
+
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                accountClient.getAllAccounts(null));
+    }
+
+    /**
+     * This method tests the streamAll method.
+     */
+    @Test
+    public void testStreamAll() throws Exception {
+        Map<String, Object> firstParams = new HashMap<>();
+        firstParams.put("offset", "0");
+        firstParams.put("limit", "1");
+        firstParams.put("AccountStage", AccountStage.Subscribing.getValue());
+        Map<String, Object> secondParams = new HashMap<>(firstParams);
+        secondParams.put("offset", "1");
+
+        when(requestMaker.get(OUTSETA_URL + "/crm/accounts",
+                firstParams, accountClient.getHeaders()))
+                .thenReturn("first");
+        when(requestMaker.get(OUTSETA_URL + "/crm/accounts",
+                secondParams, accountClient.getHeaders()))
+                .thenReturn("second");
+        when(parserFacade.jsonStringToPage("first", Account.class))
+                .thenReturn(new ItemPage<>(new Metadata(1, 0, 2),
+                        Arrays.asList(account)));
+        when(parserFacade.jsonStringToPage("second", Account.class))
+                .thenReturn(new ItemPage<>(new Metadata(1, 1, 2),
+                        Arrays.asList(account)));
+
+        try (Stream<Account> accounts = accountClient.streamAll(
+                AccountPageRequest.builder()
+                        .page(0)
+                        .pageSize(1)
+                        .accountStage(AccountStage.Subscribing)
+                        .build()).parallel()) {
+            assertEquals(2, accounts.collect(Collectors.toList()).size());
+        }
+
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                accountClient.streamAll(null));
+    }
+
     /**
      * This method tests the createAccount method.
      */
@@ -963,4 +1070,126 @@ public class AccountClientUnitTest {
                         "uid", "")
         );
     }
+
+    /**
+     * This method tests the getAccountAsync method.
+     */
+    @Test
+    public void testGetAccountAsync() throws Exception {
+        accountClient.setRequestMaker(asyncRequestMaker);
+
+        when(asyncRequestMaker.getAsync(OUTSETA_URL + "/crm/accounts/uid",
+                new HashMap<>(), accountClient.getHeaders()))
+                .thenReturn(CompletableFuture.completedFuture(accountJson));
+        when(parserFacade.jsonStringToObject(accountJson, Account.class))
+                .thenReturn(account);
+
+        assertEquals(account, accountClient.getAccountAsync("uid").get());
+
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        accountClient.getAccountAsync(" ").get())
+                        .getCause());
+    }
+
+    /**
+     * This method tests the getAccountPageAsync method.
+     */
+    @Test
+    public void testGetAccountPageAsync() throws Exception {
+        accountClient.setRequestMaker(asyncRequestMaker);
+
+        PageRequest request = PageRequest.builder().page(0).pageSize(1)
+                .build();
+        ItemPage<Account> itemPage = new ItemPage<>(new Metadata(1, 0, 1),
+                Arrays.asList(account));
+
+        when(asyncRequestMaker.getAsync(OUTSETA_URL + "/crm/accounts",
+                request.buildParams(), accountClient.getHeaders()))
+                .thenReturn(CompletableFuture.completedFuture(accountJson));
+        when(parserFacade.jsonStringToPage(accountJson, Account.class))
+                .thenReturn(itemPage);
+
+        assertEquals(itemPage,
+                accountClient.getAccountPageAsync(request).get());
+
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        accountClient.getAccountPageAsync(null).get())
+                        .getCause());
+    }
+
+    /**
+     * This method tests that accounts are read from the entity cache and
+     * that deleting an account invalidates it.
+     */
+    @Test
+    public void testGetAccountWithEntityCache() throws Exception {
+        accountClient = AccountClient.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .parser(parserFacade)
+                .requestMaker(requestMaker)
+                .entityCache(EntityCache.builder().build())
+                .build();
+        Account cached = Account.builder().uid("uid").build();
+        String url = OUTSETA_URL + "/crm/accounts/uid";
+
+        when(requestMaker.get(url, new HashMap<>(),
+                accountClient.getHeaders())).thenReturn(accountJson);
+        when(parserFacade.jsonStringToObject(accountJson, Account.class))
+                .thenReturn(cached);
+
+        assertSame(cached, accountClient.getAccount("uid"));
+        assertSame(cached, accountClient.getAccount("uid"));
+        assertSame(cached, accountClient.getAccountAsync("uid").get());
+        verify(requestMaker, times(1)).get(url, new HashMap<>(),
+                accountClient.getHeaders());
+
+        accountClient.deleteAccount("uid");
+        assertSame(cached, accountClient.getAccount("uid"));
+        verify(requestMaker, times(2)).get(url, new HashMap<>(),
+                accountClient.getHeaders());
+        assertEquals(2, accountClient.getEntityCache().getStats().getHits());
+    }
+
+    /**
+     * This method tests that an account that does not exist is returned as
+     * an empty optional and that the not found answer is cached, while
+     * other failures are still thrown.
+     */
+    @Test
+    public void testFindAccountWithEntityCache() throws Exception {
+        accountClient = AccountClient.builder(OUTSETA_URL)
+                .apiKey(OUTSETA_KEY)
+                .parser(parserFacade)
+                .requestMaker(requestMaker)
+                .entityCache(EntityCache.builder().build())
+                .build();
+        String url = OUTSETA_URL + "/crm/accounts/missing";
+        String failingUrl = OUTSETA_URL + "/crm/accounts/failing";
+
+        when(requestMaker.get(url, new HashMap<>(),
+                accountClient.getHeaders())).thenThrow(
+                new OutsetaInvalidResponseCodeException("Not found.", url,
+                        NOT_FOUND, false));
+        when(requestMaker.get(failingUrl, new HashMap<>(),
+                accountClient.getHeaders())).thenThrow(
+                new OutsetaInvalidResponseCodeException("Failed.",
+                        failingUrl, SERVER_ERROR, false));
+
+        assertEquals(Optional.empty(), accountClient.findAccount("missing"));
+        assertEquals(Optional.empty(), accountClient.findAccount("missing"));
+        OutsetaInvalidResponseCodeException e = assertThrows(
+                OutsetaInvalidResponseCodeException.class, () ->
+                        accountClient.getAccount("missing"));
+        assertEquals(NOT_FOUND, e.getResponseCode());
+        verify(requestMaker, times(1)).get(url, new HashMap<>(),
+                accountClient.getHeaders());
+
+        e = assertThrows(OutsetaInvalidResponseCodeException.class, () ->
+                accountClient.findAccount("failing"));
+        assertEquals(SERVER_ERROR, e.getResponseCode());
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                accountClient.findAccount(" "));
+    }
 }
@@ -3,12 +3,14 @@ package com.outseta.client.endpoint_client.crm;
 import com.outseta.client.ClientBuilder;
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
 import com.outseta.constant.RequestMakerType;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
 import com.outseta.exception.OutsetaInvalidRequestMakerException;
 import com.outseta.model.request.ActivityPageRequest;
+import com.outseta.model.request.PageRequest;
 import com.outseta.model.result.Activity;
 import com.outseta.model.result.ItemPage;
 import com.outseta.model.result.Metadata;
@@ -19,13 +21,18 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -350,4 +357,27 @@ public class ActivityClientUnitTest {
             activityClient.createCustomActivity(null);
         });
     }
+
+    /**
+     * This method tests the getActivityPageAsync method.
+     */
+    @Test
+    public void testGetActivityPageAsync() throws Exception {
+        AsyncRequestMaker asyncRequestMaker = mock(AsyncRequestMaker.class);
+        activityClient.setRequestMaker(asyncRequestMaker);
+        PageRequest request = PageRequest.builder().build();
+        ItemPage<Activity> page = new ItemPage<>(null,
+                Collections.singletonList(activity));
+        when(asyncRequestMaker.getAsync(OUTSETA_URL + "/activities",
+                request.buildParams(), activityClient.getHeaders()))
+                .thenReturn(CompletableFuture.completedFuture("page"));
+        when(parserFacade.jsonStringToPage("page", Activity.class))
+                .thenReturn(page);
+
+        assertEquals(page, activityClient.getActivityPageAsync(request).get());
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        activityClient.getActivityPageAsync(null).get())
+                .getCause());
+    }
 }
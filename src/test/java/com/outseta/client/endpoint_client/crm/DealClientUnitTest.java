@@ -2,6 +2,7 @@ package com.outseta.client.endpoint_client.crm;
 
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
 import com.outseta.exception.OutsetaClientBuildException;
 import com.outseta.exception.OutsetaInvalidArgumentException;
@@ -19,11 +20,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -399,4 +404,23 @@ public class DealClientUnitTest {
 
         });
     }
+
+    /**
+     * This method tests the getDealAsync method.
+     */
+    @Test
+    public void testGetDealAsync() throws Exception {
+        AsyncRequestMaker asyncRequestMaker = mock(AsyncRequestMaker.class);
+        dealClient.setRequestMaker(asyncRequestMaker);
+        when(asyncRequestMaker.getAsync(OUTSETA_URL + "/crm/deals/123",
+                new HashMap<>(), dealClient.getHeaders()))
+                .thenReturn(CompletableFuture.completedFuture(dealStr));
+        when(parserFacade.jsonStringToObject(dealStr, Deal.class))
+                .thenReturn(deal);
+
+        assertEquals(deal, dealClient.getDealAsync("123").get());
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        dealClient.getDealAsync(null).get()).getCause());
+    }
 }
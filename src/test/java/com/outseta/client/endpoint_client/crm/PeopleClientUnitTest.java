@@ -1,8 +1,10 @@
 package com.outseta.client.endpoint_client.crm;
 
 import com.outseta.client.ClientBuilder;
+import com.outseta.client_helper.caching.EntityCache;
 import com.outseta.client_helper.parser.json.JsonParser;
 import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.request_maker.AsyncRequestMaker;
 import com.outseta.client_helper.request_maker.RequestMaker;
 import com.outseta.constant.RequestMakerType;
 import com.outseta.exception.OutsetaClientBuildException;
@@ -28,11 +30,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -51,6 +60,16 @@ public class PeopleClientUnitTest {
      */
     private static final String OUTSETA_KEY = "dummyKey";
 
+    /**
+     * The response code of an entity that does not exist.
+     */
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * The response code of a failed request.
+     */
+    private static final int SERVER_ERROR = 500;
+
     /**
      * The ParserFacade object used for testing.
      */
@@ -69,6 +88,12 @@ public class PeopleClientUnitTest {
     @Mock
     private RequestMaker requestMaker;
 
+    /**
+     * The AsyncRequestMaker object used for testing.
+     */
+    @Mock
+    private AsyncRequestMaker asyncRequestMaker;
+
     /**
      * The PeopleClient object used for testing.
      */
@@ -1170,4 +1195,111 @@ public class PeopleClientUnitTest {
                         .build()
                 ));
     }
+
+    /**
+     * This method tests the getPersonAsync method of the people client.
+     */
+    @Test
+    public void testGetPersonAsync() throws Exception {
+        peopleClient.setRequestMaker(asyncRequestMaker);
+
+        when(asyncRequestMaker.getAsync(OUTSETA_URL + "/crm/people/123",
+                new HashMap<>(), headers))
+                .thenReturn(CompletableFuture.completedFuture(personStr));
+        when(parserFacade.jsonStringToObject(personStr, Person.class))
+                .thenReturn(personObj);
+
+        assertEquals(personObj, peopleClient.getPersonAsync(personId).get());
+
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        peopleClient.getPersonAsync(null).get())
+                        .getCause());
+    }
+
+    /**
+     * This method tests the getPersonPageAsync method of the people client.
+     */
+    @Test
+    public void testGetPersonPageAsync() throws Exception {
+        peopleClient.setRequestMaker(asyncRequestMaker);
+
+        PageRequest request = PageRequest.builder().page(0).pageSize(1)
+                .build();
+        ItemPage<Person> itemPage = new ItemPage<>(new Metadata(1, 0, 1),
+                Arrays.asList(personObj));
+
+        when(asyncRequestMaker.getAsync(OUTSETA_URL + "/crm/people",
+                request.buildParams(), headers))
+                .thenReturn(CompletableFuture.completedFuture("result"));
+        when(parserFacade.jsonStringToPage("result", Person.class))
+                .thenReturn(itemPage);
+
+        assertEquals(itemPage, peopleClient.getPersonPageAsync(request).get());
+
+        // Failures of the request are passed to the future
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new OutsetaAPIFailedException(
+                "failed", OUTSETA_URL, null, null, headers, null, null));
+        when(asyncRequestMaker.getAsync(OUTSETA_URL + "/crm/people",
+                new HashMap<>(), headers)).thenReturn(failed);
+        assertInstanceOf(OutsetaAPIFailedException.class,
+                assertThrows(ExecutionException.class, () ->
+                        peopleClient.getPersonPageAsync(PageRequest.builder()
+                                .build()).get()).getCause());
+
+        assertInstanceOf(OutsetaInvalidArgumentException.class,
+                assertThrows(ExecutionException.class, () ->
+                        peopleClient.getPersonPageAsync(null).get())
+                        .getCause());
+    }
+
+    /**
+     * This method tests that people are read from the entity cache and
+     * that deleting a person invalidates it.
+     */
+    @Test
+    public void testGetPersonWithEntityCache() throws Exception {
+        peopleClient.setEntityCache(EntityCache.builder().build());
+        Person cached = Person.builder().uid(personId).build();
+        String url = OUTSETA_URL + "/crm/people/123";
+
+        when(requestMaker.get(url, new HashMap<>(), headers))
+                .thenReturn(personStr);
+        when(parserFacade.jsonStringToObject(personStr, Person.class))
+                .thenReturn(cached);
+
+        assertSame(cached, peopleClient.getPerson(personId));
+        assertSame(cached, peopleClient.getPerson(personId));
+        verify(requestMaker, times(1)).get(url, new HashMap<>(), headers);
+
+        peopleClient.deletePerson(personId);
+        assertSame(cached, peopleClient.getPerson(personId));
+        verify(requestMaker, times(2)).get(url, new HashMap<>(), headers);
+    }
+
+    /**
+     * This method tests looking up a person that may not exist.
+     */
+    @Test
+    public void testFindPerson() throws Exception {
+        String url = OUTSETA_URL + "/crm/people/123";
+        Person person = Person.builder().uid(personId).build();
+
+        when(requestMaker.get(url, new HashMap<>(), headers))
+                .thenReturn(personStr)
+                .thenThrow(new OutsetaInvalidResponseCodeException(
+                        "Not found.", url, NOT_FOUND, false))
+                .thenThrow(new OutsetaInvalidResponseCodeException(
+                        "Failed.", url, SERVER_ERROR, false));
+        when(parserFacade.jsonStringToObject(personStr, Person.class))
+                .thenReturn(person);
+
+        assertSame(person, peopleClient.findPerson(personId).get());
+        assertFalse(peopleClient.findPerson(personId).isPresent());
+        assertThrows(OutsetaInvalidResponseCodeException.class, () ->
+                peopleClient.findPerson(personId));
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                peopleClient.findPerson(null));
+    }
 }
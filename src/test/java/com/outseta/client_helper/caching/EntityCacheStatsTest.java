@@ -0,0 +1,73 @@
+package com.outseta.client_helper.caching;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * This class tests the EntityCacheStats class.
+ */
+class EntityCacheStatsTest {
+
+    /**
+     * The number of hits used for testing.
+     */
+    private static final long HITS = 3L;
+
+    /**
+     * The number of bytes used for testing.
+     */
+    private static final long BYTES = 4_096L;
+
+    /**
+     * The tolerance of the comparison of hit rates.
+     */
+    private static final double DELTA = 1e-9;
+
+    /**
+     * This method tests the getters of the class.
+     */
+    @Test
+    void testGetters() {
+        EntityCacheStats stats = new EntityCacheStats(HITS, 1, 2, 1, 2,
+                BYTES);
+
+        assertEquals(HITS, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(2, stats.getEvictions());
+        assertEquals(1, stats.getRejections());
+        assertEquals(2, stats.getEntries());
+        assertEquals(BYTES, stats.getBytes());
+        assertEquals((double) HITS / (HITS + 1), stats.getHitRate(), DELTA);
+        assertEquals(0, new EntityCacheStats(0, 0, 0, 0, 0, 0).getHitRate());
+        assertEquals("[hits: 3; misses: 1; evictions: 2; rejections: 1; "
+                + "entries: 2; bytes: 4096]", stats.toString());
+    }
+
+    /**
+     * This method tests the equals and hashCode methods.
+     */
+    @Test
+    void testEqualsAndHashCode() {
+        EntityCacheStats stats = new EntityCacheStats(HITS, 1, 2, 1, 2,
+                BYTES);
+        EntityCacheStats same = new EntityCacheStats(HITS, 1, 2, 1, 2,
+                BYTES);
+
+        assertEquals(stats, stats);
+        assertEquals(stats, same);
+        assertEquals(stats.hashCode(), same.hashCode());
+        assertNotEquals(stats, new EntityCacheStats(0, 1, 2, 1, 2, BYTES));
+        assertNotEquals(stats, new EntityCacheStats(HITS, 0, 2, 1, 2,
+                BYTES));
+        assertNotEquals(stats, new EntityCacheStats(HITS, 1, 0, 1, 2,
+                BYTES));
+        assertNotEquals(stats, new EntityCacheStats(HITS, 1, 2, 0, 2,
+                BYTES));
+        assertNotEquals(stats, new EntityCacheStats(HITS, 1, 2, 1, 0,
+                BYTES));
+        assertNotEquals(stats, new EntityCacheStats(HITS, 1, 2, 1, 2, 0));
+        assertNotEquals(stats, "stats");
+    }
+}
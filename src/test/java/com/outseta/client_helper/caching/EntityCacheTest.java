@@ -0,0 +1,283 @@
+package com.outseta.client_helper.caching;
+
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.model.result.Account;
+import com.outseta.model.result.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the EntityCache class.
+ */
+class EntityCacheTest {
+
+    /**
+     * The time to live of the entries, in milliseconds.
+     */
+    private static final long TTL = 1_000L;
+
+    /**
+     * The time to live of the negative entries, in milliseconds.
+     */
+    private static final long NEGATIVE_TTL = 100L;
+
+    /**
+     * The number of reads that make a key hot.
+     */
+    private static final int HOT_READS = 3;
+
+    /**
+     * The estimated size of an entry holding one of the test values.
+     */
+    private static final long ENTRY_BYTES = EntityCache.ENTRY_OVERHEAD
+            + SizeEstimator.estimate("k1") + SizeEstimator.estimate("v1");
+
+    /**
+     * The current time of the clock, in nanoseconds.
+     */
+    private final AtomicLong now = new AtomicLong();
+
+    /**
+     * This method creates a cache with the test clock.
+     * @param entries The number of test entries the cache can hold.
+     * @return The cache.
+     */
+    private EntityCache cache(final int entries) {
+        return new EntityCache(EntityCache.builder()
+                .maximumBytes(entries * ENTRY_BYTES).ttl(TTL)
+                .negativeTtl(NEGATIVE_TTL), now::get);
+    }
+
+    /**
+     * This method reads a key a number of times.
+     * @param cache The cache.
+     * @param key The key.
+     * @param reads The number of reads.
+     */
+    private static void read(final EntityCache cache, final String key,
+                             final int reads) {
+        for (int i = 0; i < reads; i++) {
+            cache.get(key, String.class);
+        }
+    }
+
+    /**
+     * This method tests that written entries are read back and that the
+     * reads are counted.
+     */
+    @Test
+    void testGetAndPut() {
+        EntityCache cache = cache(2);
+
+        assertNull(cache.get("k1", String.class));
+        assertTrue(cache.put("k1", "v1"));
+        assertEquals("v1", cache.get("k1", String.class));
+        assertNull(cache.get("k1", Integer.class));
+
+        assertEquals(new EntityCacheStats(1, 2, 0, 0, 1, ENTRY_BYTES),
+                cache.getStats());
+        assertEquals(TTL, cache.getTtl());
+        assertEquals(2 * ENTRY_BYTES, cache.getMaximumBytes());
+    }
+
+    /**
+     * This method tests that an entry expires after its time to live.
+     */
+    @Test
+    void testExpiry() {
+        EntityCache cache = cache(2);
+        cache.put("k1", "v1");
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL) - 1);
+        assertEquals("v1", cache.get("k1", String.class));
+
+        now.addAndGet(1);
+        assertNull(cache.get("k1", String.class));
+        assertEquals(0, cache.getStats().getEntries());
+        assertEquals(0, cache.getStats().getBytes());
+    }
+
+    /**
+     * This method tests that a full cache only admits an entity that was
+     * read more often than the entry it evicts.
+     */
+    @Test
+    void testAdmission() {
+        EntityCache cache = cache(2);
+        read(cache, "k1", HOT_READS);
+        cache.put("k1", "v1");
+        read(cache, "k2", HOT_READS);
+        cache.put("k2", "v2");
+
+        read(cache, "k3", 1);
+        assertFalse(cache.put("k3", "v3"));
+        assertEquals(1, cache.getStats().getRejections());
+        assertEquals("v1", cache.get("k1", String.class));
+
+        // The least recently used entry is now k2
+        read(cache, "k3", HOT_READS * 2);
+        assertTrue(cache.put("k3", "v3"));
+        assertNull(cache.get("k2", String.class));
+        assertEquals("v1", cache.get("k1", String.class));
+        assertEquals("v3", cache.get("k3", String.class));
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(2 * ENTRY_BYTES, cache.getStats().getBytes());
+    }
+
+    /**
+     * This method tests that expired entries are evicted for any entity
+     * and that an entity larger than the cache is never admitted.
+     */
+    @Test
+    void testEvictExpired() {
+        EntityCache cache = cache(1);
+        read(cache, "k1", HOT_READS);
+        cache.put("k1", "v1");
+
+        assertFalse(cache.put("k2", "v2"));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL));
+        assertTrue(cache.put("k2", "v2"));
+        assertEquals("v2", cache.get("k2", String.class));
+
+        assertFalse(cache.put("k3", "a value that is larger than the cache"));
+        assertEquals(1, cache.getStats().getEntries());
+    }
+
+    /**
+     * This method tests that an entry can be replaced without being
+     * compared with the others.
+     */
+    @Test
+    void testReplace() {
+        EntityCache cache = cache(1);
+        cache.put("k1", "v1");
+
+        assertTrue(cache.put("k1", "v2"));
+        assertEquals("v2", cache.get("k1", String.class));
+        assertEquals(ENTRY_BYTES, cache.getStats().getBytes());
+    }
+
+    /**
+     * This method tests that invalidated entries are removed and that a
+     * read sent before an invalidation of its entity does not write its
+     * result, while reads of other entities are not held back.
+     */
+    @Test
+    void testInvalidate() {
+        EntityCache cache = cache(2);
+        cache.put("k1", "v1");
+        cache.put("k2", "v2");
+
+        long stamp = cache.stamp("k1");
+        cache.invalidate("k1");
+        assertNull(cache.get("k1", String.class));
+        assertEquals("v2", cache.get("k2", String.class));
+        assertFalse(cache.put("k1", "v1", stamp));
+        assertTrue(cache.put("k1", "v1", cache.stamp("k1")));
+
+        // Invalidating another entity does not hold back the read
+        stamp = cache.stamp("k1");
+        cache.invalidate("k2");
+        assertTrue(cache.put("k1", "v1", stamp));
+
+        stamp = cache.stamp("k1");
+        cache.invalidateAll();
+        assertFalse(cache.put("k1", "v1", stamp));
+        assertNull(cache.get("k2", String.class));
+        assertEquals(0, cache.getStats().getEntries());
+        assertEquals(0, cache.getStats().getBytes());
+    }
+
+    /**
+     * This method tests that a not found answer is remembered until its
+     * shorter time to live passes or the entity is written or invalidated.
+     */
+    @Test
+    void testMissing() {
+        EntityCache cache = cache(2);
+
+        assertFalse(cache.isMissing("k1"));
+        assertTrue(cache.putMissing("k1", cache.stamp("k1")));
+        assertNull(cache.get("k1", String.class));
+        assertTrue(cache.isMissing("k1"));
+        assertEquals(new EntityCacheStats(1, 0, 0, 0, 1,
+                EntityCache.ENTRY_OVERHEAD + SizeEstimator.estimate("k1")),
+                cache.getStats());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(NEGATIVE_TTL));
+        assertFalse(cache.isMissing("k1"));
+        assertEquals(0, cache.getStats().getEntries());
+
+        cache.putMissing("k1", cache.stamp("k1"));
+        assertTrue(cache.put("k1", "v1"));
+        assertFalse(cache.isMissing("k1"));
+        assertEquals("v1", cache.get("k1", String.class));
+
+        long stamp = cache.stamp("k2");
+        cache.invalidate("k2");
+        assertFalse(cache.putMissing("k2", stamp));
+        cache.putMissing("k2", cache.stamp("k2"));
+        cache.invalidate("k2");
+        assertFalse(cache.isMissing("k2"));
+    }
+
+    /**
+     * This method tests that the negative entries can be disabled.
+     */
+    @Test
+    void testMissingDisabled() throws OutsetaClientBuildException {
+        EntityCache cache = EntityCache.builder().negativeTtl(0).build();
+
+        assertFalse(cache.putMissing("k1", cache.stamp("k1")));
+        assertFalse(cache.isMissing("k1"));
+        assertEquals(0, cache.getNegativeTtl());
+    }
+
+    /**
+     * This method tests the keys of the entities.
+     */
+    @Test
+    void testKey() {
+        String key = EntityCache.key("https://a.com", Account.class, "1");
+
+        assertEquals(key, EntityCache.key("https://a.com", Account.class,
+                "1"));
+        assertFalse(key.equals(EntityCache.key("https://a.com",
+                Person.class, "1")));
+        assertFalse(key.equals(EntityCache.key("https://b.com",
+                Account.class, "1")));
+    }
+
+    /**
+     * This method tests the builder.
+     */
+    @Test
+    void testBuilder() throws OutsetaClientBuildException {
+        EntityCache cache = EntityCache.builder().build();
+        assertEquals(EntityCache.DEFAULT_MAXIMUM_BYTES,
+                cache.getMaximumBytes());
+        assertEquals(EntityCache.DEFAULT_TTL, cache.getTtl());
+        assertEquals(EntityCache.DEFAULT_NEGATIVE_TTL,
+                cache.getNegativeTtl());
+
+        Account account = Account.builder().uid("1").build();
+        assertTrue(cache.put("account", account));
+        assertSame(account, cache.get("account", Account.class));
+
+        assertThrows(OutsetaClientBuildException.class, () ->
+                EntityCache.builder().maximumBytes(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                EntityCache.builder().ttl(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                EntityCache.builder().negativeTtl(-1).build());
+    }
+}
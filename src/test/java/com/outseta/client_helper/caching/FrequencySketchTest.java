@@ -0,0 +1,72 @@
+package com.outseta.client_helper.caching;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the FrequencySketch class.
+ */
+class FrequencySketchTest {
+
+    /**
+     * The number of entries the sketches are sized for.
+     */
+    private static final int EXPECTED_ENTRIES = 64;
+
+    /**
+     * The number of times a key is read.
+     */
+    private static final int READS = 5;
+
+    /**
+     * This method tests that the reads of a key are counted.
+     */
+    @Test
+    void testFrequency() {
+        FrequencySketch sketch = new FrequencySketch(EXPECTED_ENTRIES);
+
+        assertEquals(0, sketch.frequency("key"));
+        for (int i = 0; i < READS; i++) {
+            sketch.increment("key");
+        }
+        assertEquals(READS, sketch.frequency("key"));
+        assertEquals(0, sketch.frequency("other"));
+    }
+
+    /**
+     * This method tests that the frequency stops at its maximum.
+     */
+    @Test
+    void testSaturation() {
+        FrequencySketch sketch = new FrequencySketch(EXPECTED_ENTRIES);
+
+        for (int i = 0; i < FrequencySketch.MAX_FREQUENCY * 2; i++) {
+            sketch.increment("key");
+        }
+        assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency("key"));
+    }
+
+    /**
+     * This method tests that the counters are halved once enough reads
+     * were recorded, so that old reads lose their weight.
+     */
+    @Test
+    void testAging() {
+        FrequencySketch sketch = new FrequencySketch(EXPECTED_ENTRIES);
+
+        for (int i = 0; i < FrequencySketch.MAX_FREQUENCY; i++) {
+            sketch.increment("hot");
+        }
+        // The other keys can raise the counters of the hot key, so the
+        // reads stop as soon as the counters were halved
+        for (int i = 0; i < EXPECTED_ENTRIES * EXPECTED_ENTRIES
+                && sketch.frequency("hot") == FrequencySketch.MAX_FREQUENCY;
+                i++) {
+            sketch.increment("key" + i);
+        }
+        assertTrue(sketch.frequency("hot")
+                <= FrequencySketch.MAX_FREQUENCY / 2);
+    }
+}
@@ -0,0 +1,91 @@
+package com.outseta.client_helper.caching;
+
+import com.outseta.model.result.Person;
+import com.outseta.model.result.Plan;
+import com.outseta.model.result.PlanFamily;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the SizeEstimator class.
+ */
+class SizeEstimatorTest {
+
+    /**
+     * The estimated size of an empty string.
+     */
+    private static final long EMPTY_STRING = 40L;
+
+    /**
+     * This method tests the sizes of strings and boxed values.
+     */
+    @Test
+    void testValues() {
+        assertEquals(0, SizeEstimator.estimate(null));
+        assertEquals(EMPTY_STRING, SizeEstimator.estimate(""));
+        assertTrue(SizeEstimator.estimate("a longer string")
+                > SizeEstimator.estimate("short"));
+        assertTrue(SizeEstimator.estimate(1L)
+                > SizeEstimator.estimate(1));
+        assertEquals(SizeEstimator.estimate(1L),
+                SizeEstimator.estimate(new Date()));
+    }
+
+    /**
+     * This method tests that the fields of the models are walked.
+     */
+    @Test
+    void testModel() {
+        Person empty = Person.builder().build();
+        Person filled = Person.builder().uid("uid").email("a@b.com")
+                .title("title").created(new Date()).build();
+
+        long emptySize = SizeEstimator.estimate(empty);
+        assertTrue(emptySize > 0);
+        assertEquals(emptySize + SizeEstimator.estimate("uid")
+                        + SizeEstimator.estimate("a@b.com")
+                        + SizeEstimator.estimate("title")
+                        + SizeEstimator.estimate(new Date()),
+                SizeEstimator.estimate(filled));
+    }
+
+    /**
+     * This method tests that the elements of collections are counted and
+     * that an object referred to twice is counted once.
+     */
+    @Test
+    void testCollections() {
+        String value = "value";
+
+        assertTrue(SizeEstimator.estimate(Arrays.asList(value, "other"))
+                > SizeEstimator.estimate(Collections.singletonList(value)));
+        assertTrue(SizeEstimator.estimate(Arrays.asList(value, value))
+                < SizeEstimator.estimate(Arrays.asList(value,
+                        new String(value))));
+        assertTrue(SizeEstimator.estimate(Collections.singletonMap("key",
+                value)) > SizeEstimator.estimate(value));
+    }
+
+    /**
+     * This method tests that references between models do not loop.
+     */
+    @Test
+    void testCycle() {
+        List<Plan> plans = new ArrayList<>();
+        PlanFamily family = PlanFamily.builder().uid("family").plans(plans)
+                .build();
+        plans.add(Plan.builder().uid("plan").planFamily(family).build());
+
+        long size = SizeEstimator.estimate(family);
+        assertEquals(size, SizeEstimator.estimate(plans));
+        assertTrue(size > SizeEstimator.estimate(plans.get(0).getUid()));
+    }
+}
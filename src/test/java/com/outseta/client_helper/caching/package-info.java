@@ -0,0 +1,4 @@
+/**
+ * This package contains test cases for the caching of entities.
+ */
+package com.outseta.client_helper.caching;
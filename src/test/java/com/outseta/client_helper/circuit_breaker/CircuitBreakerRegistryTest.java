@@ -0,0 +1,45 @@
+package com.outseta.client_helper.circuit_breaker;
+
+import com.outseta.exception.OutsetaClientBuildException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * This class tests the CircuitBreakerRegistry class.
+ */
+class CircuitBreakerRegistryTest {
+
+    /**
+     * This method tests that the family is the first segment of the path.
+     */
+    @Test
+    void testFamily() {
+        assertEquals("billing",
+                CircuitBreakerRegistry.family("/billing/plans/uid"));
+        assertEquals("crm", CircuitBreakerRegistry.family("/crm/people"));
+        assertEquals("profile",
+                CircuitBreakerRegistry.family("/profile?fields=*"));
+        assertEquals("tokens", CircuitBreakerRegistry.family("tokens"));
+        assertEquals("", CircuitBreakerRegistry.family(""));
+    }
+
+    /**
+     * This method tests that each family gets one circuit.
+     */
+    @Test
+    void testForPath() throws OutsetaClientBuildException {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(
+                CircuitBreakerConfig.builder().build());
+
+        CircuitBreaker billing = registry.forPath("/billing/plans");
+        assertSame(billing, registry.forPath("/billing/subscriptions"));
+        assertSame(billing, registry.get("billing"));
+        assertNotSame(billing, registry.forPath("/crm/people"));
+        assertEquals("billing", billing.getName());
+        assertSame(registry.getConfig(), billing.getConfig());
+        assertEquals(2, registry.getBreakers().size());
+    }
+}
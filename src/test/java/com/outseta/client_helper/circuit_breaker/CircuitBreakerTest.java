@@ -0,0 +1,275 @@
+package com.outseta.client_helper.circuit_breaker;
+
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * This class tests the CircuitBreaker class.
+ */
+class CircuitBreakerTest {
+
+    /**
+     * The number of calls the rates are measured over.
+     */
+    private static final int WINDOW = 4;
+
+    /**
+     * The time an open circuit rejects calls in milliseconds.
+     */
+    private static final long OPEN_DURATION = 1_000L;
+
+    /**
+     * The time after which a call counts as slow in milliseconds.
+     */
+    private static final long SLOW_CALL = 500L;
+
+    /**
+     * The failure and slow call rate that opens the circuit, in percent.
+     */
+    private static final float THRESHOLD = 50f;
+
+    /**
+     * The response code of an unavailable server.
+     */
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    /**
+     * The response code of a missing resource.
+     */
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * The fake clock in nanoseconds.
+     */
+    private AtomicLong now;
+
+    /**
+     * The circuit under test.
+     */
+    private CircuitBreaker breaker;
+
+    /**
+     * Sets up a circuit that opens when half of the last 4 calls fail or
+     * are slow, and closes after 2 successful probes.
+     * @throws OutsetaClientBuildException If the config is invalid.
+     */
+    @BeforeEach
+    void setUp() throws OutsetaClientBuildException {
+        this.now = new AtomicLong();
+        CircuitBreakerConfig config = CircuitBreakerConfig.builder()
+                .failureRateThreshold(THRESHOLD)
+                .slowCallRateThreshold(THRESHOLD)
+                .slowCallDuration(SLOW_CALL)
+                .windowSize(WINDOW)
+                .minimumCalls(WINDOW)
+                .openDuration(OPEN_DURATION)
+                .halfOpenCalls(2)
+                .build();
+        this.breaker = new CircuitBreaker("billing", config, now::get);
+    }
+
+    /**
+     * This method lets a call through and records its outcome.
+     * @param durationMillis The time the call took in milliseconds.
+     * @param error The exception thrown by the call, or null.
+     */
+    private void call(final long durationMillis, final Exception error) {
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        assertNotNull(permit);
+        permit.onResult(TimeUnit.MILLISECONDS.toNanos(durationMillis),
+                error);
+    }
+
+    /**
+     * This method tests that the circuit opens once the failure rate
+     * reaches its threshold, and not before the minimum calls.
+     */
+    @Test
+    void testOpensOnFailures() {
+        call(1, unavailable());
+        call(1, unavailable());
+        call(1, unavailable());
+        // Not enough calls yet
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        call(1, null);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+        assertEquals(1, breaker.getRejected());
+        assertEquals(1, breaker.getOpened());
+        assertEquals(OPEN_DURATION, breaker.getRemainingOpenTime());
+    }
+
+    /**
+     * This method tests that old outcomes leave the window and that
+     * answers other than server errors count as successful.
+     */
+    @Test
+    void testSlidingWindow() {
+        call(1, unavailable());
+        call(1, null);
+        call(1, responseCode(NOT_FOUND));
+        call(1, new OutsetaAPIUnknownException("parse", null, null, null,
+                null, null, null));
+        final float quarter = 25f;
+        assertEquals(quarter, breaker.getFailureRate());
+
+        // The first failure leaves the window
+        call(1, unavailable());
+        assertEquals(quarter, breaker.getFailureRate());
+        call(1, new OutsetaAPIBadRequestException("reset", null, null, null,
+                null, null, null));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    /**
+     * This method tests that the circuit opens once the slow call rate
+     * reaches its threshold.
+     */
+    @Test
+    void testOpensOnSlowCalls() {
+        call(SLOW_CALL, null);
+        call(1, null);
+        call(1, null);
+        call(SLOW_CALL, null);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(0f, breaker.getFailureRate());
+    }
+
+    /**
+     * This method tests that a half open circuit lets a limited number of
+     * probes through and closes once they succeed.
+     */
+    @Test
+    void testHalfOpenCloses() {
+        open();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(OPEN_DURATION));
+
+        CircuitBreaker.Permit first = breaker.tryAcquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        CircuitBreaker.Permit second = breaker.tryAcquire();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(breaker.tryAcquire());
+
+        first.onResult(0, null);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        second.onResult(0, responseCode(NOT_FOUND));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // The window starts empty again
+        assertEquals(0f, breaker.getFailureRate());
+        call(1, unavailable());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    /**
+     * This method tests that a failed or slow probe opens the circuit
+     * again.
+     */
+    @Test
+    void testHalfOpenReopens() {
+        open();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(OPEN_DURATION));
+        call(1, unavailable());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpened());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(OPEN_DURATION));
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertNotNull(probe);
+        probe.onResult(TimeUnit.MILLISECONDS.toNanos(SLOW_CALL), null);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // Calls that started before the circuit opened are ignored
+        probe.onResult(0, null);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    /**
+     * This method tests that calls let through while the circuit was
+     * closed do not count as probes of a half open circuit.
+     */
+    @Test
+    void testHalfOpenIgnoresClosedCalls() {
+        CircuitBreaker.Permit late = breaker.tryAcquire();
+        assertNotNull(late);
+        open();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(OPEN_DURATION));
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertNotNull(probe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // The call from the closed circuit is not a probe, so with one
+        // successful probe the circuit stays half open
+        late.onResult(0, null);
+        probe.onResult(0, null);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        CircuitBreaker.Permit last = breaker.tryAcquire();
+        assertNotNull(last);
+        last.onResult(0, null);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    /**
+     * This method tests that invalid settings are rejected.
+     */
+    @Test
+    void testConfigFailure() {
+        assertThrows(OutsetaClientBuildException.class, () ->
+                CircuitBreakerConfig.builder().failureRateThreshold(0)
+                        .build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                CircuitBreakerConfig.builder().slowCallRateThreshold(
+                        Float.NaN).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                CircuitBreakerConfig.builder().openDuration(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                CircuitBreakerConfig.builder().halfOpenCalls(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                CircuitBreakerConfig.builder().windowSize(WINDOW)
+                        .minimumCalls(WINDOW + 1).build());
+    }
+
+    /**
+     * This method opens the circuit with failed calls.
+     */
+    private void open() {
+        for (int i = 0; i < WINDOW; i++) {
+            call(1, unavailable());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    /**
+     * This method creates the exception of an unavailable server.
+     * @return The exception.
+     */
+    private static OutsetaInvalidResponseCodeException unavailable() {
+        return responseCode(SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * This method creates an exception with a response code.
+     * @param code The response code.
+     * @return The exception.
+     */
+    private static OutsetaInvalidResponseCodeException responseCode(
+            final int code) {
+        return new OutsetaInvalidResponseCodeException("failed", null, null,
+                null, null, code, null);
+    }
+}
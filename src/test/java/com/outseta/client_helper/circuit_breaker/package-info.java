@@ -0,0 +1,4 @@
+/**
+ * This package contains test cases for the circuit breakers.
+ */
+package com.outseta.client_helper.circuit_breaker;
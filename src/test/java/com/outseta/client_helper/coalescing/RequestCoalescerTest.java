@@ -0,0 +1,103 @@
+package com.outseta.client_helper.coalescing;
+
+import com.outseta.model.result.Account;
+import com.outseta.model.result.Plan;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the RequestCoalescer class.
+ */
+class RequestCoalescerTest {
+
+    /**
+     * The url used for testing.
+     */
+    private static final String URL = "http://dummyurl.com/crm/accounts";
+
+    /**
+     * This method tests that the key ignores the order of the parameters
+     * and tells apart types and credentials.
+     */
+    @Test
+    void testKey() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("offset", 0);
+        first.put("limit", 2);
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("limit", 2);
+        second.put("offset", 0);
+
+        String key = RequestCoalescer.key("GET", URL, first, Account.class,
+                "key");
+        assertEquals(key, RequestCoalescer.key("GET", URL, second,
+                Account.class, "key"));
+        assertNotEquals(key, RequestCoalescer.key("GET", URL, second,
+                Account.class, "other"));
+        assertNotEquals(key, RequestCoalescer.key("GET", URL, second,
+                Plan.class, "key"));
+        assertNotEquals(key, RequestCoalescer.key("GET", URL,
+                new HashMap<>(), Account.class, "key"));
+        assertEquals(RequestCoalescer.key("GET", URL, null, Account.class,
+                null), RequestCoalescer.key("GET", URL, new HashMap<>(),
+                Account.class, null));
+    }
+
+    /**
+     * This method tests that calls join the request in flight until it
+     * leaves, and that the hit rate is counted.
+     */
+    @Test
+    void testJoinAndLeave() {
+        RequestCoalescer coalescer = RequestCoalescer.builder().build();
+        assertEquals(0d, coalescer.getHitRate());
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        assertNull(coalescer.join("key", flight));
+        assertSame(flight, coalescer.join("key", new CompletableFuture<>()));
+        assertSame(flight, coalescer.join("key", new CompletableFuture<>()));
+        assertEquals(1, coalescer.getInFlight());
+
+        // Only the request that joined first can leave
+        coalescer.leave("key", new CompletableFuture<>());
+        assertEquals(1, coalescer.getInFlight());
+        coalescer.leave("key", flight);
+        assertEquals(0, coalescer.getInFlight());
+
+        assertNull(coalescer.join("key", new CompletableFuture<>()));
+        assertEquals(2, coalescer.getHits());
+        assertEquals(2, coalescer.getMisses());
+        final double half = 0.5d;
+        assertEquals(half, coalescer.getHitRate());
+    }
+
+    /**
+     * This method tests that only the given endpoints are coalesced.
+     */
+    @Test
+    void testEndpoints() {
+        RequestCoalescer all = RequestCoalescer.builder().build();
+        assertTrue(all.isCoalesced("/crm/accounts/abc"));
+        assertTrue(all.getRoutes().isEmpty());
+
+        RequestCoalescer some = RequestCoalescer.builder()
+                .endpoint("/billing/plans/{id}")
+                .endpoint("/profile")
+                .build();
+        assertTrue(some.isCoalesced("/billing/plans/abc"));
+        assertTrue(some.isCoalesced("/profile"));
+        assertFalse(some.isCoalesced("/billing/plans"));
+        assertFalse(some.isCoalesced("/crm/accounts/abc"));
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains test cases for the coalescing of get calls.
+ */
+package com.outseta.client_helper.coalescing;
@@ -0,0 +1,347 @@
+package com.outseta.client_helper.hedging;
+
+import com.outseta.client_helper.request_maker.Deadline;
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the Hedger class.
+ */
+class HedgerTest {
+
+    /**
+     * The hedge delay used for testing in milliseconds.
+     */
+    private static final long DELAY = 20L;
+
+    /**
+     * The percentile used for testing.
+     */
+    private static final double P95 = 95d;
+
+    /**
+     * The time to wait for a hedge in seconds.
+     */
+    private static final long WAIT = 5L;
+
+    /**
+     * The url suffix used for testing.
+     */
+    private static final String URL_SUFFIX = "/crm/accounts/abc";
+
+    /**
+     * The timer used by the hedgers under test.
+     */
+    private ScheduledThreadPoolExecutor timer;
+
+    /**
+     * The requests sent so far.
+     */
+    private List<CompletableFuture<String>> sent;
+
+    /**
+     * Counted down when the hedge is sent.
+     */
+    private CountDownLatch hedgeSent;
+
+    /**
+     * Sets up the timer and the fake requests.
+     */
+    @BeforeEach
+    void setUp() {
+        this.timer = new ScheduledThreadPoolExecutor(1);
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.sent = new CopyOnWriteArrayList<>();
+        this.hedgeSent = new CountDownLatch(1);
+    }
+
+    /**
+     * Stops the timer.
+     */
+    @AfterEach
+    void tearDown() {
+        this.timer.shutdownNow();
+    }
+
+    /**
+     * This method sends a fake request that is completed by the test.
+     * @return The future of the request.
+     */
+    private CompletableFuture<String> send() {
+        CompletableFuture<String> request = new CompletableFuture<>();
+        this.sent.add(request);
+        if (this.sent.size() == 2) {
+            this.hedgeSent.countDown();
+        }
+        return request;
+    }
+
+    /**
+     * This method waits for a request to be cancelled. The request is
+     * cancelled by the thread that finishes the call.
+     * @param request The future of the request.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    private static void assertCancelled(
+            final CompletableFuture<String> request)
+            throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT);
+        while (!request.isCancelled() && System.nanoTime() < end) {
+            Thread.sleep(1);
+        }
+        assertTrue(request.isCancelled());
+    }
+
+    /**
+     * This method creates a hedger with a fixed delay.
+     * @param budget The percent of the calls that may be hedged.
+     * @param burst The number of hedges that can be sent in a row.
+     * @return The hedger.
+     * @throws OutsetaClientBuildException If the policy is invalid.
+     */
+    private Hedger hedger(final float budget, final int burst)
+            throws OutsetaClientBuildException {
+        return new Hedger(HedgingPolicy.builder()
+                .delay(DELAY)
+                .budget(budget)
+                .burst(burst)
+                .build(), this.timer);
+    }
+
+    /**
+     * This method tests that a slow request is hedged and that the first
+     * answer is used while the other request is cancelled.
+     */
+    @Test
+    void testHedgeWins() throws Exception {
+        Hedger hedger = hedger(HedgingPolicy.DEFAULT_BUDGET, 1);
+        Supplier<CompletableFuture<String>> request = this::send;
+
+        CompletableFuture<String> result = hedger.hedge(URL_SUFFIX, request);
+        assertTrue(hedgeSent.await(WAIT, TimeUnit.SECONDS));
+        assertFalse(result.isDone());
+
+        sent.get(1).complete("hedge");
+        assertEquals("hedge", result.get());
+        assertCancelled(sent.get(0));
+        assertEquals(1, hedger.getCalls());
+        assertEquals(1, hedger.getHedges());
+        assertEquals(1, hedger.getWins());
+    }
+
+    /**
+     * This method tests that the first request can still win once the
+     * hedge has been sent, and that a fast request is not hedged.
+     */
+    @Test
+    void testPrimaryWins() throws Exception {
+        Hedger hedger = hedger(HedgingPolicy.DEFAULT_BUDGET, 2);
+
+        CompletableFuture<String> result = hedger.hedge(URL_SUFFIX,
+                this::send);
+        assertTrue(hedgeSent.await(WAIT, TimeUnit.SECONDS));
+        sent.get(0).complete("primary");
+        assertEquals("primary", result.get());
+        assertCancelled(sent.get(1));
+        assertEquals(0, hedger.getWins());
+
+        // The hedge of a call that is already answered is not scheduled
+        CompletableFuture<String> fast = hedger.hedge(URL_SUFFIX,
+                () -> CompletableFuture.completedFuture("fast"));
+        assertEquals("fast", fast.get());
+        assertTrue(timer.getQueue().isEmpty());
+        assertEquals(1, hedger.getHedges());
+    }
+
+    /**
+     * This method tests that a failed request is not hedged and that the
+     * call fails once every request has failed.
+     */
+    @Test
+    void testFailure() throws Exception {
+        Hedger hedger = hedger(HedgingPolicy.DEFAULT_BUDGET, 2);
+        final int serverError = 500;
+        OutsetaInvalidResponseCodeException failure =
+                new OutsetaInvalidResponseCodeException("failed", null,
+                        null, null, null, serverError, null);
+
+        CompletableFuture<String> result = hedger.hedge(URL_SUFFIX,
+                this::send);
+        sent.get(0).completeExceptionally(failure);
+        ExecutionException e = assertThrows(ExecutionException.class,
+                result::get);
+        assertSame(failure, e.getCause());
+        assertTrue(timer.getQueue().isEmpty());
+
+        // With a hedge in flight the call waits for it
+        this.sent.clear();
+        this.hedgeSent = new CountDownLatch(1);
+        result = hedger.hedge(URL_SUFFIX, this::send);
+        assertTrue(hedgeSent.await(WAIT, TimeUnit.SECONDS));
+        sent.get(0).completeExceptionally(failure);
+        assertFalse(result.isDone());
+        sent.get(1).complete("hedge");
+        assertEquals("hedge", result.get());
+    }
+
+    /**
+     * This method tests that the hedges are capped by the budget.
+     */
+    @Test
+    void testBudget() throws Exception {
+        final float budget = 50f;
+        Hedger hedger = hedger(budget, 1);
+
+        hedger.hedge(URL_SUFFIX, this::send);
+        assertTrue(hedgeSent.await(WAIT, TimeUnit.SECONDS));
+
+        // The first hedge used the whole burst and a single call only
+        // earns half of a hedge
+        this.sent.clear();
+        this.hedgeSent = new CountDownLatch(1);
+        CompletableFuture<String> result = hedger.hedge(URL_SUFFIX,
+                this::send);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT);
+        while (hedger.getBudgetRejections() == 0
+                && System.nanoTime() < end) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, hedger.getBudgetRejections());
+        assertEquals(1, sent.size());
+        sent.get(0).complete("primary");
+        assertEquals("primary", result.get());
+
+        // The next call earns the other half
+        this.sent.clear();
+        this.hedgeSent = new CountDownLatch(1);
+        hedger.hedge(URL_SUFFIX, this::send);
+        assertTrue(hedgeSent.await(WAIT, TimeUnit.SECONDS));
+        assertEquals(2, hedger.getHedges());
+    }
+
+    /**
+     * This method tests that no hedge is scheduled when the deadline of the
+     * call passes before the delay, and that a hedge is sent with the
+     * deadline of the call.
+     */
+    @Test
+    void testDeadline() throws Exception {
+        Hedger hedger = hedger(HedgingPolicy.DEFAULT_BUDGET, 2);
+
+        try (Deadline.Scope scope = Deadline.after(DELAY / 2,
+                TimeUnit.MILLISECONDS).enter()) {
+            hedger.hedge(URL_SUFFIX, this::send);
+        }
+        assertTrue(timer.getQueue().isEmpty());
+
+        List<Deadline> deadlines = new CopyOnWriteArrayList<>();
+        Deadline deadline = Deadline.after(WAIT, TimeUnit.SECONDS);
+        this.sent.clear();
+        try (Deadline.Scope scope = deadline.enter()) {
+            hedger.hedge(URL_SUFFIX, () -> {
+                deadlines.add(Deadline.current());
+                return this.send();
+            });
+        }
+        assertTrue(hedgeSent.await(WAIT, TimeUnit.SECONDS));
+        assertSame(deadline, deadlines.get(1));
+        assertNull(Deadline.current());
+    }
+
+    /**
+     * This method tests that cancelling a call cancels its requests.
+     */
+    @Test
+    void testCancel() throws Exception {
+        Hedger hedger = hedger(HedgingPolicy.DEFAULT_BUDGET, 1);
+
+        CompletableFuture<String> result = hedger.hedge(URL_SUFFIX,
+                this::send);
+        assertTrue(hedgeSent.await(WAIT, TimeUnit.SECONDS));
+        result.cancel(true);
+        assertCancelled(sent.get(0));
+        assertCancelled(sent.get(1));
+    }
+
+    /**
+     * This method tests that the delay follows the observed latency of a
+     * route once it has enough calls.
+     */
+    @Test
+    void testPercentileDelay() throws Exception {
+        final int samples = 4;
+        Hedger hedger = new Hedger(HedgingPolicy.builder()
+                .delay(DELAY)
+                .percentile(P95)
+                .minSamples(samples)
+                .build(), this.timer);
+
+        assertEquals(DELAY, hedger.getDelay(URL_SUFFIX));
+        for (int i = 0; i < samples; i++) {
+            hedger.hedge(URL_SUFFIX,
+                    () -> CompletableFuture.completedFuture("fast"));
+        }
+        assertTrue(hedger.getDelay(URL_SUFFIX) < DELAY);
+        assertEquals(DELAY, hedger.getDelay("/crm/people/abc"));
+        assertEquals(Long.valueOf(samples),
+                hedger.getSamples().get("crm/accounts/*"));
+
+        // Failed and cancelled primaries say nothing about the latency
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("failed"));
+        hedger.hedge(URL_SUFFIX, () -> failed);
+        CompletableFuture<String> cancelled = new CompletableFuture<>();
+        cancelled.cancel(true);
+        hedger.hedge(URL_SUFFIX, () -> cancelled);
+        assertEquals(Long.valueOf(samples),
+                hedger.getSamples().get("crm/accounts/*"));
+    }
+
+    /**
+     * This method tests how the route of a url suffix is found.
+     */
+    @Test
+    void testRoute() {
+        assertEquals("crm/accounts/*", Hedger.route("/crm/accounts/abc"));
+        assertEquals("crm/accounts", Hedger.route("/crm/accounts?limit=1"));
+        assertEquals("profile", Hedger.route("/profile"));
+        assertEquals("email/lists/*/*",
+                Hedger.route("email/lists/abc/subscriptions"));
+    }
+
+    /**
+     * This method tests that invalid settings are rejected.
+     */
+    @Test
+    void testPolicyFailure() {
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HedgingPolicy.builder().delay(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HedgingPolicy.builder().percentile(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HedgingPolicy.builder().budget(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HedgingPolicy.builder().burst(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HedgingPolicy.builder().minSamples(0).build());
+    }
+}
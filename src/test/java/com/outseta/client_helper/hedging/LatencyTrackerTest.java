@@ -0,0 +1,51 @@
+package com.outseta.client_helper.hedging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class tests the LatencyTracker class.
+ */
+class LatencyTrackerTest {
+
+    /**
+     * The percentile used for testing.
+     */
+    private static final double P95 = 95d;
+
+    /**
+     * This method tests that a percentile needs enough latencies and is
+     * taken from the sorted latencies.
+     */
+    @Test
+    void testPercentile() {
+        LatencyTracker tracker = new LatencyTracker();
+        final int samples = 100;
+        for (int i = samples; i > 0; i--) {
+            tracker.record(i);
+        }
+        assertEquals(-1, tracker.percentile(P95, samples + 1));
+        assertEquals((long) P95, tracker.percentile(P95, samples));
+        assertEquals(samples, tracker.percentile(samples, samples));
+        assertEquals(samples, tracker.getCount());
+    }
+
+    /**
+     * This method tests that old latencies leave the window.
+     */
+    @Test
+    void testWindow() {
+        LatencyTracker tracker = new LatencyTracker();
+        final long slow = 1_000L;
+        for (int i = 0; i < LatencyTracker.WINDOW; i++) {
+            tracker.record(slow);
+        }
+        assertEquals(slow, tracker.percentile(P95, 1));
+
+        for (int i = 0; i < LatencyTracker.WINDOW; i++) {
+            tracker.record(1);
+        }
+        assertEquals(1, tracker.percentile(P95, 1));
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains test cases for the hedging of get requests.
+ */
+package com.outseta.client_helper.hedging;
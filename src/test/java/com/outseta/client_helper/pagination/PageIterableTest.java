@@ -0,0 +1,137 @@
+package com.outseta.client_helper.pagination;
+
+import com.outseta.model.request.PageRequest;
+import com.outseta.model.result.ItemPage;
+import com.outseta.model.result.Metadata;
+import com.outseta.model.result.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * This class tests the PageIterable class.
+ */
+class PageIterableTest {
+
+    /**
+     * The page size used for testing.
+     */
+    private static final int PAGE_SIZE = 2;
+
+    /**
+     * The total number of items used for testing.
+     */
+    private static final int TOTAL = 5;
+
+    /**
+     * The fetcher used for testing. It counts the pages it returns.
+     */
+    private final AtomicInteger fetched = new AtomicInteger();
+
+    /**
+     * This method returns a page of people.
+     * @param request The request of the page.
+     * @return The page.
+     */
+    private ItemPage<Person> fetch(final PageRequest request) {
+        fetched.incrementAndGet();
+        List<Person> items = new ArrayList<>();
+        int first = request.getPageNum() * PAGE_SIZE;
+        for (int i = first; i < Math.min(first + PAGE_SIZE, TOTAL); i++) {
+            items.add(Person.builder().uid(String.valueOf(i)).build());
+        }
+        return new ItemPage<>(new Metadata(PAGE_SIZE, request.getPageNum(),
+                TOTAL), items);
+    }
+
+    /**
+     * This method tests that the iterable can be used in a for loop and
+     * that every iteration starts from the first page.
+     */
+    @Test
+    void testIterable() throws Exception {
+        PageRequest first = PageRequest.builder().page(0)
+                .pageSize(PAGE_SIZE).build();
+        PageIterable<Person> people = new PageIterable<>(first, this::fetch);
+        assertSame(first, people.getFirstRequest());
+
+        for (int round = 0; round < 2; round++) {
+            List<String> uids = new ArrayList<>();
+            for (Person person : people) {
+                uids.add(person.getUid());
+            }
+            assertEquals(Arrays.asList("0", "1", "2", "3", "4"), uids);
+        }
+
+        // Each round reads the three pages again
+        final int pages = 6;
+        assertEquals(pages, fetched.get());
+    }
+
+    /**
+     * This method tests the stream of all items.
+     */
+    @Test
+    void testStream() throws Exception {
+        PageIterable<Person> people = new PageIterable<>(
+                PageRequest.builder().page(0).pageSize(PAGE_SIZE).build(),
+                this::fetch, Runnable::run);
+
+        try (Stream<Person> stream = people.stream()) {
+            assertEquals(Arrays.asList("0", "1", "2", "3", "4"), stream
+                    .map(Person::getUid)
+                    .collect(Collectors.toList()));
+        }
+
+        // A stream that stops early only fetches the first page and the
+        // page after it, not the whole list
+        fetched.set(0);
+        try (Stream<Person> stream = people.stream()) {
+            assertEquals("0", stream.findFirst().get().getUid());
+        }
+        assertEquals(2, fetched.get());
+    }
+
+    /**
+     * This method tests that a scan uses the first request and the fetcher
+     * of the iterable.
+     */
+    @Test
+    void testScan() throws Exception {
+        PageIterable<Person> people = new PageIterable<>(
+                PageRequest.builder().page(0).pageSize(PAGE_SIZE).build(),
+                this::fetch, Runnable::run);
+
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4"),
+                people.scan().parallelism(2).build().toList().stream()
+                        .map(Person::getUid)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * This method tests that the sized stream of all items can be read in
+     * parallel.
+     */
+    @Test
+    void testStreamAll() throws Exception {
+        PageIterable<Person> people = new PageIterable<>(
+                PageRequest.builder().page(0).pageSize(PAGE_SIZE).build(),
+                this::fetch, Runnable::run);
+
+        try (Stream<Person> stream = people.streamAll().parallel()) {
+            assertEquals(Arrays.asList("0", "1", "2", "3", "4"), stream
+                    .map(Person::getUid)
+                    .collect(Collectors.toList()));
+        }
+        final int pages = 3;
+        assertEquals(pages, fetched.get());
+    }
+}
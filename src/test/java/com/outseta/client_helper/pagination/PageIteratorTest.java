@@ -0,0 +1,355 @@
+package com.outseta.client_helper.pagination;
+
+import com.outseta.constant.Sort;
+import com.outseta.exception.OutsetaPageBuildException;
+import com.outseta.exception.OutsetaPaginationException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.model.request.PageRequest;
+import com.outseta.model.result.ItemPage;
+import com.outseta.model.result.Metadata;
+import com.outseta.model.result.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the PageIterator class.
+ */
+class PageIteratorTest {
+
+    /**
+     * The page size used for testing.
+     */
+    private static final int PAGE_SIZE = 2;
+
+    /**
+     * The total number of items used for testing.
+     */
+    private static final int TOTAL = 5;
+
+    /**
+     * The time to wait for the test threads.
+     */
+    private static final long WAIT = 5L;
+
+    /**
+     * The executor used to prefetch pages.
+     */
+    private ExecutorService executor;
+
+    /**
+     * The requests received by the fetcher.
+     */
+    private List<PageRequest> requests;
+
+    /**
+     * Sets up the executor.
+     */
+    @BeforeEach
+    void setUp() {
+        this.executor = Executors.newSingleThreadExecutor();
+        this.requests = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Stops the executor.
+     */
+    @AfterEach
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * This method creates a page of people.
+     * @param request The request of the page.
+     * @param total The total number of items.
+     * @return The page.
+     */
+    private static ItemPage<Person> page(final PageRequest request,
+                                         final Integer total) {
+        int first = request.getPageNum() * PAGE_SIZE;
+        List<Person> items = new ArrayList<>();
+        int last = total == null ? first + PAGE_SIZE
+                : Math.min(first + PAGE_SIZE, total);
+        for (int i = first; i < last; i++) {
+            items.add(Person.builder().uid(String.valueOf(i)).build());
+        }
+        return new ItemPage<>(new Metadata(PAGE_SIZE,
+                request.getPageNum(), total), items);
+    }
+
+    /**
+     * This method creates the request of the first page.
+     * @return The request.
+     * @throws OutsetaPageBuildException If the request cannot be built.
+     */
+    private static PageRequest firstRequest()
+            throws OutsetaPageBuildException {
+        Map<String, Object> customParams = new HashMap<>();
+        customParams.put("Account.Uid", "1");
+        return PageRequest.builder()
+                .page(0)
+                .pageSize(PAGE_SIZE)
+                .orderBy("Created")
+                .orderByDirection(Sort.DESC)
+                .customParams(customParams)
+                .build();
+    }
+
+    /**
+     * This method reads the uids of all items.
+     * @param iterator The iterator to read.
+     * @return The uids.
+     */
+    private static List<String> uids(final PageIterator<Person> iterator) {
+        List<String> result = new ArrayList<>();
+        iterator.forEachRemaining(person -> result.add(person.getUid()));
+        return result;
+    }
+
+    /**
+     * This method tests that every page is read in order and that the
+     * requests keep the sort order and the custom parameters.
+     */
+    @Test
+    void testAllPages() throws Exception {
+        PageIterator<Person> iterator = new PageIterator<>(firstRequest(),
+                request -> {
+                    requests.add(request);
+                    return page(request, TOTAL);
+                }, executor);
+
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4"),
+                uids(iterator));
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+
+        // Three pages hold five items, so no fourth page is requested
+        assertEquals(TOTAL / PAGE_SIZE + 1, requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            PageRequest request = requests.get(i);
+            assertEquals(i, request.getPageNum());
+            assertEquals(PAGE_SIZE, request.getPageSize());
+            assertEquals("Created+DESC",
+                    request.buildParams().get("orderBy"));
+            assertEquals("1", request.buildParams().get("Account.Uid"));
+        }
+    }
+
+    /**
+     * This method tests that the next page is fetched in the background
+     * while the items of the current page are being used.
+     */
+    @Test
+    void testPrefetch() throws Exception {
+        CountDownLatch secondPageRequested = new CountDownLatch(1);
+        PageIterator<Person> iterator = new PageIterator<>(firstRequest(),
+                request -> {
+                    if (request.getPageNum() == 1) {
+                        secondPageRequested.countDown();
+                    }
+                    return page(request, TOTAL);
+                }, executor);
+
+        // Only the first item of the first page has been read
+        assertEquals("0", iterator.next().getUid());
+        assertTrue(secondPageRequested.await(WAIT, TimeUnit.SECONDS));
+
+        assertEquals("1", iterator.next().getUid());
+        assertEquals("2", iterator.next().getUid());
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * This method tests that the iteration stops at the first empty page if
+     * the total is not known.
+     */
+    @Test
+    void testUnknownTotal() throws Exception {
+        PageIterator<Person> iterator = new PageIterator<>(firstRequest(),
+                request -> {
+                    requests.add(request);
+                    if (request.getPageNum() == 2) {
+                        return new ItemPage<>(null, Collections.emptyList());
+                    }
+                    return page(request, null);
+                }, executor);
+
+        // Two full pages are read and the third, empty page ends the list
+        final int pages = 3;
+        assertEquals(2 * PAGE_SIZE, uids(iterator).size());
+        assertEquals(pages, requests.size());
+    }
+
+    /**
+     * This method tests that an empty first page ends the iteration.
+     */
+    @Test
+    void testEmpty() throws Exception {
+        PageIterator<Person> iterator = new PageIterator<>(firstRequest(),
+                request -> new ItemPage<>(new Metadata(PAGE_SIZE, 0, 0),
+                        null), executor);
+
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * This method tests that a failed page is thrown as an unchecked
+     * exception with the original cause.
+     */
+    @Test
+    void testFailure() throws Exception {
+        OutsetaAPIFailedException failure =
+                new OutsetaAPIFailedException("failed", null, null, null,
+                        null, null, null);
+        PageIterator<Person> iterator = new PageIterator<>(firstRequest(),
+                request -> {
+                    if (request.getPageNum() == 1) {
+                        throw failure;
+                    }
+                    return page(request, TOTAL);
+                }, executor);
+
+        assertEquals("0", iterator.next().getUid());
+        assertEquals("1", iterator.next().getUid());
+        OutsetaPaginationException e = assertThrows(
+                OutsetaPaginationException.class, iterator::next);
+        assertEquals(failure, e.getCause());
+
+        // The iteration ends after a failure
+        assertFalse(iterator.hasNext());
+
+        // A failure of the first page is thrown on the calling thread
+        PageIterator<Person> first = new PageIterator<>(firstRequest(),
+                request -> {
+                    throw failure;
+                }, executor);
+        assertEquals(failure, assertThrows(OutsetaPaginationException.class,
+                first::hasNext).getCause());
+
+        // A missing page is a failure too
+        PageIterator<Person> missing = new PageIterator<>(firstRequest(),
+                request -> null, executor);
+        assertNull(assertThrows(OutsetaPaginationException.class,
+                missing::hasNext).getCause());
+    }
+
+    /**
+     * This method tests that closing the iterator cancels the page that is
+     * being prefetched.
+     */
+    @Test
+    void testClose() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        PageIterator<Person> iterator = new PageIterator<>(firstRequest(),
+                request -> {
+                    if (request.getPageNum() == 1) {
+                        started.countDown();
+                        try {
+                            Thread.sleep(TimeUnit.SECONDS.toMillis(WAIT));
+                        } catch (InterruptedException e) {
+                            interrupted.countDown();
+                            throw e;
+                        }
+                    }
+                    return page(request, TOTAL);
+                }, executor);
+
+        assertTrue(iterator.hasNext());
+        assertTrue(started.await(WAIT, TimeUnit.SECONDS));
+        iterator.close();
+
+        assertTrue(interrupted.await(WAIT, TimeUnit.SECONDS));
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * This method tests that pages are fetched on the calling thread if the
+     * executor rejects the prefetch.
+     */
+    @Test
+    void testRejected() throws Exception {
+        PageIterator<Person> iterator = new PageIterator<>(firstRequest(),
+                request -> page(request, TOTAL),
+                task -> {
+                    throw new RejectedExecutionException("full");
+                });
+
+        assertEquals(TOTAL, uids(iterator).size());
+    }
+
+    /**
+     * This method tests that an interrupted wait stops the iteration.
+     */
+    @Test
+    void testInterrupted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PageIterator<Person> iterator = new PageIterator<>(firstRequest(),
+                request -> {
+                    if (request.getPageNum() == 1) {
+                        release.await();
+                    }
+                    return page(request, TOTAL);
+                }, executor);
+
+        iterator.next();
+        iterator.next();
+        Thread.currentThread().interrupt();
+        try {
+            OutsetaPaginationException e = assertThrows(
+                    OutsetaPaginationException.class, iterator::next);
+            assertInstanceOf(InterruptedException.class, e.getCause());
+        } finally {
+            // Clearing the interrupt flag for the following tests
+            assertTrue(Thread.interrupted());
+            release.countDown();
+        }
+    }
+
+    /**
+     * This method tests the detection of the last page.
+     */
+    @Test
+    void testHasMorePages() throws Exception {
+        PageRequest request = PageRequest.builder().build();
+        List<Person> items = Collections.singletonList(
+                Person.builder().uid("0").build());
+
+        // Without a limit, the page size of the request is used
+        PageRequest sized = PageRequest.builder().page(1)
+                .pageSize(PAGE_SIZE).build();
+        assertTrue(PageIterator.hasMorePages(sized, new ItemPage<>(
+                new Metadata(null, 1, TOTAL), items)));
+        assertFalse(PageIterator.hasMorePages(sized, new ItemPage<>(
+                new Metadata(null, 1, PAGE_SIZE + 1), items)));
+
+        // Without a limit or a page size, the number of items is used
+        assertTrue(PageIterator.hasMorePages(request, new ItemPage<>(
+                new Metadata(null, null, PAGE_SIZE), items)));
+        assertFalse(PageIterator.hasMorePages(request, new ItemPage<>(
+                new Metadata(0, null, 1), items)));
+    }
+}
@@ -0,0 +1,396 @@
+package com.outseta.client_helper.pagination;
+
+import com.outseta.exception.OutsetaInvalidArgumentException;
+import com.outseta.exception.OutsetaPaginationException;
+import com.outseta.exception.OutsetaParseException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import com.outseta.model.request.PageRequest;
+import com.outseta.model.result.ItemPage;
+import com.outseta.model.result.Metadata;
+import com.outseta.model.result.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the PageScan class.
+ */
+class PageScanTest {
+
+    /**
+     * The page size used for testing.
+     */
+    private static final int PAGE_SIZE = 2;
+
+    /**
+     * The total number of items used for testing. The last page is not
+     * full.
+     */
+    private static final int TOTAL = 19;
+
+    /**
+     * The number of page requests in flight used for testing.
+     */
+    private static final int PARALLELISM = 3;
+
+    /**
+     * The response code of a server error.
+     */
+    private static final int SERVER_ERROR = 503;
+
+    /**
+     * The response code of a missing resource.
+     */
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * The response code of a throttled request.
+     */
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * The executor used to fetch the pages.
+     */
+    private ExecutorService executor;
+
+    /**
+     * The number of page requests running at the same time.
+     */
+    private AtomicInteger running;
+
+    /**
+     * The highest number of page requests running at the same time.
+     */
+    private AtomicInteger maxRunning;
+
+    /**
+     * The page numbers requested, in the order they were requested.
+     */
+    private List<Integer> requested;
+
+    /**
+     * Sets up the executor.
+     */
+    @BeforeEach
+    void setUp() {
+        this.executor = Executors.newCachedThreadPool();
+        this.running = new AtomicInteger();
+        this.maxRunning = new AtomicInteger();
+        this.requested = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Stops the executor.
+     */
+    @AfterEach
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * This method returns a page of people. Later pages return sooner, so
+     * the pages arrive out of order.
+     * @param request The request of the page.
+     * @return The page.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    private ItemPage<Person> fetch(final PageRequest request)
+            throws InterruptedException {
+        int pageNum = request.getPageNum();
+        requested.add(pageNum);
+        int now = running.incrementAndGet();
+        maxRunning.accumulateAndGet(now, Math::max);
+        try {
+            final int lastPage = TOTAL / PAGE_SIZE;
+            Thread.sleep(lastPage - pageNum);
+        } finally {
+            running.decrementAndGet();
+        }
+
+        List<Person> items = new ArrayList<>();
+        int first = pageNum * PAGE_SIZE;
+        for (int i = first; i < Math.min(first + PAGE_SIZE, TOTAL); i++) {
+            items.add(Person.builder().uid(String.valueOf(i)).build());
+        }
+        return new ItemPage<>(new Metadata(PAGE_SIZE, pageNum, TOTAL),
+                items);
+    }
+
+    /**
+     * This method creates a scan builder.
+     * @param fetcher The method used to get one page.
+     * @return The builder.
+     * @throws Exception If the first request cannot be built.
+     */
+    private PageScan.Builder<Person> scan(final PageFetcher<Person> fetcher)
+            throws Exception {
+        return PageScan.builder(PageRequest.builder()
+                        .page(0)
+                        .pageSize(PAGE_SIZE)
+                        .build(), fetcher)
+                .parallelism(PARALLELISM)
+                .retryDelay(0)
+                .executor(executor);
+    }
+
+    /**
+     * This method returns the uids of all items in order.
+     * @return The uids.
+     */
+    private static List<String> expectedUids() {
+        return IntStream.range(0, TOTAL).mapToObj(String::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * This method reads the uids of the people.
+     * @param people The people.
+     * @return The uids.
+     */
+    private static List<String> uids(final List<Person> people) {
+        return people.stream().map(Person::getUid)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * This method tests that an ordered scan returns every item in page
+     * order, with bounded parallelism.
+     */
+    @Test
+    void testOrdered() throws Exception {
+        PageScan<Person> scan = scan(this::fetch).build();
+
+        assertEquals(expectedUids(), uids(scan.toList()));
+        assertTrue(maxRunning.get() <= PARALLELISM);
+
+        // Every page is requested once
+        final int pages = TOTAL / PAGE_SIZE + 1;
+        assertEquals(pages, requested.size());
+        assertEquals(pages, new HashSet<>(requested).size());
+        assertEquals(pages, scan.getPagesFetched());
+        assertEquals(0, scan.getRetries());
+    }
+
+    /**
+     * This method tests that an unordered scan returns every item.
+     */
+    @Test
+    void testUnordered() throws Exception {
+        PageScan<Person> scan = scan(this::fetch).ordered(false).build();
+
+        List<String> uids = uids(scan.toList());
+        assertEquals(TOTAL, uids.size());
+        assertEquals(new HashSet<>(expectedUids()), new HashSet<>(uids));
+        assertTrue(maxRunning.get() <= PARALLELISM);
+    }
+
+    /**
+     * This method tests that a failed page is retried on its own.
+     */
+    @Test
+    void testRetry() throws Exception {
+        final int failingPage = 4;
+        Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        PageScan<Person> scan = scan(request -> {
+            int attempt = attempts.computeIfAbsent(request.getPageNum(),
+                    page -> new AtomicInteger()).incrementAndGet();
+            if (request.getPageNum() == failingPage && attempt <= 2) {
+                throw responseCode(attempt == 1 ? SERVER_ERROR
+                        : TOO_MANY_REQUESTS);
+            }
+            return fetch(request);
+        }).build();
+
+        assertEquals(expectedUids(), uids(scan.toList()));
+        assertEquals(2, scan.getRetries());
+
+        // The other pages were only requested once
+        assertEquals(1, attempts.get(0).get());
+        assertEquals(1, attempts.get(failingPage + 1).get());
+    }
+
+    /**
+     * This method tests that the scan fails once a page has used up its
+     * retries, or at once if the failure cannot be retried.
+     */
+    @Test
+    void testFailure() throws Exception {
+        final int failingPage = 2;
+        OutsetaInvalidResponseCodeException serverError =
+                responseCode(SERVER_ERROR);
+        PageScan<Person> exhausted = scan(request -> {
+            if (request.getPageNum() == failingPage) {
+                throw serverError;
+            }
+            return fetch(request);
+        }).pageRetries(1).build();
+
+        OutsetaPaginationException e = assertThrows(
+                OutsetaPaginationException.class, exhausted::toList);
+        assertSame(serverError, e.getCause());
+        assertEquals(1, exhausted.getRetries());
+
+        OutsetaInvalidResponseCodeException notFound =
+                responseCode(NOT_FOUND);
+        PageScan<Person> notRetried = scan(request -> {
+            if (request.getPageNum() == failingPage) {
+                throw notFound;
+            }
+            return fetch(request);
+        }).build();
+
+        assertSame(notFound, assertThrows(OutsetaPaginationException.class,
+                notRetried::toList).getCause());
+        assertEquals(0, notRetried.getRetries());
+
+        // A failure of the first page is thrown as well
+        PageScan<Person> firstFails = scan(request -> {
+            throw notFound;
+        }).build();
+        assertSame(notFound, assertThrows(OutsetaPaginationException.class,
+                firstFails::toList).getCause());
+    }
+
+    /**
+     * This method tests that a failing consumer cancels the scan.
+     */
+    @Test
+    void testConsumerFailure() throws Exception {
+        PageScan<Person> scan = scan(this::fetch).build();
+
+        assertThrows(OutsetaPaginationException.class, () ->
+                scan.forEach(person -> {
+                    if ("2".equals(person.getUid())) {
+                        throw new IllegalStateException("stop");
+                    }
+                }));
+        assertFalse(requested.isEmpty());
+    }
+
+    /**
+     * This method tests a collection that fits in the first page and a
+     * collection without a total.
+     */
+    @Test
+    void testWithoutFanOut() throws Exception {
+        PageScan<Person> single = scan(request -> new ItemPage<>(
+                new Metadata(PAGE_SIZE, 0, 1), Collections.singletonList(
+                        Person.builder().uid("0").build()))).build();
+        assertEquals(Collections.singletonList("0"),
+                uids(single.toList()));
+        assertEquals(1, single.getPagesFetched());
+
+        // Without a total, the pages are read one after another until an
+        // empty page is returned
+        PageScan<Person> unknown = scan(request -> {
+            requested.add(request.getPageNum());
+            if (request.getPageNum() == 2) {
+                return new ItemPage<>(null, Collections.emptyList());
+            }
+            return new ItemPage<>(null, Collections.singletonList(
+                    Person.builder().uid("p").build()));
+        }).build();
+        assertEquals(2, unknown.toList().size());
+        final int pages = 3;
+        assertEquals(pages, requested.size());
+    }
+
+    /**
+     * This method tests the failure scenarios of the builder.
+     */
+    @Test
+    void testBuilderFailure() throws Exception {
+        PageRequest request = PageRequest.builder().build();
+        PageFetcher<Person> fetcher = this::fetch;
+
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                PageScan.builder(null, fetcher).build());
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                PageScan.<Person>builder(request, null).build());
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                PageScan.builder(request, fetcher).executor(null).build());
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                PageScan.builder(request, fetcher).parallelism(0).build());
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                PageScan.builder(request, fetcher).pageRetries(-1).build());
+        assertThrows(OutsetaInvalidArgumentException.class, () ->
+                PageScan.builder(request, fetcher).retryDelay(-1).build());
+    }
+
+    /**
+     * This method tests that the default pool is bounded and fetches a page
+     * on the calling thread once all of its threads are busy.
+     * @throws Exception If the test fails.
+     */
+    @Test
+    void testDefaultPoolIsBounded() throws Exception {
+        Executor pool = PaginationThreads.executor();
+        CountDownLatch started = new CountDownLatch(
+                PaginationThreads.MAX_THREADS);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < PaginationThreads.MAX_THREADS; i++) {
+                pool.execute(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            started.await();
+
+            List<Thread> threads = new ArrayList<>();
+            pool.execute(() -> threads.add(Thread.currentThread()));
+            assertEquals(Collections.singletonList(Thread.currentThread()),
+                    threads);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * This method tests which failures are retried.
+     */
+    @Test
+    void testIsRetryable() {
+        assertTrue(PageScan.isRetryable(responseCode(SERVER_ERROR)));
+        assertTrue(PageScan.isRetryable(responseCode(TOO_MANY_REQUESTS)));
+        assertTrue(PageScan.isRetryable(responseCode(null)));
+        assertFalse(PageScan.isRetryable(responseCode(NOT_FOUND)));
+        assertFalse(PageScan.isRetryable(new OutsetaParseException("bad")));
+    }
+
+    /**
+     * This method creates an exception with a response code.
+     * @param code The response code.
+     * @return The exception.
+     */
+    private static OutsetaInvalidResponseCodeException responseCode(
+            final Integer code) {
+        return new OutsetaInvalidResponseCodeException("failed", null, null,
+                null, null, code, null);
+    }
+}
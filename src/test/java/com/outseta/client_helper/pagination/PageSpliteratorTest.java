@@ -0,0 +1,260 @@
+package com.outseta.client_helper.pagination;
+
+import com.outseta.exception.OutsetaPaginationException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.model.request.PageRequest;
+import com.outseta.model.result.ItemPage;
+import com.outseta.model.result.Metadata;
+import com.outseta.model.result.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the PageSpliterator class.
+ */
+class PageSpliteratorTest {
+
+    /**
+     * The page size used for testing.
+     */
+    private static final int PAGE_SIZE = 2;
+
+    /**
+     * The total number of items used for testing. The last page is not
+     * full.
+     */
+    private static final int TOTAL = 19;
+
+    /**
+     * The page numbers requested.
+     */
+    private List<Integer> requested;
+
+    /**
+     * Sets up the list of requested pages.
+     */
+    @BeforeEach
+    void setUp() {
+        this.requested = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * This method returns a page of people.
+     * @param request The request of the page.
+     * @return The page.
+     */
+    private ItemPage<Person> fetch(final PageRequest request) {
+        int pageNum = request.getPageNum();
+        requested.add(pageNum);
+        List<Person> items = new ArrayList<>();
+        int first = pageNum * PAGE_SIZE;
+        for (int i = first; i < Math.min(first + PAGE_SIZE, TOTAL); i++) {
+            items.add(Person.builder().uid(String.valueOf(i)).build());
+        }
+        return new ItemPage<>(new Metadata(PAGE_SIZE, pageNum, TOTAL),
+                items);
+    }
+
+    /**
+     * This method opens a spliterator from the first page.
+     * @param fetcher The method used to get one page.
+     * @return The spliterator.
+     * @throws Exception If the first request cannot be built.
+     */
+    private static Spliterator<Person> open(
+            final PageFetcher<Person> fetcher) throws Exception {
+        return PageSpliterator.open(PageRequest.builder()
+                .page(0)
+                .pageSize(PAGE_SIZE)
+                .build(), fetcher, Runnable::run);
+    }
+
+    /**
+     * This method returns the uids of all items in order.
+     * @return The uids.
+     */
+    private static List<String> expectedUids() {
+        return IntStream.range(0, TOTAL).mapToObj(String::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * This method tests that a parallel stream returns every item in order
+     * and requests every page once.
+     */
+    @Test
+    void testParallelStream() throws Exception {
+        List<String> uids = StreamSupport.stream(open(this::fetch), true)
+                .map(Person::getUid)
+                .collect(Collectors.toList());
+
+        assertEquals(expectedUids(), uids);
+        final int pages = TOTAL / PAGE_SIZE + 1;
+        assertEquals(pages, requested.size());
+        assertEquals(pages, new HashSet<>(requested).size());
+    }
+
+    /**
+     * This method tests that the size is exact while the spliterator is
+     * read.
+     */
+    @Test
+    void testEstimateSize() throws Exception {
+        Spliterator<Person> spliterator = open(this::fetch);
+        assertEquals(PageSpliterator.CHARACTERISTICS,
+                spliterator.characteristics());
+        assertEquals(TOTAL, spliterator.getExactSizeIfKnown());
+
+        // Only the first page has been fetched to learn the size
+        assertEquals(Collections.singletonList(0), requested);
+
+        for (int read = 1; read <= TOTAL; read++) {
+            assertTrue(spliterator.tryAdvance(person -> { }));
+            assertEquals(TOTAL - read, spliterator.estimateSize());
+        }
+        assertFalse(spliterator.tryAdvance(person -> { }));
+    }
+
+    /**
+     * This method tests that a split divides the pages, that the fetched
+     * items stay with the first half and that the sizes add up.
+     */
+    @Test
+    void testTrySplit() throws Exception {
+        Spliterator<Person> suffix = open(this::fetch);
+
+        // One item of the first page is read before the split
+        assertTrue(suffix.tryAdvance(person ->
+                assertEquals("0", person.getUid())));
+        Spliterator<Person> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertEquals(TOTAL - 1, prefix.estimateSize()
+                + suffix.estimateSize());
+
+        List<String> uids = new ArrayList<>();
+        uids.add("0");
+        prefix.forEachRemaining(person -> uids.add(person.getUid()));
+
+        // The suffix starts at a page boundary
+        int prefixSize = uids.size();
+        assertEquals(0, prefixSize % PAGE_SIZE);
+        suffix.forEachRemaining(person -> uids.add(person.getUid()));
+        assertEquals(String.valueOf(prefixSize), uids.get(prefixSize));
+        assertEquals(expectedUids(), uids);
+    }
+
+    /**
+     * This method tests that a single page is not split and that a page
+     * with more items than the total is cut down to the reported size.
+     */
+    @Test
+    void testSinglePage() throws Exception {
+        Spliterator<Person> single = open(request -> new ItemPage<>(
+                new Metadata(PAGE_SIZE, 0, 1), Arrays.asList(
+                        Person.builder().uid("0").build(),
+                        Person.builder().uid("1").build())));
+
+        assertNull(single.trySplit());
+        assertEquals(1, single.estimateSize());
+        assertEquals(Collections.singletonList("0"), StreamSupport
+                .stream(single, true).map(Person::getUid)
+                .collect(Collectors.toList()));
+
+        Spliterator<Person> empty = open(request -> new ItemPage<>(
+                new Metadata(PAGE_SIZE, 0, 0), null));
+        assertEquals(0, empty.estimateSize());
+        assertFalse(empty.tryAdvance(person -> { }));
+    }
+
+    /**
+     * This method tests that the pages are read in order when the total is
+     * not known.
+     */
+    @Test
+    void testUnknownTotal() throws Exception {
+        Spliterator<Person> spliterator = open(request -> {
+            requested.add(request.getPageNum());
+            if (request.getPageNum() == 2) {
+                return new ItemPage<>(null, Collections.emptyList());
+            }
+            return new ItemPage<>(null, Collections.singletonList(
+                    Person.builder().uid("p").build()));
+        });
+
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(2, StreamSupport.stream(spliterator, true)
+                .collect(Collectors.toList()).size());
+        final int pages = 3;
+        assertEquals(pages, requested.size());
+    }
+
+    /**
+     * This method tests that a page that comes back with fewer items than
+     * were reported fails the stream instead of breaking its size.
+     */
+    @Test
+    void testShortPage() throws Exception {
+        final int shortPage = 3;
+        Spliterator<Person> spliterator = open(request -> {
+            ItemPage<Person> page = fetch(request);
+            if (request.getPageNum() == shortPage) {
+                page.getItems().remove(0);
+            }
+            return page;
+        });
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+
+        OutsetaPaginationException e = assertThrows(
+                OutsetaPaginationException.class, () -> StreamSupport
+                        .stream(spliterator, false)
+                        .collect(Collectors.toList()));
+        assertTrue(e.getMessage().startsWith("Page " + shortPage));
+    }
+
+    /**
+     * This method tests that failed pages are thrown as unchecked
+     * exceptions with the original cause.
+     */
+    @Test
+    void testFailure() throws Exception {
+        OutsetaAPIFailedException failure =
+                new OutsetaAPIFailedException("failed", null, null, null,
+                        null, null, null);
+
+        // A failure of the first page is thrown when the stream is opened
+        assertSame(failure, assertThrows(OutsetaPaginationException.class,
+                () -> open(request -> {
+                    throw failure;
+                })).getCause());
+
+        final int failingPage = 3;
+        Spliterator<Person> spliterator = open(request -> {
+            if (request.getPageNum() == failingPage) {
+                throw failure;
+            }
+            return fetch(request);
+        });
+        assertSame(failure, assertThrows(OutsetaPaginationException.class,
+                () -> spliterator.forEachRemaining(person -> { }))
+                .getCause());
+    }
+}
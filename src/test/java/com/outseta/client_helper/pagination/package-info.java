@@ -0,0 +1,4 @@
+/**
+ * This package contains test cases for the pagination helpers.
+ */
+package com.outseta.client_helper.pagination;
@@ -11,10 +11,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -180,6 +185,50 @@ class ParserFacadeTest {
                         TestDataComponent.class));
     }
 
+    /**
+     * This method tests the objectToJsonBytes method of the ParserFacade
+     * class.
+     */
+    @Test
+    void testObjectToJsonBytesSuccess() throws OutsetaParseException {
+        byte[] bytes = objectStr.getBytes(StandardCharsets.UTF_8);
+        when(jsonParser.objectToJsonBytes(testDataComponent))
+                .thenReturn(bytes);
+
+        assertSame(bytes, parserFacade.objectToJsonBytes(testDataComponent));
+    }
+
+    /**
+     * This method tests the json stream methods of the ParserFacade class.
+     */
+    @Test
+    void testJsonStreamSuccess() throws OutsetaParseException {
+
+        InputStream stream = new ByteArrayInputStream(
+                objectStr.getBytes(StandardCharsets.UTF_8));
+        ItemPage<TestDataComponent> itemPage = new ItemPage<>(
+                new Metadata(1, 0, 1), Arrays.asList(testDataComponent));
+        when(jsonParser.jsonStreamToObject(stream, TestDataComponent.class))
+                .thenReturn(testDataComponent);
+        when(jsonParser.jsonStreamToPage(stream, TestDataComponent.class))
+                .thenReturn(itemPage);
+
+        assertEquals(testDataComponent, parserFacade.jsonStreamToObject(
+                stream, TestDataComponent.class));
+        assertEquals(itemPage, parserFacade.jsonStreamToPage(stream,
+                TestDataComponent.class));
+    }
+
+    /**
+     * This method tests the prepare method of the ParserFacade class.
+     */
+    @Test
+    void testPrepare() {
+        when(jsonParser.prepare(TestDataComponent.class)).thenReturn(true);
+
+        assertTrue(parserFacade.prepare(TestDataComponent.class));
+    }
+
     /**
      * This method tests the getJsonParser method of the ParserFacade.
      */
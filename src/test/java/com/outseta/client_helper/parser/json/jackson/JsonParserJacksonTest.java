@@ -1,14 +1,13 @@
 package com.outseta.client_helper.parser.json.jackson;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
 import com.outseta.client_helper.parser.json.TestDataComponent;
 import com.outseta.client_helper.parser.json.TestNestedData;
 import com.outseta.exception.OutsetaParseException;
 import com.outseta.model.result.ItemPage;
 import com.outseta.model.result.Metadata;
+import com.outseta.model.result.Person;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,12 +17,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
-import java.util.Arrays;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 /**
@@ -33,6 +38,11 @@ import static org.mockito.Mockito.when;
 @MockitoSettings(strictness = Strictness.LENIENT)
 class JsonParserJacksonTest {
 
+    /**
+     * The page size used in the page json.
+     */
+    private static final int PAGE_LIMIT = 10;
+
     /**
      * Creating JsonParserJackson object with the mocked ObjectMapper.
      */
@@ -44,30 +54,6 @@ class JsonParserJacksonTest {
     @Mock
     private ObjectMapper objectMapper;
 
-    /**
-     * Creating ObjectReader mock object.
-     */
-    @Mock
-    private ObjectReader objectReader;
-
-    /**
-     * Creating JsonNode mock object.
-     */
-    @Mock
-    private JsonNode jsonNode;
-
-    /**
-     * Creating metadata JsonNode mock object.
-     */
-    @Mock
-    private JsonNode metadataJsonNode;
-
-    /**
-     * Creating items JsonNode mock object.
-     */
-    @Mock
-    private JsonNode itemsJsonNode;
-
     /**
      * Creating TestDataComponent object.
      */
@@ -155,6 +141,35 @@ class JsonParserJacksonTest {
                 () -> jsonParserJackson.objectToJsonString(testDataComponent));
     }
 
+    /**
+     * This method tests that a model is written straight to UTF-8 bytes
+     * that match the json string of the same model.
+     */
+    @Test
+    void testObjectToJsonBytesSuccess() throws OutsetaParseException {
+        JsonParserJackson parser = new JsonParserJackson();
+        Person person = new Person();
+        person.setFirstName("Ren\u00e9e");
+
+        byte[] bytes = parser.objectToJsonBytes(person);
+        assertEquals(parser.objectToJsonString(person),
+                new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * This method tests the failure scenario of the objectToJsonBytes method
+     * of the JsonParserJackson class.
+     */
+    @Test
+    void testObjectToJsonBytesFailure() throws JsonProcessingException {
+        when(objectMapper.writeValueAsBytes(
+                any(TestDataComponent.class))).thenThrow(
+                JsonProcessingException.class);
+
+        assertThrows(OutsetaParseException.class,
+                () -> jsonParserJackson.objectToJsonBytes(testDataComponent));
+    }
+
     /**
      * This method tests the failure scenario of the jsonStringToObject method
      * of the JsonParserJackson class.
@@ -176,50 +191,36 @@ class JsonParserJacksonTest {
      * JsonParserJackson.
      */
     @Test
-    void testJsonStringToPageSuccess()
-            throws JsonProcessingException, OutsetaParseException {
-
-        final String metadataStr = "{\n"
-                + "        \"limit\": 10,\n"
-                + "        \"offset\": 0,\n"
-                + "        \"total\": 1\n"
-                + "    }";
-
-        final String itemsStr = "[" + objectStr + ", " + objectStr + "]";
-
-        final Metadata metadataObj = new Metadata(10, 0, 1);
-
-        when(objectReader.readValue(itemsStr)).thenReturn(
-                Arrays.asList(testDataComponent, testDataComponent)
-        );
-
-        // Mock ObjectMapper's readValue method
-        when(objectMapper.
-                readerForListOf(eq(TestDataComponent.class)))
-                .thenReturn(objectReader);
-
-        when(objectMapper.readValue(any(String.class),
-                eq(Metadata.class))).thenReturn(metadataObj);
-
-        when(objectMapper.readTree(any(String.class)))
-                .thenReturn(jsonNode);
-
-        when(jsonNode.get("metadata")).thenReturn(metadataJsonNode);
-        when(jsonNode.get("items")).thenReturn(itemsJsonNode);
-
-        when(metadataJsonNode.toString()).thenReturn(
-                metadataStr
-        );
-
-        when(itemsJsonNode.toString()).thenReturn(
-                itemsStr
-        );
-
-        ItemPage<TestDataComponent> result =
-                jsonParserJackson.jsonStringToPage(objectStr,
-                        TestDataComponent.class);
-
-        assertEquals(testDataComponent, result.getItems().get(0));
+    void testJsonStringToPageSuccess() throws OutsetaParseException {
+
+        final String pageStr = "{\"metadata\": {\"limit\": 10, "
+                + "\"offset\": 0, \"total\": 2}, "
+                + "\"unknown\": {\"items\": [1, 2]}, "
+                + "\"items\": [{\"Uid\": \"1\", \"FirstName\": \"John\", "
+                + "\"PersonAccount\": [{\"IsPrimary\": true}]}, "
+                + "{\"Uid\": \"2\", \"Email\": \"\"}]}";
+
+        JsonParserJackson parser = new JsonParserJackson();
+        ItemPage<Person> result = parser.jsonStringToPage(pageStr,
+                Person.class);
+
+        assertEquals(new Metadata(PAGE_LIMIT, 0, 2), result.getMetadata());
+        assertEquals(2, result.getItems().size());
+        assertEquals("1", result.getItems().get(0).getUid());
+        assertEquals("John", result.getItems().get(0).getFirstName());
+        assertEquals(1, result.getItems().get(0).getPersonAccount().size());
+        assertEquals("2", result.getItems().get(1).getUid());
+
+        // Empty strings are kept and missing fields are left unset
+        assertEquals("", result.getItems().get(1).getEmail());
+        assertNull(result.getItems().get(1).getFirstName());
+
+        // The same cached reader is used for the next page
+        ItemPage<Person> empty = parser.jsonStringToPage(
+                "{\"items\": [], \"metadata\": {\"total\": 0}}",
+                Person.class);
+        assertTrue(empty.getItems().isEmpty());
+        assertEquals(0, empty.getMetadata().getTotal());
     }
 
     /**
@@ -228,47 +229,110 @@ class JsonParserJacksonTest {
      * It tests the failure scenario of the method.
      */
     @Test
-    void testJsonStringToPageFailure()
-            throws JsonProcessingException, OutsetaParseException {
-
-        final String metadataStr = "{\n"
-                + "        \"limit\": 10,\n"
-                + "        \"offset\": 0,\n"
-                + "        \"total\": 1\n"
-                + "    }";
+    void testJsonStringToPageFailure() {
 
-        final String itemsStr = "[" + objectStr + ", " + objectStr + "]";
+        JsonParserJackson parser = new JsonParserJackson();
 
-        final Metadata metadataObj = new Metadata(10, 0, 1);
-
-        when(objectReader.readValue(itemsStr)).thenReturn(
-                Arrays.asList(testDataComponent, testDataComponent)
-        );
+        assertThrows(OutsetaParseException.class,
+                () -> parser.jsonStringToPage(null, Person.class));
+        assertThrows(OutsetaParseException.class,
+                () -> parser.jsonStringToPage("", Person.class));
+        assertThrows(OutsetaParseException.class,
+                () -> parser.jsonStringToPage("[]", Person.class));
+        assertThrows(OutsetaParseException.class,
+                () -> parser.jsonStringToPage("{\"items\": []}",
+                        Person.class));
+        assertThrows(OutsetaParseException.class,
+                () -> parser.jsonStringToPage(
+                        "{\"metadata\": {\"total\": 0}}", Person.class));
+        assertThrows(OutsetaParseException.class,
+                () -> parser.jsonStringToPage(
+                        "{\"metadata\": {}, \"items\": [{\"Uid\": ",
+                        Person.class));
+        assertThrows(OutsetaParseException.class,
+                () -> parser.jsonStringToPage(
+                        "{\"metadata\": {}, \"items\": [\"text\"]}",
+                        Person.class));
+    }
 
-        // Mock ObjectMapper's readValue method
-        when(objectMapper.
-                readerForListOf(eq(TestDataComponent.class)))
-                .thenReturn(objectReader);
+    /**
+     * This method creates a stream over a json string that records whether
+     * it was closed.
+     * @param json The json string.
+     * @param closed Set to true when the stream is closed.
+     * @return The stream.
+     */
+    private static InputStream stream(final String json,
+                                      final AtomicBoolean closed) {
+        return new ByteArrayInputStream(
+                json.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+                super.close();
+            }
+        };
+    }
 
-        when(objectMapper.readTree(any(String.class)))
-                .thenReturn(jsonNode);
+    /**
+     * This method tests the json stream methods of the JsonParserJackson.
+     * The stream is read like the string and is left open for its owner.
+     */
+    @Test
+    void testJsonStreamSuccess() throws OutsetaParseException {
+
+        JsonParserJackson parser = new JsonParserJackson();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        Person person = parser.jsonStreamToObject(stream(
+                "{\"Uid\": \"1\", \"Email\": \"\"}", closed),
+                Person.class);
+        assertEquals("1", person.getUid());
+        assertEquals("", person.getEmail());
+        assertFalse(closed.get());
+
+        ItemPage<Person> page = parser.jsonStreamToPage(stream(
+                "{\"metadata\": {\"total\": 1}, \"items\": "
+                        + "[{\"Uid\": \"1\", \"FirstName\": \"Zo\u00eb\"}]}",
+                closed), Person.class);
+        assertEquals(1, page.getMetadata().getTotal());
+        assertEquals("Zo\u00eb", page.getItems().get(0).getFirstName());
+        assertFalse(closed.get());
+    }
 
-        when(jsonNode.get("metadata")).thenReturn(metadataJsonNode);
-        when(jsonNode.get("items")).thenReturn(itemsJsonNode);
+    /**
+     * This method tests that model classes are prepared ahead of their
+     * first use.
+     */
+    @Test
+    void testPrepare() throws OutsetaParseException {
+        JsonParserJackson parser = new JsonParserJackson();
 
-        when(metadataJsonNode.toString()).thenReturn(
-                metadataStr
-        );
+        assertTrue(parser.prepare(Person.class));
+        assertEquals("1", parser.jsonStringToObject("{\"Uid\": \"1\"}",
+                Person.class).getUid());
+    }
 
-        when(itemsJsonNode.toString()).thenReturn(
-                itemsStr
-        );
+    /**
+     * This method tests the failure scenario of the json stream methods of
+     * the JsonParserJackson.
+     */
+    @Test
+    void testJsonStreamFailure() {
 
-        when(objectMapper.readValue(any(String.class),
-                any(Class.class))).thenThrow(JsonProcessingException.class);
+        JsonParserJackson parser = new JsonParserJackson();
+        AtomicBoolean closed = new AtomicBoolean();
 
         assertThrows(OutsetaParseException.class,
-                () -> jsonParserJackson.jsonStringToPage(objectStr,
-                        TestDataComponent.class));
+                () -> parser.jsonStreamToObject(null, Person.class));
+        assertThrows(OutsetaParseException.class,
+                () -> parser.jsonStreamToObject(stream("{\"Uid\": ",
+                        closed), Person.class));
+        assertThrows(OutsetaParseException.class,
+                () -> parser.jsonStreamToPage(null, Person.class));
+        assertThrows(OutsetaParseException.class,
+                () -> parser.jsonStreamToPage(stream("[]", closed),
+                        Person.class));
+        assertFalse(closed.get());
     }
 }
@@ -0,0 +1,207 @@
+package com.outseta.client_helper.parser.json.jackson;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outseta.model.DataComponent;
+import com.outseta.model.result.Account;
+import com.outseta.model.result.ItemPage;
+import com.outseta.model.result.Metadata;
+import com.outseta.model.result.Person;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class compares the single pass page parser with the tree based
+ * parser it replaced.
+ * <p>
+ *     It is excluded from the normal build and can be run with
+ *     {@code gradle benchmark}. For every page type it prints the parsed
+ *     pages per second and the bytes allocated per page.
+ * </p>
+ */
+@Tag("benchmark")
+class PageParserBenchmark {
+
+    /**
+     * The number of items in each generated page.
+     */
+    private static final int PAGE_SIZE = 25;
+
+    /**
+     * The number of pages parsed before measuring.
+     */
+    private static final int WARM_UP = 20_000;
+
+    /**
+     * The number of pages parsed while measuring.
+     */
+    private static final int ITERATIONS = 50_000;
+
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * This interface is implemented by the parsers under test.
+     */
+    private interface PageParser {
+
+        /**
+         * This method parses a page.
+         * @param json The page json.
+         * @param clazz The item type.
+         * @return The number of items in the page.
+         * @throws Exception If the page cannot be parsed.
+         */
+        int parse(String json, Class<? extends DataComponent> clazz)
+                throws Exception;
+    }
+
+    /**
+     * This method runs the benchmark for account pages.
+     */
+    @Test
+    void benchmarkAccountPage() throws Exception {
+        run("Account", accountPage(), Account.class);
+    }
+
+    /**
+     * This method runs the benchmark for person pages.
+     */
+    @Test
+    void benchmarkPersonPage() throws Exception {
+        run("Person", personPage(), Person.class);
+    }
+
+    /**
+     * This method measures both parsers on the same page.
+     * @param name The name of the page type.
+     * @param json The page json.
+     * @param clazz The item type.
+     * @throws Exception If the page cannot be parsed.
+     */
+    private static void run(final String name, final String json,
+                            final Class<? extends DataComponent> clazz)
+            throws Exception {
+
+        ObjectMapper mapper = new ObjectMapper().configure(
+                DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        PageParser tree = (page, type) -> {
+            JsonNode node = mapper.readTree(page);
+            mapper.readValue(node.get("metadata").toString(),
+                    Metadata.class);
+            List<?> items = mapper.readerForListOf(type)
+                    .readValue(node.get("items").toString());
+            return items.size();
+        };
+
+        JsonParserJackson streaming = new JsonParserJackson();
+        PageParser single = (page, type) -> {
+            ItemPage<?> result = streaming.jsonStringToPage(page, type);
+            return result.getItems().size();
+        };
+
+        measure(name + " tree", tree, json, clazz);
+        measure(name + " streaming", single, json, clazz);
+    }
+
+    /**
+     * This method measures the throughput and the allocations of a parser.
+     * @param name The name printed with the result.
+     * @param parser The parser to measure.
+     * @param json The page json.
+     * @param clazz The item type.
+     * @throws Exception If the page cannot be parsed.
+     */
+    private static void measure(final String name, final PageParser parser,
+                                final String json,
+                                final Class<? extends DataComponent> clazz)
+            throws Exception {
+
+        for (int i = 0; i < WARM_UP; i++) {
+            assertEquals(PAGE_SIZE, parser.parse(json, clazz));
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)
+                        ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            parser.parse(json, clazz);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId)
+                - allocatedBefore;
+
+        System.out.printf("%-20s %,12.0f pages/s %,10d bytes/page%n", name,
+                ITERATIONS * NANOS_PER_SECOND / elapsed,
+                allocated / ITERATIONS);
+    }
+
+    /**
+     * This method generates a page of accounts.
+     * @return The page json.
+     */
+    private static String accountPage() {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"Uid\":\"account-").append(i)
+                    .append("\",\"Name\":\"Account ").append(i)
+                    .append("\",\"AccountStage\":2")
+                    .append(",\"BillingAddress\":{\"AddressLine1\":")
+                    .append("\"1 Main Street\",\"City\":\"Springfield\"}")
+                    .append(",\"PersonAccount\":[{\"IsPrimary\":true,")
+                    .append("\"Person\":{\"Uid\":\"person-").append(i)
+                    .append("\",\"Email\":\"user").append(i)
+                    .append("@example.com\"}}]")
+                    .append(",\"Created\":\"2023-01-01T10:00:00\"")
+                    .append(",\"Updated\":\"2023-01-02T10:00:00\"}");
+        }
+        return page(items);
+    }
+
+    /**
+     * This method generates a page of people.
+     * @return The page json.
+     */
+    private static String personPage() {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"Uid\":\"person-").append(i)
+                    .append("\",\"Email\":\"user").append(i)
+                    .append("@example.com\",\"FirstName\":\"First")
+                    .append(i).append("\",\"LastName\":\"Last")
+                    .append(i).append("\",\"PhoneMobile\":\"555-0100\"")
+                    .append(",\"Created\":\"2023-01-01T10:00:00\"")
+                    .append(",\"Updated\":\"2023-01-02T10:00:00\"}");
+        }
+        return page(items);
+    }
+
+    /**
+     * This method wraps the items in a page with metadata.
+     * @param items The items json.
+     * @return The page json.
+     */
+    private static String page(final StringBuilder items) {
+        return "{\"metadata\":{\"limit\":" + PAGE_SIZE
+                + ",\"offset\":0,\"total\":" + PAGE_SIZE + "},\"items\":["
+                + items + "]}";
+    }
+}
@@ -0,0 +1,58 @@
+package com.outseta.client_helper.request_maker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * This class tests the ConnectionPoolStats class.
+ */
+class ConnectionPoolStatsTest {
+
+    /**
+     * The maximum pool size used for testing.
+     */
+    private static final int MAX = 10;
+
+    /**
+     * The number of available connections used for testing.
+     */
+    private static final int AVAILABLE = 3;
+
+    /**
+     * This method tests the getters of the class.
+     */
+    @Test
+    void testGetters() {
+        ConnectionPoolStats stats =
+                new ConnectionPoolStats(1, 2, AVAILABLE, MAX);
+
+        assertEquals(1, stats.getLeased());
+        assertEquals(2, stats.getPending());
+        assertEquals(AVAILABLE, stats.getAvailable());
+        assertEquals(MAX, stats.getMax());
+        assertEquals("[leased: 1; pending: 2; available: 3; max: 10]",
+                stats.toString());
+    }
+
+    /**
+     * This method tests the equals and hashCode methods.
+     */
+    @Test
+    void testEqualsAndHashCode() {
+        ConnectionPoolStats stats =
+                new ConnectionPoolStats(1, 2, AVAILABLE, MAX);
+        ConnectionPoolStats same =
+                new ConnectionPoolStats(1, 2, AVAILABLE, MAX);
+
+        assertEquals(stats, stats);
+        assertEquals(stats, same);
+        assertEquals(stats.hashCode(), same.hashCode());
+        assertNotEquals(stats, new ConnectionPoolStats(0, 2, AVAILABLE, MAX));
+        assertNotEquals(stats, new ConnectionPoolStats(1, 0, AVAILABLE, MAX));
+        assertNotEquals(stats, new ConnectionPoolStats(1, 2, 0, MAX));
+        assertNotEquals(stats, new ConnectionPoolStats(1, 2, AVAILABLE, 0));
+        assertNotEquals(stats, "stats");
+    }
+}
@@ -0,0 +1,183 @@
+package com.outseta.client_helper.request_maker;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the ContentDecoder class.
+ */
+class ContentDecoderTest {
+
+    /**
+     * The number of times the item is repeated in the body.
+     */
+    private static final int ITEMS = 200;
+
+    /**
+     * The success code used for testing.
+     */
+    private static final int SUCCESS_CODE = 200;
+
+    /**
+     * This method creates a large, repetitive json body.
+     * @return The body.
+     */
+    private static String body() {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < ITEMS; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"Uid\":\"").append(i)
+                    .append("\",\"Name\":\"Ren\u00e9e\"}");
+        }
+        return body.append(']').toString();
+    }
+
+    /**
+     * This method creates a response with the given body and encoding.
+     * @param bytes The body as sent on the wire.
+     * @param encoding The content encoding, or null for none.
+     * @return The response.
+     */
+    private static HttpResponse response(final byte[] bytes,
+                                         final String encoding) {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1,
+                SUCCESS_CODE, "OK");
+        ByteArrayEntity entity = new ByteArrayEntity(bytes,
+                ContentType.APPLICATION_JSON);
+        if (encoding != null) {
+            entity.setContentEncoding(encoding);
+            response.addHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        response.addHeader(HttpHeaders.CONTENT_LENGTH,
+                String.valueOf(bytes.length));
+        response.setEntity(entity);
+        return response;
+    }
+
+    /**
+     * This method compresses bytes.
+     * @param bytes The bytes.
+     * @param gzip True for gzip, false for deflate.
+     * @return The compressed bytes.
+     * @throws IOException If the bytes cannot be compressed.
+     */
+    private static byte[] compress(final byte[] bytes, final boolean gzip)
+            throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(compressed)
+                : new DeflaterOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * This method tests that gzip and deflate bodies are decoded while they
+     * are read and that both sizes are counted.
+     */
+    @Test
+    void testDecode() throws IOException {
+        ContentDecoder decoder = new ContentDecoder(true);
+        byte[] plain = body().getBytes(StandardCharsets.UTF_8);
+        byte[] gzip = compress(plain, true);
+        byte[] deflate = compress(plain, false);
+
+        HttpResponse gzipped = response(gzip, "gzip");
+        decoder.process(gzipped, null);
+        assertEquals(body(), EntityUtils.toString(gzipped.getEntity(),
+                StandardCharsets.UTF_8));
+        assertNull(gzipped.getEntity().getContentEncoding());
+        assertFalse(gzipped.containsHeader(HttpHeaders.CONTENT_ENCODING));
+        assertFalse(gzipped.containsHeader(HttpHeaders.CONTENT_LENGTH));
+
+        HttpResponse deflated = response(deflate, "deflate");
+        decoder.decode(deflated);
+        assertEquals(body(), EntityUtils.toString(deflated.getEntity(),
+                StandardCharsets.UTF_8));
+
+        TransferStats stats = decoder.getStats();
+        assertEquals(2, stats.getResponses());
+        assertEquals(2, stats.getCompressedResponses());
+        assertEquals(gzip.length + deflate.length, stats.getWireBytes());
+        assertEquals(2L * plain.length, stats.getDecodedBytes());
+        assertTrue(stats.getSavedBytes() > plain.length);
+    }
+
+    /**
+     * This method tests that plain bodies are counted once on both sides,
+     * and that bodies with an unknown encoding are left as they are.
+     */
+    @Test
+    void testDecodePlain() throws IOException {
+        ContentDecoder decoder = new ContentDecoder(true);
+        byte[] plain = body().getBytes(StandardCharsets.UTF_8);
+
+        HttpResponse identity = response(plain, null);
+        decoder.decode(identity);
+        assertEquals(body(), EntityUtils.toString(identity.getEntity(),
+                StandardCharsets.UTF_8));
+        assertTrue(identity.containsHeader(HttpHeaders.CONTENT_LENGTH));
+
+        HttpResponse unknown = response(plain, "br");
+        Object entity = unknown.getEntity();
+        decoder.decode(unknown);
+        assertSame(entity, unknown.getEntity());
+
+        HttpResponse empty = new BasicHttpResponse(HttpVersion.HTTP_1_1,
+                SUCCESS_CODE, "OK");
+        decoder.decode(empty);
+        assertNull(empty.getEntity());
+
+        assertEquals(new TransferStats(1, 0, plain.length, plain.length),
+                decoder.getStats());
+    }
+
+    /**
+     * This method tests that compressed responses are only asked for while
+     * compression is on and if the request does not ask for an encoding.
+     */
+    @Test
+    void testAcceptEncoding() {
+        ContentDecoder decoder = new ContentDecoder(true);
+        assertTrue(decoder.isCompression());
+
+        HttpGet request = new HttpGet("http://dummyurl.com");
+        decoder.process(request, null);
+        assertEquals("gzip, deflate", request.getFirstHeader(
+                HttpHeaders.ACCEPT_ENCODING).getValue());
+
+        HttpGet identity = new HttpGet("http://dummyurl.com");
+        identity.addHeader(HttpHeaders.ACCEPT_ENCODING, "identity");
+        decoder.process(identity, null);
+        assertEquals(1, identity.getHeaders(HttpHeaders.ACCEPT_ENCODING)
+                .length);
+
+        decoder.setCompression(false);
+        assertFalse(decoder.isCompression());
+        HttpGet plain = new HttpGet("http://dummyurl.com");
+        decoder.process(plain, null);
+        assertNull(plain.getFirstHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+}
@@ -0,0 +1,67 @@
+package com.outseta.client_helper.request_maker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class tests the Deadline class.
+ */
+class DeadlineTest {
+
+    /**
+     * A time far enough away not to pass during a test, in seconds.
+     */
+    private static final long LONG = 60L;
+
+    /**
+     * This method tests the time left before a deadline.
+     */
+    @Test
+    void testRemaining() {
+        Deadline deadline = Deadline.after(LONG, TimeUnit.SECONDS);
+        assertFalse(deadline.isExpired());
+        assertTrue(deadline.remaining(TimeUnit.SECONDS) <= LONG);
+        assertTrue(deadline.remaining(TimeUnit.SECONDS) > LONG - 2);
+
+        Deadline passed = Deadline.after(-1, TimeUnit.SECONDS);
+        assertTrue(passed.isExpired());
+        assertEquals(0, passed.remaining(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * This method tests that nested scopes keep the earliest deadline and
+     * restore the previous one when closed.
+     */
+    @Test
+    void testScope() {
+        assertNull(Deadline.current());
+        Deadline outer = Deadline.after(1, TimeUnit.SECONDS);
+        Deadline later = Deadline.after(LONG, TimeUnit.SECONDS);
+        Deadline sooner = Deadline.after(1, TimeUnit.MILLISECONDS);
+
+        try (Deadline.Scope scope = outer.enter()) {
+            assertSame(outer, Deadline.current());
+
+            // A callee cannot extend the budget of its caller
+            try (Deadline.Scope inner = later.enter()) {
+                assertSame(outer, Deadline.current());
+            }
+            try (Deadline.Scope inner = sooner.enter()) {
+                assertSame(sooner, Deadline.current());
+            }
+            assertSame(outer, Deadline.current());
+        }
+        assertNull(Deadline.current());
+
+        assertSame(sooner, later.earliest(sooner));
+        assertSame(sooner, sooner.earliest(later));
+        assertSame(later, later.earliest(null));
+    }
+}
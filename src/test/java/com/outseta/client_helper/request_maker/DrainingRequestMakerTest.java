@@ -0,0 +1,334 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the DrainingRequestMaker class.
+ */
+@ExtendWith(MockitoExtension.class)
+class DrainingRequestMakerTest {
+
+    /**
+     * The url used for testing.
+     */
+    private static final String URL = "https://dummy.com/crm/people";
+
+    /**
+     * The drain timeout used for testing.
+     */
+    private static final long DRAIN_TIMEOUT = 5_000L;
+
+    /**
+     * The time to wait for the test threads.
+     */
+    private static final long WAIT = 5L;
+
+    /**
+     * The request maker that is wrapped.
+     */
+    @Mock
+    private PooledRequestMaker delegate;
+
+    /**
+     * The parameters used for testing.
+     */
+    private Map<String, Object> params;
+
+    /**
+     * The headers used for testing.
+     */
+    private Map<String, String> headers;
+
+    /**
+     * Sets up the test data.
+     */
+    @BeforeEach
+    void setUp() {
+        this.params = new HashMap<>();
+        this.headers = new HashMap<>();
+    }
+
+    /**
+     * This method tests that all methods are forwarded to the wrapped
+     * request maker.
+     */
+    @Test
+    void testForwarding() throws Exception {
+        DrainingRequestMaker requestMaker =
+                new DrainingRequestMaker(delegate, DRAIN_TIMEOUT, true);
+
+        when(delegate.get(URL, params, headers)).thenReturn("get");
+        when(delegate.put(URL, params, "body", headers)).thenReturn("put");
+        when(delegate.post(URL, params, "body", headers)).thenReturn("post");
+        when(delegate.delete(URL, params, headers)).thenReturn("delete");
+        when(delegate.urlEncodePayloadAttribute("a b")).thenReturn("a+b");
+
+        assertEquals("get", requestMaker.get(URL, params, headers));
+        assertEquals("put", requestMaker.put(URL, params, "body", headers));
+        assertEquals("post", requestMaker.post(URL, params, "body", headers));
+        assertEquals("delete", requestMaker.delete(URL, params, headers));
+        assertEquals("a+b", requestMaker.urlEncodePayloadAttribute("a b"));
+        assertSame(delegate, requestMaker.getDelegate());
+        assertEquals(0, requestMaker.getInFlight());
+    }
+
+    /**
+     * This method tests the pool stats of the wrapped request maker.
+     */
+    @Test
+    void testGetPoolStats() {
+        ConnectionPoolStats stats = new ConnectionPoolStats(0, 0, 1, 2);
+        when(delegate.getPoolStats()).thenReturn(stats);
+
+        assertEquals(stats, new DrainingRequestMaker(delegate, 0, true)
+                .getPoolStats());
+    }
+
+    /**
+     * This method tests that the transfer stats and the compression
+     * setting are forwarded to the wrapped request maker.
+     */
+    @Test
+    void testTransferStats() {
+        TransferStats stats = new TransferStats(1, 1, 2, 2);
+        when(delegate.getTransferStats()).thenReturn(stats);
+        DrainingRequestMaker requestMaker =
+                new DrainingRequestMaker(delegate, 0, true);
+
+        assertEquals(stats, requestMaker.getTransferStats());
+        requestMaker.setCompression(false);
+        verify(delegate).setCompression(false);
+    }
+
+    /**
+     * This method tests that connections are opened by the wrapped request
+     * maker.
+     */
+    @Test
+    void testOpenConnections() throws Exception {
+        String url = "http://dummyurl.com";
+        when(delegate.openConnections(url, 2)).thenReturn(1);
+
+        assertEquals(1, new DrainingRequestMaker(delegate, 0, true)
+                .openConnections(url, 2));
+    }
+
+    /**
+     * This method tests that calls are rejected after close and that the
+     * wrapped request maker is closed.
+     */
+    @Test
+    void testClose() throws IOException {
+        DrainingRequestMaker requestMaker =
+                new DrainingRequestMaker(delegate, DRAIN_TIMEOUT, true);
+
+        assertFalse(requestMaker.isClosed());
+        requestMaker.close();
+        assertTrue(requestMaker.isClosed());
+        verify(delegate).close();
+
+        assertThrows(OutsetaAPIFailedException.class, () ->
+                requestMaker.get(URL, params, headers));
+    }
+
+    /**
+     * This method tests that the wrapped request maker is not closed if it
+     * is not owned.
+     */
+    @Test
+    void testCloseNotOwned() throws IOException {
+        DrainingRequestMaker requestMaker =
+                new DrainingRequestMaker(delegate, DRAIN_TIMEOUT, false);
+
+        assertTrue(requestMaker.drainAndClose());
+        verify(delegate, never()).close();
+    }
+
+    /**
+     * This method tests that close waits for calls in flight.
+     */
+    @Test
+    void testDrain() throws Exception {
+        DrainingRequestMaker requestMaker =
+                new DrainingRequestMaker(delegate, DRAIN_TIMEOUT, true);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.get(URL, params, headers)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "done";
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> call = executor.submit(() ->
+                    requestMaker.get(URL, params, headers));
+            assertTrue(started.await(WAIT, TimeUnit.SECONDS));
+            assertEquals(1, requestMaker.getInFlight());
+
+            Future<Boolean> closing = executor.submit(
+                    requestMaker::drainAndClose);
+
+            // The call is still running, so the pool is not released yet
+            assertFalse(closing.isDone());
+            release.countDown();
+
+            assertEquals("done", call.get(WAIT, TimeUnit.SECONDS));
+            assertTrue(closing.get(WAIT, TimeUnit.SECONDS));
+            verify(delegate).close();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * This method tests that an asynchronous call counts as in flight until
+     * its future is done, that close waits for it, and that asynchronous
+     * calls are rejected after close.
+     */
+    @Test
+    void testAsync() throws Exception {
+        AsyncRequestMaker async = mock(AsyncRequestMaker.class);
+        DrainingRequestMaker requestMaker =
+                new DrainingRequestMaker(async, DRAIN_TIMEOUT, true);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        when(async.postAsync(URL, params, "body", headers))
+                .thenReturn(pending);
+
+        CompletableFuture<String> call = requestMaker.postAsync(URL, params,
+                "body", headers);
+        assertEquals(1, requestMaker.getInFlight());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> closing = executor.submit(
+                    requestMaker::drainAndClose);
+            assertFalse(closing.isDone());
+            pending.complete("created");
+
+            assertEquals("created", call.get());
+            assertTrue(closing.get(WAIT, TimeUnit.SECONDS));
+            assertEquals(0, requestMaker.getInFlight());
+            verify(async).close();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertInstanceOf(OutsetaAPIFailedException.class, assertThrows(
+                ExecutionException.class, () -> requestMaker.getAsync(URL,
+                        params, headers).get()).getCause());
+        assertEquals(0, requestMaker.getInFlight());
+    }
+
+    /**
+     * This method tests that close gives up after the drain timeout.
+     */
+    @Test
+    void testDrainTimeout() throws Exception {
+        DrainingRequestMaker requestMaker =
+                new DrainingRequestMaker(delegate, 1, true);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.get(URL, params, headers)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "done";
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> requestMaker.get(URL, params, headers));
+            assertTrue(started.await(WAIT, TimeUnit.SECONDS));
+
+            assertFalse(requestMaker.drainAndClose());
+            verify(delegate).close();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * This method tests that a request maker without a pool has no stats.
+     */
+    @Test
+    void testGetPoolStatsWithoutPool() {
+        RequestMaker plain = mock(RequestMaker.class);
+        DrainingRequestMaker requestMaker =
+                new DrainingRequestMaker(plain, 0, true);
+
+        assertNull(requestMaker.getPoolStats());
+        assertNull(requestMaker.getTransferStats());
+        assertDoesNotThrow(() -> requestMaker.setCompression(true));
+        assertDoesNotThrow(() -> assertEquals(0,
+                requestMaker.openConnections("http://dummyurl.com", 1)));
+        assertDoesNotThrow(requestMaker::close);
+    }
+
+    /**
+     * This method tests that a streamed body counts as in flight until it
+     * is closed, and that a request maker that cannot stream hands its body
+     * over as a stream.
+     */
+    @Test
+    void testStream() throws Exception {
+        StreamingRequestMaker streaming = mock(StreamingRequestMaker.class);
+        DrainingRequestMaker requestMaker =
+                new DrainingRequestMaker(streaming, DRAIN_TIMEOUT, false);
+        Closeable response = mock(Closeable.class);
+        when(streaming.getStream(URL, params, headers)).thenReturn(
+                new ResponseStream(new ByteArrayInputStream(new byte[1]),
+                        response));
+
+        ResponseStream stream = requestMaker.getStream(URL, params, headers);
+        assertEquals(1, requestMaker.getInFlight());
+        stream.close();
+        stream.close();
+        assertEquals(0, requestMaker.getInFlight());
+        verify(response, times(2)).close();
+
+        DrainingRequestMaker buffered =
+                new DrainingRequestMaker(delegate, DRAIN_TIMEOUT, false);
+        when(delegate.get(URL, params, headers)).thenReturn("body");
+        try (ResponseStream body = buffered.getStream(URL, params, headers)) {
+            assertEquals('b', body.getBody().read());
+            assertEquals(0, buffered.getInFlight());
+        }
+        assertNull(RequestMakerDecorator.innermost(null));
+        assertSame(delegate, RequestMakerDecorator.innermost(buffered));
+    }
+}
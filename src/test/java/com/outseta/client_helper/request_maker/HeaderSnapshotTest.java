@@ -0,0 +1,102 @@
+package com.outseta.client_helper.request_maker;
+
+import org.apache.http.Header;
+import org.apache.http.client.methods.HttpGet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * This class tests the HeaderSnapshot class.
+ */
+class HeaderSnapshotTest {
+
+    /**
+     * This method creates the headers used for testing.
+     * @return The headers.
+     */
+    private static Map<String, String> headers() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept", "application/json");
+        headers.put("Authorization", "old");
+        return headers;
+    }
+
+    /**
+     * This method tests that a snapshot is a copy that cannot be changed
+     * and that is equal to the map it was made from.
+     */
+    @Test
+    void testOf() {
+        Map<String, String> headers = headers();
+        HeaderSnapshot snapshot = HeaderSnapshot.of(headers);
+
+        headers.put("Authorization", "changed");
+        assertEquals("old", snapshot.get("Authorization"));
+        assertEquals(headers(), snapshot);
+        assertEquals(snapshot, headers());
+        assertEquals(headers().hashCode(), snapshot.hashCode());
+        assertSame(snapshot, HeaderSnapshot.of(snapshot));
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.put("Authorization", "other"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.remove("Authorization"));
+        assertThrows(UnsupportedOperationException.class, snapshot::clear);
+    }
+
+    /**
+     * This method tests that headers are added, replaced and removed in new
+     * snapshots only.
+     */
+    @Test
+    void testWithAndWithout() {
+        HeaderSnapshot snapshot = HeaderSnapshot.of(headers());
+
+        HeaderSnapshot rotated = snapshot.with(
+                Collections.singletonMap("Authorization", "new"));
+        assertEquals("new", rotated.get("Authorization"));
+        assertEquals("old", snapshot.get("Authorization"));
+        assertEquals(2, rotated.size());
+
+        HeaderSnapshot removed = rotated.without("Authorization");
+        assertFalse(removed.containsKey("Authorization"));
+        assertEquals(1, removed.size());
+        assertSame(removed, removed.without("Authorization"));
+        assertEquals(0, HeaderSnapshot.EMPTY.size());
+    }
+
+    /**
+     * This method tests that the prebuilt headers are added to a request
+     * and shared by every request.
+     */
+    @Test
+    void testAddHeaders() {
+        HeaderSnapshot snapshot = HeaderSnapshot.of(headers());
+        HttpGet first = new HttpGet("http://dummyurl.com");
+        HttpGet second = new HttpGet("http://dummyurl.com");
+
+        RequestMakerHttpClient.addHeaders(first, snapshot);
+        RequestMakerHttpClient.addHeaders(second, snapshot);
+        assertEquals("old", first.getFirstHeader("Authorization").getValue());
+        for (Header header : snapshot.getHttpHeaders()) {
+            assertSame(header, first.getFirstHeader(header.getName()));
+            assertSame(header, second.getFirstHeader(header.getName()));
+        }
+
+        // Any other map is still converted header by header
+        HttpGet plain = new HttpGet("http://dummyurl.com");
+        RequestMakerHttpClient.addHeaders(plain, headers());
+        assertEquals("old", plain.getFirstHeader("Authorization").getValue());
+        RequestMakerHttpClient.addHeaders(plain, null);
+        assertNull(plain.getFirstHeader("Content-Type"));
+    }
+}
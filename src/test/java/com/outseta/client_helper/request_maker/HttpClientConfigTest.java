@@ -0,0 +1,157 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.OutsetaClientBuildException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the HttpClientConfig class.
+ */
+class HttpClientConfigTest {
+
+    /**
+     * A custom pool size used for testing.
+     */
+    private static final int POOL_SIZE = 8;
+
+    /**
+     * A custom timeout used for testing.
+     */
+    private static final int TIMEOUT = 1_500;
+
+    /**
+     * A success response code, which cannot be expected.
+     */
+    private static final int OK = 200;
+
+    /**
+     * The not found response code.
+     */
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * The conflict response code.
+     */
+    private static final int CONFLICT = 409;
+
+    /**
+     * This method tests the default values of the builder.
+     */
+    @Test
+    void testDefaults() throws OutsetaClientBuildException {
+        HttpClientConfig config = HttpClientConfig.builder().build();
+
+        assertEquals(HttpClientConfig.DEFAULT_MAX_TOTAL, config.getMaxTotal());
+        assertEquals(HttpClientConfig.DEFAULT_MAX_PER_ROUTE,
+                config.getMaxPerRoute());
+        assertEquals(HttpClientConfig.DEFAULT_CONNECT_TIMEOUT,
+                config.getConnectTimeout());
+        assertEquals(HttpClientConfig.DEFAULT_SOCKET_TIMEOUT,
+                config.getSocketTimeout());
+        assertEquals(HttpClientConfig.DEFAULT_CONNECTION_REQUEST_TIMEOUT,
+                config.getConnectionRequestTimeout());
+        assertEquals(HttpClientConfig.DEFAULT_KEEP_ALIVE,
+                config.getKeepAlive());
+        assertEquals(HttpClientConfig.DEFAULT_MAX_IDLE_TIME,
+                config.getMaxIdleTime());
+        assertEquals(HttpClientConfig.DEFAULT_VALIDATE_AFTER_INACTIVITY,
+                config.getValidateAfterInactivity());
+        assertEquals(HttpClientConfig.DEFAULT_IO_THREAD_COUNT,
+                config.getIoThreadCount());
+        assertTrue(config.isEvictExpiredConnections());
+        assertTrue(config.isCompression());
+        assertTrue(config.getExpectedStatusCodes().isEmpty());
+    }
+
+    /**
+     * This method tests setting all values of the builder.
+     */
+    @Test
+    void testBuilder() throws OutsetaClientBuildException {
+        HttpClientConfig config = HttpClientConfig.builder()
+                .maxTotal(POOL_SIZE)
+                .maxPerRoute(POOL_SIZE)
+                .connectTimeout(TIMEOUT)
+                .socketTimeout(TIMEOUT)
+                .connectionRequestTimeout(TIMEOUT)
+                .keepAlive(TIMEOUT)
+                .maxIdleTime(TIMEOUT)
+                .validateAfterInactivity(TIMEOUT)
+                .evictExpiredConnections(false)
+                .ioThreadCount(2)
+                .compression(false)
+                .expectedStatusCodes(NOT_FOUND, CONFLICT, NOT_FOUND)
+                .build();
+
+        assertEquals(POOL_SIZE, config.getMaxTotal());
+        assertEquals(POOL_SIZE, config.getMaxPerRoute());
+        assertEquals(TIMEOUT, config.getConnectTimeout());
+        assertEquals(TIMEOUT, config.getSocketTimeout());
+        assertEquals(TIMEOUT, config.getConnectionRequestTimeout());
+        assertEquals(TIMEOUT, config.getKeepAlive());
+        assertEquals(TIMEOUT, config.getMaxIdleTime());
+        assertEquals(TIMEOUT, config.getValidateAfterInactivity());
+        assertEquals(2, config.getIoThreadCount());
+        assertFalse(config.isEvictExpiredConnections());
+        assertFalse(config.isCompression());
+        assertEquals(new TreeSet<>(Arrays.asList(NOT_FOUND, CONFLICT)),
+                config.getExpectedStatusCodes());
+    }
+
+    /**
+     * This method tests the failure scenarios of the builder.
+     */
+    @Test
+    void testBuilderFailure() {
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HttpClientConfig.builder().maxTotal(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HttpClientConfig.builder().maxPerRoute(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HttpClientConfig.builder().maxTotal(POOL_SIZE)
+                        .maxPerRoute(POOL_SIZE + 1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HttpClientConfig.builder().connectTimeout(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HttpClientConfig.builder().socketTimeout(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HttpClientConfig.builder().connectionRequestTimeout(-1)
+                        .build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HttpClientConfig.builder().keepAlive(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HttpClientConfig.builder().maxIdleTime(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HttpClientConfig.builder().validateAfterInactivity(-1)
+                        .build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HttpClientConfig.builder().ioThreadCount(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                HttpClientConfig.builder().expectedStatusCodes(OK).build());
+    }
+
+    /**
+     * This method tests that changing the builder after a build does not
+     * change the config built before.
+     */
+    @Test
+    void testBuildCopies() throws OutsetaClientBuildException {
+        HttpClientConfig.Builder builder = HttpClientConfig.builder()
+                .maxTotal(POOL_SIZE).maxPerRoute(1);
+        HttpClientConfig first = builder.build();
+        HttpClientConfig second = builder.maxTotal(POOL_SIZE + 1)
+                .compression(false).build();
+
+        assertEquals(POOL_SIZE, first.getMaxTotal());
+        assertTrue(first.isCompression());
+        assertEquals(POOL_SIZE + 1, second.getMaxTotal());
+        assertFalse(second.isCompression());
+    }
+}
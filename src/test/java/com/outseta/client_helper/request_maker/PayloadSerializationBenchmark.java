@@ -0,0 +1,154 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.client_helper.parser.json.jackson.JsonParserJackson;
+import com.outseta.model.result.Person;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class compares writing a request payload through a string with
+ * writing it straight to UTF-8 bytes.
+ * <p>
+ *     It is excluded from the normal build and can be run with
+ *     {@code gradle benchmark}. For both paths it prints the writes per
+ *     second and the bytes allocated per write call, from the model to the
+ *     bytes written to the connection.
+ * </p>
+ */
+@Tag("benchmark")
+class PayloadSerializationBenchmark {
+
+    /**
+     * The number of writes made before measuring.
+     */
+    private static final int WARM_UP = 50_000;
+
+    /**
+     * The number of writes made while measuring.
+     */
+    private static final int ITERATIONS = 200_000;
+
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * This interface is implemented by the write paths under test.
+     */
+    private interface PayloadWriter {
+
+        /**
+         * This method writes a model as the entity of a request.
+         * @param person The model.
+         * @return The entity.
+         * @throws Exception If the model cannot be written.
+         */
+        HttpEntity write(Person person) throws Exception;
+    }
+
+    /**
+     * This method runs the benchmark for a person payload.
+     */
+    @Test
+    void benchmarkPersonPayload() throws Exception {
+        JsonParserJackson parser = new JsonParserJackson();
+        Person person = person();
+
+        PayloadWriter string = model -> new StringEntity(
+                parser.objectToJsonString(model), StandardCharsets.UTF_8);
+        PayloadWriter bytes = model -> new ByteArrayEntity(
+                parser.objectToJsonBytes(model), ContentType.APPLICATION_JSON);
+
+        long expected = parser.objectToJsonBytes(person).length;
+        measure("string", string, person, expected);
+        measure("bytes", bytes, person, expected);
+    }
+
+    /**
+     * This method measures the throughput and the allocations of a write
+     * path. The entity is written to a stream that drops its input, like
+     * the connection would.
+     * @param name The name printed with the result.
+     * @param writer The write path to measure.
+     * @param person The model.
+     * @param expected The length of the json.
+     * @throws Exception If the model cannot be written.
+     */
+    private static void measure(final String name, final PayloadWriter writer,
+                                final Person person, final long expected)
+            throws Exception {
+
+        CountingOutputStream connection = new CountingOutputStream();
+        for (int i = 0; i < WARM_UP; i++) {
+            writer.write(person).writeTo(connection);
+        }
+        assertEquals(expected * WARM_UP, connection.count);
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)
+                        ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            writer.write(person).writeTo(connection);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId)
+                - allocatedBefore;
+
+        System.out.printf("%-20s %,12.0f writes/s %,10d bytes/write%n", name,
+                ITERATIONS * NANOS_PER_SECOND / elapsed,
+                allocated / ITERATIONS);
+    }
+
+    /**
+     * This method creates the person that is written.
+     * @return The person.
+     */
+    private static Person person() {
+        Person person = new Person();
+        person.setEmail("ren\u00e9e.dupont@example.com");
+        person.setFirstName("Ren\u00e9e");
+        person.setLastName("Dupont");
+        person.setPhoneMobile("555-0100");
+        person.setPhoneWork("555-0101");
+        person.setTitle("Head of Operations");
+        person.setTimezone("Europe/Paris");
+        person.setLanguage("fr");
+        return person;
+    }
+
+    /**
+     * This class counts the bytes written to it and drops them.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        /**
+         * The number of bytes written.
+         */
+        private long count;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+}
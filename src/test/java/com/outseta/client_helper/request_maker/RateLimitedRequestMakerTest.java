@@ -0,0 +1,201 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaDeadlineExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the RateLimitedRequestMaker class.
+ */
+@ExtendWith(MockitoExtension.class)
+class RateLimitedRequestMakerTest {
+
+    /**
+     * The url used for testing.
+     */
+    private static final String URL = "https://dummy.com/crm/people";
+
+    /**
+     * The rate used for testing. It hands out a permit every 100 ms.
+     */
+    private static final double RATE = 10d;
+
+    /**
+     * The request maker that is wrapped.
+     */
+    @Mock
+    private RequestMaker delegate;
+
+    /**
+     * The parameters used for testing.
+     */
+    private Map<String, Object> params;
+
+    /**
+     * The headers used for testing.
+     */
+    private Map<String, String> headers;
+
+    /**
+     * The fake clock in nanoseconds. It moves forward while sleeping.
+     */
+    private AtomicLong now;
+
+    /**
+     * Sets up the test data.
+     */
+    @BeforeEach
+    void setUp() {
+        this.params = new HashMap<>();
+        this.headers = new HashMap<>();
+        this.now = new AtomicLong();
+    }
+
+    /**
+     * This method tests that every call takes a permit before it is sent.
+     */
+    @Test
+    void testAcquire() throws Exception {
+        RateLimiter limiter = new RateLimiter(RATE, 1, now::get,
+                now::addAndGet);
+        RateLimitedRequestMaker requestMaker =
+                new RateLimitedRequestMaker(delegate, limiter);
+        when(delegate.get(URL, params, headers)).thenReturn("ok");
+        when(delegate.post(URL, params, "{}", headers)).thenReturn("ok");
+
+        assertEquals("ok", requestMaker.get(URL, params, headers));
+        assertEquals("ok", requestMaker.post(URL, params, "{}", headers));
+        assertEquals(1, limiter.getThrottled());
+        assertSame(limiter, requestMaker.getLimiter());
+        assertEquals(RateLimitedRequestMaker.WAIT_FOREVER,
+                requestMaker.getMaxWait());
+    }
+
+    /**
+     * This method tests that a call fails without being sent if no permit
+     * is free within the maximum wait.
+     */
+    @Test
+    void testMaxWait() throws Exception {
+        RateLimiter limiter = new RateLimiter(RATE, 1, now::get,
+                now::addAndGet);
+        final long maxWait = 10L;
+        RateLimitedRequestMaker requestMaker =
+                new RateLimitedRequestMaker(delegate, limiter, maxWait);
+        when(delegate.get(URL, params, headers)).thenReturn("ok");
+
+        assertEquals("ok", requestMaker.get(URL, params, headers));
+        assertThrows(OutsetaAPIFailedException.class, () ->
+                requestMaker.delete(URL, params, headers));
+        verify(delegate, never()).delete(any(), any(), any());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    /**
+     * This method tests that an interrupted wait fails the call and keeps
+     * the interrupt flag.
+     */
+    @Test
+    void testInterrupted() throws Exception {
+        RateLimiter limiter = new RateLimiter(RATE, 1, now::get, nanos -> {
+            throw new InterruptedException();
+        });
+        RateLimitedRequestMaker requestMaker =
+                new RateLimitedRequestMaker(delegate, limiter);
+        when(delegate.get(URL, params, headers)).thenReturn("ok");
+        requestMaker.get(URL, params, headers);
+
+        try {
+            OutsetaAPIFailedException e = assertThrows(
+                    OutsetaAPIFailedException.class, () ->
+                            requestMaker.get(URL, params, headers));
+            assertInstanceOf(InterruptedException.class,
+                    e.getTriggeredBy());
+        } finally {
+            // Clearing the interrupt flag for the following tests
+            assertTrue(Thread.interrupted());
+        }
+        verify(delegate).get(URL, params, headers);
+    }
+
+    /**
+     * This method tests that a call fails right away instead of waiting
+     * for a permit that is only free after its deadline.
+     */
+    @Test
+    void testDeadline() throws Exception {
+        RateLimiter limiter = new RateLimiter(RATE, 1, now::get,
+                now::addAndGet);
+        RateLimitedRequestMaker requestMaker =
+                new RateLimitedRequestMaker(delegate, limiter);
+        when(delegate.get(URL, params, headers)).thenReturn("ok");
+        requestMaker.get(URL, params, headers);
+
+        final long budget = 50L;
+        try (Deadline.Scope scope = Deadline.after(budget,
+                TimeUnit.MILLISECONDS).enter()) {
+            assertThrows(OutsetaDeadlineExceededException.class, () ->
+                    requestMaker.get(URL, params, headers));
+        }
+        verify(delegate).get(URL, params, headers);
+        assertEquals(0, limiter.getThrottled());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    /**
+     * This method tests that asynchronous calls take a permit without
+     * blocking, are sent once it is due, and fail without being sent if
+     * no permit is free within the maximum wait.
+     */
+    @Test
+    void testAsync() throws Exception {
+        AsyncRequestMaker async = mock(AsyncRequestMaker.class);
+        RateLimiter limiter = new RateLimiter(RATE, 1, now::get,
+                now::addAndGet);
+        RateLimitedRequestMaker requestMaker =
+                new RateLimitedRequestMaker(async, limiter);
+        when(async.getAsync(URL, params, headers))
+                .thenReturn(CompletableFuture.completedFuture("ok"));
+
+        assertEquals("ok", requestMaker.getAsync(URL, params, headers).get());
+        assertEquals("ok", requestMaker.getAsync(URL, params, headers).get());
+        assertEquals(1, limiter.getThrottled());
+
+        final long maxWait = 10L;
+        RateLimitedRequestMaker bounded =
+                new RateLimitedRequestMaker(async, limiter, maxWait);
+        assertInstanceOf(OutsetaAPIFailedException.class, assertThrows(
+                ExecutionException.class, () -> bounded.deleteAsync(URL,
+                        params, headers).get()).getCause());
+        verify(async, never()).deleteAsync(any(), any(), any());
+        assertEquals(1, limiter.getRejected());
+
+        // A blocking request maker cannot make asynchronous calls
+        assertInstanceOf(OutsetaAPIFailedException.class, assertThrows(
+                ExecutionException.class, () -> new RateLimitedRequestMaker(
+                        delegate, limiter).getAsync(URL, params, headers)
+                        .get()).getCause());
+    }
+}
@@ -0,0 +1,204 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.OutsetaClientBuildException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the RateLimiter class.
+ */
+class RateLimiterTest {
+
+    /**
+     * The rate used for testing. It hands out a permit every 100 ms.
+     */
+    private static final double RATE = 10d;
+
+    /**
+     * The time between two permits in nanoseconds.
+     */
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * The fake clock in nanoseconds. It moves forward while sleeping.
+     */
+    private AtomicLong now;
+
+    /**
+     * The waits made for permits.
+     */
+    private List<Long> sleeps;
+
+    /**
+     * Sets up the fake clock.
+     */
+    @BeforeEach
+    void setUp() {
+        this.now = new AtomicLong();
+        this.sleeps = new ArrayList<>();
+    }
+
+    /**
+     * This method creates a limiter that waits on the fake clock.
+     * @param burst The number of permits an idle limiter hands out at once.
+     * @return The limiter.
+     */
+    private RateLimiter limiter(final int burst) {
+        return new RateLimiter(RATE, burst, now::get, nanos -> {
+            sleeps.add(nanos);
+            now.addAndGet(nanos);
+        });
+    }
+
+    /**
+     * This method tests that permits are spread evenly over time.
+     */
+    @Test
+    void testEvenSpacing() throws InterruptedException {
+        RateLimiter limiter = limiter(1);
+
+        final int permits = 5;
+        for (int i = 0; i < permits; i++) {
+            limiter.acquire();
+        }
+
+        // The first permit is free and every later one is one interval
+        // after the one before it
+        assertEquals(permits - 1, sleeps.size());
+        for (long sleep : sleeps) {
+            assertEquals(INTERVAL, sleep);
+        }
+        assertEquals(permits - 1, limiter.getThrottled());
+        assertEquals(TimeUnit.NANOSECONDS.toMillis(
+                (permits - 1) * INTERVAL), limiter.getThrottledTime());
+    }
+
+    /**
+     * This method tests that an idle limiter hands out its burst at once
+     * and never saves more than that.
+     */
+    @Test
+    void testBurst() throws InterruptedException {
+        final int burst = 3;
+        RateLimiter limiter = limiter(burst);
+
+        // A long idle time does not save more than the burst
+        now.addAndGet(INTERVAL * burst * burst);
+        for (int i = 0; i < burst; i++) {
+            limiter.acquire();
+        }
+        assertTrue(sleeps.isEmpty());
+
+        limiter.acquire();
+        assertEquals(1, sleeps.size());
+        assertEquals(INTERVAL, sleeps.get(0));
+    }
+
+    /**
+     * This method tests that tryAcquire only takes a permit that is free
+     * within the timeout and does not wait otherwise.
+     */
+    @Test
+    void testTryAcquire() throws InterruptedException {
+        RateLimiter limiter = limiter(1);
+
+        assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+        final long shortWait = 50L;
+        assertFalse(limiter.tryAcquire(shortWait, TimeUnit.MILLISECONDS));
+        assertTrue(sleeps.isEmpty());
+        assertEquals(1, limiter.getRejected());
+
+        // The rejected call did not take a permit
+        final long longWait = 100L;
+        assertTrue(limiter.tryAcquire(longWait, TimeUnit.MILLISECONDS));
+        assertEquals(INTERVAL, sleeps.get(0));
+    }
+
+    /**
+     * This method tests that waiting threads sleep and are handed their
+     * permits one after another on the real clock.
+     */
+    @Test
+    void testConcurrentCallers() throws Exception {
+        final double fastRate = 200d;
+        RateLimiter limiter = RateLimiter.builder(fastRate).build();
+        assertEquals(fastRate, limiter.getPermitsPerSecond());
+        assertEquals(RateLimiter.DEFAULT_BURST, limiter.getBurst());
+
+        final int threads = 4;
+        final int permits = 5;
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    for (int j = 0; j < permits; j++) {
+                        limiter.acquire();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        final long wait = 10L;
+        assertTrue(done.await(wait, TimeUnit.SECONDS));
+
+        // 20 permits at 200 per second cannot take less than 95 ms
+        long elapsed = System.nanoTime() - start;
+        long minimum = (long) ((threads * permits - 1)
+                * (TimeUnit.SECONDS.toNanos(1) / fastRate));
+        assertTrue(elapsed >= minimum);
+        assertTrue(limiter.getThrottled() > 0);
+    }
+
+    /**
+     * This method tests that clients with the same credentials share a
+     * limiter, and that asking for another rate fails.
+     */
+    @Test
+    void testShared() throws OutsetaClientBuildException {
+        RateLimiter first = RateLimiter.shared("https://shared.test",
+                "key", RATE, 1);
+        assertSame(first, RateLimiter.shared("https://shared.test", "key",
+                RATE, 1));
+        assertThrows(OutsetaClientBuildException.class, () ->
+                RateLimiter.shared("https://shared.test", "key", RATE + 1,
+                        1));
+        assertThrows(OutsetaClientBuildException.class, () ->
+                RateLimiter.shared("https://shared.test", "key", RATE, 2));
+        assertNotSame(first, RateLimiter.shared("https://shared.test",
+                "other", RATE, 1));
+        assertNotSame(first, RateLimiter.shared("https://other.test",
+                "key", RATE, 1));
+    }
+
+    /**
+     * This method tests that invalid settings are rejected.
+     */
+    @Test
+    void testBuilderFailure() {
+        assertThrows(OutsetaClientBuildException.class, () ->
+                RateLimiter.builder(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                RateLimiter.builder(Double.NaN).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                RateLimiter.builder(RATE).burst(0).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                RateLimiter.shared("https://shared.test", "key", -1, 1));
+    }
+}
@@ -7,7 +7,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.outseta.constant.RequestMakerType;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * This class is used to test the RequestMakerFactory class.
@@ -30,5 +32,54 @@ public class RequestMakerFactoryTest {
         assertThrows(OutsetaInvalidRequestMakerException.class, () ->
                 RequestMakerFactory.getRequestMaker(RequestMakerType.INVALID));
 
+        assertDoesNotThrow(() -> {
+            RequestMaker requestMaker = RequestMakerFactory
+                    .getRequestMaker(RequestMakerType.POOLED_HTTP_CLIENT);
+            assertTrue(requestMaker instanceof PooledRequestMaker);
+            ((PooledRequestMaker) requestMaker).close();
+        });
+
+        assertDoesNotThrow(() -> {
+            RequestMaker requestMaker = RequestMakerFactory
+                    .getRequestMaker(RequestMakerType.ASYNC_HTTP_CLIENT);
+            assertTrue(requestMaker instanceof AsyncRequestMaker);
+            ((AsyncRequestMaker) requestMaker).close();
+        });
+    }
+
+    /**
+     * This method tests the RequestMakerFactory's pooled factory method.
+     */
+    @Test
+    public void testPooledFactory() {
+
+        assertDoesNotThrow(() -> {
+            PooledRequestMaker requestMaker = RequestMakerFactory
+                    .getPooledRequestMaker(HttpClientConfig.builder()
+                            .build());
+            assertNotNull(requestMaker.getPoolStats());
+            requestMaker.close();
+        });
+
+        assertThrows(OutsetaInvalidRequestMakerException.class, () ->
+                RequestMakerFactory.getPooledRequestMaker(null));
+    }
+
+    /**
+     * This method tests the RequestMakerFactory's async factory method.
+     */
+    @Test
+    public void testAsyncFactory() {
+
+        assertDoesNotThrow(() -> {
+            AsyncRequestMaker requestMaker = RequestMakerFactory
+                    .getAsyncRequestMaker(HttpClientConfig.builder()
+                            .build());
+            assertTrue(requestMaker instanceof PooledRequestMaker);
+            requestMaker.close();
+        });
+
+        assertThrows(OutsetaInvalidRequestMakerException.class, () ->
+                RequestMakerFactory.getAsyncRequestMaker(null));
     }
 }
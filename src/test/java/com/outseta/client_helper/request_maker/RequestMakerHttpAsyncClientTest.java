@@ -0,0 +1,442 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.OutsetaInvalidURLException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaDeadlineExceededException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.pool.PoolStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the RequestMakerHttpAsyncClient class.
+ */
+@ExtendWith(MockitoExtension.class)
+class RequestMakerHttpAsyncClientTest {
+
+    /**
+     * The url used for testing.
+     */
+    private static final String URL = "https://dummy.com/crm/people";
+
+    /**
+     * Valid response code for the tests.
+     */
+    private static final int SUCCESS_CODE = 200;
+
+    /**
+     * Invalid response code for the tests.
+     */
+    private static final int FAILURE_CODE = 404;
+
+    /**
+     * The pool size used for the tests.
+     */
+    private static final int POOL_SIZE = 4;
+
+    /**
+     * The mocked HttpAsyncClient.
+     */
+    @Mock
+    private CloseableHttpAsyncClient httpClient;
+
+    /**
+     * The future returned by the mocked HttpAsyncClient.
+     */
+    @Mock
+    private Future<HttpResponse> exchange;
+
+    /**
+     * The callback passed to the mocked HttpAsyncClient.
+     */
+    private FutureCallback<HttpResponse> callback;
+
+    /**
+     * The request passed to the mocked HttpAsyncClient.
+     */
+    private HttpUriRequest request;
+
+    /**
+     * The request maker under test.
+     */
+    private RequestMakerHttpAsyncClient requestMaker;
+
+    /**
+     * The parameters used for testing.
+     */
+    private Map<String, Object> params;
+
+    /**
+     * The headers used for testing.
+     */
+    private Map<String, String> headers;
+
+    /**
+     * Sets up the request maker.
+     */
+    @BeforeEach
+    void setUp() {
+        this.requestMaker = new RequestMakerHttpAsyncClient(httpClient, null);
+        verify(httpClient).start();
+
+        this.params = new HashMap<>();
+        this.params.put("limit", 1);
+        this.headers = new HashMap<>();
+        this.headers.put("Authorization", "key");
+    }
+
+    /**
+     * This method captures the requests sent by the request maker so that
+     * the test can complete them.
+     */
+    @SuppressWarnings("unchecked")
+    private void captureRequests() {
+        when(httpClient.execute(any(HttpUriRequest.class),
+                any(FutureCallback.class))).thenAnswer(invocation -> {
+                    this.request = invocation.getArgument(0);
+                    this.callback = invocation.getArgument(1);
+                    return exchange;
+                });
+    }
+
+    /**
+     * This method answers every request with the given response.
+     * @param code The status code of the response.
+     * @param body The body of the response.
+     */
+    @SuppressWarnings("unchecked")
+    private void answerWith(final int code, final String body) {
+        when(httpClient.execute(any(HttpUriRequest.class),
+                any(FutureCallback.class))).thenAnswer(invocation -> {
+                    FutureCallback<HttpResponse> cb = invocation.getArgument(1);
+                    cb.completed(response(code, body));
+                    return exchange;
+                });
+    }
+
+    /**
+     * This method creates a response.
+     * @param code The status code of the response.
+     * @param body The body of the response.
+     * @return The response.
+     */
+    private static HttpResponse response(final int code, final String body) {
+        BasicHttpResponse response = new BasicHttpResponse(
+                new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1),
+                        code, ""));
+        response.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
+        return response;
+    }
+
+    /**
+     * This method tests that each async method sends the right request and
+     * completes with the body.
+     */
+    @Test
+    void testAsyncMethods() throws Exception {
+        captureRequests();
+        CompletableFuture<String> get =
+                requestMaker.getAsync(URL, params, headers);
+        assertFalse(get.isDone());
+        assertInstanceOf(HttpGet.class, request);
+        assertEquals(URL + "?limit=1", request.getURI().toString());
+        assertEquals("key",
+                request.getFirstHeader("Authorization").getValue());
+        callback.completed(response(SUCCESS_CODE, "get"));
+        assertEquals("get", get.get());
+
+        CompletableFuture<String> put =
+                requestMaker.putAsync(URL, params, "body", headers);
+        assertInstanceOf(HttpPut.class, request);
+        callback.completed(response(SUCCESS_CODE, "put"));
+        assertEquals("put", put.get());
+
+        CompletableFuture<String> post =
+                requestMaker.postAsync(URL, params, "body", headers);
+        assertInstanceOf(HttpPost.class, request);
+        callback.completed(response(SUCCESS_CODE, "post"));
+        assertEquals("post", post.get());
+
+        CompletableFuture<String> delete =
+                requestMaker.deleteAsync(URL, params, headers);
+        assertInstanceOf(HttpDelete.class, request);
+        callback.completed(response(SUCCESS_CODE, "delete"));
+        assertEquals("delete", delete.get());
+    }
+
+    /**
+     * This method tests that the body is read on a response thread, not
+     * on the I/O thread that received it.
+     */
+    @Test
+    void testReadOnResponseThread() throws Exception {
+        captureRequests();
+        CompletableFuture<String> get =
+                requestMaker.getAsync(URL, params, headers);
+
+        AtomicReference<String> reader = new AtomicReference<>();
+        HttpResponse response = response(SUCCESS_CODE, "");
+        response.setEntity(new StringEntity("get", StandardCharsets.UTF_8) {
+            /**
+             * Records the thread that reads the body.
+             * @return The body.
+             * @throws IOException If the body cannot be read.
+             */
+            @Override
+            public InputStream getContent() throws IOException {
+                reader.set(Thread.currentThread().getName());
+                return super.getContent();
+            }
+        });
+        callback.completed(response);
+
+        assertEquals("get", get.get());
+        assertTrue(reader.get().startsWith("outseta-response-"));
+    }
+
+    /**
+     * This method tests that the blocking methods wait for the result.
+     */
+    @Test
+    void testBlockingMethods() throws Exception {
+        answerWith(SUCCESS_CODE, "done");
+
+        assertEquals("done", requestMaker.get(URL, params, headers));
+        assertEquals("done", requestMaker.put(URL, params, "body", headers));
+        assertEquals("done", requestMaker.post(URL, params, "body", headers));
+        assertEquals("done", requestMaker.delete(URL, params, headers));
+    }
+
+    /**
+     * This method tests the failure scenarios of a request.
+     */
+    @Test
+    void testFailures() {
+        captureRequests();
+        CompletableFuture<String> invalidCode =
+                requestMaker.getAsync(URL, params, headers);
+        callback.completed(response(FAILURE_CODE, "missing"));
+        ExecutionException e = assertThrows(ExecutionException.class,
+                invalidCode::get);
+        assertInstanceOf(OutsetaInvalidResponseCodeException.class,
+                e.getCause());
+        assertEquals(FAILURE_CODE, ((OutsetaInvalidResponseCodeException)
+                e.getCause()).getResponseCode());
+
+        CompletableFuture<String> failed =
+                requestMaker.getAsync(URL, params, headers);
+        callback.failed(new IOException("reset"));
+        assertInstanceOf(OutsetaAPIBadRequestException.class,
+                assertThrows(ExecutionException.class, failed::get)
+                        .getCause());
+
+        CompletableFuture<String> empty =
+                requestMaker.getAsync(URL, params, headers);
+        callback.completed(null);
+        assertInstanceOf(OutsetaAPIUnknownException.class,
+                assertThrows(ExecutionException.class, empty::get)
+                        .getCause());
+
+        assertInstanceOf(OutsetaInvalidURLException.class,
+                assertThrows(ExecutionException.class, () ->
+                        requestMaker.getAsync(null, params, headers).get())
+                        .getCause());
+
+        // The blocking methods throw the cause directly
+        answerWith(FAILURE_CODE, "missing");
+        assertThrows(OutsetaInvalidResponseCodeException.class, () ->
+                requestMaker.get(URL, params, headers));
+        assertThrows(OutsetaInvalidURLException.class, () ->
+                requestMaker.delete(null, params, headers));
+    }
+
+    /**
+     * This method tests that cancelling the future aborts the exchange so
+     * that the connection is released.
+     */
+    @Test
+    void testCancel() {
+        captureRequests();
+        CompletableFuture<String> future =
+                requestMaker.getAsync(URL, params, headers);
+
+        assertTrue(future.cancel(true));
+        verify(exchange).cancel(true);
+        assertTrue(((HttpGet) request).isAborted());
+
+        // A cancelled exchange cancels the future
+        CompletableFuture<String> other =
+                requestMaker.getAsync(URL, params, headers);
+        callback.cancelled();
+        assertTrue(other.isCancelled());
+        assertThrows(OutsetaAPIFailedException.class, () ->
+                AsyncRequestMaker.await(other, URL));
+    }
+
+    /**
+     * This method tests that requests fail once the client is closed.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testClosed() throws IOException {
+        requestMaker.close();
+        verify(httpClient).close();
+
+        when(httpClient.execute(any(HttpUriRequest.class),
+                any(FutureCallback.class))).thenThrow(
+                        new IllegalStateException("Request cannot be "
+                                + "executed; I/O reactor status: STOPPED"));
+        assertThrows(OutsetaAPIFailedException.class, () ->
+                requestMaker.get(URL, params, headers));
+    }
+
+    /**
+     * This method tests that an interrupted wait cancels the request.
+     */
+    @Test
+    void testInterrupted() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        Thread.currentThread().interrupt();
+
+        assertThrows(OutsetaAPIFailedException.class, () ->
+                AsyncRequestMaker.await(future, URL));
+        assertTrue(future.isCancelled());
+
+        // Clearing the interrupt flag for the following tests
+        assertTrue(Thread.interrupted());
+    }
+
+    /**
+     * This method tests the pool statistics.
+     */
+    @Test
+    void testPoolStats() {
+        assertNull(requestMaker.getPoolStats());
+        assertNull(requestMaker.getTransferStats());
+        requestMaker.setCompression(false);
+        assertDoesNotThrow(() -> assertEquals(0,
+                requestMaker.openConnections("http://dummyurl.com", 1)));
+
+        PoolingNHttpClientConnectionManager manager =
+                mock(PoolingNHttpClientConnectionManager.class);
+        when(manager.getTotalStats())
+                .thenReturn(new PoolStats(1, 0, 2, POOL_SIZE));
+        when(httpClient.isRunning()).thenReturn(true);
+
+        RequestMakerHttpAsyncClient pooled =
+                new RequestMakerHttpAsyncClient(httpClient, manager);
+        assertEquals(new ConnectionPoolStats(1, 0, 2, POOL_SIZE),
+                pooled.getPoolStats());
+    }
+
+    /**
+     * This method tests the request maker created from a config.
+     */
+    @Test
+    void testConfig() throws Exception {
+        RequestMakerHttpAsyncClient real = new RequestMakerHttpAsyncClient(
+                HttpClientConfig.builder()
+                        .maxTotal(POOL_SIZE)
+                        .maxPerRoute(POOL_SIZE)
+                        .ioThreadCount(1)
+                        .build());
+        try {
+            assertEquals(POOL_SIZE, real.getPoolStats().getMax());
+            assertEquals(new TransferStats(0, 0, 0, 0),
+                    real.getTransferStats());
+            real.setCompression(false);
+            assertEquals("a+b", real.urlEncodePayloadAttribute("a b"));
+            assertNull(real.urlEncodePayloadAttribute(null));
+        } finally {
+            real.close();
+        }
+    }
+
+    /**
+     * This method tests that the deadline of the call bounds the timeouts
+     * of the request and the wait for its response.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDeadline() throws InterruptedException {
+        captureRequests();
+        final long budget = 5_000L;
+        try (Deadline.Scope scope = Deadline.after(budget,
+                TimeUnit.MILLISECONDS).enter()) {
+            requestMaker.getAsync(URL, params, headers);
+            int socketTimeout = ((HttpRequestBase) request).getConfig()
+                    .getSocketTimeout();
+            assertTrue(socketTimeout > 0 && socketTimeout <= budget);
+
+        }
+
+        // A failure after the deadline is reported as such
+        CompletableFuture<String> late;
+        final long shortBudget = 20L;
+        try (Deadline.Scope scope = Deadline.after(shortBudget,
+                TimeUnit.MILLISECONDS).enter()) {
+            late = requestMaker.getAsync(URL, params, headers);
+        }
+        Thread.sleep(shortBudget * 2);
+        callback.failed(new IOException("Read timed out"));
+        assertInstanceOf(OutsetaDeadlineExceededException.class,
+                assertThrows(ExecutionException.class, late::get)
+                        .getCause());
+
+        // A late call is not sent and a pending one is not waited for
+        try (Deadline.Scope scope = Deadline.after(0,
+                TimeUnit.MILLISECONDS).enter()) {
+            assertThrows(OutsetaDeadlineExceededException.class, () ->
+                    requestMaker.delete(URL, params, headers));
+            CompletableFuture<String> pending = new CompletableFuture<>();
+            assertThrows(OutsetaDeadlineExceededException.class, () ->
+                    AsyncRequestMaker.await(pending, URL));
+            assertTrue(pending.isCancelled());
+        }
+        verify(httpClient, never()).execute(any(HttpDelete.class),
+                any(FutureCallback.class));
+    }
+}
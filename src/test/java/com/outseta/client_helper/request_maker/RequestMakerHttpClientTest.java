@@ -3,38 +3,57 @@ package com.outseta.client_helper.request_maker;
 import com.outseta.exception.OutsetaInvalidURLException;
 import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
 import com.outseta.exception.api_exception.OutsetaAPIUnknownException;
+import com.outseta.exception.api_exception.OutsetaDeadlineExceededException;
 import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import org.apache.http.HttpEntity;
 import org.apache.http.ProtocolVersion;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicHttpResponse;
 import org.apache.http.message.BasicStatusLine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.net.URLEncoder;
+import java.net.SocketTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -69,6 +88,21 @@ class RequestMakerHttpClientTest {
      */
     private static final int FAILURE_CODE_2 = 199;
 
+    /**
+     * The pool size used for the tests.
+     */
+    private static final int POOL_SIZE = 4;
+
+    /**
+     * The keep alive time used for the tests.
+     */
+    private static final long KEEP_ALIVE = 1_000L;
+
+    /**
+     * The keep alive time sent by the server in the tests.
+     */
+    private static final long SERVER_KEEP_ALIVE = 5_000L;
+
     /**
      * Sets up the class data before any tests are run.
      */
@@ -89,6 +123,142 @@ class RequestMakerHttpClientTest {
         });
     }
 
+    /**
+     * A test for the pooled constructor of the class RequestMakerHttpClient.
+     */
+    @Test
+    public void testPooledConstructor() {
+
+        assertDoesNotThrow(() -> {
+            HttpClientConfig config = HttpClientConfig.builder()
+                    .maxTotal(POOL_SIZE)
+                    .maxPerRoute(POOL_SIZE)
+                    .build();
+            RequestMakerHttpClient client = new RequestMakerHttpClient(config);
+
+            ConnectionPoolStats stats = client.getPoolStats();
+            assertEquals(new ConnectionPoolStats(0, 0, 0, POOL_SIZE), stats);
+
+            client.close();
+        });
+
+        // Idle eviction can be turned off
+        assertDoesNotThrow(() -> {
+            HttpClientConfig config = HttpClientConfig.builder()
+                    .maxIdleTime(0)
+                    .evictExpiredConnections(false)
+                    .build();
+            RequestMakerHttpClient client = new RequestMakerHttpClient(config);
+            assertNotNull(client.getPoolStats());
+            client.close();
+        });
+    }
+
+    /**
+     * A test for the pool stats of the default and custom constructors.
+     */
+    @Test
+    public void testGetPoolStats() throws IOException {
+        RequestMakerHttpClient client = new RequestMakerHttpClient();
+        assertNotNull(client.getPoolStats());
+        assertEquals(new TransferStats(0, 0, 0, 0),
+                client.getTransferStats());
+        client.setCompression(false);
+        client.close();
+
+        // The pool is unknown if the http client is provided from outside
+        assertNull(requestMakerHttpClient.getPoolStats());
+        assertNull(requestMakerHttpClient.getTransferStats());
+        requestMakerHttpClient.setCompression(false);
+    }
+
+    /**
+     * A test for opening connections ahead. The server socket accepts the
+     * connections in its backlog, which is all the pool needs.
+     */
+    @Test
+    public void testOpenConnections() throws Exception {
+        HttpClientConfig config = HttpClientConfig.builder()
+                .maxTotal(POOL_SIZE)
+                .maxPerRoute(POOL_SIZE)
+                .build();
+        RequestMakerHttpClient client = new RequestMakerHttpClient(config);
+
+        try (ServerSocket server = new ServerSocket(0, POOL_SIZE * 2,
+                InetAddress.getLoopbackAddress())) {
+            String url = "http://127.0.0.1:" + server.getLocalPort()
+                    + "/api/v1";
+
+            // The number is lowered to what the pool allows
+            assertEquals(POOL_SIZE, client.openConnections(url,
+                    POOL_SIZE * 2));
+            assertEquals(new ConnectionPoolStats(0, 0, POOL_SIZE, POOL_SIZE),
+                    client.getPoolStats());
+
+            // The connections already open are reused
+            assertEquals(2, client.openConnections(url, 2));
+            assertEquals(new ConnectionPoolStats(0, 0, POOL_SIZE, POOL_SIZE),
+                    client.getPoolStats());
+            assertEquals(0, client.openConnections(url, 0));
+        }
+
+        // A host that cannot be reached is skipped
+        int closedPort;
+        try (ServerSocket server = new ServerSocket(0, 1,
+                InetAddress.getLoopbackAddress())) {
+            closedPort = server.getLocalPort();
+        }
+        assertEquals(0, client.openConnections(
+                "http://127.0.0.1:" + closedPort + "/api/v1", 1));
+
+        assertThrows(OutsetaInvalidURLException.class, () ->
+                client.openConnections("/api/v1", 1));
+        client.close();
+
+        // The pool is unknown if the http client is provided from outside
+        assertEquals(0, requestMakerHttpClient.openConnections(
+                "http://dummyurl.com", 1));
+    }
+
+    /**
+     * A test for the close method.
+     */
+    @Test
+    public void testClose() throws IOException {
+        requestMakerHttpClient.close();
+        Mockito.verify(httpClient).close();
+    }
+
+    /**
+     * A test for the keep alive strategy.
+     */
+    @Test
+    public void testKeepAliveStrategy() {
+        BasicHttpResponse response = new BasicHttpResponse(
+                new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1),
+                        SUCCESS_CODE, "OK"));
+
+        // Without a header the configured time is used
+        assertEquals(KEEP_ALIVE, RequestMakerHttpClient
+                .keepAliveStrategy(KEEP_ALIVE)
+                .getKeepAliveDuration(response, null));
+        assertEquals(-1, RequestMakerHttpClient
+                .keepAliveStrategy(0)
+                .getKeepAliveDuration(response, null));
+
+        // The time sent by the server is capped by the configured time
+        response.addHeader("Keep-Alive", "timeout=5");
+        assertEquals(KEEP_ALIVE, RequestMakerHttpClient
+                .keepAliveStrategy(KEEP_ALIVE)
+                .getKeepAliveDuration(response, null));
+        assertEquals(SERVER_KEEP_ALIVE, RequestMakerHttpClient
+                .keepAliveStrategy(SERVER_KEEP_ALIVE * 2)
+                .getKeepAliveDuration(response, null));
+        assertEquals(SERVER_KEEP_ALIVE, RequestMakerHttpClient
+                .keepAliveStrategy(0)
+                .getKeepAliveDuration(response, null));
+    }
+
     /**
      * A test for invalid url in get request.
      */
@@ -1220,4 +1390,323 @@ class RequestMakerHttpClientTest {
                     requestMakerHttpClient.urlEncodePayloadAttribute(value));
         }
     }
+
+    /**
+     * This method tests that the Retry-After header of a failed response is
+     * kept on the exception.
+     */
+    @Test
+    public void testRetryAfter() throws IOException {
+        final int tooManyRequests = 429;
+        CloseableHttpResponse response = Mockito
+                .mock(CloseableHttpResponse.class);
+        when(response.getStatusLine()).thenReturn(new BasicStatusLine(
+                new ProtocolVersion("HTTP", 1, 1), tooManyRequests,
+                "Too Many Requests"));
+        when(response.getEntity()).thenReturn(new StringEntity("slow down",
+                ContentType.TEXT_PLAIN));
+        when(response.getFirstHeader("Retry-After"))
+                .thenReturn(new BasicHeader("Retry-After", "2"));
+        when(httpClient.execute(any(HttpGet.class))).thenReturn(response);
+
+        OutsetaInvalidResponseCodeException e = assertThrows(
+                OutsetaInvalidResponseCodeException.class, () ->
+                        requestMakerHttpClient.get("http://validurl",
+                                new HashMap<>(), new HashMap<>()));
+        assertEquals(tooManyRequests, e.getResponseCode());
+        final long twoSeconds = 2_000L;
+        assertEquals(twoSeconds, e.getRetryAfter());
+    }
+
+    /**
+     * This method tests that the exceptions of the expected response codes
+     * are built without a stack trace and without the request.
+     */
+    @Test
+    public void testExpectedStatusCode() {
+        final int notFound = 404;
+        BasicHttpResponse response = new BasicHttpResponse(
+                new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1),
+                        notFound, "Not Found"));
+
+        OutsetaInvalidResponseCodeException expected = RequestMakerHttpClient
+                .invalidResponseCode(response, "missing", "http://validurl",
+                        "payload", new HashMap<>(), new HashMap<>(),
+                        Collections.singleton(notFound));
+        assertEquals(notFound, expected.getResponseCode());
+        assertEquals("http://validurl", expected.getUrl());
+        assertNull(expected.getPayload());
+        assertEquals(0, expected.getStackTrace().length);
+
+        OutsetaInvalidResponseCodeException unexpected =
+                RequestMakerHttpClient.invalidResponseCode(response,
+                        "missing", "http://validurl", "payload",
+                        new HashMap<>(), new HashMap<>(),
+                        Collections.emptySet());
+        assertEquals("payload", unexpected.getPayload());
+        assertTrue(unexpected.getStackTrace().length > 0);
+    }
+
+    /**
+     * This method tests the parsing of the Retry-After header.
+     */
+    @Test
+    public void testParseRetryAfter() {
+        final long now = 1_445_412_480_000L;
+        final long fiveSeconds = 5_000L;
+
+        assertEquals(fiveSeconds,
+                RequestMakerHttpClient.parseRetryAfter(" 5 ", now));
+        assertEquals(fiveSeconds, RequestMakerHttpClient.parseRetryAfter(
+                "Wed, 21 Oct 2015 07:28:05 GMT", now));
+
+        // A date in the past means the request can be sent right away
+        assertEquals(0L, RequestMakerHttpClient.parseRetryAfter(
+                "Wed, 21 Oct 2015 07:27:00 GMT", now));
+
+        assertNull(RequestMakerHttpClient.parseRetryAfter(null, now));
+        assertNull(RequestMakerHttpClient.parseRetryAfter(" ", now));
+        assertNull(RequestMakerHttpClient.parseRetryAfter("-1", now));
+        assertNull(RequestMakerHttpClient.parseRetryAfter("soon", now));
+    }
+
+    /**
+     * This method tests that the time left before the deadline is used as
+     * the timeouts of the request, within the configured ones.
+     */
+    @Test
+    public void testDeadlineTimeouts() throws Exception {
+        final int socketTimeout = 1_000;
+        final long budget = 60_000L;
+        RequestMakerHttpClient mocked = new RequestMakerHttpClient(
+                httpClient);
+        CloseableHttpResponse response = Mockito.mock(
+                CloseableHttpResponse.class);
+        when(response.getStatusLine()).thenReturn(new BasicStatusLine(
+                new ProtocolVersion("HTTP", 1, 1), SUCCESS_CODE, ""));
+        when(response.getEntity()).thenReturn(new StringEntity("ok"));
+        HttpRequestBase[] sent = new HttpRequestBase[1];
+        when(httpClient.execute(any(HttpGet.class))).thenAnswer(
+                invocation -> {
+                    sent[0] = invocation.getArgument(0);
+                    return response;
+                });
+
+        try (Deadline.Scope scope = Deadline.after(budget,
+                TimeUnit.MILLISECONDS).enter()) {
+            assertEquals("ok", mocked.get("http://validurl", null, null));
+            int timeout = sent[0].getConfig().getSocketTimeout();
+            assertTrue(timeout > 0 && timeout <= budget);
+            assertEquals(timeout, sent[0].getConfig().getConnectTimeout());
+        }
+        assertNull(Deadline.current());
+
+        // The configured timeout is kept when it is shorter
+        HttpGet request = new HttpGet("http://validurl");
+        try (Deadline.Scope scope = Deadline.after(budget,
+                TimeUnit.MILLISECONDS).enter()) {
+            RequestMakerHttpClient.applyDeadline(request,
+                    RequestConfig.custom().setSocketTimeout(socketTimeout)
+                            .build(),
+                    Deadline.current(), "http://validurl", null, null, null);
+        }
+        assertEquals(socketTimeout, request.getConfig().getSocketTimeout());
+    }
+
+    /**
+     * This method tests that a late call is not sent and that a read that
+     * times out after the deadline is reported as a passed deadline.
+     */
+    @Test
+    public void testDeadlineExceeded() throws Exception {
+        try (Deadline.Scope scope = Deadline.after(0,
+                TimeUnit.MILLISECONDS).enter()) {
+            assertThrows(OutsetaDeadlineExceededException.class, () ->
+                    requestMakerHttpClient.post("http://validurl", null,
+                            "{}", null));
+        }
+        verify(httpClient, never()).execute(any(HttpPost.class));
+
+        final long budget = 50L;
+        when(httpClient.execute(any(HttpGet.class))).thenAnswer(
+                invocation -> {
+                    Thread.sleep(budget * 2);
+                    throw new SocketTimeoutException("Read timed out");
+                });
+        try (Deadline.Scope scope = Deadline.after(budget,
+                TimeUnit.MILLISECONDS).enter()) {
+            assertThrows(OutsetaDeadlineExceededException.class, () ->
+                    requestMakerHttpClient.get("http://validurl", null,
+                            null));
+        }
+    }
+
+    /**
+     * This method tests that a streamed body is read from the connection
+     * and that closing it releases the response.
+     */
+    @Test
+    public void testGetStream() throws Exception {
+        CloseableHttpResponse mockResponse = Mockito
+                .mock(CloseableHttpResponse.class);
+        when(mockResponse.getStatusLine()).thenReturn(new BasicStatusLine(
+                new ProtocolVersion("", 1, 1), SUCCESS_CODE, "OK"));
+        when(mockResponse.getEntity()).thenReturn(
+                new StringEntity("{\"Uid\": \"1\"}",
+                        ContentType.APPLICATION_JSON));
+        when(httpClient.execute(any(HttpGet.class)))
+                .thenReturn(mockResponse);
+
+        HashMap<String, String> headers = new HashMap<>();
+        headers.put("key", "value");
+        try (ResponseStream response = requestMakerHttpClient.getStream(
+                "http://validurl", new HashMap<>(), headers)) {
+            assertEquals("{\"Uid\": \"1\"}", new String(
+                    readAll(response.getBody()), StandardCharsets.UTF_8));
+            verify(mockResponse, never()).close();
+        }
+        verify(mockResponse).close();
+
+        // A response without a body is an empty stream
+        when(mockResponse.getEntity()).thenReturn(null);
+        try (ResponseStream response = requestMakerHttpClient.getStream(
+                "http://validurl", null, null)) {
+            assertEquals(-1, response.getBody().read());
+        }
+    }
+
+    /**
+     * This method tests that a streamed get request fails like a get
+     * request and releases the response at once.
+     */
+    @Test
+    public void testGetStreamFailure() throws Exception {
+        CloseableHttpResponse mockResponse = Mockito
+                .mock(CloseableHttpResponse.class);
+        when(mockResponse.getStatusLine()).thenReturn(new BasicStatusLine(
+                new ProtocolVersion("", 1, 1), FAILURE_CODE_1, "NOT_OK"));
+        when(mockResponse.getEntity()).thenReturn(
+                new StringEntity("failed", ContentType.TEXT_PLAIN));
+        when(httpClient.execute(any(HttpGet.class)))
+                .thenReturn(mockResponse);
+
+        OutsetaInvalidResponseCodeException e = assertThrows(
+                OutsetaInvalidResponseCodeException.class, () ->
+                        requestMakerHttpClient.getStream("http://validurl",
+                                null, null));
+        assertEquals(Integer.valueOf(FAILURE_CODE_1), e.getResponseCode());
+        verify(mockResponse).close();
+
+        when(httpClient.execute(any(HttpGet.class))).thenReturn(null);
+        assertThrows(OutsetaAPIUnknownException.class, () ->
+                requestMakerHttpClient.getStream("http://validurl", null,
+                        null));
+
+        when(httpClient.execute(any(HttpGet.class))).thenThrow(
+                new IOException());
+        assertThrows(OutsetaAPIBadRequestException.class, () ->
+                requestMakerHttpClient.getStream("http://validurl", null,
+                        null));
+        assertThrows(OutsetaInvalidURLException.class, () ->
+                requestMakerHttpClient.getStream("invalid url", null,
+                        null));
+    }
+
+    /**
+     * This method tests that an encoded payload is sent as it is with a
+     * json content type.
+     */
+    @Test
+    public void testPutAndPostBytes() throws Exception {
+        CloseableHttpResponse mockResponse = Mockito
+                .mock(CloseableHttpResponse.class);
+        when(mockResponse.getStatusLine()).thenReturn(new BasicStatusLine(
+                new ProtocolVersion("", 1, 1), SUCCESS_CODE, "OK"));
+        when(mockResponse.getEntity()).thenReturn(
+                new StringEntity("response", ContentType.TEXT_PLAIN));
+        when(httpClient.execute(any(HttpRequestBase.class)))
+                .thenReturn(mockResponse);
+
+        byte[] payload = "{\"Name\":\"\u00e9\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        HashMap<String, String> headers = new HashMap<>();
+        headers.put("key", "value");
+        assertEquals("response", requestMakerHttpClient.putBytes(
+                "http://validurl", null, payload, headers));
+        assertEquals("response", requestMakerHttpClient.postBytes(
+                "http://validurl", null, payload, headers));
+
+        ArgumentCaptor<HttpRequestBase> captor =
+                ArgumentCaptor.forClass(HttpRequestBase.class);
+        verify(httpClient, Mockito.times(2)).execute(captor.capture());
+        assertTrue(captor.getAllValues().get(0) instanceof HttpPut);
+        assertTrue(captor.getAllValues().get(1) instanceof HttpPost);
+        for (HttpRequestBase request : captor.getAllValues()) {
+            HttpEntity entity = ((HttpEntityEnclosingRequestBase) request)
+                    .getEntity();
+            assertEquals(ContentType.APPLICATION_JSON.toString(),
+                    entity.getContentType().getValue());
+            assertArrayEquals(payload, readAll(entity.getContent()));
+            assertEquals("value", request.getFirstHeader("key").getValue());
+        }
+
+        // An empty payload sends no body
+        requestMakerHttpClient.postBytes("http://validurl", null,
+                new byte[0], null);
+        verify(httpClient, Mockito.times(2 + 1)).execute(captor.capture());
+        assertNull(((HttpEntityEnclosingRequestBase) captor.getValue())
+                .getEntity());
+    }
+
+    /**
+     * This method tests that a failed request reports the encoded payload
+     * as a string.
+     */
+    @Test
+    public void testPutAndPostBytesFailure() throws Exception {
+        CloseableHttpResponse mockResponse = Mockito
+                .mock(CloseableHttpResponse.class);
+        when(mockResponse.getStatusLine()).thenReturn(new BasicStatusLine(
+                new ProtocolVersion("", 1, 1), FAILURE_CODE_1, "NOT_OK"));
+        when(mockResponse.getEntity()).thenReturn(
+                new StringEntity("failed", ContentType.TEXT_PLAIN));
+        when(httpClient.execute(any(HttpRequestBase.class)))
+                .thenReturn(mockResponse);
+
+        byte[] payload = "{\"Name\":\"\u00e9\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        OutsetaInvalidResponseCodeException e = assertThrows(
+                OutsetaInvalidResponseCodeException.class, () ->
+                        requestMakerHttpClient.putBytes("http://validurl",
+                                null, payload, null));
+        assertEquals("{\"Name\":\"\u00e9\"}", e.getPayload());
+        assertEquals(Integer.valueOf(FAILURE_CODE_1), e.getResponseCode());
+
+        when(httpClient.execute(any(HttpRequestBase.class))).thenThrow(
+                new IOException());
+        OutsetaAPIBadRequestException bad = assertThrows(
+                OutsetaAPIBadRequestException.class, () ->
+                        requestMakerHttpClient.postBytes("http://validurl",
+                                null, payload, null));
+        assertEquals("{\"Name\":\"\u00e9\"}", bad.getPayload());
+        assertThrows(OutsetaInvalidURLException.class, () ->
+                requestMakerHttpClient.postBytes("invalid url", null,
+                        payload, null));
+    }
+
+    /**
+     * This method reads a stream to its end.
+     * @param stream The stream.
+     * @return The bytes of the stream.
+     * @throws IOException If the stream cannot be read.
+     */
+    private static byte[] readAll(final InputStream stream)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int b;
+        while ((b = stream.read()) != -1) {
+            bytes.write(b);
+        }
+        return bytes.toByteArray();
+    }
 }
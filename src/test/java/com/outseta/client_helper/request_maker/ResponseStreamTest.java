@@ -0,0 +1,55 @@
+package com.outseta.client_helper.request_maker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * This class tests the ResponseStream class.
+ */
+class ResponseStreamTest {
+
+    /**
+     * This method tests a stream over a body that was already read.
+     */
+    @Test
+    void testOf() throws IOException {
+        try (ResponseStream stream = ResponseStream.of("\u00e9")) {
+            byte[] expected = "\u00e9".getBytes(StandardCharsets.UTF_8);
+            byte[] actual = new byte[expected.length];
+            assertEquals(expected.length, stream.getBody().read(actual));
+            assertEquals("\u00e9", new String(actual, StandardCharsets.UTF_8));
+        }
+        try (ResponseStream stream = ResponseStream.of(null)) {
+            assertEquals(-1, stream.getBody().read());
+        }
+    }
+
+    /**
+     * This method tests that closing the stream closes the body and then
+     * the response, even if closing the body fails.
+     */
+    @Test
+    void testClose() throws IOException {
+        InputStream body = mock(InputStream.class);
+        Closeable response = mock(Closeable.class);
+        doThrow(new IOException()).when(body).close();
+        doThrow(new IOException()).when(response).close();
+
+        new ResponseStream(body, response).close();
+        verify(body).close();
+        verify(response).close();
+
+        new ResponseStream(new ByteArrayInputStream(new byte[0]), null)
+                .close();
+    }
+}
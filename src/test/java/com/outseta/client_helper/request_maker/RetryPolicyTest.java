@@ -0,0 +1,175 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.constant.HttpMethod;
+import com.outseta.exception.OutsetaClientBuildException;
+import com.outseta.exception.OutsetaParseException;
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaAPIFailedException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class tests the RetryPolicy class.
+ */
+class RetryPolicyTest {
+
+    /**
+     * The base delay used for testing.
+     */
+    private static final long BASE_DELAY = 100L;
+
+    /**
+     * The maximum delay used for testing.
+     */
+    private static final long MAX_DELAY = 1_000L;
+
+    /**
+     * This method tests the default values of the builder.
+     */
+    @Test
+    void testDefaults() throws OutsetaClientBuildException {
+        RetryPolicy policy = RetryPolicy.builder().build();
+
+        assertEquals(RetryPolicy.DEFAULT_MAX_RETRIES, policy.getMaxRetries());
+        assertEquals(RetryPolicy.DEFAULT_BASE_DELAY, policy.getBaseDelay());
+        assertEquals(RetryPolicy.DEFAULT_MAX_DELAY, policy.getMaxDelay());
+        assertEquals(RetryPolicy.DEFAULT_MAX_RETRY_TIME,
+                policy.getMaxRetryTime());
+        assertFalse(policy.isRetryPost());
+        assertTrue(policy.isRespectRetryAfter());
+
+        // Only idempotent methods are retried by default
+        assertTrue(policy.allows(HttpMethod.GET));
+        assertTrue(policy.allows(HttpMethod.PUT));
+        assertTrue(policy.allows(HttpMethod.DELETE));
+        assertFalse(policy.allows(HttpMethod.POST));
+    }
+
+    /**
+     * This method tests setting all values of the builder.
+     */
+    @Test
+    void testBuilder() throws OutsetaClientBuildException {
+        final long maxRetryTime = 5_000L;
+        RetryPolicy policy = RetryPolicy.builder()
+                .maxRetries(1)
+                .baseDelay(BASE_DELAY)
+                .maxDelay(MAX_DELAY)
+                .maxRetryTime(maxRetryTime)
+                .retryPost(true)
+                .respectRetryAfter(false)
+                .build();
+
+        assertEquals(1, policy.getMaxRetries());
+        assertEquals(BASE_DELAY, policy.getBaseDelay());
+        assertEquals(MAX_DELAY, policy.getMaxDelay());
+        assertEquals(maxRetryTime, policy.getMaxRetryTime());
+        assertTrue(policy.isRetryPost());
+        assertFalse(policy.isRespectRetryAfter());
+        assertTrue(policy.allows(HttpMethod.POST));
+
+        // No method is retried without retries
+        assertFalse(RetryPolicy.builder().maxRetries(0).retryPost(true)
+                .build().allows(HttpMethod.GET));
+    }
+
+    /**
+     * This method tests that the builder rejects values out of range.
+     */
+    @Test
+    void testBuilderFailure() {
+        assertThrows(OutsetaClientBuildException.class, () ->
+                RetryPolicy.builder().maxRetries(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                RetryPolicy.builder().baseDelay(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                RetryPolicy.builder().maxRetryTime(-1).build());
+        assertThrows(OutsetaClientBuildException.class, () ->
+                RetryPolicy.builder().baseDelay(MAX_DELAY)
+                        .maxDelay(BASE_DELAY).build());
+    }
+
+    /**
+     * This method tests which failures are retried.
+     */
+    @Test
+    void testIsRetryable() {
+        final int tooManyRequests = 429;
+        final int serviceUnavailable = 503;
+        final int notFound = 404;
+
+        assertTrue(RetryPolicy.isRetryable(responseCode(tooManyRequests)));
+        assertTrue(RetryPolicy.isRetryable(responseCode(serviceUnavailable)));
+        assertTrue(RetryPolicy.isRetryable(new OutsetaAPIBadRequestException(
+                "reset", null, null, null, null, null, null)));
+
+        assertFalse(RetryPolicy.isRetryable(responseCode(notFound)));
+        assertFalse(RetryPolicy.isRetryable(responseCode(null)));
+        assertFalse(RetryPolicy.isRetryable(new OutsetaAPIFailedException(
+                "closed", null, null, null, null, null, null)));
+        assertFalse(RetryPolicy.isRetryable(new OutsetaParseException("bad")));
+    }
+
+    /**
+     * This method tests that the delay grows exponentially, stays within
+     * its limit and respects the Retry-After header.
+     */
+    @Test
+    void testDelay() throws OutsetaClientBuildException {
+        RetryPolicy policy = RetryPolicy.builder()
+                .baseDelay(BASE_DELAY)
+                .maxDelay(MAX_DELAY)
+                .build();
+        Random random = new Random(1);
+
+        final int rounds = 100;
+        final int retries = 6;
+        for (int round = 0; round < rounds; round++) {
+            for (int retry = 1; retry <= retries; retry++) {
+                long limit = Math.min(MAX_DELAY,
+                        BASE_DELAY << (retry - 1));
+                long delay = policy.delay(retry, null, random);
+                assertTrue(delay >= 0 && delay <= limit);
+            }
+        }
+
+        // The highest possible random value reaches the limit
+        Random highest = new Random() {
+            @Override
+            public double nextDouble() {
+                final double almostOne = 0.999_999;
+                return almostOne;
+            }
+        };
+        final int third = 3;
+        assertEquals(BASE_DELAY << 2, policy.delay(third, null, highest));
+        final int many = 1_000;
+        assertEquals(MAX_DELAY, policy.delay(many, null, highest));
+
+        // A longer wait asked for by the server is used
+        final long retryAfter = 5_000L;
+        assertEquals(retryAfter, policy.delay(1, retryAfter, random));
+        assertEquals(MAX_DELAY, policy.delay(many, 1L, highest));
+        assertTrue(RetryPolicy.builder().baseDelay(0).maxDelay(0)
+                .respectRetryAfter(false).build()
+                .delay(1, retryAfter, random) == 0);
+    }
+
+    /**
+     * This method creates an exception with a response code.
+     * @param code The response code.
+     * @return The exception.
+     */
+    private static OutsetaInvalidResponseCodeException responseCode(
+            final Integer code) {
+        return new OutsetaInvalidResponseCodeException("failed", null, null,
+                null, null, code, null);
+    }
+}
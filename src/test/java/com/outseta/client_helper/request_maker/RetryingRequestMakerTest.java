@@ -0,0 +1,345 @@
+package com.outseta.client_helper.request_maker;
+
+import com.outseta.exception.api_exception.OutsetaAPIBadRequestException;
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the RetryingRequestMaker class.
+ */
+@ExtendWith(MockitoExtension.class)
+class RetryingRequestMakerTest {
+
+    /**
+     * The url used for testing.
+     */
+    private static final String URL = "https://dummy.com/crm/people";
+
+    /**
+     * The response code of a throttled request.
+     */
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * The response code of an unavailable server.
+     */
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    /**
+     * The response code of a missing resource.
+     */
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * The base delay used for testing.
+     */
+    private static final long BASE_DELAY = 100L;
+
+    /**
+     * The request maker that is wrapped.
+     */
+    @Mock
+    private RequestMaker delegate;
+
+    /**
+     * The parameters used for testing.
+     */
+    private Map<String, Object> params;
+
+    /**
+     * The headers used for testing.
+     */
+    private Map<String, String> headers;
+
+    /**
+     * The waits made before the retries.
+     */
+    private List<Long> sleeps;
+
+    /**
+     * The fake clock in milliseconds. It moves forward while sleeping.
+     */
+    private AtomicLong now;
+
+    /**
+     * Sets up the test data.
+     */
+    @BeforeEach
+    void setUp() {
+        this.params = new HashMap<>();
+        this.headers = new HashMap<>();
+        this.sleeps = new ArrayList<>();
+        this.now = new AtomicLong();
+    }
+
+    /**
+     * This method creates a request maker that waits on the fake clock.
+     * @param policy The retry policy.
+     * @return The request maker.
+     */
+    private RetryingRequestMaker retrying(final RetryPolicy policy) {
+        return new RetryingRequestMaker(delegate, policy, millis -> {
+            sleeps.add(millis);
+            now.addAndGet(millis);
+        }, now::get);
+    }
+
+    /**
+     * This method tests that temporary failures are retried with a growing
+     * delay until the request succeeds.
+     */
+    @Test
+    void testRetryUntilSuccess() throws Exception {
+        RetryingRequestMaker requestMaker = retrying(RetryPolicy.builder()
+                .baseDelay(BASE_DELAY).build());
+        when(delegate.get(URL, params, headers))
+                .thenThrow(responseCode(SERVICE_UNAVAILABLE, null))
+                .thenThrow(new OutsetaAPIBadRequestException("reset", URL,
+                        null, params, headers, null, null))
+                .thenReturn("ok");
+
+        assertEquals("ok", requestMaker.get(URL, params, headers));
+        verify(delegate, times(2 + 1)).get(URL, params, headers);
+        assertEquals(2, requestMaker.getRetries());
+        assertEquals(0, requestMaker.getGiveUps());
+
+        // Full jitter keeps every wait within its exponential limit
+        assertEquals(2, sleeps.size());
+        for (int i = 0; i < sleeps.size(); i++) {
+            assertTrue(sleeps.get(i) <= BASE_DELAY << i);
+        }
+    }
+
+    /**
+     * This method tests that the wait asked for by the server is used.
+     */
+    @Test
+    void testRetryAfter() throws Exception {
+        final long retryAfter = 2_000L;
+        RetryingRequestMaker requestMaker = retrying(RetryPolicy.builder()
+                .build());
+        when(delegate.put(URL, params, "{}", headers))
+                .thenThrow(responseCode(TOO_MANY_REQUESTS, retryAfter))
+                .thenReturn("ok");
+
+        assertEquals("ok", requestMaker.put(URL, params, "{}", headers));
+        assertEquals(retryAfter, sleeps.get(0));
+    }
+
+    /**
+     * This method tests that a call is given up once its retries are used
+     * up, and that permanent failures are not retried.
+     */
+    @Test
+    void testGiveUp() throws Exception {
+        RetryingRequestMaker requestMaker = retrying(RetryPolicy.builder()
+                .maxRetries(2).baseDelay(BASE_DELAY).build());
+        OutsetaInvalidResponseCodeException unavailable =
+                responseCode(SERVICE_UNAVAILABLE, null);
+        when(delegate.delete(URL, params, headers)).thenThrow(unavailable);
+
+        assertSame(unavailable, assertThrows(
+                OutsetaInvalidResponseCodeException.class, () ->
+                        requestMaker.delete(URL, params, headers)));
+        verify(delegate, times(2 + 1)).delete(URL, params, headers);
+        assertEquals(2, requestMaker.getRetries());
+        assertEquals(1, requestMaker.getGiveUps());
+
+        OutsetaInvalidResponseCodeException notFound =
+                responseCode(NOT_FOUND, null);
+        when(delegate.get(URL, params, headers)).thenThrow(notFound);
+        assertSame(notFound, assertThrows(
+                OutsetaInvalidResponseCodeException.class, () ->
+                        requestMaker.get(URL, params, headers)));
+        verify(delegate).get(URL, params, headers);
+        assertEquals(1, requestMaker.getGiveUps());
+    }
+
+    /**
+     * This method tests that a retry is not made if its wait would end
+     * after the time budget of the call.
+     */
+    @Test
+    void testRetryTimeBudget() throws Exception {
+        final long budget = 1_000L;
+        RetryingRequestMaker requestMaker = retrying(RetryPolicy.builder()
+                .maxRetryTime(budget).build());
+        when(delegate.get(URL, params, headers))
+                .thenThrow(responseCode(TOO_MANY_REQUESTS, budget + 1));
+
+        assertThrows(OutsetaInvalidResponseCodeException.class, () ->
+                requestMaker.get(URL, params, headers));
+        verify(delegate).get(URL, params, headers);
+        assertTrue(sleeps.isEmpty());
+        assertEquals(1, requestMaker.getGiveUps());
+    }
+
+    /**
+     * This method tests that a retry is not made if its wait would end
+     * after the deadline of the call.
+     */
+    @Test
+    void testRetryDeadline() throws Exception {
+        final long retryAfter = 2_000L;
+        RetryingRequestMaker requestMaker = retrying(RetryPolicy.builder()
+                .build());
+        when(delegate.get(URL, params, headers))
+                .thenThrow(responseCode(TOO_MANY_REQUESTS, retryAfter));
+
+        try (Deadline.Scope scope = Deadline.after(retryAfter / 2,
+                TimeUnit.MILLISECONDS).enter()) {
+            assertThrows(OutsetaInvalidResponseCodeException.class, () ->
+                    requestMaker.get(URL, params, headers));
+        }
+        verify(delegate).get(URL, params, headers);
+        assertTrue(sleeps.isEmpty());
+        assertEquals(1, requestMaker.getGiveUps());
+    }
+
+    /**
+     * This method tests that POST requests are only retried if enabled.
+     */
+    @Test
+    void testPost() throws Exception {
+        OutsetaInvalidResponseCodeException unavailable =
+                responseCode(SERVICE_UNAVAILABLE, null);
+        when(delegate.post(URL, params, "{}", headers))
+                .thenThrow(unavailable)
+                .thenReturn("created");
+
+        RetryingRequestMaker notRetried = retrying(RetryPolicy.builder()
+                .build());
+        assertThrows(OutsetaInvalidResponseCodeException.class, () ->
+                notRetried.post(URL, params, "{}", headers));
+        assertEquals(0, notRetried.getGiveUps());
+
+        when(delegate.post(URL, params, "{}", headers))
+                .thenThrow(unavailable)
+                .thenReturn("created");
+        RetryingRequestMaker retried = retrying(RetryPolicy.builder()
+                .retryPost(true).build());
+        assertEquals("created", retried.post(URL, params, "{}", headers));
+        assertEquals(1, retried.getRetries());
+    }
+
+    /**
+     * This method tests that encoded payloads are retried like strings and
+     * sent as strings to a request maker that cannot send bytes.
+     */
+    @Test
+    void testBytePayload() throws Exception {
+        byte[] payload = "{}".getBytes(StandardCharsets.UTF_8);
+        BytePayloadRequestMaker bytes = mock(BytePayloadRequestMaker.class);
+        when(bytes.putBytes(URL, params, payload, headers))
+                .thenThrow(responseCode(SERVICE_UNAVAILABLE, null))
+                .thenReturn("updated");
+
+        RetryingRequestMaker retried = new RetryingRequestMaker(bytes,
+                RetryPolicy.builder().build(), sleeps::add, now::get);
+        assertEquals("updated", retried.putBytes(URL, params, payload,
+                headers));
+        assertEquals(1, retried.getRetries());
+
+        when(delegate.post(URL, params, "{}", headers)).thenReturn("created");
+        assertEquals("created", retrying(RetryPolicy.builder().build())
+                .postBytes(URL, params, payload, headers));
+    }
+
+    /**
+     * This method tests that an interrupted wait gives up the call and
+     * keeps the interrupt flag.
+     */
+    @Test
+    void testInterrupted() throws Exception {
+        RetryingRequestMaker requestMaker = new RetryingRequestMaker(
+                delegate, RetryPolicy.builder().build(), millis -> {
+                    throw new InterruptedException();
+                }, now::get);
+        when(delegate.get(URL, params, headers))
+                .thenThrow(responseCode(TOO_MANY_REQUESTS, 1L));
+
+        try {
+            assertThrows(OutsetaInvalidResponseCodeException.class, () ->
+                    requestMaker.get(URL, params, headers));
+            assertEquals(1, requestMaker.getGiveUps());
+        } finally {
+            // Clearing the interrupt flag for the following tests
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    /**
+     * This method tests that asynchronous calls are retried without
+     * blocking, given up once their retries are used up, and that
+     * cancelling the call cancels the attempt in flight.
+     */
+    @Test
+    void testAsync() throws Exception {
+        AsyncRequestMaker async = mock(AsyncRequestMaker.class);
+        RetryingRequestMaker requestMaker = new RetryingRequestMaker(async,
+                RetryPolicy.builder().maxRetries(1).baseDelay(1).build());
+        OutsetaInvalidResponseCodeException unavailable =
+                responseCode(SERVICE_UNAVAILABLE, null);
+        when(async.getAsync(URL, params, headers))
+                .thenReturn(RequestMakerDecorator.failed(unavailable))
+                .thenReturn(CompletableFuture.completedFuture("ok"));
+
+        assertEquals("ok", requestMaker.getAsync(URL, params, headers).get());
+        assertEquals(1, requestMaker.getRetries());
+
+        when(async.deleteAsync(URL, params, headers))
+                .thenReturn(RequestMakerDecorator.failed(unavailable));
+        assertSame(unavailable, assertThrows(ExecutionException.class, () ->
+                requestMaker.deleteAsync(URL, params, headers).get())
+                .getCause());
+        verify(async, times(2)).deleteAsync(URL, params, headers);
+        assertEquals(1, requestMaker.getGiveUps());
+
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        when(async.putAsync(URL, params, "{}", headers)).thenReturn(pending);
+        CompletableFuture<String> call = requestMaker.putAsync(URL, params,
+                "{}", headers);
+        assertFalse(call.isDone());
+        call.cancel(true);
+        assertTrue(pending.isCancelled());
+    }
+
+    /**
+     * This method creates an exception with a response code.
+     * @param code The response code.
+     * @param retryAfter The wait asked for by the server.
+     * @return The exception.
+     */
+    private OutsetaInvalidResponseCodeException responseCode(
+            final int code, final Long retryAfter) {
+        OutsetaInvalidResponseCodeException e =
+                new OutsetaInvalidResponseCodeException("failed", URL, null,
+                        params, headers, code, null);
+        e.setRetryAfter(retryAfter);
+        return e;
+    }
+}
@@ -0,0 +1,56 @@
+package com.outseta.client_helper.request_maker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * This class tests the TransferStats class.
+ */
+class TransferStatsTest {
+
+    /**
+     * The number of wire bytes used for testing.
+     */
+    private static final long WIRE = 300L;
+
+    /**
+     * The number of decoded bytes used for testing.
+     */
+    private static final long DECODED = 1_000L;
+
+    /**
+     * This method tests the getters of the class.
+     */
+    @Test
+    void testGetters() {
+        TransferStats stats = new TransferStats(2, 1, WIRE, DECODED);
+
+        assertEquals(2, stats.getResponses());
+        assertEquals(1, stats.getCompressedResponses());
+        assertEquals(WIRE, stats.getWireBytes());
+        assertEquals(DECODED, stats.getDecodedBytes());
+        assertEquals(DECODED - WIRE, stats.getSavedBytes());
+        assertEquals("[responses: 2; compressed: 1; wire bytes: 300; "
+                + "decoded bytes: 1000]", stats.toString());
+    }
+
+    /**
+     * This method tests the equals and hashCode methods.
+     */
+    @Test
+    void testEqualsAndHashCode() {
+        TransferStats stats = new TransferStats(2, 1, WIRE, DECODED);
+        TransferStats same = new TransferStats(2, 1, WIRE, DECODED);
+
+        assertEquals(stats, stats);
+        assertEquals(stats, same);
+        assertEquals(stats.hashCode(), same.hashCode());
+        assertNotEquals(stats, new TransferStats(0, 1, WIRE, DECODED));
+        assertNotEquals(stats, new TransferStats(2, 0, WIRE, DECODED));
+        assertNotEquals(stats, new TransferStats(2, 1, 0, DECODED));
+        assertNotEquals(stats, new TransferStats(2, 1, WIRE, 0));
+        assertNotEquals(stats, "stats");
+    }
+}
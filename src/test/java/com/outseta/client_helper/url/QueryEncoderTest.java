@@ -0,0 +1,108 @@
+package com.outseta.client_helper.url;
+
+import org.apache.http.client.utils.URIBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * This class tests the QueryEncoder class.
+ */
+class QueryEncoderTest {
+
+    /**
+     * The url the parameters are added to.
+     */
+    private static final String URL = "http://dummyurl.com/crm/people";
+
+    /**
+     * The page size used for testing.
+     */
+    private static final int LIMIT = 25;
+
+    /**
+     * The values that must be encoded like URIBuilder encodes them.
+     */
+    private static final String[] VALUES = {
+        "plain", "with space", "a+b", "a&b=c", "name+ASC", "-_.*~!'()",
+        "/path?query#fragment", "Ren\u00e9e", "\u20ac10", "\ud83d\ude00",
+        "\ud83d", "100%", ""
+    };
+
+    /**
+     * This method tests that the query is the same as the one written by
+     * URIBuilder.
+     */
+    @Test
+    void testAppendMatchesURIBuilder() throws URISyntaxException {
+        for (String value : VALUES) {
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            parameters.put("key " + value, value);
+            parameters.put("limit", LIMIT);
+
+            URIBuilder builder = new URIBuilder(URL);
+            parameters.forEach((key, v) ->
+                    builder.addParameter(key, String.valueOf(v)));
+
+            assertEquals(builder.build().toString(),
+                    QueryEncoder.append(URL, parameters), value);
+        }
+    }
+
+    /**
+     * This method tests that parameters are added to an existing query and
+     * that a url without parameters is returned as it is.
+     */
+    @Test
+    void testAppend() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("offset", 1);
+        parameters.put("orderBy", null);
+
+        assertEquals(URL + "?sendWelcomeEmail=true&offset=1&orderBy=null",
+                QueryEncoder.append(URL + "?sendWelcomeEmail=true",
+                        parameters));
+        assertSame(URL, QueryEncoder.append(URL, null));
+        assertSame(URL, QueryEncoder.append(URL, Collections.emptyMap()));
+    }
+
+    /**
+     * This method tests the encode method.
+     */
+    @Test
+    void testEncode() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("q", "a b");
+        parameters.put("limit", LIMIT);
+
+        assertEquals("q=a+b&limit=25", QueryEncoder.encode(parameters));
+        assertEquals("", QueryEncoder.encode(null));
+        assertEquals("", QueryEncoder.encode(Collections.emptyMap()));
+    }
+
+    /**
+     * This method tests the encoding of single values.
+     */
+    @Test
+    void testEncodeComponents() {
+        String plain = "abc-123";
+        assertSame(plain, QueryEncoder.encodeQueryComponent(plain));
+        assertSame(plain, QueryEncoder.encodePathSegment(plain));
+
+        assertEquals("a+b%2Fc%3F", QueryEncoder.encodeQueryComponent("a b/c?"));
+        assertEquals("a%20b%2Fc%3F", QueryEncoder.encodePathSegment("a b/c?"));
+        assertEquals("2024-01-01T00:00:00+01:00",
+                QueryEncoder.encodePathSegment("2024-01-01T00:00:00+01:00"));
+        assertEquals("Ren%C3%A9e", QueryEncoder.encodePathSegment(
+                "Ren\u00e9e"));
+        assertEquals("%F0%9F%98%80", QueryEncoder.encodePathSegment(
+                "\ud83d\ude00"));
+        assertEquals("%3F", QueryEncoder.encodePathSegment("\ude00"));
+    }
+}
@@ -0,0 +1,171 @@
+package com.outseta.client_helper.url;
+
+import com.outseta.model.request.PageRequest;
+import org.apache.http.client.utils.URIBuilder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class compares building the uri of a get request by concatenating
+ * the url and parsing it with URIBuilder with building it from a compiled
+ * route and the query encoder.
+ * <p>
+ *     It is excluded from the normal build and can be run with
+ *     {@code gradle benchmark}. For a lookup by id and for a page it prints
+ *     the uris built per second and the bytes allocated per uri, from the
+ *     arguments of the endpoint method to the uri handed to the request.
+ * </p>
+ */
+@Tag("benchmark")
+class RouteBenchmark {
+
+    /**
+     * The number of uris built before measuring.
+     */
+    private static final int WARM_UP = 200_000;
+
+    /**
+     * The number of uris built while measuring.
+     */
+    private static final int ITERATIONS = 1_000_000;
+
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * The base url of the client.
+     */
+    private static final String BASE_URL = "https://example.outseta.com/api/v1";
+
+    /**
+     * The id that is looked up.
+     */
+    private static final String ID = "wQXrBxWK";
+
+    /**
+     * The size of the page.
+     */
+    private static final int PAGE_SIZE = 25;
+
+    /**
+     * The route of the people.
+     */
+    private static final RouteTemplate PEOPLE = RouteTemplate.compile(
+            "/crm/people");
+
+    /**
+     * The route of a person.
+     */
+    private static final RouteTemplate PERSON = RouteTemplate.compile(
+            "/crm/people/{personId}");
+
+    /**
+     * This interface is implemented by the ways of building a uri.
+     */
+    private interface UriFactory {
+
+        /**
+         * This method builds the uri of a request.
+         * @return The uri.
+         * @throws Exception If the uri cannot be built.
+         */
+        URI create() throws Exception;
+    }
+
+    /**
+     * This method runs the benchmark for a lookup by id.
+     */
+    @Test
+    void benchmarkLookup() throws Exception {
+        UriFactory concatenated = () -> parse(BASE_URL + "/crm/people/" + ID,
+                new HashMap<>());
+        UriFactory compiled = () -> new URI(QueryEncoder.append(
+                BASE_URL + PERSON.expand(ID), Collections.emptyMap()));
+
+        assertEquals(concatenated.create(), compiled.create());
+        measure("lookup concatenated", concatenated);
+        measure("lookup compiled", compiled);
+    }
+
+    /**
+     * This method runs the benchmark for a page.
+     */
+    @Test
+    void benchmarkPage() throws Exception {
+        PageRequest page = PageRequest.builder().page(2).pageSize(PAGE_SIZE)
+                .orderBy("Email").build();
+
+        UriFactory concatenated = () -> parse(BASE_URL + "/crm/people",
+                page.buildParams());
+        UriFactory compiled = () -> new URI(QueryEncoder.append(
+                BASE_URL + PEOPLE.expand(), page.buildParams()));
+
+        assertEquals(concatenated.create(), compiled.create());
+        measure("page concatenated", concatenated);
+        measure("page compiled", compiled);
+    }
+
+    /**
+     * This method builds a uri the way the request maker did before
+     * routes were compiled.
+     * @param url The url.
+     * @param parameters The parameters.
+     * @return The uri.
+     * @throws Exception If the uri cannot be built.
+     */
+    private static URI parse(final String url,
+                             final Map<String, Object> parameters)
+            throws Exception {
+        URIBuilder builder = new URIBuilder(url);
+        parameters.forEach((key, value) ->
+                builder.addParameter(key, String.valueOf(value)));
+        return builder.build();
+    }
+
+    /**
+     * This method measures the throughput and the allocations of a way of
+     * building a uri.
+     * @param name The name printed with the result.
+     * @param factory The way of building the uri.
+     * @throws Exception If the uri cannot be built.
+     */
+    private static void measure(final String name, final UriFactory factory)
+            throws Exception {
+
+        long length = 0;
+        for (int i = 0; i < WARM_UP; i++) {
+            length += factory.create().getRawPath().length();
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)
+                        ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            length += factory.create().getRawPath().length();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId)
+                - allocatedBefore;
+
+        // The length is used so that the uris cannot be optimised away
+        assertTrue(length > 0);
+        System.out.printf("%-20s %,12.0f uris/s %,10d bytes/uri%n", name,
+                ITERATIONS * NANOS_PER_SECOND / elapsed,
+                allocated / ITERATIONS);
+    }
+}
@@ -0,0 +1,96 @@
+package com.outseta.client_helper.url;
+
+import com.outseta.exception.OutsetaInvalidURLException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * This class tests the RouteTemplate class.
+ */
+class RouteTemplateTest {
+
+    /**
+     * This method tests that a route without variables returns its
+     * template.
+     */
+    @Test
+    void testExpandLiteral() throws OutsetaInvalidURLException {
+        String template = "/crm/accounts";
+        RouteTemplate route = RouteTemplate.compile(template);
+
+        assertSame(template, route.expand());
+        assertEquals(template, route.getTemplate());
+        assertEquals(template, route.toString());
+        assertEquals(0, route.getVariableCount());
+    }
+
+    /**
+     * This method tests that path variables are encoded as path segments.
+     */
+    @Test
+    void testExpandPath() throws OutsetaInvalidURLException {
+        RouteTemplate route = RouteTemplate.compile(
+                "/crm/accounts/{accountId}/memberships/{membershipId}");
+
+        assertEquals(2, route.getVariableCount());
+        assertEquals("/crm/accounts/1/memberships/2", route.expand("1", 2));
+        assertEquals("/crm/accounts/a%2Fb/memberships/c%3Fd%20e",
+                route.expand("a/b", "c?d e"));
+    }
+
+    /**
+     * This method tests that variables in the query are form encoded.
+     */
+    @Test
+    void testExpandQuery() throws OutsetaInvalidURLException {
+        RouteTemplate route = RouteTemplate.compile(
+                "/support/cases/{caseUid}?sendAutoResponder={send}");
+
+        assertEquals("/support/cases/a%20b?sendAutoResponder=true",
+                route.expand("a b", true));
+        assertEquals("/support/cases/1?sendAutoResponder=a+b%26c",
+                route.expand("1", "a b&c"));
+    }
+
+    /**
+     * This method tests that missing values are rejected.
+     */
+    @Test
+    void testExpandInvalid() {
+        RouteTemplate route = RouteTemplate.compile("/crm/people/{personId}");
+
+        assertThrows(OutsetaInvalidURLException.class, route::expand);
+        assertThrows(OutsetaInvalidURLException.class, () ->
+                route.expand("1", "2"));
+        assertThrows(OutsetaInvalidURLException.class, () ->
+                route.expand((Object) null));
+        assertThrows(OutsetaInvalidURLException.class, () ->
+                route.expand((Object[]) null));
+    }
+
+    /**
+     * This method tests that invalid templates are rejected.
+     */
+    @Test
+    void testCompileInvalid() {
+        assertThrows(IllegalArgumentException.class, () ->
+                RouteTemplate.compile(null));
+        assertThrows(IllegalArgumentException.class, () ->
+                RouteTemplate.compile("crm/people"));
+        assertThrows(IllegalArgumentException.class, () ->
+                RouteTemplate.compile("/crm/people/{}"));
+        assertThrows(IllegalArgumentException.class, () ->
+                RouteTemplate.compile("/crm/people/{personId"));
+        assertThrows(IllegalArgumentException.class, () ->
+                RouteTemplate.compile("/crm/people/{person-id}"));
+        assertThrows(IllegalArgumentException.class, () ->
+                RouteTemplate.compile("/crm/people}"));
+        assertThrows(IllegalArgumentException.class, () ->
+                RouteTemplate.compile("/crm/some people"));
+        assertThrows(IllegalArgumentException.class, () ->
+                RouteTemplate.compile("/crm/people#top"));
+    }
+}
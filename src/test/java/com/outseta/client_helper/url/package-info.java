@@ -0,0 +1,4 @@
+/**
+ * This package contains test cases for the building of request urls.
+ */
+package com.outseta.client_helper.url;
@@ -0,0 +1,55 @@
+package com.outseta.client_helper.warm_up;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * This class tests the WarmUpReport class.
+ */
+class WarmUpReportTest {
+
+    /**
+     * The number of connections requested in the tests.
+     */
+    private static final int REQUESTED = 4;
+
+    /**
+     * The duration used in the tests.
+     */
+    private static final long DURATION = 25L;
+
+    /**
+     * This method tests the getters of the report.
+     */
+    @Test
+    void testGetters() {
+        WarmUpReport report = new WarmUpReport(REQUESTED, 2, 1, DURATION);
+
+        assertEquals(REQUESTED, report.getRequestedConnections());
+        assertEquals(2, report.getOpenConnections());
+        assertEquals(1, report.getPreparedTypes());
+        assertEquals(DURATION, report.getDurationMillis());
+        assertEquals("[connections: 2/4; prepared types: 1; duration: 25 ms]",
+                report.toString());
+    }
+
+    /**
+     * This method tests the equals and hashCode methods.
+     */
+    @Test
+    void testEquals() {
+        WarmUpReport report = new WarmUpReport(REQUESTED, 2, 1, DURATION);
+        WarmUpReport same = new WarmUpReport(REQUESTED, 2, 1, DURATION);
+
+        assertEquals(report, report);
+        assertEquals(report, same);
+        assertEquals(report.hashCode(), same.hashCode());
+        assertNotEquals(report, new WarmUpReport(REQUESTED, 1, 1, DURATION));
+        assertNotEquals(report, new WarmUpReport(REQUESTED, 2, 0, DURATION));
+        assertNotEquals(report, new WarmUpReport(REQUESTED, 2, 1, 0));
+        assertNotEquals(report, new WarmUpReport(2, 2, 1, DURATION));
+        assertNotEquals(report, "report");
+    }
+}
@@ -0,0 +1,102 @@
+package com.outseta.client_helper.warm_up;
+
+import com.outseta.client_helper.parser.json.ParserFacade;
+import com.outseta.client_helper.parser.json.jackson.JsonParserJackson;
+import com.outseta.client_helper.request_maker.DrainingRequestMaker;
+import com.outseta.client_helper.request_maker.PooledRequestMaker;
+import com.outseta.client_helper.request_maker.RequestMaker;
+import com.outseta.model.result.Account;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the WarmUp class.
+ */
+@ExtendWith(MockitoExtension.class)
+class WarmUpTest {
+
+    /**
+     * The base url of the client.
+     */
+    private static final String URL = "http://dummyurl.com/api/v1";
+
+    /**
+     * The number of connections requested in the tests.
+     */
+    private static final int CONNECTIONS = 4;
+
+    /**
+     * The pooled request maker of the client.
+     */
+    @Mock
+    private PooledRequestMaker pooled;
+
+    /**
+     * A request maker without a pool.
+     */
+    @Mock
+    private RequestMaker plain;
+
+    /**
+     * The parser of the client.
+     */
+    @Mock
+    private ParserFacade parserFacade;
+
+    /**
+     * This method tests that the connections are opened by the pooled
+     * request maker found in the chain and that every model class is
+     * prepared.
+     */
+    @Test
+    void testRun() throws Exception {
+        when(pooled.openConnections(URL, CONNECTIONS)).thenReturn(2);
+        when(parserFacade.prepare(any())).thenReturn(true);
+        when(parserFacade.prepare(Account.class)).thenReturn(false);
+
+        WarmUpReport report = WarmUp.run(
+                new DrainingRequestMaker(pooled, 0, true), parserFacade, URL,
+                CONNECTIONS);
+
+        assertEquals(CONNECTIONS, report.getRequestedConnections());
+        assertEquals(2, report.getOpenConnections());
+        assertEquals(WarmUp.MODEL_TYPES.size() - 1, report.getPreparedTypes());
+        assertTrue(report.getDurationMillis() >= 0);
+    }
+
+    /**
+     * This method tests that no connection is opened without a pool or
+     * when none are requested.
+     */
+    @Test
+    void testRunWithoutConnections() throws Exception {
+        WarmUpReport report = WarmUp.run(plain, null, URL, CONNECTIONS);
+        assertEquals(0, report.getOpenConnections());
+        assertEquals(0, report.getPreparedTypes());
+
+        WarmUp.run(pooled, null, URL, 0);
+        verify(pooled, never()).openConnections(any(), anyInt());
+    }
+
+    /**
+     * This method tests that every model class can be prepared by the
+     * default parser.
+     */
+    @Test
+    void testModelTypes() throws Exception {
+        ParserFacade parser = new ParserFacade(new JsonParserJackson());
+
+        assertEquals(WarmUp.MODEL_TYPES.size(), WarmUp.run(plain, parser,
+                URL, 0).getPreparedTypes());
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains the tests of the warm-up run when a client is
+ * built.
+ */
+package com.outseta.client_helper.warm_up;
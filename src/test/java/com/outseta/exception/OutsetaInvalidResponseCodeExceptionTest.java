@@ -0,0 +1,44 @@
+package com.outseta.exception;
+
+import com.outseta.exception.api_exception.OutsetaInvalidResponseCodeException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for OutsetaInvalidResponseCodeException.
+ */
+public class OutsetaInvalidResponseCodeExceptionTest {
+
+    /**
+     * The response code used for testing.
+     */
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * Test that an exception for an expected response code keeps the url
+     * and the code only, and has no stack trace if asked to.
+     */
+    @Test
+    public void testExpectedResponseCode() {
+        OutsetaInvalidResponseCodeException stackless =
+                new OutsetaInvalidResponseCodeException("Not found.", "url",
+                        NOT_FOUND, false);
+
+        assertEquals("Not found.", stackless.getMessage());
+        assertEquals("url", stackless.getUrl());
+        assertEquals(NOT_FOUND, stackless.getResponseCode());
+        assertNull(stackless.getPayload());
+        assertNull(stackless.getParameters());
+        assertNull(stackless.getHeaders());
+        assertNull(stackless.getTriggeredBy());
+        assertEquals(0, stackless.getStackTrace().length);
+
+        OutsetaInvalidResponseCodeException traced =
+                new OutsetaInvalidResponseCodeException("Not found.", "url",
+                        NOT_FOUND, true);
+        assertTrue(traced.getStackTrace().length > 0);
+    }
+}
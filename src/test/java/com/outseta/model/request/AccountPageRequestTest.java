@@ -127,6 +127,12 @@ public class AccountPageRequestTest {
             assertEquals(nextPageRequest.getPageSize(), PAGE_SIZE);
             assertEquals(nextPageRequest.getAccountStage(),
                     ACCOUNT_STAGE);
+
+            // The sort order and custom parameters are kept
+            assertEquals("id", nextPageRequest.getOrderBy());
+            assertEquals(Sort.ASC, nextPageRequest.getOrderByDirection());
+            assertEquals(accountPageRequest.getCustomParams(),
+                    nextPageRequest.getCustomParams());
         });
     }
 }
@@ -187,6 +187,12 @@ public class ActivityPageRequestTest {
                     activityType.getValue());
             assertEquals(nextPageRequest.getEntityType(),
                     entityType.getValue());
+
+            // The sort order and custom parameters are kept
+            assertEquals("id", nextPageRequest.getOrderBy());
+            assertEquals(Sort.ASC, nextPageRequest.getOrderByDirection());
+            assertEquals(activityPageRequest.getCustomParams(),
+                    nextPageRequest.getCustomParams());
         });
     }
 }
@@ -205,6 +205,36 @@ public class PageRequestTest {
         });
     }
 
+    /**
+     * This method tests that the next page request keeps the sort order
+     * and the custom parameters, and starts after the first page if no page
+     * was set.
+     */
+    @Test
+    public void testNextPageRequestKeepsFields()
+            throws OutsetaPageBuildException {
+
+        final Map<String, Object> customParams = new HashMap<>();
+        customParams.put("Name", "value");
+
+        final PageRequest request = PageRequest.builder()
+                .customParams(customParams)
+                .orderBy("Created")
+                .orderByDirection(Sort.DESC)
+                .build();
+
+        final PageRequest nextPageRequest = request.nextPageRequest();
+
+        assertEquals(1, nextPageRequest.getPageNum());
+        assertNull(nextPageRequest.getPageSize());
+        assertEquals("Created", nextPageRequest.getOrderBy());
+        assertEquals(Sort.DESC, nextPageRequest.getOrderByDirection());
+        assertEquals(customParams, nextPageRequest.getCustomParams());
+        assertEquals(request.buildParams().get("orderBy"),
+                nextPageRequest.buildParams().get("orderBy"));
+        assertEquals("value", nextPageRequest.buildParams().get("Name"));
+    }
+
     /**
      * This method is used to test the build params method.
      */
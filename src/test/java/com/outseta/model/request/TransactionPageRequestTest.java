@@ -130,6 +130,12 @@ public class TransactionPageRequestTest implements BaseInput {
             assertEquals(nextPageRequest.getPageSize(), PAGE_SIZE);
             assertEquals(nextPageRequest.getBillingTransactionType(),
                     BILLING_TRANSACTION_TYPE);
+
+            // The sort order and custom parameters are kept
+            assertEquals("id", nextPageRequest.getOrderBy());
+            assertEquals(Sort.ASC, nextPageRequest.getOrderByDirection());
+            assertEquals(transactionPageRequest.getCustomParams(),
+                    nextPageRequest.getCustomParams());
         });
     }
 }